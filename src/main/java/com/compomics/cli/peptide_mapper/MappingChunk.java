@@ -0,0 +1,108 @@
+package com.compomics.cli.peptide_mapper;
+
+import java.util.ArrayList;
+
+/**
+ * A chunk of input lines passed through the mapping pipeline together with
+ * the resulting output and timing information.
+ *
+ * @author Marc Vaudel
+ */
+public class MappingChunk {
+
+    /**
+     * The index of the chunk in the input file.
+     */
+    private final long index;
+    /**
+     * The input lines, null once mapped.
+     */
+    private final ArrayList<String> rows;
+    /**
+     * The time when the chunk was read in nanoseconds.
+     */
+    private final long readTime;
+    /**
+     * The output of the mapping, null if not mapped yet.
+     */
+    private final String output;
+    /**
+     * The time spent mapping the chunk in nanoseconds.
+     */
+    private final long mappingDuration;
+
+    /**
+     * Constructor for a chunk to map.
+     *
+     * @param index the index of the chunk in the input file
+     * @param rows the input lines
+     * @param readTime the time when the chunk was read in nanoseconds
+     */
+    public MappingChunk(long index, ArrayList<String> rows, long readTime) {
+        this.index = index;
+        this.rows = rows;
+        this.readTime = readTime;
+        this.output = null;
+        this.mappingDuration = 0;
+    }
+
+    /**
+     * Constructor for a mapped chunk. The input lines are not retained.
+     *
+     * @param inputChunk the chunk that was mapped
+     * @param output the output of the mapping
+     * @param mappingDuration the time spent mapping the chunk in nanoseconds
+     */
+    public MappingChunk(MappingChunk inputChunk, String output, long mappingDuration) {
+        this.index = inputChunk.index;
+        this.rows = null;
+        this.readTime = inputChunk.readTime;
+        this.output = output;
+        this.mappingDuration = mappingDuration;
+    }
+
+    /**
+     * Returns the index of the chunk in the input file.
+     *
+     * @return the index of the chunk in the input file
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * Returns the input lines, null once mapped.
+     *
+     * @return the input lines
+     */
+    public ArrayList<String> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns the time when the chunk was read in nanoseconds.
+     *
+     * @return the time when the chunk was read in nanoseconds
+     */
+    public long getReadTime() {
+        return readTime;
+    }
+
+    /**
+     * Returns the output of the mapping, null if not mapped yet.
+     *
+     * @return the output of the mapping
+     */
+    public String getOutput() {
+        return output;
+    }
+
+    /**
+     * Returns the time spent mapping the chunk in nanoseconds.
+     *
+     * @return the time spent mapping the chunk in nanoseconds
+     */
+    public long getMappingDuration() {
+        return mappingDuration;
+    }
+}
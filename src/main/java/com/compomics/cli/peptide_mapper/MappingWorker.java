@@ -3,54 +3,80 @@ package com.compomics.cli.peptide_mapper;
 import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidSequence;
 import com.compomics.util.experiment.identification.protein_inference.FastaMapper;
 import com.compomics.util.experiment.identification.protein_inference.PeptideProteinMapping;
-import com.compomics.util.gui.waiting.waitinghandlers.WaitingHandlerCLIImpl;
 import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
 import com.compomics.util.experiment.identification.amino_acid_tags.Tag;
 import com.compomics.util.experiment.identification.protein_inference.fm_index.FMIndex;
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.regex.Pattern;
 import com.compomics.util.experiment.identification.utils.PeptideUtils;
 import com.compomics.util.parameters.identification.IdentificationParameters;
+import com.compomics.util.waiting.WaitingHandler;
 
 /**
- * MappingWorker.
+ * MappingWorker mapping chunks of peptides or tags. A single worker can be
+ * shared by the threads of the mapping pool, the buffers are thread local.
  *
  * @author dominik.kopczynski
  */
-public class MappingWorker implements Runnable {
-
-    WaitingHandlerCLIImpl waitingHandlerCLIImpl = null;
-    FastaMapper peptideMapper = null;
-    SequenceMatchingParameters sequenceMatchingPreferences = null;
-    BufferedReader br = null;
-    PrintWriter writer = null;
-    int NUM_READS = 1000;
-    boolean flanking = false;
-    boolean peptideMapping = false;
-    public Exception exception = null;
-
-    public MappingWorker(WaitingHandlerCLIImpl waitingHandlerCLIImpl,
+public class MappingWorker {
+
+    /**
+     * The waiting handler.
+     */
+    private final WaitingHandler waitingHandler;
+    /**
+     * The peptide mapper.
+     */
+    private final FastaMapper peptideMapper;
+    /**
+     * The sequence matching preferences.
+     */
+    private final SequenceMatchingParameters sequenceMatchingPreferences;
+    /**
+     * Boolean indicating whether the flanking amino acids should be exported.
+     */
+    private final boolean flanking;
+    /**
+     * Boolean indicating whether peptides or tags are mapped.
+     */
+    private final boolean peptideMapping;
+    /**
+     * Pattern of the amino acid sequences in tags.
+     */
+    private static final Pattern AMINO_ACIDS = Pattern.compile("[a-zA-Z]+");
+    /**
+     * Thread local set used to remove duplicate output lines in a chunk.
+     */
+    private final ThreadLocal<LinkedHashSet<String>> outputData = ThreadLocal.withInitial(LinkedHashSet::new);
+    /**
+     * Thread local buffer used to build the output of a chunk.
+     */
+    private final ThreadLocal<StringBuilder> outputBuilder = ThreadLocal.withInitial(StringBuilder::new);
+
+    /**
+     * Constructor.
+     *
+     * @param waitingHandler the waiting handler
+     * @param peptideMapper the peptide mapper
+     * @param identificationParameters the identification parameters
+     * @param peptideMapping boolean indicating whether peptides or tags are
+     * mapped
+     */
+    public MappingWorker(
+            WaitingHandler waitingHandler,
             FastaMapper peptideMapper,
             IdentificationParameters identificationParameters,
-            BufferedReader br,
-            PrintWriter writer,
             boolean peptideMapping
     ) {
-        this.waitingHandlerCLIImpl = waitingHandlerCLIImpl;
+        this.waitingHandler = waitingHandler;
         this.peptideMapper = peptideMapper;
         this.sequenceMatchingPreferences = identificationParameters.getSequenceMatchingParameters();
-        this.br = br;
-        this.writer = writer;
         this.flanking = identificationParameters.getSearchParameters().getFlanking();
         this.peptideMapping = peptideMapping;
     }
 
     public String flanking(PeptideProteinMapping peptideProteinMapping, FastaMapper peptideMapper) {
-        
+
         String peptide = peptideProteinMapping.getPeptideSequence();
         String accession = peptideProteinMapping.getProteinAccession();
         int peptideLength = peptide.length();
@@ -73,138 +99,116 @@ public class MappingWorker implements Runnable {
         return peptide;
     }
 
-    @Override
-    public void run() {
-        
-        ArrayList<String> rows = new ArrayList<>();
-        HashSet<String> outputData = new HashSet<>();
-
-        while (true) {
-            rows.clear();
-            outputData.clear();
-
-            // readin input file batch wise
-            try {
-                String row = "";
-                int i = 0;
-                //synchronized(br){
-                while (!waitingHandlerCLIImpl.isRunCanceled() && i++ < NUM_READS && (row = br.readLine()) != null) {
-                    rows.add(row);
-                }
-                //}
-                if (waitingHandlerCLIImpl.isRunCanceled() || rows.isEmpty()) {
-                    break;
-                }
-
-            } catch (Exception e) {
-                waitingHandlerCLIImpl.setRunCanceled();
-                exception = new IOException("Error: cound not open input list.\n\n" + e);
-                return;
-            }
+    /**
+     * Maps the lines of the given chunk and returns a mapped chunk containing
+     * the output lines. Duplicate output lines are removed within a chunk.
+     *
+     * @param chunk the chunk to map
+     *
+     * @return the mapped chunk
+     */
+    public MappingChunk map(MappingChunk chunk) {
 
-            // map peptides sequences
-            if (peptideMapping) {
-                for (String inputPeptide : rows) {
-                    if (waitingHandlerCLIImpl.isRunCanceled()) {
-                        break;
-                    }
-                    for (char c : inputPeptide.toCharArray()) {
-                        if (!(((int) 'A' <= c && c <= (int) 'Z') || ((int) 'a' <= c && c <= (int) 'z'))) {
-                            waitingHandlerCLIImpl.setRunCanceled();
-                            exception = new RuntimeException("Error: invalid character in line '" + inputPeptide + "' -> '" + (char) c + "'.");
-                            return;
-                        }
-                    }
+        long start = System.nanoTime();
 
-                    try {
-                        for (PeptideProteinMapping peptideProteinMapping : peptideMapper.getProteinMapping(inputPeptide.toUpperCase(), sequenceMatchingPreferences)) {
-                            String peptide = peptideProteinMapping.getPeptideSequence();
+        LinkedHashSet<String> chunkOutput = outputData.get();
+        chunkOutput.clear();
 
-                            String accession = peptideProteinMapping.getProteinAccession();
-                            int startIndex = peptideProteinMapping.getIndex() + 1;
-                            if (flanking) {
-                                peptide = flanking(peptideProteinMapping, peptideMapper);
-                            }
+        if (peptideMapping) {
+            for (String inputPeptide : chunk.getRows()) {
+                if (waitingHandler.isRunCanceled()) {
+                    break;
+                }
+                for (char c : inputPeptide.toCharArray()) {
+                    if (!(((int) 'A' <= c && c <= (int) 'Z') || ((int) 'a' <= c && c <= (int) 'z'))) {
+                        waitingHandler.setRunCanceled();
+                        throw new IllegalArgumentException("Error: invalid character in line '" + inputPeptide + "' -> '" + (char) c + "'.");
+                    }
+                }
 
-                            String modifications = "";
+                try {
+                    for (PeptideProteinMapping peptideProteinMapping : peptideMapper.getProteinMapping(inputPeptide.toUpperCase(), sequenceMatchingPreferences)) {
+                        chunkOutput.add(getOutputLine(null, peptideProteinMapping));
+                    }
+                } catch (Exception e) {
+                    waitingHandler.setRunCanceled();
+                    throw new RuntimeException("An error occurred during the mapping of '" + inputPeptide + "'\n\n" + e, e);
+                }
+            }
 
-                            if (peptideProteinMapping.getVariableModifications() != null) {
-                                modifications = "," + PeptideUtils.getVariableModificationsAsString(peptideProteinMapping.getVariableModifications());
-                            }
+        } else {
+            for (String tagString : chunk.getRows()) {
+                if (waitingHandler.isRunCanceled()) {
+                    break;
+                }
 
-                            outputData.add(peptide + "," + accession + "," + startIndex + modifications);
+                Tag tag = new Tag();
+                for (String part : tagString.split(",")) {
+
+                    if (AMINO_ACIDS.matcher(part).matches()) {
+                        tag.addAminoAcidSequence(new AminoAcidSequence(part));
+                    } else {
+                        try {
+                            double mass = Double.parseDouble(part);
+                            tag.addMassGap(mass);
+                        } catch (NumberFormatException e) {
+                            waitingHandler.setRunCanceled();
+                            throw new IllegalArgumentException("Error: line contains no valid tag: '" + tagString + "'.\n\n" + e, e);
                         }
-                        waitingHandlerCLIImpl.increaseSecondaryProgressCounter();
-                    } catch (Exception e) {
-                        exception = new RuntimeException("An error occurred during the mapping of '" + inputPeptide + "'\n\n" + e);
-                        waitingHandlerCLIImpl.setRunCanceled();
                     }
                 }
 
-            } else {
-                for (String tagString : rows) {
-                    if (waitingHandlerCLIImpl.isRunCanceled()) {
-                        break;
+                try {
+                    for (PeptideProteinMapping peptideProteinMapping : peptideMapper.getProteinMapping(tag, sequenceMatchingPreferences)) {
+                        chunkOutput.add(getOutputLine(tagString, peptideProteinMapping));
                     }
+                } catch (Exception e) {
+                    waitingHandler.setRunCanceled();
+                    throw new RuntimeException("An error occurred during the mapping of '" + tagString + "'\n\n" + e, e);
+                }
+            }
+        }
 
-                    Tag tag = new Tag();
-                    for (String part : tagString.split(",")) {
-
-                        if (Pattern.matches("[a-zA-Z]+", part)) {
-                            tag.addAminoAcidSequence(new AminoAcidSequence(part));
-                        } else {
-                            try {
-                                double mass = Double.parseDouble(part);
-                                tag.addMassGap(mass);
-                            } catch (NumberFormatException e) {
-                                waitingHandlerCLIImpl.setRunCanceled();
-                                exception = new RuntimeException("Error: line contains no valid tag: '" + tagString + "'.\n\n" + e);
-                                return;
-                            }
-                        }
-                    }
+        StringBuilder builder = outputBuilder.get();
+        builder.setLength(0);
 
-                    try {
-                        for (PeptideProteinMapping peptideProteinMapping : peptideMapper.getProteinMapping(tag, sequenceMatchingPreferences)) {
-                            String peptide = peptideProteinMapping.getPeptideSequence();
+        for (String output : chunkOutput) {
+            builder.append(output).append(System.lineSeparator());
+        }
 
-                            String accession = peptideProteinMapping.getProteinAccession();
-                            int startIndex = peptideProteinMapping.getIndex() + 1;
-                            if (flanking) {
-                                peptide = flanking(peptideProteinMapping, peptideMapper);
-                            }
+        String output = builder.toString();
+        chunkOutput.clear();
 
-                            String modifications = "";
+        return new MappingChunk(chunk, output, System.nanoTime() - start);
+    }
 
-                            if (peptideProteinMapping.getVariableModifications() != null) {
-                                modifications = "," + PeptideUtils.getVariableModificationsAsString(peptideProteinMapping.getVariableModifications());
-                            }
+    /**
+     * Returns the output line for the given mapping.
+     *
+     * @param tagString the tag as found in the input, null for peptide
+     * mapping
+     * @param peptideProteinMapping the peptide to protein mapping
+     *
+     * @return the output line
+     */
+    private String getOutputLine(String tagString, PeptideProteinMapping peptideProteinMapping) {
 
-                            outputData.add(tagString + "," + peptide + "," + accession + "," + startIndex + modifications);
-                        }
-                        waitingHandlerCLIImpl.increaseSecondaryProgressCounter();
-                    } catch (Exception e) {
-                        exception = new RuntimeException("An error occurred during the mapping of '" + tagString + "'\n\n" + e);
-                        waitingHandlerCLIImpl.setRunCanceled();
-                    }
-                }
-            }
+        String peptide = peptideProteinMapping.getPeptideSequence();
 
-            // write out processed batch
-            try {
-                //synchronized(br){
-                for (String output : outputData) {
-                    if (waitingHandlerCLIImpl.isRunCanceled()) {
-                        break;
-                    }
-                    writer.println(output);
-                }
-                //}
-            } catch (Exception e) {
-                exception = new IOException("Error: could not write into file.\n\n" + e);
-                waitingHandlerCLIImpl.setRunCanceled();
-                return;
-            }
+        String accession = peptideProteinMapping.getProteinAccession();
+        int startIndex = peptideProteinMapping.getIndex() + 1;
+        if (flanking) {
+            peptide = flanking(peptideProteinMapping, peptideMapper);
         }
+
+        String modifications = "";
+
+        if (peptideProteinMapping.getVariableModifications() != null) {
+            modifications = "," + PeptideUtils.getVariableModificationsAsString(peptideProteinMapping.getVariableModifications());
+        }
+
+        return tagString == null
+                ? peptide + "," + accession + "," + startIndex + modifications
+                : tagString + "," + peptide + "," + accession + "," + startIndex + modifications;
     }
 }
@@ -11,19 +11,20 @@ import com.compomics.util.gui.waiting.waitinghandlers.WaitingHandlerCLIImpl;
 import com.compomics.util.parameters.identification.IdentificationParameters;
 import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
 import java.io.File;
+import java.io.IOException;
 import java.io.PrintWriter;
-import java.io.BufferedReader;
-import java.io.FileReader;
 import com.compomics.util.experiment.identification.protein_inference.FastaMapper;
 import com.compomics.util.experiment.io.identification.IdfileReader;
 import com.compomics.util.experiment.io.identification.IdfileReaderFactory;
 import com.compomics.util.experiment.io.mass_spectrometry.MsFileHandler;
 import com.compomics.util.io.IoUtil;
 import com.compomics.util.io.compression.ZipUtils;
-import java.nio.file.Files;
-import java.nio.file.Path;
+import com.compomics.util.io.flat.SimpleFileReader;
+import com.compomics.util.io.flat.SimpleFileWriter;
+import com.compomics.util.waiting.WaitingHandler;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.concurrent.*;
@@ -37,6 +38,10 @@ import java.util.stream.Collectors;
 public class PeptideMapperCLI {
 
     public static int TIMEOUT_DAYS = 1;
+    /**
+     * The number of lines processed per chunk.
+     */
+    public static int CHUNK_SIZE = 1000;
 
     public static void printHelp() {
         System.out.println("PeptideMapperCLI: a tool to map peptides or sequence tags against a given proteome.");
@@ -52,6 +57,9 @@ public class PeptideMapperCLI {
         System.out.println("\t-u [utilities-parameter-file]\tpeptide mapping");
         System.out.println("\t-f\tadd flanking amino acids to peptide in output");
         System.out.println("\t-c\tspecify the number of cores used");
+        System.out.println("\t-a\twrite the results as soon as available instead of in input order");
+        System.out.println();
+        System.out.println("Input and output files ending with .gz are read and written gzipped.");
 
         System.out.println();
         System.out.println("Default parameters:");
@@ -300,6 +308,7 @@ public class PeptideMapperCLI {
         String outputFileName = args[3];
         boolean flanking = false;
         boolean peptideMapping = args[0].equals("-p");
+        boolean ordered = true;
         int nCores = Runtime.getRuntime().availableProcessors();
 
         if (!args[0].equals("-p") && !args[0].equals("-t")) {
@@ -319,6 +328,11 @@ public class PeptideMapperCLI {
                         ++argPos;
                         break;
 
+                    case "-a":  // unordered output
+                        ordered = false;
+                        ++argPos;
+                        break;
+
                     case "-c": // number of cores
                         try {
                         nCores = Integer.parseInt(args[argPos + 1]);
@@ -367,7 +381,8 @@ public class PeptideMapperCLI {
                 inputFileName,
                 outputFileName,
                 nCores,
-                peptideMapping);
+                peptideMapping,
+                ordered);
     }
 
     public static void handleError(String outputFileName, String errorMessage, Throwable e) {
@@ -404,6 +419,36 @@ public class PeptideMapperCLI {
             int nCores,
             boolean peptideMapping) {
 
+        runMapping(fastaFile, waitingHandlerCLIImpl, identificationParameters, inputFileName, outputFileName, nCores, peptideMapping, true);
+
+    }
+
+    /**
+     * Maps the peptides or tags of the input file and writes the results to
+     * the output file. The input is read in chunks that are mapped in
+     * parallel and written in input order, or as soon as available if not
+     * ordered. Input and output files ending with .gz are gzipped.
+     *
+     * @param fastaFile the fasta file
+     * @param waitingHandlerCLIImpl the waiting handler
+     * @param identificationParameters the identification parameters
+     * @param inputFileName the input file
+     * @param outputFileName the output file
+     * @param nCores the number of threads to use for the mapping
+     * @param peptideMapping boolean indicating whether peptides or tags are
+     * mapped
+     * @param ordered boolean indicating whether the output should be written
+     * in the order of the input
+     */
+    public static void runMapping(File fastaFile,
+            WaitingHandlerCLIImpl waitingHandlerCLIImpl,
+            IdentificationParameters identificationParameters,
+            String inputFileName,
+            String outputFileName,
+            int nCores,
+            boolean peptideMapping,
+            boolean ordered) {
+
         // setting up the mapper
         FastaMapper peptideMapper = null;
         System.out.println("Start indexing fasta file");
@@ -422,57 +467,182 @@ public class PeptideMapperCLI {
         System.out.println();
         System.out.println("Start mapping using " + nCores + " threads");
 
-        // open input / output files
-        BufferedReader br = null;
-        PrintWriter writer = null;
-        long lineCount = 0;
         try {
-            br = new BufferedReader(new FileReader(inputFileName), 1024 * 1024 * 10);
-            Path path = Paths.get(inputFileName);
-            lineCount = Files.lines(path).count();
-            writer = new PrintWriter(outputFileName, "UTF-8");
+
+            mapFile(peptideMapper, waitingHandlerCLIImpl, identificationParameters, inputFileName, outputFileName, nCores, peptideMapping, ordered);
+
+        } catch (ExecutionException e) {
+            handleError(outputFileName, "Error: mapping went wrong", e.getCause());
         } catch (Exception e) {
-            handleError(outputFileName, "Error: could not open files properly.", e);
+            handleError(outputFileName, "Error: mapping went wrong", e);
         }
-        waitingHandlerCLIImpl.setSecondaryProgressCounterIndeterminate(false);
-        waitingHandlerCLIImpl.setMaxSecondaryProgressCounter((int) lineCount);
-        waitingHandlerCLIImpl.setSecondaryProgressCounter(0);
+    }
+
+    /**
+     * Maps the peptides or tags of the input file using the given mapper and
+     * writes the results to the output file. The input is read in chunks
+     * that are mapped in parallel and written in input order, or as soon as
+     * available if not ordered. Input and output files ending with .gz are
+     * gzipped.
+     *
+     * @param peptideMapper the peptide mapper
+     * @param waitingHandler the waiting handler
+     * @param identificationParameters the identification parameters
+     * @param inputFileName the input file
+     * @param outputFileName the output file
+     * @param nCores the number of threads to use for the mapping
+     * @param peptideMapping boolean indicating whether peptides or tags are
+     * mapped
+     * @param ordered boolean indicating whether the output should be written
+     * in the order of the input
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     * @throws InterruptedException exception thrown if the thread was
+     * interrupted while waiting for the mapping
+     * @throws ExecutionException exception thrown if the mapping of a chunk
+     * failed, e.g. because of a malformed input line
+     */
+    public static void mapFile(
+            FastaMapper peptideMapper,
+            WaitingHandler waitingHandler,
+            IdentificationParameters identificationParameters,
+            String inputFileName,
+            String outputFileName,
+            int nCores,
+            boolean peptideMapping,
+            boolean ordered
+    ) throws IOException, InterruptedException, ExecutionException {
+
+        waitingHandler.setSecondaryProgressCounterIndeterminate(false);
+        waitingHandler.setMaxSecondaryProgressCounter(100);
+        waitingHandler.setSecondaryProgressCounter(0);
+
+        MappingWorker mappingWorker = new MappingWorker(waitingHandler, peptideMapper, identificationParameters, peptideMapping);
+        ExecutorService pool = Executors.newFixedThreadPool(nCores);
+        // chunks are retrieved in submission order when ordered, in completion order otherwise
+        ArrayDeque<Future<MappingChunk>> pendingChunks = ordered ? new ArrayDeque<>(2 * nCores) : null;
+        ExecutorCompletionService<MappingChunk> completionService = ordered ? null : new ExecutorCompletionService<>(pool);
+        int maxPendingChunks = 2 * nCores;
+        int nPendingChunks = 0;
+
+        long nLines = 0;
+        long nChunks = 0;
+        long readingTime = 0;
+        long mappingTime = 0;
+        long writingTime = 0;
+        long totalLatency = 0;
+        long maxLatency = 0;
+
+        long startTimeMapping = System.nanoTime();
+
+        try (SimpleFileReader reader = SimpleFileReader.getFileReader(new File(inputFileName));
+                SimpleFileWriter writer = new SimpleFileWriter(new File(outputFileName), outputFileName.endsWith(".gz"))) {
+
+            boolean endOfFile = false;
+
+            while (!endOfFile || nPendingChunks > 0) {
+
+                // stop reading when canceled, the pending chunks are still collected to surface the error of a failed worker
+                if (waitingHandler.isRunCanceled()) {
+                    endOfFile = true;
+                }
+
+                // read the next chunk
+                if (!endOfFile) {
+
+                    long startTimeReading = System.nanoTime();
+
+                    ArrayList<String> rows = new ArrayList<>(CHUNK_SIZE);
+                    String row;
+
+                    while (rows.size() < CHUNK_SIZE && (row = reader.readLine()) != null) {
+                        rows.add(row);
+                    }
+
+                    endOfFile = rows.size() < CHUNK_SIZE;
+
+                    long endTimeReading = System.nanoTime();
+                    readingTime += endTimeReading - startTimeReading;
+
+                    if (!rows.isEmpty()) {
+
+                        MappingChunk chunk = new MappingChunk(nChunks++, rows, endTimeReading);
+                        nLines += rows.size();
+
+                        if (ordered) {
+                            pendingChunks.add(pool.submit(() -> mappingWorker.map(chunk)));
+                        } else {
+                            completionService.submit(() -> mappingWorker.map(chunk));
+                        }
+
+                        nPendingChunks++;
+
+                        waitingHandler.setSecondaryProgressCounter((int) reader.getProgressInPercent());
+
+                    }
+                }
+
+                // write the mapped chunks
+                while (nPendingChunks >= maxPendingChunks || endOfFile && nPendingChunks > 0) {
+
+                    MappingChunk chunk = ordered ? pendingChunks.pollFirst().get() : completionService.take().get();
+                    nPendingChunks--;
+
+                    long startTimeWriting = System.nanoTime();
+                    writer.write(chunk.getOutput());
+                    long endTimeWriting = System.nanoTime();
+
+                    writingTime += endTimeWriting - startTimeWriting;
+                    mappingTime += chunk.getMappingDuration();
+
+                    long latency = endTimeWriting - chunk.getReadTime();
+                    totalLatency += latency;
+                    maxLatency = Math.max(maxLatency, latency);
 
-        // starting the mapping
-        try {
-            long startTimeMapping = System.nanoTime();
-
-            ArrayList<MappingWorker> workers = new ArrayList<>();
-            ExecutorService importPool = Executors.newFixedThreadPool(nCores);
-            for (int i = 0; i < nCores; ++i) {
-                MappingWorker mw = new MappingWorker(waitingHandlerCLIImpl, peptideMapper, identificationParameters, br, writer, peptideMapping);
-                importPool.submit(mw);
-                workers.add(mw);
-            };
-            importPool.shutdown();
-            if (!importPool.awaitTermination(TIMEOUT_DAYS, TimeUnit.DAYS)) {
-                System.out.println("Analysis timed out (time out: " + TIMEOUT_DAYS + " days)");
-            }
-            for (MappingWorker mw : workers) {
-                if (mw.exception != null) {
-                    throw mw.exception;
                 }
             }
 
-            long diffTimeMapping = System.nanoTime() - startTimeMapping;
-            System.out.println();
-            System.out.println("Mapping " + lineCount + " peptides took " + (diffTimeMapping / 1e9) + " seconds");
+            pool.shutdown();
 
-        } catch (Exception e) {
-            handleError(outputFileName, "Error: mapping went wrong", e);
+            if (!pool.awaitTermination(TIMEOUT_DAYS, TimeUnit.DAYS)) {
+                System.out.println("Analysis timed out (time out: " + TIMEOUT_DAYS + " days)");
+            }
+
+        } finally {
+            pool.shutdownNow();
         }
 
-        // close everything
-        try {
-            writer.close();
-            br.close();
-        } catch (Exception e) {
-            handleError(outputFileName, "Error: could not close files properly", e);
+        if (waitingHandler.isRunCanceled()) {
+            throw new IOException("The mapping was canceled, the output file " + outputFileName + " is incomplete.");
+        }
+
+        long diffTimeMapping = System.nanoTime() - startTimeMapping;
+        System.out.println();
+        System.out.println("Mapping " + nLines + " lines took " + (diffTimeMapping / 1e9) + " seconds");
+        System.out.println("\treading:\t" + getStageReport(readingTime, nLines));
+        System.out.println("\tmapping:\t" + getStageReport(mappingTime, nLines) + ", cumulated over " + nCores + " threads");
+        System.out.println("\twriting:\t" + getStageReport(writingTime, nLines));
+
+        if (nChunks > 0) {
+            System.out.println("\tlatency per chunk of " + CHUNK_SIZE + " lines:\tmean " + (totalLatency / nChunks / 1e6) + " ms, max " + (maxLatency / 1e6) + " ms");
         }
     }
+
+    /**
+     * Returns the time spent in a stage of the mapping and its throughput as
+     * string.
+     *
+     * @param duration the time spent in nanoseconds
+     * @param nLines the number of lines processed
+     *
+     * @return the time spent in a stage of the mapping and its throughput
+     */
+    private static String getStageReport(long duration, long nLines) {
+
+        double seconds = duration / 1e9;
+
+        return seconds + " seconds" + (duration > 0 ? " (" + ((long) (nLines / seconds)) + " lines per second)" : "");
+
+    }
 }
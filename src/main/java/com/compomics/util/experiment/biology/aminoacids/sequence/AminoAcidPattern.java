@@ -38,6 +38,11 @@ public class AminoAcidPattern extends ExperimentObject {
      * single letter code. For trypsin: 0 &gt; {R, K} 1 &gt; {all but P}
      */
     private HashMap<Integer, ArrayList<Character>> residueTargeted = null;
+    /**
+     * Cache for the pattern compiled for the different matching types,
+     * indexed by matching type index.
+     */
+    private transient volatile CompiledAminoAcidPattern[] compiledPatterns = null;
 
     /**
      * Creates a blank pattern. All maps are null.
@@ -187,6 +192,7 @@ public class AminoAcidPattern extends ExperimentObject {
 
         // TODO: if an error should occur, an index shifting should be added here
         aaAtTarget = null;
+        compiledPatterns = null;
     }
 
     /**
@@ -249,6 +255,7 @@ public class AminoAcidPattern extends ExperimentObject {
         }
         residueTargeted = residueTargetedTmp;
         aaAtTarget = null;
+        compiledPatterns = null;
     }
 
     /**
@@ -290,6 +297,7 @@ public class AminoAcidPattern extends ExperimentObject {
             length = index + 1;
         }
         aaAtTarget = null;
+        compiledPatterns = null;
     }
 
     /**
@@ -327,6 +335,7 @@ public class AminoAcidPattern extends ExperimentObject {
             length = index + 1;
         }
         aaAtTarget = null;
+        compiledPatterns = null;
     }
 
     /**
@@ -383,6 +392,7 @@ public class AminoAcidPattern extends ExperimentObject {
         }
 
         aaAtTarget = null;
+        compiledPatterns = null;
         length = -1;
     }
 
@@ -515,27 +525,50 @@ public class AminoAcidPattern extends ExperimentObject {
     }
 
     /**
-     * Returns the indexes where the amino acid pattern was found in the input.
-     * 1 is the first amino acid.
+     * Returns the pattern compiled for the given sequence matching
+     * preferences. Compiled patterns are cached and reset when the pattern is
+     * edited.
      *
-     * @param input the amino acid input sequence as string
      * @param sequenceMatchingParameters the sequence matching preferences
      *
-     * @return a list of indexes where the amino acid pattern was found
+     * @return the compiled pattern
      */
-    public int[] getIndexes(String input, SequenceMatchingParameters sequenceMatchingParameters) {
+    public CompiledAminoAcidPattern getCompiledPattern(SequenceMatchingParameters sequenceMatchingParameters) {
 
-        ArrayList<Integer> result = new ArrayList<>(1);
-        int index = 0;
+        MatchingType matchingType = sequenceMatchingParameters.getSequenceMatchingType();
+        CompiledAminoAcidPattern[] tempCompiledPatterns = compiledPatterns;
 
-        while ((index = firstIndex(input, sequenceMatchingParameters, index)) >= 0) {
+        if (tempCompiledPatterns == null) {
 
-            result.add(index + 1);
-            index++;
+            tempCompiledPatterns = new CompiledAminoAcidPattern[MatchingType.values().length];
+            compiledPatterns = tempCompiledPatterns;
+
+        }
+
+        CompiledAminoAcidPattern compiledPattern = tempCompiledPatterns[matchingType.index];
+
+        if (compiledPattern == null) {
+
+            compiledPattern = new CompiledAminoAcidPattern(this, matchingType);
+            tempCompiledPatterns[matchingType.index] = compiledPattern;
 
         }
 
-        return result.stream().mapToInt(a -> a).toArray();
+        return compiledPattern;
+
+    }
+
+    /**
+     * Returns the indexes where the amino acid pattern was found in the input.
+     * 1 is the first amino acid.
+     *
+     * @param input the amino acid input sequence as string
+     * @param sequenceMatchingParameters the sequence matching preferences
+     *
+     * @return a list of indexes where the amino acid pattern was found
+     */
+    public int[] getIndexes(String input, SequenceMatchingParameters sequenceMatchingParameters) {
+        return getCompiledPattern(sequenceMatchingParameters).getIndexes(input);
     }
 
     /**
@@ -632,29 +665,7 @@ public class AminoAcidPattern extends ExperimentObject {
      * @return the first index where the amino acid pattern is found
      */
     public int firstIndex(String aminoAcidSequence, SequenceMatchingParameters sequenceMatchingParameters, int startIndex) {
-
-        int patternLength = length();
-        int aminoAcidPatternLength = aminoAcidSequence.length();
-        int lastIndex = aminoAcidPatternLength - patternLength;
-
-        for (int i = startIndex; i <= lastIndex; i++) {
-
-            boolean match = true;
-
-            for (int j = 0; j < patternLength; j++) {
-                char aa = aminoAcidSequence.charAt(i + j);
-                if (!isTargeted(aa, j, sequenceMatchingParameters)) {
-                    match = false;
-                    break;
-                }
-            }
-
-            if (match) {
-                return i;
-            }
-        }
-
-        return -1;
+        return getCompiledPattern(sequenceMatchingParameters).firstIndex(aminoAcidSequence, startIndex);
     }
 
     /**
@@ -800,16 +811,7 @@ public class AminoAcidPattern extends ExperimentObject {
      * amino acid sequence at the given index
      */
     public boolean matchesAt(String aminoAcidSequence, SequenceMatchingParameters sequenceMatchingParameters, int index) {
-        int startIndex = index;
-        int endIndex = length();
-        if (startIndex < 0) {
-            return false;
-        }
-        if (endIndex >= aminoAcidSequence.length()) {
-            return false;
-        }
-        String subSequence = aminoAcidSequence.substring(index, index + length());
-        return matches(subSequence, sequenceMatchingParameters);
+        return getCompiledPattern(sequenceMatchingParameters).matchesAt(aminoAcidSequence, index);
     }
 
     /**
@@ -822,7 +824,7 @@ public class AminoAcidPattern extends ExperimentObject {
      * acid sequence
      */
     public boolean matches(String aminoAcidSequence, SequenceMatchingParameters sequenceMatchingParameters) {
-        return length() == aminoAcidSequence.length() && firstIndex(aminoAcidSequence, sequenceMatchingParameters) >= 0;
+        return getCompiledPattern(sequenceMatchingParameters).matches(aminoAcidSequence);
     }
 
     /**
@@ -986,6 +988,9 @@ public class AminoAcidPattern extends ExperimentObject {
                 }
             }
         }
+
+        aaAtTarget = null;
+        compiledPatterns = null;
     }
 
     /**
@@ -1008,6 +1013,8 @@ public class AminoAcidPattern extends ExperimentObject {
         }
 
         length = patternLength + otherPattern.length();
+        aaAtTarget = null;
+        compiledPatterns = null;
     }
 
     /**
@@ -1087,6 +1094,8 @@ public class AminoAcidPattern extends ExperimentObject {
             residueTargeted = new HashMap<>(1);
         }
         residueTargeted.put(localization, ModificationSite);
+        aaAtTarget = null;
+        compiledPatterns = null;
     }
 
     /**
@@ -26,6 +26,10 @@ import java.util.stream.IntStream;
  */
 public class AminoAcidSequence extends ExperimentObject implements TagComponent {
 
+    /**
+     * Serial number for backward compatibility.
+     */
+    static final long serialVersionUID = -7930834501554703737L;
     /**
      * The sequence as string.
      */
@@ -43,6 +47,11 @@ public class AminoAcidSequence extends ExperimentObject implements TagComponent
      * Convenience array for no modifications
      */
     private static final ModificationMatch[] noMod = new ModificationMatch[0];
+    /**
+     * Cache for the sequence compiled as pattern for the last matching type
+     * used.
+     */
+    private transient CompiledSequence compiledSequence = null;
 
     /**
      * Creates a blank sequence. All maps are null.
@@ -270,7 +279,34 @@ public class AminoAcidSequence extends ExperimentObject implements TagComponent
      */
     public int firstIndex(String aminoAcidSequence, SequenceMatchingParameters sequenceMatchingPreferences) {
 
-        return AminoAcidPattern.getAminoAcidPatternFromString(sequence).firstIndex(aminoAcidSequence, sequenceMatchingPreferences, 0);
+        return getCompiledPattern(sequenceMatchingPreferences).firstIndex(aminoAcidSequence, 0);
+
+    }
+
+    /**
+     * Returns the sequence compiled as pattern for the given sequence matching
+     * preferences. The last compiled pattern is cached.
+     *
+     * @param sequenceMatchingPreferences the sequence matching preferences
+     *
+     * @return the sequence compiled as pattern
+     */
+    public CompiledAminoAcidPattern getCompiledPattern(SequenceMatchingParameters sequenceMatchingPreferences) {
+
+        String currentSequence = getSequence();
+        SequenceMatchingParameters.MatchingType matchingType = sequenceMatchingPreferences.getSequenceMatchingType();
+        CompiledSequence tempCompiledSequence = compiledSequence;
+
+        if (tempCompiledSequence == null
+                || tempCompiledSequence.sequence != currentSequence
+                || tempCompiledSequence.matchingType != matchingType) {
+
+            tempCompiledSequence = new CompiledSequence(currentSequence, matchingType);
+            compiledSequence = tempCompiledSequence;
+
+        }
+
+        return tempCompiledSequence.pattern;
 
     }
 
@@ -880,4 +916,35 @@ public class AminoAcidSequence extends ExperimentObject implements TagComponent
 
         }
     }
+
+    /**
+     * A sequence compiled as pattern for a given matching type.
+     */
+    private static class CompiledSequence {
+
+        /**
+         * The sequence.
+         */
+        private final String sequence;
+        /**
+         * The matching type.
+         */
+        private final SequenceMatchingParameters.MatchingType matchingType;
+        /**
+         * The compiled pattern.
+         */
+        private final CompiledAminoAcidPattern pattern;
+
+        /**
+         * Constructor.
+         *
+         * @param sequence the sequence
+         * @param matchingType the matching type
+         */
+        private CompiledSequence(String sequence, SequenceMatchingParameters.MatchingType matchingType) {
+            this.sequence = sequence;
+            this.matchingType = matchingType;
+            this.pattern = new CompiledAminoAcidPattern(sequence, matchingType);
+        }
+    }
 }
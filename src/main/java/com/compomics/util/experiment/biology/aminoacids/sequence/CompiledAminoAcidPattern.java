@@ -0,0 +1,521 @@
+package com.compomics.util.experiment.biology.aminoacids.sequence;
+
+import com.compomics.util.experiment.biology.aminoacids.AminoAcid;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters.MatchingType;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * An amino acid pattern compiled for a given matching type. Every position of
+ * the pattern is represented by a 128 bit mask of the characters it accepts,
+ * and patterns of up to 64 positions are scanned using a shift-and automaton.
+ * Characters outside the ASCII range are only accepted at positions accepting
+ * any amino acid. Scanning methods do not allocate objects.
+ *
+ * Compiled patterns are immutable and can be shared between threads.
+ *
+ * @author Marc Vaudel
+ */
+public class CompiledAminoAcidPattern {
+
+    /**
+     * The length of the pattern.
+     */
+    private final int length;
+    /**
+     * The lower 64 bits of the mask of every position.
+     */
+    private final long[] lowMasks;
+    /**
+     * The higher 64 bits of the mask of every position.
+     */
+    private final long[] highMasks;
+    /**
+     * For every character, the positions where it is accepted as a bit mask.
+     * Null if the pattern is longer than 64.
+     */
+    private final long[] positionsMasks;
+    /**
+     * The positions accepting any amino acid as a bit mask.
+     */
+    private final long anyMask;
+    /**
+     * Boolean array indicating whether a position accepts any amino acid.
+     */
+    private final boolean[] any;
+    /**
+     * The bit marking a complete match in the shift-and automaton.
+     */
+    private final long matchBit;
+
+    /**
+     * Constructor compiling an amino acid pattern.
+     *
+     * @param aminoAcidPattern the amino acid pattern
+     * @param matchingType the matching type
+     */
+    public CompiledAminoAcidPattern(AminoAcidPattern aminoAcidPattern, MatchingType matchingType) {
+
+        this.length = aminoAcidPattern.length();
+
+        lowMasks = new long[length];
+        highMasks = new long[length];
+        any = new boolean[length];
+
+        HashMap<Integer, ArrayList<Character>> residueTargeted = aminoAcidPattern.getAaTargeted();
+
+        if (residueTargeted != null) {
+
+            int minIndex = length > 0 ? aminoAcidPattern.getMinIndex() : 0;
+
+            for (int i = 0; i < length; i++) {
+
+                ArrayList<Character> targeted = residueTargeted.get(i + minIndex);
+
+                if (targeted != null) {
+
+                    if (targeted.isEmpty()) {
+
+                        setAny(i);
+
+                    } else {
+
+                        for (Character aa : targeted) {
+
+                            setTargeted(i, aa, matchingType);
+
+                        }
+                    }
+                }
+            }
+        }
+
+        positionsMasks = length <= Long.SIZE ? getPositionsMasks() : null;
+        anyMask = getAnyMask();
+        matchBit = length == 0 ? 0L : 1L << (length - 1);
+
+    }
+
+    /**
+     * Constructor compiling an amino acid sequence where every character is a
+     * position of the pattern.
+     *
+     * @param aminoAcidSequence the amino acid sequence
+     * @param matchingType the matching type
+     */
+    public CompiledAminoAcidPattern(String aminoAcidSequence, MatchingType matchingType) {
+
+        this.length = aminoAcidSequence.length();
+
+        lowMasks = new long[length];
+        highMasks = new long[length];
+        any = new boolean[length];
+
+        for (int i = 0; i < length; i++) {
+
+            setTargeted(i, aminoAcidSequence.charAt(i), matchingType);
+
+        }
+
+        positionsMasks = length <= Long.SIZE ? getPositionsMasks() : null;
+        anyMask = getAnyMask();
+        matchBit = length == 0 ? 0L : 1L << (length - 1);
+
+    }
+
+    /**
+     * Sets the given position as accepting any amino acid.
+     *
+     * @param index the index on the pattern
+     */
+    private void setAny(int index) {
+
+        any[index] = true;
+        lowMasks[index] = -1L;
+        highMasks[index] = -1L;
+
+    }
+
+    /**
+     * Sets the given amino acid and the amino acids matching it according to
+     * the matching type as accepted at the given position.
+     *
+     * @param index the index on the pattern
+     * @param aa the targeted amino acid
+     * @param matchingType the matching type
+     */
+    private void setTargeted(int index, char aa, MatchingType matchingType) {
+
+        setChar(index, aa);
+
+        if (matchingType == MatchingType.aminoAcid || matchingType == MatchingType.indistiguishableAminoAcids) {
+
+            AminoAcid aminoAcid = AminoAcid.getAminoAcid(aa);
+
+            for (char tempAa : aminoAcid.getSubAminoAcids()) {
+                setChar(index, tempAa);
+            }
+
+            for (char tempAa : aminoAcid.getCombinations()) {
+                setChar(index, tempAa);
+            }
+
+            if (matchingType == MatchingType.indistiguishableAminoAcids
+                    && (aminoAcid == AminoAcid.I || aminoAcid == AminoAcid.J || aminoAcid == AminoAcid.L)) {
+
+                setChar(index, 'I');
+                setChar(index, 'J');
+                setChar(index, 'L');
+
+            }
+        }
+    }
+
+    /**
+     * Sets the given character as accepted at the given position.
+     *
+     * @param index the index on the pattern
+     * @param aa the character
+     */
+    private void setChar(int index, char aa) {
+
+        if (aa < Long.SIZE) {
+
+            lowMasks[index] |= 1L << aa;
+
+        } else if (aa < 2 * Long.SIZE) {
+
+            highMasks[index] |= 1L << (aa - Long.SIZE);
+
+        }
+    }
+
+    /**
+     * Returns for every ASCII character the positions where it is accepted as
+     * a bit mask.
+     *
+     * @return the positions masks
+     */
+    private long[] getPositionsMasks() {
+
+        long[] result = new long[2 * Long.SIZE];
+
+        for (int i = 0; i < length; i++) {
+
+            long bit = 1L << i;
+
+            for (int aa = 0; aa < result.length; aa++) {
+
+                if (isSet(i, (char) aa)) {
+                    result[aa] |= bit;
+                }
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the positions accepting any amino acid as a bit mask. Only the
+     * first 64 positions are represented.
+     *
+     * @return the positions accepting any amino acid as a bit mask
+     */
+    private long getAnyMask() {
+
+        long result = 0L;
+
+        for (int i = 0; i < length && i < Long.SIZE; i++) {
+
+            if (any[i]) {
+                result |= 1L << i;
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Indicates whether the bit of the given character is set in the mask of
+     * the given position.
+     *
+     * @param index the index on the pattern
+     * @param aa the character
+     *
+     * @return a boolean indicating whether the bit is set
+     */
+    private boolean isSet(int index, char aa) {
+
+        if (aa < Long.SIZE) {
+
+            return (lowMasks[index] & (1L << aa)) != 0L;
+
+        } else if (aa < 2 * Long.SIZE) {
+
+            return (highMasks[index] & (1L << (aa - Long.SIZE))) != 0L;
+
+        }
+
+        return any[index];
+
+    }
+
+    /**
+     * Returns the length of the pattern.
+     *
+     * @return the length of the pattern
+     */
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Indicates whether the given amino acid is accepted at the given position
+     * of the pattern. 0 is the first position.
+     *
+     * @param aa the amino acid
+     * @param index the index on the pattern
+     *
+     * @return a boolean indicating whether the amino acid is accepted
+     */
+    public boolean isTargeted(char aa, int index) {
+        return index >= 0 && index < length && isSet(index, aa);
+    }
+
+    /**
+     * Indicates whether the pattern is found in the given sequence starting at
+     * the given index. 0 is the first amino acid. Returns false if the pattern
+     * does not fit in the sequence.
+     *
+     * @param sequence the sequence
+     * @param index the index on the sequence
+     *
+     * @return a boolean indicating whether the pattern is found at the given
+     * index
+     */
+    public boolean matchesAt(String sequence, int index) {
+
+        if (index < 0 || index + length > sequence.length()) {
+            return false;
+        }
+
+        for (int j = 0; j < length; j++) {
+
+            if (!isSet(j, sequence.charAt(index + j))) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Indicates whether the pattern is found in the given sequence starting at
+     * the given index. 0 is the first amino acid. Returns false if the pattern
+     * does not fit in the sequence.
+     *
+     * @param sequence the sequence
+     * @param index the index on the sequence
+     *
+     * @return a boolean indicating whether the pattern is found at the given
+     * index
+     */
+    public boolean matchesAt(char[] sequence, int index) {
+
+        if (index < 0 || index + length > sequence.length) {
+            return false;
+        }
+
+        for (int j = 0; j < length; j++) {
+
+            if (!isSet(j, sequence[index + j])) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Indicates whether the pattern matches the entire given sequence.
+     *
+     * @param sequence the sequence
+     *
+     * @return a boolean indicating whether the pattern matches the sequence
+     */
+    public boolean matches(String sequence) {
+        return sequence.length() == length && matchesAt(sequence, 0);
+    }
+
+    /**
+     * Returns the first index at or after the given start index where the
+     * pattern is found. -1 if not found. 0 is the first amino acid.
+     *
+     * @param sequence the sequence to look into
+     * @param startIndex the index where to start looking
+     *
+     * @return the first index where the pattern is found
+     */
+    public int firstIndex(String sequence, int startIndex) {
+
+        int sequenceLength = sequence.length();
+
+        if (length == 0) {
+            return startIndex <= sequenceLength ? startIndex : -1;
+        }
+
+        if (positionsMasks == null) {
+
+            for (int i = Math.max(startIndex, 0); i <= sequenceLength - length; i++) {
+
+                if (matchesAt(sequence, i)) {
+                    return i;
+                }
+            }
+
+            return -1;
+
+        }
+
+        long state = 0L;
+
+        for (int i = Math.max(startIndex, 0); i < sequenceLength; i++) {
+
+            char aa = sequence.charAt(i);
+            long aaMask = aa < positionsMasks.length ? positionsMasks[aa] : anyMask;
+            state = ((state << 1) | 1L) & aaMask;
+
+            if ((state & matchBit) != 0L) {
+                return i - length + 1;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Returns the first index at or after the given start index where the
+     * pattern is found. -1 if not found. 0 is the first amino acid.
+     *
+     * @param sequence the sequence to look into
+     * @param startIndex the index where to start looking
+     *
+     * @return the first index where the pattern is found
+     */
+    public int firstIndex(char[] sequence, int startIndex) {
+
+        int sequenceLength = sequence.length;
+
+        if (length == 0) {
+            return startIndex <= sequenceLength ? startIndex : -1;
+        }
+
+        if (positionsMasks == null) {
+
+            for (int i = Math.max(startIndex, 0); i <= sequenceLength - length; i++) {
+
+                if (matchesAt(sequence, i)) {
+                    return i;
+                }
+            }
+
+            return -1;
+
+        }
+
+        long state = 0L;
+
+        for (int i = Math.max(startIndex, 0); i < sequenceLength; i++) {
+
+            char aa = sequence[i];
+            long aaMask = aa < positionsMasks.length ? positionsMasks[aa] : anyMask;
+            state = ((state << 1) | 1L) & aaMask;
+
+            if ((state & matchBit) != 0L) {
+                return i - length + 1;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Indicates whether the pattern is found in the given sequence.
+     *
+     * @param sequence the sequence
+     *
+     * @return a boolean indicating whether the pattern is found
+     */
+    public boolean matchesIn(String sequence) {
+        return firstIndex(sequence, 0) >= 0;
+    }
+
+    /**
+     * Writes the indexes where the pattern is found in the given sequence to
+     * the destination array and returns their number. 1 is the first amino
+     * acid. If the destination array is too small, only the first indexes are
+     * written but all are counted.
+     *
+     * @param sequence the sequence
+     * @param destination the array where to write the indexes
+     *
+     * @return the number of indexes where the pattern is found
+     */
+    public int getIndexes(String sequence, int[] destination) {
+
+        int nIndexes = 0;
+        int index = 0;
+
+        while ((index = firstIndex(sequence, index)) >= 0) {
+
+            if (nIndexes < destination.length) {
+                destination[nIndexes] = index + 1;
+            }
+
+            nIndexes++;
+            index++;
+
+        }
+
+        return nIndexes;
+
+    }
+
+    /**
+     * Returns the indexes where the pattern is found in the given sequence. 1
+     * is the first amino acid.
+     *
+     * @param sequence the sequence
+     *
+     * @return the indexes where the pattern is found
+     */
+    public int[] getIndexes(String sequence) {
+
+        int nIndexes = 0;
+        int index = 0;
+
+        while ((index = firstIndex(sequence, index)) >= 0) {
+
+            nIndexes++;
+            index++;
+
+        }
+
+        int[] result = new int[nIndexes];
+
+        if (nIndexes > 0) {
+
+            getIndexes(sequence, result);
+
+        }
+
+        return result;
+
+    }
+}
@@ -289,6 +289,17 @@ public abstract class Atom extends ExperimentObject {
         return null;
     }
 
+    /**
+     * Returns the representative composition of the stable isotopes, i.e.
+     * the natural abundance indexed by isotope number relative to the
+     * monoisotopic peak. Null if not available.
+     *
+     * @return the representative composition of the stable isotopes
+     */
+    public HashMap<Integer, Double> getRepresentativeComposition() {
+        return representativeComposition;
+    }
+
     /**
      * Returns the mass difference between the given isotope and the
      * monoisotopic mass.
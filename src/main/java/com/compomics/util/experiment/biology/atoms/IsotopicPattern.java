@@ -0,0 +1,208 @@
+package com.compomics.util.experiment.biology.atoms;
+
+import com.compomics.util.experiment.biology.ions.impl.ElementaryIon;
+
+/**
+ * The isotopic pattern of a molecule, i.e. the abundance of the isotopic
+ * peaks indexed by isotope number relative to the monoisotopic peak (+1 for
+ * one carbon 13). Peaks of the same nominal isotope number are aggregated,
+ * their mass is the abundance weighted average mass. Patterns are immutable
+ * and can be shared between threads.
+ *
+ * @author Marc Vaudel
+ */
+public class IsotopicPattern {
+
+    /**
+     * The monoisotopic mass of the molecule.
+     */
+    private final double monoisotopicMass;
+    /**
+     * The isotope number of the first peak.
+     */
+    private final int firstIsotope;
+    /**
+     * The abundances of the peaks, summing to one.
+     */
+    private final double[] abundances;
+    /**
+     * The average mass difference of the peaks to the monoisotopic mass.
+     */
+    private final double[] massDifferences;
+    /**
+     * The index of the most abundant peak.
+     */
+    private final int mostAbundantIndex;
+
+    /**
+     * Constructor.
+     *
+     * @param monoisotopicMass the monoisotopic mass of the molecule
+     * @param firstIsotope the isotope number of the first peak
+     * @param abundances the abundances of the peaks, summing to one
+     * @param massDifferences the average mass difference of the peaks to the
+     * monoisotopic mass
+     */
+    public IsotopicPattern(
+            double monoisotopicMass,
+            int firstIsotope,
+            double[] abundances,
+            double[] massDifferences
+    ) {
+
+        if (abundances.length != massDifferences.length) {
+            throw new IllegalArgumentException("The number of abundances and mass differences must be the same.");
+        }
+
+        this.monoisotopicMass = monoisotopicMass;
+        this.firstIsotope = firstIsotope;
+        this.abundances = abundances;
+        this.massDifferences = massDifferences;
+
+        int maxIndex = 0;
+
+        for (int i = 1; i < abundances.length; i++) {
+
+            if (abundances[i] > abundances[maxIndex]) {
+                maxIndex = i;
+            }
+        }
+
+        this.mostAbundantIndex = maxIndex;
+
+    }
+
+    /**
+     * Returns the monoisotopic mass of the molecule.
+     *
+     * @return the monoisotopic mass of the molecule
+     */
+    public double getMonoisotopicMass() {
+        return monoisotopicMass;
+    }
+
+    /**
+     * Returns the isotope number of the first peak, 0 unless the molecule
+     * contains atoms with lighter isotopes than the monoisotopic one.
+     *
+     * @return the isotope number of the first peak
+     */
+    public int getFirstIsotope() {
+        return firstIsotope;
+    }
+
+    /**
+     * Returns the isotope number of the last peak.
+     *
+     * @return the isotope number of the last peak
+     */
+    public int getLastIsotope() {
+        return firstIsotope + abundances.length - 1;
+    }
+
+    /**
+     * Returns the number of peaks.
+     *
+     * @return the number of peaks
+     */
+    public int getNPeaks() {
+        return abundances.length;
+    }
+
+    /**
+     * Returns the abundance of the given isotope relative to the total, 0 if
+     * outside the pattern.
+     *
+     * @param isotope the isotope number relative to the monoisotopic peak
+     *
+     * @return the abundance of the given isotope
+     */
+    public double getAbundance(int isotope) {
+
+        int index = isotope - firstIsotope;
+
+        return index >= 0 && index < abundances.length ? abundances[index] : 0.0;
+
+    }
+
+    /**
+     * Returns the abundance of the given isotope relative to the most
+     * abundant peak, 0 if outside the pattern.
+     *
+     * @param isotope the isotope number relative to the monoisotopic peak
+     *
+     * @return the abundance of the given isotope relative to the most
+     * abundant peak
+     */
+    public double getRelativeAbundance(int isotope) {
+        return getAbundance(isotope) / abundances[mostAbundantIndex];
+    }
+
+    /**
+     * Returns the isotope number of the most abundant peak.
+     *
+     * @return the isotope number of the most abundant peak
+     */
+    public int getMostAbundantIsotope() {
+        return firstIsotope + mostAbundantIndex;
+    }
+
+    /**
+     * Returns the average mass of the given isotope. For isotopes outside the
+     * pattern, the mass is estimated using the carbon 13 mass difference.
+     *
+     * @param isotope the isotope number relative to the monoisotopic peak
+     *
+     * @return the average mass of the given isotope
+     */
+    public double getMass(int isotope) {
+
+        int index = isotope - firstIsotope;
+
+        if (index >= 0 && index < abundances.length && abundances[index] > 0.0) {
+            return monoisotopicMass + massDifferences[index];
+        }
+
+        return monoisotopicMass + isotope * Atom.C.getDifferenceToMonoisotopic(1);
+
+    }
+
+    /**
+     * Returns the m/z of the given isotope at the given charge.
+     *
+     * @param isotope the isotope number relative to the monoisotopic peak
+     * @param charge the charge
+     *
+     * @return the m/z of the given isotope at the given charge
+     */
+    public double getMz(int isotope, int charge) {
+        return (getMass(isotope) + charge * ElementaryIon.proton.getTheoreticMass()) / charge;
+    }
+
+    /**
+     * Returns a copy of the abundances of the peaks, summing to one.
+     *
+     * @return the abundances of the peaks
+     */
+    public double[] getAbundances() {
+        return abundances.clone();
+    }
+
+    /**
+     * Returns the abundances of the peaks relative to the most abundant peak.
+     *
+     * @return the abundances of the peaks relative to the most abundant peak
+     */
+    public double[] getRelativeAbundances() {
+
+        double[] result = new double[abundances.length];
+        double max = abundances[mostAbundantIndex];
+
+        for (int i = 0; i < abundances.length; i++) {
+            result[i] = abundances[i] / max;
+        }
+
+        return result;
+
+    }
+}
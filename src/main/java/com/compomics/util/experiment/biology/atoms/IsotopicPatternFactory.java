@@ -0,0 +1,793 @@
+package com.compomics.util.experiment.biology.atoms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Factory computing the isotopic patterns of atom chains. The distribution of
+ * every element is raised to the number of atoms by successive polynomial
+ * convolutions on primitive arrays, pruning peaks of negligible abundance.
+ * The powers of the elements are tabulated, and the patterns are cached by
+ * elemental composition, so that the pattern of a composition already seen is
+ * returned without computation. Atoms labeled with a specific isotope are
+ * considered pure and do not contribute to the pattern. The factory is thread
+ * safe.
+ *
+ * @author Marc Vaudel
+ */
+public class IsotopicPatternFactory {
+
+    /**
+     * The default abundance relative to the most abundant peak under which
+     * peaks are removed from the patterns.
+     */
+    public static final double DEFAULT_THRESHOLD = 1e-6;
+    /**
+     * The default maximal number of peaks of the patterns.
+     */
+    public static final int DEFAULT_MAX_PEAKS = 32;
+    /**
+     * The default maximal number of patterns to cache.
+     */
+    public static final int DEFAULT_CAPACITY = 100000;
+    /**
+     * The abundance relative to the most abundant peak under which peaks are
+     * removed during the convolutions.
+     */
+    private static final double CONVOLUTION_THRESHOLD = 1e-12;
+    /**
+     * The maximal number of atoms for which the distribution of an element is
+     * tabulated.
+     */
+    private static final int MAX_TABULATED = 4096;
+    /**
+     * The mass of the averagine residue.
+     */
+    public static final double AVERAGINE_MASS = 111.1254;
+    /**
+     * The number of carbon atoms per averagine residue.
+     */
+    public static final double AVERAGINE_C = 4.9384;
+    /**
+     * The number of nitrogen atoms per averagine residue.
+     */
+    public static final double AVERAGINE_N = 1.3577;
+    /**
+     * The number of oxygen atoms per averagine residue.
+     */
+    public static final double AVERAGINE_O = 1.4773;
+    /**
+     * The number of sulfur atoms per averagine residue.
+     */
+    public static final double AVERAGINE_S = 0.0417;
+    /**
+     * The atoms supported.
+     */
+    private static final Atom[] ATOMS;
+    /**
+     * The index of the atoms by symbol.
+     */
+    private static final HashMap<String, Integer> ATOM_INDEXES;
+    /**
+     * The tabulated distributions of the elements.
+     */
+    private static final ElementTable[] ELEMENT_TABLES;
+
+    static {
+
+        String[] atomSymbols = Atom.getImplementedAtoms(false);
+        ATOMS = new Atom[atomSymbols.length];
+        ATOM_INDEXES = new HashMap<>(atomSymbols.length);
+        ELEMENT_TABLES = new ElementTable[atomSymbols.length];
+
+        for (int i = 0; i < atomSymbols.length; i++) {
+
+            ATOMS[i] = Atom.getAtom(atomSymbols[i]);
+            ATOM_INDEXES.put(atomSymbols[i], i);
+            ELEMENT_TABLES[i] = new ElementTable(ATOMS[i]);
+
+        }
+    }
+
+    /**
+     * The instance of the factory.
+     */
+    private static final IsotopicPatternFactory INSTANCE = new IsotopicPatternFactory(DEFAULT_THRESHOLD, DEFAULT_MAX_PEAKS, DEFAULT_CAPACITY);
+    /**
+     * The abundance relative to the most abundant peak under which peaks are
+     * removed from the patterns.
+     */
+    private final double threshold;
+    /**
+     * The maximal number of peaks of the patterns.
+     */
+    private final int maxPeaks;
+    /**
+     * The maximal number of patterns to cache.
+     */
+    private final int capacity;
+    /**
+     * The patterns indexed by composition.
+     */
+    private final ConcurrentHashMap<Composition, IsotopicPattern> patterns = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param threshold the abundance relative to the most abundant peak under
+     * which peaks are removed from the patterns
+     * @param maxPeaks the maximal number of peaks of the patterns
+     * @param capacity the maximal number of patterns to cache
+     */
+    public IsotopicPatternFactory(
+            double threshold,
+            int maxPeaks,
+            int capacity
+    ) {
+
+        if (threshold < 0.0 || threshold >= 1.0) {
+            throw new IllegalArgumentException("The threshold must be in [0, 1[.");
+        }
+        if (maxPeaks <= 0) {
+            throw new IllegalArgumentException("The maximal number of peaks must be strictly positive.");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of the cache must be strictly positive.");
+        }
+
+        this.threshold = threshold;
+        this.maxPeaks = maxPeaks;
+        this.capacity = capacity;
+
+    }
+
+    /**
+     * Returns the instance of the factory with default settings.
+     *
+     * @return the instance of the factory with default settings
+     */
+    public static IsotopicPatternFactory getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the isotopic pattern of the given atom chain.
+     *
+     * @param atomChain the atom chain
+     *
+     * @return the isotopic pattern of the atom chain
+     */
+    public IsotopicPattern getPattern(AtomChain atomChain) {
+
+        int[] counts = new int[ATOMS.length];
+        boolean labeled = false;
+
+        for (AtomImpl atomImpl : atomChain.getAtomChain()) {
+
+            Integer isotope = atomImpl.getIsotope();
+
+            if (isotope == null || isotope == 0) {
+
+                Integer index = ATOM_INDEXES.get(atomImpl.getAtomSymbol());
+
+                if (index == null) {
+                    throw new IllegalArgumentException("Atom " + atomImpl.getAtomSymbol() + " not supported.");
+                }
+
+                counts[index]++;
+
+            } else {
+
+                labeled = true;
+
+            }
+        }
+
+        IsotopicPattern pattern = getPattern(counts);
+
+        if (labeled) {
+
+            // Labeled atoms only shift the monoisotopic mass
+            pattern = new IsotopicPattern(
+                    atomChain.getMass(),
+                    pattern.getFirstIsotope(),
+                    pattern.getAbundances(),
+                    getMassDifferences(pattern)
+            );
+
+        }
+
+        return pattern;
+
+    }
+
+    /**
+     * Returns the isotopic pattern of an averagine molecule of the given
+     * mass. The numbers of carbon, nitrogen, oxygen, and sulfur atoms are
+     * rounded from the averagine composition, and the remaining mass is
+     * filled with hydrogen.
+     *
+     * @param mass the monoisotopic mass of the molecule
+     *
+     * @return the isotopic pattern of the averagine molecule
+     */
+    public IsotopicPattern getAveraginePattern(double mass) {
+
+        if (mass < 0.0) {
+            throw new IllegalArgumentException("Negative mass " + mass + ".");
+        }
+
+        double nResidues = mass / AVERAGINE_MASS;
+
+        int nC = (int) Math.round(AVERAGINE_C * nResidues);
+        int nN = (int) Math.round(AVERAGINE_N * nResidues);
+        int nO = (int) Math.round(AVERAGINE_O * nResidues);
+        int nS = (int) Math.round(AVERAGINE_S * nResidues);
+
+        double remainingMass = mass
+                - nC * Atom.C.getMonoisotopicMass()
+                - nN * Atom.N.getMonoisotopicMass()
+                - nO * Atom.O.getMonoisotopicMass()
+                - nS * Atom.S.getMonoisotopicMass();
+        int nH = Math.max(0, (int) Math.round(remainingMass / Atom.H.getMonoisotopicMass()));
+
+        int[] counts = new int[ATOMS.length];
+        counts[ATOM_INDEXES.get("C")] = nC;
+        counts[ATOM_INDEXES.get("H")] = nH;
+        counts[ATOM_INDEXES.get("N")] = nN;
+        counts[ATOM_INDEXES.get("O")] = nO;
+        counts[ATOM_INDEXES.get("S")] = nS;
+
+        return getPattern(counts);
+
+    }
+
+    /**
+     * Returns the isotopic patterns of the given atom chains, computed in
+     * parallel.
+     *
+     * @param atomChains the atom chains
+     * @param nThreads the number of threads to use
+     *
+     * @return the isotopic patterns of the atom chains in the same order
+     */
+    public IsotopicPattern[] getPatterns(
+            List<AtomChain> atomChains,
+            int nThreads
+    ) {
+
+        IsotopicPattern[] result = new IsotopicPattern[atomChains.size()];
+
+        runInBlocks(result.length, nThreads, (start, end) -> {
+
+            for (int i = start; i < end; i++) {
+
+                result[i] = getPattern(atomChains.get(i));
+
+            }
+        });
+
+        return result;
+
+    }
+
+    /**
+     * Returns the isotopic patterns of averagine molecules of the given
+     * masses, computed in parallel.
+     *
+     * @param masses the monoisotopic masses of the molecules
+     * @param nThreads the number of threads to use
+     *
+     * @return the isotopic patterns of the averagine molecules in the same
+     * order
+     */
+    public IsotopicPattern[] getAveraginePatterns(
+            double[] masses,
+            int nThreads
+    ) {
+
+        IsotopicPattern[] result = new IsotopicPattern[masses.length];
+
+        runInBlocks(result.length, nThreads, (start, end) -> {
+
+            for (int i = start; i < end; i++) {
+
+                result[i] = getAveraginePattern(masses[i]);
+
+            }
+        });
+
+        return result;
+
+    }
+
+    /**
+     * Returns the number of patterns cached.
+     *
+     * @return the number of patterns cached
+     */
+    public int size() {
+        return patterns.size();
+    }
+
+    /**
+     * Empties the cache.
+     */
+    public void clear() {
+        patterns.clear();
+    }
+
+    /**
+     * Returns the pattern for the given composition from the cache, computes
+     * it if not cached.
+     *
+     * @param counts the number of atoms of every element
+     *
+     * @return the pattern for the given composition
+     */
+    private IsotopicPattern getPattern(int[] counts) {
+
+        Composition composition = new Composition(counts);
+        IsotopicPattern pattern = patterns.get(composition);
+
+        if (pattern == null) {
+
+            pattern = computePattern(counts);
+
+            if (patterns.size() >= capacity) {
+                patterns.clear();
+            }
+
+            patterns.put(composition, pattern);
+
+        }
+
+        return pattern;
+
+    }
+
+    /**
+     * Computes the pattern for the given composition.
+     *
+     * @param counts the number of atoms of every element
+     *
+     * @return the pattern for the given composition
+     */
+    private IsotopicPattern computePattern(int[] counts) {
+
+        Distribution distribution = Distribution.MONOISOTOPIC;
+        double monoisotopicMass = 0.0;
+
+        for (int i = 0; i < counts.length; i++) {
+
+            if (counts[i] > 0) {
+
+                monoisotopicMass += counts[i] * ATOMS[i].getMonoisotopicMass();
+                distribution = Distribution.convolve(distribution, ELEMENT_TABLES[i].get(counts[i]), CONVOLUTION_THRESHOLD);
+
+            }
+        }
+
+        // Prune the peaks under the threshold
+        double[] abundances = distribution.abundances;
+        double max = 0.0;
+
+        for (double abundance : abundances) {
+            max = Math.max(max, abundance);
+        }
+
+        int start = 0;
+        int end = abundances.length;
+
+        while (start < end - 1 && abundances[start] < threshold * max) {
+            start++;
+        }
+        while (end - 1 > start && abundances[end - 1] < threshold * max) {
+            end--;
+        }
+
+        // Keep the maximal number of peaks, removing the least abundant end
+        while (end - start > maxPeaks) {
+
+            if (abundances[start] < abundances[end - 1]) {
+                start++;
+            } else {
+                end--;
+            }
+        }
+
+        double total = 0.0;
+
+        for (int i = start; i < end; i++) {
+            total += abundances[i];
+        }
+
+        double[] patternAbundances = new double[end - start];
+        double[] massDifferences = new double[end - start];
+
+        for (int i = start; i < end; i++) {
+
+            patternAbundances[i - start] = abundances[i] / total;
+            massDifferences[i - start] = abundances[i] > 0.0 ? distribution.weightedMassDifferences[i] / abundances[i] : 0.0;
+
+        }
+
+        return new IsotopicPattern(monoisotopicMass, distribution.firstIsotope + start, patternAbundances, massDifferences);
+
+    }
+
+    /**
+     * Returns the mass differences of the peaks of the given pattern.
+     *
+     * @param pattern the pattern
+     *
+     * @return the mass differences of the peaks
+     */
+    private static double[] getMassDifferences(IsotopicPattern pattern) {
+
+        double[] massDifferences = new double[pattern.getNPeaks()];
+
+        for (int i = 0; i < massDifferences.length; i++) {
+
+            int isotope = pattern.getFirstIsotope() + i;
+            massDifferences[i] = pattern.getMass(isotope) - pattern.getMonoisotopicMass();
+
+        }
+
+        return massDifferences;
+
+    }
+
+    /**
+     * Runs the given block task on blocks of the given range in parallel.
+     * Exceptions thrown by the tasks are thrown as runtime exceptions.
+     *
+     * @param length the length of the range
+     * @param nThreads the number of threads to use
+     * @param blockTask the task to run on every block
+     */
+    private static void runInBlocks(
+            int length,
+            int nThreads,
+            BlockTask blockTask
+    ) {
+
+        if (nThreads <= 1 || length < 2 * nThreads) {
+
+            blockTask.run(0, length);
+            return;
+
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+
+        try {
+
+            int blockSize = (length + nThreads - 1) / nThreads;
+            ArrayList<Callable<Object>> tasks = new ArrayList<>(nThreads);
+
+            for (int start = 0; start < length; start += blockSize) {
+
+                int blockStart = start;
+                int blockEnd = Math.min(start + blockSize, length);
+
+                tasks.add(() -> {
+
+                    blockTask.run(blockStart, blockEnd);
+                    return null;
+
+                });
+            }
+
+            for (Future<Object> future : pool.invokeAll(tasks)) {
+
+                future.get();
+
+            }
+
+        } catch (InterruptedException e) {
+
+            throw new RuntimeException(e);
+
+        } catch (ExecutionException e) {
+
+            throw new RuntimeException(e.getCause());
+
+        } finally {
+
+            pool.shutdown();
+
+        }
+    }
+
+    /**
+     * Task run on a block of a range.
+     */
+    private interface BlockTask {
+
+        /**
+         * Runs the task on the given block.
+         *
+         * @param start the start of the block, inclusive
+         * @param end the end of the block, exclusive
+         */
+        void run(int start, int end);
+
+    }
+
+    /**
+     * The elemental composition of a molecule, used as key in the cache.
+     */
+    private static class Composition {
+
+        /**
+         * The number of atoms of every element.
+         */
+        private final int[] counts;
+        /**
+         * The hash code.
+         */
+        private final int hashCode;
+
+        /**
+         * Constructor.
+         *
+         * @param counts the number of atoms of every element
+         */
+        private Composition(int[] counts) {
+
+            this.counts = counts;
+            this.hashCode = Arrays.hashCode(counts);
+
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            return obj instanceof Composition
+                    && ((Composition) obj).hashCode == hashCode
+                    && Arrays.equals(((Composition) obj).counts, counts);
+
+        }
+    }
+
+    /**
+     * An isotopic distribution as primitive arrays.
+     */
+    private static class Distribution {
+
+        /**
+         * The distribution of a molecule made of monoisotopic atoms only.
+         */
+        private static final Distribution MONOISOTOPIC = new Distribution(0, new double[]{1.0}, new double[]{0.0});
+        /**
+         * The isotope number of the first peak.
+         */
+        private final int firstIsotope;
+        /**
+         * The abundances of the peaks.
+         */
+        private final double[] abundances;
+        /**
+         * The mass differences to the monoisotopic mass of the peaks,
+         * multiplied by the abundance.
+         */
+        private final double[] weightedMassDifferences;
+
+        /**
+         * Constructor.
+         *
+         * @param firstIsotope the isotope number of the first peak
+         * @param abundances the abundances of the peaks
+         * @param weightedMassDifferences the mass differences to the
+         * monoisotopic mass of the peaks, multiplied by the abundance
+         */
+        private Distribution(int firstIsotope, double[] abundances, double[] weightedMassDifferences) {
+
+            this.firstIsotope = firstIsotope;
+            this.abundances = abundances;
+            this.weightedMassDifferences = weightedMassDifferences;
+
+        }
+
+        /**
+         * Returns the distribution of the combination of two molecules.
+         * Peaks at the ends of the distribution with an abundance lower than
+         * the threshold relative to the most abundant peak are removed.
+         *
+         * @param distribution1 the distribution of the first molecule
+         * @param distribution2 the distribution of the second molecule
+         * @param threshold the relative abundance threshold
+         *
+         * @return the distribution of the combination of the two molecules
+         */
+        private static Distribution convolve(
+                Distribution distribution1,
+                Distribution distribution2,
+                double threshold
+        ) {
+
+            double[] p1 = distribution1.abundances;
+            double[] w1 = distribution1.weightedMassDifferences;
+            double[] p2 = distribution2.abundances;
+            double[] w2 = distribution2.weightedMassDifferences;
+
+            int length = p1.length + p2.length - 1;
+            double[] p = new double[length];
+            double[] w = new double[length];
+
+            for (int i = 0; i < p1.length; i++) {
+
+                double p1i = p1[i];
+                double w1i = w1[i];
+
+                if (p1i == 0.0) {
+                    continue;
+                }
+
+                for (int j = 0; j < p2.length; j++) {
+
+                    p[i + j] += p1i * p2[j];
+                    w[i + j] += w1i * p2[j] + p1i * w2[j];
+
+                }
+            }
+
+            double max = 0.0;
+
+            for (double abundance : p) {
+                max = Math.max(max, abundance);
+            }
+
+            int start = 0;
+            int end = length;
+
+            while (start < end - 1 && p[start] < threshold * max) {
+                start++;
+            }
+            while (end - 1 > start && p[end - 1] < threshold * max) {
+                end--;
+            }
+
+            if (start > 0 || end < length) {
+
+                p = Arrays.copyOfRange(p, start, end);
+                w = Arrays.copyOfRange(w, start, end);
+
+            }
+
+            return new Distribution(distribution1.firstIsotope + distribution2.firstIsotope + start, p, w);
+
+        }
+    }
+
+    /**
+     * The tabulated distributions of an element for increasing numbers of
+     * atoms.
+     */
+    private static class ElementTable {
+
+        /**
+         * The distribution of a single atom.
+         */
+        private final Distribution atomDistribution;
+        /**
+         * The distributions indexed by number of atoms.
+         */
+        private volatile Distribution[] distributions;
+
+        /**
+         * Constructor.
+         *
+         * @param atom the atom
+         */
+        private ElementTable(Atom atom) {
+
+            HashMap<Integer, Double> composition = atom.getRepresentativeComposition();
+
+            if (composition == null || composition.isEmpty()) {
+
+                atomDistribution = Distribution.MONOISOTOPIC;
+
+            } else {
+
+                int minIsotope = Integer.MAX_VALUE;
+                int maxIsotope = Integer.MIN_VALUE;
+                double total = 0.0;
+
+                for (Entry<Integer, Double> entry : composition.entrySet()) {
+
+                    minIsotope = Math.min(minIsotope, entry.getKey());
+                    maxIsotope = Math.max(maxIsotope, entry.getKey());
+                    total += entry.getValue();
+
+                }
+
+                double[] abundances = new double[maxIsotope - minIsotope + 1];
+                double[] weightedMassDifferences = new double[abundances.length];
+
+                for (Entry<Integer, Double> entry : composition.entrySet()) {
+
+                    int isotope = entry.getKey();
+                    double abundance = entry.getValue() / total;
+
+                    abundances[isotope - minIsotope] = abundance;
+                    weightedMassDifferences[isotope - minIsotope] = isotope == 0 ? 0.0 : abundance * atom.getDifferenceToMonoisotopic(isotope);
+
+                }
+
+                atomDistribution = new Distribution(minIsotope, abundances, weightedMassDifferences);
+
+            }
+
+            distributions = new Distribution[]{Distribution.MONOISOTOPIC, atomDistribution};
+
+        }
+
+        /**
+         * Returns the distribution of the given number of atoms.
+         *
+         * @param nAtoms the number of atoms
+         *
+         * @return the distribution of the given number of atoms
+         */
+        private Distribution get(int nAtoms) {
+
+            Distribution[] currentDistributions = distributions;
+
+            if (nAtoms < currentDistributions.length) {
+                return currentDistributions[nAtoms];
+            }
+
+            if (nAtoms > MAX_TABULATED) {
+
+                // Combine the largest tabulated distribution with the remainder
+                Distribution largest = get(MAX_TABULATED);
+                Distribution result = get(nAtoms % MAX_TABULATED);
+
+                for (int i = 0; i < nAtoms / MAX_TABULATED; i++) {
+                    result = Distribution.convolve(result, largest, CONVOLUTION_THRESHOLD);
+                }
+
+                return result;
+
+            }
+
+            synchronized (this) {
+
+                currentDistributions = distributions;
+
+                if (nAtoms >= currentDistributions.length) {
+
+                    int newLength = Math.min(MAX_TABULATED + 1, Math.max(nAtoms + 1, 2 * currentDistributions.length));
+                    Distribution[] newDistributions = Arrays.copyOf(currentDistributions, newLength);
+
+                    for (int i = currentDistributions.length; i < newLength; i++) {
+                        newDistributions[i] = Distribution.convolve(newDistributions[i - 1], atomDistribution, CONVOLUTION_THRESHOLD);
+                    }
+
+                    distributions = newDistributions;
+                    currentDistributions = newDistributions;
+
+                }
+
+                return currentDistributions[nAtoms];
+
+            }
+        }
+    }
+}
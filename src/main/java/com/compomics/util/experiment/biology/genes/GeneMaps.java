@@ -82,7 +82,7 @@ public class GeneMaps extends ExperimentObject {
             HashSet<String> proteins = goAccessionToProteinMap.get(accession);
             if (proteins == null) {
                 proteins = new HashSet<>();
-                proteinToGoMap.put(accession, proteins);
+                goAccessionToProteinMap.put(accession, proteins);
             }
             proteins.addAll(otherMap.get(accession));
         }
@@ -2,7 +2,7 @@ package com.compomics.util.experiment.biology.genes;
 
 import com.compomics.util.experiment.biology.genes.ensembl.EnsemblVersion;
 import com.compomics.util.experiment.biology.genes.ensembl.GeneMapping;
-import com.compomics.util.experiment.biology.genes.go.GoMapping;
+import com.compomics.util.experiment.biology.genes.go.GoMappingStore;
 import com.compomics.util.experiment.biology.taxonomy.SpeciesFactory;
 import com.compomics.util.experiment.biology.taxonomy.mappings.EnsemblSpecies.EnsemblDivision;
 import com.compomics.util.experiment.io.biology.protein.FastaSummary;
@@ -137,7 +137,7 @@ public class ProteinGeneDetailsProvider {
 
         SpeciesFactory speciesFactory = SpeciesFactory.getInstance();
         HashMap<String, GeneMapping> geneMappings = new HashMap<>(accessions.size());
-        HashMap<String, GoMapping> goMappings = new HashMap<>(accessions.size());
+        HashMap<String, GoMappingStore> goMappings = new HashMap<>(accessions.size());
 
         // download/update species mapping and put them in maps per species
         for (String organismName : fastaSummary.speciesOccurrence.keySet()) {
@@ -224,12 +224,13 @@ public class ProteinGeneDetailsProvider {
 
                             if (goMappingFile.exists()) {
 
-                                GoMapping goMapping = new GoMapping();
-
                                 try {
 
-                                    goMapping.loadMappingsFromFile(goMappingFile, waitingHandler);
-                                    goMappings.put(organismName, goMapping);
+                                    GoMappingStore goMapping = GoMappingStore.getStore(goMappingFile, waitingHandler);
+
+                                    if (goMapping != null) {
+                                        goMappings.put(organismName, goMapping);
+                                    }
 
                                 } catch (Exception e) {
                                     e.printStackTrace();
@@ -302,7 +303,7 @@ public class ProteinGeneDetailsProvider {
 
                     }
 
-                    GoMapping goMapping = goMappings.get(organismName);
+                    GoMappingStore goMapping = goMappings.get(organismName);
 
                     if (goMapping != null) {
 
@@ -0,0 +1,991 @@
+package com.compomics.util.experiment.biology.genes.go;
+
+import com.compomics.util.waiting.WaitingHandler;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.commons.math.distribution.HypergeometricDistributionImpl;
+
+/**
+ * Compact and immutable store of the protein GO mappings of an Ensembl
+ * dataset. The protein and GO term accessions are stored in sorted
+ * dictionaries and referred to by their index. The mappings between proteins
+ * and GO terms are stored as adjacency arrays: the terms of protein i are
+ * found between termOffsets[i] and termOffsets[i + 1] in the terms array, and
+ * conversely for the proteins of a term. Sets of proteins are represented as
+ * bit sets indexed by the protein dictionary.
+ *
+ * The store is built once from the BioMart mapping file and saved next to it.
+ * The saved store is memory mapped when loaded, it is rebuilt when the mapping
+ * file changes. The store is thread safe.
+ *
+ * @author Marc Vaudel
+ */
+public class GoMappingStore {
+
+    /**
+     * The suffix of the store file saved next to the mapping file.
+     */
+    public static final String STORE_FILE_SUFFIX = ".store";
+    /**
+     * Magic number identifying a store file.
+     */
+    private static final int MAGIC_NUMBER = 0x474f4d53;
+    /**
+     * The version of the store file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * The length of the header of the store file in bytes.
+     */
+    private static final int HEADER_LENGTH = 4 + 4 + 8 + 8 + 4 + 4 + 4;
+    /**
+     * Cache of the stores loaded, indexed by the path of the mapping file.
+     */
+    private static final ConcurrentHashMap<String, GoMappingStore> STORES = new ConcurrentHashMap<>();
+    /**
+     * The protein accessions in lexicographic order.
+     */
+    private final String[] proteinAccessions;
+    /**
+     * The GO term accessions in lexicographic order.
+     */
+    private final String[] termAccessions;
+    /**
+     * The GO term names, indexed by term.
+     */
+    private final String[] termNames;
+    /**
+     * Map of the GO term names to accessions.
+     */
+    private final HashMap<String, String> termNamesToAccessions;
+    /**
+     * The offset of the terms of every protein in the protein terms array, the
+     * last element is the number of mappings.
+     */
+    private final IntBuffer proteinTermOffsets;
+    /**
+     * The terms of every protein, sorted by protein and term index.
+     */
+    private final IntBuffer proteinTerms;
+    /**
+     * The offset of the proteins of every term in the term proteins array, the
+     * last element is the number of mappings.
+     */
+    private final IntBuffer termProteinOffsets;
+    /**
+     * The proteins of every term, sorted by term and protein index.
+     */
+    private final IntBuffer termProteins;
+    /**
+     * The length of the mapping file the store was built from.
+     */
+    private final long sourceLength;
+    /**
+     * The modification date of the mapping file the store was built from.
+     */
+    private final long sourceLastModified;
+
+    /**
+     * Constructor.
+     *
+     * @param proteinAccessions the protein accessions in lexicographic order
+     * @param termAccessions the GO term accessions in lexicographic order
+     * @param termNames the GO term names, indexed by term
+     * @param proteinTermOffsets the offset of the terms of every protein
+     * @param proteinTerms the terms of every protein
+     * @param termProteinOffsets the offset of the proteins of every term
+     * @param termProteins the proteins of every term
+     * @param sourceLength the length of the mapping file
+     * @param sourceLastModified the modification date of the mapping file
+     */
+    private GoMappingStore(
+            String[] proteinAccessions,
+            String[] termAccessions,
+            String[] termNames,
+            IntBuffer proteinTermOffsets,
+            IntBuffer proteinTerms,
+            IntBuffer termProteinOffsets,
+            IntBuffer termProteins,
+            long sourceLength,
+            long sourceLastModified
+    ) {
+
+        this.proteinAccessions = proteinAccessions;
+        this.termAccessions = termAccessions;
+        this.termNames = termNames;
+        this.proteinTermOffsets = proteinTermOffsets;
+        this.proteinTerms = proteinTerms;
+        this.termProteinOffsets = termProteinOffsets;
+        this.termProteins = termProteins;
+        this.sourceLength = sourceLength;
+        this.sourceLastModified = sourceLastModified;
+
+        termNamesToAccessions = new HashMap<>(termNames.length);
+
+        for (int term = 0; term < termNames.length; term++) {
+
+            if (termNames[term] != null) {
+
+                termNamesToAccessions.put(termNames[term], termAccessions[term]);
+
+            }
+        }
+    }
+
+    /**
+     * Returns the store of the given mapping file. The store is loaded from
+     * the store file saved next to the mapping file if up to date, built and
+     * saved otherwise. If the store file cannot be saved, the store is only
+     * kept in memory. Stores are loaded only once.
+     *
+     * @param mappingFile the BioMart GO mapping file
+     * @param waitingHandler a waiting handler allowing canceling of the
+     * process
+     *
+     * @return the store of the given mapping file, null if the process was
+     * canceled
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public static GoMappingStore getStore(
+            File mappingFile,
+            WaitingHandler waitingHandler
+    ) throws IOException {
+
+        String key = mappingFile.getAbsolutePath();
+        GoMappingStore store = STORES.get(key);
+
+        if (store == null || !store.isFor(mappingFile)) {
+
+            synchronized (STORES) {
+
+                store = STORES.get(key);
+
+                if (store == null || !store.isFor(mappingFile)) {
+
+                    store = null;
+
+                    File storeFile = getStoreFile(mappingFile);
+
+                    if (storeFile.exists()) {
+
+                        store = read(storeFile, mappingFile);
+
+                    }
+
+                    if (store == null) {
+
+                        store = build(mappingFile, waitingHandler);
+
+                        if (store == null) {
+                            return null;
+                        }
+
+                        try {
+
+                            store.write(storeFile);
+
+                        } catch (IOException e) {
+
+                            // the folder of the mapping file is not writable, the mapping file will be parsed again on the next start
+                        }
+                    }
+
+                    STORES.put(key, store);
+
+                }
+            }
+        }
+
+        return store;
+
+    }
+
+    /**
+     * Indicates whether the store corresponds to the current version of the
+     * given mapping file.
+     *
+     * @param mappingFile the BioMart GO mapping file
+     *
+     * @return a boolean indicating whether the store corresponds to the
+     * current version of the given mapping file
+     */
+    public boolean isFor(
+            File mappingFile
+    ) {
+        return mappingFile.length() == sourceLength && mappingFile.lastModified() == sourceLastModified;
+    }
+
+    /**
+     * Returns the store file corresponding to the given mapping file.
+     *
+     * @param mappingFile the BioMart GO mapping file
+     *
+     * @return the store file
+     */
+    public static File getStoreFile(
+            File mappingFile
+    ) {
+        return new File(mappingFile.getParentFile(), mappingFile.getName() + STORE_FILE_SUFFIX);
+    }
+
+    /**
+     * Builds a store from a BioMart file. The structure of the file should be
+     * protein accession go accession go name, as for
+     * GoMapping.loadMappingsFromFile.
+     *
+     * @param mappingFile the file containing the GO mapping
+     * @param waitingHandler a waiting handler allowing canceling of the
+     * process
+     *
+     * @return the store, null if the process was canceled
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the file
+     */
+    public static GoMappingStore build(
+            File mappingFile,
+            WaitingHandler waitingHandler
+    ) throws IOException {
+
+        HashMap<String, Integer> proteinIndexes = new HashMap<>();
+        HashMap<String, Integer> termIndexes = new HashMap<>();
+        HashMap<String, String> names = new HashMap<>();
+        ArrayList<String> proteins = new ArrayList<>();
+        ArrayList<String> terms = new ArrayList<>();
+        HashSet<Long> mappings = new HashSet<>();
+
+        try (BufferedReader br = new BufferedReader(new FileReader(mappingFile))) {
+
+            String line;
+
+            while ((line = br.readLine()) != null) {
+
+                String[] splittedLine = line.split(GoMapping.SEPARATOR);
+
+                if (splittedLine.length == 3 && !splittedLine[0].equals("") && !splittedLine[1].equals("")) {
+
+                    String proteinAccession = splittedLine[0];
+                    String goTermAccession = splittedLine[1];
+                    String goTermName = splittedLine[2].toLowerCase();
+
+                    Integer proteinIndex = proteinIndexes.get(proteinAccession);
+
+                    if (proteinIndex == null) {
+
+                        proteinIndex = proteins.size();
+                        proteins.add(proteinAccession);
+                        proteinIndexes.put(proteinAccession, proteinIndex);
+
+                    }
+
+                    Integer termIndex = termIndexes.get(goTermAccession);
+
+                    if (termIndex == null) {
+
+                        termIndex = terms.size();
+                        terms.add(goTermAccession);
+                        termIndexes.put(goTermAccession, termIndex);
+
+                    }
+
+                    names.put(goTermAccession, goTermName);
+                    mappings.add(((long) proteinIndex << 32) | termIndex);
+
+                }
+
+                if (waitingHandler != null && waitingHandler.isRunCanceled()) {
+                    return null;
+                }
+            }
+        }
+
+        // sort the dictionaries and remap the indexes
+        String[] proteinAccessions = proteins.toArray(new String[proteins.size()]);
+        Arrays.sort(proteinAccessions);
+        int[] proteinRank = new int[proteinAccessions.length];
+
+        for (int i = 0; i < proteinAccessions.length; i++) {
+            proteinRank[proteinIndexes.get(proteinAccessions[i])] = i;
+        }
+
+        String[] termAccessions = terms.toArray(new String[terms.size()]);
+        Arrays.sort(termAccessions);
+        int[] termRank = new int[termAccessions.length];
+        String[] termNames = new String[termAccessions.length];
+
+        for (int i = 0; i < termAccessions.length; i++) {
+            termRank[termIndexes.get(termAccessions[i])] = i;
+            termNames[i] = names.get(termAccessions[i]);
+        }
+
+        long[] proteinToTerm = new long[mappings.size()];
+        long[] termToProtein = new long[mappings.size()];
+        int i = 0;
+
+        for (long mapping : mappings) {
+
+            int protein = proteinRank[(int) (mapping >>> 32)];
+            int term = termRank[(int) mapping];
+            proteinToTerm[i] = ((long) protein << 32) | term;
+            termToProtein[i] = ((long) term << 32) | protein;
+            i++;
+
+        }
+
+        Arrays.sort(proteinToTerm);
+        Arrays.sort(termToProtein);
+
+        return new GoMappingStore(
+                proteinAccessions,
+                termAccessions,
+                termNames,
+                IntBuffer.wrap(getOffsets(proteinToTerm, proteinAccessions.length)),
+                IntBuffer.wrap(getTargets(proteinToTerm)),
+                IntBuffer.wrap(getOffsets(termToProtein, termAccessions.length)),
+                IntBuffer.wrap(getTargets(termToProtein)),
+                mappingFile.length(),
+                mappingFile.lastModified()
+        );
+
+    }
+
+    /**
+     * Returns the offsets of the sources in sorted source to target pairs.
+     *
+     * @param pairs the source to target pairs, source in the 32 high bits,
+     * sorted
+     * @param nSources the number of sources
+     *
+     * @return the offsets of the sources, the last element being the number of
+     * pairs
+     */
+    private static int[] getOffsets(
+            long[] pairs,
+            int nSources
+    ) {
+
+        int[] offsets = new int[nSources + 1];
+
+        for (long pair : pairs) {
+            offsets[(int) (pair >>> 32) + 1]++;
+        }
+
+        for (int i = 0; i < nSources; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+
+        return offsets;
+
+    }
+
+    /**
+     * Returns the targets of source to target pairs.
+     *
+     * @param pairs the source to target pairs, target in the 32 low bits
+     *
+     * @return the targets
+     */
+    private static int[] getTargets(
+            long[] pairs
+    ) {
+
+        int[] targets = new int[pairs.length];
+
+        for (int i = 0; i < pairs.length; i++) {
+            targets[i] = (int) pairs[i];
+        }
+
+        return targets;
+
+    }
+
+    /**
+     * Writes the store to a file. The file consists of a header containing the
+     * length and modification date of the mapping file, the adjacency arrays,
+     * and the dictionaries.
+     *
+     * @param storeFile the file where to write the store
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * the file
+     */
+    public void write(
+            File storeFile
+    ) throws IOException {
+
+        File tempFile = new File(storeFile.getParentFile(), storeFile.getName() + "_temp");
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+
+            outputStream.writeInt(MAGIC_NUMBER);
+            outputStream.writeInt(VERSION);
+            outputStream.writeLong(sourceLength);
+            outputStream.writeLong(sourceLastModified);
+            outputStream.writeInt(proteinAccessions.length);
+            outputStream.writeInt(termAccessions.length);
+            outputStream.writeInt(getNMappings());
+
+            writeInts(outputStream, proteinTermOffsets);
+            writeInts(outputStream, proteinTerms);
+            writeInts(outputStream, termProteinOffsets);
+            writeInts(outputStream, termProteins);
+
+            for (String proteinAccession : proteinAccessions) {
+                writeString(outputStream, proteinAccession);
+            }
+
+            for (int term = 0; term < termAccessions.length; term++) {
+                writeString(outputStream, termAccessions[term]);
+                writeString(outputStream, termNames[term]);
+            }
+        }
+
+        if (storeFile.exists() && !storeFile.delete()) {
+            throw new IOException("Impossible to delete " + storeFile + ".");
+        }
+
+        if (!tempFile.renameTo(storeFile)) {
+            throw new IOException("Impossible to rename " + tempFile + " to " + storeFile + ".");
+        }
+    }
+
+    /**
+     * Writes the content of an int buffer.
+     *
+     * @param outputStream the stream to write to
+     * @param values the values to write
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     */
+    private static void writeInts(
+            DataOutputStream outputStream,
+            IntBuffer values
+    ) throws IOException {
+
+        for (int i = 0; i < values.limit(); i++) {
+            outputStream.writeInt(values.get(i));
+        }
+    }
+
+    /**
+     * Writes a string as its length in bytes followed by its UTF-8
+     * representation. Null is written as a length of -1.
+     *
+     * @param outputStream the stream to write to
+     * @param value the string to write
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     */
+    private static void writeString(
+            DataOutputStream outputStream,
+            String value
+    ) throws IOException {
+
+        if (value == null) {
+
+            outputStream.writeInt(-1);
+
+        } else {
+
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            outputStream.writeInt(bytes.length);
+            outputStream.write(bytes);
+
+        }
+    }
+
+    /**
+     * Reads a store from a file. The adjacency arrays are memory mapped.
+     *
+     * @param storeFile the store file
+     * @param mappingFile the mapping file the store should correspond to, can
+     * be null to skip validation
+     *
+     * @return the store, null if the file is not a valid store or does not
+     * correspond to the mapping file
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the file
+     */
+    public static GoMappingStore read(
+            File storeFile,
+            File mappingFile
+    ) throws IOException {
+
+        MappedByteBuffer buffer;
+
+        try (RandomAccessFile raf = new RandomAccessFile(storeFile, "r")) {
+
+            if (raf.length() < HEADER_LENGTH) {
+                return null;
+            }
+
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+
+        }
+
+        if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != VERSION) {
+            return null;
+        }
+
+        long sourceLength = buffer.getLong();
+        long sourceLastModified = buffer.getLong();
+
+        if (mappingFile != null && (mappingFile.length() != sourceLength || mappingFile.lastModified() != sourceLastModified)) {
+            return null;
+        }
+
+        int nProteins = buffer.getInt();
+        int nTerms = buffer.getInt();
+        int nMappings = buffer.getInt();
+
+        IntBuffer proteinTermOffsets = sliceInts(buffer, nProteins + 1);
+        IntBuffer proteinTerms = sliceInts(buffer, nMappings);
+        IntBuffer termProteinOffsets = sliceInts(buffer, nTerms + 1);
+        IntBuffer termProteins = sliceInts(buffer, nMappings);
+
+        String[] proteinAccessions = new String[nProteins];
+
+        for (int i = 0; i < nProteins; i++) {
+            proteinAccessions[i] = readString(buffer);
+        }
+
+        String[] termAccessions = new String[nTerms];
+        String[] termNames = new String[nTerms];
+
+        for (int i = 0; i < nTerms; i++) {
+            termAccessions[i] = readString(buffer);
+            termNames[i] = readString(buffer);
+        }
+
+        return new GoMappingStore(
+                proteinAccessions,
+                termAccessions,
+                termNames,
+                proteinTermOffsets,
+                proteinTerms,
+                termProteinOffsets,
+                termProteins,
+                sourceLength,
+                sourceLastModified
+        );
+
+    }
+
+    /**
+     * Returns a view of the given number of ints at the current position of
+     * the buffer and moves the position of the buffer after them.
+     *
+     * @param buffer the buffer
+     * @param length the number of ints
+     *
+     * @return a view of the ints
+     */
+    private static IntBuffer sliceInts(
+            ByteBuffer buffer,
+            int length
+    ) {
+
+        ByteBuffer slice = buffer.slice();
+        slice.limit(4 * length);
+        buffer.position(buffer.position() + 4 * length);
+
+        return slice.asIntBuffer();
+
+    }
+
+    /**
+     * Reads a string written by writeString.
+     *
+     * @param buffer the buffer to read from
+     *
+     * @return the string
+     */
+    private static String readString(
+            ByteBuffer buffer
+    ) {
+
+        int length = buffer.getInt();
+
+        if (length == -1) {
+            return null;
+        }
+
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+
+    }
+
+    /**
+     * Returns the number of proteins.
+     *
+     * @return the number of proteins
+     */
+    public int getNProteins() {
+        return proteinAccessions.length;
+    }
+
+    /**
+     * Returns the number of GO terms.
+     *
+     * @return the number of GO terms
+     */
+    public int getNTerms() {
+        return termAccessions.length;
+    }
+
+    /**
+     * Returns the number of protein to GO term mappings.
+     *
+     * @return the number of protein to GO term mappings
+     */
+    public int getNMappings() {
+        return proteinTerms.limit();
+    }
+
+    /**
+     * Returns the index of a protein, -1 if not found.
+     *
+     * @param proteinAccession the accession of the protein
+     *
+     * @return the index of the protein
+     */
+    public int getProteinIndex(
+            String proteinAccession
+    ) {
+
+        int index = Arrays.binarySearch(proteinAccessions, proteinAccession);
+
+        return index >= 0 ? index : -1;
+
+    }
+
+    /**
+     * Returns the index of a GO term, -1 if not found.
+     *
+     * @param goAccession the accession of the GO term
+     *
+     * @return the index of the GO term
+     */
+    public int getTermIndex(
+            String goAccession
+    ) {
+
+        int index = Arrays.binarySearch(termAccessions, goAccession);
+
+        return index >= 0 ? index : -1;
+
+    }
+
+    /**
+     * Returns the accession of the protein at the given index.
+     *
+     * @param proteinIndex the index of the protein
+     *
+     * @return the accession of the protein
+     */
+    public String getProteinAccession(
+            int proteinIndex
+    ) {
+        return proteinAccessions[proteinIndex];
+    }
+
+    /**
+     * Returns the accession of the GO term at the given index.
+     *
+     * @param termIndex the index of the GO term
+     *
+     * @return the accession of the GO term
+     */
+    public String getTermAccession(
+            int termIndex
+    ) {
+        return termAccessions[termIndex];
+    }
+
+    /**
+     * Returns the name of a GO term.
+     *
+     * @param goAccession the accession number of the GO term of interest
+     *
+     * @return the name, null if not found
+     */
+    public String getTermName(
+            String goAccession
+    ) {
+
+        int termIndex = getTermIndex(goAccession);
+
+        return termIndex == -1 ? null : termNames[termIndex];
+
+    }
+
+    /**
+     * Returns the accession of a GO term.
+     *
+     * @param goName the name of the GO term of interest
+     *
+     * @return the accession, null if not found
+     */
+    public String getTermAccession(
+            String goName
+    ) {
+        return termNamesToAccessions.get(goName);
+    }
+
+    /**
+     * Returns the indexes of the GO terms of the given protein.
+     *
+     * @param proteinIndex the index of the protein
+     *
+     * @return the indexes of the GO terms in ascending order
+     */
+    public int[] getTerms(
+            int proteinIndex
+    ) {
+        return getTargets(proteinTermOffsets, proteinTerms, proteinIndex);
+    }
+
+    /**
+     * Returns the indexes of the proteins of the given GO term.
+     *
+     * @param termIndex the index of the GO term
+     *
+     * @return the indexes of the proteins in ascending order
+     */
+    public int[] getProteins(
+            int termIndex
+    ) {
+        return getTargets(termProteinOffsets, termProteins, termIndex);
+    }
+
+    /**
+     * Returns the targets of a source from adjacency arrays.
+     *
+     * @param offsets the offsets of the sources
+     * @param targets the targets
+     * @param source the index of the source
+     *
+     * @return the targets of the source
+     */
+    private static int[] getTargets(
+            IntBuffer offsets,
+            IntBuffer targets,
+            int source
+    ) {
+
+        int start = offsets.get(source);
+        int[] result = new int[offsets.get(source + 1) - start];
+
+        for (int i = 0; i < result.length; i++) {
+            result[i] = targets.get(start + i);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the GO accessions linked to a given protein accession.
+     *
+     * @param proteinAccession the accession of the protein of interest
+     *
+     * @return the GO accessions, null if not found
+     */
+    public HashSet<String> getGoAccessions(
+            String proteinAccession
+    ) {
+
+        int proteinIndex = getProteinIndex(proteinAccession);
+
+        if (proteinIndex == -1) {
+            return null;
+        }
+
+        int[] terms = getTerms(proteinIndex);
+        HashSet<String> result = new HashSet<>(terms.length);
+
+        for (int term : terms) {
+            result.add(termAccessions[term]);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the protein accessions linked to a given GO term.
+     *
+     * @param goAccession the accession of the GO term
+     *
+     * @return the protein accessions, null if not found
+     */
+    public HashSet<String> getProteinAccessions(
+            String goAccession
+    ) {
+
+        int termIndex = getTermIndex(goAccession);
+
+        if (termIndex == -1) {
+            return null;
+        }
+
+        int[] proteins = getProteins(termIndex);
+        HashSet<String> result = new HashSet<>(proteins.length);
+
+        for (int protein : proteins) {
+            result.add(proteinAccessions[protein]);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the given proteins as a bit set indexed by protein. Proteins
+     * not in the store are ignored.
+     *
+     * @param proteinAccessions the accessions of the proteins
+     *
+     * @return the proteins as a bit set
+     */
+    public BitSet getProteinSet(
+            Collection<String> proteinAccessions
+    ) {
+
+        BitSet result = new BitSet(this.proteinAccessions.length);
+
+        for (String proteinAccession : proteinAccessions) {
+
+            int proteinIndex = getProteinIndex(proteinAccession);
+
+            if (proteinIndex != -1) {
+                result.set(proteinIndex);
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the proteins of a GO term as a bit set indexed by protein.
+     *
+     * @param termIndex the index of the GO term
+     *
+     * @return the proteins of the GO term as a bit set
+     */
+    public BitSet getProteinSet(
+            int termIndex
+    ) {
+
+        BitSet result = new BitSet(proteinAccessions.length);
+        int end = termProteinOffsets.get(termIndex + 1);
+
+        for (int i = termProteinOffsets.get(termIndex); i < end; i++) {
+            result.set(termProteins.get(i));
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the number of proteins of the given set annotated with every GO
+     * term.
+     *
+     * @param proteins the proteins as a bit set indexed by protein
+     *
+     * @return the number of proteins annotated with every GO term, indexed by
+     * term
+     */
+    public int[] getTermCounts(
+            BitSet proteins
+    ) {
+
+        int[] counts = new int[termAccessions.length];
+
+        for (int protein = proteins.nextSetBit(0); protein >= 0 && protein < proteinAccessions.length; protein = proteins.nextSetBit(protein + 1)) {
+
+            int end = proteinTermOffsets.get(protein + 1);
+
+            for (int i = proteinTermOffsets.get(protein); i < end; i++) {
+                counts[proteinTerms.get(i)]++;
+            }
+        }
+
+        return counts;
+
+    }
+
+    /**
+     * Returns the probability of observing at least the number of proteins
+     * annotated with every GO term in the selected proteins when drawing them
+     * randomly from the background according to a hypergeometric
+     * distribution. Terms not represented in the selection get a probability
+     * of 1.
+     *
+     * @param selectedProteins the selected proteins, e.g. the validated
+     * proteins, as a bit set indexed by protein
+     * @param backgroundProteins the background proteins, e.g. all proteins of
+     * the database, as a bit set indexed by protein, must contain the
+     * selected proteins
+     *
+     * @return the enrichment p-values indexed by term
+     */
+    public double[] getEnrichmentPValues(
+            BitSet selectedProteins,
+            BitSet backgroundProteins
+    ) {
+
+        int populationSize = backgroundProteins.cardinality();
+        int sampleSize = selectedProteins.cardinality();
+
+        if (sampleSize > populationSize) {
+            throw new IllegalArgumentException("The selected proteins (" + sampleSize + ") exceed the background (" + populationSize + ").");
+        }
+
+        int[] selectedCounts = getTermCounts(selectedProteins);
+        int[] backgroundCounts = getTermCounts(backgroundProteins);
+        double[] result = new double[termAccessions.length];
+
+        for (int term = 0; term < termAccessions.length; term++) {
+
+            if (selectedCounts[term] == 0) {
+
+                result[term] = 1.0;
+
+            } else {
+
+                HypergeometricDistributionImpl distribution = new HypergeometricDistributionImpl(populationSize, backgroundCounts[term], sampleSize);
+                result[term] = distribution.upperCumulativeProbability(selectedCounts[term]);
+
+            }
+        }
+
+        return result;
+
+    }
+}
@@ -19,6 +19,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
@@ -33,7 +35,7 @@ public class ModificationFactory implements ModificationProvider {
     /**
      * Instance of the factory.
      */
-    private static ModificationFactory instance = null;
+    private static volatile ModificationFactory instance = null;
     /**
      * The folder containing the Modification factory.
      */
@@ -44,13 +46,23 @@ public class ModificationFactory implements ModificationProvider {
      */
     private static final String SERIALIZATION_FILE_NAME = "modificationFactory-5.0.42.json";
     /**
-     * A map linking indexes with modifications.
+     * A map linking indexes with the user modifications and the default
+     * modifications that were overwritten. Only this layer is saved, the
+     * default modifications are built from the code when needed.
      */
     private final HashMap<String, Modification> modificationMap = new HashMap<>();
     /**
-     * List of the indexes of default modifications.
+     * A map linking indexes with the default modifications, built on demand.
      */
-    private final ArrayList<String> defaultMods = new ArrayList<>();
+    private transient HashMap<String, Modification> defaultModificationMap = null;
+    /**
+     * List of the indexes of default modifications, built on demand.
+     */
+    private transient ArrayList<String> defaultMods = null;
+    /**
+     * Boolean indicating whether the default modifications are built.
+     */
+    private transient volatile boolean defaultModificationsLoaded = false;
     /**
      * List of the indexes of user modifications.
      */
@@ -72,36 +84,96 @@ public class ModificationFactory implements ModificationProvider {
     /**
      * Set to true if the default mods are sorted alphabetically.
      */
-    public boolean defaultModsSorted = false;
+    public transient boolean defaultModsSorted = false;
     /**
      * Set to true if the users mods are sorted alphabetically.
      */
     public boolean usersModsSorted = false;
+    /**
+     * The ids of the modifications by name. Ids are attributed in the order
+     * modifications are first encountered and are stable for the session.
+     */
+    private static final ConcurrentHashMap<String, Integer> MODIFICATION_IDS = new ConcurrentHashMap<>();
+    /**
+     * The names of the modifications indexed by id.
+     */
+    private static final ArrayList<String> MODIFICATION_NAMES = new ArrayList<>();
+    /**
+     * The primitive tables of the modifications indexed by id, built on demand
+     * and reset when modifications are added or removed.
+     */
+    private transient volatile ModificationTables modificationTables = null;
 
     /**
      * Constructor for the factory.
      */
     private ModificationFactory() {
         defaultModsSorted = false;
-        setDefaultModifications();
     }
 
     /**
-     * Static method to get the instance of the factory.
+     * Static method to get the instance of the factory. The user
+     * modifications are loaded from the user folder, the default
+     * modifications are built when first needed.
      *
      * @return the instance of the factory
      */
     public static ModificationFactory getInstance() {
-        if (instance == null) {
-            try {
-                File savedFile = new File(SERIALIZATION_FILE_FOLDER, SERIALIZATION_FILE_NAME);
-                instance = loadFromFile(savedFile);
-                instance.checkUserModifications();
-            } catch (Exception e) {
-                instance = new ModificationFactory();
+        ModificationFactory result = instance;
+        if (result == null) {
+            synchronized (ModificationFactory.class) {
+                result = instance;
+                if (result == null) {
+                    File savedFile = new File(SERIALIZATION_FILE_FOLDER, SERIALIZATION_FILE_NAME);
+                    if (savedFile.exists()) {
+                        try {
+                            result = loadFromFile(savedFile);
+                            result.checkUserModifications();
+                        } catch (Exception e) {
+                            result = new ModificationFactory();
+                        }
+                    } else {
+                        result = new ModificationFactory();
+                    }
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Builds the default modifications unless done already.
+     */
+    private void loadDefaultModifications() {
+        if (!defaultModificationsLoaded) {
+            synchronized (this) {
+                if (!defaultModificationsLoaded) {
+                    defaultModificationMap = new HashMap<>(1024);
+                    defaultMods = new ArrayList<>(1024);
+                    setDefaultModifications();
+                    defaultModificationsLoaded = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes from the user layer the default modifications identical to the
+     * ones built from the code. Factories saved by earlier versions contain
+     * all default modifications.
+     */
+    private void removeUnchangedDefaultModifications() {
+        loadDefaultModifications();
+        Iterator<Map.Entry<String, Modification>> iterator = modificationMap.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, Modification> entry = iterator.next();
+            Modification defaultModification = defaultModificationMap.get(entry.getKey());
+            if (defaultModification != null && !userMods.contains(entry.getKey())
+                    && defaultModification.isSameAs(entry.getValue())) {
+                iterator.remove();
             }
         }
-        return instance;
     }
 
     /**
@@ -118,6 +190,9 @@ public class ModificationFactory implements ModificationProvider {
     public static ModificationFactory loadFromFile(File file) throws IOException {
         JsonMarshaller jsonMarshaller = new JsonMarshaller();
         ModificationFactory result = (ModificationFactory) jsonMarshaller.fromJson(ModificationFactory.class, file);
+        if (result.modificationMap.size() > result.userMods.size()) {
+            result.removeUnchangedDefaultModifications();
+        }
         return result;
     }
 
@@ -237,6 +312,8 @@ public class ModificationFactory implements ModificationProvider {
             userMods.set(userMods.indexOf(modn_proteiname), modn_proteiname);
         }
         usersModsSorted = false;
+        modificationTables = null;
+        getModificationId(modn_proteiname);
 
         // add the neutral losses and reporter ions
         for (NeutralLoss neutralLoss : modification.getNeutralLosses()) {
@@ -257,16 +334,276 @@ public class ModificationFactory implements ModificationProvider {
      * @param modificationName the name of the Modification to remove
      */
     public void removeUserPtm(String modificationName) {
-        if (defaultMods.contains(modificationName)) {
+        loadDefaultModifications();
+        if (defaultModificationMap.containsKey(modificationName)) {
             throw new IllegalArgumentException("Impossible to remove default modification " + modificationName);
         }
         modificationMap.remove(modificationName);
         userMods.remove(modificationName);
+        modificationTables = null;
     }
 
     @Override
     public Modification getModification(String name) {
-        return modificationMap.get(name);
+        Modification modification = modificationMap.get(name);
+        if (modification == null) {
+            loadDefaultModifications();
+            modification = defaultModificationMap.get(name);
+        }
+        return modification;
+    }
+
+    /**
+     * Returns the id of the modification with the given name. Ids are
+     * attributed to names when first encountered and are stable for the
+     * session.
+     *
+     * @param name the name of the modification
+     *
+     * @return the id of the modification
+     */
+    public static int getModificationId(String name) {
+
+        Integer id = MODIFICATION_IDS.get(name);
+
+        if (id == null) {
+
+            synchronized (MODIFICATION_NAMES) {
+
+                id = MODIFICATION_IDS.get(name);
+
+                if (id == null) {
+
+                    id = MODIFICATION_NAMES.size();
+                    MODIFICATION_NAMES.add(name);
+                    MODIFICATION_IDS.put(name, id);
+
+                }
+            }
+        }
+
+        return id;
+    }
+
+    /**
+     * Returns the name of the modification with the given id.
+     *
+     * @param id the id of the modification
+     *
+     * @return the name of the modification
+     */
+    public static String getModificationName(int id) {
+
+        synchronized (MODIFICATION_NAMES) {
+            return MODIFICATION_NAMES.get(id);
+        }
+    }
+
+    /**
+     * Returns the primitive tables of the modifications, builds them if they
+     * do not cover the given id.
+     *
+     * @param id the id to cover
+     *
+     * @return the primitive tables of the modifications
+     */
+    private ModificationTables getModificationTables(int id) {
+
+        ModificationTables tables = modificationTables;
+
+        if (tables == null || id >= tables.modifications.length) {
+
+            String[] names;
+
+            synchronized (MODIFICATION_NAMES) {
+                names = MODIFICATION_NAMES.toArray(new String[MODIFICATION_NAMES.size()]);
+            }
+
+            tables = new ModificationTables(names, this);
+            modificationTables = tables;
+
+        }
+
+        return tables;
+    }
+
+    /**
+     * Returns the primitive tables of the modifications, ensuring that the
+     * given id was attributed.
+     *
+     * @param id the id of the modification
+     *
+     * @return the primitive tables of the modifications
+     */
+    private ModificationTables getAttributedModificationTables(int id) {
+
+        ModificationTables tables = getModificationTables(id);
+
+        if (id < 0 || id >= tables.modifications.length) {
+            throw new IllegalArgumentException("No modification attributed to id " + id + ".");
+        }
+
+        return tables;
+    }
+
+    /**
+     * Returns the primitive tables of the modifications, ensuring that the
+     * modification with the given id is loaded in the factory.
+     *
+     * @param id the id of the modification
+     *
+     * @return the primitive tables of the modifications
+     */
+    private ModificationTables getLoadedModificationTables(int id) {
+
+        ModificationTables tables = getAttributedModificationTables(id);
+
+        if (tables.modifications[id] == null) {
+            throw new IllegalArgumentException("Modification " + getModificationName(id) + " not loaded in the factory.");
+        }
+
+        return tables;
+    }
+
+    /**
+     * Returns the modification with the given id.
+     *
+     * @param id the id of the modification
+     *
+     * @return the modification, null if not loaded in the factory
+     *
+     * @throws IllegalArgumentException if no modification was attributed the
+     * given id
+     */
+    public Modification getModification(int id) {
+        return getAttributedModificationTables(id).modifications[id];
+    }
+
+    /**
+     * Returns the mass of the modification with the given id.
+     *
+     * @param id the id of the modification
+     *
+     * @return the mass of the modification
+     *
+     * @throws IllegalArgumentException if the modification is not loaded in
+     * the factory
+     */
+    public double getMass(int id) {
+        return getLoadedModificationTables(id).masses[id];
+    }
+
+    /**
+     * Returns the ambiguity key of the modification with the given id.
+     *
+     * @param id the id of the modification
+     *
+     * @return the ambiguity key of the modification
+     *
+     * @throws IllegalArgumentException if the modification is not loaded in
+     * the factory
+     */
+    public String getAmbiguityKey(int id) {
+        return getLoadedModificationTables(id).ambiguityKeys[id];
+    }
+
+    /**
+     * Returns the amino acids targeted by the modification with the given id.
+     * The array should not be modified.
+     *
+     * @param id the id of the modification
+     *
+     * @return the amino acids targeted by the modification
+     *
+     * @throws IllegalArgumentException if the modification is not loaded in
+     * the factory
+     */
+    public char[] getTargetedAminoAcids(int id) {
+        return getLoadedModificationTables(id).targetedAminoAcids[id];
+    }
+
+    /**
+     * Returns the masses of the modifications indexed by id, NaN for ids of
+     * modifications not loaded in the factory. The array covers all ids
+     * attributed so far and should not be modified.
+     *
+     * @return the masses of the modifications indexed by id
+     */
+    public double[] getMassTable() {
+        return getModificationTables(getNModificationIds() - 1).masses;
+    }
+
+    /**
+     * Returns the number of ids attributed.
+     *
+     * @return the number of ids attributed
+     */
+    public static int getNModificationIds() {
+
+        synchronized (MODIFICATION_NAMES) {
+            return MODIFICATION_NAMES.size();
+        }
+    }
+
+    /**
+     * Primitive tables of the modifications indexed by id.
+     */
+    private static class ModificationTables {
+
+        /**
+         * The modifications.
+         */
+        private final Modification[] modifications;
+        /**
+         * The masses of the modifications.
+         */
+        private final double[] masses;
+        /**
+         * The ambiguity keys of the modifications.
+         */
+        private final String[] ambiguityKeys;
+        /**
+         * The amino acids targeted by the modifications.
+         */
+        private final char[][] targetedAminoAcids;
+
+        /**
+         * Constructor.
+         *
+         * @param names the names of the modifications indexed by id
+         * @param modificationFactory the factory providing the modifications
+         */
+        private ModificationTables(String[] names, ModificationFactory modificationFactory) {
+
+            modifications = new Modification[names.length];
+            masses = new double[names.length];
+            ambiguityKeys = new String[names.length];
+            targetedAminoAcids = new char[names.length][];
+
+            for (int id = 0; id < names.length; id++) {
+
+                Modification modification = modificationFactory.getModification(names[id]);
+                modifications[id] = modification;
+
+                if (modification != null) {
+
+                    masses[id] = modification.getMass();
+                    ambiguityKeys[id] = modification.getAmbiguityKey();
+
+                    ArrayList<Character> aminoAcids = modification.getPattern() == null ? new ArrayList<>(0) : modification.getPattern().getAminoAcidsAtTarget();
+                    targetedAminoAcids[id] = new char[aminoAcids.size()];
+
+                    for (int i = 0; i < aminoAcids.size(); i++) {
+                        targetedAminoAcids[id][i] = aminoAcids.get(i);
+                    }
+
+                } else {
+
+                    masses[id] = Double.NaN;
+
+                }
+            }
+        }
     }
 
     /**
@@ -278,7 +615,7 @@ public class ModificationFactory implements ModificationProvider {
      * factory
      */
     public boolean containsModification(String name) {
-        return modificationMap.containsKey(name);
+        return getModification(name) != null;
     }
 
     /**
@@ -287,6 +624,7 @@ public class ModificationFactory implements ModificationProvider {
      * @return the names of the default modifications
      */
     public ArrayList<String> getDefaultModifications() {
+        loadDefaultModifications();
         return defaultMods;
     }
 
@@ -297,6 +635,7 @@ public class ModificationFactory implements ModificationProvider {
      * @return the alphabetically ordered names of the default modifications
      */
     public ArrayList<String> getDefaultModificationsOrdered() {
+        loadDefaultModifications();
         if (!defaultModsSorted) {
             Collections.sort(defaultMods, String.CASE_INSENSITIVE_ORDER);
             defaultModsSorted = true;
@@ -334,7 +673,15 @@ public class ModificationFactory implements ModificationProvider {
      * @return the names of all imported Modifications
      */
     public ArrayList<String> getModifications() {
-        return new ArrayList<>(modificationMap.keySet());
+        loadDefaultModifications();
+        ArrayList<String> modifications = new ArrayList<>(defaultModificationMap.size() + modificationMap.size());
+        modifications.addAll(defaultModificationMap.keySet());
+        for (String modificationName : modificationMap.keySet()) {
+            if (!defaultModificationMap.containsKey(modificationName)) {
+                modifications.add(modificationName);
+            }
+        }
+        return modifications;
     }
 
     /**
@@ -345,7 +692,8 @@ public class ModificationFactory implements ModificationProvider {
      * @return boolean indicating whether a Modification is user defined
      */
     public boolean isUserDefined(String modificationName) {
-        return !defaultMods.contains(modificationName);
+        loadDefaultModifications();
+        return !defaultModificationMap.containsKey(modificationName);
     }
 
     /**
@@ -368,6 +716,7 @@ public class ModificationFactory implements ModificationProvider {
                     toCheck.add(newModificationName);
                     if (overwrite) {
                         modificationMap.put(newModificationName, newModification);
+                        modificationTables = null;
                         for (NeutralLoss neutralLoss : newModification.getNeutralLosses()) {
                             NeutralLoss.addNeutralLoss(neutralLoss);
                         }
@@ -1045,7 +1394,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.ACE_K_126);
         modification.addReporterIon(ReporterIon.ACE_K_143);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Acetylation of peptide N-term
         atomChainAdded = new AtomChain();
@@ -1062,7 +1411,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1", "Acetyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01458", "alpha-amino acetylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);        
+        defaultModificationMap.put(modificationName, modification);        
 
         // Acetylation of protein N-term
         atomChainAdded = new AtomChain();
@@ -1079,7 +1428,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1", "Acetyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01458", "alpha-amino acetylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamidomethylation of C
         atomChainAdded = new AtomChain();
@@ -1097,7 +1446,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:4", "Carbamidomethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01060", "S-carboxamidomethyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamidomethylation of E
         atomChainAdded = new AtomChain();
@@ -1115,7 +1464,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:4", "Carbamidomethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01216", "iodoacetamide derivatized glutamic acid", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamidomethylation of K
         atomChainAdded = new AtomChain();
@@ -1133,7 +1482,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:4", "Carbamidomethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01212", "iodoacetamide N6-derivatized lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Oxidation of M
         atomChainAdded = new AtomChain();
@@ -1149,7 +1498,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00719", "L-methionine sulfoxide", null)); // @TODO: could also map to MOD:00425?
         modification.addNeutralLoss(NeutralLoss.CH4OS);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Oxidation of P
         atomChainAdded = new AtomChain();
@@ -1164,7 +1513,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:35", "Oxidation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00039", "4-hydroxy-L-proline", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Oxidation of K
         atomChainAdded = new AtomChain();
@@ -1179,7 +1528,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:35", "Oxidation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01047", "monohydroxylated lysine", null)); // @TODO: maps to parent term "monohydroxylated lysine"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Oxidation of C
         atomChainAdded = new AtomChain();
@@ -1194,7 +1543,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:35", "Oxidation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00210", "L-cysteine sulfenic acid", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Oxidation of N
         atomChainAdded = new AtomChain();
@@ -1209,7 +1558,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:35", "Oxidation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01688", "3-hydroxy-L-asparagine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dioxydation of M
         atomChainAdded = new AtomChain();
@@ -1224,7 +1573,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:425", "Dioxidation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00428", "dihydroxylated residue", null)); // @TODO: maps to parent term "dihydroxylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dioxydation of W
         atomChainAdded = new AtomChain();
@@ -1239,7 +1588,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:425", "Dioxidation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00428", "dihydroxylated residue", null)); // @TODO: maps to parent term "dihydroxylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trioxidation of C
         atomChainAdded = new AtomChain();
@@ -1254,7 +1603,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:345", "Trioxidation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00460", "L-cysteic acid (L-cysteine sulfonic acid)", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Phosphorylation of S
         atomChainAdded = new AtomChain();
@@ -1272,7 +1621,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00046", "O-phospho-L-serine", null));
         modification.addNeutralLoss(NeutralLoss.H3PO4);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Phosphorylation of T
         atomChainAdded = new AtomChain();
@@ -1290,7 +1639,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00047", "O-phospho-L-threonine", null));
         modification.addNeutralLoss(NeutralLoss.H3PO4);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Phosphorylation of Y
         atomChainAdded = new AtomChain();
@@ -1309,7 +1658,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addNeutralLoss(NeutralLoss.HPO3);
         modification.addReporterIon(ReporterIon.PHOSPHO_Y);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Arg6
         atomChainAdded = new AtomChain();
@@ -1325,7 +1674,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:188", "Label:13C(6)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01331", "6x(13)C labeled L-arginine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Arg10
         atomChainAdded = new AtomChain();
@@ -1343,7 +1692,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:267", "Label:13C(6)15N(4)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00587", "6x(13)C,4x(15)N labeled L-arginine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Lys4
         atomChainAdded = new AtomChain();
@@ -1359,7 +1708,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:481", "Label:2H(4)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00942", "(4,4,5,5-(2)H4)-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Lys6
         atomChainAdded = new AtomChain();
@@ -1375,7 +1724,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:188", "Label:13C(6)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01334", "6x(13)C labeled L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Lys8
         atomChainAdded = new AtomChain();
@@ -1393,7 +1742,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:259", "Label:13C(6)15N(2)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00582", "6x(13)C,2x(15)N labeled L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Pro5
         atomChainAdded = new AtomChain();
@@ -1409,7 +1758,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:772", "Label:13C(5)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01297", "5x(13)C labeled L-proline", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // 4-Hydroxyloproline
         atomChainAdded = new AtomChain();
@@ -1426,7 +1775,7 @@ public class ModificationFactory implements ModificationProvider {
         // @TODO: add Unimod mapping?
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Leu7
         atomChainAdded = new AtomChain();
@@ -1444,7 +1793,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:695", "Label:13C(6)15N(1)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01285", "6x(13)C,1x(15)N labeled L-leucine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Ile7
         atomChainAdded = new AtomChain();
@@ -1462,7 +1811,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:695", "Label:13C(6)15N(1)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01286", "6x(13)C,1x(15)N labeled L-isoleucine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Label of K 2H4
         atomChainAdded = new AtomChain();
@@ -1478,7 +1827,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:481", "Label:2H(4)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00942", "(4,4,5,5-(2)H4)-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of K 2H4
         atomChainAdded = new AtomChain();
@@ -1494,7 +1843,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:199 ", "Dimethyl:2H(4)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01254", "4x(2)H labeled dimethylated L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of K 2H6
         atomChainAdded = new AtomChain();
@@ -1511,7 +1860,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1291", "Dimethyl:2H(6)", null)); // note: does not have a PSI name, using interim name
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of K 2H(6) 13C(2)
         atomChainAdded = new AtomChain();
@@ -1528,7 +1877,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:330", " Dimethyl:2H(6)13C(2)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of peptide N-term 2H4
         atomChainAdded = new AtomChain();
@@ -1544,7 +1893,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:199 ", "Dimethyl:2H(4)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of peptide N-term 2H6
         atomChainAdded = new AtomChain();
@@ -1561,7 +1910,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD: 1291", "Dimethyl:2H(6)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of peptide N-term 2H(6) 13C(2)
         atomChainAdded = new AtomChain();
@@ -1578,7 +1927,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:330", " Dimethyl:2H(6)13C(2)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // 18O(2) of peptide C-term
         atomChainAdded = new AtomChain();
@@ -1594,7 +1943,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD: 193", "Label:18O(2)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00546", "(18)O label at both C-terminal oxygens", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // 18O(1) of peptide C-term
         atomChainAdded = new AtomChain();
@@ -1610,7 +1959,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:258", "Label:18O(1)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00581", "(18)O monosubstituted residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICAT-0
         atomChainAdded = new AtomChain();
@@ -1628,7 +1977,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:105", "ICAT-C", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00480", "Applied Biosystems cleavable ICAT(TM) light", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICAT-9
         atomChainAdded = new AtomChain();
@@ -1647,7 +1996,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:106", "ICAT-C:13C(9)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00481", "Applied Biosystems cleavable ICAT(TM) heavy", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL0 of K
         atomChainAdded = new AtomChain();
@@ -1665,7 +2014,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:365", "ICPL", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01230", "Bruker Daltonics SERVA-ICPL(TM) quantification chemistry, light form - site K", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL0 of peptide N-term
         atomChainAdded = new AtomChain();
@@ -1683,7 +2032,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:365", "ICPL", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL4 of K
         atomChainAdded = new AtomChain();
@@ -1702,7 +2051,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:687", "ICPL:2H(4)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01359", "Bruker Daltonics SERVA-ICPL(TM) quantification chemistry, medium form - site K", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL4 of peptide N-term
         atomChainAdded = new AtomChain();
@@ -1721,7 +2070,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:687", "ICPL:2H(4)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01358", "Bruker Daltonics SERVA-ICPL(TM) quantification chemistry, medium form - site N-term", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL6 of K
         atomChainAdded = new AtomChain();
@@ -1739,7 +2088,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:364", "ICPL:13C(6)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL6 of peptide N-term
         atomChainAdded = new AtomChain();
@@ -1757,7 +2106,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:364", "ICPL:13C(6)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL10 of K
         atomChainAdded = new AtomChain();
@@ -1776,7 +2125,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:866", "ICPL:13C(6)2H(4)", null)); // note: does not have a PSI name, using interim name
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01287", "Bruker Daltonics SERVA-ICPL(TM) quantification chemistry, heavy form - site K", null)); // @TODO: the mass in Unimod and PSI-MOD is not the same!
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ICPL10 of peptide N-term
         atomChainAdded = new AtomChain();
@@ -1795,7 +2144,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:866", "ICPL:13C(6)2H(4)", null)); // note: does not have a PSI name, using interim name
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // mTRAQ of K light
         atomChainAdded = new AtomChain();
@@ -1813,7 +2162,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD: 888", "mTRAQ", null)); // note: does not have a PSI name, using interim name
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01863", "mTRAQ reporter+balance reagent acylated residue", null)); // @TODO: maps to parent term "mTRAQ reporter+balance reagent acylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // mTRAQ of peptide N-term light
         atomChainAdded = new AtomChain();
@@ -1831,7 +2180,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:888", "mTRAQ", null)); // note: does not have a PSI name, using interim name
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01863", "mTRAQ reporter+balance reagent acylated residue", null)); // @TODO: maps to parent term "mTRAQ reporter+balance reagent acylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // mTRAQ of K 13C3 15N
         atomChainAdded = new AtomChain();
@@ -1851,7 +2200,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:889", "mTRAQ:13C(3)15N(1) ", null)); // note: does not have a PSI name, using interim name
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01863", "mTRAQ reporter+balance reagent acylated residue", null)); // @TODO: maps to parent term "mTRAQ reporter+balance reagent acylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // mTRAQ of peptide N-term 13C3 15N
         atomChainAdded = new AtomChain();
@@ -1872,7 +2221,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01863", "mTRAQ reporter+balance reagent acylated residue", null)); // @TODO: maps to parent term "mTRAQ reporter+balance reagent acylated residue"...
 
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // mTRAQ of K 13C6 15N2
         atomChainAdded = new AtomChain();
@@ -1891,7 +2240,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1302", "mTRAQ:13C(6)15N(2) ", null)); // note: does not have a PSI name, using interim name
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01863", "mTRAQ reporter+balance reagent acylated residue", null)); // @TODO: maps to parent term "mTRAQ reporter+balance reagent acylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // mTRAQ of peptide N-term 13C3 15N
         atomChainAdded = new AtomChain();
@@ -1910,7 +2259,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1302", "mTRAQ:13C(6)15N(2) ", null)); // note: does not have a PSI name, using interim name
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01863", "mTRAQ reporter+balance reagent acylated residue", null)); // @TODO: maps to parent term "mTRAQ reporter+balance reagent acylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iTRAQ 4-plex of peptide N-term
         atomChainAdded = new AtomChain();
@@ -1934,7 +2283,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iTRAQ4Plex_116);
         modification.addReporterIon(ReporterIon.iTRAQ4Plex_117);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iTRAQ 4-plex of K
         atomChainAdded = new AtomChain();
@@ -1958,7 +2307,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iTRAQ4Plex_116);
         modification.addReporterIon(ReporterIon.iTRAQ4Plex_117);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iTRAQ 4-plex of Y
         atomChainAdded = new AtomChain();
@@ -1982,7 +2331,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iTRAQ4Plex_116);
         modification.addReporterIon(ReporterIon.iTRAQ4Plex_117);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iTRAQ 8-plex of peptide N-term
         atomChainAdded = new AtomChain();
@@ -2010,7 +2359,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iTRAQ8Plex_119);
         modification.addReporterIon(ReporterIon.iTRAQ8Plex_121);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iTRAQ 8-plex of K
         atomChainAdded = new AtomChain();
@@ -2038,7 +2387,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iTRAQ8Plex_119);
         modification.addReporterIon(ReporterIon.iTRAQ8Plex_121);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iTRAQ 8-plex of Y
         atomChainAdded = new AtomChain();
@@ -2066,7 +2415,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iTRAQ8Plex_119);
         modification.addReporterIon(ReporterIon.iTRAQ8Plex_121);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 2-plex of peptide N-term
         atomChainAdded = new AtomChain();
@@ -2088,7 +2437,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_127C);
         modification.addReporterIon(ReporterIon.TMT_126_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 2-plex of K
         atomChainAdded = new AtomChain();
@@ -2110,7 +2459,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_127C);
         modification.addReporterIon(ReporterIon.TMT_126_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         /// TMT 6-plex of peptide N-term
         atomChainAdded = new AtomChain();
@@ -2142,7 +2491,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130C_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 6-plex of K
         atomChainAdded = new AtomChain();
@@ -2174,7 +2523,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130C_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 6-plex + K+4
         atomChainAdded = new AtomChain();
@@ -2207,7 +2556,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130C_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 6-plex of K+6
         atomChainAdded = new AtomChain();
@@ -2239,7 +2588,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130C_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 6-plex of K+8
         atomChainAdded = new AtomChain();
@@ -2271,7 +2620,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130C_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 10-plex of peptide N-term
         atomChainAdded = new AtomChain();
@@ -2311,7 +2660,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130N_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 10-plex of K
         atomChainAdded = new AtomChain();
@@ -2351,7 +2700,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130N_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 10-plex + K+4
         atomChainAdded = new AtomChain();
@@ -2392,7 +2741,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130N_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 10-plex of K+6
         atomChainAdded = new AtomChain();
@@ -2432,7 +2781,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130N_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 10-plex of K+8
         atomChainAdded = new AtomChain();
@@ -2472,7 +2821,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_130N_ETD);
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 11-plex of peptide N-term
         atomChainAdded = new AtomChain();
@@ -2514,7 +2863,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         modification.addReporterIon(ReporterIon.TMT_131C_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 11-plex of K
         atomChainAdded = new AtomChain();
@@ -2556,7 +2905,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         modification.addReporterIon(ReporterIon.TMT_131C_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 11-plex + K+4
         atomChainAdded = new AtomChain();
@@ -2598,7 +2947,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         modification.addReporterIon(ReporterIon.TMT_131C_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 11-plex of K+6
         atomChainAdded = new AtomChain();
@@ -2639,7 +2988,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         modification.addReporterIon(ReporterIon.TMT_131C_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMT 11-plex of K+8
         atomChainAdded = new AtomChain();
@@ -2680,7 +3029,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMT_131_ETD);
         modification.addReporterIon(ReporterIon.TMT_131C_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMTpro of peptide N-term
         atomChainAdded = new AtomChain();
@@ -2718,7 +3067,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMTpro_134C);
         modification.addReporterIon(ReporterIon.TMTpro_135N);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // TMTpro of K
         atomChainAdded = new AtomChain();
@@ -2756,7 +3105,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.TMTpro_134C);
         modification.addReporterIon(ReporterIon.TMTpro_135N);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iodoTMT zero of C
         atomChainAdded = new AtomChain();
@@ -2776,7 +3125,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iodoTMT_zero);
         modification.addReporterIon(ReporterIon.iodoTMT_zero_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // iodoTMT 6-plex of C
         atomChainAdded = new AtomChain();
@@ -2808,7 +3157,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.iodoTMT_130_ETD);
         modification.addReporterIon(ReporterIon.iodoTMT_131_ETD);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Ubiquitination of K
         atomChainAdded = new AtomChain();
@@ -2826,7 +3175,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:121", "GG", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00492", "ubiquitination signature dipeptidyl lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylation of K
         atomChainAdded = new AtomChain();
@@ -2842,7 +3191,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:34", "Methyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00085", "N6-methyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylation of R
         atomChainAdded = new AtomChain();
@@ -2863,7 +3212,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.METHYL_R_115);
         modification.addReporterIon(ReporterIon.METHYL_R_143);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylation of E
         atomChainAdded = new AtomChain();
@@ -2879,7 +3228,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:34", "Methyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00081", "L-glutamic acid 5-methyl ester (Glu)", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylation of C
         atomChainAdded = new AtomChain();
@@ -2895,7 +3244,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:34", "Methyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00660", "methylated cysteine", null)); // @TODO: maps to parent term "methylated cysteine"
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylation of D
         atomChainAdded = new AtomChain();
@@ -2911,7 +3260,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:34", "Methyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00079", "N4-methyl-L-asparagine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylation of S
         atomChainAdded = new AtomChain();
@@ -2927,7 +3276,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:34", "Methyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01782", "N-methyl-L-serine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of K
         atomChainAdded = new AtomChain();
@@ -2943,7 +3292,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:36", "Dimethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00084", "N6,N6-dimethyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of peptide N-term
         atomChainAdded = new AtomChain();
@@ -2959,7 +3308,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:36", "Dimethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01686", "alpha-amino dimethylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of R
         atomChainAdded = new AtomChain();
@@ -2978,7 +3327,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.DI_METHYL_R_115);
         modification.addReporterIon(ReporterIon.DI_METHYL_R_157);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dimethylation of N
         atomChainAdded = new AtomChain();
@@ -2994,7 +3343,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:36", "Dimethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00316", "N4,N4-dimethyl-L-asparagine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trimethylation of K
         atomChainAdded = new AtomChain();
@@ -3011,7 +3360,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00855", "N6,N6,N6-trimethyl-L-lysine (from L-lysinium residue)", null));
         modification.addNeutralLoss(NeutralLoss.C3H9N);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trimethylation of R
         atomChainAdded = new AtomChain();
@@ -3027,7 +3376,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:37", "Trimethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01669", "trimethyl-L-arginine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trimethylation of protein N-term A
         atomChainAdded = new AtomChain();
@@ -3043,7 +3392,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:37", "Trimethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01687", "alpha-amino trimethylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Pyrolidone from E
         atomChainAdded = new AtomChain();
@@ -3059,7 +3408,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:27", "Glu->pyro-Glu", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00420", "2-pyrrolidone-5-carboxylic acid (Glu)", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Pyrolidone from Q
         atomChainAdded = new AtomChain();
@@ -3075,7 +3424,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:28", "Gln->pyro-Glu", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00040", "2-pyrrolidone-5-carboxylic acid (Gln)", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Pyrolidone from carbamidomethylated C
         atomChainAdded = new AtomChain();
@@ -3091,7 +3440,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:385", "Ammonia-loss", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01871", "cyclized N-terminal S-carboxamidomethyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // HexNAc of S
         atomChainAdded = new AtomChain();
@@ -3109,7 +3458,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:43", "HexNAc", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // HexNAc of T
         atomChainAdded = new AtomChain();
@@ -3127,7 +3476,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:43", "HexNAc", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Hex(1)NAc(1) of S
         atomChainAdded = new AtomChain();
@@ -3145,7 +3494,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:793", "Hex(1)HexNAc(1) ", null)); // note: does not have a PSI name, using interim name
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Hex(1)NAc(1) of T
         atomChainAdded = new AtomChain();
@@ -3163,7 +3512,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:793", "Hex(1)HexNAc(1) ", null)); // note: does not have a PSI name, using interim name
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Hexose of K
         atomChainAdded = new AtomChain();
@@ -3181,7 +3530,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01347", "hexose glycated L-lysine", null));
 
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Hex(5) HexNAc(4) NeuAc(2) of N
         atomChainAdded = new AtomChain();
@@ -3199,7 +3548,7 @@ public class ModificationFactory implements ModificationProvider {
         // @TODO: add Unimod mapping?
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Hex(5) HexNAc(4) NeuAc(2) Na of N
         atomChainAdded = new AtomChain();
@@ -3218,7 +3567,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1408", "Hex(5)HexNAc(4)NeuAc(2) ", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // SUMO-2/3 Q87R
         atomChainAdded = new AtomChain();
@@ -3244,7 +3593,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.addReporterIon(ReporterIon.QQTGG);
         modification.addReporterIon(ReporterIon.QQTGG_H2O);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Deamidation of N
         atomChainAdded = new AtomChain();
@@ -3261,7 +3610,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:7", "Deamidated", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00684", "deamidated L-asparagine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Deamidation of Q
         atomChainAdded = new AtomChain();
@@ -3278,7 +3627,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:7", "Deamidated", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00685", "deamidated L-glutamine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Deamidation of N 18O
         atomChainAdded = new AtomChain();
@@ -3295,7 +3644,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD: 366", "Deamidation in presence of O18", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00791", "1x(18)O labeled deamidated L-glutamine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamylation of protein N-term
         atomChainAdded = new AtomChain();
@@ -3313,7 +3662,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:5", "Carbamyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01679", "alpha-aminocarbamoylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamylation of K
         atomChainAdded = new AtomChain();
@@ -3331,7 +3680,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:5", "Carbamyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01678", "N6-carbamoyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamylation of R
         atomChainAdded = new AtomChain();
@@ -3349,7 +3698,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:5", "Carbamyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00398", "carbamoylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamylation of C
         atomChainAdded = new AtomChain();
@@ -3367,7 +3716,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:5", "Carbamyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00337", "S-carbamoyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carbamylation of M
         atomChainAdded = new AtomChain();
@@ -3385,7 +3734,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:5", "Carbamyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00398", "carbamoylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Acetaldehyde +26
         atomChainAdded = new AtomChain();
@@ -3401,7 +3750,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:254", "Delta:H(2)C(2)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00577", "acetaldehyde +26", null)); // @TODO: this PSI-MOD not peptide n-term specific
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Sodium adduct to D
         atomChainAdded = new AtomChain();
@@ -3417,7 +3766,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:30", "Cation:Na", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01295", "monosodium L-aspartate", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Sodium adduct to E
         atomChainAdded = new AtomChain();
@@ -3433,7 +3782,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:30", "Cation:Na", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01296", "monosodium L-glutamate", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Amidation of peptide C-term
         atomChainAdded = new AtomChain();
@@ -3450,7 +3799,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:2", "Amidated", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00883", "C1-amidated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Amidation of protein C-term
         atomChainAdded = new AtomChain();
@@ -3467,7 +3816,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:2", "Amidated", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00883", "C1-amidated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Sulfation of S
         atomChainAdded = new AtomChain();
@@ -3483,7 +3832,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:40", "Sulfo", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00366", "O-sulfo-L-serine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Sulfation of T
         atomChainAdded = new AtomChain();
@@ -3499,7 +3848,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:40", "Sulfo", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00367", "O-sulfo-L-threonine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Sulfation of Y
         atomChainAdded = new AtomChain();
@@ -3515,7 +3864,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:40", "Sulfo", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00181", "O4'-sulfo-L-tyrosine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Palmitoylation of C
         atomChainAdded = new AtomChain();
@@ -3532,7 +3881,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:47", "Palmitoylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00440", "palmitoylated residue", null)); // @TODO: maps to parent term "palmitoylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Palmitoylation of K
         atomChainAdded = new AtomChain();
@@ -3549,7 +3898,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:47", "Palmitoylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00086", "N6-palmitoyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Palmitoylation of S
         atomChainAdded = new AtomChain();
@@ -3566,7 +3915,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:47", "Palmitoylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00089", "O-palmitoyl-L-serine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Palmitoylation of T
         atomChainAdded = new AtomChain();
@@ -3583,7 +3932,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:47", "Palmitoylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00088", "O-palmitoyl-L-threonine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Palmitoylation of protein N-term
         atomChainAdded = new AtomChain();
@@ -3600,7 +3949,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:47", "Palmitoylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01685", "alpha-amino palmitoylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Formylation of K
         atomChainAdded = new AtomChain();
@@ -3617,7 +3966,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00216", "N6-formyl-L-lysine", null));
         modification.addReporterIon(ReporterIon.FORMYL_K);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Formylation of S
         atomChainAdded = new AtomChain();
@@ -3633,7 +3982,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:122", "Formylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01222", "O-formyl-L-serine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Formylation of T
         atomChainAdded = new AtomChain();
@@ -3649,7 +3998,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:122", "Formylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01221", "O-formyl-L-threonine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Formylation of peptide N-term
         atomChainAdded = new AtomChain();
@@ -3665,7 +4014,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:122", "Formylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00409", "N-formylated residue", null)); // @TODO: maps to parent term "N-formylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Formylation of protein N-term
         atomChainAdded = new AtomChain();
@@ -3681,7 +4030,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:122", "Formylation", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00409", "N-formylated residue", null)); // @TODO: maps to parent term "N-formylated residue"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Propionyl of K light
         atomChainAdded = new AtomChain();
@@ -3699,7 +4048,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01232", "3x(12)C labeled N6-propanoyl-L-lysine", null));
 
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Propionyl of peptide N-term light
         atomChainAdded = new AtomChain();
@@ -3716,7 +4065,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:58", "Propionyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01895", "alpha-amino 3x(12)C-labeled propanoylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Propionyl of K heavy
         atomChainAdded = new AtomChain();
@@ -3733,7 +4082,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:59", "Propionyl:13C(3)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01231", "3x(13)C labeled N6-propanoyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Propionyl of peptide N-term heavy
         atomChainAdded = new AtomChain();
@@ -3750,7 +4099,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:59", "Propionyl:13C(3)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00452", "alpha-amino 3x(13)C-labeled propanoylated residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trideuterated Methyl Ester of D
         atomChainAdded = new AtomChain();
@@ -3767,7 +4116,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:298", "Methyl:2H(3)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01241", "3x(2)H labeled L-aspartic acid 4-methyl ester", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trideuterated Methyl Ester of E
         atomChainAdded = new AtomChain();
@@ -3784,7 +4133,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:298", "Methyl:2H(3)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01242", "3x(2)H labeled L-glutamic acid 5-methyl ester", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trideuterated Methyl Ester of K
         atomChainAdded = new AtomChain();
@@ -3801,7 +4150,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:298", "Methyl:2H(3)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trideuterated Methyl Ester of R
         atomChainAdded = new AtomChain();
@@ -3818,7 +4167,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:298", "Methyl:2H(3)", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Trideuterated Methyl Ester of peptide C-term
         atomChainAdded = new AtomChain();
@@ -3835,7 +4184,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:298", "Methyl:2H(3)", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00617", "3x(2)H residue methyl ester", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carboxymethylation of C
         atomChainAdded = new AtomChain();
@@ -3852,7 +4201,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:6", "Carboxymethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01061", "S-carboxymethyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carboxymethylation of K
         atomChainAdded = new AtomChain();
@@ -3869,7 +4218,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:6", "Carboxymethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01094", "N6-carboxymethyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carboxymethylation of W
         atomChainAdded = new AtomChain();
@@ -3886,7 +4235,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:6", "Carboxymethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01328", "iodoacetic acid - site W", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carboxymethylation of peptide N-term
         atomChainAdded = new AtomChain();
@@ -3903,7 +4252,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:6", "Carboxymethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01084", "iodoacetic acid derivatized amino-terminal residue", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Farnesylation of C
         atomChainAdded = new AtomChain();
@@ -3919,7 +4268,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:44", "Farnesyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00111", "S-farnesyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Geranyl-geranyl of C
         atomChainAdded = new AtomChain();
@@ -3935,7 +4284,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:48", "GeranylGeranyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00113", "S-geranylgeranyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Guanidination of K
         atomChainAdded = new AtomChain();
@@ -3952,7 +4301,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:52", "Guanidinyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00445", "L-homoarginine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Guanidination of peptide N-term
         atomChainAdded = new AtomChain();
@@ -3969,7 +4318,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:52", "Guanidinyl", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Homoserine of peptide C-term M
         atomChainAdded = new AtomChain();
@@ -3987,7 +4336,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:10", "Met->Hse", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00403", "homoserine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Homoserine lactone of peptide C-term M
         atomChainAdded = new AtomChain();
@@ -4004,7 +4353,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:11", "Met->Hsl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00404", "homoserine lactone", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Lipoyl of K
         atomChainAdded = new AtomChain();
@@ -4022,7 +4371,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:42", "Lipoyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00127", "N6-lipoyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylthio of D
         atomChainAdded = new AtomChain();
@@ -4039,7 +4388,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:39", "Methylthio", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00237", "L-beta-methylthioaspartic acid", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylthio of N
         atomChainAdded = new AtomChain();
@@ -4056,7 +4405,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:39", "Methylthio", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00325", "L-beta-methylthioasparagine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Methylthio of C
         atomChainAdded = new AtomChain();
@@ -4073,7 +4422,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:39", "Methylthio", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00110", "L-cysteine methyl disulfide", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // NIPCAM of C
         atomChainAdded = new AtomChain();
@@ -4091,7 +4440,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:17", "NIPCAM", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00410", "S-(N-isopropylcarboxamidomethyl)-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Propionamide of C
         atomChainAdded = new AtomChain();
@@ -4109,7 +4458,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:24", "Propionamide", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00417", "S-carboxamidoethyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Propionamide of K
         atomChainAdded = new AtomChain();
@@ -4127,7 +4476,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:24", "Propionamide", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Propionamide of peptide N-term
         atomChainAdded = new AtomChain();
@@ -4145,7 +4494,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:24", "Propionamide", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Pyridylethyl of C
         atomChainAdded = new AtomChain();
@@ -4162,7 +4511,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:31", "Pyridylethyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00424", "S-pyridylethyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dehydration of S
         atomChainAdded = new AtomChain();
@@ -4178,7 +4527,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:23", "Dehydrated", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00189", "dehydroalanine (Ser)", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Dehydration of T
         atomChainAdded = new AtomChain();;
@@ -4194,7 +4543,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:23", "Dehydrated", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00190", "dehydrobutyrine (Thr)", null)); // @TODO: maps to parent term "dehydrobutyrine (Thr)"...
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Nethylmaleimide of C
         atomChainAdded = new AtomChain();
@@ -4212,7 +4561,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:108", "Nethylmaleimide", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00483", "N-ethylmaleimide derivatized cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Glutathione of C
         atomChainAdded = new AtomChain();
@@ -4231,7 +4580,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:55", "Glutathione", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00234", "L-cysteine glutathione disulfide", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // FormylMet of protein N-term
         atomChainAdded = new AtomChain();
@@ -4250,7 +4599,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:107", "FormylMet", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Didehydro of T
         atomChainAdded = new AtomChain();
@@ -4265,7 +4614,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:401", "Didehydro", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01345", "2-amino-3-oxobutanoic acid", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Didehydro of Y
         atomChainAdded = new AtomChain();
@@ -4280,7 +4629,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:401", "Didehydro", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00706", "dehydrogenated tyrosine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Thioacyl of peptide N-term
         atomChainAdded = new AtomChain();
@@ -4298,7 +4647,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:126", "Thioacyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01223", "thioacylation of primary amines - site N-term", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Diiodination of Y
         atomChainAdded = new AtomChain();
@@ -4314,7 +4663,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:130", "Diiodo", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01140", "diiodinated tyrosine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Citrullination of R
         atomChainAdded = new AtomChain();
@@ -4332,7 +4681,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00400", "deamidated residue", null));
         modification.addNeutralLoss(NeutralLoss.HCNO);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S-nitrosylation of C
         atomChainAdded = new AtomChain();
@@ -4349,7 +4698,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:275", "Nitrosyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00235", "S-nitrosyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Heme B of C
         atomChainAdded = new AtomChain();
@@ -4368,7 +4717,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:390", "Heme", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Heme B of H
         atomChainAdded = new AtomChain();
@@ -4387,7 +4736,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:390", "Heme", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carboxylation of K
         atomChainAdded = new AtomChain();
@@ -4403,7 +4752,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:299", "Carboxy", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00123", "N6-carboxy-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carboxylation of D
         atomChainAdded = new AtomChain();
@@ -4419,7 +4768,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:299", "Carboxy", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00309", "L-beta-carboxyaspartic acid", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Carboxylation of E
         atomChainAdded = new AtomChain();
@@ -4435,7 +4784,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:299", "Carboxy", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00041", "L-gamma-carboxyglutamic acid", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Nitrosylation of Y
         atomChainAdded = new AtomChain();
@@ -4452,7 +4801,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:354", "Nitro", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01352", "nitrated L-tyrosine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Nitrosylation of C
         atomChainAdded = new AtomChain();
@@ -4469,7 +4818,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:275", "Nitrosyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00235", "S-nitrosyl-L-cysteine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Butyrylation of K
         atomChainAdded = new AtomChain();
@@ -4486,7 +4835,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1289", "Butyryl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01781", "N6-butanoyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Crotonylation of K
         atomChainAdded = new AtomChain();
@@ -4503,7 +4852,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1363", "Crotonyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01892", "N6-crotonyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Glutarylation of K
         atomChainAdded = new AtomChain();
@@ -4520,7 +4869,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1848", "Gluratylation", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Malonylation of K
         atomChainAdded = new AtomChain();
@@ -4537,7 +4886,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:747", "Malonyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01893", "N6-malonyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Succinylation of K
         atomChainAdded = new AtomChain();
@@ -4554,7 +4903,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:64", "Succinyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01819", "N6-succinyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // ADP-ribosylation of S
         atomChainAdded = new AtomChain();
@@ -4573,7 +4922,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:213", "ADP-Ribosyl", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00242", "O-(ADP-ribosyl)-L-serine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Pyridoxal phosphate of K
         atomChainAdded = new AtomChain();
@@ -4592,7 +4941,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:46", "PyridoxalPhosphate", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00128", "N6-pyridoxal phosphate-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Biotinylation of K
         atomChainAdded = new AtomChain();
@@ -4611,7 +4960,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:3", "Biotin", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00126", "N6-biotinyl-L-lysine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Oxidation to Kynurenine of W
         atomChainAdded = new AtomChain();
@@ -4627,7 +4976,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:351", "kynurenin", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:00462", "L-kynurenine", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Quinone of Y
         atomChainAdded = new AtomChain();
@@ -4643,7 +4992,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:392", "Quinone", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Quinone of W
         atomChainAdded = new AtomChain();
@@ -4659,7 +5008,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:392", "Quinone", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Potassium on D
         atomChainAdded = new AtomChain();
@@ -4675,7 +5024,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:530", "Cation:K", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01245", "potassium L-aspartate", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Potassium on E
         atomChainAdded = new AtomChain();
@@ -4691,7 +5040,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:530", "Cation:K", null));
         modification.setPsiModCvTerm(new CvTerm("MOD", "MOD:01244", "potassium L-glutamate", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Calcium on D
         atomChainAdded = new AtomChain();
@@ -4707,7 +5056,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:951", "Cation:Ca[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Calcium on E
         atomChainAdded = new AtomChain();
@@ -4723,7 +5072,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:951", "Cation:Ca[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Zinc on D
         atomChainAdded = new AtomChain();
@@ -4739,7 +5088,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:954", "Cation:Zn[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Zinc on E
         atomChainAdded = new AtomChain();
@@ -4755,7 +5104,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:954", "Cation:Zn[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Iron[II] on D
         atomChainAdded = new AtomChain();
@@ -4771,7 +5120,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:952", "Cation:Fe[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Iron[II] on E
         atomChainAdded = new AtomChain();
@@ -4787,7 +5136,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:952", "Cation:Fe[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Iron[III] on D
         atomChainAdded = new AtomChain();
@@ -4803,7 +5152,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1870", "Cation:Fe[III]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Iron[III] on E
         atomChainAdded = new AtomChain();
@@ -4819,7 +5168,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1870", "Cation:Fe[III]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Magnesium on D
         atomChainAdded = new AtomChain();
@@ -4835,7 +5184,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:956", "Cation:Mg[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Magnesium on E
         atomChainAdded = new AtomChain();
@@ -4851,7 +5200,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:956", "Cation:Mg[II]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Copper on D
         atomChainAdded = new AtomChain();
@@ -4867,7 +5216,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:531", "Cation:Cu[I]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Copper on E
         atomChainAdded = new AtomChain();
@@ -4883,7 +5232,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:531", "Cation:Cu[I]", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Ammonia loss from N
         atomChainAdded = new AtomChain();
@@ -4899,7 +5248,7 @@ public class ModificationFactory implements ModificationProvider {
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:385", "Ammonia-loss", null));
         // @TODO: add PSI-MOD mapping?
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         addSubstitutions();
     }
@@ -4924,7 +5273,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:676", "Trp->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to A
         atomChainAdded = new AtomChain();
@@ -4940,7 +5289,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1224", "Trp->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to G
         atomChainAdded = new AtomChain();
@@ -4956,7 +5305,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1239", "Tyr->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to G
         atomChainAdded = new AtomChain();
@@ -4972,7 +5321,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:646", "Arg->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to S
         atomChainAdded = new AtomChain();
@@ -4989,7 +5338,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:673", "Trp->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to A
         atomChainAdded = new AtomChain();
@@ -5005,7 +5354,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1237", "Tyr->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to G
         atomChainAdded = new AtomChain();
@@ -5020,7 +5369,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1093", "Phe->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to P
         atomChainAdded = new AtomChain();
@@ -5036,7 +5385,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1232", "Trp->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to V
         atomChainAdded = new AtomChain();
@@ -5052,7 +5401,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:677", "Trp->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to A
         atomChainAdded = new AtomChain();
@@ -5068,7 +5417,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1189", "Arg->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to T
         atomChainAdded = new AtomChain();
@@ -5085,7 +5434,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1234", "Trp->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to C
         atomChainAdded = new AtomChain();
@@ -5102,7 +5451,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:674", "Trp->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to G
         atomChainAdded = new AtomChain();
@@ -5118,7 +5467,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1117", "His->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to A
         atomChainAdded = new AtomChain();
@@ -5133,7 +5482,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1090", "Phe->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to S
         atomChainAdded = new AtomChain();
@@ -5148,7 +5497,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:679", "Tyr->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to G
         atomChainAdded = new AtomChain();
@@ -5164,7 +5513,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1147", "Met->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to I
         atomChainAdded = new AtomChain();
@@ -5179,7 +5528,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to L
         atomChainAdded = new AtomChain();
@@ -5194,7 +5543,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to N
         atomChainAdded = new AtomChain();
@@ -5210,7 +5559,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1231", "Trp->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to G
         atomChainAdded = new AtomChain();
@@ -5226,7 +5575,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:564", "Glu->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to G
         atomChainAdded = new AtomChain();
@@ -5242,7 +5591,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1135", "Lys->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to D
         atomChainAdded = new AtomChain();
@@ -5259,7 +5608,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1225", "Trp->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to G
         atomChainAdded = new AtomChain();
@@ -5276,7 +5625,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1181", "Gln->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to S
         atomChainAdded = new AtomChain();
@@ -5293,7 +5642,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:636", "Arg->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to A
         atomChainAdded = new AtomChain();
@@ -5309,7 +5658,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1113", "His->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to P
         atomChainAdded = new AtomChain();
@@ -5325,7 +5674,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1242", "Tyr->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to V
         atomChainAdded = new AtomChain();
@@ -5340,7 +5689,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1248", "Tyr->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to T
         atomChainAdded = new AtomChain();
@@ -5355,7 +5704,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1245", "Tyr->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to C
         atomChainAdded = new AtomChain();
@@ -5372,7 +5721,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:683", "Tyr->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to S
         atomChainAdded = new AtomChain();
@@ -5388,7 +5737,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:566", "Phe->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to A
         atomChainAdded = new AtomChain();
@@ -5404,7 +5753,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1142", "Met->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to P
         atomChainAdded = new AtomChain();
@@ -5420,7 +5769,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:639", "Arg->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to Q
         atomChainAdded = new AtomChain();
@@ -5436,7 +5785,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1233", "Trp->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to G
         atomChainAdded = new AtomChain();
@@ -5452,7 +5801,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:556", "Asp->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to A
         atomChainAdded = new AtomChain();
@@ -5468,7 +5817,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:560", "Glu->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to K
         atomChainAdded = new AtomChain();
@@ -5483,7 +5832,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1229", "Trp->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to A
         atomChainAdded = new AtomChain();
@@ -5499,7 +5848,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1131", "Lys->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to E
         atomChainAdded = new AtomChain();
@@ -5516,7 +5865,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1226", "Trp->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to V
         atomChainAdded = new AtomChain();
@@ -5532,7 +5881,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:645", "Arg->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to G
         atomChainAdded = new AtomChain();
@@ -5549,7 +5898,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1159", "Asn->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to A
         atomChainAdded = new AtomChain();
@@ -5566,7 +5915,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1177", "Gln->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to G
         atomChainAdded = new AtomChain();
@@ -5580,7 +5929,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to G
         atomChainAdded = new AtomChain();
@@ -5594,7 +5943,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to T
         atomChainAdded = new AtomChain();
@@ -5611,7 +5960,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:638", "Arg->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to M
         atomChainAdded = new AtomChain();
@@ -5628,7 +5977,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1230", "Trp->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to C
         atomChainAdded = new AtomChain();
@@ -5645,7 +5994,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:644", "Arg->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to S
         atomChainAdded = new AtomChain();
@@ -5662,7 +6011,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1121", "His->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to P
         atomChainAdded = new AtomChain();
@@ -5677,7 +6026,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1098", "Phe->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to I
         atomChainAdded = new AtomChain();
@@ -5692,7 +6041,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to L
         atomChainAdded = new AtomChain();
@@ -5707,7 +6056,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to H
         atomChainAdded = new AtomChain();
@@ -5723,7 +6072,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1228", "Trp->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to N
         atomChainAdded = new AtomChain();
@@ -5739,7 +6088,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:680", "Tyr->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to D
         atomChainAdded = new AtomChain();
@@ -5755,7 +6104,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:682", "Tyr->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to V
         atomChainAdded = new AtomChain();
@@ -5769,7 +6118,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:568", "Phe->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to T
         atomChainAdded = new AtomChain();
@@ -5785,7 +6134,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1101", "Phe->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to G
         atomChainAdded = new AtomChain();
@@ -5801,7 +6150,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:552", "Cys->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to C
         atomChainAdded = new AtomChain();
@@ -5817,7 +6166,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:567", "Phe->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to G
         atomChainAdded = new AtomChain();
@@ -5833,7 +6182,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1207", "Thr->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to S
         atomChainAdded = new AtomChain();
@@ -5850,7 +6199,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1152", "Met->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to A
         atomChainAdded = new AtomChain();
@@ -5865,7 +6214,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:553", "Asp->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to I
         atomChainAdded = new AtomChain();
@@ -5879,7 +6228,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to L
         atomChainAdded = new AtomChain();
@@ -5893,7 +6242,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to A
         atomChainAdded = new AtomChain();
@@ -5910,7 +6259,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1155", "Asn->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to N
         atomChainAdded = new AtomChain();
@@ -5927,7 +6276,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1192", "Arg->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to A
         atomChainAdded = new AtomChain();
@@ -5941,7 +6290,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to A
         atomChainAdded = new AtomChain();
@@ -5955,7 +6304,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to G
         atomChainAdded = new AtomChain();
@@ -5970,7 +6319,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1129", "Xle->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to S
         atomChainAdded = new AtomChain();
@@ -5986,7 +6335,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1086", "Glu->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to D
         atomChainAdded = new AtomChain();
@@ -6003,7 +6352,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1190", "Arg->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to S
         atomChainAdded = new AtomChain();
@@ -6020,7 +6369,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1138", "Lys->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to S
         atomChainAdded = new AtomChain();
@@ -6036,7 +6385,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1184", "Gln->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to G
         atomChainAdded = new AtomChain();
@@ -6051,7 +6400,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1170", "Pro->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to P
         atomChainAdded = new AtomChain();
@@ -6066,7 +6415,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:580", "His->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to F
         atomChainAdded = new AtomChain();
@@ -6082,7 +6431,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1227", "Trp->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to V
         atomChainAdded = new AtomChain();
@@ -6098,7 +6447,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:585", "His->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to T
         atomChainAdded = new AtomChain();
@@ -6114,7 +6463,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1122", "His->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to Q
         atomChainAdded = new AtomChain();
@@ -6130,7 +6479,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1243", "Tyr->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to K
         atomChainAdded = new AtomChain();
@@ -6147,7 +6496,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1240", "Tyr->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to C
         atomChainAdded = new AtomChain();
@@ -6164,7 +6513,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1114", "His->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to E
         atomChainAdded = new AtomChain();
@@ -6180,7 +6529,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1238", "Tyr->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to P
         atomChainAdded = new AtomChain();
@@ -6195,7 +6544,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1150", "Met->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to I
         atomChainAdded = new AtomChain();
@@ -6209,7 +6558,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to L
         atomChainAdded = new AtomChain();
@@ -6223,7 +6572,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to N
         atomChainAdded = new AtomChain();
@@ -6240,7 +6589,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1097", "Phe->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to D
         atomChainAdded = new AtomChain();
@@ -6256,7 +6605,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1091", "Phe->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to M
         atomChainAdded = new AtomChain();
@@ -6272,7 +6621,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1241", "Tyr->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to P
         atomChainAdded = new AtomChain();
@@ -6286,7 +6635,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1084", "Glu->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to A
         atomChainAdded = new AtomChain();
@@ -6300,7 +6649,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:939", "Cys->methylaminoAla", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to V
         atomChainAdded = new AtomChain();
@@ -6314,7 +6663,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:614", "Met->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to P
         atomChainAdded = new AtomChain();
@@ -6330,7 +6679,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1137", "Lys->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to P
         atomChainAdded = new AtomChain();
@@ -6346,7 +6695,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:630", "Gln->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to G
         atomChainAdded = new AtomChain();
@@ -6362,7 +6711,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:657", "Ser->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to A
         atomChainAdded = new AtomChain();
@@ -6378,7 +6727,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:659", "Thr->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to T
         atomChainAdded = new AtomChain();
@@ -6395,7 +6744,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:610", "Met->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to R
         atomChainAdded = new AtomChain();
@@ -6411,7 +6760,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:675", "Trp->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to V
         atomChainAdded = new AtomChain();
@@ -6426,7 +6775,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1081", "Glu->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to V
         atomChainAdded = new AtomChain();
@@ -6442,7 +6791,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:600", "Lys->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to V
         atomChainAdded = new AtomChain();
@@ -6458,7 +6807,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:635", "Gln->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to Q
         atomChainAdded = new AtomChain();
@@ -6475,7 +6824,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:642", "Arg->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to C
         atomChainAdded = new AtomChain();
@@ -6490,7 +6839,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1143", "Met->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to A
         atomChainAdded = new AtomChain();
@@ -6505,7 +6854,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1125", "Xle->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to K
         atomChainAdded = new AtomChain();
@@ -6519,7 +6868,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:640", "Arg->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to S
         atomChainAdded = new AtomChain();
@@ -6534,7 +6883,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1075", "Asp->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to T
         atomChainAdded = new AtomChain();
@@ -6549,7 +6898,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1087", "Glu->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to E
         atomChainAdded = new AtomChain();
@@ -6566,7 +6915,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1191", "Arg->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to T
         atomChainAdded = new AtomChain();
@@ -6583,7 +6932,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:594", "Lys->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to S
         atomChainAdded = new AtomChain();
@@ -6599,7 +6948,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:616", "Asn->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to T
         atomChainAdded = new AtomChain();
@@ -6615,7 +6964,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1185", "Gln->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to S
         atomChainAdded = new AtomChain();
@@ -6630,7 +6979,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to S
         atomChainAdded = new AtomChain();
@@ -6645,7 +6994,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to C
         atomChainAdded = new AtomChain();
@@ -6662,7 +7011,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1078", "Glu->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to A
         atomChainAdded = new AtomChain();
@@ -6677,7 +7026,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:624", "Pro->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to H
         atomChainAdded = new AtomChain();
@@ -6694,7 +7043,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:681", "Tyr->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to C
         atomChainAdded = new AtomChain();
@@ -6711,7 +7060,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1132", "Lys->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to M
         atomChainAdded = new AtomChain();
@@ -6728,7 +7077,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:837", "Arg->Npo", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to C
         atomChainAdded = new AtomChain();
@@ -6746,7 +7095,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1178", "Gln->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to I
         atomChainAdded = new AtomChain();
@@ -6760,7 +7109,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to L
         atomChainAdded = new AtomChain();
@@ -6774,7 +7123,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to N
         atomChainAdded = new AtomChain();
@@ -6790,7 +7139,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // W to Y
         atomChainAdded = new AtomChain();
@@ -6807,7 +7156,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1236", "Trp->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to D
         atomChainAdded = new AtomChain();
@@ -6823,7 +7172,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to H
         atomChainAdded = new AtomChain();
@@ -6838,7 +7187,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:641", "Arg->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to Q
         atomChainAdded = new AtomChain();
@@ -6855,7 +7204,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1099", "Phe->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to K
         atomChainAdded = new AtomChain();
@@ -6871,7 +7220,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1095", "Phe->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to E
         atomChainAdded = new AtomChain();
@@ -6887,7 +7236,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1092", "Phe->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to P
         atomChainAdded = new AtomChain();
@@ -6903,7 +7252,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1072", "Asp->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to I
         atomChainAdded = new AtomChain();
@@ -6918,7 +7267,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to L
         atomChainAdded = new AtomChain();
@@ -6933,7 +7282,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to N
         atomChainAdded = new AtomChain();
@@ -6951,7 +7300,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1149", "Met->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to P
         atomChainAdded = new AtomChain();
@@ -6968,7 +7317,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1161", "Asn->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to P
         atomChainAdded = new AtomChain();
@@ -6982,7 +7331,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to P
         atomChainAdded = new AtomChain();
@@ -6996,7 +7345,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to M
         atomChainAdded = new AtomChain();
@@ -7011,7 +7360,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1096", "Phe->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to D
         atomChainAdded = new AtomChain();
@@ -7028,7 +7377,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1144", "Met->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to A
         atomChainAdded = new AtomChain();
@@ -7042,7 +7391,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:648", "Ser->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to F
         atomChainAdded = new AtomChain();
@@ -7056,7 +7405,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:678", "Tyr->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to S
         atomChainAdded = new AtomChain();
@@ -7071,7 +7420,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:548", "Cys->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to V
         atomChainAdded = new AtomChain();
@@ -7087,7 +7436,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1069", "Asp->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to I
         atomChainAdded = new AtomChain();
@@ -7102,7 +7451,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to L
         atomChainAdded = new AtomChain();
@@ -7117,7 +7466,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to I
         atomChainAdded = new AtomChain();
@@ -7131,7 +7480,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to L
         atomChainAdded = new AtomChain();
@@ -7145,7 +7494,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to N
         atomChainAdded = new AtomChain();
@@ -7162,7 +7511,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1083", "Glu->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to V
         atomChainAdded = new AtomChain();
@@ -7179,7 +7528,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:622", "Asn->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to I
         atomChainAdded = new AtomChain();
@@ -7195,7 +7544,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to L
         atomChainAdded = new AtomChain();
@@ -7211,7 +7560,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to N
         atomChainAdded = new AtomChain();
@@ -7227,7 +7576,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:595", "Lys->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to G
         atomChainAdded = new AtomChain();
@@ -7242,7 +7591,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:544", "Ala->Gly", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to D
         atomChainAdded = new AtomChain();
@@ -7257,7 +7606,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:562", "Glu->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to V
         atomChainAdded = new AtomChain();
@@ -7271,7 +7620,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to V
         atomChainAdded = new AtomChain();
@@ -7285,7 +7634,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to N
         atomChainAdded = new AtomChain();
@@ -7300,7 +7649,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1183", "Gln->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to S
         atomChainAdded = new AtomChain();
@@ -7315,7 +7664,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:658", "Thr->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to T
         atomChainAdded = new AtomChain();
@@ -7330,7 +7679,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1076", "Asp->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to D
         atomChainAdded = new AtomChain();
@@ -7347,7 +7696,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1133", "Lys->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to D
         atomChainAdded = new AtomChain();
@@ -7364,7 +7713,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1179", "Gln->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to T
         atomChainAdded = new AtomChain();
@@ -7379,7 +7728,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:617", "Asn->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to T
         atomChainAdded = new AtomChain();
@@ -7394,7 +7743,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to T
         atomChainAdded = new AtomChain();
@@ -7410,7 +7759,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:905", "Leu->MetOx", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to S
         atomChainAdded = new AtomChain();
@@ -7426,7 +7775,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:601", "Xle->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to C
         atomChainAdded = new AtomChain();
@@ -7442,7 +7791,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1067", "Asp->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to C
         atomChainAdded = new AtomChain();
@@ -7460,7 +7809,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1156", "Asn->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to C
         atomChainAdded = new AtomChain();
@@ -7475,7 +7824,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to C
         atomChainAdded = new AtomChain();
@@ -7490,7 +7839,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to S
         atomChainAdded = new AtomChain();
@@ -7506,7 +7855,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:623", "Pro->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to H
         atomChainAdded = new AtomChain();
@@ -7522,7 +7871,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1094", "Phe->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to F
         atomChainAdded = new AtomChain();
@@ -7538,7 +7887,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1195", "Arg->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to Q
         atomChainAdded = new AtomChain();
@@ -7555,7 +7904,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:582", "His->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to K
         atomChainAdded = new AtomChain();
@@ -7570,7 +7919,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1119", "His->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to E
         atomChainAdded = new AtomChain();
@@ -7586,7 +7935,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1115", "His->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to R
         atomChainAdded = new AtomChain();
@@ -7603,7 +7952,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1244", "Tyr->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to M
         atomChainAdded = new AtomChain();
@@ -7620,7 +7969,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1120", "His->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to P
         atomChainAdded = new AtomChain();
@@ -7636,7 +7985,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1063", "Cys->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to P
         atomChainAdded = new AtomChain();
@@ -7651,7 +8000,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:662", "Thr->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to V
         atomChainAdded = new AtomChain();
@@ -7667,7 +8016,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1059", "Cys->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to Q
         atomChainAdded = new AtomChain();
@@ -7684,7 +8033,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1151", "Met->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to K
         atomChainAdded = new AtomChain();
@@ -7701,7 +8050,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:613", "Met->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to P
         atomChainAdded = new AtomChain();
@@ -7715,7 +8064,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:604", "Xle->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to E
         atomChainAdded = new AtomChain();
@@ -7731,7 +8080,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1145", "Met->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to V
         atomChainAdded = new AtomChain();
@@ -7747,7 +8096,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:664", "Thr->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to T
         atomChainAdded = new AtomChain();
@@ -7764,7 +8113,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1065", "Cys->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to I
         atomChainAdded = new AtomChain();
@@ -7779,7 +8128,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to L
         atomChainAdded = new AtomChain();
@@ -7794,7 +8143,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to N
         atomChainAdded = new AtomChain();
@@ -7810,7 +8159,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:555", "Asp->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to Q
         atomChainAdded = new AtomChain();
@@ -7826,7 +8175,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:561", "Glu->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to I
         atomChainAdded = new AtomChain();
@@ -7842,7 +8191,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to L
         atomChainAdded = new AtomChain();
@@ -7858,7 +8207,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to K
         atomChainAdded = new AtomChain();
@@ -7875,7 +8224,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:563", "Glu->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to Q
         atomChainAdded = new AtomChain();
@@ -7891,7 +8240,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:597", "Lys->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to K
         atomChainAdded = new AtomChain();
@@ -7907,7 +8256,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:631", "Gln->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to E
         atomChainAdded = new AtomChain();
@@ -7924,7 +8273,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:596", "Lys->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to N
         atomChainAdded = new AtomChain();
@@ -7940,7 +8289,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to N
         atomChainAdded = new AtomChain();
@@ -7956,7 +8305,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to D
         atomChainAdded = new AtomChain();
@@ -7972,7 +8321,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:621", "Asn->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to E
         atomChainAdded = new AtomChain();
@@ -7988,7 +8337,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:632", "Gln->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to D
         atomChainAdded = new AtomChain();
@@ -8003,7 +8352,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to D
         atomChainAdded = new AtomChain();
@@ -8018,7 +8367,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to C
         atomChainAdded = new AtomChain();
@@ -8035,7 +8384,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1203", "Thr->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to T
         atomChainAdded = new AtomChain();
@@ -8051,7 +8400,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:588", "Xle->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to M
         atomChainAdded = new AtomChain();
@@ -8067,7 +8416,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1082", "Glu->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to V
         atomChainAdded = new AtomChain();
@@ -8081,7 +8430,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:629", "Pro->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to M
         atomChainAdded = new AtomChain();
@@ -8098,7 +8447,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:598", "Lys->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to M
         atomChainAdded = new AtomChain();
@@ -8115,7 +8464,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1182", "Gln->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to C
         atomChainAdded = new AtomChain();
@@ -8131,7 +8480,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1126", "Xle->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to T
         atomChainAdded = new AtomChain();
@@ -8146,7 +8495,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:627", "Pro->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to C
         atomChainAdded = new AtomChain();
@@ -8162,7 +8511,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1166", "Pro->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to H
         atomChainAdded = new AtomChain();
@@ -8179,7 +8528,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:899", "Met->Hpg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to Y
         atomChainAdded = new AtomChain();
@@ -8196,7 +8545,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1194", "Arg->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to H
         atomChainAdded = new AtomChain();
@@ -8212,7 +8561,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1080", "Glu->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to H
         atomChainAdded = new AtomChain();
@@ -8227,7 +8576,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1136", "Lys->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to H
         atomChainAdded = new AtomChain();
@@ -8244,7 +8593,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:633", "Gln->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to R
         atomChainAdded = new AtomChain();
@@ -8260,7 +8609,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1100", "Phe->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to F
         atomChainAdded = new AtomChain();
@@ -8276,7 +8625,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1116", "His->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to P
         atomChainAdded = new AtomChain();
@@ -8292,7 +8641,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:652", "Ser->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to I
         atomChainAdded = new AtomChain();
@@ -8307,7 +8656,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to L
         atomChainAdded = new AtomChain();
@@ -8322,7 +8671,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to N
         atomChainAdded = new AtomChain();
@@ -8340,7 +8689,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1062", "Cys->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to D
         atomChainAdded = new AtomChain();
@@ -8356,7 +8705,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1056", "Cys->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to V
         atomChainAdded = new AtomChain();
@@ -8372,7 +8721,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:656", "Ser->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to I
         atomChainAdded = new AtomChain();
@@ -8387,7 +8736,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to L
         atomChainAdded = new AtomChain();
@@ -8402,7 +8751,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to N
         atomChainAdded = new AtomChain();
@@ -8417,7 +8766,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:660", "Thr->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to Q
         atomChainAdded = new AtomChain();
@@ -8434,7 +8783,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1073", "Asp->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to K
         atomChainAdded = new AtomChain();
@@ -8451,7 +8800,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1070", "Asp->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to D
         atomChainAdded = new AtomChain();
@@ -8466,7 +8815,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1204", "Thr->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to E
         atomChainAdded = new AtomChain();
@@ -8481,7 +8830,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:558", "Asp->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to A
         atomChainAdded = new AtomChain();
@@ -8496,7 +8845,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:571", "Gly->Ala", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to Q
         atomChainAdded = new AtomChain();
@@ -8511,7 +8860,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1162", "Asn->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to T
         atomChainAdded = new AtomChain();
@@ -8526,7 +8875,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:650", "Ser->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to I
         atomChainAdded = new AtomChain();
@@ -8540,7 +8889,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to L
         atomChainAdded = new AtomChain();
@@ -8554,7 +8903,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to K
         atomChainAdded = new AtomChain();
@@ -8570,7 +8919,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:618", "Asn->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to Q
         atomChainAdded = new AtomChain();
@@ -8586,7 +8935,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to Q
         atomChainAdded = new AtomChain();
@@ -8602,7 +8951,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to N
         atomChainAdded = new AtomChain();
@@ -8619,7 +8968,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:589", "Xle->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to E
         atomChainAdded = new AtomChain();
@@ -8636,7 +8985,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1157", "Asn->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to K
         atomChainAdded = new AtomChain();
@@ -8650,7 +8999,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to K
         atomChainAdded = new AtomChain();
@@ -8664,7 +9013,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to E
         atomChainAdded = new AtomChain();
@@ -8679,7 +9028,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to E
         atomChainAdded = new AtomChain();
@@ -8694,7 +9043,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to D
         atomChainAdded = new AtomChain();
@@ -8710,7 +9059,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1127", "Xle->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to C
         atomChainAdded = new AtomChain();
@@ -8725,7 +9074,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:654", "Ser->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to S
         atomChainAdded = new AtomChain();
@@ -8739,7 +9088,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:540", "Ala->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to Y
         atomChainAdded = new AtomChain();
@@ -8753,7 +9102,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:569", "Phe->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to M
         atomChainAdded = new AtomChain();
@@ -8770,7 +9119,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1071", "Asp->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to F
         atomChainAdded = new AtomChain();
@@ -8785,7 +9134,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1146", "Met->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to I
         atomChainAdded = new AtomChain();
@@ -8799,7 +9148,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to L
         atomChainAdded = new AtomChain();
@@ -8813,7 +9162,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to N
         atomChainAdded = new AtomChain();
@@ -8830,7 +9179,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1173", "Pro->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to M
         atomChainAdded = new AtomChain();
@@ -8848,7 +9197,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1160", "Asn->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to M
         atomChainAdded = new AtomChain();
@@ -8863,7 +9212,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to M
         atomChainAdded = new AtomChain();
@@ -8878,7 +9227,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to D
         atomChainAdded = new AtomChain();
@@ -8894,7 +9243,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1922", "Pro->HAVA", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to F
         atomChainAdded = new AtomChain();
@@ -8910,7 +9259,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1079", "Glu->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to F
         atomChainAdded = new AtomChain();
@@ -8926,7 +9275,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1134", "Lys->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to F
         atomChainAdded = new AtomChain();
@@ -8943,7 +9292,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1180", "Gln->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to R
         atomChainAdded = new AtomChain();
@@ -8958,7 +9307,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:584", "His->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to H
         atomChainAdded = new AtomChain();
@@ -8975,7 +9324,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:554", "Asp->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to H
         atomChainAdded = new AtomChain();
@@ -8992,7 +9341,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:620", "Asn->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Y to W
         atomChainAdded = new AtomChain();
@@ -9009,7 +9358,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1247", "Tyr->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to H
         atomChainAdded = new AtomChain();
@@ -9023,7 +9372,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to H
         atomChainAdded = new AtomChain();
@@ -9037,7 +9386,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to Q
         atomChainAdded = new AtomChain();
@@ -9055,7 +9404,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1064", "Cys->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to R
         atomChainAdded = new AtomChain();
@@ -9072,7 +9421,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:611", "Met->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to K
         atomChainAdded = new AtomChain();
@@ -9089,7 +9438,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1060", "Cys->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to Y
         atomChainAdded = new AtomChain();
@@ -9106,7 +9455,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:581", "His->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to P
         atomChainAdded = new AtomChain();
@@ -9121,7 +9470,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:543", "Ala->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to E
         atomChainAdded = new AtomChain();
@@ -9138,7 +9487,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1057", "Cys->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to I
         atomChainAdded = new AtomChain();
@@ -9153,7 +9502,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to L
         atomChainAdded = new AtomChain();
@@ -9168,7 +9517,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to N
         atomChainAdded = new AtomChain();
@@ -9184,7 +9533,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:651", "Ser->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to Q
         atomChainAdded = new AtomChain();
@@ -9200,7 +9549,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1209", "Thr->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to K
         atomChainAdded = new AtomChain();
@@ -9217,7 +9566,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:661", "Thr->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to R
         atomChainAdded = new AtomChain();
@@ -9234,7 +9583,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1085", "Glu->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to D
         atomChainAdded = new AtomChain();
@@ -9249,7 +9598,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1196", "Ser->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to E
         atomChainAdded = new AtomChain();
@@ -9264,7 +9613,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1205", "Thr->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to R
         atomChainAdded = new AtomChain();
@@ -9278,7 +9627,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:599", "Lys->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to V
         atomChainAdded = new AtomChain();
@@ -9293,7 +9642,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1047", "Ala->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to M
         atomChainAdded = new AtomChain();
@@ -9308,7 +9657,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1033", "Cys->SecNEM", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to R
         atomChainAdded = new AtomChain();
@@ -9325,7 +9674,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:634", "Gln->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to Q
         atomChainAdded = new AtomChain();
@@ -9341,7 +9690,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:607", "Xle->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to K
         atomChainAdded = new AtomChain();
@@ -9357,7 +9706,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:590", "Xle->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to E
         atomChainAdded = new AtomChain();
@@ -9372,7 +9721,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1128", "Xle->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // R to W
         atomChainAdded = new AtomChain();
@@ -9388,7 +9737,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:637", "Arg->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to M
         atomChainAdded = new AtomChain();
@@ -9405,7 +9754,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:663", "Thr->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to T
         atomChainAdded = new AtomChain();
@@ -9421,7 +9770,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:541", "Ala->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to S
         atomChainAdded = new AtomChain();
@@ -9437,7 +9786,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:572", "Gly->Ser", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to Q
         atomChainAdded = new AtomChain();
@@ -9453,7 +9802,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:626", "Pro->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to K
         atomChainAdded = new AtomChain();
@@ -9469,7 +9818,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1171", "Pro->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to C
         atomChainAdded = new AtomChain();
@@ -9483,7 +9832,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1044", "Ala->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to M
         atomChainAdded = new AtomChain();
@@ -9497,7 +9846,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:608", "Xle->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to E
         atomChainAdded = new AtomChain();
@@ -9511,7 +9860,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1168", "Pro->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to Y
         atomChainAdded = new AtomChain();
@@ -9527,7 +9876,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1154", "Met->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to F
         atomChainAdded = new AtomChain();
@@ -9543,7 +9892,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1068", "Asp->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to F
         atomChainAdded = new AtomChain();
@@ -9560,7 +9909,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1158", "Asn->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to F
         atomChainAdded = new AtomChain();
@@ -9574,7 +9923,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to F
         atomChainAdded = new AtomChain();
@@ -9588,7 +9937,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to M
         atomChainAdded = new AtomChain();
@@ -9603,7 +9952,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1172", "Pro->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to Y
         atomChainAdded = new AtomChain();
@@ -9619,7 +9968,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1089", "Glu->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to H
         atomChainAdded = new AtomChain();
@@ -9636,7 +9985,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1058", "Cys->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to Y
         atomChainAdded = new AtomChain();
@@ -9653,7 +10002,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1141", "Lys->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to Y
         atomChainAdded = new AtomChain();
@@ -9669,7 +10018,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1188", "Gln->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to H
         atomChainAdded = new AtomChain();
@@ -9685,7 +10034,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1208", "Thr->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to H
         atomChainAdded = new AtomChain();
@@ -9701,7 +10050,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:606", "Xle->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // F to W
         atomChainAdded = new AtomChain();
@@ -9717,7 +10066,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1102", "Phe->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to H
         atomChainAdded = new AtomChain();
@@ -9732,7 +10081,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:625", "Pro->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to P
         atomChainAdded = new AtomChain();
@@ -9747,7 +10096,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1109", "Gly->Pro", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to Q
         atomChainAdded = new AtomChain();
@@ -9763,7 +10112,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1201", "Ser->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to K
         atomChainAdded = new AtomChain();
@@ -9780,7 +10129,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1199", "Ser->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to R
         atomChainAdded = new AtomChain();
@@ -9797,7 +10146,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1074", "Asp->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to E
         atomChainAdded = new AtomChain();
@@ -9813,7 +10162,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1197", "Ser->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to I
         atomChainAdded = new AtomChain();
@@ -9827,7 +10176,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to L
         atomChainAdded = new AtomChain();
@@ -9841,7 +10190,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to V
         atomChainAdded = new AtomChain();
@@ -9856,7 +10205,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1105", "Gly->Xle", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to R
         atomChainAdded = new AtomChain();
@@ -9873,7 +10222,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1163", "Asn->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to N
         atomChainAdded = new AtomChain();
@@ -9890,7 +10239,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1050", "Ala->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to R
         atomChainAdded = new AtomChain();
@@ -9904,7 +10253,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to R
         atomChainAdded = new AtomChain();
@@ -9918,7 +10267,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to D
         atomChainAdded = new AtomChain();
@@ -9933,7 +10282,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:542", "Ala->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to M
         atomChainAdded = new AtomChain();
@@ -9950,7 +10299,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1200", "Ser->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to T
         atomChainAdded = new AtomChain();
@@ -9966,7 +10315,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1111", "Gly->Thr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to F
         atomChainAdded = new AtomChain();
@@ -9982,7 +10331,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:547", "Cys->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to C
         atomChainAdded = new AtomChain();
@@ -9998,7 +10347,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:577", "Gly->Cys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to F
         atomChainAdded = new AtomChain();
@@ -10014,7 +10363,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1206", "Thr->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to F
         atomChainAdded = new AtomChain();
@@ -10028,7 +10377,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:602", "Xle->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to Y
         atomChainAdded = new AtomChain();
@@ -10044,7 +10393,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:557", "Asp->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // H to W
         atomChainAdded = new AtomChain();
@@ -10060,7 +10409,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1124", "His->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to Y
         atomChainAdded = new AtomChain();
@@ -10076,7 +10425,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:619", "Asn->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to Y
         atomChainAdded = new AtomChain();
@@ -10091,7 +10440,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to Y
         atomChainAdded = new AtomChain();
@@ -10106,7 +10455,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to F
         atomChainAdded = new AtomChain();
@@ -10121,7 +10470,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1169", "Pro->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to H
         atomChainAdded = new AtomChain();
@@ -10138,7 +10487,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1198", "Ser->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to R
         atomChainAdded = new AtomChain();
@@ -10155,7 +10504,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:551", "Cys->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // M to W
         atomChainAdded = new AtomChain();
@@ -10172,7 +10521,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1153", "Met->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to R
         atomChainAdded = new AtomChain();
@@ -10189,7 +10538,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:665", "Thr->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to I
         atomChainAdded = new AtomChain();
@@ -10203,7 +10552,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to L
         atomChainAdded = new AtomChain();
@@ -10217,7 +10566,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to Q
         atomChainAdded = new AtomChain();
@@ -10234,7 +10583,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1051", "Ala->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to N
         atomChainAdded = new AtomChain();
@@ -10251,7 +10600,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1108", "Gly->Asn", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to R
         atomChainAdded = new AtomChain();
@@ -10267,7 +10616,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:609", "Xle->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // E to W
         atomChainAdded = new AtomChain();
@@ -10284,7 +10633,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1088", "Glu->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to K
         atomChainAdded = new AtomChain();
@@ -10300,7 +10649,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1048", "Ala->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // K to W
         atomChainAdded = new AtomChain();
@@ -10315,7 +10664,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1140", "Lys->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to E
         atomChainAdded = new AtomChain();
@@ -10331,7 +10680,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:545", "Ala->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to D
         atomChainAdded = new AtomChain();
@@ -10347,7 +10696,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:576", "Gly->Asp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // Q to W
         atomChainAdded = new AtomChain();
@@ -10363,7 +10712,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1187", "Gln->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to R
         atomChainAdded = new AtomChain();
@@ -10379,7 +10728,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:628", "Pro->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to M
         atomChainAdded = new AtomChain();
@@ -10395,7 +10744,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1049", "Ala->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to F
         atomChainAdded = new AtomChain();
@@ -10411,7 +10760,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:647", "Ser->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to Y
         atomChainAdded = new AtomChain();
@@ -10428,7 +10777,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:550", "Cys->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to Y
         atomChainAdded = new AtomChain();
@@ -10443,7 +10792,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1212", "Thr->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to Y
         atomChainAdded = new AtomChain();
@@ -10458,7 +10807,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1130", "Xle->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to Y
         atomChainAdded = new AtomChain();
@@ -10474,7 +10823,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1176", "Pro->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to H
         atomChainAdded = new AtomChain();
@@ -10490,7 +10839,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1046", "Ala->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to R
         atomChainAdded = new AtomChain();
@@ -10507,7 +10856,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:655", "Ser->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to Q
         atomChainAdded = new AtomChain();
@@ -10524,7 +10873,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1110", "Gly->Gln", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // D to W
         atomChainAdded = new AtomChain();
@@ -10541,7 +10890,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1077", "Asp->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to K
         atomChainAdded = new AtomChain();
@@ -10557,7 +10906,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1106", "Gly->Lys", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to E
         atomChainAdded = new AtomChain();
@@ -10573,7 +10922,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:574", "Gly->Glu", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // N to W
         atomChainAdded = new AtomChain();
@@ -10589,7 +10938,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1165", "Asn->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // I to W
         atomChainAdded = new AtomChain();
@@ -10604,7 +10953,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // L to W
         atomChainAdded = new AtomChain();
@@ -10619,7 +10968,7 @@ public class ModificationFactory implements ModificationProvider {
                 atomChainAdded, atomChainRemoved, aminoAcidPattern,
                 ModificationCategory.Nucleotide_Substitution_One);
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to M
         atomChainAdded = new AtomChain();
@@ -10635,7 +10984,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1107", "Gly->Met", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to F
         atomChainAdded = new AtomChain();
@@ -10650,7 +10999,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1045", "Ala->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to Y
         atomChainAdded = new AtomChain();
@@ -10665,7 +11014,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:653", "Ser->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to H
         atomChainAdded = new AtomChain();
@@ -10681,7 +11030,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1104", "Gly->His", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // C to W
         atomChainAdded = new AtomChain();
@@ -10698,7 +11047,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:549", "Cys->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // T to W
         atomChainAdded = new AtomChain();
@@ -10715,7 +11064,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1211", "Thr->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to R
         atomChainAdded = new AtomChain();
@@ -10731,7 +11080,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1052", "Ala->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // V to W
         atomChainAdded = new AtomChain();
@@ -10747,7 +11096,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:603", "Xle->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // P to W
         atomChainAdded = new AtomChain();
@@ -10763,7 +11112,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1175", "Pro->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to F
         atomChainAdded = new AtomChain();
@@ -10778,7 +11127,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1103", "Gly->Phe", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to Y
         atomChainAdded = new AtomChain();
@@ -10794,7 +11143,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1054", "Ala->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // S to W
         atomChainAdded = new AtomChain();
@@ -10811,7 +11160,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:649", "Ser->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to R
         atomChainAdded = new AtomChain();
@@ -10827,7 +11176,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:578", "Gly->Arg", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to Y
         atomChainAdded = new AtomChain();
@@ -10843,7 +11192,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1112", "Gly->Tyr", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // A to W
         atomChainAdded = new AtomChain();
@@ -10859,7 +11208,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_TwoPlus);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:1053", "Ala->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
 
         // G to W
         atomChainAdded = new AtomChain();
@@ -10875,7 +11224,7 @@ public class ModificationFactory implements ModificationProvider {
                 ModificationCategory.Nucleotide_Substitution_One);
         modification.setUnimodCvTerm(new CvTerm("UNIMOD", "UNIMOD:573", "Gly->Trp", null));
         defaultMods.add(modificationName);
-        modificationMap.put(modificationName, modification);
+        defaultModificationMap.put(modificationName, modification);
     }
 
     /**
@@ -10902,14 +11251,14 @@ public class ModificationFactory implements ModificationProvider {
      */
     private void createPsiModMap() {
 
-        Iterator<String> modificationIterator = modificationMap.keySet().iterator();
+        Iterator<String> modificationIterator = getModifications().iterator();
 
         String modName;
         while (modificationIterator.hasNext()) {
 
             modName = modificationIterator.next();
 
-            CvTerm psiCvTerm = modificationMap.get(modName).getPsiModCvTerm();
+            CvTerm psiCvTerm = getModification(modName).getPsiModCvTerm();
 
             if (psiCvTerm != null) {
 
@@ -10941,9 +11290,9 @@ public class ModificationFactory implements ModificationProvider {
 
         ArrayList<String> modificationsInCategory = new ArrayList<>();
 
-        for (String modName : modificationMap.keySet()) {
+        for (String modName : getModifications()) {
 
-            Modification tempMod = modificationMap.get(modName);
+            Modification tempMod = getModification(modName);
 
             for (ModificationCategory modCategory : modCategories) {
                 if (tempMod.getCategory() == modCategory) {
@@ -0,0 +1,157 @@
+package com.compomics.util.experiment.biology.modifications.performance;
+
+import com.compomics.cli.identification_parameters.IdentificationParametersCLI;
+import com.compomics.cli.modifications.ModificationsCLI;
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.io.flat.SimpleFileWriter;
+import com.compomics.util.waiting.Duration;
+import java.io.File;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+
+/**
+ * Startup benchmark of the command line entry points using the modification
+ * factory. Every run is conducted in a new virtual machine so that the
+ * factory is loaded from scratch.
+ *
+ * @author Marc Vaudel
+ */
+public class StartupBenchmark {
+
+    /**
+     * The number of times each analysis needs to be replicated.
+     */
+    public final static int REPLICATES = 5;
+    /**
+     * Argument used to run the probe instead of the benchmark.
+     */
+    public final static String PROBE = "-probe";
+
+    /**
+     * This main method runs the startup benchmark and exports the results.
+     *
+     * @param args The file where to write the results.
+     */
+    public static void main(String[] args) {
+
+        if (args.length < 1) {
+
+            System.out.println("Usage: StartupBenchmark <output file>");
+            return;
+
+        }
+
+        if (args[0].equals(PROBE)) {
+
+            ModificationFactory modificationFactory = ModificationFactory.getInstance();
+            modificationFactory.getModification("Oxidation of M");
+            return;
+
+        }
+
+        StartupBenchmark startupBenchmark = new StartupBenchmark();
+
+        try {
+
+            startupBenchmark.run(new File(args[0]));
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+        }
+    }
+
+    /**
+     * Constructor.
+     */
+    public StartupBenchmark() {
+
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param destinationFile The file where to write the results.
+     *
+     * @throws IOException Exception thrown if an error occurs while running a
+     * command.
+     * @throws InterruptedException Exception thrown if a threading exception
+     * occurs.
+     */
+    private void run(
+            File destinationFile
+    ) throws IOException, InterruptedException {
+
+        String[] commandNames = new String[]{"factory", "ModificationsCLI", "IdentificationParametersCLI"};
+        String[][] commandArguments = new String[][]{
+            new String[]{StartupBenchmark.class.getName(), PROBE},
+            new String[]{ModificationsCLI.class.getName(), "-l"},
+            new String[]{IdentificationParametersCLI.class.getName(), "-mods"}
+        };
+
+        try (SimpleFileWriter writer = new SimpleFileWriter(destinationFile, false)) {
+
+            writer.writeLine("command", "replicate", "time", "exit");
+
+            for (int i = 0; i < commandNames.length; i++) {
+
+                for (int replicate = 1; replicate <= REPLICATES; replicate++) {
+
+                    System.out.println(Instant.now() + "    " + commandNames[i] + " (" + replicate + "/" + REPLICATES + ")");
+
+                    Duration duration = new Duration();
+                    duration.start();
+
+                    int exitValue = runInNewVm(commandArguments[i]);
+
+                    duration.end();
+
+                    writer.writeLine(
+                            commandNames[i],
+                            Integer.toString(replicate),
+                            Long.toString(duration.getDuration()),
+                            Integer.toString(exitValue)
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs the given main class in a new virtual machine using the class path
+     * of this one, discarding its output.
+     *
+     * @param arguments The main class followed by its arguments.
+     *
+     * @return The exit value of the virtual machine.
+     *
+     * @throws IOException Exception thrown if an error occurs while starting
+     * the virtual machine.
+     * @throws InterruptedException Exception thrown if a threading exception
+     * occurs.
+     */
+    private int runInNewVm(
+            String[] arguments
+    ) throws IOException, InterruptedException {
+
+        ArrayList<String> command = new ArrayList<>(arguments.length + 3);
+        command.add(new File(new File(System.getProperty("java.home"), "bin"), "java").getAbsolutePath());
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+
+        for (String argument : arguments) {
+
+            command.add(argument);
+
+        }
+
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.redirectErrorStream(true);
+        processBuilder.redirectOutput(ProcessBuilder.Redirect.to(new File(System.getProperty("os.name").startsWith("Windows") ? "NUL" : "/dev/null")));
+
+        return processBuilder.start().waitFor();
+
+    }
+}
@@ -0,0 +1,507 @@
+package com.compomics.util.experiment.biology.proteins;
+
+import com.compomics.util.experiment.biology.modifications.Modification;
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.parameters.identification.search.ModificationParameters;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache for the fixed modifications of peptides. The fixed modifications are
+ * cached per modification parameters, sequence provider and sequence matching
+ * parameters, compared by identity, and per peptide sequence. When the fixed
+ * modifications depend on the protein context of the peptide, the protein
+ * mapping is included in the key. The parameters and sequence providers are
+ * only weakly referenced, the cache of a set of parameters is dropped once
+ * these are garbage collected. The cache is thread safe. The arrays returned
+ * are shared and should not be modified.
+ *
+ * @author Marc Vaudel
+ */
+public class FixedModificationsCache {
+
+    /**
+     * The default maximal number of peptides cached per set of parameters.
+     */
+    public static final int DEFAULT_CAPACITY = 100000;
+    /**
+     * The maximal number of sets of parameters cached.
+     */
+    public static final int N_PARAMETERS = 8;
+    /**
+     * The instance of the cache.
+     */
+    private static final FixedModificationsCache INSTANCE = new FixedModificationsCache(DEFAULT_CAPACITY);
+    /**
+     * The maximal number of peptides cached per set of parameters.
+     */
+    private final int capacity;
+    /**
+     * The caches of the different sets of parameters, most recently added
+     * first.
+     */
+    private volatile ParametersCache[] parametersCaches = new ParametersCache[0];
+    /**
+     * The number of results found in the cache.
+     */
+    private final LongAdder hits = new LongAdder();
+    /**
+     * The number of results computed.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Constructor.
+     *
+     * @param capacity the maximal number of peptides cached per set of
+     * parameters
+     */
+    public FixedModificationsCache(int capacity) {
+
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of the cache must be strictly positive.");
+        }
+
+        this.capacity = capacity;
+
+    }
+
+    /**
+     * Returns the instance of the cache used by the peptides.
+     *
+     * @return the instance of the cache used by the peptides
+     */
+    public static FixedModificationsCache getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the fixed modifications of the given peptide as provided by
+     * Peptide.getFixedModifications. The array returned should not be
+     * modified.
+     *
+     * @param peptide the peptide
+     * @param modificationParameters the modification parameters
+     * @param sequenceProvider a protein sequence provider
+     * @param modificationsSequenceMatchingParameters the sequence matching
+     * parameters to use for modifications
+     *
+     * @return the fixed modifications of the peptide
+     */
+    public String[] getFixedModifications(
+            Peptide peptide,
+            ModificationParameters modificationParameters,
+            SequenceProvider sequenceProvider,
+            SequenceMatchingParameters modificationsSequenceMatchingParameters
+    ) {
+
+        ParametersCache parametersCache = getParametersCache(modificationParameters, sequenceProvider, modificationsSequenceMatchingParameters);
+
+        String key;
+
+        if (parametersCache.sequenceOnly) {
+
+            key = peptide.getSequence();
+
+        } else {
+
+            TreeMap<String, int[]> proteinMapping = peptide.getProteinMapping();
+
+            if (proteinMapping == null) {
+
+                misses.increment();
+
+                return peptide.computeFixedModifications(modificationParameters, sequenceProvider, modificationsSequenceMatchingParameters);
+
+            }
+
+            key = getContextKey(peptide.getSequence(), proteinMapping);
+
+        }
+
+        String[] result = parametersCache.sites.get(key);
+
+        if (result != null) {
+
+            hits.increment();
+
+            return result;
+
+        }
+
+        misses.increment();
+
+        result = peptide.computeFixedModifications(modificationParameters, sequenceProvider, modificationsSequenceMatchingParameters);
+
+        if (parametersCache.sites.size() >= capacity) {
+            parametersCache.sites.clear();
+        }
+
+        parametersCache.sites.put(key, result);
+
+        return result;
+
+    }
+
+    /**
+     * Returns the cache for the given parameters, creates it if not cached or
+     * if the fixed modifications changed.
+     *
+     * @param modificationParameters the modification parameters
+     * @param sequenceProvider a protein sequence provider
+     * @param sequenceMatchingParameters the sequence matching parameters
+     *
+     * @return the cache for the given parameters
+     */
+    private ParametersCache getParametersCache(
+            ModificationParameters modificationParameters,
+            SequenceProvider sequenceProvider,
+            SequenceMatchingParameters sequenceMatchingParameters
+    ) {
+
+        ArrayList<String> fixedModifications = modificationParameters.getFixedModifications();
+
+        for (ParametersCache parametersCache : parametersCaches) {
+
+            if (parametersCache.isFor(modificationParameters, sequenceProvider, sequenceMatchingParameters, fixedModifications)) {
+                return parametersCache;
+            }
+        }
+
+        synchronized (this) {
+
+            ParametersCache[] currentCaches = parametersCaches;
+
+            for (ParametersCache parametersCache : currentCaches) {
+
+                if (parametersCache.isFor(modificationParameters, sequenceProvider, sequenceMatchingParameters, fixedModifications)) {
+                    return parametersCache;
+                }
+            }
+
+            ParametersCache parametersCache = new ParametersCache(modificationParameters, sequenceProvider, sequenceMatchingParameters, fixedModifications);
+
+            // Replace the cache of these parameters if present, drop the caches of collected parameters and the oldest cache if full
+            ArrayList<ParametersCache> newCaches = new ArrayList<>(currentCaches.length + 1);
+            newCaches.add(parametersCache);
+
+            for (ParametersCache currentCache : currentCaches) {
+
+                if (newCaches.size() < N_PARAMETERS
+                        && !currentCache.isCollected()
+                        && !currentCache.isFor(modificationParameters, sequenceProvider, sequenceMatchingParameters)) {
+
+                    newCaches.add(currentCache);
+
+                }
+            }
+
+            parametersCaches = newCaches.toArray(new ParametersCache[newCaches.size()]);
+
+            return parametersCache;
+
+        }
+    }
+
+    /**
+     * Returns the key of a peptide including its protein context.
+     *
+     * @param sequence the sequence of the peptide
+     * @param proteinMapping the protein mapping of the peptide
+     *
+     * @return the key of the peptide
+     */
+    private static String getContextKey(
+            String sequence,
+            TreeMap<String, int[]> proteinMapping
+    ) {
+
+        StringBuilder sb = new StringBuilder(sequence.length() + 16 * proteinMapping.size());
+        sb.append(sequence);
+
+        for (Entry<String, int[]> entry : proteinMapping.entrySet()) {
+
+            sb.append('|').append(entry.getKey());
+
+            for (int index : entry.getValue()) {
+                sb.append(',').append(index);
+            }
+        }
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Returns the number of results found in the cache.
+     *
+     * @return the number of results found in the cache
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Returns the number of results computed.
+     *
+     * @return the number of results computed
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Returns the share of results found in the cache, NaN if no result was
+     * requested.
+     *
+     * @return the share of results found in the cache
+     */
+    public double getHitRate() {
+
+        long nHits = hits.sum();
+        long nRequests = nHits + misses.sum();
+
+        return nRequests == 0 ? Double.NaN : ((double) nHits) / nRequests;
+
+    }
+
+    /**
+     * Returns the number of sets of parameters cached.
+     *
+     * @return the number of sets of parameters cached
+     */
+    public int getNParameters() {
+        return parametersCaches.length;
+    }
+
+    /**
+     * Returns the number of peptides cached.
+     *
+     * @return the number of peptides cached
+     */
+    public int size() {
+
+        int size = 0;
+
+        for (ParametersCache parametersCache : parametersCaches) {
+            size += parametersCache.sites.size();
+        }
+
+        return size;
+
+    }
+
+    /**
+     * Empties the cache and resets the statistics.
+     */
+    public synchronized void clear() {
+
+        parametersCaches = new ParametersCache[0];
+        hits.reset();
+        misses.reset();
+
+    }
+
+    /**
+     * Cache of the fixed modifications for a set of parameters.
+     */
+    private static class ParametersCache {
+
+        /**
+         * Weak reference to the modification parameters.
+         */
+        private final WeakReference<ModificationParameters> modificationParameters;
+        /**
+         * Weak reference to the sequence provider, null if no sequence
+         * provider was given.
+         */
+        private final WeakReference<SequenceProvider> sequenceProvider;
+        /**
+         * Weak reference to the sequence matching parameters, null if no
+         * sequence matching parameters were given.
+         */
+        private final WeakReference<SequenceMatchingParameters> sequenceMatchingParameters;
+        /**
+         * The fixed modifications when the cache was created.
+         */
+        private final String[] fixedModifications;
+        /**
+         * Indicates whether the fixed modifications only depend on the
+         * peptide sequence.
+         */
+        private final boolean sequenceOnly;
+        /**
+         * The fixed modifications indexed by peptide key.
+         */
+        private final ConcurrentHashMap<String, String[]> sites = new ConcurrentHashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param modificationParameters the modification parameters
+         * @param sequenceProvider the sequence provider
+         * @param sequenceMatchingParameters the sequence matching parameters
+         * @param fixedModifications the fixed modifications
+         */
+        private ParametersCache(
+                ModificationParameters modificationParameters,
+                SequenceProvider sequenceProvider,
+                SequenceMatchingParameters sequenceMatchingParameters,
+                ArrayList<String> fixedModifications
+        ) {
+
+            this.modificationParameters = new WeakReference<>(modificationParameters);
+            this.sequenceProvider = sequenceProvider == null ? null : new WeakReference<>(sequenceProvider);
+            this.sequenceMatchingParameters = sequenceMatchingParameters == null ? null : new WeakReference<>(sequenceMatchingParameters);
+            this.fixedModifications = fixedModifications.toArray(new String[fixedModifications.size()]);
+
+            ModificationFactory modificationFactory = ModificationFactory.getInstance();
+            boolean sequenceOnly = true;
+
+            for (String modificationName : fixedModifications) {
+
+                Modification modification = modificationFactory.getModification(modificationName);
+
+                if (modification == null || !isSequenceOnly(modification)) {
+
+                    sequenceOnly = false;
+                    break;
+
+                }
+            }
+
+            this.sequenceOnly = sequenceOnly;
+
+        }
+
+        /**
+         * Indicates whether the cache is for the given parameters.
+         *
+         * @param modificationParameters the modification parameters
+         * @param sequenceProvider the sequence provider
+         * @param sequenceMatchingParameters the sequence matching parameters
+         *
+         * @return a boolean indicating whether the cache is for the given
+         * parameters
+         */
+        private boolean isFor(
+                ModificationParameters modificationParameters,
+                SequenceProvider sequenceProvider,
+                SequenceMatchingParameters sequenceMatchingParameters
+        ) {
+
+            return this.modificationParameters.get() == modificationParameters
+                    && get(this.sequenceProvider) == sequenceProvider
+                    && get(this.sequenceMatchingParameters) == sequenceMatchingParameters;
+
+        }
+
+        /**
+         * Indicates whether some of the parameters of this cache were garbage
+         * collected, in which case the cache cannot be used anymore.
+         *
+         * @return a boolean indicating whether some of the parameters of this
+         * cache were garbage collected
+         */
+        private boolean isCollected() {
+
+            return modificationParameters.get() == null
+                    || sequenceProvider != null && sequenceProvider.get() == null
+                    || sequenceMatchingParameters != null && sequenceMatchingParameters.get() == null;
+
+        }
+
+        /**
+         * Returns the referent of the given reference, null if the reference
+         * is null.
+         *
+         * @param <T> the type of the referent
+         * @param reference the reference
+         *
+         * @return the referent of the given reference
+         */
+        private static <T> T get(
+                WeakReference<T> reference
+        ) {
+
+            return reference == null ? null : reference.get();
+
+        }
+
+        /**
+         * Indicates whether the cache is for the given parameters and fixed
+         * modifications.
+         *
+         * @param modificationParameters the modification parameters
+         * @param sequenceProvider the sequence provider
+         * @param sequenceMatchingParameters the sequence matching parameters
+         * @param fixedModifications the current fixed modifications of the
+         * modification parameters
+         *
+         * @return a boolean indicating whether the cache is for the given
+         * parameters and fixed modifications
+         */
+        private boolean isFor(
+                ModificationParameters modificationParameters,
+                SequenceProvider sequenceProvider,
+                SequenceMatchingParameters sequenceMatchingParameters,
+                ArrayList<String> fixedModifications
+        ) {
+
+            if (!isFor(modificationParameters, sequenceProvider, sequenceMatchingParameters)
+                    || this.fixedModifications.length != fixedModifications.size()) {
+                return false;
+            }
+
+            for (int i = 0; i < this.fixedModifications.length; i++) {
+
+                if (!this.fixedModifications[i].equals(fixedModifications.get(i))) {
+                    return false;
+                }
+            }
+
+            return true;
+
+        }
+
+        /**
+         * Indicates whether the sites of a modification only depend on the
+         * peptide sequence.
+         *
+         * @param modification the modification
+         *
+         * @return a boolean indicating whether the sites of a modification
+         * only depend on the peptide sequence
+         */
+        private static boolean isSequenceOnly(
+                Modification modification
+        ) {
+
+            if (modification.getModificationType() == null) {
+                return false;
+            }
+
+            switch (modification.getModificationType()) {
+
+                case modn_peptide:
+                case modc_peptide:
+                    return true;
+
+                case modaa:
+                case modnaa_peptide:
+                case modcaa_peptide:
+                    return modification.getPattern() != null && modification.getPattern().length() == 1;
+
+                default:
+                    return false;
+
+            }
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidPatter
 import com.compomics.util.experiment.biology.enzymes.Enzyme;
 import com.compomics.util.experiment.identification.matches.ModificationMatch;
 import com.compomics.util.experiment.personalization.ExperimentObject;
+import com.compomics.util.experiment.personalization.KeyBuilder;
 import com.compomics.util.parameters.identification.search.ModificationParameters;
 import com.compomics.util.experiment.identification.matches.PeptideVariantMatches;
 import com.compomics.util.experiment.identification.utils.ModificationUtils;
@@ -49,6 +50,11 @@ public class Peptide extends ExperimentObject {
      * The peptide matching key.
      */
     private long matchingKey;
+    /**
+     * The version of the matching key, see KeyBuilder. Peptides saved before
+     * the field existed deserialize with the legacy version.
+     */
+    private int matchingKeyVersion;
     /**
      * The peptide mass.
      */
@@ -429,7 +435,8 @@ public class Peptide extends ExperimentObject {
      * modification names as they appear on the peptide. N-term modifications
      * are at index 0, C-term at index sequence length + 1, and other
      * modifications at amino acid index starting from 1. An error is thrown if
-     * attempting to stack modifications.
+     * attempting to stack modifications. Results are cached in the
+     * FixedModificationsCache, the array returned should not be modified.
      *
      * @param modificationParameters the modification parameters the
      * modification parameters
@@ -445,6 +452,33 @@ public class Peptide extends ExperimentObject {
             SequenceMatchingParameters modificationsSequenceMatchingParameters
     ) {
 
+        return FixedModificationsCache.getInstance().getFixedModifications(
+                this,
+                modificationParameters,
+                sequenceProvider,
+                modificationsSequenceMatchingParameters
+        );
+
+    }
+
+    /**
+     * Computes the fixed modifications for this peptide based on the given
+     * modification parameters without using the cache.
+     *
+     * @param modificationParameters the modification parameters the
+     * modification parameters
+     * @param sequenceProvider a protein sequence provider
+     * @param modificationsSequenceMatchingParameters the sequence matching
+     * parameters to use for modifications
+     *
+     * @return the fixed modifications for this peptide
+     */
+    String[] computeFixedModifications(
+            ModificationParameters modificationParameters,
+            SequenceProvider sequenceProvider,
+            SequenceMatchingParameters modificationsSequenceMatchingParameters
+    ) {
+
         ModificationFactory modificationFactory = ModificationFactory.getInstance();
         String[] result = new String[sequence.length() + 2];
 
@@ -672,10 +706,41 @@ public class Peptide extends ExperimentObject {
             SequenceMatchingParameters sequenceMatchingPreferences
     ) {
 
-        if (!keySet) {
+        return getMatchingKey(sequenceMatchingPreferences, KeyBuilder.KEY_VERSION);
+
+    }
 
-            String matchingSequence = AminoAcid.getMatchingSequence(sequence, sequenceMatchingPreferences);
-            setMatchingKey(getKey(matchingSequence, variableModifications));
+    /**
+     * Returns a unique key for the peptide when considering the given matching
+     * preferences, built according to the given key version. The key is
+     * kept and only computed again if another key version is requested.
+     *
+     * @param sequenceMatchingPreferences the sequence matching preferences
+     * @param keyVersion the version of the keys, see KeyBuilder
+     *
+     * @return a key unique to the given matching type
+     */
+    public long getMatchingKey(
+            SequenceMatchingParameters sequenceMatchingPreferences,
+            int keyVersion
+    ) {
+
+        if (!keySet || matchingKeyVersion != keyVersion) {
+
+            if (KeyBuilder.isLegacy(keyVersion)) {
+
+                String matchingSequence = AminoAcid.getMatchingSequence(sequence, sequenceMatchingPreferences);
+                setMatchingKey(getLegacyKey(matchingSequence, variableModifications));
+
+            } else {
+
+                boolean indistinguishable = sequenceMatchingPreferences.getSequenceMatchingType()
+                        == SequenceMatchingParameters.MatchingType.indistiguishableAminoAcids;
+                setMatchingKey(getKeyBuilder(sequence, indistinguishable, variableModifications).getKey());
+
+            }
+
+            matchingKeyVersion = keyVersion;
             keySet = true;
 
         }
@@ -700,8 +765,22 @@ public class Peptide extends ExperimentObject {
     }
 
     /**
-     * Returns the reference key of a peptide. key = SEQUENCE_mod1_mod2 modMass1
-     * and modMass2 modification masses ordered alphabetically.
+     * Returns the upper 64 bits of the hash of the sequence, with I and L
+     * merged, and of the modifications of the peptide. Peptides with the same
+     * key and different high keys are a key collision.
+     *
+     * @return the upper 64 bits of the hash of the peptide
+     */
+    public long getHighKey() {
+
+        return getKeyBuilder(sequence, true, variableModifications).getHighKey();
+
+    }
+
+    /**
+     * Returns the reference key of a peptide. The key is built from the
+     * sequence and the masses of the modifications, and the sites of the
+     * modifications confidently localized or inferred, in a canonical order.
      *
      * @param sequence the sequence of the peptide
      * @param variableModifications list of modification matches
@@ -713,6 +792,98 @@ public class Peptide extends ExperimentObject {
             ModificationMatch[] variableModifications
     ) {
 
+        return getKey(sequence, variableModifications, KeyBuilder.KEY_VERSION);
+
+    }
+
+    /**
+     * Returns the reference key of a peptide built according to the given key
+     * version. For legacy keys, key = SEQUENCE_mod1_mod2 with mod1 and mod2
+     * the ambiguity keys of the modifications ordered alphabetically.
+     *
+     * @param sequence the sequence of the peptide
+     * @param variableModifications list of modification matches
+     * @param keyVersion the version of the keys, see KeyBuilder
+     *
+     * @return the key of the peptide
+     */
+    public static long getKey(
+            String sequence,
+            ModificationMatch[] variableModifications,
+            int keyVersion
+    ) {
+
+        return KeyBuilder.isLegacy(keyVersion)
+                ? getLegacyKey(sequence, variableModifications)
+                : getKeyBuilder(sequence, false, variableModifications).getKey();
+
+    }
+
+    /**
+     * Returns the key builder of the thread with the content of the key of a
+     * peptide appended.
+     *
+     * @param sequence the sequence of the peptide
+     * @param indistinguishable if true, I and L are considered
+     * indistinguishable
+     * @param variableModifications list of modification matches
+     *
+     * @return the key builder of the thread
+     */
+    private static KeyBuilder getKeyBuilder(
+            String sequence,
+            boolean indistinguishable,
+            ModificationMatch[] variableModifications
+    ) {
+
+        KeyBuilder keyBuilder = KeyBuilder.getKeyBuilder();
+
+        for (int i = 0; i < sequence.length(); i++) {
+
+            char aa = sequence.charAt(i);
+            keyBuilder.append(indistinguishable && aa == 'L' ? 'I' : aa);
+
+        }
+
+        if (variableModifications != null && variableModifications.length > 0) {
+
+            ModificationFactory modificationFactory = ModificationFactory.getInstance();
+            long[] modificationKeys = keyBuilder.getScratch(variableModifications.length);
+
+            for (int i = 0; i < variableModifications.length; i++) {
+
+                ModificationMatch modificationMatch = variableModifications[i];
+                long massBits = Double.doubleToLongBits(modificationFactory.getMass(modificationMatch.getModificationId()));
+                int site = modificationMatch.getConfident() || modificationMatch.getInferred() ? modificationMatch.getSite() : -1;
+                modificationKeys[i] = KeyBuilder.mix(massBits) ^ KeyBuilder.mix(site + 0x9e3779b97f4a7c15L);
+
+            }
+
+            keyBuilder.appendSeparator()
+                    .append(variableModifications.length)
+                    .appendSorted(modificationKeys, variableModifications.length);
+
+        }
+
+        return keyBuilder;
+
+    }
+
+    /**
+     * Returns the key of a peptide as built before the introduction of the
+     * key builder. key = SEQUENCE_mod1_mod2 with mod1 and mod2 the ambiguity
+     * keys of the modifications ordered alphabetically.
+     *
+     * @param sequence the sequence of the peptide
+     * @param variableModifications list of modification matches
+     *
+     * @return the key of the peptide
+     */
+    public static long getLegacyKey(
+            String sequence,
+            ModificationMatch[] variableModifications
+    ) {
+
         if (variableModifications == null || variableModifications.length == 0) {
 
             return ExperimentObject.asLong(sequence);
@@ -726,7 +897,7 @@ public class Peptide extends ExperimentObject {
                         modificationMatch -> modificationMatch.getConfident() || modificationMatch.getInferred()
                         ? Arrays.stream(
                                 new String[]{
-                                    modificationFactory.getModification(modificationMatch.getModification()).getAmbiguityKey(),
+                                    modificationFactory.getAmbiguityKey(modificationMatch.getModificationId()),
                                     MODIFICATION_LOCALIZATION_SEPARATOR,
                                     Integer.toString(modificationMatch.getSite()
                                     )
@@ -735,7 +906,7 @@ public class Peptide extends ExperimentObject {
                                 .collect(
                                         Collectors.joining()
                                 )
-                        : modificationFactory.getModification(modificationMatch.getModification()).getAmbiguityKey())
+                        : modificationFactory.getAmbiguityKey(modificationMatch.getModificationId()))
                 .sorted()
                 .collect(Collectors.joining(MODIFICATION_SEPARATOR));
 
@@ -759,12 +930,15 @@ public class Peptide extends ExperimentObject {
             double modificationMass
     ) {
 
-        return variableModifications == null ? 0 : (int) Arrays.stream(variableModifications)
-                .map(
-                        modificationMatch -> ModificationFactory.getInstance().getModification(modificationMatch.getModification())
-                )
+        if (variableModifications == null) {
+            return 0;
+        }
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+
+        return (int) Arrays.stream(variableModifications)
                 .filter(
-                        modification -> modification.getMass() == modificationMass
+                        modificationMatch -> modificationFactory.getMass(modificationMatch.getModificationId()) == modificationMass
                 )
                 .count();
     }
@@ -1060,7 +1234,7 @@ public class Peptide extends ExperimentObject {
         Map<Double, Long> masses1 = Arrays.stream(modificationMatches1)
                 .collect(
                         Collectors.groupingBy(
-                                modificationMatch -> modificationFactory.getModification(modificationMatch.getModification()).getMass(), Collectors.counting()
+                                modificationMatch -> modificationFactory.getMass(modificationMatch.getModificationId()), Collectors.counting()
                         )
                 );
 
@@ -1069,7 +1243,7 @@ public class Peptide extends ExperimentObject {
         Map<Double, Long> masses2 = Arrays.stream(modificationMatches2)
                 .collect(
                         Collectors.groupingBy(
-                                modificationMatch -> modificationFactory.getModification(modificationMatch.getModification()).getMass(), Collectors.counting()
+                                modificationMatch -> modificationFactory.getMass(modificationMatch.getModificationId()), Collectors.counting()
                         )
                 );
 
@@ -1115,7 +1289,7 @@ public class Peptide extends ExperimentObject {
 
             if (modifications.contains(modName)) {
 
-                double tempMass = modificationFactory.getModification(modName).getMass();
+                double tempMass = modificationFactory.getMass(modificationMatch.getModificationId());
                 ArrayList<Integer> sites = modificationToPositionsMap1.get(tempMass);
 
                 if (sites == null) {
@@ -1134,7 +1308,7 @@ public class Peptide extends ExperimentObject {
 
             if (modifications.contains(modName)) {
 
-                double tempMass = modificationFactory.getModification(modName).getMass();
+                double tempMass = modificationFactory.getMass(modificationMatch.getModificationId());
                 ArrayList<Integer> sites = modificationToPositionsMap2.get(tempMass);
 
                 if (sites == null) {
@@ -1342,7 +1516,7 @@ public class Peptide extends ExperimentObject {
             ModificationFactory modificationFactory = ModificationFactory.getInstance();
             tempMass += Arrays.stream(variableModifications)
                     .mapToDouble(
-                            modificationMatch -> modificationFactory.getModification(modificationMatch.getModification()).getMass()
+                            modificationMatch -> modificationFactory.getMass(modificationMatch.getModificationId())
                     )
                     .sum();
 
@@ -4,6 +4,7 @@ import com.compomics.util.Util;
 import com.compomics.util.experiment.biology.taxonomy.mappings.BiomartMapping;
 import com.compomics.util.experiment.biology.taxonomy.mappings.EnsemblSpecies;
 import com.compomics.util.experiment.biology.taxonomy.mappings.EnsemblSpecies.EnsemblDivision;
+import com.compomics.util.experiment.biology.taxonomy.mappings.TaxonomySnapshot;
 import com.compomics.util.experiment.biology.taxonomy.mappings.UniprotTaxonomy;
 import java.io.File;
 import java.io.IOException;
@@ -47,6 +48,27 @@ public class SpeciesFactory {
      * The name of the Ensembl BioMart datasets file.
      */
     public static final String BIOMART_ENSEMBL_FILENAME = "ensembl_biomart_databases";
+    /**
+     * The name of the binary snapshot of the mappings.
+     */
+    public static final String TAXONOMY_SNAPSHOT_FILENAME = "taxonomy_snapshot";
+    /**
+     * The index of the Ensembl species in the snapshot.
+     */
+    private static final int ENSEMBL_SPECIES_SECTION = 0;
+    /**
+     * The index of the UniProt taxonomy in the snapshot.
+     */
+    private static final int UNIPROT_TAXONOMY_SECTION = 1;
+    /**
+     * The index of the BioMart mapping in the snapshot.
+     */
+    private static final int BIOMART_MAPPING_SECTION = 2;
+    /**
+     * The snapshot from which the mappings not loaded yet are to be read, null
+     * if all mappings are loaded.
+     */
+    private TaxonomySnapshot snapshot;
     /**
      * The Ensembl species mapping.
      */
@@ -82,21 +104,76 @@ public class SpeciesFactory {
     }
 
     /**
-     * Initiates the factory using the files of the static fields.
+     * Initiates the factory using the files of the static fields. If a binary
+     * snapshot of the mapping files is available and up to date, the mappings
+     * are loaded from the snapshot when first needed. Otherwise the mapping
+     * files are parsed and the snapshot is written for the next start.
      *
      * @param configFolder the config folder
      *
      * @throws IOException Exception thrown whenever an error occurred while
      * reading a mapping file.
      */
-    public void initiate(File configFolder) throws IOException {
+    public synchronized void initiate(File configFolder) throws IOException {
+
+        File[] sourceFiles = getSourceFiles(configFolder);
+        File snapshotFile = getTaxonomySnapshotFile(configFolder);
+
+        ensemblSpecies = null;
+        uniprotTaxonomy = null;
+        biomartMapping = null;
+
+        try {
+
+            snapshot = TaxonomySnapshot.open(snapshotFile, sourceFiles);
+
+        } catch (IOException e) {
+
+            // corrupted snapshot, parse the mapping files
+            snapshot = null;
+
+        }
+
+        if (snapshot == null) {
+
+            ensemblSpecies = new EnsemblSpecies();
+            ensemblSpecies.loadMapping(sourceFiles[ENSEMBL_SPECIES_SECTION]);
+            uniprotTaxonomy = new UniprotTaxonomy();
+            uniprotTaxonomy.loadMapping(sourceFiles[UNIPROT_TAXONOMY_SECTION]);
+            biomartMapping = new BiomartMapping();
+            biomartMapping.loadMapping(sourceFiles[BIOMART_MAPPING_SECTION]);
+
+            byte[][] sections = new byte[3][];
+            sections[ENSEMBL_SPECIES_SECTION] = TaxonomySnapshot.getSection(ensemblSpecies::writeSnapshot);
+            sections[UNIPROT_TAXONOMY_SECTION] = TaxonomySnapshot.getSection(uniprotTaxonomy::writeSnapshot);
+            sections[BIOMART_MAPPING_SECTION] = TaxonomySnapshot.getSection(biomartMapping::writeSnapshot);
+
+            try {
 
-        ensemblSpecies = new EnsemblSpecies();
-        ensemblSpecies.loadMapping(getEnsemblSpeciesFile(configFolder));
-        uniprotTaxonomy = new UniprotTaxonomy();
-        uniprotTaxonomy.loadMapping(getUniprotTaxonomyFile(configFolder));
-        biomartMapping = new BiomartMapping();
-        biomartMapping.loadMapping(getBiomartEnsemblMappingFile(configFolder));
+                TaxonomySnapshot.write(snapshotFile, sourceFiles, sections);
+
+            } catch (IOException e) {
+
+                // the config folder is not writable, the mapping files will be parsed again on the next start
+            }
+        }
+    }
+
+    /**
+     * Returns the mapping files in the order of the snapshot sections.
+     *
+     * @param configFolder the config folder
+     *
+     * @return the mapping files
+     */
+    private static File[] getSourceFiles(File configFolder) {
+
+        File[] sourceFiles = new File[3];
+        sourceFiles[ENSEMBL_SPECIES_SECTION] = getEnsemblSpeciesFile(configFolder);
+        sourceFiles[UNIPROT_TAXONOMY_SECTION] = getUniprotTaxonomyFile(configFolder);
+        sourceFiles[BIOMART_MAPPING_SECTION] = getBiomartEnsemblMappingFile(configFolder);
+
+        return sourceFiles;
 
     }
 
@@ -205,6 +282,17 @@ public class SpeciesFactory {
         return new File(configFolder, TOOL_SPECIES_MAPPING_SUBFOLDER + UNIPROT_TAXONOMY_FILENAME);
     }
 
+    /**
+     * Returns the binary snapshot of the mapping files.
+     *
+     * @param configFolder the config folder
+     *
+     * @return the binary snapshot of the mapping files
+     */
+    public static File getTaxonomySnapshotFile(File configFolder) {
+        return new File(configFolder, TOOL_SPECIES_MAPPING_SUBFOLDER + TAXONOMY_SNAPSHOT_FILENAME);
+    }
+
     /**
      * Returns the Ensembl BioMart file.
      *
@@ -225,7 +313,7 @@ public class SpeciesFactory {
      * @return the Latin name of the species
      */
     public String getLatinName(Integer taxon) {
-        return uniprotTaxonomy.getLatinName(taxon);
+        return getUniprotTaxonomy().getLatinName(taxon);
     }
 
 //    /**
@@ -290,7 +378,7 @@ public class SpeciesFactory {
      * @return the Ensembl assembly to use
      */
     public String getEnsemblAssembly(String latinName) {
-        return ensemblSpecies.getAssembly(latinName);
+        return getEnsemblSpecies().getAssembly(latinName);
     }
 
     /**
@@ -308,7 +396,7 @@ public class SpeciesFactory {
             return null;
         }
 
-        return biomartMapping.getDataset(assembly);
+        return getBiomartMapping().getDataset(assembly);
 
     }
 
@@ -349,7 +437,22 @@ public class SpeciesFactory {
      *
      * @return the Ensembl species mapping
      */
-    public EnsemblSpecies getEnsemblSpecies() {
+    public synchronized EnsemblSpecies getEnsemblSpecies() {
+
+        if (ensemblSpecies == null && snapshot != null) {
+
+            EnsemblSpecies mapping = new EnsemblSpecies();
+
+            try {
+                mapping.loadSnapshot(snapshot.getSection(ENSEMBL_SPECIES_SECTION));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            ensemblSpecies = mapping;
+
+        }
+
         return ensemblSpecies;
     }
 
@@ -358,7 +461,22 @@ public class SpeciesFactory {
      *
      * @return the UniProt taxonomy mapping
      */
-    public UniprotTaxonomy getUniprotTaxonomy() {
+    public synchronized UniprotTaxonomy getUniprotTaxonomy() {
+
+        if (uniprotTaxonomy == null && snapshot != null) {
+
+            UniprotTaxonomy mapping = new UniprotTaxonomy();
+
+            try {
+                mapping.loadSnapshot(snapshot.getSection(UNIPROT_TAXONOMY_SECTION));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            uniprotTaxonomy = mapping;
+
+        }
+
         return uniprotTaxonomy;
     }
 
@@ -367,7 +485,22 @@ public class SpeciesFactory {
      *
      * @return the BioMart mapping
      */
-    public BiomartMapping getBiomartMapping() {
+    public synchronized BiomartMapping getBiomartMapping() {
+
+        if (biomartMapping == null && snapshot != null) {
+
+            BiomartMapping mapping = new BiomartMapping();
+
+            try {
+                mapping.loadSnapshot(snapshot.getSection(BIOMART_MAPPING_SECTION));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+
+            biomartMapping = mapping;
+
+        }
+
         return biomartMapping;
     }
 
@@ -380,9 +513,11 @@ public class SpeciesFactory {
 
         HashMap<String, HashSet<String>> speciesMap = new HashMap<>(EnsemblDivision.values().length + 1);
 
-        for (String tempLatinName : ensemblSpecies.getLatinNames()) {
+        EnsemblSpecies ensemblSpeciesMapping = getEnsemblSpecies();
+
+        for (String tempLatinName : ensemblSpeciesMapping.getLatinNames()) {
 
-            String divisionName = ensemblSpecies.getDivision(tempLatinName).ensemblType;
+            String divisionName = ensemblSpeciesMapping.getDivision(tempLatinName).ensemblType;
             HashSet<String> latinNames = speciesMap.get(divisionName);
 
             if (latinNames == null) {
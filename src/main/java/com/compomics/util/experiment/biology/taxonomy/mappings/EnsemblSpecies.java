@@ -1,6 +1,8 @@
 package com.compomics.util.experiment.biology.taxonomy.mappings;
 
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
@@ -178,6 +180,41 @@ public class EnsemblSpecies {
 
     }
 
+    /**
+     * Writes the mapping to a snapshot section.
+     *
+     * @param outputStream the stream to write to
+     *
+     * @throws IOException exception thrown whenever an error occurred while
+     * writing the mapping
+     */
+    public void writeSnapshot(DataOutputStream outputStream) throws IOException {
+
+        TaxonomySnapshot.writeStringMap(outputStream, latinNameToCommonNameMap);
+        TaxonomySnapshot.writeStringMap(outputStream, latinNameToDivisionMap);
+        TaxonomySnapshot.writeStringMap(outputStream, latinNameToAssemblyMap);
+        TaxonomySnapshot.writeStringMap(outputStream, latinNameToTaxonMap);
+
+    }
+
+    /**
+     * Loads the mapping from a snapshot section written by writeSnapshot.
+     * Previous mapping will be overwritten.
+     *
+     * @param inputStream the stream to read from
+     *
+     * @throws IOException exception thrown whenever an error occurred while
+     * reading the mapping
+     */
+    public void loadSnapshot(DataInputStream inputStream) throws IOException {
+
+        TaxonomySnapshot.readStringMap(inputStream, latinNameToCommonNameMap);
+        TaxonomySnapshot.readStringMap(inputStream, latinNameToDivisionMap);
+        TaxonomySnapshot.readStringMap(inputStream, latinNameToAssemblyMap);
+        TaxonomySnapshot.readStringMap(inputStream, latinNameToTaxonMap);
+
+    }
+
     /**
      * Returns the common name corresponding to the given Latin name.
      *
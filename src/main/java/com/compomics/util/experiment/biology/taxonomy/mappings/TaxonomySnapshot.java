@@ -0,0 +1,424 @@
+package com.compomics.util.experiment.biology.taxonomy.mappings;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashMap;
+import java.util.Map.Entry;
+
+/**
+ * Binary snapshot of the taxonomy mappings. The snapshot contains one section
+ * per mapping file, preceded by a header listing for every section the length
+ * and modification date of the source file and the position of the section in
+ * the snapshot. The snapshot is memory mapped and every section can be
+ * deserialized independently when needed.
+ *
+ * @author Marc Vaudel
+ */
+public class TaxonomySnapshot {
+
+    /**
+     * Magic number identifying a snapshot file.
+     */
+    private static final int MAGIC_NUMBER = 0x54415853;
+    /**
+     * The version of the snapshot format. To be incremented whenever the
+     * serialization of a mapping changes.
+     */
+    public static final int VERSION = 1;
+    /**
+     * The source files of the sections.
+     */
+    private final File[] sourceFiles;
+    /**
+     * The buffer mapping the snapshot file.
+     */
+    private final MappedByteBuffer buffer;
+    /**
+     * The position of every section in the snapshot file.
+     */
+    private final int[] sectionStart;
+    /**
+     * The length of every section in bytes.
+     */
+    private final int[] sectionLength;
+
+    /**
+     * Constructor.
+     *
+     * @param sourceFiles the source files of the sections
+     * @param buffer the buffer mapping the snapshot file
+     * @param sectionStart the position of every section in the snapshot file
+     * @param sectionLength the length of every section in bytes
+     */
+    private TaxonomySnapshot(
+            File[] sourceFiles,
+            MappedByteBuffer buffer,
+            int[] sectionStart,
+            int[] sectionLength
+    ) {
+
+        this.sourceFiles = sourceFiles;
+        this.buffer = buffer;
+        this.sectionStart = sectionStart;
+        this.sectionLength = sectionLength;
+
+    }
+
+    /**
+     * Opens a snapshot file. Returns null if the file does not exist, is not
+     * a valid snapshot, was written by another version, or if any of the
+     * source files changed since the snapshot was written.
+     *
+     * @param snapshotFile the snapshot file
+     * @param sourceFiles the source files of the sections in the order they
+     * were written
+     *
+     * @return the snapshot, null if not valid
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the snapshot file
+     */
+    public static TaxonomySnapshot open(
+            File snapshotFile,
+            File... sourceFiles
+    ) throws IOException {
+
+        if (!snapshotFile.exists()) {
+            return null;
+        }
+
+        MappedByteBuffer buffer;
+
+        try (RandomAccessFile raf = new RandomAccessFile(snapshotFile, "r")) {
+
+            if (raf.length() < 12 + 32 * sourceFiles.length) {
+                return null;
+            }
+
+            buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+
+        }
+
+        if (buffer.getInt() != MAGIC_NUMBER || buffer.getInt() != VERSION || buffer.getInt() != sourceFiles.length) {
+            return null;
+        }
+
+        int[] sectionStart = new int[sourceFiles.length];
+        int[] sectionLength = new int[sourceFiles.length];
+
+        for (int i = 0; i < sourceFiles.length; i++) {
+
+            long sourceLength = buffer.getLong();
+            long sourceLastModified = buffer.getLong();
+
+            if (sourceFiles[i].length() != sourceLength || sourceFiles[i].lastModified() != sourceLastModified) {
+                return null;
+            }
+
+            sectionStart[i] = (int) buffer.getLong();
+            sectionLength[i] = (int) buffer.getLong();
+
+            if (sectionStart[i] < 0 || sectionLength[i] < 0 || sectionStart[i] + sectionLength[i] > buffer.capacity()) {
+                return null;
+            }
+        }
+
+        return new TaxonomySnapshot(sourceFiles, buffer, sectionStart, sectionLength);
+
+    }
+
+    /**
+     * Writes a snapshot file. The file is written to a temporary file first
+     * and then renamed so that concurrent readers never see an incomplete
+     * snapshot.
+     *
+     * @param snapshotFile the snapshot file
+     * @param sourceFiles the source files of the sections
+     * @param sections the serialized sections
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * the snapshot file
+     */
+    public static void write(
+            File snapshotFile,
+            File[] sourceFiles,
+            byte[][] sections
+    ) throws IOException {
+
+        if (sourceFiles.length != sections.length) {
+            throw new IllegalArgumentException(sourceFiles.length + " source files provided for " + sections.length + " sections.");
+        }
+
+        File tempFile = new File(snapshotFile.getParentFile(), snapshotFile.getName() + "_temp");
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
+
+            outputStream.writeInt(MAGIC_NUMBER);
+            outputStream.writeInt(VERSION);
+            outputStream.writeInt(sections.length);
+
+            long position = 12 + 32 * sections.length;
+
+            for (int i = 0; i < sections.length; i++) {
+
+                outputStream.writeLong(sourceFiles[i].length());
+                outputStream.writeLong(sourceFiles[i].lastModified());
+                outputStream.writeLong(position);
+                outputStream.writeLong(sections[i].length);
+                position += sections[i].length;
+
+            }
+
+            for (byte[] section : sections) {
+                outputStream.write(section);
+            }
+        }
+
+        if (snapshotFile.exists() && !snapshotFile.delete()) {
+            tempFile.delete();
+            throw new IOException("Impossible to delete " + snapshotFile + ".");
+        }
+
+        if (!tempFile.renameTo(snapshotFile)) {
+            throw new IOException("Impossible to rename " + tempFile + " to " + snapshotFile + ".");
+        }
+    }
+
+    /**
+     * Returns the number of sections.
+     *
+     * @return the number of sections
+     */
+    public int getNSections() {
+        return sourceFiles.length;
+    }
+
+    /**
+     * Returns a stream on the given section.
+     *
+     * @param section the index of the section
+     *
+     * @return a stream on the given section
+     */
+    public DataInputStream getSection(
+            int section
+    ) {
+
+        ByteBuffer sectionBuffer = buffer.duplicate();
+        sectionBuffer.position(sectionStart[section]);
+        sectionBuffer.limit(sectionStart[section] + sectionLength[section]);
+
+        return new DataInputStream(new ByteBufferInputStream(sectionBuffer.slice()));
+
+    }
+
+    /**
+     * Serializes a mapping section using the given writer.
+     *
+     * @param writer the writer of the section
+     *
+     * @return the serialized section
+     *
+     * @throws IOException exception thrown if an error occurred while
+     * serializing the section
+     */
+    public static byte[] getSection(
+            SectionWriter writer
+    ) throws IOException {
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (DataOutputStream outputStream = new DataOutputStream(bytes)) {
+            writer.write(outputStream);
+        }
+
+        return bytes.toByteArray();
+
+    }
+
+    /**
+     * Writes a string which can be null.
+     *
+     * @param outputStream the stream to write to
+     * @param value the string
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     */
+    public static void writeString(
+            DataOutputStream outputStream,
+            String value
+    ) throws IOException {
+
+        outputStream.writeBoolean(value != null);
+
+        if (value != null) {
+            outputStream.writeUTF(value);
+        }
+    }
+
+    /**
+     * Reads a string written by writeString.
+     *
+     * @param inputStream the stream to read from
+     *
+     * @return the string
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     */
+    public static String readString(
+            DataInputStream inputStream
+    ) throws IOException {
+        return inputStream.readBoolean() ? inputStream.readUTF() : null;
+    }
+
+    /**
+     * Writes an integer which can be null.
+     *
+     * @param outputStream the stream to write to
+     * @param value the integer
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     */
+    public static void writeInteger(
+            DataOutputStream outputStream,
+            Integer value
+    ) throws IOException {
+
+        outputStream.writeBoolean(value != null);
+
+        if (value != null) {
+            outputStream.writeInt(value);
+        }
+    }
+
+    /**
+     * Reads an integer written by writeInteger.
+     *
+     * @param inputStream the stream to read from
+     *
+     * @return the integer
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     */
+    public static Integer readInteger(
+            DataInputStream inputStream
+    ) throws IOException {
+        return inputStream.readBoolean() ? inputStream.readInt() : null;
+    }
+
+    /**
+     * Writes a map of strings.
+     *
+     * @param outputStream the stream to write to
+     * @param map the map
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     */
+    public static void writeStringMap(
+            DataOutputStream outputStream,
+            HashMap<String, String> map
+    ) throws IOException {
+
+        outputStream.writeInt(map.size());
+
+        for (Entry<String, String> entry : map.entrySet()) {
+            writeString(outputStream, entry.getKey());
+            writeString(outputStream, entry.getValue());
+        }
+    }
+
+    /**
+     * Reads a map of strings written by writeStringMap into the given map.
+     *
+     * @param inputStream the stream to read from
+     * @param map the map to fill
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     */
+    public static void readStringMap(
+            DataInputStream inputStream,
+            HashMap<String, String> map
+    ) throws IOException {
+
+        int size = inputStream.readInt();
+
+        for (int i = 0; i < size; i++) {
+            map.put(readString(inputStream), readString(inputStream));
+        }
+    }
+
+    /**
+     * Interface for the serialization of a section.
+     */
+    public interface SectionWriter {
+
+        /**
+         * Writes the section to the given stream.
+         *
+         * @param outputStream the stream to write to
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * writing
+         */
+        public void write(DataOutputStream outputStream) throws IOException;
+
+    }
+
+    /**
+     * Input stream reading from a byte buffer.
+     */
+    private static class ByteBufferInputStream extends InputStream {
+
+        /**
+         * The buffer to read from.
+         */
+        private final ByteBuffer buffer;
+
+        /**
+         * Constructor.
+         *
+         * @param buffer the buffer to read from
+         */
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) {
+
+            if (length == 0) {
+                return 0;
+            }
+
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(bytes, offset, n);
+
+            return n;
+
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
@@ -1,11 +1,14 @@
 package com.compomics.util.experiment.biology.taxonomy.mappings;
 
 import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.net.MalformedURLException;
 import java.util.HashMap;
+import java.util.Map.Entry;
 import org.apache.commons.httpclient.URIException;
 
 /**
@@ -126,6 +129,74 @@ public class UniprotTaxonomy {
 
     }
 
+    /**
+     * Writes the mapping to a snapshot section.
+     *
+     * @param outputStream the stream to write to
+     *
+     * @throws IOException exception thrown whenever an error occurred while
+     * writing the mapping
+     */
+    public void writeSnapshot(DataOutputStream outputStream) throws IOException {
+
+        outputStream.writeInt(nameToIdMap.size());
+
+        for (Entry<String, Integer> entry : nameToIdMap.entrySet()) {
+            TaxonomySnapshot.writeString(outputStream, entry.getKey());
+            TaxonomySnapshot.writeInteger(outputStream, entry.getValue());
+        }
+
+        outputStream.writeInt(idToNameMap.size());
+
+        for (Entry<Integer, String> entry : idToNameMap.entrySet()) {
+            TaxonomySnapshot.writeInteger(outputStream, entry.getKey());
+            TaxonomySnapshot.writeString(outputStream, entry.getValue());
+        }
+
+        outputStream.writeInt(idToCommonNameMap.size());
+
+        for (Entry<Integer, String> entry : idToCommonNameMap.entrySet()) {
+            TaxonomySnapshot.writeInteger(outputStream, entry.getKey());
+            TaxonomySnapshot.writeString(outputStream, entry.getValue());
+        }
+
+        TaxonomySnapshot.writeStringMap(outputStream, nameToSynonymMap);
+
+    }
+
+    /**
+     * Loads the mapping from a snapshot section written by writeSnapshot.
+     * Previous mapping will be overwritten.
+     *
+     * @param inputStream the stream to read from
+     *
+     * @throws IOException exception thrown whenever an error occurred while
+     * reading the mapping
+     */
+    public void loadSnapshot(DataInputStream inputStream) throws IOException {
+
+        int size = inputStream.readInt();
+
+        for (int i = 0; i < size; i++) {
+            nameToIdMap.put(TaxonomySnapshot.readString(inputStream), TaxonomySnapshot.readInteger(inputStream));
+        }
+
+        size = inputStream.readInt();
+
+        for (int i = 0; i < size; i++) {
+            idToNameMap.put(TaxonomySnapshot.readInteger(inputStream), TaxonomySnapshot.readString(inputStream));
+        }
+
+        size = inputStream.readInt();
+
+        for (int i = 0; i < size; i++) {
+            idToCommonNameMap.put(TaxonomySnapshot.readInteger(inputStream), TaxonomySnapshot.readString(inputStream));
+        }
+
+        TaxonomySnapshot.readStringMap(inputStream, nameToSynonymMap);
+
+    }
+
     /**
      * Returns the NCBI taxon corresponding to the given species name. Null if
      * not found.
@@ -31,6 +31,11 @@ import java.util.stream.Collectors;
  */
 public class Identification extends ExperimentObject {
 
+    /**
+     * Serial number for backward compatibility.
+     */
+    static final long serialVersionUID = -1364332545836291103L;
+
     /**
      * Empty default constructor
      */
@@ -90,6 +95,19 @@ public class Identification extends ExperimentObject {
         this.identificationKeys = identificationKeys;
     }
 
+    /**
+     * Returns the version of the keys of the objects, see KeyBuilder. Keys
+     * used to retrieve objects of this identification should be built
+     * according to this version.
+     *
+     * @return the version of the keys of the objects
+     */
+    public int getKeyVersion() {
+
+        return identificationKeys.keyVersion;
+
+    }
+
     /**
      * Returns a map of the spectrum matches keys indexed by spectrum file name.
      *
@@ -506,6 +524,8 @@ public class Identification extends ExperimentObject {
             PeptideMatch peptideMatch
     ) {
 
+        checkKeyCollision(key, peptideMatch);
+
         identificationKeys.peptideIdentification.add(key);
 
         objectsDB.insertObject(key, peptideMatch);
@@ -522,6 +542,10 @@ public class Identification extends ExperimentObject {
             HashMap<Long, Object> peptideMatches
     ) {
 
+        peptideMatches.entrySet().forEach(
+                entry -> checkKeyCollision(entry.getKey(), (PeptideMatch) entry.getValue())
+        );
+
         identificationKeys.peptideIdentification.addAll(peptideMatches.keySet());
 
         objectsDB.insertObjects(peptideMatches, null, false);
@@ -548,6 +572,8 @@ public class Identification extends ExperimentObject {
             long key = entry.getKey();
             SpectrumMatch spectrumMatch = (SpectrumMatch) entry.getValue();
 
+            checkKeyCollision(key, spectrumMatch);
+
             String fileName = spectrumMatch.getSpectrumFile();
 
             HashSet<Long> fileKeys = identificationKeys.spectrumIdentification.get(fileName);
@@ -583,6 +609,8 @@ public class Identification extends ExperimentObject {
             ProteinMatch proteinMatch
     ) {
 
+        checkKeyCollision(key, proteinMatch);
+
         fillProteinMap(key, proteinMatch);
 
         identificationKeys.proteinIdentification.add(key);
@@ -601,6 +629,10 @@ public class Identification extends ExperimentObject {
             HashMap<Long, Object> proteinMatches
     ) {
 
+        proteinMatches.entrySet().forEach(
+                entry -> checkKeyCollision(entry.getKey(), (ProteinMatch) entry.getValue())
+        );
+
         proteinMatches.entrySet().forEach(
                 entry -> fillProteinMap(entry.getKey(), (ProteinMatch) entry.getValue())
         );
@@ -611,6 +643,36 @@ public class Identification extends ExperimentObject {
 
     }
 
+    /**
+     * Checks that the given key is not used by another object. An object
+     * stored under the same key is the same match if its high key is the
+     * same.
+     *
+     * @param key the key of the match
+     * @param match the match
+     *
+     * @throws IllegalArgumentException exception thrown if another object is
+     * stored under the key
+     */
+    private void checkKeyCollision(
+            long key,
+            IdentificationMatch match
+    ) {
+
+        if (objectsDB.inDB(key)) {
+
+            Object storedObject = objectsDB.retrieveObject(key);
+
+            if (storedObject != match
+                    && (!(storedObject instanceof IdentificationMatch)
+                    || ((IdentificationMatch) storedObject).getHighKey() != match.getHighKey())) {
+
+                throw new IllegalArgumentException("Key collision: " + key + " is already used by another " + storedObject.getClass().getSimpleName() + ".");
+
+            }
+        }
+    }
+
     /**
      * Fills the protein map using the given protein match.
      *
@@ -1,6 +1,7 @@
 package com.compomics.util.experiment.identification;
 
 import com.compomics.util.experiment.personalization.ExperimentObject;
+import com.compomics.util.experiment.personalization.KeyBuilder;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -12,6 +13,10 @@ import java.util.HashSet;
  */
 public class IdentificationKeys extends ExperimentObject {
 
+    /**
+     * Serial number for backward compatibility.
+     */
+    static final long serialVersionUID = 1564483225534469492L;
     /**
      * Key to use in the database.
      */
@@ -37,5 +42,10 @@ public class IdentificationKeys extends ExperimentObject {
      * the PSMs.
      */
     public ArrayList<String> fractions = new ArrayList<>();
+    /**
+     * The version of the keys of the objects, see KeyBuilder. Projects saved
+     * before the introduction of the version have legacy keys.
+     */
+    public int keyVersion = KeyBuilder.KEY_VERSION;
 
 }
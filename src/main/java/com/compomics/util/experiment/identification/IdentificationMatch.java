@@ -45,4 +45,12 @@ public abstract class IdentificationMatch extends ExperimentObject {
      * @return the key of a match
      */
     public abstract long getKey();
+
+    /**
+     * Returns the upper 64 bits of the hash of the content of the match. Two
+     * matches with the same key and different high keys are a key collision.
+     *
+     * @return the upper 64 bits of the hash of the content of the match
+     */
+    public abstract long getHighKey();
 }
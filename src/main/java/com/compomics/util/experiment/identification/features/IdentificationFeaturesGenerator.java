@@ -3167,6 +3167,28 @@ public class IdentificationFeaturesGenerator {
 
     }
 
+    /**
+     * Returns the identification parameters.
+     *
+     * @return the identification parameters
+     */
+    public IdentificationParameters getIdentificationParameters() {
+
+        return identificationParameters;
+
+    }
+
+    /**
+     * Returns the spectrum counting preferences.
+     *
+     * @return the spectrum counting preferences
+     */
+    public SpectrumCountingParameters getSpectrumCountingPreferences() {
+
+        return spectrumCountingPreferences;
+
+    }
+
     /**
      * Sets the spectrum counting preferences.
      *
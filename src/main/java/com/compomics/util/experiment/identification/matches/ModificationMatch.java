@@ -1,5 +1,6 @@
 package com.compomics.util.experiment.identification.matches;
 
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
 import com.compomics.util.experiment.personalization.ExperimentObject;
 
 /**
@@ -23,6 +24,11 @@ public class ModificationMatch extends ExperimentObject {
      * the factory.
      */
     private String modification;
+    /**
+     * The id of the modification in the modification factory plus one, zero
+     * if not set.
+     */
+    private transient int modificationId = 0;
     /**
      * The location in the sequence. N-term modifications
      * are at index 0, C-term at index sequence length + 1, and other
@@ -79,6 +85,26 @@ public class ModificationMatch extends ExperimentObject {
     public void setModification(String modName) {
         
         this.modification = modName;
+        this.modificationId = 0;
+    }
+
+    /**
+     * Returns the id of the modification in the modification factory.
+     *
+     * @return the id of the modification in the modification factory
+     */
+    public int getModificationId() {
+        
+        int id = modificationId;
+        
+        if (id == 0) {
+            
+            id = ModificationFactory.getModificationId(modification) + 1;
+            modificationId = id;
+            
+        }
+        
+        return id - 1;
     }
 
     /**
@@ -162,7 +188,7 @@ public class ModificationMatch extends ExperimentObject {
      */
     public boolean isSameAs(ModificationMatch anotherModificationMatch) {
         
-        return modification.equals(anotherModificationMatch.getModification());
+        return getModificationId() == anotherModificationMatch.getModificationId();
         
     }
     
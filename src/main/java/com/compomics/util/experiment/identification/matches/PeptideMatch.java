@@ -12,6 +12,10 @@ import java.util.Arrays;
  */
 public class PeptideMatch extends IdentificationMatch {
 
+    /**
+     * Serial number for backward compatibility.
+     */
+    static final long serialVersionUID = 2352149424461119219L;
     /**
      * The peptide.
      */
@@ -31,6 +35,12 @@ public class PeptideMatch extends IdentificationMatch {
         return key;
     }
 
+    @Override
+    public long getHighKey() {
+        
+        return peptide.getHighKey();
+    }
+
     /**
      * Sets a new key for the match.
      *
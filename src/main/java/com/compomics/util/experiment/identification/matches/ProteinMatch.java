@@ -3,7 +3,9 @@ package com.compomics.util.experiment.identification.matches;
 import com.compomics.util.experiment.biology.proteins.Peptide;
 import com.compomics.util.experiment.identification.IdentificationMatch;
 import com.compomics.util.experiment.personalization.ExperimentObject;
+import com.compomics.util.experiment.personalization.KeyBuilder;
 import java.util.Arrays;
+import java.util.Collection;
 
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
@@ -36,6 +38,11 @@ public class ProteinMatch extends IdentificationMatch {
      * The key of the match.
      */
     private long matchKey;
+    /**
+     * The version of the key of the match, see KeyBuilder. Matches saved
+     * before the field existed deserialize with the legacy version.
+     */
+    private int keyVersion = KeyBuilder.KEY_VERSION;
     /**
      * Boolean indicating whether the protein match is decoy.
      */
@@ -80,6 +87,27 @@ public class ProteinMatch extends IdentificationMatch {
             long peptideMatchKey
     ) {
 
+        this(peptide, peptideMatchKey, KeyBuilder.KEY_VERSION);
+
+    }
+
+    /**
+     * Constructor for the protein match with a key built according to the
+     * given key version, see Identification.getKeyVersion(). Note: proteins
+     * must be set for the peptide.
+     *
+     * @param peptide the corresponding peptide match
+     * @param peptideMatchKey the key of the peptide match
+     * @param keyVersion the version of the keys, see KeyBuilder
+     */
+    public ProteinMatch(
+            Peptide peptide,
+            long peptideMatchKey,
+            int keyVersion
+    ) {
+
+        this.keyVersion = keyVersion;
+
         accessions = peptide.getProteinMapping()
                 .navigableKeySet()
                 .toArray(
@@ -232,9 +260,7 @@ public class ProteinMatch extends IdentificationMatch {
      */
     private void setMatchKey() {
 
-        matchKey = ExperimentObject.asLong(
-                Arrays.stream(accessions)
-                        .collect(Collectors.joining()));
+        matchKey = getProteinMatchKey(Arrays.asList(accessions), keyVersion);
 
     }
 
@@ -248,9 +274,96 @@ public class ProteinMatch extends IdentificationMatch {
      */
     public static long getProteinMatchKey(Peptide peptide) {
 
-        return ExperimentObject.asLong(
-                peptide.getProteinMapping().navigableKeySet().stream()
-                        .collect(Collectors.joining()));
+        return getProteinMatchKey(peptide, KeyBuilder.KEY_VERSION);
+
+    }
+
+    /**
+     * Convenience method which returns the protein key from a peptide built
+     * according to the given key version. Note: proteins must be set for the
+     * peptide.
+     *
+     * @param peptide the considered peptide
+     * @param keyVersion the version of the keys, see KeyBuilder
+     *
+     * @return the protein match key
+     */
+    public static long getProteinMatchKey(
+            Peptide peptide,
+            int keyVersion
+    ) {
+
+        return getProteinMatchKey(peptide.getProteinMapping().navigableKeySet(), keyVersion);
+
+    }
+
+    /**
+     * Returns the key of the protein match of the given accessions.
+     *
+     * @param accessions the accessions of the proteins sorted in natural order
+     *
+     * @return the protein match key
+     */
+    public static long getProteinMatchKey(Collection<String> accessions) {
+
+        return getProteinMatchKey(accessions, KeyBuilder.KEY_VERSION);
+
+    }
+
+    /**
+     * Returns the key of the protein match of the given accessions built
+     * according to the given key version. Legacy keys are obtained from the
+     * concatenated accessions.
+     *
+     * @param accessions the accessions of the proteins sorted in natural order
+     * @param keyVersion the version of the keys, see KeyBuilder
+     *
+     * @return the protein match key
+     */
+    public static long getProteinMatchKey(
+            Collection<String> accessions,
+            int keyVersion
+    ) {
+
+        if (KeyBuilder.isLegacy(keyVersion)) {
+
+            return ExperimentObject.asLong(
+                    accessions.stream()
+                            .collect(Collectors.joining()));
+
+        }
+
+        return getKeyBuilder(accessions).getKey();
+
+    }
+
+    /**
+     * Returns the key builder of the thread with the given accessions
+     * appended.
+     *
+     * @param accessions the accessions of the proteins sorted in natural order
+     *
+     * @return the key builder of the thread
+     */
+    private static KeyBuilder getKeyBuilder(Collection<String> accessions) {
+
+        KeyBuilder keyBuilder = KeyBuilder.getKeyBuilder();
+
+        for (String accession : accessions) {
+
+            keyBuilder.append(accession)
+                    .appendSeparator();
+
+        }
+
+        return keyBuilder;
+
+    }
+
+    @Override
+    public long getHighKey() {
+
+        return getKeyBuilder(Arrays.asList(accessions)).getHighKey();
 
     }
 
@@ -4,6 +4,7 @@ import com.compomics.util.experiment.identification.IdentificationMatch;
 import com.compomics.util.experiment.identification.spectrum_assumptions.PeptideAssumption;
 import com.compomics.util.experiment.identification.spectrum_assumptions.TagAssumption;
 import com.compomics.util.experiment.personalization.ExperimentObject;
+import com.compomics.util.experiment.personalization.KeyBuilder;
 import com.compomics.util.io.IoUtil;
 
 import java.util.ArrayList;
@@ -21,10 +22,19 @@ import java.util.stream.Stream;
  */
 public class SpectrumMatch extends IdentificationMatch {
 
+    /**
+     * Serial number for backward compatibility.
+     */
+    static final long serialVersionUID = 3682246372395691656L;
     /**
      * The key of the match.
      */
     private long key;
+    /**
+     * The version of the key of the match, see KeyBuilder. Matches saved
+     * before the field existed deserialize with the legacy version.
+     */
+    private int keyVersion = KeyBuilder.KEY_VERSION;
     /**
      * The name of the file (without extension) containing the spectrum.
      */
@@ -89,9 +99,28 @@ public class SpectrumMatch extends IdentificationMatch {
             String spectrumTitle
     ) {
 
+        this(spectrumFile, spectrumTitle, KeyBuilder.KEY_VERSION);
+
+    }
+
+    /**
+     * Constructor for the spectrum match with a key built according to the
+     * given key version, see Identification.getKeyVersion().
+     *
+     * @param spectrumFile The name of the file containing the spectrum.
+     * @param spectrumTitle The title of the spectrum.
+     * @param keyVersion The version of the keys, see KeyBuilder.
+     */
+    public SpectrumMatch(
+            String spectrumFile,
+            String spectrumTitle,
+            int keyVersion
+    ) {
+
         this.spectrumFile = IoUtil.removeExtension(spectrumFile);
         this.spectrumtitle = spectrumTitle;
-        this.key = getKey(this.spectrumFile, spectrumTitle);
+        this.keyVersion = keyVersion;
+        this.key = getKey(this.spectrumFile, spectrumTitle, keyVersion);
 
     }
 
@@ -108,7 +137,68 @@ public class SpectrumMatch extends IdentificationMatch {
             String spectrumFile,
             String spectrumTitle
     ) {
-        return ExperimentObject.asLong(String.join("", IoUtil.removeExtension(spectrumFile), spectrumTitle));
+
+        return getKey(spectrumFile, spectrumTitle, KeyBuilder.KEY_VERSION);
+
+    }
+
+    /**
+     * Returns a key to use for the spectrum match based on the file where the
+     * spectrum was found and its title, built according to the given key
+     * version.
+     *
+     * @param spectrumFile The name of the file containing the spectrum.
+     * @param spectrumTitle The title of the spectrum.
+     * @param keyVersion The version of the keys, see KeyBuilder.
+     *
+     * @return The key as long.
+     */
+    public static long getKey(
+            String spectrumFile,
+            String spectrumTitle,
+            int keyVersion
+    ) {
+
+        if (KeyBuilder.isLegacy(keyVersion)) {
+            return ExperimentObject.asLong(String.join("", IoUtil.removeExtension(spectrumFile), spectrumTitle));
+        }
+
+        return getKeyBuilder(spectrumFile, spectrumTitle).getKey();
+    }
+
+    /**
+     * Returns the key builder of the thread with the file where the spectrum
+     * was found and its title appended.
+     *
+     * @param spectrumFile The name of the file containing the spectrum.
+     * @param spectrumTitle The title of the spectrum.
+     *
+     * @return The key builder of the thread.
+     */
+    private static KeyBuilder getKeyBuilder(
+            String spectrumFile,
+            String spectrumTitle
+    ) {
+
+        // same as IoUtil.removeExtension without creating new strings
+        int end = spectrumFile.endsWith(".gz") ? spectrumFile.length() - 3 : spectrumFile.length();
+        int pointIndex = spectrumFile.lastIndexOf('.', end - 1);
+
+        if (pointIndex > 0) {
+            end = pointIndex;
+        }
+
+        return KeyBuilder.getKeyBuilder()
+                .append(spectrumFile, 0, end)
+                .appendSeparator()
+                .append(spectrumTitle);
+    }
+
+    @Override
+    public long getHighKey() {
+
+        return getKeyBuilder(spectrumFile, spectrumtitle).getHighKey();
+
     }
 
     /**
@@ -190,7 +280,7 @@ public class SpectrumMatch extends IdentificationMatch {
             String spectrumTitle
     ) {
         this.spectrumtitle = spectrumTitle;
-        key = getKey(spectrumFile, spectrumTitle);
+        key = getKey(spectrumFile, spectrumTitle, keyVersion);
     }
 
     @Override
@@ -0,0 +1,188 @@
+package com.compomics.util.experiment.identification.modification.peptide_mapping;
+
+import java.util.Arrays;
+
+/**
+ * Solver for the rectangular minimal cost assignment problem using the
+ * Hungarian algorithm with potentials and shortest augmenting paths. Every row
+ * is assigned to a distinct column, the number of rows must therefore not
+ * exceed the number of columns. The costs are given as a primitive row-major
+ * matrix and the buffers are reused between calls, instances are hence not
+ * thread safe.
+ *
+ * @author Marc Vaudel
+ */
+public class AssignmentSolver {
+
+    /**
+     * The row potentials, one-based.
+     */
+    private double[] u = new double[0];
+    /**
+     * The column potentials, one-based.
+     */
+    private double[] v = new double[0];
+    /**
+     * The row assigned to every column, one-based, zero if none.
+     */
+    private int[] p = new int[0];
+    /**
+     * The previous column on the augmenting path.
+     */
+    private int[] way = new int[0];
+    /**
+     * The minimal reduced cost reaching every column.
+     */
+    private double[] minV = new double[0];
+    /**
+     * The columns visited on the augmenting path.
+     */
+    private boolean[] used = new boolean[0];
+
+    /**
+     * Constructor.
+     */
+    public AssignmentSolver() {
+
+    }
+
+    /**
+     * Ensures that the buffers can hold the given problem size.
+     *
+     * @param nRows the number of rows
+     * @param nColumns the number of columns
+     */
+    private void ensureCapacity(
+            int nRows,
+            int nColumns
+    ) {
+
+        if (u.length < nRows + 1) {
+            u = new double[nRows + 1];
+        }
+
+        if (v.length < nColumns + 1) {
+
+            v = new double[nColumns + 1];
+            p = new int[nColumns + 1];
+            way = new int[nColumns + 1];
+            minV = new double[nColumns + 1];
+            used = new boolean[nColumns + 1];
+
+        }
+    }
+
+    /**
+     * Solves the assignment problem and writes the column assigned to every
+     * row in the destination array.
+     *
+     * @param costs the costs as row-major matrix, cost of row i and column j
+     * at index i * nColumns + j
+     * @param nRows the number of rows
+     * @param nColumns the number of columns, must be greater than or equal to
+     * the number of rows
+     * @param destination the array where to write the column assigned to
+     * every row, must be at least of length nRows
+     *
+     * @return the total cost of the assignment
+     */
+    public double solve(
+            double[] costs,
+            int nRows,
+            int nColumns,
+            int[] destination
+    ) {
+
+        if (nRows > nColumns) {
+            throw new IllegalArgumentException("More rows (" + nRows + ") than columns (" + nColumns + ") in the assignment problem.");
+        }
+
+        ensureCapacity(nRows, nColumns);
+
+        Arrays.fill(u, 0, nRows + 1, 0.0);
+        Arrays.fill(v, 0, nColumns + 1, 0.0);
+        Arrays.fill(p, 0, nColumns + 1, 0);
+        Arrays.fill(way, 0, nColumns + 1, 0);
+
+        for (int i = 1; i <= nRows; i++) {
+
+            p[0] = i;
+            int j0 = 0;
+
+            Arrays.fill(minV, 0, nColumns + 1, Double.POSITIVE_INFINITY);
+            Arrays.fill(used, 0, nColumns + 1, false);
+
+            do {
+
+                used[j0] = true;
+                int i0 = p[j0];
+                int rowOffset = (i0 - 1) * nColumns - 1;
+                double delta = Double.POSITIVE_INFINITY;
+                int j1 = 0;
+
+                for (int j = 1; j <= nColumns; j++) {
+
+                    if (!used[j]) {
+
+                        double current = costs[rowOffset + j] - u[i0] - v[j];
+
+                        if (current < minV[j]) {
+
+                            minV[j] = current;
+                            way[j] = j0;
+
+                        }
+
+                        if (minV[j] < delta) {
+
+                            delta = minV[j];
+                            j1 = j;
+
+                        }
+                    }
+                }
+
+                for (int j = 0; j <= nColumns; j++) {
+
+                    if (used[j]) {
+
+                        u[p[j]] += delta;
+                        v[j] -= delta;
+
+                    } else {
+
+                        minV[j] -= delta;
+
+                    }
+                }
+
+                j0 = j1;
+
+            } while (p[j0] != 0);
+
+            do {
+
+                int j1 = way[j0];
+                p[j0] = p[j1];
+                j0 = j1;
+
+            } while (j0 != 0);
+        }
+
+        double totalCost = 0.0;
+
+        for (int j = 1; j <= nColumns; j++) {
+
+            if (p[j] != 0) {
+
+                int row = p[j] - 1;
+                destination[row] = j - 1;
+                totalCost += costs[row * nColumns + j - 1];
+
+            }
+        }
+
+        return totalCost;
+
+    }
+}
@@ -1,11 +1,13 @@
 package com.compomics.util.experiment.identification.modification.peptide_mapping;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 import java.util.ArrayList;
+import java.util.concurrent.ConcurrentHashMap;
 import org.jgrapht.Graph;
 import org.jgrapht.graph.DefaultWeightedEdge;
 import org.jgrapht.graph.SimpleWeightedGraph;
@@ -25,6 +27,30 @@ public class ModificationPeptideMapping {
      * Separator for the keys of vertices.
      */
     public static final String SEPARATOR = "_";
+    /**
+     * The maximal number of site patterns kept in cache.
+     */
+    public static final int SITE_PATTERN_CACHE_SIZE = 10000;
+    /**
+     * Offset added to the costs to ensure that weights are not zero.
+     */
+    private static final double COST_OFFSET = 0.1;
+    /**
+     * Cache of the site patterns.
+     */
+    private static final ConcurrentHashMap<SitePatternKey, SitePattern> SITE_PATTERN_CACHE = new ConcurrentHashMap<>();
+    /**
+     * The assignment solver of every thread.
+     */
+    private static final ThreadLocal<AssignmentSolver> SOLVER = ThreadLocal.withInitial(AssignmentSolver::new);
+    /**
+     * The cost matrix buffer of every thread.
+     */
+    private static final ThreadLocal<double[]> COSTS = ThreadLocal.withInitial(() -> new double[64]);
+    /**
+     * The assignment buffer of every thread.
+     */
+    private static final ThreadLocal<int[]> ASSIGNMENT = ThreadLocal.withInitial(() -> new int[8]);
 
     /**
      * Returns map of site to modification mapping.
@@ -132,7 +158,14 @@ public class ModificationPeptideMapping {
     }
     
     /**
-     * Returns map of site to modification mapping.
+     * Returns map of site to modification mapping. The modifications are
+     * mapped to the sites minimizing the sum of (max score - score + 0.1) over
+     * the modifications, sites that cannot carry a modification get a large
+     * penalty. The structure of the problem is cached per site pattern. If no
+     * site can carry two different modifications, the best scoring sites of
+     * every modification are returned directly, otherwise the minimal cost
+     * assignment is obtained using the Hungarian algorithm on a primitive cost
+     * matrix.
      *
      * @param modificationToPossibleSiteMap Map of modification mass to site to
      * modification names.
@@ -149,6 +182,281 @@ public class ModificationPeptideMapping {
             HashMap<Double, HashMap<Integer, Double>> modificationToSiteToScore
     ) {
 
+        SitePattern sitePattern = getSitePattern(modificationToPossibleSiteMap, modificationOccurrenceMap);
+
+        HashMap<Double, TreeSet<Integer>> result = new HashMap<>(sitePattern.masses.length);
+
+        if (sitePattern.conflictFree) {
+
+            for (int modI = 0; modI < sitePattern.masses.length; modI++) {
+
+                double modMass = sitePattern.masses[modI];
+                int[] sites = sitePattern.sites[modI];
+                HashMap<Integer, Double> localizationScores = modificationToSiteToScore.get(modMass);
+                TreeSet<Integer> bestSites = getBestSites(sites, localizationScores, sitePattern.occurrences[modI]);
+
+                if (!bestSites.isEmpty()) {
+
+                    result.put(modMass, bestSites);
+
+                }
+            }
+
+            return result;
+
+        }
+
+        int nRows = sitePattern.rowModification.length;
+        int nColumns = sitePattern.columns.length;
+
+        if (nRows > nColumns) {
+
+            throw new IllegalArgumentException("More modifications (" + nRows + ") than possible sites (" + nColumns + ").");
+
+        }
+
+        // Use maxScore to reverse localization scores to implement minimum weight matching algorithm
+        double maxScore = 0.0;
+
+        for (double modMass : sitePattern.masses) {
+
+            for (double score : modificationToSiteToScore.get(modMass).values()) {
+
+                if (score > maxScore) {
+
+                    maxScore = score;
+
+                }
+            }
+        }
+
+        // Larger weight for the assignments to sites that cannot carry the modification
+        double dummyCost = (maxScore + 50.0) * 10.0;
+
+        double[] costs = COSTS.get();
+
+        if (costs.length < nRows * nColumns) {
+
+            costs = new double[nRows * nColumns];
+            COSTS.set(costs);
+
+        }
+
+        int[] assignment = ASSIGNMENT.get();
+
+        if (assignment.length < nRows) {
+
+            assignment = new int[nRows];
+            ASSIGNMENT.set(assignment);
+
+        }
+
+        Arrays.fill(costs, 0, nRows * nColumns, dummyCost);
+
+        int row = 0;
+
+        for (int modI = 0; modI < sitePattern.masses.length; modI++) {
+
+            HashMap<Integer, Double> localizationScores = modificationToSiteToScore.get(sitePattern.masses[modI]);
+            int[] sites = sitePattern.sites[modI];
+            int[] siteColumns = sitePattern.siteColumns[modI];
+
+            for (int k = 0; k < sitePattern.occurrences[modI]; k++) {
+
+                int rowOffset = row * nColumns;
+
+                for (int siteI = 0; siteI < sites.length; siteI++) {
+
+                    costs[rowOffset + siteColumns[siteI]] = maxScore - localizationScores.get(sites[siteI]) + COST_OFFSET;
+
+                }
+
+                row++;
+
+            }
+        }
+
+        SOLVER.get().solve(costs, nRows, nColumns, assignment);
+
+        for (row = 0; row < nRows; row++) {
+
+            double modMass = sitePattern.masses[sitePattern.rowModification[row]];
+            TreeSet<Integer> modificationSites = result.get(modMass);
+
+            if (modificationSites == null) {
+
+                modificationSites = new TreeSet<>();
+                result.put(modMass, modificationSites);
+
+            }
+
+            modificationSites.add(sitePattern.columns[assignment[row]]);
+
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the given number of best scoring sites.
+     *
+     * @param sites the possible sites
+     * @param localizationScores the localization scores of the sites
+     * @param nSites the number of sites to return
+     *
+     * @return the best scoring sites
+     */
+    private static TreeSet<Integer> getBestSites(
+            int[] sites,
+            HashMap<Integer, Double> localizationScores,
+            int nSites
+    ) {
+
+        TreeSet<Integer> result = new TreeSet<>();
+
+        if (nSites == 1) {
+
+            int bestSite = sites[0];
+            double bestScore = localizationScores.get(bestSite);
+
+            for (int i = 1; i < sites.length; i++) {
+
+                double score = localizationScores.get(sites[i]);
+
+                if (score > bestScore) {
+
+                    bestScore = score;
+                    bestSite = sites[i];
+
+                }
+            }
+
+            result.add(bestSite);
+
+            return result;
+
+        }
+
+        boolean[] selected = new boolean[sites.length];
+
+        for (int k = 0; k < nSites; k++) {
+
+            int bestI = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+
+            for (int i = 0; i < sites.length; i++) {
+
+                if (!selected[i]) {
+
+                    double score = localizationScores.get(sites[i]);
+
+                    if (bestI == -1 || score > bestScore) {
+
+                        bestScore = score;
+                        bestI = i;
+
+                    }
+                }
+            }
+
+            selected[bestI] = true;
+            result.add(sites[bestI]);
+
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the site pattern of the given modifications, from cache if
+     * available.
+     *
+     * @param modificationToPossibleSiteMap Map of modification mass to
+     * possible sites.
+     * @param modificationOccurrenceMap Map of modification mass to number of
+     * modifications.
+     *
+     * @return the site pattern
+     */
+    private static SitePattern getSitePattern(
+            HashMap<Double, int[]> modificationToPossibleSiteMap,
+            HashMap<Double, Integer> modificationOccurrenceMap
+    ) {
+
+        double[] masses = new double[modificationToPossibleSiteMap.size()];
+        int i = 0;
+        int keyLength = 0;
+
+        for (Map.Entry<Double, int[]> entry : modificationToPossibleSiteMap.entrySet()) {
+
+            masses[i++] = entry.getKey();
+            keyLength += 3 + entry.getValue().length;
+
+        }
+
+        Arrays.sort(masses);
+
+        long[] key = new long[keyLength];
+        i = 0;
+
+        for (double modMass : masses) {
+
+            int[] sites = modificationToPossibleSiteMap.get(modMass);
+
+            key[i++] = Double.doubleToLongBits(modMass);
+            key[i++] = modificationOccurrenceMap.get(modMass);
+            key[i++] = sites.length;
+
+            for (int site : sites) {
+
+                key[i++] = site;
+
+            }
+        }
+
+        SitePatternKey sitePatternKey = new SitePatternKey(key);
+        SitePattern sitePattern = SITE_PATTERN_CACHE.get(sitePatternKey);
+
+        if (sitePattern == null) {
+
+            sitePattern = new SitePattern(masses, modificationToPossibleSiteMap, modificationOccurrenceMap);
+
+            if (SITE_PATTERN_CACHE.size() >= SITE_PATTERN_CACHE_SIZE) {
+
+                SITE_PATTERN_CACHE.clear();
+
+            }
+
+            SITE_PATTERN_CACHE.put(sitePatternKey, sitePattern);
+
+        }
+
+        return sitePattern;
+
+    }
+
+    /**
+     * Returns map of site to modification mapping using a minimal weight
+     * perfect matching on a jgrapht graph. Reference implementation of
+     * mapModifications.
+     *
+     * @param modificationToPossibleSiteMap Map of modification mass to site to
+     * modification names.
+     * @param modificationOccurrenceMap Map of modification mass to number of
+     * modifications.
+     * @param modificationToSiteToScore Map of modification mass to modification
+     * site to localization score.
+     *
+     * @return The list of best sites per modification.
+     */
+    public static HashMap<Double, TreeSet<Integer>> mapModificationsGraph(
+            HashMap<Double, int[]> modificationToPossibleSiteMap,
+            HashMap<Double, Integer> modificationOccurrenceMap,
+            HashMap<Double, HashMap<Integer, Double>> modificationToSiteToScore
+    ) {
+
         Graph<String, DefaultWeightedEdge> g = new SimpleWeightedGraph<>(DefaultWeightedEdge.class);
 
         Set<String> sitesVertices = new HashSet<>();
@@ -302,4 +610,147 @@ public class ModificationPeptideMapping {
 
     }
 
+    /**
+     * Key of a site pattern: the sorted modification masses with their
+     * occurrence and possible sites.
+     */
+    private static final class SitePatternKey {
+
+        /**
+         * The encoded pattern.
+         */
+        private final long[] key;
+        /**
+         * The hash code of the key.
+         */
+        private final int hashCode;
+
+        /**
+         * Constructor.
+         *
+         * @param key the encoded pattern
+         */
+        private SitePatternKey(long[] key) {
+
+            this.key = key;
+            this.hashCode = Arrays.hashCode(key);
+
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+
+            return obj instanceof SitePatternKey
+                    && hashCode == ((SitePatternKey) obj).hashCode
+                    && Arrays.equals(key, ((SitePatternKey) obj).key);
+
+        }
+    }
+
+    /**
+     * The structure of a modification mapping problem independent of the
+     * scores.
+     */
+    private static final class SitePattern {
+
+        /**
+         * The sorted modification masses.
+         */
+        private final double[] masses;
+        /**
+         * The number of occurrences of every modification.
+         */
+        private final int[] occurrences;
+        /**
+         * The possible sites of every modification.
+         */
+        private final int[][] sites;
+        /**
+         * The column of every possible site of every modification.
+         */
+        private final int[][] siteColumns;
+        /**
+         * The distinct sites in ascending order, one per column.
+         */
+        private final int[] columns;
+        /**
+         * The index of the modification of every row.
+         */
+        private final int[] rowModification;
+        /**
+         * Boolean indicating whether no site can carry two different
+         * modifications and every modification has enough sites.
+         */
+        private final boolean conflictFree;
+
+        /**
+         * Constructor.
+         *
+         * @param masses the sorted modification masses
+         * @param modificationToPossibleSiteMap Map of modification mass to
+         * possible sites.
+         * @param modificationOccurrenceMap Map of modification mass to number
+         * of modifications.
+         */
+        private SitePattern(
+                double[] masses,
+                HashMap<Double, int[]> modificationToPossibleSiteMap,
+                HashMap<Double, Integer> modificationOccurrenceMap
+        ) {
+
+            this.masses = masses;
+
+            int nMods = masses.length;
+            occurrences = new int[nMods];
+            sites = new int[nMods][];
+
+            int nRows = 0;
+            int nSites = 0;
+            boolean enoughSites = true;
+
+            for (int modI = 0; modI < nMods; modI++) {
+
+                occurrences[modI] = modificationOccurrenceMap.get(masses[modI]);
+                sites[modI] = modificationToPossibleSiteMap.get(masses[modI]);
+                nRows += occurrences[modI];
+                nSites += sites[modI].length;
+                enoughSites = enoughSites && occurrences[modI] <= sites[modI].length;
+
+            }
+
+            columns = Arrays.stream(sites)
+                    .flatMapToInt(Arrays::stream)
+                    .distinct()
+                    .sorted()
+                    .toArray();
+
+            conflictFree = enoughSites && columns.length == nSites;
+
+            siteColumns = new int[nMods][];
+            rowModification = new int[nRows];
+            int row = 0;
+
+            for (int modI = 0; modI < nMods; modI++) {
+
+                siteColumns[modI] = new int[sites[modI].length];
+
+                for (int siteI = 0; siteI < sites[modI].length; siteI++) {
+
+                    siteColumns[modI][siteI] = Arrays.binarySearch(columns, sites[modI][siteI]);
+
+                }
+
+                for (int k = 0; k < occurrences[modI]; k++) {
+
+                    rowModification[row++] = modI;
+
+                }
+            }
+        }
+    }
 }
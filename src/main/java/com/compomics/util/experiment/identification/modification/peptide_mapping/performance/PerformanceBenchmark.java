@@ -69,6 +69,7 @@ public class PerformanceBenchmark {
 
         benchmarkRandom(fileStem);
         benchmarkBySize(fileStem);
+        benchmarkImplementations(fileStem);
 
     }
 
@@ -217,4 +218,61 @@ public class PerformanceBenchmark {
             }
         }
     }
+
+    /**
+     * Maps the same random peptides with the primitive and the graph based
+     * implementations, and records the time used and the sum of the
+     * localization scores of the mapped sites.
+     *
+     * @param fileStem The stem of the files to write during the performance
+     * benchmark.
+     */
+    private void benchmarkImplementations(
+            String fileStem
+    ) {
+
+        try ( SimpleFileWriter writer = new SimpleFileWriter(new File(fileStem + ".benchmark_implementations"), false)) {
+
+            writer.writeLine("method", "modifications", "sites", "replicate", "time", "peptides", "failed", "score");
+
+            int nPeptides = 1000;
+
+            for (int nSites = 2; nSites <= 20; nSites += 2) {
+
+                for (int nMods = 1; nMods <= 5; nMods++) {
+
+                    for (int replicate = 1; replicate <= REPLICATES; replicate++) {
+
+                        System.out.println(Instant.now() + "    Implementation benchmark - " + nSites + " sites, " + nMods + " modifications (" + replicate + "/" + REPLICATES + ")");
+
+                        for (boolean graph : new boolean[]{true, false}) {
+
+                            PerformanceBenchmarkRunnable runnable = new PerformanceBenchmarkRunnable(nPeptides, nMods, nSites, null, graph);
+
+                            Duration duration = new Duration();
+                            duration.start();
+
+                            runnable.run();
+
+                            duration.end();
+
+                            writer.writeLine(
+                                    graph ? "graph" : "primitive",
+                                    Integer.toString(nMods),
+                                    Integer.toString(nSites),
+                                    Integer.toString(replicate),
+                                    Long.toString(duration.getDuration()),
+                                    Integer.toString(nPeptides),
+                                    Integer.toString(runnable.failedPeptides),
+                                    Double.toString(runnable.totalScore)
+                            );
+
+                            System.gc();
+
+                        }
+                    }
+                }
+            }
+        }
+    }
 }
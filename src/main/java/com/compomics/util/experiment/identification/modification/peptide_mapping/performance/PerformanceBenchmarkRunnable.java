@@ -4,7 +4,9 @@ import com.compomics.util.experiment.identification.modification.peptide_mapping
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Random;
+import java.util.TreeSet;
 
 /**
  * Runnable for the benchmark.
@@ -29,6 +31,15 @@ public class PerformanceBenchmarkRunnable implements Runnable {
      * The number of peptides that failed.
      */
     public int failedPeptides = 0;
+    /**
+     * The sum of the localization scores of the mapped sites.
+     */
+    public double totalScore = 0.0;
+    /**
+     * Boolean indicating whether the graph based implementation should be
+     * used instead of the primitive one.
+     */
+    private final boolean graphImplementation;
     /**
      * The input to map.
      */
@@ -49,6 +60,29 @@ public class PerformanceBenchmarkRunnable implements Runnable {
             Integer nOccupied
     ) {
 
+        this(nPeptides, nMods, nPossible, nOccupied, false);
+
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param nPeptides The number of peptides to generate.
+     * @param nMods The number of modifications to consider.
+     * @param nPossible The number of possible modification sites.
+     * @param nOccupied The number of occupied modification sites.
+     * @param graphImplementation Boolean indicating whether the graph based
+     * implementation should be used instead of the primitive one.
+     */
+    public PerformanceBenchmarkRunnable(
+            int nPeptides,
+            Integer nMods,
+            Integer nPossible,
+            Integer nOccupied,
+            boolean graphImplementation
+    ) {
+
+        this.graphImplementation = graphImplementation;
         this.inputs = new ArrayList<>(nPeptides);
 
         for (int i = 0; i < nPeptides; i++) {
@@ -72,7 +106,25 @@ public class PerformanceBenchmarkRunnable implements Runnable {
 
                 try {
 
-                    ModificationPeptideMapping.mapModifications(modificationToPossibleSiteMap, modificationOccurrenceMap, modificationToSiteToScore);
+                    HashMap<Double, TreeSet<Integer>> result = graphImplementation
+                            ? ModificationPeptideMapping.mapModificationsGraph(modificationToPossibleSiteMap, modificationOccurrenceMap, modificationToSiteToScore)
+                            : ModificationPeptideMapping.mapModifications(modificationToPossibleSiteMap, modificationOccurrenceMap, modificationToSiteToScore);
+
+                    for (Map.Entry<Double, TreeSet<Integer>> entry : result.entrySet()) {
+
+                        HashMap<Integer, Double> siteToScore = modificationToSiteToScore.get(entry.getKey());
+
+                        for (int site : entry.getValue()) {
+
+                            Double score = siteToScore.get(site);
+
+                            if (score != null) {
+
+                                totalScore += score;
+
+                            }
+                        }
+                    }
 
                 } catch (Exception e) {
                     
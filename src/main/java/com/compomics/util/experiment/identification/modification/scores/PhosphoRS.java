@@ -25,11 +25,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Map.Entry;
 import java.util.TreeMap;
-import java.util.TreeSet;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.commons.math.util.FastMath;
 
 /**
@@ -63,13 +60,19 @@ public class PhosphoRS {
      */
     public static final int MIN_DEPTH = 2;
     /**
-     * The number of binomial distributions kept in cache.
+     * The number of binomial distributions kept in cache by every thread.
      */
     private static final int DISTRIBUTION_CACHE_SIZE = 1000;
     /**
-     * The binomial distributions cache.
+     * The binomial distributions cache of every thread. Distributions are not
+     * thread safe and are therefore not shared between threads.
      */
-    private static final HashMap<Double, HashMap<Integer, BinomialDistribution>> DISTRIBUTION_CACHE = new HashMap<Double, HashMap<Integer, BinomialDistribution>>();
+    private static final ThreadLocal<DistributionCache> DISTRIBUTION_CACHE = ThreadLocal.withInitial(DistributionCache::new);
+    /**
+     * The spectrum annotator of every thread, used when no annotator is
+     * provided.
+     */
+    private static final ThreadLocal<PeptideSpectrumAnnotator> SPECTRUM_ANNOTATOR = ThreadLocal.withInitial(PeptideSpectrumAnnotator::new);
 
     /**
      * Returns the PhosphoRS sequence probabilities for the modification
@@ -98,7 +101,8 @@ public class PhosphoRS {
      * @param modificationSequenceMatchingParameters the sequence matching
      * preferences for modification to peptide mapping
      * @param spectrumAnnotator the peptide spectrum annotator to use for
-     * spectrum annotation, can be null
+     * spectrum annotation, can be null, in which case an annotator is reused
+     * per thread
      * @param modificationProvider The modification provider to use.
      *
      * @return a map site &gt; phosphoRS site probability
@@ -123,7 +127,7 @@ public class PhosphoRS {
         }
 
         if (spectrumAnnotator == null) {
-            spectrumAnnotator = new PeptideSpectrumAnnotator();
+            spectrumAnnotator = SPECTRUM_ANNOTATOR.get();
         }
 
         ModificationMatch[] modificationMatches = peptide.getVariableModifications();
@@ -233,11 +237,13 @@ public class PhosphoRS {
                     possibleFragmentIons,
                     false
             );
+            double[][] peptideMatchedPeaks = getMatchedPeaks(ionMatches);
 
             ArrayList<int[]> possibleProfiles = getPossibleModificationProfiles(possibleSites, nModification);
-            int[] possibleProfileKeys = new int[possibleProfiles.size()];
+            int nProfiles = possibleProfiles.size();
+            int[] possibleProfileKeys = new int[nProfiles];
 
-            for (int i = 0; i < possibleProfiles.size(); i++) {
+            for (int i = 0; i < nProfiles; i++) {
 
                 int[] profile = possibleProfiles.get(i);
                 int profileKey = Arrays.hashCode(profile);
@@ -245,52 +251,64 @@ public class PhosphoRS {
                 profileToSitesMap.put(profileKey, profile);
 
             }
-            
-            HashMap<Integer, Peptide> profileToPeptide = getPossiblePeptidesMap(
+
+            Peptide[] profilePeptides = getPossiblePeptides(
                     peptide,
                     modNames,
-                    possibleProfileKeys,
                     possibleProfiles
             );
 
-            HashMap<Integer, HashMap<Integer, HashMap<Integer, ArrayList<Ion>>>> profileToPossibleFragments = getPossiblePeptideFragments(
-                    profileToPeptide,
-                    scoringAnnotationParameters,
-                    modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters
-            );
-            HashMap<Integer, IonMatch[]> profileMatchedPeptideFragments = getMatchedFragments(
-                    spectrumAnnotator,
-                    profileToPeptide,
-                    filteredSpectrum,
-                    profileToPossibleFragments,
-                    annotationParameters,
-                    scoringAnnotationParameters,
-                    modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters
-            );
+            // Fragment ions, expected ions, and matches are computed once per profile
+            ArrayList<HashMap<Integer, HashMap<Integer, ArrayList<Ion>>>> profileFragments = new ArrayList<>(nProfiles);
+            int[] profileN = new int[nProfiles];
+            double[][] profileExpectedMz = new double[nProfiles][];
+            double[][][] profileMatchedPeaks = new double[nProfiles][][];
 
-            HashMap<Integer, Integer> profileToN = getPossiblePeptideToN(
-                    profileToPeptide,
-                    profileToPossibleFragments,
-                    spectrumAnnotator,
-                    scoringAnnotationParameters,
-                    modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters
-            );
+            for (int i = 0; i < nProfiles; i++) {
 
-            HashMap<Double, ArrayList<Integer>> siteDeterminingIonsMap = getSiteDeterminingIons(
-                    profileToPeptide,
-                    spectrumAnnotator,
-                    scoringAnnotationParameters,
-                    modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters
-            );
-            ArrayList<Double> siteDeterminingIons = new ArrayList<>(siteDeterminingIonsMap.keySet());
+                Peptide profilePeptide = profilePeptides[i];
+                HashMap<Integer, HashMap<Integer, ArrayList<Ion>>> fragments = fragmentFactory.getFragmentIons(
+                        profilePeptide,
+                        scoringAnnotationParameters,
+                        modificationParameters,
+                        sequenceProvider,
+                        modificationSequenceMatchingParameters
+                );
+                profileFragments.add(fragments);
+
+                HashMap<Integer, ArrayList<Ion>> expectedIons = spectrumAnnotator.getExpectedIons(
+                        scoringAnnotationParameters,
+                        profilePeptide,
+                        modificationParameters,
+                        sequenceProvider,
+                        modificationSequenceMatchingParameters,
+                        fragments
+                );
+                profileN[i] = expectedIons.values().stream()
+                        .mapToInt(
+                                ArrayList::size
+                        )
+                        .sum();
+                profileExpectedMz[i] = getFragmentMz(expectedIons);
+
+                IonMatch[] profileMatches = spectrumAnnotator.getSpectrumAnnotation(
+                        annotationParameters,
+                        scoringAnnotationParameters,
+                        "PhosphoRS",
+                        Integer.toString(possibleProfileKeys[i]),
+                        filteredSpectrum,
+                        profilePeptide,
+                        modificationParameters,
+                        sequenceProvider,
+                        modificationSequenceMatchingParameters,
+                        fragments,
+                        false
+                );
+                profileMatchedPeaks[i] = getMatchedPeaks(profileMatches);
+
+            }
+
+            double[][] profileSiteDeterminingMz = getSiteDeterminingIons(profileExpectedMz);
 
             double minMz = filteredSpectrum.getMinMz(), maxMz = filteredSpectrum.getMaxMz(), tempMax;
 
@@ -303,6 +321,16 @@ public class PhosphoRS {
             int nDecimals = ((int) dOverW) + 1;
             double halfWindow = WINDOW_SIZE / 2;
 
+            double[] intensityThresholds = new double[MAX_DEPTH];
+            int[] nPeaksAtDepth = new int[MAX_DEPTH];
+            int[] profileIonsStart = new int[nProfiles];
+            int[] profileIonsEnd = new int[nProfiles];
+            int[] scoredProfiles = new int[nProfiles];
+            int[][] kAtDepth = new int[nProfiles][MAX_DEPTH];
+            double[] bigPs = new double[nProfiles];
+            double[][] deltas = new double[MAX_DEPTH][nProfiles];
+            int[] nDeltasAtDepth = new int[MAX_DEPTH];
+
             while (minMz < maxMz) {
 
                 tempMax = minMz + WINDOW_SIZE;
@@ -327,58 +355,93 @@ public class PhosphoRS {
 
                 if (windowEndIndex - windowStartIndex > 0) {
 
-                    ArrayList<Double> intensityThresholds = getIntensityThresholds(
+                    int nDepths = getIntensityThresholds(
                             filteredSpectrum,
                             windowStartIndex,
-                            windowEndIndex
+                            windowEndIndex,
+                            intensityThresholds
+                    );
+                    countPeaksAtDepth(
+                            filteredSpectrum.intensity,
+                            windowStartIndex,
+                            windowEndIndex,
+                            intensityThresholds,
+                            nDepths,
+                            nPeaksAtDepth
                     );
 
-                    HashMap<Integer, HashSet<Double>> profileToSiteDeterminingIonsMz = new HashMap<>(siteDeterminingIons.size());
+                    // Select one profile per distinct set of site determining ions in the window
+                    int nScored = 0;
+                    boolean siteDeterminingIonsInWindow = false;
+                    boolean profileWithNoSiteDeterminingIonsScored = false;
 
-                    for (Entry<Double, ArrayList<Integer>> entry : siteDeterminingIonsMap.entrySet()) {
+                    for (int i = 0; i < nProfiles; i++) {
 
-                        double ionMz = entry.getKey();
+                        double[] siteDeterminingMz = profileSiteDeterminingMz[i];
+                        int ionsStart = getIndexAbove(siteDeterminingMz, minMz);
+                        int ionsEnd = getIndexAbove(siteDeterminingMz, tempMax);
+                        profileIonsStart[i] = ionsStart;
+                        profileIonsEnd[i] = ionsEnd;
 
-                        if (ionMz > minMz && ionMz <= tempMax) {
+                        if (ionsStart == ionsEnd) {
 
-                            ArrayList<Integer> profiles = entry.getValue();
+                            if (!profileWithNoSiteDeterminingIonsScored) {
 
-                            for (int profileKey : profiles) {
+                                profileWithNoSiteDeterminingIonsScored = true;
+                                scoredProfiles[nScored++] = i;
 
-                                HashSet<Double> mzs = profileToSiteDeterminingIonsMz.get(profileKey);
+                            }
 
-                                if (mzs == null) {
+                        } else {
 
-                                    mzs = new HashSet<>(1);
-                                    profileToSiteDeterminingIonsMz.put(profileKey, mzs);
+                            siteDeterminingIonsInWindow = true;
+                            boolean alreadyScored = false;
 
-                                }
+                            for (int j = 0; j < nScored && !alreadyScored; j++) {
+
+                                int scoredProfile = scoredProfiles[j];
 
-                                mzs.add(ionMz);
+                                alreadyScored = rangeEquals(
+                                        siteDeterminingMz,
+                                        ionsStart,
+                                        ionsEnd,
+                                        profileSiteDeterminingMz[scoredProfile],
+                                        profileIonsStart[scoredProfile],
+                                        profileIonsEnd[scoredProfile]
+                                );
+                            }
+
+                            if (!alreadyScored) {
+
+                                scoredProfiles[nScored++] = i;
 
                             }
                         }
                     }
 
-                    if (!profileToSiteDeterminingIonsMz.isEmpty()) {
+                    int bestI = 0;
 
-                        ArrayList<ArrayList<Double>> deltas = new ArrayList<>(intensityThresholds.size());
-                        int nDeltas = 0;
+                    if (siteDeterminingIonsInWindow) {
 
-                        for (int depth = 1; depth <= intensityThresholds.size(); depth++) {
+                        for (int j = 0; j < nScored; j++) {
 
-                            double intensityThreshold = intensityThresholds.get(depth - 1);
-                            int nPeaks = SpectrumUtil.getNPeaksAboveThreshold(
-                                    filteredSpectrum,
-                                    windowStartIndex,
-                                    windowEndIndex,
-                                    intensityThreshold
+                            double[][] matchedPeaks = profileMatchedPeaks[scoredProfiles[j]];
+                            countPeaksAtDepth(
+                                    matchedPeaks[0],
+                                    matchedPeaks[1],
+                                    minMz,
+                                    maxMz,
+                                    intensityThresholds,
+                                    nDepths,
+                                    kAtDepth[j]
                             );
+                        }
+
+                        int nDeltas = 0;
+
+                        for (int depthI = 0; depthI < nDepths; depthI++) {
 
-                            TreeSet<Double> bigPs = new TreeSet<>();
-                            ArrayList<Double> currentDeltas = new ArrayList<>(possibleProfileKeys.length);
-                            ArrayList<HashSet<Double>> scored = new ArrayList<>(possibleProfileKeys.length);
-                            boolean profileWithNoSiteDeterminingIonsScored = false;
+                            int nPeaks = nPeaksAtDepth[depthI];
                             double currentP = getp(
                                     nPeaks,
                                     WINDOW_SIZE,
@@ -386,118 +449,71 @@ public class PhosphoRS {
                                     nDecimals
                             );
 
-                            for (int profileKey : possibleProfileKeys) {
-
-                                HashSet<Double> tempSiteDeterminingIons = profileToSiteDeterminingIonsMz.get(profileKey);
-
-                                if (tempSiteDeterminingIons == null) {
-
-                                    if (!profileWithNoSiteDeterminingIonsScored) {
-
-                                        profileWithNoSiteDeterminingIonsScored = true;
-                                        IonMatch[] profileFragments = profileMatchedPeptideFragments.get(profileKey);
-                                        int k = 0;
-
-                                        for (IonMatch ionMatch : profileFragments) {
-
-                                            if (ionMatch.peakMz >= minMz && ionMatch.peakMz < maxMz && ionMatch.peakIntensity >= intensityThreshold) {
-
-                                                k++;
-
-                                            }
-                                        }
-
-                                        double bigP = getPhosphoRsScoreP(
-                                                k,
-                                                currentP,
-                                                nPeaks
-                                        );
-                                        BasicMathFunctions.checkProbabilityRange(bigP);
-                                        bigPs.add(bigP);
-
-                                    }
-                                } else {
+                            for (int j = 0; j < nScored; j++) {
 
-                                    boolean alreadyScored = false;
+                                double bigP = getPhosphoRsScoreP(
+                                        kAtDepth[j][depthI],
+                                        currentP,
+                                        nPeaks
+                                );
+                                BasicMathFunctions.checkProbabilityRange(bigP);
+                                bigPs[j] = bigP;
 
-                                    for (HashSet<Double> scoredIons : scored) {
-
-                                        if (tempSiteDeterminingIons.equals(scoredIons)) {
-
-                                            alreadyScored = true;
-                                            break;
-
-                                        }
-                                    }
-
-                                    if (!alreadyScored) {
-
-                                        IonMatch[] profileFragments = profileMatchedPeptideFragments.get(profileKey);
-                                        int k = 0;
-
-                                        for (IonMatch ionMatch : profileFragments) {
+                            }
 
-                                            if (ionMatch.peakMz >= minMz && ionMatch.peakMz < maxMz && ionMatch.peakIntensity >= intensityThreshold) {
+                            Arrays.sort(bigPs, 0, nScored);
 
-                                                k++;
+                            double[] depthDeltas = deltas[depthI];
+                            int nDepthDeltas = 0;
 
-                                            }
-                                        }
+                            for (int j = 0; j < nScored - 1; j++) {
 
-                                        double bigP = getPhosphoRsScoreP(
-                                                k,
-                                                currentP,
-                                                nPeaks
-                                        );
+                                if (bigPs[j + 1] != bigPs[j]) {
 
-                                        BasicMathFunctions.checkProbabilityRange(bigP);
-                                        bigPs.add(bigP);
-                                        scored.add(tempSiteDeterminingIons);
+                                    depthDeltas[nDepthDeltas++] = bigPs[j];
 
-                                    }
                                 }
                             }
 
-                            double[] bigPArray = bigPs.stream().mapToDouble(a -> a).toArray();
-
-                            for (int j = 0; j < bigPArray.length - 1; j++) {
+                            if (nScored > 0) {
 
-                                double pJ = bigPArray[j];
-                                double pJPlusOne = bigPArray[j + 1];
-                                double delta = pJ / pJPlusOne;
-                                currentDeltas.add(delta);
+                                depthDeltas[nDepthDeltas++] = bigPs[nScored - 1];
 
                             }
 
-                            if (currentDeltas.size() > nDeltas) {
+                            // Convert the distinct ps into ratios of consecutive ps
+                            for (int j = 0; j < nDepthDeltas - 1; j++) {
 
-                                nDeltas = currentDeltas.size();
+                                depthDeltas[j] = depthDeltas[j] / depthDeltas[j + 1];
 
                             }
 
-                            deltas.add(currentDeltas);
+                            nDepthDeltas = Math.max(nDepthDeltas - 1, 0);
+                            nDeltasAtDepth[depthI] = nDepthDeltas;
+
+                            if (nDepthDeltas > nDeltas) {
 
+                                nDeltas = nDepthDeltas;
+
+                            }
                         }
 
-                        int bestI = 0;
                         double largestDelta = 0.0;
 
                         for (int j = 0; j < nDeltas && largestDelta == 0.0; j++) {
 
-                            for (int i = 0; i < deltas.size(); i++) {
-
-                                ArrayList<Double> tempDeltas = deltas.get(i);
+                            for (int depthI = 0; depthI < nDepths; depthI++) {
 
-                                if (j < tempDeltas.size() && tempDeltas.get(j) > largestDelta) {
+                                if (j < nDeltasAtDepth[depthI] && deltas[depthI][j] > largestDelta) {
 
-                                    largestDelta = tempDeltas.get(j);
-                                    bestI = i;
+                                    largestDelta = deltas[depthI][j];
+                                    bestI = depthI;
 
                                 }
                             }
                         }
 
-                        if (bestI < MIN_DEPTH - 1 && MIN_DEPTH - 1 < intensityThresholds.size()) {
+                        if (bestI < MIN_DEPTH - 1 && MIN_DEPTH - 1 < nDepths) {
 
                             bestI = MIN_DEPTH - 1;
 
@@ -509,31 +525,24 @@ public class PhosphoRS {
 
                         }
 
-                        double bestIntensityThreshold = intensityThresholds.get(bestI);
-                        int[] windowBestPeaks = IntStream.range(windowStartIndex, windowEndIndex)
-                                .filter(
-                                        i -> filteredSpectrum.intensity[i] >= bestIntensityThreshold
-                                )
-                                .toArray();
-
-                        reducedSpectrumIndexes.add(windowBestPeaks);
-                        reducedSpectrumLength += windowBestPeaks.length;
-
                     } else {
 
                         double bestP = 0.0;
-                        int bestI = 0;
+                        int[] k = kAtDepth[0];
+
+                        countPeaksAtDepth(
+                                peptideMatchedPeaks[0],
+                                peptideMatchedPeaks[1],
+                                minMz,
+                                maxMz,
+                                intensityThresholds,
+                                nDepths,
+                                k
+                        );
 
-                        for (int depth = 1; depth <= intensityThresholds.size(); depth++) {
-
-                            double intensityThreshold = intensityThresholds.get(depth - 1);
-                            int nPeaks = SpectrumUtil.getNPeaksAboveThreshold(
-                                    filteredSpectrum,
-                                    windowStartIndex,
-                                    windowEndIndex,
-                                    intensityThreshold
-                            );
+                        for (int depthI = 0; depthI < nDepths; depthI++) {
 
+                            int nPeaks = nPeaksAtDepth[depthI];
                             double currentP = getp(
                                     nPeaks,
                                     WINDOW_SIZE,
@@ -541,19 +550,8 @@ public class PhosphoRS {
                                     nDecimals
                             );
 
-                            int k = 0;
-
-                            for (IonMatch ionMatch : ionMatches) {
-
-                                if (ionMatch.peakMz >= minMz && ionMatch.peakMz < maxMz && ionMatch.peakIntensity >= intensityThreshold) {
-
-                                    k++;
-
-                                }
-                            }
-
                             double bigP = getPhosphoRsScoreP(
-                                    k,
+                                    k[depthI],
                                     currentP,
                                     nPeaks
                             );
@@ -562,21 +560,27 @@ public class PhosphoRS {
                             if (bigP < bestP) {
 
                                 bestP = bigP;
-                                bestI = depth - 1;
+                                bestI = depthI;
                             }
                         }
+                    }
 
-                        double bestIntensityThreshold = intensityThresholds.get(bestI);
-                        int[] windowBestPeaks = IntStream.range(windowStartIndex, windowEndIndex)
-                                .filter(
-                                        i -> filteredSpectrum.intensity[i] >= bestIntensityThreshold
-                                )
-                                .toArray();
+                    double bestIntensityThreshold = intensityThresholds[bestI];
+                    int[] windowBestPeaks = new int[nPeaksAtDepth[bestI]];
+                    int count = 0;
+
+                    for (int i = windowStartIndex; i < windowEndIndex; i++) {
+
+                        if (filteredSpectrum.intensity[i] >= bestIntensityThreshold) {
 
-                        reducedSpectrumIndexes.add(windowBestPeaks);
-                        reducedSpectrumLength += windowBestPeaks.length;
+                            windowBestPeaks[count++] = i;
 
+                        }
                     }
+
+                    reducedSpectrumIndexes.add(windowBestPeaks);
+                    reducedSpectrumLength += windowBestPeaks.length;
+
                 }
 
                 minMz = tempMax;
@@ -623,34 +627,29 @@ public class PhosphoRS {
                     d,
                     nDecimals
             );
-            double[] pInvs = new double[possibleProfileKeys.length];
+            double[] pInvs = new double[nProfiles];
             double pInvTotal = 0.0;
 
-            for (int i = 0; i < possibleProfileKeys.length; i++) {
+            for (int i = 0; i < nProfiles; i++) {
 
-                int profileKey = possibleProfileKeys[i];
-                Peptide tempPeptide = profileToPeptide.get(profileKey);
-                Integer n = profileToN.get(profileKey);
-
-                HashMap<Integer, HashMap<Integer, ArrayList<Ion>>> profilePossibleFragmentIons = profileToPossibleFragments.get(profileKey);
                 IonMatch[] profilePhosphoRsMatches = spectrumAnnotator.getSpectrumAnnotation(
                         annotationParameters,
                         scoringAnnotationParameters,
                         "phosphoRsSpectrum",
                         "profile",
                         phosphoRsSpectrum,
-                        tempPeptide,
+                        profilePeptides[i],
                         modificationParameters,
                         sequenceProvider,
                         modificationSequenceMatchingParameters,
-                        profilePossibleFragmentIons, 
+                        profileFragments.get(i),
                         false
                 );
 
                 double bigP = getPhosphoRsScoreP(
                         profilePhosphoRsMatches.length,
                         currentP,
-                        n
+                        profileN[i]
                 );
                 BasicMathFunctions.checkProbabilityRange(bigP);
                 double pInv = 1.0 / bigP;
@@ -663,7 +662,7 @@ public class PhosphoRS {
                 throw new IllegalArgumentException("PhosphoRS probability <= 0.");
             }
 
-            for (int i = 0; i < possibleProfileKeys.length; i++) {
+            for (int i = 0; i < nProfiles; i++) {
 
                 int profileKey = possibleProfileKeys[i];
                 double pInv = pInvs[i];
@@ -671,8 +670,8 @@ public class PhosphoRS {
                 BasicMathFunctions.checkProbabilityRange(phosphoRsProbability);
                 phosphoRsProbability *= 100.0;
                 profileToScoreMap.put(profileKey, phosphoRsProbability);
-                
-                }
+
+            }
 
         } else if (possibleSites.length == nModification) {
 
@@ -743,73 +742,17 @@ public class PhosphoRS {
 
         }
 
-        BinomialDistribution distribution = null;
-        HashMap<Integer, BinomialDistribution> distributionsAtP = DISTRIBUTION_CACHE.get(p);
-        boolean inCache = true;
-
-        if (distributionsAtP != null) {
-
-            distribution = distributionsAtP.get(n);
-
-        }
+        DistributionCache distributionCache = DISTRIBUTION_CACHE.get();
+        BinomialDistribution distribution = distributionCache.get(p, n);
 
         if (distribution == null) {
 
             distribution = new BinomialDistribution(n, p);
-            inCache = false;
+            distributionCache.put(p, n, distribution);
 
         }
 
-        double result = distribution.getDescendingCumulativeProbabilityAt((double) k);
-
-        if (!inCache && !distribution.isCacheEmpty()) {
-
-            addDistributionToCache(p, n, distribution);
-
-        }
-
-        return result;
-
-    }
-
-    /**
-     * Adds a distribution to the cache and manages the cache size.
-     *
-     * @param p the distribution p
-     * @param n the distribution n
-     */
-    private static synchronized void addDistributionToCache(
-            double p,
-            int n,
-            BinomialDistribution binomialDistribution
-    ) {
-
-        if (DISTRIBUTION_CACHE.size() >= DISTRIBUTION_CACHE_SIZE) {
-
-            HashSet<Double> keys = new HashSet<>(DISTRIBUTION_CACHE.keySet());
-
-            for (Double key : keys) {
-
-                DISTRIBUTION_CACHE.remove(key);
-
-                if (DISTRIBUTION_CACHE.size() < DISTRIBUTION_CACHE_SIZE) {
-
-                    break;
-
-                }
-            }
-        }
-
-        HashMap<Integer, BinomialDistribution> distributionsAtP = DISTRIBUTION_CACHE.get(p);
-
-        if (distributionsAtP == null) {
-
-            distributionsAtP = new HashMap<>(2);
-            DISTRIBUTION_CACHE.put(p, distributionsAtP);
-
-        }
-
-        distributionsAtP.put(n, binomialDistribution);
+        return distribution.getDescendingCumulativeProbabilityAt((double) k);
 
     }
 
@@ -857,38 +800,82 @@ public class PhosphoRS {
     }
 
     /**
-     * Returns a map of the different possible peptides for the different
-     * profiles.
+     * Returns the possible modification profiles given the possible sites and
+     * number of modifications. Sites are sorted in increasing order.
+     *
+     * @param possibleSites the possible modification sites in increasing order
+     * @param nPtms the number of modifications
+     *
+     * @return a list of possible modification profiles
+     */
+    private static ArrayList<int[]> getPossibleModificationProfiles(
+            int[] possibleSites,
+            int nPtms
+    ) {
+
+        ArrayList<int[]> result = new ArrayList<>();
+
+        for (int pos : possibleSites) {
+
+            int[] profile = new int[1];
+            profile[0] = pos;
+            result.add(profile);
+        }
+
+        for (int i = 2; i <= nPtms; i++) {
+
+            ArrayList<int[]> resultAtI = new ArrayList<>(result.size());
+
+            for (int[] previousProfile : result) {
+
+                int lastPos = previousProfile[previousProfile.length - 1];
+
+                for (int pos : possibleSites) {
+
+                    if (pos > lastPos) {
+
+                        int[] profile = Arrays.copyOf(previousProfile, previousProfile.length + 1);
+                        profile[previousProfile.length] = pos;
+                        resultAtI.add(profile);
+                    }
+                }
+            }
+
+            result = resultAtI;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the peptides corresponding to the different profiles.
      *
      * @param peptide the peptide of interest
-     * @param modifications the modifications to score
+     * @param modNames the names of the modifications to score
      * @param possibleProfiles the different profiles
      *
-     * @return a map of the different peptides for the different profiles
+     * @return the peptides corresponding to the different profiles
      */
-    private static HashMap<Integer, Peptide> getPossiblePeptidesMap(
+    private static Peptide[] getPossiblePeptides(
             Peptide peptide,
             HashSet<String> modNames,
-            int[] profileKeys,
             ArrayList<int[]> possibleProfiles
     ) {
 
         String representativeModification = modNames.stream().findAny().get();
-        HashMap<Integer, Peptide> result = new HashMap<>(possibleProfiles.size());
+        Peptide[] result = new Peptide[possibleProfiles.size()];
 
-        for (int i = 0; i < profileKeys.length; i++) {
+        for (int i = 0; i < result.length; i++) {
 
-            int profileKey = profileKeys[i];
-            int[] profile = possibleProfiles.get(i);
             Peptide tempPeptide = peptide.getNoModPeptide(modNames);
 
-            for (int pos : profile) {
+            for (int pos : possibleProfiles.get(i)) {
 
                 tempPeptide.addVariableModification(new ModificationMatch(representativeModification, pos));
 
             }
 
-            result.put(profileKey, tempPeptide);
+            result[i] = tempPeptide;
 
         }
 
@@ -896,110 +883,68 @@ public class PhosphoRS {
     }
 
     /**
-     * Returns a map of the number of possible fragment ions for every peptide
-     * indexed by the corresponding profile.
+     * Returns the distinct m/z of the expected peptide fragment ions in
+     * ascending order.
      *
-     * @param possiblePeptides map of the possible peptides for every profile
-     * @param possiblePeptideFragments the possible peptide fragments for every
-     * peptide
-     * @param spectrumAnnotator the spectrum annotator
-     * @param scoringAnnotationParameters the spectrum scoring annotation
-     * settings
-     * @param modificationParameters the modification parameters
-     * @param sequenceProvider a provider for the protein sequences
-     * @param modificationSequenceMatchingParameters the sequence matching
-     * preferences for modification to peptide mapping
+     * @param expectedIons the expected ions indexed by charge
      *
-     * @return a map of the number of possible fragment ions for every peptide
+     * @return the distinct m/z of the expected peptide fragment ions
      */
-    private static HashMap<Integer, Integer> getPossiblePeptideToN(
-            HashMap<Integer, Peptide> possiblePeptides,
-            HashMap<Integer, HashMap<Integer, HashMap<Integer, ArrayList<Ion>>>> possiblePeptideFragments,
-            PeptideSpectrumAnnotator spectrumAnnotator,
-            SpecificAnnotationParameters scoringAnnotationParameters,
-            ModificationParameters modificationParameters,
-            SequenceProvider sequenceProvider,
-            SequenceMatchingParameters modificationSequenceMatchingParameters
+    private static double[] getFragmentMz(
+            HashMap<Integer, ArrayList<Ion>> expectedIons
     ) {
 
-        HashMap<Integer, Integer> result = new HashMap<>(possiblePeptides.size());
-
-        for (Entry<Integer, Peptide> entry : possiblePeptides.entrySet()) {
-
-            Peptide peptide = entry.getValue();
-            HashMap<Integer, HashMap<Integer, ArrayList<Ion>>> fragmentsForProfile = possiblePeptideFragments.get(entry.getKey());
-            HashMap<Integer, ArrayList<Ion>> expectedFragmentIons = spectrumAnnotator.getExpectedIons(
-                    scoringAnnotationParameters,
-                    peptide,
-                    modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters,
-                    fragmentsForProfile
-            );
-            int n = expectedFragmentIons.values().stream()
-                    .mapToInt(
-                            ArrayList::size
-                    )
-                    .sum();
-            result.put(entry.getKey(), n);
-
-        }
+        return expectedIons.entrySet().stream()
+                .flatMapToDouble(
+                        entry -> entry.getValue().stream()
+                                .filter(
+                                        ion -> ion.getType() == Ion.IonType.PEPTIDE_FRAGMENT_ION
+                                )
+                                .mapToDouble(
+                                        ion -> ion.getTheoreticMz(entry.getKey())
+                                )
+                )
+                .distinct()
+                .sorted()
+                .toArray();
 
-        return result;
     }
 
     /**
-     * Returns a map of the ions matched for every peptide of every profile.
+     * Returns the site determining ions of every profile, i.e. the expected
+     * ions that are not expected for all profiles.
      *
-     * @param spectrumAnnotator The spectrum annotator.
-     * @param possiblePeptides The peptide for each profile.
-     * @param spectrum The spectrum to annotate.
-     * @param possiblePeptideFragments The possible peptide fragments for each
-     * profile.
-     * @param annotationParameters The annotation parameters.
-     * @param scoringAnnotationParameters The scoring specific annotation
-     * parameters.
-     * @param modificationParameters The modifications parameters.
-     * @param sequenceProvider The sequence provider.
-     * @param modificationSequenceMatchingParameters The modifications sequence
-     * matching parameters.
+     * @param profileExpectedMz the distinct m/z of the expected ions of every
+     * profile in ascending order
      *
-     * @return A map of the ions matched for every peptide of every profile.
+     * @return the m/z of the site determining ions of every profile in
+     * ascending order
      */
-    private static HashMap<Integer, IonMatch[]> getMatchedFragments(
-            PeptideSpectrumAnnotator spectrumAnnotator,
-            HashMap<Integer, Peptide> possiblePeptides,
-            Spectrum spectrum,
-            HashMap<Integer, HashMap<Integer, HashMap<Integer, ArrayList<Ion>>>> possiblePeptideFragments,
-            AnnotationParameters annotationParameters,
-            SpecificAnnotationParameters scoringAnnotationParameters,
-            ModificationParameters modificationParameters,
-            SequenceProvider sequenceProvider,
-            SequenceMatchingParameters modificationSequenceMatchingParameters
+    private static double[][] getSiteDeterminingIons(
+            double[][] profileExpectedMz
     ) {
 
-        HashMap<Integer, IonMatch[]> result = new HashMap<>(possiblePeptides.size());
+        HashMap<Double, Integer> occurrences = new HashMap<>();
 
-        for (Entry<Integer, Peptide> peptideEntry : possiblePeptides.entrySet()) {
+        for (double[] expectedMz : profileExpectedMz) {
 
-            int key = peptideEntry.getKey();
-            Peptide peptide = peptideEntry.getValue();
+            for (double mz : expectedMz) {
 
-            IonMatch[] ionMatches = spectrumAnnotator.getSpectrumAnnotation(
-                    annotationParameters,
-                    scoringAnnotationParameters,
-                    "PhosphoRS",
-                    Integer.toString(key),
-                    spectrum,
-                    peptide,
-                    modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters,
-                    possiblePeptideFragments.get(key),
-                    false
-            );
+                occurrences.merge(mz, 1, Integer::sum);
+
+            }
+        }
+
+        int nProfiles = profileExpectedMz.length;
+        double[][] result = new double[nProfiles][];
 
-            result.put(key, ionMatches);
+        for (int i = 0; i < nProfiles; i++) {
+
+            result[i] = Arrays.stream(profileExpectedMz[i])
+                    .filter(
+                            mz -> occurrences.get(mz) < nProfiles
+                    )
+                    .toArray();
 
         }
 
@@ -1008,232 +953,278 @@ public class PhosphoRS {
     }
 
     /**
-     * Returns a map of the possible ions for every peptide of every profile.
+     * Returns the m/z and intensities of the peaks matched, sorted by
+     * ascending m/z.
      *
-     * @param possiblePeptides map of the possible peptides for every profile
-     * @param scoringAnnotationSetttings the spectrum scoring annotation
-     * settings
-     * @param modificationParameters the modification parameters
-     * @param sequenceProvider the sequence provider
-     * @param modificationSequenceMatchingParameters the sequence matching
-     * preferences to use for modifications
+     * @param ionMatches the ion matches
      *
-     * @return a map of the possible ions for every peptide of every profile
+     * @return the m/z and intensities of the peaks matched as {mz, intensity}
      */
-    private static HashMap<Integer, HashMap<Integer, HashMap<Integer, ArrayList<Ion>>>> getPossiblePeptideFragments(
-            HashMap<Integer, Peptide> possiblePeptides,
-            SpecificAnnotationParameters scoringAnnotationSetttings,
-            ModificationParameters modificationParameters,
-            SequenceProvider sequenceProvider,
-            SequenceMatchingParameters modificationSequenceMatchingParameters
+    private static double[][] getMatchedPeaks(
+            IonMatch[] ionMatches
     ) {
 
-        HashMap<Integer, HashMap<Integer, HashMap<Integer, ArrayList<Ion>>>> result = new HashMap<>(possiblePeptides.size());
-        IonFactory fragmentFactory = IonFactory.getInstance();
+        IonMatch[] sortedMatches = ionMatches.clone();
+        Arrays.sort(sortedMatches, (match1, match2) -> Double.compare(match1.peakMz, match2.peakMz));
 
-        for (Entry<Integer, Peptide> entry : possiblePeptides.entrySet()) {
+        double[] mz = new double[sortedMatches.length];
+        double[] intensity = new double[sortedMatches.length];
 
-            HashMap<Integer, HashMap<Integer, ArrayList<Ion>>> possibleFragmentIons = fragmentFactory.getFragmentIons(
-                    entry.getValue(),
-                    scoringAnnotationSetttings,
-                    modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters
-            );
+        for (int i = 0; i < sortedMatches.length; i++) {
 
-            result.put(entry.getKey(), possibleFragmentIons);
+            mz[i] = sortedMatches[i].peakMz;
+            intensity[i] = sortedMatches[i].peakIntensity;
 
         }
 
-        return result;
+        return new double[][]{mz, intensity};
+
     }
 
     /**
-     * Returns the possible modification profiles given the possible sites and
-     * number of modifications. Sites are sorted in increasing order.
+     * Returns the index of the first value strictly greater than the given
+     * value.
      *
-     * @param possibleSites the possible modification sites in increasing order
-     * @param nPtms the number of modifications
+     * @param sortedValues the values in ascending order
+     * @param value the value
      *
-     * @return a list of possible modification profiles
+     * @return the index of the first value strictly greater than the given
+     * value
      */
-    private static ArrayList<int[]> getPossibleModificationProfiles(
-            int[] possibleSites,
-            int nPtms
+    private static int getIndexAbove(
+            double[] sortedValues,
+            double value
     ) {
 
-        ArrayList<int[]> result = new ArrayList<>();
+        int low = 0;
+        int high = sortedValues.length;
 
-        for (int pos : possibleSites) {
+        while (low < high) {
 
-            int[] profile = new int[1];
-            profile[0] = pos;
-            result.add(profile);
-        }
+            int mid = (low + high) >>> 1;
 
-        for (int i = 2; i <= nPtms; i++) {
+            if (sortedValues[mid] <= value) {
 
-            ArrayList<int[]> resultAtI = new ArrayList<>(result.size());
+                low = mid + 1;
 
-            for (int[] previousProfile : result) {
-
-                int lastPos = previousProfile[previousProfile.length - 1];
+            } else {
 
-                for (int pos : possibleSites) {
-
-                    if (pos > lastPos) {
+                high = mid;
 
-                        int[] profile = Arrays.copyOf(previousProfile, previousProfile.length + 1);
-                        profile[previousProfile.length] = pos;
-                        resultAtI.add(profile);
-                    }
-                }
             }
-
-            result = resultAtI;
         }
 
-        return result;
+        return low;
+
     }
 
     /**
-     * Returns a map of all potential site determining ions indexed by their
-     * m/z.
+     * Indicates whether two ranges of arrays contain the same values.
      *
-     * @param profileToPeptide the profile to peptide map
-     * @param profileKeys the keys of the different profiles
-     * @param possibleProfiles the possible modification profiles to inspect
-     * @param modifications the modifications scored
-     * @param spectrumAnnotator the spectrum annotator used throughout the
-     * scoring
-     * @param scoringAnnotationParameters the annotation settings specific to
-     * this peptide and spectrum
+     * @param array1 the first array
+     * @param start1 the start of the first range (inclusive)
+     * @param end1 the end of the first range (exclusive)
+     * @param array2 the second array
+     * @param start2 the start of the second range (inclusive)
+     * @param end2 the end of the second range (exclusive)
      *
-     * @return a map of all potential site determining ions indexed by their m/z
+     * @return a boolean indicating whether the two ranges contain the same
+     * values
      */
-    private static HashMap<Double, ArrayList<Integer>> getSiteDeterminingIons(
-            HashMap<Integer, Peptide> profileToPeptide,
-            PeptideSpectrumAnnotator spectrumAnnotator,
-            SpecificAnnotationParameters scoringAnnotationParameters,
-            ModificationParameters modificationParameters,
-            SequenceProvider sequenceProvider,
-            SequenceMatchingParameters modificationSequenceMatchingParameters
+    private static boolean rangeEquals(
+            double[] array1,
+            int start1,
+            int end1,
+            double[] array2,
+            int start2,
+            int end2
     ) {
 
-        HashMap<Double, ArrayList<Integer>> siteDeterminingIons = new HashMap<>();
-        HashMap<Double, ArrayList<Integer>> commonIons = new HashMap<>();
+        if (end1 - start1 != end2 - start2) {
 
-        for (Entry<Integer, Peptide> entry : profileToPeptide.entrySet()) {
+            return false;
 
-            int profileKey = entry.getKey();
-            Peptide peptide = entry.getValue();
+        }
 
-            HashSet<Double> mzs = spectrumAnnotator.getExpectedIons(
-                    scoringAnnotationParameters,
-                    peptide, modificationParameters,
-                    sequenceProvider,
-                    modificationSequenceMatchingParameters
-            ).values().stream()
-                    .flatMap(ArrayList::stream)
-                    .filter(
-                            ion -> ion.getType() == Ion.IonType.PEPTIDE_FRAGMENT_ION
-                    )
-                    .flatMap(
-                            ion -> scoringAnnotationParameters.getSelectedCharges().stream()
-                                    .map(
-                                            charge -> ion.getTheoreticMz(charge)
-                                    )
-                    )
-                    .collect(
-                            Collectors.toCollection(HashSet::new)
-                    );
+        for (int i = 0; i < end1 - start1; i++) {
 
-            for (double mz : mzs) {
+            if (array1[start1 + i] != array2[start2 + i]) {
 
-                if (commonIons.isEmpty()) {
+                return false;
 
-                    ArrayList<Integer> profiles = new ArrayList<>(2);
-                    commonIons.put(mz, profiles);
-                    profiles.add(profileKey);
+            }
+        }
 
-                } else if (!commonIons.containsKey(mz)) {
+        return true;
 
-                    ArrayList<Integer> profiles = siteDeterminingIons.get(mz);
+    }
 
-                    if (profiles == null) {
+    /**
+     * Sets the intensity threshold (inclusive) to use at each depth, i.e. the
+     * distinct intensities of the window in descending order, and returns the
+     * number of depths.
+     *
+     * @param spectrum the spectrum of interest
+     * @param iMin the start (inclusive) index to look at
+     * @param iMax the end (exclusive) index to look at
+     * @param thresholds the array where to write the thresholds, of length
+     * MAX_DEPTH
+     *
+     * @return the number of depths
+     */
+    private static int getIntensityThresholds(
+            Spectrum spectrum,
+            int iMin,
+            int iMax,
+            double[] thresholds
+    ) {
 
-                        profiles = new ArrayList<>(2);
-                        siteDeterminingIons.put(mz, profiles);
+        double[] intensities = Arrays.copyOfRange(spectrum.intensity, iMin, iMax);
+        Arrays.sort(intensities);
 
-                    }
+        int depth = 0;
 
-                    profiles.add(profileKey);
+        for (int i = intensities.length - 1; i >= 0 && depth < MAX_DEPTH; i--) {
+
+            if (depth == 0 || intensities[i] != thresholds[depth - 1]) {
+
+                thresholds[depth++] = intensities[i];
 
-                }
             }
+        }
 
-            for (double mz : new HashSet<>(commonIons.keySet())) {
+        return depth;
 
-                if (!mzs.contains(mz)) {
+    }
 
-                    siteDeterminingIons.put(mz, commonIons.get(mz));
-                    commonIons.remove(mz);
+    /**
+     * Counts the peaks of a window at or above the intensity threshold of
+     * every depth.
+     *
+     * @param intensities the intensities of the spectrum
+     * @param iMin the start (inclusive) index of the window
+     * @param iMax the end (exclusive) index of the window
+     * @param thresholds the intensity thresholds in descending order
+     * @param nDepths the number of depths
+     * @param counts the array where to write the number of peaks per depth
+     */
+    private static void countPeaksAtDepth(
+            double[] intensities,
+            int iMin,
+            int iMax,
+            double[] thresholds,
+            int nDepths,
+            int[] counts
+    ) {
 
-                } else {
+        Arrays.fill(counts, 0, nDepths, 0);
 
-                    commonIons.get(mz).add(profileKey);
+        for (int i = iMin; i < iMax; i++) {
+
+            addToDepthHistogram(intensities[i], thresholds, nDepths, counts);
 
-                }
-            }
         }
 
-        return siteDeterminingIons;
+        cumulateDepthHistogram(counts, nDepths);
+
     }
 
     /**
-     * Returns the intensity threshold (inclusive) to use at each depth.
-     *
-     * @param spectrum the spectrum of interest
-     * @param iMin the start (inclusive) index to look at
-     * @param iMax the end (exclusive) index to look at
+     * Counts the matched peaks with m/z in the given range at or above the
+     * intensity threshold of every depth.
      *
-     * @return a list of spectra containing only the most intense ions.
+     * @param mz the m/z of the matched peaks in ascending order
+     * @param intensities the intensities of the matched peaks
+     * @param minMz the minimal m/z (inclusive)
+     * @param maxMz the maximal m/z (exclusive)
+     * @param thresholds the intensity thresholds in descending order
+     * @param nDepths the number of depths
+     * @param counts the array where to write the number of peaks per depth
      */
-    private static ArrayList<Double> getIntensityThresholds(
-            Spectrum spectrum,
-            int iMin,
-            int iMax
+    private static void countPeaksAtDepth(
+            double[] mz,
+            double[] intensities,
+            double minMz,
+            double maxMz,
+            double[] thresholds,
+            int nDepths,
+            int[] counts
     ) {
 
-        TreeSet<Double> intensities = new TreeSet<>();
+        Arrays.fill(counts, 0, nDepths, 0);
 
-        for (int i = iMin; i < iMax; i++) {
+        int low = 0;
+        int high = mz.length;
+
+        while (low < high) {
+
+            int mid = (low + high) >>> 1;
+
+            if (mz[mid] < minMz) {
+
+                low = mid + 1;
 
-            double intensity = spectrum.intensity[i];
-            intensities.add(intensity);
+            } else {
 
+                high = mid;
+
+            }
         }
 
-        ArrayList<Double> thresholds = new ArrayList<>(MAX_DEPTH);
+        for (int i = low; i < mz.length && mz[i] < maxMz; i++) {
 
-        int depth = 1;
+            addToDepthHistogram(intensities[i], thresholds, nDepths, counts);
 
-        for (double intensity : intensities.descendingSet()) {
+        }
 
-            thresholds.add(intensity);
+        cumulateDepthHistogram(counts, nDepths);
 
-            if (depth == MAX_DEPTH) {
+    }
 
-                break;
+    /**
+     * Increments the histogram at the first depth where the given intensity
+     * is at or above the threshold.
+     *
+     * @param intensity the intensity
+     * @param thresholds the intensity thresholds in descending order
+     * @param nDepths the number of depths
+     * @param histogram the histogram
+     */
+    private static void addToDepthHistogram(
+            double intensity,
+            double[] thresholds,
+            int nDepths,
+            int[] histogram
+    ) {
 
-            }
+        for (int depthI = 0; depthI < nDepths; depthI++) {
 
-            depth++;
+            if (intensity >= thresholds[depthI]) {
 
+                histogram[depthI]++;
+                return;
+
+            }
         }
+    }
+
+    /**
+     * Converts a histogram per depth into the number of values at or above
+     * the threshold of every depth.
+     *
+     * @param histogram the histogram
+     * @param nDepths the number of depths
+     */
+    private static void cumulateDepthHistogram(
+            int[] histogram,
+            int nDepths
+    ) {
 
-        return thresholds;
+        for (int depthI = 1; depthI < nDepths; depthI++) {
 
+            histogram[depthI] += histogram[depthI - 1];
+
+        }
     }
 
     /**
@@ -1368,4 +1359,66 @@ public class PhosphoRS {
         }
     }
 
+    /**
+     * Bounded cache of binomial distributions indexed by p and n. When full,
+     * the cache is emptied.
+     */
+    private static class DistributionCache {
+
+        /**
+         * The distributions indexed by p and n.
+         */
+        private final HashMap<Double, HashMap<Integer, BinomialDistribution>> distributions = new HashMap<>();
+        /**
+         * The number of distributions in cache.
+         */
+        private int size = 0;
+
+        /**
+         * Returns the distribution for the given p and n, null if not in
+         * cache.
+         *
+         * @param p the distribution p
+         * @param n the distribution n
+         *
+         * @return the distribution
+         */
+        private BinomialDistribution get(
+                double p,
+                int n
+        ) {
+
+            HashMap<Integer, BinomialDistribution> distributionsAtP = distributions.get(p);
+
+            return distributionsAtP == null ? null : distributionsAtP.get(n);
+
+        }
+
+        /**
+         * Adds a distribution to the cache.
+         *
+         * @param p the distribution p
+         * @param n the distribution n
+         * @param distribution the distribution
+         */
+        private void put(
+                double p,
+                int n,
+                BinomialDistribution distribution
+        ) {
+
+            if (size >= DISTRIBUTION_CACHE_SIZE) {
+
+                distributions.clear();
+                size = 0;
+
+            }
+
+            if (distributions.computeIfAbsent(p, key -> new HashMap<>(2)).put(n, distribution) == null) {
+
+                size++;
+
+            }
+        }
+    }
 }
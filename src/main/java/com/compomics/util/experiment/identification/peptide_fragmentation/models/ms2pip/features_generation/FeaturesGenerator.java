@@ -25,7 +25,14 @@ import com.compomics.util.experiment.identification.peptide_fragmentation.models
 import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
 import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
 import com.compomics.util.parameters.identification.search.ModificationParameters;
+import com.compomics.util.waiting.WaitingHandler;
+import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class computes the ms2PIP features from a peptide.
@@ -54,6 +61,16 @@ public class FeaturesGenerator {
      * The map of the different features to include.
      */
     private final FeaturesMap featuresMap;
+    /**
+     * The amino acid properties needed for peptides, forward ions,
+     * complementary ions, and individual amino acids, lazily extracted from
+     * the features map.
+     */
+    private volatile AminoAcid.Property[][] aaProperties = null;
+    /**
+     * The number of peptides processed per batch task.
+     */
+    public static final int BATCH_SIZE = 1000;
 
     /**
      * Constructor.
@@ -84,7 +101,11 @@ public class FeaturesGenerator {
         String[] fixedModifications = peptide.getFixedModifications(modificationParameters, sequenceProvider, modificationSequenceMatchingPreferences);
         ModificationMatch[] modificationMatches = peptide.getVariableModifications();
 
-        return getIonsFeatures(peptideSequence, fixedModifications, modificationMatches, charge, ionIndex);
+        PeptideAttributes peptideAttributes = getPeptideAttributes(peptideSequence, fixedModifications, modificationMatches);
+        int[] features = new int[featuresMap.getnFeatures()];
+        fillIonsFeatures(peptideSequence, peptideAttributes, charge, ionIndex, features, 0);
+
+        return features;
     }
 
     /**
@@ -103,68 +124,319 @@ public class FeaturesGenerator {
      */
     public int[] getComplementaryIonsFeatures(Peptide peptide, int charge, int ionIndex, ModificationParameters modificationParameters, SequenceProvider sequenceProvider, SequenceMatchingParameters modificationSequenceMatchingPreferences) {
 
+        char[] reversedSequence = getReversedSequence(peptide.getSequence().toCharArray());
+        String[] reversedModifications = getReversedFixedModifications(peptide.getFixedModifications(modificationParameters, sequenceProvider, modificationSequenceMatchingPreferences));
+        ModificationMatch[] reversedModificationMatches = getReversedVariableModifications(peptide.getVariableModifications(), reversedSequence.length);
+
+        PeptideAttributes peptideAttributes = getPeptideAttributes(reversedSequence, reversedModifications, reversedModificationMatches);
+        int[] features = new int[featuresMap.getnFeatures()];
+        fillIonsFeatures(reversedSequence, peptideAttributes, charge, ionIndex, features, 0);
+
+        return features;
+    }
+
+    /**
+     * Returns the ms2pip features of all forward and complementary ions of the
+     * given peptides in a matrix. The peptides are processed in parallel, and
+     * the attributes of a peptide are computed only once for all its ions.
+     *
+     * @param peptides the peptides
+     * @param charges the charge of every peptide
+     * @param modificationParameters the modification parameters
+     * @param sequenceProvider a provider for the protein sequences
+     * @param modificationSequenceMatchingPreferences the sequence matching
+     * preferences for modification to peptide mapping
+     * @param nThreads the number of threads to use
+     * @param waitingHandler a waiting handler allowing displaying progress and
+     * canceling the process, can be null
+     *
+     * @return the features matrix
+     */
+    public FeaturesMatrix getFeaturesMatrix(
+            Peptide[] peptides,
+            int[] charges,
+            ModificationParameters modificationParameters,
+            SequenceProvider sequenceProvider,
+            SequenceMatchingParameters modificationSequenceMatchingPreferences,
+            int nThreads,
+            WaitingHandler waitingHandler
+    ) {
+
+        if (peptides.length != charges.length) {
+            throw new IllegalArgumentException("The number of charges (" + charges.length + ") does not match the number of peptides (" + peptides.length + ").");
+        }
+
+        int nFeatures = featuresMap.getnFeatures();
+        int[] peptideRowStart = new int[peptides.length + 1];
+        long nRows = 0;
+
+        for (int i = 0; i < peptides.length; i++) {
+
+            peptideRowStart[i] = (int) nRows;
+            nRows += Math.max(peptides[i].getSequence().length() - 1, 0);
+
+            if (nRows * 2 * nFeatures > Integer.MAX_VALUE - 8) {
+                throw new IllegalArgumentException("Too many ions for a single features matrix, please split the peptides in smaller batches.");
+            }
+        }
+
+        peptideRowStart[peptides.length] = (int) nRows;
+
+        FeaturesMatrix featuresMatrix = new FeaturesMatrix(nFeatures, peptideRowStart);
+        int[] values = featuresMatrix.getValues();
+        int nColumns = featuresMatrix.getNColumns();
+
+        int nBatches = (peptides.length + BATCH_SIZE - 1) / BATCH_SIZE;
+
+        if (waitingHandler != null) {
+
+            waitingHandler.resetSecondaryProgressCounter();
+            waitingHandler.setMaxSecondaryProgressCounter(nBatches);
+
+        }
+
+        ArrayList<Callable<Object>> tasks = new ArrayList<>(nBatches);
+
+        for (int batchI = 0; batchI < nBatches; batchI++) {
+
+            int start = batchI * BATCH_SIZE;
+            int end = Math.min(start + BATCH_SIZE, peptides.length);
+
+            tasks.add(() -> {
+
+                for (int peptideI = start; peptideI < end; peptideI++) {
+
+                    if (waitingHandler != null && waitingHandler.isRunCanceled()) {
+                        return null;
+                    }
+
+                    fillPeptideFeatures(
+                            peptides[peptideI],
+                            charges[peptideI],
+                            modificationParameters,
+                            sequenceProvider,
+                            modificationSequenceMatchingPreferences,
+                            values,
+                            peptideRowStart[peptideI] * nColumns,
+                            nFeatures
+                    );
+                }
+
+                if (waitingHandler != null) {
+                    waitingHandler.increaseSecondaryProgressCounter();
+                }
+
+                return null;
+
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+
+        try {
+
+            for (Future<Object> future : pool.invokeAll(tasks)) {
+
+                future.get();
+
+            }
+
+        } catch (InterruptedException | ExecutionException e) {
+
+            if (waitingHandler != null) {
+                waitingHandler.setRunCanceled();
+            }
+
+            throw new RuntimeException(e);
+
+        } finally {
+
+            pool.shutdown();
+
+        }
+
+        return featuresMatrix;
+
+    }
+
+    /**
+     * Writes the forward and complementary ions features of all ions of the
+     * given peptide in the given buffer.
+     *
+     * @param peptide the peptide
+     * @param charge the charge
+     * @param modificationParameters the modification parameters
+     * @param sequenceProvider a provider for the protein sequences
+     * @param modificationSequenceMatchingPreferences the sequence matching
+     * preferences for modification to peptide mapping
+     * @param destination the buffer where to write the features
+     * @param offset the offset of the first row of the peptide in the buffer
+     * @param nFeatures the number of features per ion
+     */
+    private void fillPeptideFeatures(
+            Peptide peptide,
+            int charge,
+            ModificationParameters modificationParameters,
+            SequenceProvider sequenceProvider,
+            SequenceMatchingParameters modificationSequenceMatchingPreferences,
+            int[] destination,
+            int offset,
+            int nFeatures
+    ) {
+
         char[] peptideSequence = peptide.getSequence().toCharArray();
+        String[] fixedModifications = peptide.getFixedModifications(modificationParameters, sequenceProvider, modificationSequenceMatchingPreferences);
+        ModificationMatch[] modificationMatches = peptide.getVariableModifications();
+
+        PeptideAttributes forwardAttributes = getPeptideAttributes(peptideSequence, fixedModifications, modificationMatches);
+
+        char[] reversedSequence = getReversedSequence(peptideSequence);
+        PeptideAttributes complementaryAttributes = getPeptideAttributes(
+                reversedSequence,
+                getReversedFixedModifications(fixedModifications),
+                getReversedVariableModifications(modificationMatches, peptideSequence.length)
+        );
+
+        for (int ionIndex = 0; ionIndex < peptideSequence.length - 1; ionIndex++) {
+
+            fillIonsFeatures(peptideSequence, forwardAttributes, charge, ionIndex, destination, offset);
+            offset += nFeatures;
+            fillIonsFeatures(reversedSequence, complementaryAttributes, charge, ionIndex, destination, offset);
+            offset += nFeatures;
+
+        }
+    }
+
+    /**
+     * Returns the given sequence in reverse order.
+     *
+     * @param peptideSequence the peptide sequence as char array
+     *
+     * @return the reversed sequence
+     */
+    private static char[] getReversedSequence(char[] peptideSequence) {
+
         int sequenceLength = peptideSequence.length;
         char[] reversedSequence = new char[sequenceLength];
 
-        String[] fixedModifications = peptide.getFixedModifications(modificationParameters, sequenceProvider, modificationSequenceMatchingPreferences);
+        for (int i = 0; i < sequenceLength; i++) {
+
+            reversedSequence[i] = peptideSequence[sequenceLength - i - 1];
+
+        }
+
+        return reversedSequence;
+
+    }
+
+    /**
+     * Returns the fixed modifications of the reversed sequence. The
+     * modifications are indexed as in Peptide.getFixedModifications, the
+     * termini are hence swapped.
+     *
+     * @param fixedModifications the fixed modifications
+     *
+     * @return the fixed modifications of the reversed sequence
+     */
+    private static String[] getReversedFixedModifications(String[] fixedModifications) {
+
         String[] reversedModifications = new String[fixedModifications.length];
-        
+
         for (int i = 0; i < fixedModifications.length; i++) {
 
-            int j = fixedModifications.length - i - 1;
-            reversedSequence[i] = peptideSequence[j];
-            reversedModifications[i] = fixedModifications[j];
+            reversedModifications[i] = fixedModifications[fixedModifications.length - i - 1];
 
         }
 
-        ModificationMatch[] modificationMatches = peptide.getVariableModifications();
-        ModificationMatch[] reversedModificationMatches;
+        return reversedModifications;
+
+    }
+
+    /**
+     * Returns the variable modifications of the reversed sequence.
+     *
+     * @param modificationMatches the modification matches
+     * @param sequenceLength the length of the sequence
+     *
+     * @return the variable modifications of the reversed sequence
+     */
+    private static ModificationMatch[] getReversedVariableModifications(ModificationMatch[] modificationMatches, int sequenceLength) {
 
-        reversedModificationMatches = new ModificationMatch[modificationMatches.length];
+        ModificationMatch[] reversedModificationMatches = new ModificationMatch[modificationMatches.length];
 
         for (int i = 0; i < modificationMatches.length; i++) {
 
             ModificationMatch modificationMatch = modificationMatches[i];
-            ModificationMatch reversedModificationMatch = new ModificationMatch(modificationMatch.getModification(), sequenceLength - modificationMatch.getSite() + 1);
-            reversedModificationMatches[i] = reversedModificationMatch;
+            reversedModificationMatches[i] = new ModificationMatch(modificationMatch.getModification(), sequenceLength - modificationMatch.getSite() + 1);
 
         }
 
-        return getIonsFeatures(reversedSequence, reversedModifications, reversedModificationMatches, charge, ionIndex);
+        return reversedModificationMatches;
+
     }
 
     /**
-     * Returns the ms2pip features for the ion at index of the given sequence
-     * with modifications at the given charge.
+     * Returns the attributes of the given sequence with modifications.
      *
      * @param peptideSequence the peptide sequence as char array
      * @param fixedModifications the fixed modifications
      * @param variableModifications the modification matches
-     * @param charge the charge
-     * @param ionIndex the ion index
      *
-     * @return the ms2pip features for the b ions
+     * @return the attributes of the peptide
+     */
+    private PeptideAttributes getPeptideAttributes(char[] peptideSequence, String[] fixedModifications, ModificationMatch[] variableModifications) {
+
+        AminoAcid.Property[][] properties = getAaProperties();
+
+        return new PeptideAttributes(peptideSequence, fixedModifications, variableModifications, properties[0], properties[1], properties[2], properties[3]);
+
+    }
+
+    /**
+     * Returns the amino acid properties needed for peptides, forward ions,
+     * complementary ions, and individual amino acids.
+     *
+     * @return the amino acid properties needed
      */
-    private int[] getIonsFeatures(char[] peptideSequence, String[] fixedModifications, ModificationMatch[] variableModifications, int charge, int ionIndex) {
+    private AminoAcid.Property[][] getAaProperties() {
 
-        // Get the properties needed for peptides, ions, and amino acids
-        AminoAcid.Property[] peptideProperties = getAaProperties(PeptideAminoAcidFeature.class);
-        AminoAcid.Property[] forwardIonProperties = getAaProperties(ForwardIonAminoAcidFeature.class);
-        AminoAcid.Property[] complementaryIonProperties = getAaProperties(ComplementaryIonAminoAcidFeature.class);
-        AminoAcid.Property[] individualAaProperties = getAaProperties(AAPropertyFeatureAbsolute.class,
+        AminoAcid.Property[][] result = aaProperties;
+
+        if (result == null) {
+
+            result = new AminoAcid.Property[][]{
+                getAaProperties(PeptideAminoAcidFeature.class),
+                getAaProperties(ForwardIonAminoAcidFeature.class),
+                getAaProperties(ComplementaryIonAminoAcidFeature.class),
+                getAaProperties(AAPropertyFeatureAbsolute.class,
                 AAPropertyFeatureRelative.class,
                 AAPropertyRelationshipFeature.class
-        );
+                )
+            };
 
-        // Get the properties along the peptide sequence
-        PeptideAttributes peptideAttributes = new PeptideAttributes(peptideSequence, fixedModifications, variableModifications, peptideProperties, forwardIonProperties, complementaryIonProperties, individualAaProperties);
+            aaProperties = result;
 
-        // Prepare an array for the resutls
-        int[] features = new int[featuresMap.getnFeatures()];
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Writes the ms2pip features for the ion at index of the given sequence
+     * with modifications at the given charge in the given array.
+     *
+     * @param peptideSequence the peptide sequence as char array
+     * @param peptideAttributes the attributes of the peptide
+     * @param charge the charge
+     * @param ionIndex the ion index
+     * @param destination the array where to write the features
+     * @param offset the index where to write the first feature
+     */
+    private void fillIonsFeatures(char[] peptideSequence, PeptideAttributes peptideAttributes, int charge, int ionIndex, int[] destination, int offset) {
 
         // Iterate the different features categories
-        int featureIndex = 0;
+        int featureIndex = offset;
 
         for (String category : featuresMap.getSortedFeaturesList()) {
 
@@ -172,12 +444,9 @@ public class FeaturesGenerator {
             for (Ms2pipFeature ms2pipFeature : featuresMap.getFeatures(category)) {
 
                 // Add the feature value to the array
-                features[featureIndex++] = getFeatureValue(ms2pipFeature, peptideSequence, charge, peptideAttributes, ionIndex);
+                destination[featureIndex++] = getFeatureValue(ms2pipFeature, peptideSequence, charge, peptideAttributes, ionIndex);
             }
         }
-
-        return features;
-
     }
 
     /**
@@ -812,15 +1081,17 @@ public class FeaturesGenerator {
 
                     peptideMass += modificationMass;
 
-                    int modificationSite = i == 0 ? 0 : i - 1;
-                    if (modificationSite == peptideSequence.length) {
-                        modificationSite = peptideSequence.length - 1;
+                    int modificationSite = i;
+                    if (modificationSite == 0) {
+                        modificationSite = 1;
+                    } else if (modificationSite == peptideSequence.length + 1) {
+                        modificationSite = peptideSequence.length;
                     }
 
                     modificationsMasses[modificationSite - 1] += modificationMass;
 
                     for (int j = modificationSite - 1; j < peptideSequence.length; j++) {
-                        forwardIonMass[i] += modificationMass;
+                        forwardIonMass[j] += modificationMass;
                     }
                 }
             }
@@ -0,0 +1,272 @@
+package com.compomics.util.experiment.identification.peptide_fragmentation.models.ms2pip.features_generation;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Matrix of the ms2pip features of the ions of multiple peptides stored in a
+ * contiguous array. Every ion index of a peptide has one row, where the
+ * features of the forward ion are followed by the features of the
+ * complementary ion. The rows of a peptide are consecutive and ordered by ion
+ * index.
+ *
+ * The binary representation written by this class consists of big-endian
+ * 32-bit integers: the number of features per ion, the number of peptides, the
+ * index of the first row of every peptide followed by the total number of
+ * rows, and the values of the matrix row by row.
+ *
+ * @author Marc Vaudel
+ */
+public class FeaturesMatrix {
+
+    /**
+     * The number of features per ion.
+     */
+    private final int nFeatures;
+    /**
+     * The index of the first row of every peptide, the last element is the
+     * number of rows.
+     */
+    private final int[] peptideRowStart;
+    /**
+     * The values of the matrix, row by row.
+     */
+    private final int[] values;
+
+    /**
+     * Constructor for an empty matrix.
+     *
+     * @param nFeatures the number of features per ion
+     * @param peptideRowStart the index of the first row of every peptide, the
+     * last element being the number of rows
+     */
+    public FeaturesMatrix(
+            int nFeatures,
+            int[] peptideRowStart
+    ) {
+
+        this(nFeatures, peptideRowStart, new int[peptideRowStart[peptideRowStart.length - 1] * 2 * nFeatures]);
+
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param nFeatures the number of features per ion
+     * @param peptideRowStart the index of the first row of every peptide, the
+     * last element being the number of rows
+     * @param values the values of the matrix, row by row
+     */
+    public FeaturesMatrix(
+            int nFeatures,
+            int[] peptideRowStart,
+            int[] values
+    ) {
+
+        this.nFeatures = nFeatures;
+        this.peptideRowStart = peptideRowStart;
+        this.values = values;
+
+    }
+
+    /**
+     * Returns the number of features per ion.
+     *
+     * @return the number of features per ion
+     */
+    public int getNFeatures() {
+        return nFeatures;
+    }
+
+    /**
+     * Returns the number of columns, i.e. twice the number of features per
+     * ion.
+     *
+     * @return the number of columns
+     */
+    public int getNColumns() {
+        return 2 * nFeatures;
+    }
+
+    /**
+     * Returns the number of rows.
+     *
+     * @return the number of rows
+     */
+    public int getNRows() {
+        return peptideRowStart[peptideRowStart.length - 1];
+    }
+
+    /**
+     * Returns the number of peptides.
+     *
+     * @return the number of peptides
+     */
+    public int getNPeptides() {
+        return peptideRowStart.length - 1;
+    }
+
+    /**
+     * Returns the row of the given ion of the given peptide.
+     *
+     * @param peptideIndex the index of the peptide
+     * @param ionIndex the index of the ion
+     *
+     * @return the row
+     */
+    public int getRow(
+            int peptideIndex,
+            int ionIndex
+    ) {
+
+        int row = peptideRowStart[peptideIndex] + ionIndex;
+
+        if (ionIndex < 0 || row >= peptideRowStart[peptideIndex + 1]) {
+            throw new IllegalArgumentException("Ion index " + ionIndex + " out of bounds for peptide " + peptideIndex + ".");
+        }
+
+        return row;
+
+    }
+
+    /**
+     * Returns the value at the given row and column.
+     *
+     * @param row the row
+     * @param column the column
+     *
+     * @return the value
+     */
+    public int getValue(
+            int row,
+            int column
+    ) {
+        return values[row * getNColumns() + column];
+    }
+
+    /**
+     * Returns the features of the forward ion at the given index of the given
+     * peptide.
+     *
+     * @param peptideIndex the index of the peptide
+     * @param ionIndex the index of the ion
+     *
+     * @return the features of the forward ion
+     */
+    public int[] getForwardIonFeatures(
+            int peptideIndex,
+            int ionIndex
+    ) {
+
+        int offset = getRow(peptideIndex, ionIndex) * getNColumns();
+
+        return Arrays.copyOfRange(values, offset, offset + nFeatures);
+
+    }
+
+    /**
+     * Returns the features of the complementary ion at the given index of the
+     * given peptide.
+     *
+     * @param peptideIndex the index of the peptide
+     * @param ionIndex the index of the ion
+     *
+     * @return the features of the complementary ion
+     */
+    public int[] getComplementaryIonFeatures(
+            int peptideIndex,
+            int ionIndex
+    ) {
+
+        int offset = getRow(peptideIndex, ionIndex) * getNColumns() + nFeatures;
+
+        return Arrays.copyOfRange(values, offset, offset + nFeatures);
+
+    }
+
+    /**
+     * Returns the values of the matrix, row by row. The array is not copied.
+     *
+     * @return the values of the matrix
+     */
+    public int[] getValues() {
+        return values;
+    }
+
+    /**
+     * Writes the matrix to the given file.
+     *
+     * @param destinationFile the file where to write the matrix
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * the file
+     */
+    public void write(
+            File destinationFile
+    ) throws IOException {
+
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(destinationFile)))) {
+
+            outputStream.writeInt(nFeatures);
+            outputStream.writeInt(getNPeptides());
+
+            for (int rowStart : peptideRowStart) {
+
+                outputStream.writeInt(rowStart);
+
+            }
+
+            for (int value : values) {
+
+                outputStream.writeInt(value);
+
+            }
+        }
+    }
+
+    /**
+     * Reads a matrix from a file.
+     *
+     * @param sourceFile the file to read
+     *
+     * @return the matrix
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the file
+     */
+    public static FeaturesMatrix read(
+            File sourceFile
+    ) throws IOException {
+
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(sourceFile)))) {
+
+            int nFeatures = inputStream.readInt();
+            int nPeptides = inputStream.readInt();
+            int[] peptideRowStart = new int[nPeptides + 1];
+
+            for (int i = 0; i <= nPeptides; i++) {
+
+                peptideRowStart[i] = inputStream.readInt();
+
+            }
+
+            int[] values = new int[peptideRowStart[nPeptides] * 2 * nFeatures];
+
+            for (int i = 0; i < values.length; i++) {
+
+                values[i] = inputStream.readInt();
+
+            }
+
+            return new FeaturesMatrix(nFeatures, peptideRowStart, values);
+
+        }
+    }
+}
@@ -7,8 +7,21 @@ import com.compomics.util.experiment.identification.matches.ProteinMatch;
 import com.compomics.util.experiment.identification.matches.SpectrumMatch;
 import com.compomics.util.experiment.identification.utils.ProteinUtils;
 import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
+import com.compomics.util.general.LongHashSet;
 import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.waiting.WaitingHandler;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * This class builds peptides and proteins based on PSMs. Note that the builder
@@ -18,6 +31,11 @@ import java.util.Arrays;
  */
 public class PeptideAndProteinBuilder {
 
+    /**
+     * The number of shards per thread used when building matches in bulk.
+     */
+    public static final int SHARDS_PER_THREAD = 4;
+
     /**
      * Empty default constructor
      */
@@ -64,9 +82,10 @@ public class PeptideAndProteinBuilder {
     ) {
 
         long spectrumMatchKey = spectrumMatch.getKey();
+        int keyVersion = identification.getKeyVersion();
 
         Peptide peptide = spectrumMatch.getBestPeptideAssumption().getPeptide();
-        long peptideMatchKey = peptide.getMatchingKey(sequenceMatchingPreferences);
+        long peptideMatchKey = peptide.getMatchingKey(sequenceMatchingPreferences, keyVersion);
 
 
         PeptideMatch peptideMatch = identification.getPeptideMatch(peptideMatchKey);
@@ -85,18 +104,18 @@ public class PeptideAndProteinBuilder {
 
         if (protein) {
 
-            long proteinMatchKey = ProteinMatch.getProteinMatchKey(peptide);
+            long proteinMatchKey = ProteinMatch.getProteinMatchKey(peptide, keyVersion);
 
             ProteinMatch proteinMatch = identification.getProteinMatch(proteinMatchKey);
 
             if (proteinMatch == null) {
 
-                proteinMatch = new ProteinMatch(peptideMatch.getPeptide(), peptideMatchKey);
+                proteinMatch = new ProteinMatch(peptideMatch.getPeptide(), peptideMatchKey, keyVersion);
                 proteinMatch.setDecoy(Arrays.stream(proteinMatch.getAccessions())
                         .anyMatch(accession -> ProteinUtils.isDecoy(accession, sequenceProvider)));
                 identification.addProteinMatch(proteinMatchKey, proteinMatch);
 
-            } else if (Arrays.stream(proteinMatch.getPeptideMatchesKeys()).allMatch(key -> key != peptideMatchKey)) {
+            } else if (!proteinMatch.containsPeptide(peptideMatchKey)) {
 
                 proteinMatch.addPeptideMatchKey(peptideMatchKey);
 
@@ -104,4 +123,515 @@ public class PeptideAndProteinBuilder {
 
         }
     }
+
+    /**
+     * Creates the peptides and protein instances based on the given spectrum
+     * matches. The spectrum matches are grouped by peptide matching key in
+     * shards that are processed in parallel, the protein matches are then
+     * grouped by protein key in the same way. Matches already in the
+     * identification are completed, new matches are inserted in batches.
+     * Note that only the best peptide assumption is used, spectrum matches
+     * without best peptide assumption are ignored. Note: proteins must be set
+     * for the peptides.
+     *
+     * @param spectrumMatches the spectrum matches to add
+     * @param sequenceMatchingPreferences the sequence matching preferences
+     * @param sequenceProvider a provider of protein sequences
+     * @param protein boolean indicating whether proteins should be built
+     * @param nThreads the number of threads to use
+     * @param waitingHandler a waiting handler allowing displaying progress and
+     * canceling the process, can be null
+     */
+    public void buildPeptidesAndProteins(
+            Collection<SpectrumMatch> spectrumMatches,
+            SequenceMatchingParameters sequenceMatchingPreferences,
+            SequenceProvider sequenceProvider,
+            boolean protein,
+            int nThreads,
+            WaitingHandler waitingHandler
+    ) {
+
+        SpectrumMatch[] matches = spectrumMatches.stream()
+                .filter(spectrumMatch -> spectrumMatch.getBestPeptideAssumption() != null)
+                .toArray(SpectrumMatch[]::new);
+
+        if (matches.length == 0) {
+            return;
+        }
+
+        int nShards = nThreads * SHARDS_PER_THREAD;
+        int keyVersion = identification.getKeyVersion();
+
+        if (waitingHandler != null) {
+
+            waitingHandler.resetSecondaryProgressCounter();
+            waitingHandler.setMaxSecondaryProgressCounter(protein ? 3 * nShards : 2 * nShards);
+
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+
+        try {
+
+            // Compute the peptide keys
+            long[] peptideMatchKeys = new long[matches.length];
+            int sliceSize = (matches.length + nShards - 1) / nShards;
+            ArrayList<Callable<Object>> keyTasks = new ArrayList<>(nShards);
+
+            for (int start = 0; start < matches.length; start += sliceSize) {
+
+                int sliceStart = start;
+                int sliceEnd = Math.min(start + sliceSize, matches.length);
+
+                keyTasks.add(() -> {
+
+                    for (int i = sliceStart; i < sliceEnd; i++) {
+
+                        peptideMatchKeys[i] = matches[i].getBestPeptideAssumption().getPeptide().getMatchingKey(sequenceMatchingPreferences, keyVersion);
+
+                    }
+
+                    increaseProgress(waitingHandler);
+
+                    return null;
+
+                });
+            }
+
+            runTasks(pool, keyTasks, waitingHandler);
+
+            // Group the spectrum matches by peptide shard, keeping the input order
+            int[][] peptideShards = getShards(peptideMatchKeys, nShards);
+
+            // Build the peptide matches
+            ArrayList<Callable<PeptideShard>> peptideTasks = new ArrayList<>(nShards);
+
+            for (int[] shard : peptideShards) {
+
+                peptideTasks.add(() -> buildPeptideMatches(shard, matches, peptideMatchKeys, protein, nShards, waitingHandler));
+
+            }
+
+            ArrayList<PeptideShard> peptideResults = runTasks(pool, peptideTasks, waitingHandler);
+
+            if (waitingHandler != null && waitingHandler.isRunCanceled()) {
+                return;
+            }
+
+            for (PeptideShard peptideShard : peptideResults) {
+
+                if (!peptideShard.newPeptideMatches.isEmpty()) {
+
+                    identification.addPeptideMatches(peptideShard.newPeptideMatches);
+
+                }
+            }
+
+            if (protein) {
+
+                // Build the protein matches
+                ArrayList<Callable<HashMap<Long, Object>>> proteinTasks = new ArrayList<>(nShards);
+
+                for (int i = 0; i < nShards; i++) {
+
+                    int shardIndex = i;
+
+                    proteinTasks.add(() -> buildProteinMatches(shardIndex, peptideResults, sequenceProvider, waitingHandler));
+
+                }
+
+                for (HashMap<Long, Object> newProteinMatches : runTasks(pool, proteinTasks, waitingHandler)) {
+
+                    if (!newProteinMatches.isEmpty()) {
+
+                        identification.addProteinMatches(newProteinMatches);
+
+                    }
+                }
+            }
+
+        } finally {
+
+            pool.shutdown();
+
+        }
+    }
+
+    /**
+     * Groups the indexes of the given keys by shard. The indexes are kept in
+     * increasing order in every shard.
+     *
+     * @param keys the keys
+     * @param nShards the number of shards
+     *
+     * @return the indexes of the keys in every shard
+     */
+    private static int[][] getShards(
+            long[] keys,
+            int nShards
+    ) {
+
+        int[] shardSizes = new int[nShards];
+
+        for (long key : keys) {
+
+            shardSizes[getShard(key, nShards)]++;
+
+        }
+
+        int[][] shards = new int[nShards][];
+
+        for (int i = 0; i < nShards; i++) {
+
+            shards[i] = new int[shardSizes[i]];
+            shardSizes[i] = 0;
+
+        }
+
+        for (int i = 0; i < keys.length; i++) {
+
+            int shard = getShard(keys[i], nShards);
+            shards[shard][shardSizes[shard]++] = i;
+
+        }
+
+        return shards;
+
+    }
+
+    /**
+     * Returns the shard of the given key.
+     *
+     * @param key the key
+     * @param nShards the number of shards
+     *
+     * @return the shard of the given key
+     */
+    private static int getShard(
+            long key,
+            int nShards
+    ) {
+
+        return (int) Long.remainderUnsigned(key * 0x9E3779B97F4A7C15L, nShards);
+
+    }
+
+    /**
+     * Builds the peptide matches of a shard. Peptide matches already in the
+     * identification are completed with the new spectrum match keys, new
+     * peptide matches are returned to be inserted in batch.
+     *
+     * @param shard the indexes of the spectrum matches of the shard
+     * @param matches the spectrum matches
+     * @param peptideMatchKeys the peptide matching keys of the spectrum
+     * matches
+     * @param protein boolean indicating whether proteins should be built
+     * @param nShards the number of shards
+     * @param waitingHandler a waiting handler, can be null
+     *
+     * @return the result of the shard
+     */
+    private PeptideShard buildPeptideMatches(
+            int[] shard,
+            SpectrumMatch[] matches,
+            long[] peptideMatchKeys,
+            boolean protein,
+            int nShards,
+            WaitingHandler waitingHandler
+    ) {
+
+        LinkedHashMap<Long, LongHashSet> spectrumMatchKeysMap = new LinkedHashMap<>();
+        HashMap<Long, Peptide> peptides = new HashMap<>();
+        HashMap<Long, LinkedHashMap<Long, Peptide>> proteinsMap = new HashMap<>();
+
+        for (int index : shard) {
+
+            long peptideMatchKey = peptideMatchKeys[index];
+            Peptide peptide = matches[index].getBestPeptideAssumption().getPeptide();
+            LongHashSet spectrumMatchKeys = spectrumMatchKeysMap.get(peptideMatchKey);
+
+            if (spectrumMatchKeys == null) {
+
+                spectrumMatchKeys = new LongHashSet();
+                spectrumMatchKeysMap.put(peptideMatchKey, spectrumMatchKeys);
+                peptides.put(peptideMatchKey, peptide);
+
+            }
+
+            spectrumMatchKeys.add(matches[index].getKey());
+
+            if (protein) {
+
+                LinkedHashMap<Long, Peptide> proteins = proteinsMap.get(peptideMatchKey);
+
+                if (proteins == null) {
+
+                    proteins = new LinkedHashMap<>(1);
+                    proteinsMap.put(peptideMatchKey, proteins);
+
+                }
+
+                proteins.putIfAbsent(ProteinMatch.getProteinMatchKey(peptide, identification.getKeyVersion()), peptide);
+
+            }
+        }
+
+        PeptideShard result = new PeptideShard(spectrumMatchKeysMap.size(), protein ? nShards : 0);
+
+        for (Entry<Long, LongHashSet> entry : spectrumMatchKeysMap.entrySet()) {
+
+            if (waitingHandler != null && waitingHandler.isRunCanceled()) {
+                return result;
+            }
+
+            long peptideMatchKey = entry.getKey();
+            LongHashSet spectrumMatchKeys = entry.getValue();
+
+            PeptideMatch peptideMatch = identification.contains(peptideMatchKey) ? identification.getPeptideMatch(peptideMatchKey) : null;
+
+            if (peptideMatch == null) {
+
+                peptideMatch = new PeptideMatch(peptides.get(peptideMatchKey), peptideMatchKey, spectrumMatchKeys.get(0));
+                peptideMatch.setSpectrumMatchesKeys(spectrumMatchKeys.toArray());
+                result.newPeptideMatches.put(peptideMatchKey, peptideMatch);
+
+            } else {
+
+                LongHashSet allKeys = new LongHashSet(peptideMatch.getSpectrumMatchesKeys());
+                allKeys.addAll(spectrumMatchKeys.toArray());
+                peptideMatch.setSpectrumMatchesKeys(allKeys.toArray());
+
+            }
+
+            if (protein) {
+
+                for (Entry<Long, Peptide> proteinEntry : proteinsMap.get(peptideMatchKey).entrySet()) {
+
+                    long proteinMatchKey = proteinEntry.getKey();
+                    result.proteinContributions.get(getShard(proteinMatchKey, nShards)).add(new ProteinContribution(proteinMatchKey, peptideMatchKey, proteinEntry.getValue()));
+
+                }
+            }
+        }
+
+        increaseProgress(waitingHandler);
+
+        return result;
+
+    }
+
+    /**
+     * Builds the protein matches of a shard. Protein matches already in the
+     * identification are completed with the new peptide match keys, new
+     * protein matches are returned to be inserted in batch.
+     *
+     * @param shardIndex the index of the shard
+     * @param peptideResults the results of the peptide shards
+     * @param sequenceProvider a provider of protein sequences
+     * @param waitingHandler a waiting handler, can be null
+     *
+     * @return the new protein matches of the shard
+     */
+    private HashMap<Long, Object> buildProteinMatches(
+            int shardIndex,
+            ArrayList<PeptideShard> peptideResults,
+            SequenceProvider sequenceProvider,
+            WaitingHandler waitingHandler
+    ) {
+
+        LinkedHashMap<Long, LongHashSet> peptideMatchKeysMap = new LinkedHashMap<>();
+        HashMap<Long, Peptide> peptides = new HashMap<>();
+
+        for (PeptideShard peptideShard : peptideResults) {
+
+            for (ProteinContribution contribution : peptideShard.proteinContributions.get(shardIndex)) {
+
+                LongHashSet peptideMatchKeys = peptideMatchKeysMap.get(contribution.proteinMatchKey);
+
+                if (peptideMatchKeys == null) {
+
+                    peptideMatchKeys = new LongHashSet();
+                    peptideMatchKeysMap.put(contribution.proteinMatchKey, peptideMatchKeys);
+                    peptides.put(contribution.proteinMatchKey, contribution.peptide);
+
+                }
+
+                peptideMatchKeys.add(contribution.peptideMatchKey);
+
+            }
+        }
+
+        HashMap<Long, Object> newProteinMatches = new HashMap<>(peptideMatchKeysMap.size());
+
+        for (Entry<Long, LongHashSet> entry : peptideMatchKeysMap.entrySet()) {
+
+            if (waitingHandler != null && waitingHandler.isRunCanceled()) {
+                return newProteinMatches;
+            }
+
+            long proteinMatchKey = entry.getKey();
+            LongHashSet peptideMatchKeys = entry.getValue();
+
+            ProteinMatch proteinMatch = identification.contains(proteinMatchKey) ? identification.getProteinMatch(proteinMatchKey) : null;
+
+            if (proteinMatch == null) {
+
+                proteinMatch = new ProteinMatch(peptides.get(proteinMatchKey), peptideMatchKeys.get(0), identification.getKeyVersion());
+                proteinMatch.setPeptideMatchesKeys(peptideMatchKeys.toArray());
+                proteinMatch.setDecoy(Arrays.stream(proteinMatch.getAccessions())
+                        .anyMatch(accession -> ProteinUtils.isDecoy(accession, sequenceProvider)));
+                newProteinMatches.put(proteinMatchKey, proteinMatch);
+
+            } else {
+
+                LongHashSet allKeys = new LongHashSet(proteinMatch.getPeptideMatchesKeys());
+                allKeys.addAll(peptideMatchKeys.toArray());
+                proteinMatch.setPeptideMatchesKeys(allKeys.toArray());
+
+            }
+        }
+
+        increaseProgress(waitingHandler);
+
+        return newProteinMatches;
+
+    }
+
+    /**
+     * Runs the given tasks in the given pool and returns their results in
+     * order. Exceptions thrown by the tasks are thrown as runtime exceptions.
+     *
+     * @param <T> the type of result
+     * @param pool the pool
+     * @param tasks the tasks to run
+     * @param waitingHandler a waiting handler, can be null
+     *
+     * @return the results of the tasks
+     */
+    private static <T> ArrayList<T> runTasks(
+            ExecutorService pool,
+            ArrayList<Callable<T>> tasks,
+            WaitingHandler waitingHandler
+    ) {
+
+        ArrayList<T> results = new ArrayList<>(tasks.size());
+
+        try {
+
+            for (Future<T> future : pool.invokeAll(tasks)) {
+
+                results.add(future.get());
+
+            }
+
+        } catch (InterruptedException e) {
+
+            if (waitingHandler != null) {
+                waitingHandler.setRunCanceled();
+            }
+
+            throw new RuntimeException(e);
+
+        } catch (ExecutionException e) {
+
+            if (waitingHandler != null) {
+                waitingHandler.setRunCanceled();
+            }
+
+            throw new RuntimeException(e.getCause());
+
+        }
+
+        return results;
+
+    }
+
+    /**
+     * Increases the secondary progress counter of the waiting handler if not
+     * null.
+     *
+     * @param waitingHandler the waiting handler, can be null
+     */
+    private static void increaseProgress(
+            WaitingHandler waitingHandler
+    ) {
+
+        if (waitingHandler != null) {
+            waitingHandler.increaseSecondaryProgressCounter();
+        }
+    }
+
+    /**
+     * The result of the processing of a peptide shard.
+     */
+    private static class PeptideShard {
+
+        /**
+         * The new peptide matches indexed by key.
+         */
+        private final HashMap<Long, Object> newPeptideMatches;
+        /**
+         * The contributions to protein matches grouped by protein shard.
+         */
+        private final List<ArrayList<ProteinContribution>> proteinContributions;
+
+        /**
+         * Constructor.
+         *
+         * @param nPeptides the number of peptides in the shard
+         * @param nProteinShards the number of protein shards
+         */
+        private PeptideShard(
+                int nPeptides,
+                int nProteinShards
+        ) {
+
+            newPeptideMatches = new HashMap<>(nPeptides);
+            proteinContributions = new ArrayList<>(nProteinShards);
+
+            for (int i = 0; i < nProteinShards; i++) {
+
+                proteinContributions.add(new ArrayList<>(0));
+
+            }
+        }
+    }
+
+    /**
+     * The contribution of a peptide match to a protein match.
+     */
+    private static class ProteinContribution {
+
+        /**
+         * The key of the protein match.
+         */
+        private final long proteinMatchKey;
+        /**
+         * The key of the peptide match.
+         */
+        private final long peptideMatchKey;
+        /**
+         * The peptide.
+         */
+        private final Peptide peptide;
+
+        /**
+         * Constructor.
+         *
+         * @param proteinMatchKey the key of the protein match
+         * @param peptideMatchKey the key of the peptide match
+         * @param peptide the peptide
+         */
+        private ProteinContribution(
+                long proteinMatchKey,
+                long peptideMatchKey,
+                Peptide peptide
+        ) {
+
+            this.proteinMatchKey = proteinMatchKey;
+            this.peptideMatchKey = peptideMatchKey;
+            this.peptide = peptide;
+
+        }
+    }
 }
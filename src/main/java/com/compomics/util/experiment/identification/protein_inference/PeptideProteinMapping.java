@@ -3,6 +3,7 @@ package com.compomics.util.experiment.identification.protein_inference;
 import com.compomics.util.experiment.biology.proteins.Peptide;
 import com.compomics.util.experiment.identification.matches.ModificationMatch;
 import com.compomics.util.experiment.identification.matches.PeptideVariantMatches;
+import com.compomics.util.experiment.personalization.KeyBuilder;
 import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -271,6 +272,27 @@ public class PeptideProteinMapping {
             SequenceMatchingParameters sequenceMatchingPreferences
     ) {
 
+        return getPeptides(peptideProteinMappings, sequenceMatchingPreferences, KeyBuilder.KEY_VERSION);
+
+    }
+
+    /**
+     * Aggregates the given mapping into a list of peptides. The peptides are
+     * grouped by matching key built according to the given key version, see
+     * Identification.getKeyVersion().
+     *
+     * @param peptideProteinMappings a list of peptides to protein mappings
+     * @param sequenceMatchingPreferences the sequence matching preferences
+     * @param keyVersion the version of the keys, see KeyBuilder
+     *
+     * @return a list of peptides
+     */
+    public static Collection<Peptide> getPeptides(
+            ArrayList<PeptideProteinMapping> peptideProteinMappings,
+            SequenceMatchingParameters sequenceMatchingPreferences,
+            int keyVersion
+    ) {
+
         HashMap<Long, Peptide> peptidesMap = new HashMap<>(peptideProteinMappings.size());
         HashMap<Long, HashMap<String, HashSet<Integer>>> proteinsMap = new HashMap<>(peptideProteinMappings.size());
         HashMap<Long, HashMap<String, HashMap<Integer, PeptideVariantMatches>>> variantsMap = new HashMap<>(peptideProteinMappings.size());
@@ -280,7 +302,7 @@ public class PeptideProteinMapping {
             Peptide tempPeptide = new Peptide(peptideProteinMapping.getPeptideSequence(),
                     peptideProteinMapping.getVariableModifications());
 
-            long peptideKey = tempPeptide.getMatchingKey(sequenceMatchingPreferences);
+            long peptideKey = tempPeptide.getMatchingKey(sequenceMatchingPreferences, keyVersion);
             Peptide peptide = peptidesMap.get(peptideKey);
 
             String proteinAccession = peptideProteinMapping.getProteinAccession();
@@ -19,6 +19,7 @@ import com.compomics.util.experiment.identification.matches.ModificationMatch;
 import com.compomics.util.experiment.identification.matches.PeptideVariantMatches;
 import com.compomics.util.experiment.identification.protein_inference.PeptideProteinMapping;
 import com.compomics.util.experiment.identification.utils.ProteinUtils;
+import com.compomics.util.experiment.io.biology.protein.FastaIndex;
 import com.compomics.util.experiment.io.biology.protein.FastaParameters;
 import com.compomics.util.experiment.io.biology.protein.Header;
 import com.compomics.util.experiment.io.biology.protein.ProteinDatabase;
@@ -1165,31 +1166,47 @@ public class FMIndex extends ExperimentObject implements FastaMapper, SequencePr
 
         }
         if (loadFasta) {
-            // reading all proteins in a first pass to get information about number and total length
             ArrayList<Integer> tmpLengths = new ArrayList<>();
             ArrayList<Integer> tmpProteins = new ArrayList<>();
             long ticker = indexChunkSize;
 
-            int indexStringLength = 1;
-            int numProteins = 0;
-            ProteinIterator pi = new FastaIterator(fastaFile);
-            Protein protein;
-            while ((protein = pi.getNextProtein()) != null) {
-                if (waitingHandler != null && waitingHandler.isRunCanceled()) {
-                    return;
+            // use the offset index of the file if available, e.g. when the file was created by the decoy converter
+            FastaIndex fastaIndex = null;
+            try {
+                fastaIndex = FastaIndex.load(fastaFile);
+            } catch (Exception e) {
+                // ignore and iterate the file
+            }
+
+            ProteinIterator pi;
+            if (fastaIndex != null) {
+                for (int[] chunk : fastaIndex.getChunks(ticker)) {
+                    tmpLengths.add(chunk[0]);
+                    tmpProteins.add(chunk[1]);
                 }
-                int proteinLen = protein.getLength();
-                indexStringLength += proteinLen;
-                ++numProteins;
-                if (indexStringLength > ticker) {
-                    tmpLengths.add(indexStringLength);
-                    tmpProteins.add(numProteins);
-                    indexStringLength = 1;
-                    numProteins = 0;
+            } else {
+                // reading all proteins in a first pass to get information about number and total length
+                int indexStringLength = 1;
+                int numProteins = 0;
+                pi = new FastaIterator(fastaFile);
+                Protein protein;
+                while ((protein = pi.getNextProtein()) != null) {
+                    if (waitingHandler != null && waitingHandler.isRunCanceled()) {
+                        return;
+                    }
+                    int proteinLen = protein.getLength();
+                    indexStringLength += proteinLen;
+                    ++numProteins;
+                    if (indexStringLength > ticker) {
+                        tmpLengths.add(indexStringLength);
+                        tmpProteins.add(numProteins);
+                        indexStringLength = 1;
+                        numProteins = 0;
+                    }
                 }
+                tmpLengths.add(indexStringLength);
+                tmpProteins.add(numProteins);
             }
-            tmpLengths.add(indexStringLength);
-            tmpProteins.add(numProteins);
 
             int maxProgressBar = 11 * tmpLengths.size();
 
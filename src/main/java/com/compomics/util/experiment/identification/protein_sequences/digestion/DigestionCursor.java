@@ -0,0 +1,627 @@
+package com.compomics.util.experiment.identification.protein_sequences.digestion;
+
+import com.compomics.util.experiment.biology.aminoacids.AminoAcid;
+import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidPattern;
+import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidSequence;
+import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.parameters.identification.search.DigestionParameters;
+import java.util.ArrayList;
+
+/**
+ * Cursor over the peptides of protein sequences. Contrary to the sequence
+ * iterators, the cursor exposes the candidate peptides as primitives (protein
+ * index, start, end, mass, and fixed modifications mask), and peptide objects
+ * are only created upon request, typically for the candidates passing the mass
+ * filter of the caller. The buffers of the cursor are reused from one protein
+ * to another. Proteins containing amino acid combinations are rare and are
+ * delegated to the sequence iterators.
+ *
+ * A cursor is not thread safe, one cursor should be used per thread.
+ *
+ * @author Marc Vaudel
+ */
+public class DigestionCursor {
+
+    /**
+     * The utils used to generate the peptides.
+     */
+    private final ProteinIteratorUtils proteinIteratorUtils;
+    /**
+     * The iterator factory used for the proteins containing amino acid
+     * combinations.
+     */
+    private final IteratorFactory iteratorFactory;
+    /**
+     * The digestion parameters.
+     */
+    private final DigestionParameters digestionParameters;
+    /**
+     * The enzymes to use, null if not digesting with enzymes.
+     */
+    private final ArrayList<Enzyme> enzymes;
+    /**
+     * Boolean indicating whether all residues should be considered as
+     * cleavage sites.
+     */
+    private final boolean unspecific;
+    /**
+     * The maximum number of missed cleavages.
+     */
+    private final int nMissedCleavages;
+    /**
+     * Boolean indicating whether peptides with only a specific N-terminus
+     * should be returned.
+     */
+    private final boolean nTermSpecificOnly;
+    /**
+     * Boolean indicating whether peptides with only a specific C-terminus
+     * should be returned.
+     */
+    private final boolean cTermSpecificOnly;
+    /**
+     * The minimal mass to consider.
+     */
+    private final double massMin;
+    /**
+     * The maximal mass to consider.
+     */
+    private final double massMax;
+    /**
+     * The index of the current protein.
+     */
+    private int proteinIndex = -1;
+    /**
+     * The sequence of the current protein.
+     */
+    private String proteinSequence;
+    /**
+     * The sequence of the current protein as char array.
+     */
+    private char[] proteinSequenceAsCharArray = new char[0];
+    /**
+     * The length of the current protein.
+     */
+    private int proteinLength = 0;
+    /**
+     * The sequence iterator used if the current protein contains amino acid
+     * combinations, null otherwise.
+     */
+    private SequenceIterator sequenceIterator;
+    /**
+     * The current peptide obtained from the sequence iterator.
+     */
+    private ExtendedPeptide iteratorPeptide;
+    /**
+     * Boolean array indicating whether the sequence can be cleaved before the
+     * given index.
+     */
+    private boolean[] cleavageSites = new boolean[1];
+    /**
+     * The mass of the residue at the given index.
+     */
+    private double[] residueMasses = new double[0];
+    /**
+     * The fixed modification of the residue at the given index, null if none.
+     */
+    private String[] residueModifications = new String[0];
+    /**
+     * The mass of the fixed modification of the residue at the given index.
+     */
+    private double[] residueModificationMasses = new double[0];
+    /**
+     * The fixed N-terminal modification of a peptide starting at the given
+     * index, null if none.
+     */
+    private String[] nTermModifications = new String[0];
+    /**
+     * The fixed C-terminal modification of a peptide ending at the given
+     * index, exclusive, null if none.
+     */
+    private String[] cTermModifications = new String[1];
+    /**
+     * The start of the current window.
+     */
+    private int start;
+    /**
+     * The end of the current window, exclusive. -1 if a new start needs to be
+     * selected.
+     */
+    private int end;
+    /**
+     * The number of missed cleavages in the current window.
+     */
+    private int missedCleavages;
+    /**
+     * The mass of the current window without water and C-terminal
+     * modification.
+     */
+    private double windowMass;
+    /**
+     * The fixed modifications mask of the current window without C-terminal
+     * modification.
+     */
+    private long windowMask;
+    /**
+     * The start of the current peptide.
+     */
+    private int peptideStart;
+    /**
+     * The end of the current peptide, exclusive.
+     */
+    private int peptideEnd;
+    /**
+     * The mass of the current peptide.
+     */
+    private double peptideMass;
+    /**
+     * The fixed modifications mask of the current peptide.
+     */
+    private long peptideMask;
+
+    /**
+     * Constructor.
+     *
+     * @param proteinIteratorUtils the utils used to generate the peptides
+     * @param digestionParameters the digestion parameters
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide, 0 for no limit
+     */
+    public DigestionCursor(
+            ProteinIteratorUtils proteinIteratorUtils,
+            DigestionParameters digestionParameters,
+            double massMin,
+            double massMax
+    ) {
+
+        this.proteinIteratorUtils = proteinIteratorUtils;
+        this.iteratorFactory = new IteratorFactory(proteinIteratorUtils);
+        this.digestionParameters = digestionParameters;
+        this.massMin = massMin;
+        this.massMax = massMax;
+
+        DigestionParameters.CleavageParameter cleavageParameter = digestionParameters.getCleavageParameter();
+
+        if (cleavageParameter == null) {
+
+            throw new IllegalArgumentException("Cleavage preference not set.");
+
+        }
+
+        switch (cleavageParameter) {
+
+            case enzyme:
+
+                enzymes = digestionParameters.getEnzymes();
+
+                if (enzymes == null || enzymes.isEmpty()) {
+
+                    throw new IllegalArgumentException("No enzyme set for the digestion.");
+
+                }
+
+                unspecific = false;
+
+                // peptides are returned if the termini are specific for any of the enzymes
+                int tempMissedCleavages = 0;
+                boolean tempNTermSpecificOnly = false;
+                boolean tempCTermSpecificOnly = false;
+
+                for (Enzyme enzyme : enzymes) {
+
+                    Integer enzymeMissedCleavages = digestionParameters.getnMissedCleavages(enzyme.getName());
+
+                    if (enzymeMissedCleavages != null && enzymeMissedCleavages > tempMissedCleavages) {
+                        tempMissedCleavages = enzymeMissedCleavages;
+                    }
+
+                    DigestionParameters.Specificity specificity = digestionParameters.getSpecificity(enzyme.getName());
+
+                    if (specificity == DigestionParameters.Specificity.semiSpecific) {
+                        tempNTermSpecificOnly = true;
+                        tempCTermSpecificOnly = true;
+                    } else if (specificity == DigestionParameters.Specificity.specificNTermOnly) {
+                        tempNTermSpecificOnly = true;
+                    } else if (specificity == DigestionParameters.Specificity.specificCTermOnly) {
+                        tempCTermSpecificOnly = true;
+                    }
+                }
+
+                nMissedCleavages = tempMissedCleavages;
+                nTermSpecificOnly = tempNTermSpecificOnly;
+                cTermSpecificOnly = tempCTermSpecificOnly;
+                break;
+
+            case unSpecific:
+
+                enzymes = null;
+                unspecific = true;
+                nMissedCleavages = Integer.MAX_VALUE;
+                nTermSpecificOnly = false;
+                cTermSpecificOnly = false;
+                break;
+
+            case wholeProtein:
+
+                enzymes = null;
+                unspecific = false;
+                nMissedCleavages = 0;
+                nTermSpecificOnly = false;
+                cTermSpecificOnly = false;
+                break;
+
+            default:
+
+                throw new IllegalArgumentException("Cleavage preference of type " + cleavageParameter + " not supported.");
+
+        }
+    }
+
+    /**
+     * Sets the protein to iterate and places the cursor before its first
+     * peptide.
+     *
+     * @param proteinIndex the index of the protein, only used as a reference
+     * for the caller
+     * @param proteinSequence the sequence of the protein
+     *
+     * @throws java.lang.InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public void setProtein(int proteinIndex, String proteinSequence) throws InterruptedException {
+
+        this.proteinIndex = proteinIndex;
+        this.proteinSequence = proteinSequence;
+        proteinLength = proteinSequence.length();
+        start = 0;
+        end = -1;
+
+        if (AminoAcidSequence.hasCombination(proteinSequence)) {
+
+            // the sequence iterators do not treat 0 as no limit
+            sequenceIterator = iteratorFactory.getSequenceIterator(proteinSequence, digestionParameters, massMin, massMax == 0.0 ? Double.MAX_VALUE : massMax);
+            return;
+
+        }
+
+        sequenceIterator = null;
+        iteratorPeptide = null;
+
+        if (proteinSequenceAsCharArray.length < proteinLength) {
+
+            int capacity = Math.max(proteinLength, 2 * proteinSequenceAsCharArray.length);
+
+            proteinSequenceAsCharArray = new char[capacity];
+            cleavageSites = new boolean[capacity + 1];
+            residueMasses = new double[capacity];
+            residueModifications = new String[capacity];
+            residueModificationMasses = new double[capacity];
+            nTermModifications = new String[capacity];
+            cTermModifications = new String[capacity + 1];
+
+        }
+
+        proteinSequence.getChars(0, proteinLength, proteinSequenceAsCharArray, 0);
+
+        for (int i = 0; i < proteinLength; i++) {
+
+            char aa = proteinSequenceAsCharArray[i];
+            residueMasses[i] = AminoAcid.getAminoAcid(aa).getMonoisotopicMass();
+
+            String modification = proteinIteratorUtils.getFixedModificationAtAa(aa);
+
+            if (modification != null) {
+
+                AminoAcidPattern aminoAcidPattern = proteinIteratorUtils.getModificationPattern(modification);
+
+                if (aminoAcidPattern != null && !aminoAcidPattern.matchesAt(proteinSequence, SequenceMatchingParameters.DEFAULT_STRING_MATCHING, i)) {
+
+                    modification = null;
+
+                }
+            }
+
+            residueModifications[i] = modification;
+            residueModificationMasses[i] = modification == null ? 0.0 : proteinIteratorUtils.getModificationMass(modification);
+            nTermModifications[i] = proteinIteratorUtils.getNtermModification(i == 0, aa, proteinSequence);
+            cTermModifications[i + 1] = proteinIteratorUtils.getCtermModification(aa, proteinSequence, i + 1);
+
+        }
+
+        cleavageSites[0] = true;
+        cleavageSites[proteinLength] = true;
+
+        for (int i = 1; i < proteinLength; i++) {
+
+            cleavageSites[i] = unspecific || enzymes != null && isCleavageSite(proteinSequenceAsCharArray[i - 1], proteinSequenceAsCharArray[i]);
+
+        }
+    }
+
+    /**
+     * Indicates whether the protein can be cleaved between the given amino
+     * acids by any of the enzymes.
+     *
+     * @param aaBefore the amino acid before the cleavage site
+     * @param aaAfter the amino acid after the cleavage site
+     *
+     * @return a boolean indicating whether the protein can be cleaved
+     */
+    private boolean isCleavageSite(char aaBefore, char aaAfter) {
+
+        for (Enzyme enzyme : enzymes) {
+
+            if (enzyme.isCleavageSiteNoCombination(aaBefore, aaAfter)) {
+
+                return true;
+
+            }
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Moves the cursor to the next peptide passing the mass filters.
+     *
+     * @return a boolean indicating whether a peptide was found, false if the
+     * end of the protein was reached
+     *
+     * @throws java.lang.InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public boolean next() throws InterruptedException {
+
+        if (sequenceIterator != null) {
+
+            iteratorPeptide = sequenceIterator.getNextPeptide();
+
+            if (iteratorPeptide == null) {
+                return false;
+            }
+
+            peptideStart = iteratorPeptide.position;
+            peptideEnd = peptideStart + iteratorPeptide.peptide.getSequence().length();
+            peptideMass = iteratorPeptide.peptide.getMass();
+            peptideMask = getMask(iteratorPeptide.fixedModifications);
+
+            return true;
+
+        }
+
+        while (nextWindow()) {
+
+            double mass = windowMass;
+            long mask = windowMask;
+            String cTermModification = cTermModifications[end];
+
+            if (cTermModification != null) {
+
+                mass += proteinIteratorUtils.getModificationMass(cTermModification);
+
+                int bit = end - start + 1;
+
+                if (bit < Long.SIZE) {
+                    mask |= 1L << bit;
+                }
+            }
+
+            mass += ProteinIteratorUtils.WATER_MASS;
+
+            if ((massMax == 0.0 || mass <= massMax) && mass >= massMin) {
+
+                peptideStart = start;
+                peptideEnd = end;
+                peptideMass = mass;
+                peptideMask = mask;
+
+                return true;
+
+            }
+        }
+
+        return false;
+
+    }
+
+    /**
+     * Moves the window to the next pair of start and end matching the
+     * digestion preferences.
+     *
+     * @return a boolean indicating whether a window was found, false if the
+     * end of the protein was reached
+     */
+    private boolean nextWindow() {
+
+        while (true) {
+
+            if (end == -1) {
+
+                if (start >= proteinLength) {
+                    return false;
+                }
+
+                if (!cleavageSites[start] && !cTermSpecificOnly) {
+
+                    start++;
+                    continue;
+
+                }
+
+                end = start;
+                missedCleavages = 0;
+
+                String nTermModification = nTermModifications[start];
+                windowMass = proteinIteratorUtils.getModificationMass(nTermModification);
+                windowMask = nTermModification == null ? 0L : 1L;
+
+            }
+
+            end++;
+
+            if (end > proteinLength) {
+
+                nextStart();
+                continue;
+
+            }
+
+            int residue = end - 1;
+
+            if (residue > start && cleavageSites[residue] && ++missedCleavages > nMissedCleavages) {
+
+                nextStart();
+                continue;
+
+            }
+
+            windowMass += residueMasses[residue];
+
+            if (massMax != 0.0 && windowMass + proteinIteratorUtils.getMinCtermMass() > massMax) {
+
+                nextStart();
+                continue;
+
+            }
+
+            if (residueModifications[residue] != null) {
+
+                windowMass += residueModificationMasses[residue];
+
+                int bit = end - start;
+
+                if (bit < Long.SIZE) {
+                    windowMask |= 1L << bit;
+                }
+            }
+
+            boolean nTermSpecific = cleavageSites[start];
+            boolean cTermSpecific = cleavageSites[end];
+
+            if (nTermSpecific && cTermSpecific
+                    || nTermSpecific && nTermSpecificOnly
+                    || cTermSpecific && cTermSpecificOnly) {
+
+                return true;
+
+            }
+        }
+    }
+
+    /**
+     * Moves the window to the next start position.
+     */
+    private void nextStart() {
+
+        start++;
+        end = -1;
+
+    }
+
+    /**
+     * Returns the fixed modifications mask corresponding to the given fixed
+     * modifications.
+     *
+     * @param fixedModifications the fixed modifications indexed as in the
+     * extended peptide
+     *
+     * @return the fixed modifications mask
+     */
+    private static long getMask(String[] fixedModifications) {
+
+        long mask = 0L;
+
+        for (int i = 0; i < fixedModifications.length && i < Long.SIZE; i++) {
+
+            if (fixedModifications[i] != null) {
+                mask |= 1L << i;
+            }
+        }
+
+        return mask;
+
+    }
+
+    /**
+     * Returns the index of the current protein as set by the caller.
+     *
+     * @return the index of the current protein
+     */
+    public int getProteinIndex() {
+        return proteinIndex;
+    }
+
+    /**
+     * Returns the start of the current peptide on the protein, 0 is the first
+     * amino acid.
+     *
+     * @return the start of the current peptide on the protein
+     */
+    public int getStart() {
+        return peptideStart;
+    }
+
+    /**
+     * Returns the end of the current peptide on the protein, exclusive.
+     *
+     * @return the end of the current peptide on the protein
+     */
+    public int getEnd() {
+        return peptideEnd;
+    }
+
+    /**
+     * Returns the mass of the current peptide including fixed modifications.
+     *
+     * @return the mass of the current peptide
+     */
+    public double getMass() {
+        return peptideMass;
+    }
+
+    /**
+     * Returns the fixed modifications of the current peptide as a bit mask
+     * indexed as in the extended peptide: bit 0 is the N-terminus, bit i the
+     * i<sup>th</sup> residue, and bit length + 1 the C-terminus. Sites beyond
+     * the 63<sup>rd</sup> bit are not represented, the fixed modifications of
+     * long peptides need to be retrieved from the peptide.
+     *
+     * @return the fixed modifications of the current peptide as a bit mask
+     */
+    public long getFixedModificationsMask() {
+        return peptideMask;
+    }
+
+    /**
+     * Returns the current peptide with its position on the protein and fixed
+     * modifications. A new object is created at every call.
+     *
+     * @return the current peptide
+     */
+    public ExtendedPeptide getPeptide() {
+
+        if (sequenceIterator != null) {
+            return iteratorPeptide;
+        }
+
+        int length = peptideEnd - peptideStart;
+
+        String[] fixedModifications = new String[length + 2];
+        fixedModifications[0] = nTermModifications[peptideStart];
+        fixedModifications[length + 1] = cTermModifications[peptideEnd];
+
+        for (int i = 0; i < length; i++) {
+
+            fixedModifications[i + 1] = residueModifications[peptideStart + i];
+
+        }
+
+        String sequence = proteinSequence.substring(peptideStart, peptideEnd);
+        Peptide peptide = new Peptide(sequence, null, false, peptideMass);
+
+        return new ExtendedPeptide(peptide, peptideStart, fixedModifications);
+
+    }
+}
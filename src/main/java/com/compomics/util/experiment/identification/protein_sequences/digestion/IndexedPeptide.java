@@ -0,0 +1,90 @@
+package com.compomics.util.experiment.identification.protein_sequences.digestion;
+
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import java.util.TreeMap;
+
+/**
+ * A peptide as stored in the peptide mass index: the sequence, the mass
+ * including fixed modifications, the fixed modifications, and the proteins
+ * where the peptide was found.
+ *
+ * @author Marc Vaudel
+ */
+public class IndexedPeptide {
+
+    /**
+     * The peptide sequence.
+     */
+    public final String sequence;
+    /**
+     * The mass of the peptide including fixed modifications.
+     */
+    public final double mass;
+    /**
+     * The fixed modifications of the peptide, indexed as in the
+     * ExtendedPeptide.
+     */
+    public final String[] fixedModifications;
+    /**
+     * The accessions of the proteins where the peptide was found.
+     */
+    public final String[] accessions;
+    /**
+     * The positions of the peptide on the proteins.
+     */
+    public final int[] positions;
+
+    /**
+     * Constructor.
+     *
+     * @param sequence the peptide sequence
+     * @param mass the mass of the peptide including fixed modifications
+     * @param fixedModifications the fixed modifications of the peptide
+     * @param accessions the accessions of the proteins where the peptide was
+     * found
+     * @param positions the positions of the peptide on the proteins
+     */
+    public IndexedPeptide(String sequence, double mass, String[] fixedModifications, String[] accessions, int[] positions) {
+        this.sequence = sequence;
+        this.mass = mass;
+        this.fixedModifications = fixedModifications;
+        this.accessions = accessions;
+        this.positions = positions;
+    }
+
+    /**
+     * Returns a new peptide object for this indexed peptide with its mass and
+     * protein mapping set.
+     *
+     * @return a new peptide object for this indexed peptide
+     */
+    public Peptide getPeptide() {
+
+        Peptide peptide = new Peptide(sequence, null, false, mass);
+
+        TreeMap<String, int[]> proteinMapping = new TreeMap<>();
+
+        for (int i = 0; i < accessions.length; i++) {
+
+            int[] previousPositions = proteinMapping.get(accessions[i]);
+
+            if (previousPositions == null) {
+
+                proteinMapping.put(accessions[i], new int[]{positions[i]});
+
+            } else {
+
+                int[] newPositions = new int[previousPositions.length + 1];
+                System.arraycopy(previousPositions, 0, newPositions, 0, previousPositions.length);
+                newPositions[previousPositions.length] = positions[i];
+                proteinMapping.put(accessions[i], newPositions);
+
+            }
+        }
+
+        peptide.setProteinMapping(proteinMapping);
+
+        return peptide;
+
+    }
+}
@@ -2,9 +2,11 @@ package com.compomics.util.experiment.identification.protein_sequences.digestion
 
 import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidSequence;
 import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.MultipleEnzymesIterator;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.SpecificSingleEnzymeIterator;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.NoDigestionIterator;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.NoDigestionCombinationIterator;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.SemiSpecificIterator;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.SpecificSingleEnzymeCombinationIterator;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.UnspecificCombinationIterator;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.UnspecificIterator;
@@ -42,6 +44,15 @@ public class IteratorFactory {
         this.proteinIteratorUtils = new ProteinIteratorUtils(fixedModifications, maxX);
     }
 
+    /**
+     * Constructor.
+     *
+     * @param proteinIteratorUtils the utils used to generate the peptides
+     */
+    public IteratorFactory(ProteinIteratorUtils proteinIteratorUtils) {
+        this.proteinIteratorUtils = proteinIteratorUtils;
+    }
+
     /**
      * Constructor with 2 Xs allowed.
      *
@@ -54,7 +65,10 @@ public class IteratorFactory {
 
     /**
      * Returns a sequence iterator for the given protein sequence and digestion
-     * preferences.
+     * preferences. With multiple enzymes, the settings are merged: the
+     * cleavage sites of all enzymes are used, the largest number of missed
+     * cleavages applies to all enzymes, and a terminus does not need to be specific
+     * if this is allowed for any of the enzymes.
      *
      * @param sequence the sequence to iterate
      * @param digestionPreferences the digestion preferences to use
@@ -80,16 +94,50 @@ public class IteratorFactory {
                 
                 case enzyme:
                     ArrayList<Enzyme> enzymes = digestionPreferences.getEnzymes();
-                    if (enzymes.size() == 1) { // @TODO: support multiple enzymes
+                    if (enzymes == null || enzymes.isEmpty()) {
+                        break;
+                    }
+
+                    // the settings of the enzymes are merged, peptides are returned if the termini are specific for any of the enzymes
+                    int nMissedCleavages = 0;
+                    boolean nTermSpecificOnly = false;
+                    boolean cTermSpecificOnly = false;
+
+                    for (Enzyme enzyme : enzymes) {
+
+                        Integer enzymeMissedCleavages = digestionPreferences.getnMissedCleavages(enzyme.getName());
+
+                        if (enzymeMissedCleavages != null && enzymeMissedCleavages > nMissedCleavages) {
+                            nMissedCleavages = enzymeMissedCleavages;
+                        }
 
-                        Enzyme enzyme = enzymes.get(0);
-                        int nMissedCleavages = digestionPreferences.getnMissedCleavages(enzyme.getName());
+                        DigestionParameters.Specificity specificity = digestionPreferences.getSpecificity(enzyme.getName());
 
-                        return AminoAcidSequence.hasCombination(sequence)
-                                ? new SpecificSingleEnzymeCombinationIterator(proteinIteratorUtils, sequence, enzyme, nMissedCleavages, massMin, massMax)
-                                : new SpecificSingleEnzymeIterator(proteinIteratorUtils, sequence, enzyme, nMissedCleavages, massMin, massMax);
+                        if (specificity == DigestionParameters.Specificity.semiSpecific) {
+                            nTermSpecificOnly = true;
+                            cTermSpecificOnly = true;
+                        } else if (specificity == DigestionParameters.Specificity.specificNTermOnly) {
+                            nTermSpecificOnly = true;
+                        } else if (specificity == DigestionParameters.Specificity.specificCTermOnly) {
+                            cTermSpecificOnly = true;
+                        }
                     }
-                    break;
+
+                    if (nTermSpecificOnly || cTermSpecificOnly) {
+
+                        return new SemiSpecificIterator(proteinIteratorUtils, sequence, enzymes, nMissedCleavages, nTermSpecificOnly, cTermSpecificOnly, massMin, massMax);
+
+                    } else if (enzymes.size() > 1) {
+
+                        return new MultipleEnzymesIterator(proteinIteratorUtils, sequence, enzymes, nMissedCleavages, massMin, massMax);
+
+                    }
+
+                    Enzyme enzyme = enzymes.get(0);
+
+                    return AminoAcidSequence.hasCombination(sequence)
+                            ? new SpecificSingleEnzymeCombinationIterator(proteinIteratorUtils, sequence, enzyme, nMissedCleavages, massMin, massMax)
+                            : new SpecificSingleEnzymeIterator(proteinIteratorUtils, sequence, enzyme, nMissedCleavages, massMin, massMax);
                 
                 case unSpecific:
                     return AminoAcidSequence.hasCombination(sequence)
@@ -0,0 +1,1061 @@
+package com.compomics.util.experiment.identification.protein_sequences.digestion;
+
+import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.biology.proteins.Protein;
+import com.compomics.util.experiment.io.biology.protein.iterators.FastaIterator;
+import com.compomics.util.io.IoUtil;
+import com.compomics.util.parameters.identification.search.DigestionParameters;
+import com.compomics.util.waiting.WaitingHandler;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.PriorityQueue;
+import java.util.stream.Collectors;
+import org.apache.commons.io.output.CountingOutputStream;
+
+/**
+ * On-disk index of the peptides of a FASTA file sorted by mass. The index is
+ * built once per FASTA file, digestion parameters and fixed modifications.
+ * Peptides are deduplicated and stored with the proteins where they were
+ * found. The masses are kept in memory, the peptides are read from the file
+ * on demand, making candidate lookup a range scan.
+ *
+ * While building the index, at most a given number of distinct peptides is
+ * kept in memory. When this number is reached, the peptides are sorted and
+ * written to a temporary run file, and the runs are merged when writing the
+ * index. Besides these peptides, the memory used while building is bounded by
+ * the masses and offsets of all peptides, 16 bytes per peptide, which are
+ * kept in memory by the index anyway.
+ *
+ * @author Marc Vaudel
+ */
+public class PeptideMassIndex implements Closeable {
+
+    /**
+     * The version of the index file format.
+     */
+    public static final String VERSION = "PeptideMassIndex_1.0";
+    /**
+     * The extension of the index files.
+     */
+    public static final String EXTENSION = ".pmi";
+    /**
+     * The default maximal number of distinct peptides kept in memory while
+     * building the index.
+     */
+    public static final int DEFAULT_MAX_PEPTIDES_IN_MEMORY = 500000;
+    /**
+     * Comparator sorting peptide entries by mass and key.
+     */
+    private static final Comparator<PeptideEntry> ENTRY_COMPARATOR = Comparator
+            .comparingDouble((PeptideEntry entry) -> entry.mass)
+            .thenComparing(entry -> entry.key);
+    /**
+     * The accessions of the proteins.
+     */
+    private final String[] accessions;
+    /**
+     * The masses of the peptides in ascending order.
+     */
+    private final double[] masses;
+    /**
+     * The offsets of the peptide records in the file, the last offset is the
+     * end of the records.
+     */
+    private final long[] offsets;
+    /**
+     * The index file.
+     */
+    private final RandomAccessFile raf;
+    /**
+     * The channel used to read the records.
+     */
+    private final FileChannel channel;
+
+    /**
+     * Constructor.
+     *
+     * @param indexFile the index file
+     * @param accessions the accessions of the proteins
+     * @param masses the masses of the peptides in ascending order
+     * @param offsets the offsets of the peptide records in the file
+     *
+     * @throws IOException exception thrown if an error occurred while opening
+     * the file
+     */
+    private PeptideMassIndex(File indexFile, String[] accessions, double[] masses, long[] offsets) throws IOException {
+
+        this.accessions = accessions;
+        this.masses = masses;
+        this.offsets = offsets;
+        this.raf = new RandomAccessFile(indexFile, "r");
+        this.channel = raf.getChannel();
+
+    }
+
+    /**
+     * Returns the peptide mass index for the given FASTA file and parameters.
+     * The index is loaded from the file next to the FASTA file if available
+     * and valid, built and saved otherwise.
+     *
+     * @param fastaFile the FASTA file
+     * @param digestionParameters the digestion parameters
+     * @param fixedModifications the fixed modifications
+     * @param maxX the maximal number of Xs allowed in a sequence, can be null
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide
+     * @param waitingHandler a waiting handler to allow canceling the
+     * process, can be null
+     *
+     * @return the peptide mass index, null if the process was canceled
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public static PeptideMassIndex getIndex(
+            File fastaFile,
+            DigestionParameters digestionParameters,
+            ArrayList<String> fixedModifications,
+            Integer maxX,
+            double massMin,
+            double massMax,
+            WaitingHandler waitingHandler
+    ) throws IOException, InterruptedException {
+
+        return getIndex(fastaFile, digestionParameters, fixedModifications, maxX, massMin, massMax, DEFAULT_MAX_PEPTIDES_IN_MEMORY, waitingHandler);
+
+    }
+
+    /**
+     * Returns the peptide mass index for the given FASTA file and parameters.
+     * The index is loaded from the file next to the FASTA file if available
+     * and valid, built and saved otherwise.
+     *
+     * @param fastaFile the FASTA file
+     * @param digestionParameters the digestion parameters
+     * @param fixedModifications the fixed modifications
+     * @param maxX the maximal number of Xs allowed in a sequence, can be null
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide
+     * @param maxPeptidesInMemory the maximal number of distinct peptides kept
+     * in memory while building the index, more peptides are sorted on disk
+     * @param waitingHandler a waiting handler to allow canceling the
+     * process, can be null
+     *
+     * @return the peptide mass index, null if the process was canceled
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public static PeptideMassIndex getIndex(
+            File fastaFile,
+            DigestionParameters digestionParameters,
+            ArrayList<String> fixedModifications,
+            Integer maxX,
+            double massMin,
+            double massMax,
+            int maxPeptidesInMemory,
+            WaitingHandler waitingHandler
+    ) throws IOException, InterruptedException {
+
+        if (maxPeptidesInMemory < 1) {
+            throw new IllegalArgumentException("The maximal number of peptides in memory must be positive.");
+        }
+
+        String parametersKey = getParametersKey(digestionParameters, fixedModifications, maxX, massMin, massMax);
+        File indexFile = getIndexFile(fastaFile, parametersKey);
+
+        if (indexFile.exists()) {
+
+            try {
+
+                PeptideMassIndex peptideMassIndex = load(indexFile, fastaFile, parametersKey);
+
+                if (peptideMassIndex != null) {
+                    return peptideMassIndex;
+                }
+
+            } catch (Exception e) {
+                // ignore and overwrite corrupted file
+            }
+        }
+
+        if (!build(fastaFile, indexFile, parametersKey, digestionParameters, fixedModifications, maxX, massMin, massMax, maxPeptidesInMemory, waitingHandler)) {
+            return null;
+        }
+
+        return load(indexFile, fastaFile, parametersKey);
+
+    }
+
+    /**
+     * Digests the proteins of the FASTA file and writes the index. When the
+     * number of distinct peptides in memory reaches the given maximum, they
+     * are sorted and written to a temporary run file next to the index file.
+     *
+     * @param fastaFile the FASTA file
+     * @param indexFile the index file
+     * @param parametersKey the key of the parameters
+     * @param digestionParameters the digestion parameters
+     * @param fixedModifications the fixed modifications
+     * @param maxX the maximal number of Xs allowed in a sequence, can be null
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide
+     * @param maxPeptidesInMemory the maximal number of distinct peptides kept
+     * in memory
+     * @param waitingHandler a waiting handler to allow canceling the
+     * process, can be null
+     *
+     * @return a boolean indicating whether the index was written
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    private static boolean build(
+            File fastaFile,
+            File indexFile,
+            String parametersKey,
+            DigestionParameters digestionParameters,
+            ArrayList<String> fixedModifications,
+            Integer maxX,
+            double massMin,
+            double massMax,
+            int maxPeptidesInMemory,
+            WaitingHandler waitingHandler
+    ) throws IOException, InterruptedException {
+
+        IteratorFactory iteratorFactory = new IteratorFactory(fixedModifications, maxX);
+        FastaIterator fastaIterator = new FastaIterator(fastaFile);
+
+        ArrayList<String> accessions = new ArrayList<>();
+        HashMap<String, PeptideEntry> peptides = new HashMap<>();
+        ArrayList<SortedRun> runs = new ArrayList<>();
+
+        try {
+
+            Protein protein;
+            while ((protein = fastaIterator.getNextProtein()) != null) {
+
+                int accessionIndex = accessions.size();
+                accessions.add(protein.getAccession());
+
+                SequenceIterator sequenceIterator = iteratorFactory.getSequenceIterator(protein.getSequence(), digestionParameters, massMin, massMax);
+                ExtendedPeptide extendedPeptide;
+
+                while ((extendedPeptide = sequenceIterator.getNextPeptide()) != null) {
+
+                    String sequence = extendedPeptide.peptide.getSequence();
+                    String key = getPeptideKey(sequence, extendedPeptide.fixedModifications);
+
+                    PeptideEntry peptideEntry = peptides.get(key);
+
+                    if (peptideEntry == null) {
+
+                        peptideEntry = new PeptideEntry(key, sequence, extendedPeptide.peptide.getMass(), extendedPeptide.fixedModifications);
+                        peptides.put(key, peptideEntry);
+
+                    }
+
+                    peptideEntry.addProtein(accessionIndex, extendedPeptide.position);
+
+                }
+
+                if (peptides.size() >= maxPeptidesInMemory) {
+
+                    runs.add(SortedRun.writeRun(getSortedEntries(peptides), indexFile.getParentFile(), runs.size()));
+                    peptides.clear();
+
+                }
+
+                if (waitingHandler != null) {
+
+                    if (waitingHandler.isRunCanceled()) {
+                        return false;
+                    }
+
+                    waitingHandler.setSecondaryProgressCounter((int) fastaIterator.getProgressInPercent());
+
+                }
+            }
+
+            runs.add(new SortedRun(getSortedEntries(peptides), runs.size()));
+            peptides.clear();
+
+            write(indexFile, fastaFile, parametersKey, accessions, runs);
+
+        } finally {
+
+            fastaIterator.close();
+
+            for (SortedRun run : runs) {
+                run.close();
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Returns the given peptides sorted by mass and key.
+     *
+     * @param peptides the peptides indexed by key
+     *
+     * @return the sorted peptides
+     */
+    private static PeptideEntry[] getSortedEntries(HashMap<String, PeptideEntry> peptides) {
+
+        PeptideEntry[] entries = peptides.values().toArray(new PeptideEntry[peptides.size()]);
+        Arrays.parallelSort(entries, ENTRY_COMPARATOR);
+
+        return entries;
+
+    }
+
+    /**
+     * Merges the given sorted runs and writes the index file. Peptides found
+     * in multiple runs are merged into a single record.
+     *
+     * @param indexFile the index file
+     * @param fastaFile the FASTA file
+     * @param parametersKey the key of the parameters
+     * @param accessions the accessions of the proteins
+     * @param runs the sorted runs, in the order of the proteins
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    private static void write(
+            File indexFile,
+            File fastaFile,
+            String parametersKey,
+            ArrayList<String> accessions,
+            ArrayList<SortedRun> runs
+    ) throws IOException {
+
+        PriorityQueue<SortedRun> queue = new PriorityQueue<>(
+                Math.max(runs.size(), 1),
+                Comparator.comparing((SortedRun run) -> run.current, ENTRY_COMPARATOR)
+                        .thenComparingInt(run -> run.order)
+        );
+
+        for (SortedRun run : runs) {
+
+            if (run.advance()) {
+                queue.add(run);
+            }
+        }
+
+        double[] masses = new double[1024];
+        long[] offsets = new long[1025];
+        int nPeptides = 0;
+
+        try (CountingOutputStream cos = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+                DataOutputStream dos = new DataOutputStream(cos)) {
+
+            dos.writeUTF(VERSION);
+            dos.writeLong(fastaFile.length());
+            dos.writeLong(fastaFile.lastModified());
+            dos.writeUTF(parametersKey);
+
+            dos.writeInt(accessions.size());
+
+            for (String accession : accessions) {
+                dos.writeUTF(accession);
+            }
+
+            PeptideEntry merged = null;
+
+            while (!queue.isEmpty()) {
+
+                SortedRun run = queue.poll();
+                PeptideEntry entry = run.current;
+
+                if (merged != null && merged.key.equals(entry.key)) {
+
+                    merged.addProteins(entry);
+
+                } else {
+
+                    if (merged != null) {
+
+                        if (nPeptides == masses.length) {
+
+                            masses = Arrays.copyOf(masses, 2 * nPeptides);
+                            offsets = Arrays.copyOf(offsets, 2 * nPeptides + 1);
+
+                        }
+
+                        dos.flush();
+                        offsets[nPeptides] = cos.getByteCount();
+                        masses[nPeptides++] = merged.mass;
+
+                        merged.write(dos);
+
+                    }
+
+                    merged = entry;
+
+                }
+
+                if (run.advance()) {
+                    queue.add(run);
+                }
+            }
+
+            if (merged != null) {
+
+                if (nPeptides == masses.length) {
+
+                    masses = Arrays.copyOf(masses, nPeptides + 1);
+                    offsets = Arrays.copyOf(offsets, nPeptides + 2);
+
+                }
+
+                dos.flush();
+                offsets[nPeptides] = cos.getByteCount();
+                masses[nPeptides++] = merged.mass;
+
+                merged.write(dos);
+
+            }
+
+            dos.flush();
+            long tableOffset = cos.getByteCount();
+            offsets[nPeptides] = tableOffset;
+
+            dos.writeInt(nPeptides);
+
+            for (int i = 0; i < nPeptides; i++) {
+                dos.writeDouble(masses[i]);
+            }
+
+            for (int i = 0; i <= nPeptides; i++) {
+                dos.writeLong(offsets[i]);
+            }
+
+            dos.writeLong(tableOffset);
+
+        }
+    }
+
+    /**
+     * Loads the index from the given file. Returns null if the index is not
+     * valid for the given FASTA file and parameters.
+     *
+     * @param indexFile the index file
+     * @param fastaFile the FASTA file
+     * @param parametersKey the key of the parameters
+     *
+     * @return the index
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the file
+     */
+    private static PeptideMassIndex load(File indexFile, File fastaFile, String parametersKey) throws IOException {
+
+        String[] accessions;
+        long tableOffset;
+
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+
+            if (!VERSION.equals(dis.readUTF())
+                    || dis.readLong() != fastaFile.length()
+                    || dis.readLong() != fastaFile.lastModified()
+                    || !parametersKey.equals(dis.readUTF())) {
+                return null;
+            }
+
+            accessions = new String[dis.readInt()];
+
+            for (int i = 0; i < accessions.length; i++) {
+                accessions[i] = dis.readUTF();
+            }
+        }
+
+        try (RandomAccessFile tableFile = new RandomAccessFile(indexFile, "r")) {
+
+            tableFile.seek(tableFile.length() - Long.BYTES);
+            tableOffset = tableFile.readLong();
+            tableFile.seek(tableOffset);
+
+            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(tableFile.getFD())))) {
+
+                int nPeptides = dis.readInt();
+
+                double[] masses = new double[nPeptides];
+
+                for (int i = 0; i < nPeptides; i++) {
+                    masses[i] = dis.readDouble();
+                }
+
+                long[] offsets = new long[nPeptides + 1];
+
+                for (int i = 0; i <= nPeptides; i++) {
+                    offsets[i] = dis.readLong();
+                }
+
+                return new PeptideMassIndex(indexFile, accessions, masses, offsets);
+
+            }
+        }
+    }
+
+    /**
+     * Returns the number of peptides in the index.
+     *
+     * @return the number of peptides in the index
+     */
+    public int getNPeptides() {
+        return masses.length;
+    }
+
+    /**
+     * Returns the peptides with a mass within the given range, boundaries
+     * included. This method can be used by multiple threads simultaneously.
+     *
+     * @param massMin the minimal mass
+     * @param massMax the maximal mass
+     *
+     * @return the peptides with a mass within the given range
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the file
+     */
+    public ArrayList<IndexedPeptide> getPeptides(double massMin, double massMax) throws IOException {
+
+        int startIndex = getFirstIndex(massMin);
+        int endIndex = startIndex;
+
+        while (endIndex < masses.length && masses[endIndex] <= massMax) {
+            endIndex++;
+        }
+
+        ArrayList<IndexedPeptide> result = new ArrayList<>(endIndex - startIndex);
+
+        if (endIndex == startIndex) {
+            return result;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) (offsets[endIndex] - offsets[startIndex]));
+        long position = offsets[startIndex];
+
+        while (buffer.hasRemaining()) {
+
+            int nRead = channel.read(buffer, position + buffer.position());
+
+            if (nRead == -1) {
+                throw new IOException("Unexpected end of the peptide mass index.");
+            }
+        }
+
+        try (DataInputStream dis = new DataInputStream(new ByteArrayInputStream(buffer.array()))) {
+
+            for (int i = startIndex; i < endIndex; i++) {
+
+                result.add(read(dis, masses[i]));
+
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the index of the first peptide with a mass higher or equal to
+     * the given mass.
+     *
+     * @param mass the mass
+     *
+     * @return the index of the first peptide with a mass higher or equal to
+     * the given mass
+     */
+    private int getFirstIndex(double mass) {
+
+        int index = Arrays.binarySearch(masses, mass);
+
+        if (index < 0) {
+            return -index - 1;
+        }
+
+        while (index > 0 && masses[index - 1] == mass) {
+            index--;
+        }
+
+        return index;
+
+    }
+
+    /**
+     * Reads a peptide record.
+     *
+     * @param dis the stream to read from
+     * @param mass the mass of the peptide
+     *
+     * @return the peptide
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the record
+     */
+    private IndexedPeptide read(DataInputStream dis, double mass) throws IOException {
+
+        String sequence = dis.readUTF();
+        String[] fixedModifications = new String[sequence.length() + 2];
+
+        int nModifications = dis.readInt();
+
+        for (int i = 0; i < nModifications; i++) {
+
+            int site = dis.readInt();
+            fixedModifications[site] = dis.readUTF();
+
+        }
+
+        int nProteins = dis.readInt();
+        String[] peptideAccessions = new String[nProteins];
+        int[] positions = new int[nProteins];
+
+        for (int i = 0; i < nProteins; i++) {
+
+            peptideAccessions[i] = accessions[dis.readInt()];
+            positions[i] = dis.readInt();
+
+        }
+
+        return new IndexedPeptide(sequence, mass, fixedModifications, peptideAccessions, positions);
+
+    }
+
+    @Override
+    public void close() throws IOException {
+
+        raf.close();
+
+    }
+
+    /**
+     * Returns the file where the index is stored for the given FASTA file and
+     * parameters.
+     *
+     * @param fastaFile the FASTA file
+     * @param parametersKey the key of the parameters
+     *
+     * @return the file where the index is stored
+     */
+    private static File getIndexFile(File fastaFile, String parametersKey) {
+
+        return new File(
+                fastaFile.getParentFile(),
+                IoUtil.removeExtension(fastaFile.getName()) + "_" + Integer.toHexString(parametersKey.hashCode()) + EXTENSION
+        );
+
+    }
+
+    /**
+     * Returns a key for the parameters used to build the index.
+     *
+     * @param digestionParameters the digestion parameters
+     * @param fixedModifications the fixed modifications
+     * @param maxX the maximal number of Xs allowed in a sequence, can be null
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide
+     *
+     * @return a key for the parameters
+     */
+    private static String getParametersKey(
+            DigestionParameters digestionParameters,
+            ArrayList<String> fixedModifications,
+            Integer maxX,
+            double massMin,
+            double massMax
+    ) {
+
+        StringBuilder key = new StringBuilder();
+        key.append(digestionParameters.getCleavageParameter());
+
+        if (digestionParameters.getCleavageParameter() == DigestionParameters.CleavageParameter.enzyme) {
+
+            digestionParameters.getEnzymes().stream()
+                    .map(Enzyme::getName)
+                    .sorted()
+                    .forEach(enzymeName -> key.append('|').append(enzymeName)
+                    .append(',').append(digestionParameters.getSpecificity(enzymeName))
+                    .append(',').append(digestionParameters.getnMissedCleavages(enzymeName)));
+
+        }
+
+        key.append('|').append(fixedModifications.stream().sorted().collect(Collectors.joining(",")));
+        key.append('|').append(maxX);
+        key.append('|').append(massMin);
+        key.append('|').append(massMax);
+
+        return key.toString();
+
+    }
+
+    /**
+     * Returns the key used to deduplicate peptides.
+     *
+     * @param sequence the peptide sequence
+     * @param fixedModifications the fixed modifications of the peptide
+     *
+     * @return the key of the peptide
+     */
+    private static String getPeptideKey(String sequence, String[] fixedModifications) {
+
+        StringBuilder key = new StringBuilder(sequence);
+
+        for (int i = 0; i < fixedModifications.length; i++) {
+
+            if (fixedModifications[i] != null) {
+
+                key.append('_').append(i).append(':').append(fixedModifications[i]);
+
+            }
+        }
+
+        return key.toString();
+
+    }
+
+    /**
+     * Peptide gathered while building the index.
+     */
+    private static class PeptideEntry {
+
+        /**
+         * The key of the peptide.
+         */
+        private final String key;
+        /**
+         * The peptide sequence.
+         */
+        private final String sequence;
+        /**
+         * The mass of the peptide.
+         */
+        private final double mass;
+        /**
+         * The fixed modifications of the peptide.
+         */
+        private final String[] fixedModifications;
+        /**
+         * The indexes of the proteins.
+         */
+        private int[] proteins = new int[1];
+        /**
+         * The positions of the peptide on the proteins.
+         */
+        private int[] positions = new int[1];
+        /**
+         * The number of proteins.
+         */
+        private int nProteins = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param key the key of the peptide
+         * @param sequence the peptide sequence
+         * @param mass the mass of the peptide
+         * @param fixedModifications the fixed modifications of the peptide
+         */
+        private PeptideEntry(String key, String sequence, double mass, String[] fixedModifications) {
+            this.key = key;
+            this.sequence = sequence;
+            this.mass = mass;
+            this.fixedModifications = fixedModifications;
+        }
+
+        /**
+         * Adds a protein to the peptide.
+         *
+         * @param proteinIndex the index of the protein
+         * @param position the position of the peptide on the protein
+         */
+        private void addProtein(int proteinIndex, int position) {
+
+            if (nProteins == proteins.length) {
+
+                proteins = Arrays.copyOf(proteins, 2 * nProteins);
+                positions = Arrays.copyOf(positions, 2 * nProteins);
+
+            }
+
+            proteins[nProteins] = proteinIndex;
+            positions[nProteins] = position;
+            nProteins++;
+
+        }
+
+        /**
+         * Adds the proteins of another entry of the same peptide.
+         *
+         * @param other the other entry
+         */
+        private void addProteins(PeptideEntry other) {
+
+            for (int i = 0; i < other.nProteins; i++) {
+                addProtein(other.proteins[i], other.positions[i]);
+            }
+        }
+
+        /**
+         * Reads a peptide record written with the mass.
+         *
+         * @param dis the stream to read from
+         *
+         * @return the peptide entry
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * reading the record
+         */
+        private static PeptideEntry readWithMass(DataInputStream dis) throws IOException {
+
+            double mass = dis.readDouble();
+            String sequence = dis.readUTF();
+            String[] fixedModifications = new String[sequence.length() + 2];
+
+            int nModifications = dis.readInt();
+
+            for (int i = 0; i < nModifications; i++) {
+
+                int site = dis.readInt();
+                fixedModifications[site] = dis.readUTF();
+
+            }
+
+            PeptideEntry peptideEntry = new PeptideEntry(getPeptideKey(sequence, fixedModifications), sequence, mass, fixedModifications);
+
+            int nProteins = dis.readInt();
+
+            for (int i = 0; i < nProteins; i++) {
+                peptideEntry.addProtein(dis.readInt(), dis.readInt());
+            }
+
+            return peptideEntry;
+
+        }
+
+        /**
+         * Writes the peptide record.
+         *
+         * @param dos the stream to write to
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * writing the record
+         */
+        private void write(DataOutputStream dos) throws IOException {
+
+            dos.writeUTF(sequence);
+
+            int nModifications = 0;
+
+            for (String modification : fixedModifications) {
+
+                if (modification != null) {
+                    nModifications++;
+                }
+            }
+
+            dos.writeInt(nModifications);
+
+            for (int i = 0; i < fixedModifications.length; i++) {
+
+                if (fixedModifications[i] != null) {
+
+                    dos.writeInt(i);
+                    dos.writeUTF(fixedModifications[i]);
+
+                }
+            }
+
+            dos.writeInt(nProteins);
+
+            for (int i = 0; i < nProteins; i++) {
+
+                dos.writeInt(proteins[i]);
+                dos.writeInt(positions[i]);
+
+            }
+        }
+    }
+
+    /**
+     * A run of peptide entries sorted by mass and key, in memory or in a
+     * temporary file.
+     */
+    private static class SortedRun implements Closeable {
+
+        /**
+         * The order of the run, runs are in the order of the proteins.
+         */
+        private final int order;
+        /**
+         * The entries of an in memory run, null for a run on disk.
+         */
+        private PeptideEntry[] entries;
+        /**
+         * The file of a run on disk, null for an in memory run.
+         */
+        private final File file;
+        /**
+         * The stream to read a run on disk.
+         */
+        private DataInputStream dis = null;
+        /**
+         * The number of entries in the run.
+         */
+        private final int size;
+        /**
+         * The number of entries read.
+         */
+        private int nRead = 0;
+        /**
+         * The current entry.
+         */
+        private PeptideEntry current = null;
+
+        /**
+         * Constructor for an in memory run.
+         *
+         * @param entries the sorted entries
+         * @param order the order of the run
+         */
+        private SortedRun(PeptideEntry[] entries, int order) {
+
+            this.entries = entries;
+            this.file = null;
+            this.size = entries.length;
+            this.order = order;
+
+        }
+
+        /**
+         * Constructor for a run on disk.
+         *
+         * @param file the file of the run
+         * @param size the number of entries in the run
+         * @param order the order of the run
+         */
+        private SortedRun(File file, int size, int order) {
+
+            this.entries = null;
+            this.file = file;
+            this.size = size;
+            this.order = order;
+
+        }
+
+        /**
+         * Writes the given sorted entries to a temporary file and returns the
+         * corresponding run.
+         *
+         * @param entries the sorted entries
+         * @param folder the folder where to write the file
+         * @param order the order of the run
+         *
+         * @return the run
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * writing the file
+         */
+        private static SortedRun writeRun(PeptideEntry[] entries, File folder, int order) throws IOException {
+
+            File file = File.createTempFile("peptide_mass_index_run_", ".tmp", folder);
+            file.deleteOnExit();
+
+            try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+
+                for (PeptideEntry entry : entries) {
+
+                    dos.writeDouble(entry.mass);
+                    entry.write(dos);
+
+                }
+            }
+
+            return new SortedRun(file, entries.length, order);
+
+        }
+
+        /**
+         * Moves to the next entry.
+         *
+         * @return a boolean indicating whether an entry is available
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * reading the file
+         */
+        private boolean advance() throws IOException {
+
+            if (nRead == size) {
+
+                current = null;
+                close();
+
+                return false;
+
+            }
+
+            if (entries != null) {
+
+                current = entries[nRead];
+                entries[nRead] = null;
+
+            } else {
+
+                if (dis == null) {
+                    dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+                }
+
+                current = PeptideEntry.readWithMass(dis);
+
+            }
+
+            nRead++;
+
+            return true;
+
+        }
+
+        @Override
+        public void close() throws IOException {
+
+            if (dis != null) {
+
+                dis.close();
+                dis = null;
+
+            }
+
+            if (file != null) {
+                file.delete();
+            }
+
+            entries = null;
+
+        }
+    }
+}
@@ -297,7 +297,22 @@ public class ProteinIteratorUtils {
         char[] peptideSequence = peptideDraft.getSequence();
         char aaChar = peptideSequence[peptideSequence.length - 1];
 
-        if (indexOnProtein == proteinSequence.length() - peptideDraft.length()) {
+        return getCtermModification(aaChar, proteinSequence, indexOnProtein + peptideDraft.length());
+    }
+
+    /**
+     * Returns the c-terminal modification for a peptide ending at the given
+     * index on the protein.
+     *
+     * @param aaChar the c-terminal amino acid of the peptide
+     * @param proteinSequence the protein sequence
+     * @param peptideEnd the index of the peptide end on the protein, exclusive
+     *
+     * @return the c-terminal modification for the peptide
+     */
+    public String getCtermModification(char aaChar, String proteinSequence, int peptideEnd) {
+
+        if (peptideEnd == proteinSequence.length()) {
 
             if (fixedProteinCtermModification != null) {
                 return fixedProteinCtermModification;
@@ -321,7 +336,7 @@ public class ProteinIteratorUtils {
 
             AminoAcidPattern aminoAcidPattern = modificationPatternMap.get(fixedPeptideCtermModificationAtAa);
 
-            if (aminoAcidPattern == null || aminoAcidPattern.matchesAt(proteinSequence, SequenceMatchingParameters.DEFAULT_STRING_MATCHING, indexOnProtein + peptideDraft.length())) {
+            if (aminoAcidPattern == null || aminoAcidPattern.matchesAt(proteinSequence, SequenceMatchingParameters.DEFAULT_STRING_MATCHING, peptideEnd)) {
                 return fixedPeptideCtermModificationAtAa;
             }
         }
@@ -457,7 +472,7 @@ public class ProteinIteratorUtils {
                 
                 
                 AminoAcidPattern aminoAcidPattern = modificationPatternMap.get(modificationAtAa);
-                if (aminoAcidPattern == null || aminoAcidPattern.matchesAt(proteinSequence, SequenceMatchingParameters.DEFAULT_STRING_MATCHING, i)) {
+                if (aminoAcidPattern == null || aminoAcidPattern.matchesAt(proteinSequence, SequenceMatchingParameters.DEFAULT_STRING_MATCHING, indexOnProtein + i)) {
                 
                     peptideModifications.put(i + 1, modificationAtAa);
                     peptideMass += modificationsMasses.get(modificationAtAa);
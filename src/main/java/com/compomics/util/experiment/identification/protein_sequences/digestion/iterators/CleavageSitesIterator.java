@@ -0,0 +1,299 @@
+package com.compomics.util.experiment.identification.protein_sequences.digestion.iterators;
+
+import com.compomics.util.experiment.biology.aminoacids.AminoAcid;
+import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidSequence;
+import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.identification.protein_sequences.AmbiguousSequenceIterator;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.ExtendedPeptide;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.ProteinIteratorUtils;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.SequenceIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Iterator for digestion with one or more enzymes. The cleavage sites of all
+ * enzymes are located on the protein sequence first, and the peptides are
+ * then iterated from every start position, counting missed cleavages as the
+ * number of cleavage sites within the peptide. Subclasses define which
+ * termini must be specific.
+ *
+ * @author Marc Vaudel
+ */
+public abstract class CleavageSitesIterator implements SequenceIterator {
+
+    /**
+     * Utilities classes for the digestion.
+     */
+    private final ProteinIteratorUtils proteinIteratorUtils;
+    /**
+     * The protein sequence.
+     */
+    private final String proteinSequence;
+    /**
+     * The protein sequence as char array.
+     */
+    private final char[] proteinSequenceAsCharArray;
+    /**
+     * The minimal mass to consider.
+     */
+    private final double massMin;
+    /**
+     * The maximal mass to consider.
+     */
+    private final double massMax;
+    /**
+     * The maximum number of missed cleavages.
+     */
+    private final int nMissedCleavages;
+    /**
+     * Boolean indicating whether peptides with only a specific N-terminus
+     * should be returned.
+     */
+    private final boolean nTermSpecificOnly;
+    /**
+     * Boolean indicating whether peptides with only a specific C-terminus
+     * should be returned.
+     */
+    private final boolean cTermSpecificOnly;
+    /**
+     * Boolean indicating whether the sequence contains amino acid
+     * combinations.
+     */
+    private final boolean hasCombination;
+    /**
+     * Boolean array indicating whether the sequence can be cleaved before the
+     * given index. The protein termini are considered as cleavage sites.
+     */
+    private final boolean[] cleavageSites;
+    /**
+     * The minimal mass of every amino acid of the sequence.
+     */
+    private final double[] aminoAcidMinMasses;
+    /**
+     * The start index of the peptides to iterate next.
+     */
+    private int startIndex = 0;
+    /**
+     * The peptides found.
+     */
+    private final ArrayList<ExtendedPeptide> result = new ArrayList<>();
+    /**
+     * Index of the result iterator.
+     */
+    private int resultIndex = -1;
+
+    /**
+     * Constructor.
+     *
+     * @param proteinIteratorUtils utils for the creation of the peptides
+     * @param proteinSequence the sequence to iterate
+     * @param enzymes the enzymes to use for digestion
+     * @param nMissedCleavages the maximal number of missed cleavages allowed
+     * @param nTermSpecificOnly boolean indicating whether peptides with only
+     * a specific N-terminus should be returned
+     * @param cTermSpecificOnly boolean indicating whether peptides with only
+     * a specific C-terminus should be returned
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide
+     */
+    protected CleavageSitesIterator(
+            ProteinIteratorUtils proteinIteratorUtils,
+            String proteinSequence,
+            ArrayList<Enzyme> enzymes,
+            int nMissedCleavages,
+            boolean nTermSpecificOnly,
+            boolean cTermSpecificOnly,
+            double massMin,
+            double massMax
+    ) {
+
+        this.proteinIteratorUtils = proteinIteratorUtils;
+        this.proteinSequence = proteinSequence;
+        this.proteinSequenceAsCharArray = proteinSequence.toCharArray();
+        this.nMissedCleavages = nMissedCleavages;
+        this.nTermSpecificOnly = nTermSpecificOnly;
+        this.cTermSpecificOnly = cTermSpecificOnly;
+        this.massMin = massMin;
+        this.massMax = massMax;
+        this.hasCombination = AminoAcidSequence.hasCombination(proteinSequence);
+
+        int length = proteinSequenceAsCharArray.length;
+
+        cleavageSites = new boolean[length + 1];
+        cleavageSites[0] = true;
+        cleavageSites[length] = true;
+
+        for (int i = 1; i < length; i++) {
+
+            char aaBefore = proteinSequenceAsCharArray[i - 1];
+            char aaAfter = proteinSequenceAsCharArray[i];
+
+            for (Enzyme enzyme : enzymes) {
+
+                if (hasCombination
+                        ? enzyme.isCleavageSite(aaBefore, aaAfter)
+                        : enzyme.isCleavageSiteNoCombination(aaBefore, aaAfter)) {
+
+                    cleavageSites[i] = true;
+                    break;
+
+                }
+            }
+        }
+
+        aminoAcidMinMasses = new double[length];
+
+        for (int i = 0; i < length; i++) {
+
+            AminoAcid aminoAcid = AminoAcid.getAminoAcid(proteinSequenceAsCharArray[i]);
+
+            if (aminoAcid.iscombination()) {
+
+                double minMass = Double.MAX_VALUE;
+
+                for (char subAa : aminoAcid.getSubAminoAcids(false)) {
+
+                    minMass = Math.min(minMass, AminoAcid.getAminoAcid(subAa).getMonoisotopicMass());
+
+                }
+
+                aminoAcidMinMasses[i] = minMass;
+
+            } else {
+
+                aminoAcidMinMasses[i] = aminoAcid.getMonoisotopicMass();
+
+            }
+        }
+    }
+
+    @Override
+    public ExtendedPeptide getNextPeptide() throws InterruptedException {
+
+        while (++resultIndex >= result.size()) {
+
+            if (startIndex == proteinSequenceAsCharArray.length) {
+                return null;
+            }
+
+            iterateFrom(startIndex++);
+
+        }
+
+        return result.get(resultIndex);
+
+    }
+
+    /**
+     * Stores the peptides starting at the given index in the result list.
+     *
+     * @param peptideStart the start index of the peptides
+     *
+     * @throws java.lang.InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    private void iterateFrom(int peptideStart) throws InterruptedException {
+
+        result.clear();
+        resultIndex = -1;
+
+        boolean nTermSpecific = cleavageSites[peptideStart];
+
+        if (!nTermSpecific && !cTermSpecificOnly) {
+            return;
+        }
+
+        int missedCleavages = 0;
+        double minMass = proteinIteratorUtils.getMinCtermMass();
+
+        for (int peptideEnd = peptideStart + 1; peptideEnd <= proteinSequenceAsCharArray.length; peptideEnd++) {
+
+            if (peptideEnd - 1 > peptideStart && cleavageSites[peptideEnd - 1]) {
+
+                missedCleavages++;
+
+                if (missedCleavages > nMissedCleavages) {
+                    return;
+                }
+            }
+
+            minMass += aminoAcidMinMasses[peptideEnd - 1];
+
+            if (minMass > massMax) {
+                return;
+            }
+
+            boolean cTermSpecific = cleavageSites[peptideEnd];
+
+            if (nTermSpecific && cTermSpecific
+                    || nTermSpecific && nTermSpecificOnly
+                    || cTermSpecific && cTermSpecificOnly) {
+
+                addPeptides(peptideStart, peptideEnd);
+
+            }
+        }
+    }
+
+    /**
+     * Adds the peptides corresponding to the given indexes on the protein to
+     * the result list. If the sequence contains amino acid combinations, all
+     * possible sequences are added.
+     *
+     * @param peptideStart the start index of the peptide
+     * @param peptideEnd the end index of the peptide, exclusive
+     */
+    private void addPeptides(int peptideStart, int peptideEnd) {
+
+        char[] peptideSequence = Arrays.copyOfRange(proteinSequenceAsCharArray, peptideStart, peptideEnd);
+
+        if (!hasCombination || !AminoAcidSequence.hasCombination(peptideSequence)) {
+
+            addPeptide(peptideSequence, peptideStart);
+
+        } else {
+
+            int nX = 0;
+
+            for (char aa : peptideSequence) {
+
+                if (aa == 'X') {
+                    nX++;
+                }
+            }
+
+            if (nX > proteinIteratorUtils.getMaxXsInSequence()) {
+                return;
+            }
+
+            AmbiguousSequenceIterator ambiguousSequenceIterator = new AmbiguousSequenceIterator(peptideSequence, proteinIteratorUtils.getMaxXsInSequence());
+            char[] sequence;
+
+            while ((sequence = ambiguousSequenceIterator.getNextSequence()) != null) {
+
+                addPeptide(sequence, peptideStart);
+
+            }
+        }
+    }
+
+    /**
+     * Adds the peptide of the given sequence to the result list if it passes
+     * the mass filters.
+     *
+     * @param peptideSequence the sequence of the peptide
+     * @param peptideStart the start index of the peptide on the protein
+     */
+    private void addPeptide(char[] peptideSequence, int peptideStart) {
+
+        ExtendedPeptide extendedPeptide = proteinIteratorUtils.getPeptideFromProtein(peptideSequence, proteinSequence, peptideStart, massMin, massMax);
+
+        if (extendedPeptide != null
+                && extendedPeptide.peptide.getMass() >= massMin
+                && extendedPeptide.peptide.getMass() <= massMax) {
+
+            result.add(new ExtendedPeptide(extendedPeptide.peptide, peptideStart, extendedPeptide.fixedModifications));
+
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.compomics.util.experiment.identification.protein_sequences.digestion.iterators;
+
+import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.ProteinIteratorUtils;
+import java.util.ArrayList;
+
+/**
+ * Iterator for specific digestion with multiple enzymes. The protein can be
+ * cleaved at the cleavage sites of any of the enzymes.
+ *
+ * @author Marc Vaudel
+ */
+public class MultipleEnzymesIterator extends CleavageSitesIterator {
+
+    /**
+     * Constructor.
+     *
+     * @param proteinIteratorUtils utils for the creation of the peptides
+     * @param proteinSequence the sequence to iterate
+     * @param enzymes the enzymes to use for digestion
+     * @param nMissedCleavages the maximal number of missed cleavages allowed
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide
+     */
+    public MultipleEnzymesIterator(
+            ProteinIteratorUtils proteinIteratorUtils,
+            String proteinSequence,
+            ArrayList<Enzyme> enzymes,
+            int nMissedCleavages,
+            double massMin,
+            double massMax
+    ) {
+
+        super(
+                proteinIteratorUtils,
+                proteinSequence,
+                enzymes,
+                nMissedCleavages,
+                false,
+                false,
+                massMin,
+                massMax
+        );
+
+    }
+}
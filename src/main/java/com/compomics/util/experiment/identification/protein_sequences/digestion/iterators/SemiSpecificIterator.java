@@ -0,0 +1,53 @@
+package com.compomics.util.experiment.identification.protein_sequences.digestion.iterators;
+
+import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.ProteinIteratorUtils;
+import java.util.ArrayList;
+
+/**
+ * Iterator for semi-specific digestion with one or more enzymes. Depending on
+ * the settings, peptides need to be specific at the N-terminus, at the
+ * C-terminus, or at either terminus.
+ *
+ * @author Marc Vaudel
+ */
+public class SemiSpecificIterator extends CleavageSitesIterator {
+
+    /**
+     * Constructor.
+     *
+     * @param proteinIteratorUtils utils for the creation of the peptides
+     * @param proteinSequence the sequence to iterate
+     * @param enzymes the enzymes to use for digestion
+     * @param nMissedCleavages the maximal number of missed cleavages allowed
+     * @param nTermSpecificOnly boolean indicating whether peptides with only
+     * a specific N-terminus should be returned
+     * @param cTermSpecificOnly boolean indicating whether peptides with only
+     * a specific C-terminus should be returned
+     * @param massMin the minimal mass of a peptide
+     * @param massMax the maximal mass of a peptide
+     */
+    public SemiSpecificIterator(
+            ProteinIteratorUtils proteinIteratorUtils,
+            String proteinSequence,
+            ArrayList<Enzyme> enzymes,
+            int nMissedCleavages,
+            boolean nTermSpecificOnly,
+            boolean cTermSpecificOnly,
+            double massMin,
+            double massMax
+    ) {
+
+        super(
+                proteinIteratorUtils,
+                proteinSequence,
+                enzymes,
+                nMissedCleavages,
+                nTermSpecificOnly,
+                cTermSpecificOnly,
+                massMin,
+                massMax
+        );
+
+    }
+}
@@ -0,0 +1,220 @@
+package com.compomics.util.experiment.identification.protein_sequences.digestion.performance;
+
+import com.compomics.util.experiment.biology.proteins.Protein;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.DigestionCursor;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.ExtendedPeptide;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.IteratorFactory;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.ProteinIteratorUtils;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.SequenceIterator;
+import com.compomics.util.experiment.io.biology.protein.iterators.FastaIterator;
+import com.compomics.util.io.flat.SimpleFileWriter;
+import com.compomics.util.parameters.identification.search.DigestionParameters;
+import com.compomics.util.waiting.Duration;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.time.Instant;
+import java.util.ArrayList;
+
+/**
+ * Throughput benchmark of the digestion comparing the sequence iterators to
+ * the digestion cursor. For both, only the peptides falling in a narrow mass
+ * window are materialized, mimicking a search for a given precursor.
+ *
+ * @author Marc Vaudel
+ */
+public class DigestionBenchmark {
+
+    /**
+     * The number of times each analysis needs to be replicated.
+     */
+    public final static int REPLICATES = 5;
+    /**
+     * The minimal mass of the peptides.
+     */
+    public final static double MASS_MIN = 400.0;
+    /**
+     * The maximal mass of the peptides.
+     */
+    public final static double MASS_MAX = 6000.0;
+    /**
+     * The lower bound of the mass window where peptides are materialized.
+     */
+    public final static double WINDOW_MIN = 1500.0;
+    /**
+     * The upper bound of the mass window where peptides are materialized.
+     */
+    public final static double WINDOW_MAX = 1510.0;
+
+    /**
+     * This main method runs the digestion benchmark on a fasta file and
+     * exports the results.
+     *
+     * @param args The fasta file to digest and the file where to write the
+     * results.
+     */
+    public static void main(String[] args) {
+
+        if (args.length < 2) {
+
+            System.out.println("Usage: DigestionBenchmark <fasta file> <output file>");
+            return;
+
+        }
+
+        DigestionBenchmark digestionBenchmark = new DigestionBenchmark();
+
+        try {
+
+            digestionBenchmark.run(new File(args[0]), new File(args[1]));
+
+        } catch (Exception e) {
+
+            e.printStackTrace();
+
+        }
+    }
+
+    /**
+     * Constructor.
+     */
+    public DigestionBenchmark() {
+
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param fastaFile The fasta file to digest.
+     * @param destinationFile The file where to write the results.
+     *
+     * @throws FileNotFoundException Exception thrown if the fasta file is not
+     * found.
+     * @throws InterruptedException Exception thrown if a threading exception
+     * occurs.
+     */
+    private void run(
+            File fastaFile,
+            File destinationFile
+    ) throws FileNotFoundException, InterruptedException {
+
+        ArrayList<String> proteinSequences = new ArrayList<>();
+        FastaIterator fastaIterator = new FastaIterator(fastaFile);
+        Protein protein;
+
+        while ((protein = fastaIterator.getNextProtein()) != null) {
+
+            proteinSequences.add(protein.getSequence());
+
+        }
+
+        ArrayList<String> fixedModifications = new ArrayList<>(1);
+        fixedModifications.add("Carbamidomethylation of C");
+
+        String[] digestionNames = new String[]{"specific", "semi-specific"};
+        ArrayList<DigestionParameters> allDigestionParameters = new ArrayList<>(digestionNames.length);
+        allDigestionParameters.add(DigestionParameters.getDefaultParameters());
+
+        DigestionParameters semiSpecific = DigestionParameters.getDefaultParameters();
+        semiSpecific.setSpecificity("Trypsin", DigestionParameters.Specificity.semiSpecific);
+        allDigestionParameters.add(semiSpecific);
+
+        try (SimpleFileWriter writer = new SimpleFileWriter(destinationFile, false)) {
+
+            writer.writeLine("digestion", "method", "replicate", "time", "candidates", "materialized");
+
+            for (int i = 0; i < digestionNames.length; i++) {
+
+                String digestion = digestionNames[i];
+                DigestionParameters digestionParameters = allDigestionParameters.get(i);
+
+                for (int replicate = 1; replicate <= REPLICATES; replicate++) {
+
+                    System.out.println(Instant.now() + "    Iterator - " + digestion + " (" + replicate + "/" + REPLICATES + ")");
+
+                    IteratorFactory iteratorFactory = new IteratorFactory(fixedModifications);
+
+                    long nCandidates = 0;
+                    long nMaterialized = 0;
+
+                    Duration duration = new Duration();
+                    duration.start();
+
+                    for (String proteinSequence : proteinSequences) {
+
+                        SequenceIterator sequenceIterator = iteratorFactory.getSequenceIterator(proteinSequence, digestionParameters, MASS_MIN, MASS_MAX);
+                        ExtendedPeptide extendedPeptide;
+
+                        while ((extendedPeptide = sequenceIterator.getNextPeptide()) != null) {
+
+                            nCandidates++;
+
+                            double mass = extendedPeptide.peptide.getMass();
+
+                            if (mass >= WINDOW_MIN && mass <= WINDOW_MAX) {
+
+                                nMaterialized++;
+
+                            }
+                        }
+                    }
+
+                    duration.end();
+
+                    writer.writeLine(
+                            digestion,
+                            "iterator",
+                            Integer.toString(replicate),
+                            Long.toString(duration.getDuration()),
+                            Long.toString(nCandidates),
+                            Long.toString(nMaterialized)
+                    );
+
+                    System.gc();
+
+                    System.out.println(Instant.now() + "    Cursor - " + digestion + " (" + replicate + "/" + REPLICATES + ")");
+
+                    DigestionCursor digestionCursor = new DigestionCursor(new ProteinIteratorUtils(fixedModifications, null), digestionParameters, MASS_MIN, MASS_MAX);
+
+                    nCandidates = 0;
+                    nMaterialized = 0;
+
+                    duration = new Duration();
+                    duration.start();
+
+                    for (int proteinIndex = 0; proteinIndex < proteinSequences.size(); proteinIndex++) {
+
+                        digestionCursor.setProtein(proteinIndex, proteinSequences.get(proteinIndex));
+
+                        while (digestionCursor.next()) {
+
+                            nCandidates++;
+
+                            double mass = digestionCursor.getMass();
+
+                            if (mass >= WINDOW_MIN && mass <= WINDOW_MAX) {
+
+                                digestionCursor.getPeptide();
+                                nMaterialized++;
+
+                            }
+                        }
+                    }
+
+                    duration.end();
+
+                    writer.writeLine(
+                            digestion,
+                            "cursor",
+                            Integer.toString(replicate),
+                            Long.toString(duration.getDuration()),
+                            Long.toString(nCandidates),
+                            Long.toString(nMaterialized)
+                    );
+
+                    System.gc();
+
+                }
+            }
+        }
+    }
+}
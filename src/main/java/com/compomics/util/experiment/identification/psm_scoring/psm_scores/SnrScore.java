@@ -146,7 +146,9 @@ public class SnrScore {
 
         char[] sequence = peptide.getSequence().toCharArray();
 
-        SimpleNoiseDistribution binnedCumulativeFunction = new SimpleNoiseDistribution(spectrum.intensity);
+        SimpleNoiseDistribution binnedCumulativeFunction = spectrum.getStatistics() != null
+                ? spectrum.getStatistics().getNoiseDistribution()
+                : new SimpleNoiseDistribution(spectrum.intensity);
 
         double pFragmentIonMinusLog = 0.0;
         double pAnnotatedMinusLog = 0.0;
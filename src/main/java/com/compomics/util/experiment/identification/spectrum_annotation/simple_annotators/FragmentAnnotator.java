@@ -2,7 +2,6 @@ package com.compomics.util.experiment.identification.spectrum_annotation.simple_
 
 import com.compomics.util.experiment.biology.aminoacids.AminoAcid;
 import com.compomics.util.experiment.biology.ions.Ion;
-import com.compomics.util.experiment.biology.modifications.Modification;
 import com.compomics.util.experiment.biology.modifications.ModificationFactory;
 import com.compomics.util.experiment.biology.proteins.Peptide;
 import com.compomics.util.experiment.mass_spectrometry.utils.StandardMasses;
@@ -111,9 +110,7 @@ public class FragmentAnnotator {
 
         for (ModificationMatch modificationMatch : modificationMatches) {
 
-            String modificationName = modificationMatch.getModification();
-            Modification modification = modificationFactory.getModification(modificationName);
-            double modificationMass = modification.getMass();
+            double modificationMass = modificationFactory.getMass(modificationMatch.getModificationId());
 
             int i = modificationMatch.getSite();
             int site;
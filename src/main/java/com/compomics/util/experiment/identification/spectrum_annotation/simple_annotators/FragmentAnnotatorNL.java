@@ -154,8 +154,7 @@ public class FragmentAnnotatorNL {
 
         for (ModificationMatch modificationMatch : modificationMatches) {
 
-            String modificationName = modificationMatch.getModification();
-            Modification modification = modificationFactory.getModification(modificationName);
+            Modification modification = modificationFactory.getModification(modificationMatch.getModificationId());
             double modificationMass = modification.getMass();
 
             int i = modificationMatch.getSite();
@@ -371,8 +370,7 @@ public class FragmentAnnotatorNL {
 
         for (ModificationMatch modificationMatch : modificationMatches) {
 
-            String modificationName = modificationMatch.getModification();
-            Modification modification = modificationFactory.getModification(modificationName);
+            Modification modification = modificationFactory.getModification(modificationMatch.getModificationId());
             double modificationMass = modification.getMass();
 
             int i = modificationMatch.getSite();
@@ -2,6 +2,7 @@ package com.compomics.util.experiment.identification.utils;
 
 import com.compomics.util.Util;
 import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidPattern;
+import com.compomics.util.experiment.biology.aminoacids.sequence.CompiledAminoAcidPattern;
 import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidSequence;
 import com.compomics.util.experiment.biology.modifications.Modification;
 import com.compomics.util.experiment.biology.modifications.ModificationFactory;
@@ -174,9 +175,10 @@ public class ModificationUtils {
 
                     } else if (aminoAcidPattern.length() > 1) {
 
+                        CompiledAminoAcidPattern compiledPattern = aminoAcidPattern.getCompiledPattern(sequenceMatchingParameters);
                         int minIndex = aminoAcidPattern.getMinIndex();
-                        int maxIndex = aminoAcidPattern.getMaxIndex();
-                        IntStream allPossibleIndexes = IntStream.empty();
+                        boolean[] possibleSites = new boolean[peptideSequence.length()];
+                        int nSites = 0;
 
                         for (Map.Entry<String, int[]> entry : peptide.getProteinMapping().entrySet()) {
 
@@ -185,47 +187,32 @@ public class ModificationUtils {
 
                             for (int startIndex : entry.getValue()) {
 
-                                StringBuilder extendedSequenceBuilder
-                                        = new StringBuilder(peptideSequence.length()
-                                                + aminoAcidPattern.length());
-
-                                if (minIndex < 0) {
-                                    String prefix = sequence.substring(Math.max(startIndex + minIndex, 0), startIndex);
-                                    extendedSequenceBuilder.append(prefix);
-                                }
+                                for (int i = 0; i < possibleSites.length; i++) {
 
-                                extendedSequenceBuilder.append(peptideSequence);
+                                    if (!possibleSites[i] && compiledPattern.matchesAt(sequence, startIndex + i + minIndex)) {
 
-                                if (maxIndex > 0) {
+                                        possibleSites[i] = true;
+                                        nSites++;
 
-                                    String suffix = sequence.substring(
-                                            startIndex + peptideSequence.length(),
-                                            Math.min(
-                                                    startIndex + peptideSequence.length() + maxIndex,
-                                                    sequence.length()
-                                            )
-                                    );
-                                    extendedSequenceBuilder.append(suffix);
+                                    }
                                 }
-
-                                int[] sitesAtIndex = aminoAcidPattern.getIndexes(
-                                        extendedSequenceBuilder.toString(), sequenceMatchingParameters);
-                                allPossibleIndexes = IntStream.concat(allPossibleIndexes, Arrays.stream(sitesAtIndex));
-
                             }
                         }
 
-                        allPossibleIndexes = allPossibleIndexes
-                                .distinct()
-                                .sorted();
+                        int[] indexes = new int[nSites];
 
-                        if (minIndex < 0) {
-                            allPossibleIndexes.map(site -> site - minIndex);
+                        for (int i = 0, j = 0; i < possibleSites.length; i++) {
+
+                            if (possibleSites[i]) {
+
+                                indexes[j++] = i + 1;
+
+                            }
                         }
 
                         if (!avoidOverlap) {
 
-                            return allPossibleIndexes.toArray();
+                            return indexes;
 
                         } else {
 
@@ -240,7 +227,7 @@ public class ModificationUtils {
                                             Collectors.toCollection(HashSet::new)
                                     );
 
-                            return allPossibleIndexes
+                            return IntStream.of(indexes)
                                     .filter(
                                             site -> !occupiedSites.contains(site)
                                     )
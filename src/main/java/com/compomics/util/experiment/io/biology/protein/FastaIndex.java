@@ -0,0 +1,289 @@
+package com.compomics.util.experiment.io.biology.protein;
+
+import com.compomics.util.io.IoUtil;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Offset index of a FASTA file. For every protein, the index stores the
+ * accession, the offset of the header in bytes, and the length of the
+ * sequence. The index allows splitting the FASTA file in chunks without
+ * iterating the file, e.g. when building an FM-index.
+ *
+ * @author Marc Vaudel
+ */
+public class FastaIndex {
+
+    /**
+     * The version of the index file format.
+     */
+    public static final String VERSION = "FastaIndex_1.0";
+    /**
+     * The extension of the index files.
+     */
+    public static final String EXTENSION = ".fidx";
+    /**
+     * The size of the file when the index was created.
+     */
+    private long fileLength;
+    /**
+     * The last time the file was modified when the index was created.
+     */
+    private long lastModified;
+    /**
+     * The number of proteins in the index.
+     */
+    private int nProteins = 0;
+    /**
+     * The accessions of the proteins.
+     */
+    private String[] accessions;
+    /**
+     * The offsets of the headers of the proteins in the file.
+     */
+    private long[] offsets;
+    /**
+     * The lengths of the protein sequences.
+     */
+    private int[] lengths;
+
+    /**
+     * Constructor for an empty index.
+     *
+     * @param initialCapacity the initial number of proteins the index can
+     * store
+     */
+    public FastaIndex(int initialCapacity) {
+
+        int capacity = Math.max(initialCapacity, 16);
+
+        accessions = new String[capacity];
+        offsets = new long[capacity];
+        lengths = new int[capacity];
+
+    }
+
+    /**
+     * Adds a protein to the index.
+     *
+     * @param accession the accession of the protein
+     * @param offset the offset of the header in the file in bytes
+     * @param length the length of the protein sequence
+     */
+    public void add(String accession, long offset, int length) {
+
+        if (nProteins == accessions.length) {
+
+            int newCapacity = 2 * nProteins;
+
+            accessions = Arrays.copyOf(accessions, newCapacity);
+            offsets = Arrays.copyOf(offsets, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
+
+        }
+
+        accessions[nProteins] = accession;
+        offsets[nProteins] = offset;
+        lengths[nProteins] = length;
+
+        nProteins++;
+
+    }
+
+    /**
+     * Returns the number of proteins in the index.
+     *
+     * @return the number of proteins in the index
+     */
+    public int getNProteins() {
+        return nProteins;
+    }
+
+    /**
+     * Returns the accession of the protein at the given index.
+     *
+     * @param i the index of the protein
+     *
+     * @return the accession of the protein
+     */
+    public String getAccession(int i) {
+        return accessions[i];
+    }
+
+    /**
+     * Returns the offset in bytes of the header of the protein at the given
+     * index.
+     *
+     * @param i the index of the protein
+     *
+     * @return the offset in bytes of the header of the protein
+     */
+    public long getOffset(int i) {
+        return offsets[i];
+    }
+
+    /**
+     * Returns the length of the sequence of the protein at the given index.
+     *
+     * @param i the index of the protein
+     *
+     * @return the length of the sequence of the protein
+     */
+    public int getLength(int i) {
+        return lengths[i];
+    }
+
+    /**
+     * Splits the proteins in chunks the way the FM-index does: a chunk is
+     * closed as soon as the total length of its sequences exceeds the given
+     * chunk size.
+     *
+     * @param chunkSize the maximal size of a chunk
+     *
+     * @return the index string length and number of proteins of every chunk
+     * as an array of {length, nProteins}
+     */
+    public ArrayList<int[]> getChunks(long chunkSize) {
+
+        ArrayList<int[]> chunks = new ArrayList<>();
+
+        int indexStringLength = 1;
+        int chunkProteins = 0;
+
+        for (int i = 0; i < nProteins; i++) {
+
+            indexStringLength += lengths[i];
+            chunkProteins++;
+
+            if (indexStringLength > chunkSize) {
+
+                chunks.add(new int[]{indexStringLength, chunkProteins});
+                indexStringLength = 1;
+                chunkProteins = 0;
+
+            }
+        }
+
+        chunks.add(new int[]{indexStringLength, chunkProteins});
+
+        return chunks;
+
+    }
+
+    /**
+     * Returns a boolean indicating whether this index was made for the given
+     * version of the FASTA file.
+     *
+     * @param fastaFile the FASTA file
+     *
+     * @return a boolean indicating whether this index was made for the given
+     * version of the FASTA file
+     */
+    public boolean isValid(File fastaFile) {
+
+        return fastaFile.length() == fileLength
+                && fastaFile.lastModified() == lastModified;
+
+    }
+
+    /**
+     * Saves the index next to the given FASTA file. The file must be written
+     * completely before saving the index.
+     *
+     * @param fastaFile the FASTA file
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * the file
+     */
+    public void save(File fastaFile) throws IOException {
+
+        fileLength = fastaFile.length();
+        lastModified = fastaFile.lastModified();
+
+        try (DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(getIndexFile(fastaFile))))) {
+
+            dos.writeUTF(VERSION);
+            dos.writeLong(fileLength);
+            dos.writeLong(lastModified);
+            dos.writeInt(nProteins);
+
+            for (int i = 0; i < nProteins; i++) {
+
+                dos.writeUTF(accessions[i]);
+                dos.writeLong(offsets[i]);
+                dos.writeInt(lengths[i]);
+
+            }
+        }
+    }
+
+    /**
+     * Loads the index of the given FASTA file. Returns null if no index was
+     * found, if the index format is not supported, or if the index is not
+     * valid for the current version of the file.
+     *
+     * @param fastaFile the FASTA file
+     *
+     * @return the index of the FASTA file
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the file
+     */
+    public static FastaIndex load(File fastaFile) throws IOException {
+
+        File indexFile = getIndexFile(fastaFile);
+
+        if (!indexFile.exists()) {
+            return null;
+        }
+
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+
+            if (!VERSION.equals(dis.readUTF())) {
+                return null;
+            }
+
+            long fileLength = dis.readLong();
+            long lastModified = dis.readLong();
+            int nProteins = dis.readInt();
+
+            FastaIndex fastaIndex = new FastaIndex(nProteins);
+            fastaIndex.fileLength = fileLength;
+            fastaIndex.lastModified = lastModified;
+
+            if (!fastaIndex.isValid(fastaFile)) {
+                return null;
+            }
+
+            for (int i = 0; i < nProteins; i++) {
+
+                fastaIndex.add(dis.readUTF(), dis.readLong(), dis.readInt());
+
+            }
+
+            return fastaIndex;
+
+        }
+    }
+
+    /**
+     * Returns the file where the index of the given FASTA file is stored.
+     *
+     * @param fastaFile the FASTA file
+     *
+     * @return the file where the index is stored
+     */
+    public static File getIndexFile(File fastaFile) {
+
+        return new File(fastaFile.getParentFile(), IoUtil.removeExtension(fastaFile.getName()) + EXTENSION);
+
+    }
+}
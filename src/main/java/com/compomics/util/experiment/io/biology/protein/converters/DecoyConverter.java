@@ -1,20 +1,38 @@
 package com.compomics.util.experiment.io.biology.protein.converters;
 
-import com.compomics.util.experiment.biology.proteins.Protein;
+import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.identification.utils.ProteinUtils;
+import com.compomics.util.experiment.io.biology.protein.FastaIndex;
 import com.compomics.util.experiment.io.biology.protein.FastaParameters;
 import com.compomics.util.experiment.io.biology.protein.FastaSummary;
 import com.compomics.util.experiment.io.biology.protein.Header;
 import com.compomics.util.experiment.io.biology.protein.ProteinDatabase;
-import com.compomics.util.experiment.io.biology.protein.iterators.FastaIterator;
+import static com.compomics.util.io.IoUtil.ENCODING;
+import com.compomics.util.io.IoUtil;
 import com.compomics.util.waiting.WaitingHandler;
-import java.io.BufferedWriter;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Map.Entry;
+import java.util.Random;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
+import org.apache.commons.io.input.BoundedInputStream;
 
 /**
  * This class appends decoy sequences to the given FASTA file.
@@ -31,7 +49,18 @@ public class DecoyConverter {
     }
 
     /**
-     * Appends decoy sequences to the provided FASTA file.
+     * The number of characters to gather in a chunk of the FASTA file before
+     * processing it.
+     */
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    /**
+     * The line separator used when writing the FASTA file.
+     */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Appends reversed decoy sequences to the provided FASTA file using all
+     * available processors.
      *
      * @param fastaIn the FASTA file to read
      * @param fastaOut the FASTA file to write
@@ -49,74 +78,392 @@ public class DecoyConverter {
             WaitingHandler waitingHandler
     ) throws IOException {
 
-        FastaIterator fastaIterator = new FastaIterator(fastaIn);
-        
-        try ( BufferedWriter bw = new BufferedWriter(new FileWriter(fastaOut))) {
+        appendDecoySequences(
+                fastaIn,
+                fastaOut,
+                fastaParameters,
+                DecoyMethod.reverse,
+                null,
+                Runtime.getRuntime().availableProcessors(),
+                waitingHandler
+        );
+
+    }
+
+    /**
+     * Appends decoy sequences to the provided FASTA file. The file is read
+     * in chunks aligned on the protein records, the chunks are processed in
+     * parallel, and written in the order of the input file. The offset index
+     * of the target-decoy FASTA file is saved next to the file, see
+     * FastaIndex.
+     *
+     * @param fastaIn the FASTA file to read
+     * @param fastaOut the FASTA file to write
+     * @param fastaParameters the FASTA parameters
+     * @param decoyMethod the method to use to generate the decoy sequences
+     * @param enzyme the enzyme whose cleavage sites should be kept in place
+     * when shuffling or pseudo-reversing, can be null
+     * @param nThreads the number of threads to use
+     * @param waitingHandler a handler to allow canceling the import and
+     * displaying progress
+     *
+     * @return the summary of the target-decoy FASTA file, null if the process
+     * was canceled
+     *
+     * @throws IOException exception thrown whenever an error happened while
+     * reading or writing a FASTA file
+     */
+    public static FastaSummary appendDecoySequences(
+            File fastaIn,
+            File fastaOut,
+            FastaParameters fastaParameters,
+            DecoyMethod decoyMethod,
+            Enzyme enzyme,
+            int nThreads,
+            WaitingHandler waitingHandler
+    ) throws IOException {
+
+        FastaParameters decoyParameters = getDecoyParameters(fastaParameters);
 
-            Protein protein;
-            while ((protein = fastaIterator.getNextProtein()) != null) {
+        TreeMap<String, Integer> speciesOccurrence = new TreeMap<>();
+        HashMap<ProteinDatabase, Integer> databaseType = new HashMap<>(1);
+        FastaIndex fastaIndex = new FastaIndex(1024);
+        int nTarget = 0;
 
-                String accession = protein.getAccession();
-                String sequence = protein.getSequence();
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+        ArrayDeque<Future<DecoyChunk>> pendingChunks = new ArrayDeque<>(2 * nThreads);
+        long fileLength = fastaIn.length();
+        boolean canceled = false;
 
-                Header header = fastaIterator.getLastHeader();
-                String rawHeader = header.getRawHeader();
+        try (BoundedInputStream countingInputStream = BoundedInputStream.builder().setFile(fastaIn).get();
+                BufferedReader br = new BufferedReader(new InputStreamReader(countingInputStream, ENCODING));
+                BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(fastaOut), CHUNK_SIZE)) {
 
-                bw.write(rawHeader);
-                bw.newLine();
-                bw.write(sequence);
+            long offset = 0;
+            ArrayList<String> headers = new ArrayList<>();
+            ArrayList<String> sequences = new ArrayList<>();
+            StringBuilder sequenceBuilder = new StringBuilder();
+            String header = null;
+            int chunkLength = 0;
+            String line;
 
-                bw.newLine();
-                bw.newLine();
+            while (true) {
 
-                int accessionEndIndex = rawHeader.indexOf(accession) + accession.length();
+                line = br.readLine();
 
-                String part0 = rawHeader.substring(0, rawHeader.indexOf(accession));
-                String part1 = rawHeader.substring(rawHeader.indexOf(accession), accessionEndIndex);
-                String part2 = rawHeader.substring(accessionEndIndex);
+                if (line != null) {
 
-                bw.write(part0);
-                if (!fastaParameters.isDecoySuffix()) {
-                    bw.write(fastaParameters.getDecoyFlag());
-                }
-                bw.write(part1);
+                    line = line.trim();
 
-                if (fastaParameters.isDecoySuffix()) {
-                    bw.write(fastaParameters.getDecoyFlag());
+                    if (line.length() == 0) {
+                        continue;
+                    }
                 }
-                bw.write(part2);
 
-                bw.write(fastaParameters.getDecoyFlag());
-                bw.newLine();
+                if (line == null || line.charAt(0) == '>') {
+
+                    if (header != null) {
+
+                        if (sequenceBuilder.length() == 0) {
+
+                            throw new IllegalArgumentException(
+                                    "No sequence found for protein "
+                                    + header
+                                    + "."
+                            );
+
+                        }
+
+                        headers.add(header);
+                        sequences.add(sequenceBuilder.toString());
+                        chunkLength += header.length() + sequenceBuilder.length();
+                        sequenceBuilder.setLength(0);
+
+                    }
 
-                char[] sequenceAsArray = protein.getSequence().toCharArray();
+                    if (line == null || chunkLength >= CHUNK_SIZE) {
 
-                for (int i = sequenceAsArray.length - 1; i >= 0; i--) {
+                        if (!headers.isEmpty()) {
 
-                    char aa = sequenceAsArray[i];
+                            if (pendingChunks.size() >= 2 * nThreads) {
 
-                    bw.write(aa);
+                                DecoyChunk decoyChunk = getChunk(pendingChunks.pollFirst());
+                                offset = decoyChunk.write(bos, offset, fastaIndex, speciesOccurrence, databaseType);
+                                nTarget += decoyChunk.nTarget;
+
+                            }
+
+                            DecoyChunk decoyChunk = new DecoyChunk(headers, sequences, decoyParameters, decoyMethod, enzyme);
+                            pendingChunks.add(pool.submit(decoyChunk));
+
+                            headers = new ArrayList<>();
+                            sequences = new ArrayList<>();
+                            chunkLength = 0;
+
+                        }
+
+                        if (waitingHandler != null) {
+
+                            if (waitingHandler.isRunCanceled()) {
+
+                                canceled = true;
+                                break;
+
+                            }
+
+                            double progress = 100.0 * ((double) countingInputStream.getCount()) / fileLength;
+                            waitingHandler.setSecondaryProgressCounter((int) progress);
+
+                        }
+                    }
+
+                    if (line == null) {
+                        break;
+                    }
+
+                    header = line;
+
+                } else {
+
+                    if (header == null) {
+                        throw new IllegalArgumentException("No header information found in the fasta file.");
+                    }
+
+                    sequenceBuilder.append(line);
 
                 }
+            }
+
+            while (!canceled && !pendingChunks.isEmpty()) {
+
+                DecoyChunk decoyChunk = getChunk(pendingChunks.pollFirst());
+                offset = decoyChunk.write(bos, offset, fastaIndex, speciesOccurrence, databaseType);
+                nTarget += decoyChunk.nTarget;
+
+            }
+
+        } finally {
+
+            pool.shutdownNow();
+
+        }
+
+        if (canceled) {
+
+            // do not leave a partial target-decoy file behind
+            fastaOut.delete();
+            return null;
+
+        }
+
+        fastaIndex.save(fastaOut);
+
+        return new FastaSummary(
+                IoUtil.removeExtension(fastaOut.getName()),
+                fastaOut.getAbsolutePath(),
+                new Date(fastaOut.lastModified()).toString(),
+                fastaOut,
+                speciesOccurrence,
+                databaseType,
+                fastaIndex.getNProteins(),
+                nTarget,
+                fastaOut.lastModified()
+        );
+    }
+
+    /**
+     * Waits for a chunk to be processed and returns it.
+     *
+     * @param future the future of the chunk
+     *
+     * @return the processed chunk
+     *
+     * @throws IOException exception thrown if an error occurred while
+     * processing the chunk
+     */
+    private static DecoyChunk getChunk(
+            Future<DecoyChunk> future
+    ) throws IOException {
+
+        try {
+
+            return future.get();
+
+        } catch (InterruptedException e) {
+
+            throw new IOException("Decoy generation interrupted.", e);
+
+        } catch (ExecutionException e) {
+
+            Throwable cause = e.getCause();
+
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+
+            throw new IOException("An error occurred while generating the decoy sequences.", cause);
+
+        }
+    }
+
+    /**
+     * Returns the decoy version of the given protein sequence.
+     *
+     * @param sequence the target sequence
+     * @param decoyMethod the method to use to generate the decoy sequence
+     * @param enzyme the enzyme whose cleavage sites should be kept in place
+     * when shuffling or pseudo-reversing, can be null
+     * @param random the random number generator to use for shuffling, can be
+     * null for the other methods
+     *
+     * @return the decoy sequence
+     */
+    public static char[] getDecoySequence(
+            char[] sequence,
+            DecoyMethod decoyMethod,
+            Enzyme enzyme,
+            Random random
+    ) {
+
+        char[] decoySequence = new char[sequence.length];
+
+        if (decoyMethod == DecoyMethod.reverse) {
+
+            for (int i = 0; i < sequence.length; i++) {
+
+                decoySequence[i] = sequence[sequence.length - i - 1];
+
+            }
+
+            return decoySequence;
+
+        }
+
+        System.arraycopy(sequence, 0, decoySequence, 0, sequence.length);
+
+        int segmentStart = 0;
 
-                bw.newLine();
-                bw.newLine();
+        for (int i = 0; i <= sequence.length; i++) {
 
-                if (waitingHandler != null) {
+            if (i == sequence.length || isCleavageResidue(sequence[i], enzyme)) {
 
-                    if (waitingHandler.isRunCanceled()) {
+                if (decoyMethod == DecoyMethod.pseudoReverse) {
 
-                        return;
+                    for (int j = segmentStart, k = i - 1; j < k; j++, k--) {
+
+                        char aa = decoySequence[j];
+                        decoySequence[j] = decoySequence[k];
+                        decoySequence[k] = aa;
 
                     }
 
-                    double progress = fastaIterator.getProgressInPercent();
-                    waitingHandler.setSecondaryProgressCounter((int) progress);
+                } else {
+
+                    for (int j = i - 1; j > segmentStart; j--) {
+
+                        int k = segmentStart + random.nextInt(j - segmentStart + 1);
+                        char aa = decoySequence[j];
+                        decoySequence[j] = decoySequence[k];
+                        decoySequence[k] = aa;
 
+                    }
                 }
 
+                segmentStart = i + 1;
+
             }
         }
+
+        return decoySequence;
+
+    }
+
+    /**
+     * Returns a boolean indicating whether the given residue is involved in a
+     * cleavage site of the given enzyme.
+     *
+     * @param aa the residue
+     * @param enzyme the enzyme, can be null
+     *
+     * @return a boolean indicating whether the given residue is involved in a
+     * cleavage site of the given enzyme
+     */
+    private static boolean isCleavageResidue(
+            char aa,
+            Enzyme enzyme
+    ) {
+
+        return enzyme != null
+                && (enzyme.getAminoAcidBefore().contains(aa) || enzyme.getAminoAcidAfter().contains(aa));
+
+    }
+
+    /**
+     * Returns the header of the decoy protein.
+     *
+     * @param rawHeader the raw header of the target protein
+     * @param accession the accession of the target protein
+     * @param fastaParameters the FASTA parameters
+     *
+     * @return the header of the decoy protein
+     */
+    private static String getDecoyHeader(
+            String rawHeader,
+            String accession,
+            FastaParameters fastaParameters
+    ) {
+
+        StringBuilder decoyHeader = new StringBuilder(rawHeader.length() + 2 * fastaParameters.getDecoyFlag().length());
+
+        int accessionStartIndex = rawHeader.indexOf(accession);
+
+        if (accessionStartIndex == -1) {
+
+            decoyHeader.append(rawHeader);
+
+        } else {
+
+            int accessionEndIndex = accessionStartIndex + accession.length();
+
+            decoyHeader.append(rawHeader, 0, accessionStartIndex);
+
+            if (!fastaParameters.isDecoySuffix()) {
+                decoyHeader.append(fastaParameters.getDecoyFlag());
+            }
+
+            decoyHeader.append(accession);
+
+            if (fastaParameters.isDecoySuffix()) {
+                decoyHeader.append(fastaParameters.getDecoyFlag());
+            }
+
+            decoyHeader.append(rawHeader, accessionEndIndex, rawHeader.length());
+
+        }
+
+        decoyHeader.append(fastaParameters.getDecoyFlag());
+
+        return decoyHeader.toString();
+
+    }
+
+    /**
+     * Returns the accession of the decoy protein.
+     *
+     * @param accession the accession of the target protein
+     * @param fastaParameters the FASTA parameters
+     *
+     * @return the accession of the decoy protein
+     */
+    private static String getDecoyAccession(
+            String accession,
+            FastaParameters fastaParameters
+    ) {
+
+        return fastaParameters.isDecoySuffix()
+                ? accession + fastaParameters.getDecoyFlag()
+                : fastaParameters.getDecoyFlag() + accession;
+
     }
 
     /**
@@ -170,4 +517,182 @@ public class DecoyConverter {
                 nTarget, newFastaFile.lastModified());
 
     }
+
+    /**
+     * Callable writing the target and decoy records of a chunk of the FASTA
+     * file to a buffer.
+     */
+    private static class DecoyChunk implements Callable<DecoyChunk> {
+
+        /**
+         * The raw headers of the target proteins.
+         */
+        private final ArrayList<String> headers;
+        /**
+         * The sequences of the target proteins.
+         */
+        private final ArrayList<String> sequences;
+        /**
+         * The FASTA parameters.
+         */
+        private final FastaParameters fastaParameters;
+        /**
+         * The method to use to generate the decoy sequences.
+         */
+        private final DecoyMethod decoyMethod;
+        /**
+         * The enzyme, can be null.
+         */
+        private final Enzyme enzyme;
+        /**
+         * The content of the chunk to write.
+         */
+        private final ByteArrayOutputStream content;
+        /**
+         * The accessions of the proteins written.
+         */
+        private final String[] accessions;
+        /**
+         * The offsets of the headers relative to the start of the chunk.
+         */
+        private final int[] offsets;
+        /**
+         * The species of the target proteins.
+         */
+        private final String[] species;
+        /**
+         * The database type of the target proteins.
+         */
+        private final ProteinDatabase[] proteinDatabases;
+        /**
+         * The number of target proteins that are not decoys.
+         */
+        private int nTarget = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param headers the raw headers of the target proteins
+         * @param sequences the sequences of the target proteins
+         * @param fastaParameters the FASTA parameters
+         * @param decoyMethod the method to use to generate the decoy
+         * sequences
+         * @param enzyme the enzyme, can be null
+         */
+        private DecoyChunk(
+                ArrayList<String> headers,
+                ArrayList<String> sequences,
+                FastaParameters fastaParameters,
+                DecoyMethod decoyMethod,
+                Enzyme enzyme
+        ) {
+
+            this.headers = headers;
+            this.sequences = sequences;
+            this.fastaParameters = fastaParameters;
+            this.decoyMethod = decoyMethod;
+            this.enzyme = enzyme;
+
+            int nProteins = headers.size();
+
+            content = new ByteArrayOutputStream(2 * CHUNK_SIZE + 1024);
+            accessions = new String[2 * nProteins];
+            offsets = new int[2 * nProteins];
+            species = new String[nProteins];
+            proteinDatabases = new ProteinDatabase[nProteins];
+
+        }
+
+        @Override
+        public DecoyChunk call() throws IOException {
+
+            Charset charset = Charset.forName(ENCODING);
+            byte[] lineSeparator = LINE_SEPARATOR.getBytes(charset);
+
+            for (int i = 0; i < headers.size(); i++) {
+
+                String rawHeader = headers.get(i);
+                String sequence = sequences.get(i);
+
+                Header header = Header.parseFromFASTA(rawHeader);
+                String accession = header.getAccessionOrRest();
+
+                species[i] = header.getTaxonomy() == null ? "Unknown" : header.getTaxonomy();
+                proteinDatabases[i] = header.getDatabaseType() == null ? ProteinDatabase.Unknown : header.getDatabaseType();
+
+                if (!ProteinUtils.isDecoy(accession, fastaParameters)) {
+                    nTarget++;
+                }
+
+                char[] decoySequence = getDecoySequence(
+                        sequence.toCharArray(),
+                        decoyMethod,
+                        enzyme,
+                        decoyMethod == DecoyMethod.shuffle ? new Random(accession.hashCode()) : null
+                );
+
+                accessions[2 * i] = accession;
+                offsets[2 * i] = content.size();
+
+                content.write(rawHeader.getBytes(charset));
+                content.write(lineSeparator);
+                content.write(sequence.getBytes(charset));
+                content.write(lineSeparator);
+                content.write(lineSeparator);
+
+                accessions[2 * i + 1] = getDecoyAccession(accession, fastaParameters);
+                offsets[2 * i + 1] = content.size();
+
+                content.write(getDecoyHeader(rawHeader, accession, fastaParameters).getBytes(charset));
+                content.write(lineSeparator);
+                content.write(new String(decoySequence).getBytes(charset));
+                content.write(lineSeparator);
+                content.write(lineSeparator);
+
+            }
+
+            return this;
+
+        }
+
+        /**
+         * Writes the content of the chunk and gathers the summary statistics.
+         *
+         * @param outputStream the stream to write to
+         * @param offset the offset of the chunk in the output file
+         * @param fastaIndex the index where to store the protein offsets
+         * @param speciesOccurrence the species occurrence map to increment
+         * @param databaseType the database type occurrence map to increment
+         *
+         * @return the offset of the next chunk
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * writing the chunk
+         */
+        private long write(
+                OutputStream outputStream,
+                long offset,
+                FastaIndex fastaIndex,
+                TreeMap<String, Integer> speciesOccurrence,
+                HashMap<ProteinDatabase, Integer> databaseType
+        ) throws IOException {
+
+            content.writeTo(outputStream);
+
+            for (int i = 0; i < headers.size(); i++) {
+
+                int length = sequences.get(i).length();
+
+                fastaIndex.add(accessions[2 * i], offset + offsets[2 * i], length);
+                fastaIndex.add(accessions[2 * i + 1], offset + offsets[2 * i + 1], length);
+
+                speciesOccurrence.merge(species[i], 2, Integer::sum);
+                databaseType.merge(proteinDatabases[i], 2, Integer::sum);
+
+            }
+
+            return offset + content.size();
+
+        }
+    }
 }
@@ -0,0 +1,91 @@
+package com.compomics.util.experiment.io.biology.protein.converters;
+
+/**
+ * Enum of the methods available to generate decoy sequences.
+ *
+ * @author Marc Vaudel
+ */
+public enum DecoyMethod {
+
+    /**
+     * The protein sequence is reversed.
+     */
+    reverse(0, "Reverse"),
+    /**
+     * The protein sequence is shuffled. Cleavage sites are kept in place if an
+     * enzyme is provided.
+     */
+    shuffle(1, "Shuffle"),
+    /**
+     * The protein sequence is reversed between cleavage sites, keeping the
+     * cleavage sites in place.
+     */
+    pseudoReverse(2, "Pseudo-Reverse");
+
+    /**
+     * The index.
+     */
+    public final int index;
+    /**
+     * The name.
+     */
+    public final String name;
+
+    /**
+     * Constructor.
+     *
+     * @param index the index as integer
+     * @param name the name
+     */
+    private DecoyMethod(int index, String name) {
+        this.index = index;
+        this.name = name;
+    }
+
+    /**
+     * Returns the decoy method of the given index.
+     *
+     * @param index the index of the decoy method
+     *
+     * @return the corresponding decoy method
+     */
+    public static DecoyMethod getDecoyMethod(int index) {
+
+        for (DecoyMethod decoyMethod : values()) {
+
+            if (decoyMethod.index == index) {
+                return decoyMethod;
+            }
+
+        }
+
+        throw new IllegalArgumentException("No decoy method found for index " + index + ".");
+    }
+
+    /**
+     * Returns the different options as command line description.
+     *
+     * @return the different options as command line description
+     */
+    public static String getCommandLineDescription() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (DecoyMethod decoyMethod : values()) {
+
+            if (stringBuilder.length() > 0) {
+                stringBuilder.append(", ");
+            }
+
+            stringBuilder.append(decoyMethod.index).append(": ").append(decoyMethod.name);
+
+        }
+
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,268 @@
+package com.compomics.util.experiment.io.biology.protein.converters;
+
+import java.util.Arrays;
+
+/**
+ * Enum of the genetic codes available for the translation of nucleotide
+ * sequences. The indexes and tables are the ones of the NCBI, where codons
+ * are ordered by nucleotide in the order T, C, A, G.
+ *
+ * @author Marc Vaudel
+ */
+public enum GeneticCode {
+
+    /**
+     * The standard code.
+     */
+    standard(1, "Standard",
+            "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+            "---M---------------M---------------M----------------------------"),
+    /**
+     * The vertebrate mitochondrial code.
+     */
+    vertebrateMitochondrial(2, "Vertebrate Mitochondrial",
+            "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNKKSS**VVVVAAAADDEEGGGG",
+            "--------------------------------MMMM---------------M------------"),
+    /**
+     * The yeast mitochondrial code.
+     */
+    yeastMitochondrial(3, "Yeast Mitochondrial",
+            "FFLLSSSSYY**CCWWTTTTPPPPHHQQRRRRIIMMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+            "----------------------------------MM----------------------------"),
+    /**
+     * The mold, protozoan, and coelenterate mitochondrial code and the
+     * mycoplasma/spiroplasma code.
+     */
+    moldMitochondrial(4, "Mold Mitochondrial and Mycoplasma",
+            "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+            "--MM---------------M------------MMMM---------------M------------"),
+    /**
+     * The invertebrate mitochondrial code.
+     */
+    invertebrateMitochondrial(5, "Invertebrate Mitochondrial",
+            "FFLLSSSSYY**CCWWLLLLPPPPHHQQRRRRIIMMTTTTNNKKSSSSVVVVAAAADDEEGGGG",
+            "---M----------------------------MMMM---------------M------------"),
+    /**
+     * The ciliate, dasycladacean and hexamita nuclear code.
+     */
+    ciliateNuclear(6, "Ciliate Nuclear",
+            "FFLLSSSSYYQQCC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+            "-----------------------------------M----------------------------"),
+    /**
+     * The bacterial, archaeal and plant plastid code.
+     */
+    bacterial(11, "Bacterial, Archaeal and Plant Plastid",
+            "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG",
+            "---M---------------M------------MMMM---------------M------------");
+
+    /**
+     * The character used for stop codons.
+     */
+    public static final char STOP = '*';
+    /**
+     * The character used for codons containing unknown nucleotides.
+     */
+    public static final char UNKNOWN = 'X';
+    /**
+     * The index of unknown nucleotides.
+     */
+    public static final byte UNKNOWN_NUCLEOTIDE = 4;
+    /**
+     * The index used for codons containing unknown nucleotides.
+     */
+    public static final int UNKNOWN_CODON = 64;
+    /**
+     * The index of the nucleotides by character.
+     */
+    private static final byte[] NUCLEOTIDE_INDEXES = new byte[128];
+
+    static {
+
+        Arrays.fill(NUCLEOTIDE_INDEXES, UNKNOWN_NUCLEOTIDE);
+
+        NUCLEOTIDE_INDEXES['T'] = 0;
+        NUCLEOTIDE_INDEXES['t'] = 0;
+        NUCLEOTIDE_INDEXES['U'] = 0;
+        NUCLEOTIDE_INDEXES['u'] = 0;
+        NUCLEOTIDE_INDEXES['C'] = 1;
+        NUCLEOTIDE_INDEXES['c'] = 1;
+        NUCLEOTIDE_INDEXES['A'] = 2;
+        NUCLEOTIDE_INDEXES['a'] = 2;
+        NUCLEOTIDE_INDEXES['G'] = 3;
+        NUCLEOTIDE_INDEXES['g'] = 3;
+
+    }
+
+    /**
+     * The NCBI index of the code.
+     */
+    public final int index;
+    /**
+     * The name.
+     */
+    public final String name;
+    /**
+     * The amino acids by codon index, the last one being for codons
+     * containing unknown nucleotides.
+     */
+    private final char[] aminoAcids;
+    /**
+     * Indicates whether a codon is a start codon by codon index.
+     */
+    private final boolean[] starts;
+
+    /**
+     * Constructor.
+     *
+     * @param index the NCBI index of the code
+     * @param name the name
+     * @param aminoAcids the amino acids of the codons in the NCBI order
+     * @param starts the start codons in the NCBI order, marked with 'M'
+     */
+    private GeneticCode(int index, String name, String aminoAcids, String starts) {
+
+        this.index = index;
+        this.name = name;
+
+        this.aminoAcids = new char[UNKNOWN_CODON + 1];
+        this.starts = new boolean[UNKNOWN_CODON + 1];
+
+        for (int i = 0; i < UNKNOWN_CODON; i++) {
+
+            this.aminoAcids[i] = aminoAcids.charAt(i);
+            this.starts[i] = starts.charAt(i) == 'M';
+
+        }
+
+        this.aminoAcids[UNKNOWN_CODON] = UNKNOWN;
+
+    }
+
+    /**
+     * Returns the index of the given nucleotide: 0 for T and U, 1 for C, 2 for
+     * A, 3 for G, and UNKNOWN_NUCLEOTIDE otherwise. The index of the
+     * complementary nucleotide is obtained with getComplement.
+     *
+     * @param nucleotide the nucleotide
+     *
+     * @return the index of the nucleotide
+     */
+    public static byte getNucleotideIndex(char nucleotide) {
+
+        return nucleotide < NUCLEOTIDE_INDEXES.length ? NUCLEOTIDE_INDEXES[nucleotide] : UNKNOWN_NUCLEOTIDE;
+
+    }
+
+    /**
+     * Returns the index of the complement of the nucleotide of the given
+     * index.
+     *
+     * @param nucleotideIndex the index of the nucleotide
+     *
+     * @return the index of the complement of the nucleotide
+     */
+    public static int getComplement(int nucleotideIndex) {
+
+        return nucleotideIndex == UNKNOWN_NUCLEOTIDE ? UNKNOWN_NUCLEOTIDE : nucleotideIndex ^ 2;
+
+    }
+
+    /**
+     * Returns the index of the codon made of the nucleotides of the given
+     * indexes, UNKNOWN_CODON if one of the nucleotides is unknown.
+     *
+     * @param nucleotide1 the index of the first nucleotide
+     * @param nucleotide2 the index of the second nucleotide
+     * @param nucleotide3 the index of the third nucleotide
+     *
+     * @return the index of the codon
+     */
+    public static int getCodonIndex(int nucleotide1, int nucleotide2, int nucleotide3) {
+
+        return nucleotide1 == UNKNOWN_NUCLEOTIDE || nucleotide2 == UNKNOWN_NUCLEOTIDE || nucleotide3 == UNKNOWN_NUCLEOTIDE
+                ? UNKNOWN_CODON
+                : (nucleotide1 << 4) | (nucleotide2 << 2) | nucleotide3;
+
+    }
+
+    /**
+     * Returns the amino acid encoded by the codon of the given index, STOP for
+     * stop codons, and UNKNOWN for codons containing unknown nucleotides.
+     *
+     * @param codonIndex the index of the codon
+     *
+     * @return the amino acid encoded by the codon
+     */
+    public char getAminoAcid(int codonIndex) {
+        return aminoAcids[codonIndex];
+    }
+
+    /**
+     * Indicates whether the codon of the given index is a stop codon.
+     *
+     * @param codonIndex the index of the codon
+     *
+     * @return a boolean indicating whether the codon is a stop codon
+     */
+    public boolean isStop(int codonIndex) {
+        return aminoAcids[codonIndex] == STOP;
+    }
+
+    /**
+     * Indicates whether the codon of the given index is a start codon.
+     *
+     * @param codonIndex the index of the codon
+     *
+     * @return a boolean indicating whether the codon is a start codon
+     */
+    public boolean isStart(int codonIndex) {
+        return starts[codonIndex];
+    }
+
+    /**
+     * Returns the genetic code of the given NCBI index.
+     *
+     * @param index the NCBI index of the genetic code
+     *
+     * @return the corresponding genetic code
+     */
+    public static GeneticCode getGeneticCode(int index) {
+
+        for (GeneticCode geneticCode : values()) {
+
+            if (geneticCode.index == index) {
+                return geneticCode;
+            }
+
+        }
+
+        throw new IllegalArgumentException("No genetic code found for index " + index + ".");
+    }
+
+    /**
+     * Returns the different options as command line description.
+     *
+     * @return the different options as command line description
+     */
+    public static String getCommandLineDescription() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (GeneticCode geneticCode : values()) {
+
+            if (stringBuilder.length() > 0) {
+                stringBuilder.append(", ");
+            }
+
+            stringBuilder.append(geneticCode.index).append(": ").append(geneticCode.name);
+
+        }
+
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
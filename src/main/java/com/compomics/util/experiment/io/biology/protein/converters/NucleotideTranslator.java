@@ -0,0 +1,840 @@
+package com.compomics.util.experiment.io.biology.protein.converters;
+
+import com.compomics.util.experiment.io.biology.protein.FastaIndex;
+import com.compomics.util.experiment.io.biology.protein.FastaSummary;
+import com.compomics.util.experiment.io.biology.protein.ProteinDatabase;
+import static com.compomics.util.io.IoUtil.ENCODING;
+import com.compomics.util.io.IoUtil;
+import com.compomics.util.waiting.WaitingHandler;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.commons.io.input.BoundedInputStream;
+
+/**
+ * This class translates the nucleotide sequences of a FASTA file into a
+ * protein FASTA file that can be indexed. The sequences are translated in the
+ * six reading frames, either split at stop codons or as open reading frames.
+ * The proteins are written with generic headers where the accession contains
+ * the id of the nucleotide sequence, the frame, and the 1-based coordinates
+ * of the translated nucleotides on the forward strand, e.g. chr1_-2_1201-1830.
+ *
+ * @author Marc Vaudel
+ */
+public class NucleotideTranslator {
+
+    /**
+     * Empty default constructor.
+     */
+    public NucleotideTranslator() {
+    }
+
+    /**
+     * The number of nucleotides to gather in a chunk of the FASTA file before
+     * processing it. Longer sequences are split in windows of this size.
+     */
+    private static final int CHUNK_SIZE = 1024 * 1024;
+    /**
+     * The default minimal length of the proteins to export.
+     */
+    public static final int DEFAULT_MINIMAL_LENGTH = 8;
+    /**
+     * The line separator used when writing the FASTA file.
+     */
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    /**
+     * Translates the given nucleotide FASTA file in six frames using the
+     * standard genetic code and all available processors.
+     *
+     * @param fastaIn the nucleotide FASTA file to read
+     * @param fastaOut the protein FASTA file to write
+     * @param waitingHandler a handler to allow canceling the import and
+     * displaying progress
+     *
+     * @return the summary of the protein FASTA file, null if the process was
+     * canceled
+     *
+     * @throws IOException exception thrown whenever an error happened while
+     * reading or writing a FASTA file
+     */
+    public static FastaSummary translate(
+            File fastaIn,
+            File fastaOut,
+            WaitingHandler waitingHandler
+    ) throws IOException {
+
+        return translate(
+                fastaIn,
+                fastaOut,
+                GeneticCode.standard,
+                TranslationMode.sixFrame,
+                DEFAULT_MINIMAL_LENGTH,
+                Runtime.getRuntime().availableProcessors(),
+                waitingHandler
+        );
+
+    }
+
+    /**
+     * Translates the given nucleotide FASTA file. The file is read in chunks
+     * aligned on the sequences, sequences longer than the chunk size are split
+     * in windows, the chunks are translated in parallel, and written in the
+     * order of the input file. Memory usage is hence bounded by the longest
+     * nucleotide sequence and the number of threads. The offset index of the
+     * protein FASTA file is saved next to the file, see FastaIndex.
+     *
+     * @param fastaIn the nucleotide FASTA file to read
+     * @param fastaOut the protein FASTA file to write
+     * @param geneticCode the genetic code to use
+     * @param translationMode the translation mode
+     * @param minimalLength the minimal number of amino acids of the proteins
+     * to export
+     * @param nThreads the number of threads to use
+     * @param waitingHandler a handler to allow canceling the import and
+     * displaying progress
+     *
+     * @return the summary of the protein FASTA file, null if the process was
+     * canceled
+     *
+     * @throws IOException exception thrown whenever an error happened while
+     * reading or writing a FASTA file
+     */
+    public static FastaSummary translate(
+            File fastaIn,
+            File fastaOut,
+            GeneticCode geneticCode,
+            TranslationMode translationMode,
+            int minimalLength,
+            int nThreads,
+            WaitingHandler waitingHandler
+    ) throws IOException {
+
+        if (minimalLength < 1) {
+            throw new IllegalArgumentException("The minimal length of the proteins must be strictly positive.");
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+        long fileLength = fastaIn.length();
+        FastaIndex fastaIndex = null;
+        boolean canceled = false;
+
+        try (BoundedInputStream countingInputStream = BoundedInputStream.builder().setFile(fastaIn).get();
+                BufferedReader br = new BufferedReader(new InputStreamReader(countingInputStream, ENCODING));
+                BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(fastaOut), CHUNK_SIZE)) {
+
+            ChunkQueue chunkQueue = new ChunkQueue(pool, 2 * nThreads, bos);
+            ArrayList<Window> windows = new ArrayList<>();
+            int chunkLength = 0;
+            NucleotideSequence nucleotideSequence = null;
+            String line;
+
+            while (true) {
+
+                line = br.readLine();
+
+                if (line != null) {
+
+                    line = line.trim();
+
+                    if (line.length() == 0) {
+                        continue;
+                    }
+                }
+
+                if (line == null || line.charAt(0) == '>') {
+
+                    if (nucleotideSequence != null) {
+
+                        if (nucleotideSequence.length == 0) {
+
+                            throw new IllegalArgumentException(
+                                    "No sequence found for "
+                                    + nucleotideSequence.id
+                                    + "."
+                            );
+
+                        }
+
+                        for (int start = 0; start < nucleotideSequence.length; start += CHUNK_SIZE) {
+
+                            int end = Math.min(start + CHUNK_SIZE, nucleotideSequence.length);
+                            windows.add(new Window(nucleotideSequence, start, end));
+                            chunkLength += end - start;
+
+                            if (chunkLength >= CHUNK_SIZE) {
+
+                                chunkQueue.submit(new TranslationChunk(windows, geneticCode, translationMode, minimalLength));
+                                windows = new ArrayList<>();
+                                chunkLength = 0;
+
+                            }
+                        }
+                    }
+
+                    if (line == null) {
+                        break;
+                    }
+
+                    if (waitingHandler != null) {
+
+                        if (waitingHandler.isRunCanceled()) {
+
+                            canceled = true;
+                            break;
+
+                        }
+
+                        double progress = 100.0 * ((double) countingInputStream.getCount()) / fileLength;
+                        waitingHandler.setSecondaryProgressCounter((int) progress);
+
+                    }
+
+                    nucleotideSequence = new NucleotideSequence(getId(line));
+
+                } else {
+
+                    if (nucleotideSequence == null) {
+                        throw new IllegalArgumentException("No header information found in the fasta file.");
+                    }
+
+                    nucleotideSequence.append(line);
+
+                }
+            }
+
+            if (!canceled) {
+
+                if (!windows.isEmpty()) {
+
+                    chunkQueue.submit(new TranslationChunk(windows, geneticCode, translationMode, minimalLength));
+
+                }
+
+                chunkQueue.flush();
+                fastaIndex = chunkQueue.fastaIndex;
+
+            }
+
+        } finally {
+
+            pool.shutdownNow();
+
+        }
+
+        if (canceled) {
+
+            // do not leave a partial protein file behind
+            fastaOut.delete();
+            return null;
+
+        }
+
+        fastaIndex.save(fastaOut);
+
+        TreeMap<String, Integer> speciesOccurrence = new TreeMap<>();
+        HashMap<ProteinDatabase, Integer> databaseType = new HashMap<>(1);
+        int nProteins = fastaIndex.getNProteins();
+
+        if (nProteins > 0) {
+
+            speciesOccurrence.put("Unknown", nProteins);
+            databaseType.put(ProteinDatabase.Generic_Split_Header, nProteins);
+
+        }
+
+        return new FastaSummary(
+                IoUtil.removeExtension(fastaOut.getName()),
+                fastaOut.getAbsolutePath(),
+                new Date(fastaOut.lastModified()).toString(),
+                fastaOut,
+                speciesOccurrence,
+                databaseType,
+                nProteins,
+                nProteins,
+                fastaOut.lastModified()
+        );
+    }
+
+    /**
+     * Returns the id of a nucleotide sequence from its header, i.e. the first
+     * word after the '>', where the '|' characters are replaced by
+     * underscores.
+     *
+     * @param header the header
+     *
+     * @return the id of the nucleotide sequence
+     */
+    private static String getId(String header) {
+
+        int end = 1;
+
+        while (end < header.length() && !Character.isWhitespace(header.charAt(end))) {
+            end++;
+        }
+
+        if (end == 1) {
+            throw new IllegalArgumentException("No identifier found in header " + header + ".");
+        }
+
+        return header.substring(1, end).replace('|', '_');
+
+    }
+
+    /**
+     * Nucleotide sequence stored as nucleotide indexes, see GeneticCode.
+     */
+    private static class NucleotideSequence {
+
+        /**
+         * The id of the sequence.
+         */
+        private final String id;
+        /**
+         * The indexes of the nucleotides.
+         */
+        private byte[] nucleotides = new byte[1024];
+        /**
+         * The number of nucleotides.
+         */
+        private int length = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param id the id of the sequence
+         */
+        private NucleotideSequence(String id) {
+            this.id = id;
+        }
+
+        /**
+         * Appends a line of the FASTA file to the sequence.
+         *
+         * @param line the line
+         */
+        private void append(String line) {
+
+            if (length + line.length() > nucleotides.length) {
+
+                long newLength = Math.max(2L * nucleotides.length, (long) length + line.length());
+
+                if (newLength > Integer.MAX_VALUE - 8) {
+                    throw new IllegalArgumentException("Nucleotide sequence " + id + " is too long.");
+                }
+
+                nucleotides = Arrays.copyOf(nucleotides, (int) newLength);
+
+            }
+
+            for (int i = 0; i < line.length(); i++) {
+
+                nucleotides[length++] = GeneticCode.getNucleotideIndex(line.charAt(i));
+
+            }
+        }
+
+        /**
+         * Returns the index of the codon at the given position of the given
+         * strand.
+         *
+         * @param forward boolean indicating whether the forward or reverse
+         * strand should be used
+         * @param position the position of the codon in the coordinates of the
+         * strand
+         *
+         * @return the index of the codon
+         */
+        private int getCodon(boolean forward, int position) {
+
+            if (forward) {
+
+                return GeneticCode.getCodonIndex(
+                        nucleotides[position],
+                        nucleotides[position + 1],
+                        nucleotides[position + 2]
+                );
+
+            }
+
+            int reversePosition = length - 1 - position;
+
+            return GeneticCode.getCodonIndex(
+                    GeneticCode.getComplement(nucleotides[reversePosition]),
+                    GeneticCode.getComplement(nucleotides[reversePosition - 1]),
+                    GeneticCode.getComplement(nucleotides[reversePosition - 2])
+            );
+        }
+    }
+
+    /**
+     * A window of a nucleotide sequence.
+     */
+    private static class Window {
+
+        /**
+         * The nucleotide sequence.
+         */
+        private final NucleotideSequence nucleotideSequence;
+        /**
+         * The start of the window on the forward strand, inclusive.
+         */
+        private final int start;
+        /**
+         * The end of the window on the forward strand, exclusive.
+         */
+        private final int end;
+
+        /**
+         * Constructor.
+         *
+         * @param nucleotideSequence the nucleotide sequence
+         * @param start the start of the window on the forward strand,
+         * inclusive
+         * @param end the end of the window on the forward strand, exclusive
+         */
+        private Window(NucleotideSequence nucleotideSequence, int start, int end) {
+
+            this.nucleotideSequence = nucleotideSequence;
+            this.start = start;
+            this.end = end;
+
+        }
+    }
+
+    /**
+     * Queue of the chunks being translated, writing the chunks in the order of
+     * submission.
+     */
+    private static class ChunkQueue {
+
+        /**
+         * The thread pool.
+         */
+        private final ExecutorService pool;
+        /**
+         * The maximal number of chunks pending.
+         */
+        private final int capacity;
+        /**
+         * The chunks pending.
+         */
+        private final ArrayDeque<Future<TranslationChunk>> pendingChunks;
+        /**
+         * The stream to write to.
+         */
+        private final OutputStream outputStream;
+        /**
+         * The index of the proteins written.
+         */
+        private final FastaIndex fastaIndex = new FastaIndex(1024);
+        /**
+         * The offset of the next chunk in the output file.
+         */
+        private long offset = 0;
+
+        /**
+         * Constructor.
+         *
+         * @param pool the thread pool
+         * @param capacity the maximal number of chunks pending
+         * @param outputStream the stream to write to
+         */
+        private ChunkQueue(ExecutorService pool, int capacity, OutputStream outputStream) {
+
+            this.pool = pool;
+            this.capacity = capacity;
+            this.pendingChunks = new ArrayDeque<>(capacity);
+            this.outputStream = outputStream;
+
+        }
+
+        /**
+         * Submits a chunk for translation, writes the oldest chunk first if
+         * the queue is full.
+         *
+         * @param translationChunk the chunk to translate
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * translating or writing a chunk
+         */
+        private void submit(TranslationChunk translationChunk) throws IOException {
+
+            if (pendingChunks.size() >= capacity) {
+
+                offset = getChunk(pendingChunks.pollFirst()).write(outputStream, offset, fastaIndex);
+
+            }
+
+            pendingChunks.add(pool.submit(translationChunk));
+
+        }
+
+        /**
+         * Waits for all pending chunks and writes them.
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * translating or writing a chunk
+         */
+        private void flush() throws IOException {
+
+            while (!pendingChunks.isEmpty()) {
+
+                offset = getChunk(pendingChunks.pollFirst()).write(outputStream, offset, fastaIndex);
+
+            }
+        }
+
+        /**
+         * Waits for a chunk to be processed and returns it.
+         *
+         * @param future the future of the chunk
+         *
+         * @return the processed chunk
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * processing the chunk
+         */
+        private static TranslationChunk getChunk(
+                Future<TranslationChunk> future
+        ) throws IOException {
+
+            try {
+
+                return future.get();
+
+            } catch (InterruptedException e) {
+
+                throw new IOException("Translation interrupted.", e);
+
+            } catch (ExecutionException e) {
+
+                Throwable cause = e.getCause();
+
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+
+                throw new IOException("An error occurred while translating the nucleotide sequences.", cause);
+
+            }
+        }
+    }
+
+    /**
+     * Callable translating the windows of a chunk of the FASTA file to a
+     * buffer.
+     */
+    private static class TranslationChunk implements Callable<TranslationChunk> {
+
+        /**
+         * The windows to translate.
+         */
+        private final ArrayList<Window> windows;
+        /**
+         * The genetic code.
+         */
+        private final GeneticCode geneticCode;
+        /**
+         * The translation mode.
+         */
+        private final TranslationMode translationMode;
+        /**
+         * The minimal length of the proteins.
+         */
+        private final int minimalLength;
+        /**
+         * The content of the chunk to write.
+         */
+        private final ByteArrayOutputStream content = new ByteArrayOutputStream(CHUNK_SIZE);
+        /**
+         * The accessions of the proteins written.
+         */
+        private final ArrayList<String> accessions = new ArrayList<>();
+        /**
+         * The offsets of the headers relative to the start of the chunk.
+         */
+        private int[] offsets = new int[1024];
+        /**
+         * The lengths of the proteins.
+         */
+        private int[] lengths = new int[1024];
+        /**
+         * Buffer for the protein sequences.
+         */
+        private byte[] sequenceBuffer = new byte[1024];
+        /**
+         * The line separator.
+         */
+        private final byte[] lineSeparator;
+        /**
+         * The charset.
+         */
+        private final Charset charset = Charset.forName(ENCODING);
+
+        /**
+         * Constructor.
+         *
+         * @param windows the windows to translate
+         * @param geneticCode the genetic code
+         * @param translationMode the translation mode
+         * @param minimalLength the minimal length of the proteins
+         */
+        private TranslationChunk(
+                ArrayList<Window> windows,
+                GeneticCode geneticCode,
+                TranslationMode translationMode,
+                int minimalLength
+        ) {
+
+            this.windows = windows;
+            this.geneticCode = geneticCode;
+            this.translationMode = translationMode;
+            this.minimalLength = minimalLength;
+            this.lineSeparator = LINE_SEPARATOR.getBytes(charset);
+
+        }
+
+        @Override
+        public TranslationChunk call() throws IOException {
+
+            for (Window window : windows) {
+
+                NucleotideSequence nucleotideSequence = window.nucleotideSequence;
+
+                for (int frame = 0; frame < 3; frame++) {
+
+                    translateFrame(nucleotideSequence, true, frame, window.start, window.end);
+
+                }
+
+                for (int frame = 0; frame < 3; frame++) {
+
+                    translateFrame(nucleotideSequence, false, frame, nucleotideSequence.length - window.end, nucleotideSequence.length - window.start);
+
+                }
+            }
+
+            return this;
+
+        }
+
+        /**
+         * Translates the part of a reading frame corresponding to the given window
+         * and exports the proteins starting in the window. Proteins extend past
+         * the end of the window until the next stop codon.
+         *
+         * @param nucleotideSequence the nucleotide sequence
+         * @param forward boolean indicating whether the forward or reverse strand
+         * should be translated
+         * @param frame the index of the frame on the strand, 0, 1, or 2
+         * @param windowStart the start of the window in the coordinates of the
+         * strand, inclusive
+         * @param windowEnd the end of the window in the coordinates of the strand,
+         * exclusive
+         *
+         * @throws IOException exception thrown if an error occurred while writing
+         * a protein
+         */
+        private void translateFrame(
+                NucleotideSequence nucleotideSequence,
+                boolean forward,
+                int frame,
+                int windowStart,
+                int windowEnd
+        ) throws IOException {
+
+            int length = nucleotideSequence.length;
+            int firstCodon = windowStart + Math.floorMod(frame - windowStart, 3);
+
+            if (firstCodon + 3 > length) {
+                return;
+            }
+
+            // Look for the stop codon preceding the window
+            int position = firstCodon - 3;
+
+            while (position >= frame && !geneticCode.isStop(nucleotideSequence.getCodon(forward, position))) {
+                position -= 3;
+            }
+
+            int segmentStart = position + 3;
+            int orfStart = -1;
+            boolean sixFrame = translationMode == TranslationMode.sixFrame;
+
+            for (position = segmentStart; position + 3 <= length; position += 3) {
+
+                int codon = nucleotideSequence.getCodon(forward, position);
+
+                if (geneticCode.isStop(codon)) {
+
+                    int proteinStart = sixFrame ? segmentStart : orfStart;
+
+                    if (proteinStart >= windowStart && proteinStart < windowEnd) {
+
+                        write(nucleotideSequence, forward, frame, proteinStart, position);
+
+                    }
+
+                    if (position + 3 >= windowEnd) {
+                        return;
+                    }
+
+                    segmentStart = position + 3;
+                    orfStart = -1;
+
+                } else if (!sixFrame && orfStart == -1) {
+
+                    if (geneticCode.isStart(codon)) {
+
+                        orfStart = position;
+
+                    } else if (position + 3 >= windowEnd) {
+
+                        return;
+
+                    }
+                }
+            }
+
+            int proteinStart = sixFrame ? segmentStart : orfStart;
+
+            if (proteinStart >= windowStart && proteinStart < windowEnd) {
+
+                write(nucleotideSequence, forward, frame, proteinStart, position);
+
+            }
+        }
+
+        /**
+         * Translates the given segment of a reading frame and writes it to
+         * the buffer if long enough.
+         *
+         * @param nucleotideSequence the nucleotide sequence
+         * @param forward boolean indicating whether the segment is on the
+         * forward or reverse strand
+         * @param frame the index of the frame on the strand
+         * @param start the start of the segment in the coordinates of the
+         * strand, inclusive
+         * @param end the end of the segment in the coordinates of the strand,
+         * exclusive
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * writing the protein
+         */
+        private void write(
+                NucleotideSequence nucleotideSequence,
+                boolean forward,
+                int frame,
+                int start,
+                int end
+        ) throws IOException {
+
+            int proteinLength = (end - start) / 3;
+
+            if (proteinLength < minimalLength) {
+                return;
+            }
+
+            if (sequenceBuffer.length < proteinLength) {
+                sequenceBuffer = new byte[Math.max(proteinLength, 2 * sequenceBuffer.length)];
+            }
+
+            for (int i = 0, position = start; i < proteinLength; i++, position += 3) {
+
+                sequenceBuffer[i] = (byte) geneticCode.getAminoAcid(nucleotideSequence.getCodon(forward, position));
+
+            }
+
+            if (translationMode == TranslationMode.orf) {
+                sequenceBuffer[0] = 'M';
+            }
+
+            int sequenceStart = forward ? start + 1 : nucleotideSequence.length - end + 1;
+            int sequenceEnd = forward ? end : nucleotideSequence.length - start;
+            String frameLabel = (forward ? "+" : "-") + (frame + 1);
+
+            String accession = new StringBuilder(nucleotideSequence.id.length() + 24)
+                    .append(nucleotideSequence.id)
+                    .append('_').append(frameLabel)
+                    .append('_').append(sequenceStart)
+                    .append('-').append(sequenceEnd)
+                    .toString();
+
+            int nProteins = accessions.size();
+
+            if (nProteins == offsets.length) {
+
+                offsets = Arrays.copyOf(offsets, 2 * nProteins);
+                lengths = Arrays.copyOf(lengths, 2 * nProteins);
+
+            }
+
+            accessions.add(accession);
+            offsets[nProteins] = content.size();
+            lengths[nProteins] = proteinLength;
+
+            String header = new StringBuilder(2 * accession.length() + 48)
+                    .append(">generic|").append(accession)
+                    .append('|').append(nucleotideSequence.id)
+                    .append(" frame=").append(frameLabel)
+                    .append(" start=").append(sequenceStart)
+                    .append(" end=").append(sequenceEnd)
+                    .toString();
+
+            content.write(header.getBytes(charset));
+            content.write(lineSeparator);
+            content.write(sequenceBuffer, 0, proteinLength);
+            content.write(lineSeparator);
+            content.write(lineSeparator);
+
+        }
+
+        /**
+         * Writes the content of the chunk and indexes the proteins.
+         *
+         * @param outputStream the stream to write to
+         * @param offset the offset of the chunk in the output file
+         * @param fastaIndex the index where to store the protein offsets
+         *
+         * @return the offset of the next chunk
+         *
+         * @throws IOException exception thrown if an error occurred while
+         * writing the chunk
+         */
+        private long write(
+                OutputStream outputStream,
+                long offset,
+                FastaIndex fastaIndex
+        ) throws IOException {
+
+            content.writeTo(outputStream);
+
+            for (int i = 0; i < accessions.size(); i++) {
+
+                fastaIndex.add(accessions.get(i), offset + offsets[i], lengths[i]);
+
+            }
+
+            return offset + content.size();
+
+        }
+    }
+}
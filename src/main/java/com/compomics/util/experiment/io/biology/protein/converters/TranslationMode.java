@@ -0,0 +1,87 @@
+package com.compomics.util.experiment.io.biology.protein.converters;
+
+/**
+ * Enum of the modes available to translate nucleotide sequences.
+ *
+ * @author Marc Vaudel
+ */
+public enum TranslationMode {
+
+    /**
+     * The six reading frames are translated and split at stop codons.
+     */
+    sixFrame(0, "Six-Frame"),
+    /**
+     * The open reading frames, from the first start codon after a stop codon
+     * to the next stop codon, are translated in the six reading frames. The
+     * start codon is translated to methionine.
+     */
+    orf(1, "Open Reading Frames");
+
+    /**
+     * The index.
+     */
+    public final int index;
+    /**
+     * The name.
+     */
+    public final String name;
+
+    /**
+     * Constructor.
+     *
+     * @param index the index as integer
+     * @param name the name
+     */
+    private TranslationMode(int index, String name) {
+        this.index = index;
+        this.name = name;
+    }
+
+    /**
+     * Returns the translation mode of the given index.
+     *
+     * @param index the index of the translation mode
+     *
+     * @return the corresponding translation mode
+     */
+    public static TranslationMode getTranslationMode(int index) {
+
+        for (TranslationMode translationMode : values()) {
+
+            if (translationMode.index == index) {
+                return translationMode;
+            }
+
+        }
+
+        throw new IllegalArgumentException("No translation mode found for index " + index + ".");
+    }
+
+    /**
+     * Returns the different options as command line description.
+     *
+     * @return the different options as command line description
+     */
+    public static String getCommandLineDescription() {
+
+        StringBuilder stringBuilder = new StringBuilder();
+
+        for (TranslationMode translationMode : values()) {
+
+            if (stringBuilder.length() > 0) {
+                stringBuilder.append(", ");
+            }
+
+            stringBuilder.append(translationMode.index).append(": ").append(translationMode.name);
+
+        }
+
+        return stringBuilder.toString();
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -214,8 +214,8 @@ public class TideIdfileReader extends ExperimentObject implements IdfileReader {
             String fileName = IoUtil.getFileName(tideTsvFile);
             String spectrumFileName = getMgfFileName(fileName);
 
-            // required map given that the tide output is _not_ sorted on scan index
-            HashMap<Long, SpectrumMatch> tempSpectrumMatchesMap = new HashMap<>();
+            // required map given that the tide output is _not_ sorted on scan index, the spectra are all in the same file and indexed by title
+            HashMap<String, SpectrumMatch> tempSpectrumMatchesMap = new HashMap<>();
 
             // get the psms
             while ((line = reader.readLine()) != null) {
@@ -251,12 +251,11 @@ public class TideIdfileReader extends ExperimentObject implements IdfileReader {
                     }
 
                     String spectrumTitle = spectrumProvider.getSpectrumTitles(IoUtil.removeExtension(spectrumFileName))[scanNumber]; // @TODO: does not work for mzML files
-                    Long tempSpectrumMatchKey = ExperimentObject.asLong(String.join("", spectrumFileName, spectrumTitle));
-                    SpectrumMatch currentMatch = tempSpectrumMatchesMap.get(tempSpectrumMatchKey);
+                    SpectrumMatch currentMatch = tempSpectrumMatchesMap.get(spectrumTitle);
 
                     if (currentMatch == null) {
                         currentMatch = new SpectrumMatch(spectrumFileName, spectrumTitle);
-                        tempSpectrumMatchesMap.put(tempSpectrumMatchKey, currentMatch);
+                        tempSpectrumMatchesMap.put(spectrumTitle, currentMatch);
                     }
 
                     // get the modifications
@@ -330,7 +329,7 @@ public class TideIdfileReader extends ExperimentObject implements IdfileReader {
             }
 
             // iterate the matches and add to the results
-            Iterator<Long> iterator = tempSpectrumMatchesMap.keySet().iterator();
+            Iterator<String> iterator = tempSpectrumMatchesMap.keySet().iterator();
 
             while (iterator.hasNext()) {
                 result.add(tempSpectrumMatchesMap.get(iterator.next()));
@@ -1,5 +1,6 @@
 package com.compomics.util.experiment.io.identification.writers;
 
+import static com.compomics.util.Util.LINE_SEPARATOR;
 import com.compomics.util.experiment.biology.enzymes.Enzyme;
 import com.compomics.util.experiment.biology.ions.Ion;
 import com.compomics.util.experiment.biology.ions.NeutralLoss;
@@ -25,6 +26,7 @@ import com.compomics.util.experiment.io.biology.protein.FastaSummary;
 import com.compomics.util.experiment.io.biology.protein.ProteinDetailsProvider;
 import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
 import com.compomics.util.experiment.io.identification.MzIdentMLVersion;
+import com.compomics.util.experiment.personalization.KeyBuilder;
 import com.compomics.util.experiment.mass_spectrometry.SpectrumProvider;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
 import com.compomics.util.io.IoUtil;
@@ -36,6 +38,7 @@ import com.compomics.util.parameters.identification.search.ModificationParameter
 import com.compomics.util.parameters.identification.search.SearchParameters;
 import com.compomics.util.pride.CvTerm;
 import com.compomics.util.threading.SimpleSemaphore;
+import com.compomics.util.waiting.WaitingHandler;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileNotFoundException;
@@ -45,12 +48,17 @@ import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.text.StringEscapeUtils;
 
 /**
@@ -80,6 +88,10 @@ public class SimpleMzIdentMLExporter implements Closeable {
      * Key for the data section.
      */
     public static final String DATA_SECTION = "DATA_SECTION";
+    /**
+     * Key for the end of the data section.
+     */
+    public static final String DATA_END_SECTION = "DATA_END_SECTION";
     /**
      * The version of the mzIdentML format.
      */
@@ -89,6 +101,10 @@ public class SimpleMzIdentMLExporter implements Closeable {
      * matching keys will be used for the peptides.
      */
     private final boolean peptideInference;
+    /**
+     * The version of the peptide matching keys, see KeyBuilder.
+     */
+    private int keyVersion = KeyBuilder.KEY_VERSION;
     /**
      * The maximum number of neutral losses a fragment ion can have in order to
      * be annotated.
@@ -170,7 +186,12 @@ public class SimpleMzIdentMLExporter implements Closeable {
     /**
      * Set of already encountered peptide keys.
      */
-    private final HashSet<Long> peptideKeys = new HashSet<>();
+    private final Set<Long> peptideKeys = ConcurrentHashMap.newKeySet();
+    /**
+     * The names of the sections containing the spectrum identification results
+     * written in parallel, in the order of the file.
+     */
+    private final ArrayList<String> dataSliceSections = new ArrayList<>();
     /**
      * Count for the number of psms written.
      */
@@ -274,6 +295,103 @@ public class SimpleMzIdentMLExporter implements Closeable {
     )
             throws FileNotFoundException, IOException {
 
+        this(
+                softwareName,
+                softwareVersion,
+                softwareUrl,
+                tempFolder,
+                destinationFile,
+                spectrumFiles,
+                searchEngineFile,
+                searchEngines,
+                fastaFile,
+                identificationParameters,
+                sequenceProvider,
+                proteinDetailsProvider,
+                spectrumProvider,
+                modificationProvider,
+                fastaSummary,
+                contactFirstName,
+                contactLastName,
+                contactAddress,
+                contactEmail,
+                contactOrganizationName,
+                contactOrganizationAddress,
+                contactOrganizationEmail,
+                peptideInference,
+                true
+        );
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param softwareName The name of the software used to write the mzIdentML
+     * file.
+     * @param softwareVersion The version of the software used to write the
+     * mzIdentML file.
+     * @param softwareUrl The URL of the software used to write the mzIdentML
+     * file.
+     * @param tempFolder The folder to use to write temporary files.
+     * @param destinationFile The mzIdentML file to write.
+     * @param spectrumFiles The spectrum files.
+     * @param searchEngineFile The search engine file used to identify the
+     * spectra.
+     * @param searchEngines Map of the search engine(s) and their version used
+     * to identify the spectra.
+     * @param fastaFile The fasta file containing the peptide/protein sequences.
+     * @param identificationParameters The identification parameters used to
+     * identify the spectra.
+     * @param sequenceProvider A sequence provider for the given fasta file.
+     * @param proteinDetailsProvider A protein details provider for the given
+     * fasta file.
+     * @param spectrumProvider A spectrum provider for the given spectrum file.
+     * @param modificationProvider A modification provider.
+     * @param fastaSummary A summary for the given fasta file.
+     * @param contactFirstName Contact first name.
+     * @param contactLastName Contact last name.
+     * @param contactAddress Contact address.
+     * @param contactEmail Contact email.
+     * @param contactOrganizationName Contact organization name.
+     * @param contactOrganizationAddress Contact organization address.
+     * @param contactOrganizationEmail Contact organization email.
+     * @param peptideInference Boolean indicating whether peptide inference was
+     * performed, in which case matching keys will be used for the peptides.
+     * @param gzip Boolean indicating whether the mzIdentML file should be
+     * gzipped.
+     *
+     * @throws FileNotFoundException Exception thrown if a file is not found.
+     * @throws IOException Exception thrown if an error occurred while reading
+     * or writing a file.
+     */
+    public SimpleMzIdentMLExporter(
+            String softwareName,
+            String softwareVersion,
+            String softwareUrl,
+            File tempFolder,
+            File destinationFile,
+            ArrayList<File> spectrumFiles,
+            File searchEngineFile,
+            HashMap<String, ArrayList<String>> searchEngines,
+            File fastaFile,
+            IdentificationParameters identificationParameters,
+            SequenceProvider sequenceProvider,
+            ProteinDetailsProvider proteinDetailsProvider,
+            SpectrumProvider spectrumProvider,
+            ModificationProvider modificationProvider,
+            FastaSummary fastaSummary,
+            String contactFirstName,
+            String contactLastName,
+            String contactAddress,
+            String contactEmail,
+            String contactOrganizationName,
+            String contactOrganizationAddress,
+            String contactOrganizationEmail,
+            boolean peptideInference,
+            boolean gzip
+    )
+            throws FileNotFoundException, IOException {
+
         this.softwareName = softwareName;
         this.softwareVersion = softwareVersion;
         this.softwareUrl = softwareUrl;
@@ -291,9 +409,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
         this.writer = new WriterBySection(
                 destinationFile,
                 tempFolder,
+                true,
                 false,
-                false,
-                true
+                gzip
         );
 
         initWriter();
@@ -425,14 +543,25 @@ public class SimpleMzIdentMLExporter implements Closeable {
         // Section completed, write to main file and delete temp file.
         writer.sectionCompleted(ANALYSIS_SECTION);
 
+        // Section completed, write to main file and delete temp file.
+        writer.sectionCompleted(DATA_SECTION);
+
+        // The spectrum identification results written in parallel, in order.
+        for (String sliceSection : dataSliceSections) {
+
+            writer.sectionCompleted(sliceSection);
+
+        }
+
         // The end of the data collection section.
+        indentationMap.put(DATA_END_SECTION, indentationMap.get(DATA_SECTION));
         finalizeDataCollection();
 
         // The mzIdentML end tag.
         writeMzIdentMLEndTag();
 
         // Section completed, write to main file and delete temp file.
-        writer.sectionCompleted(DATA_SECTION);
+        writer.sectionCompleted(DATA_END_SECTION);
 
     }
 
@@ -863,27 +992,270 @@ public class SimpleMzIdentMLExporter implements Closeable {
             PeptideSpectrumAnnotator peptideSpectrumAnnotator
     ) {
 
-        Integer spectrumIndex = spectrumTitleToIndexMap.get(spectrumTitle);
+        int spectrumIndex = registerSpectrum(spectrumTitle);
 
-        if (spectrumIndex == null) {
+        writePeptides(peptideAssumptions);
 
-            spectrumSemaphore.acquire();
+        spectrumMatchSemaphore.acquire();
 
-            spectrumIndex = spectrumTitleToIndexMap.size();
-            spectrumTitleToIndexMap.put(spectrumTitle, spectrumIndex);
+        int spectrumMatchIndex = ++psmCount;
 
-            spectrumSemaphore.release();
+        spectrumMatchSemaphore.release();
 
-        } else {
+        StringBuilder sb = new StringBuilder();
+
+        appendSpectrumIdentificationResult(
+                sb,
+                indentationMap.get(DATA_SECTION),
+                spectrumMatchIndex,
+                spectrumIndex,
+                spectrumFile,
+                spectrumTitle,
+                peptideAssumptions,
+                modificationLocalizationScores,
+                peptideSpectrumAnnotator
+        );
+
+        writer.write(DATA_SECTION, sb.toString());
+
+    }
+
+    /**
+     * Adds peptide-spectrum matches to the file. The peptides are written in
+     * the order of the matches, then the spectrum identification results are
+     * rendered in parallel, every thread writing a contiguous slice of the
+     * matches to its own temporary section. The sections are appended in order
+     * after the matches added using addSpectrum upon finalization of the file.
+     *
+     * @param spectrumFileNames The spectrum file of every match.
+     * @param spectrumTitles The spectrum title of every match.
+     * @param peptideAssumptions The peptide assumptions of every match.
+     * @param modificationLocalizationScores The modification localization
+     * scores for the peptide assumptions of every match.
+     * @param nThreads The number of threads to use.
+     * @param waitingHandler A waiting handler allowing displaying progress and
+     * canceling the process, can be null.
+     *
+     * @throws FileNotFoundException Exception thrown if the temp folder is not
+     * found or not writable.
+     * @throws IOException Exception thrown if an error occurs while writing a
+     * temporary file.
+     */
+    public void addSpectra(
+            ArrayList<String> spectrumFileNames,
+            ArrayList<String> spectrumTitles,
+            ArrayList<ArrayList<PeptideAssumption>> peptideAssumptions,
+            ArrayList<ArrayList<TreeMap<Double, HashMap<Integer, Double>>>> modificationLocalizationScores,
+            int nThreads,
+            WaitingHandler waitingHandler
+    ) throws FileNotFoundException, IOException {
+
+        int nSpectra = spectrumTitles.size();
+
+        if (spectrumFileNames.size() != nSpectra
+                || peptideAssumptions.size() != nSpectra
+                || modificationLocalizationScores.size() != nSpectra) {
+
+            throw new IllegalArgumentException("The number of spectrum files, titles, peptide assumptions, and modification localization scores must be the same.");
+
+        }
+
+        if (nSpectra == 0) {
+            return;
+        }
+
+        int[] spectrumIndexes = new int[nSpectra];
+
+        for (int i = 0; i < nSpectra; i++) {
+
+            spectrumIndexes[i] = registerSpectrum(spectrumTitles.get(i));
+
+        }
+
+        // The peptides are written in the order of the matches so that the file does not depend on the threading.
+        for (int i = 0; i < nSpectra; i++) {
+
+            writePeptides(peptideAssumptions.get(i));
+
+        }
+
+        spectrumMatchSemaphore.acquire();
+
+        int firstSpectrumMatchIndex = psmCount + 1;
+        psmCount += nSpectra;
+
+        spectrumMatchSemaphore.release();
+
+        int nSlices = Math.min(nThreads, nSpectra);
+        String[] sliceSections = new String[nSlices];
+
+        synchronized (dataSliceSections) {
+
+            for (int sliceI = 0; sliceI < nSlices; sliceI++) {
+
+                String sliceSection = String.join("_", DATA_SECTION, Integer.toString(dataSliceSections.size() + 1));
+                writer.registerSection(sliceSection);
+                dataSliceSections.add(sliceSection);
+                sliceSections[sliceI] = sliceSection;
+
+            }
+        }
+
+        if (waitingHandler != null) {
+
+            waitingHandler.resetSecondaryProgressCounter();
+            waitingHandler.setMaxSecondaryProgressCounter(nSpectra);
+
+        }
+
+        int indentation = indentationMap.get(DATA_SECTION);
+        ArrayList<Callable<Object>> tasks = new ArrayList<>(nSlices);
+
+        for (int sliceI = 0; sliceI < nSlices; sliceI++) {
+
+            int start = (int) (((long) nSpectra) * sliceI / nSlices);
+            int end = (int) (((long) nSpectra) * (sliceI + 1) / nSlices);
+            String sliceSection = sliceSections[sliceI];
+
+            tasks.add(() -> {
+
+                PeptideSpectrumAnnotator peptideSpectrumAnnotator = new PeptideSpectrumAnnotator();
+                StringBuilder sb = new StringBuilder();
+
+                for (int i = start; i < end; i++) {
+
+                    if (waitingHandler != null && waitingHandler.isRunCanceled()) {
+                        return null;
+                    }
+
+                    sb.setLength(0);
+
+                    appendSpectrumIdentificationResult(
+                            sb,
+                            indentation,
+                            firstSpectrumMatchIndex + i,
+                            spectrumIndexes[i],
+                            spectrumFileNames.get(i),
+                            spectrumTitles.get(i),
+                            peptideAssumptions.get(i),
+                            modificationLocalizationScores.get(i),
+                            peptideSpectrumAnnotator
+                    );
+
+                    writer.write(sliceSection, sb.toString());
+
+                    if (waitingHandler != null) {
+                        waitingHandler.increaseSecondaryProgressCounter();
+                    }
+                }
+
+                return null;
+
+            });
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(nSlices);
+
+        try {
+
+            for (Future<Object> future : pool.invokeAll(tasks)) {
+
+                future.get();
+
+            }
+
+        } catch (InterruptedException | ExecutionException e) {
+
+            if (waitingHandler != null) {
+                waitingHandler.setRunCanceled();
+            }
+
+            throw new RuntimeException(e);
+
+        } finally {
+
+            pool.shutdown();
+
+        }
+    }
+
+    /**
+     * Registers a spectrum and returns its index.
+     *
+     * @param spectrumTitle The spectrum title.
+     *
+     * @return The index of the spectrum.
+     */
+    private int registerSpectrum(
+            String spectrumTitle
+    ) {
+
+        spectrumSemaphore.acquire();
+
+        if (spectrumTitleToIndexMap.containsKey(spectrumTitle)) {
+
+            spectrumSemaphore.release();
 
             throw new IllegalArgumentException("Multiple entries for the same spectrum.");
 
         }
 
+        int spectrumIndex = spectrumTitleToIndexMap.size();
+        spectrumTitleToIndexMap.put(spectrumTitle, spectrumIndex);
+
+        spectrumSemaphore.release();
+
+        return spectrumIndex;
+
+    }
+
+    /**
+     * Sets the version of the peptide matching keys used as peptide
+     * identifiers when peptide inference was performed. Should be the version
+     * of the keys of the project, see Identification.getKeyVersion(), and set
+     * before adding spectra.
+     *
+     * @param keyVersion The version of the keys, see KeyBuilder.
+     */
+    public void setKeyVersion(
+            int keyVersion
+    ) {
+
+        this.keyVersion = keyVersion;
+
+    }
+
+    /**
+     * Returns the key used to identify the given peptide in the file.
+     *
+     * @param peptide The peptide.
+     *
+     * @return The key used to identify the given peptide in the file.
+     */
+    private long getPeptideKey(
+            Peptide peptide
+    ) {
+
+        return peptideInference
+                ? peptide.getMatchingKey(identificationParameters.getSequenceMatchingParameters(), keyVersion)
+                : peptide.getKey();
+
+    }
+
+    /**
+     * Writes the peptides of the given peptide assumptions that were not
+     * written already.
+     *
+     * @param peptideAssumptions The peptide assumptions.
+     */
+    private void writePeptides(
+            ArrayList<PeptideAssumption> peptideAssumptions
+    ) {
+
         for (PeptideAssumption peptideAssumption : peptideAssumptions) {
 
             Peptide peptide = peptideAssumption.getPeptide();
-            long peptideKey = peptideInference ? peptide.getMatchingKey(identificationParameters.getSequenceMatchingParameters()) : peptide.getKey();
+            long peptideKey = getPeptideKey(peptide);
 
             if (!peptideKeys.contains(peptideKey)) {
 
@@ -894,7 +1266,6 @@ public class SimpleMzIdentMLExporter implements Closeable {
                     writePeptide(peptide);
 
                     peptideKeys.add(peptideKey);
-//                    debugMap.put(peptideKey, peptide);
 
                 }
 
@@ -902,19 +1273,6 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
             }
         }
-
-        spectrumMatchSemaphore.acquire();
-
-        writeSpectrumIdentificationResult(
-                spectrumFile,
-                spectrumTitle,
-                peptideAssumptions,
-                modificationLocalizationScores,
-                peptideSpectrumAnnotator
-        );
-
-        spectrumMatchSemaphore.release();
-
     }
 
     /**
@@ -927,7 +1285,7 @@ public class SimpleMzIdentMLExporter implements Closeable {
     ) {
 
         String peptideSequence = peptide.getSequence();
-        long peptideKey = peptideInference ? peptide.getMatchingKey(identificationParameters.getSequenceMatchingParameters()) : peptide.getKey();
+        long peptideKey = getPeptideKey(peptide);
 
         writer.write(PEPTIDE_SECTION, getCurrentIndentation(PEPTIDE_SECTION));
         writer.write(PEPTIDE_SECTION, "<Peptide id=\"");
@@ -1834,10 +2192,10 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         finalizeDataAnalysis();
 
-        decreaseIndent(DATA_SECTION);
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "</DataCollection>");
-        writer.newLine(DATA_SECTION);
+        decreaseIndent(DATA_END_SECTION);
+        writer.write(DATA_END_SECTION, getCurrentIndentation(DATA_END_SECTION));
+        writer.write(DATA_END_SECTION, "</DataCollection>");
+        writer.newLine(DATA_END_SECTION);
 
     }
 
@@ -2142,15 +2500,15 @@ public class SimpleMzIdentMLExporter implements Closeable {
     private void finalizeDataAnalysis() {
 
         //writeCvTerm(new CvTerm("PSI-MS", "MS:1002439", "final PSM list", null)); // @TODO: add children of MS:1001184 (search statistics)?
-        decreaseIndent(DATA_SECTION);
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "</SpectrumIdentificationList>");
-        writer.newLine(DATA_SECTION);
+        decreaseIndent(DATA_END_SECTION);
+        writer.write(DATA_END_SECTION, getCurrentIndentation(DATA_END_SECTION));
+        writer.write(DATA_END_SECTION, "</SpectrumIdentificationList>");
+        writer.newLine(DATA_END_SECTION);
 
-        decreaseIndent(DATA_SECTION);
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "</AnalysisData>");
-        writer.newLine(DATA_SECTION);
+        decreaseIndent(DATA_END_SECTION);
+        writer.write(DATA_END_SECTION, getCurrentIndentation(DATA_END_SECTION));
+        writer.write(DATA_END_SECTION, "</AnalysisData>");
+        writer.newLine(DATA_END_SECTION);
 
     }
 
@@ -2217,8 +2575,12 @@ public class SimpleMzIdentMLExporter implements Closeable {
     }
 
     /**
-     * Writes a spectrum identification result.
+     * Appends a spectrum identification result to the given string builder.
      *
+     * @param sb The string builder where to append the result.
+     * @param indentation The indentation of the result.
+     * @param spectrumMatchIndex The index of the spectrum match.
+     * @param spectrumIndex The index of the spectrum.
      * @param spectrumFile The name of the file containing the spectrum.
      * @param spectrumTitle The title of the spectrum.
      * @param peptideAssumptions The peptide assumptions for this spectrum.
@@ -2226,7 +2588,11 @@ public class SimpleMzIdentMLExporter implements Closeable {
      * scores for the different peptides.
      * @param peptideSpectrumAnnotator The annotator to use to annotate spectra.
      */
-    private void writeSpectrumIdentificationResult(
+    private void appendSpectrumIdentificationResult(
+            StringBuilder sb,
+            int indentation,
+            int spectrumMatchIndex,
+            int spectrumIndex,
             String spectrumFile,
             String spectrumTitle,
             ArrayList<PeptideAssumption> peptideAssumptions,
@@ -2234,25 +2600,21 @@ public class SimpleMzIdentMLExporter implements Closeable {
             PeptideSpectrumAnnotator peptideSpectrumAnnotator
     ) {
 
-        int spectrumMatchIndex = ++psmCount;
-
-        int spectrumIndex = spectrumTitleToIndexMap.get(spectrumTitle);
-
         String spectrumIdentificationResultItemKey = String.join("",
                 "SIR_",
                 Integer.toString(spectrumMatchIndex)
         );
 
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "<SpectrumIdentificationResult spectraData_ref=\"");
-        writer.write(DATA_SECTION, spectrumFile);
-        writer.write(DATA_SECTION, "\" spectrumID=\"index=");
-        writer.write(DATA_SECTION, Integer.toString(spectrumIndex));
-        writer.write(DATA_SECTION, "\" id=\"");
-        writer.write(DATA_SECTION, spectrumIdentificationResultItemKey);
-        writer.write(DATA_SECTION, "\">");
-        writer.newLine(DATA_SECTION);
-        increaseIndentation(DATA_SECTION);
+        sb.append(getIndentation(indentation));
+        sb.append("<SpectrumIdentificationResult spectraData_ref=\"");
+        sb.append(spectrumFile);
+        sb.append("\" spectrumID=\"index=");
+        sb.append(Integer.toString(spectrumIndex));
+        sb.append("\" id=\"");
+        sb.append(spectrumIdentificationResultItemKey);
+        sb.append("\">");
+        sb.append(LINE_SEPARATOR);
+        indentation++;
 
         for (int i = 0; i < peptideAssumptions.size(); i++) {
 
@@ -2263,7 +2625,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
                     Integer.toString(i)
             );
 
-            writeSpectrumIdentificationItem(
+            appendSpectrumIdentificationItem(
+                    sb,
+                    indentation,
                     spectrumFile,
                     spectrumTitle,
                     spectrumIdentificationItemKey,
@@ -2276,8 +2640,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
         }
 
         // add the spectrum title
-        writeCvTerm(
-                DATA_SECTION,
+        appendCvTerm(
+                sb,
+                indentation,
                 new CvTerm(
                         "PSI-MS",
                         "MS:1000796",
@@ -2291,33 +2656,38 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         if (!Double.isNaN(precursorRt)) {
 
-            writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-            writer.write(DATA_SECTION, "<cvParam cvRef=\"PSI-MS\" accession=\"MS:1000894\" name=\"retention time\" value=\"");
-            writer.write(DATA_SECTION, Double.toString(precursorRt));
-            writer.write(DATA_SECTION, "\" unitCvRef=\"UO\" unitAccession=\"UO:0000010\" unitName=\"second\"/>");
-            writer.newLine(DATA_SECTION);
+            sb.append(getIndentation(indentation));
+            sb.append("<cvParam cvRef=\"PSI-MS\" accession=\"MS:1000894\" name=\"retention time\" value=\"");
+            sb.append(Double.toString(precursorRt));
+            sb.append("\" unitCvRef=\"UO\" unitAccession=\"UO:0000010\" unitName=\"second\"/>");
+            sb.append(LINE_SEPARATOR);
 
         }
 
-        decreaseIndent(DATA_SECTION);
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "</SpectrumIdentificationResult>");
-        writer.newLine(DATA_SECTION);
+        indentation--;
+        sb.append(getIndentation(indentation));
+        sb.append("</SpectrumIdentificationResult>");
+        sb.append(LINE_SEPARATOR);
 
     }
 
     /**
-     * Write a spectrum identification item.
+     * Appends a spectrum identification item to the given string builder.
      *
+     * @param sb The string builder where to append the item.
+     * @param indentation The indentation of the item.
      * @param spectrumFile The name of the file of the spectrum.
      * @param spectrumTitle The title of the spectrum.
+     * @param spectrumIdentificationItemKey The key of the item.
      * @param peptideAssumption The peptide assumption.
      * @param rank The peptide rank.
      * @param modificationLocalizationScores The modification localization
      * scores of the peptide.
      * @param peptideSpectrumAnnotator The peptide spectrum annotator to use.
      */
-    private void writeSpectrumIdentificationItem(
+    private void appendSpectrumIdentificationItem(
+            StringBuilder sb,
+            int indentation,
             String spectrumFile,
             String spectrumTitle,
             String spectrumIdentificationItemKey,
@@ -2328,26 +2698,26 @@ public class SimpleMzIdentMLExporter implements Closeable {
     ) {
 
         Peptide peptide = peptideAssumption.getPeptide();
-        long peptideKey = peptideInference ? peptide.getMatchingKey(identificationParameters.getSequenceMatchingParameters()) : peptide.getKey();
-
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "<SpectrumIdentificationItem peptide_ref=\"");
-        writer.write(DATA_SECTION, Long.toString(peptideKey));
-        writer.write(DATA_SECTION, "\" calculatedMassToCharge=\"");
-        writer.write(DATA_SECTION, Double.toString(peptideAssumption.getTheoreticMz()));
-        writer.write(DATA_SECTION, "\" experimentalMassToCharge=\"");
-        writer.write(DATA_SECTION, Double.toString(spectrumProvider.getPrecursorMz(spectrumFile, spectrumTitle)));
-        writer.write(DATA_SECTION, "\" chargeState=\"");
-        writer.write(DATA_SECTION, Integer.toString(peptideAssumption.getIdentificationCharge()));
-        writer.write(DATA_SECTION, "\" rank=\"");
-        writer.write(DATA_SECTION, Integer.toString(rank));
-        writer.write(DATA_SECTION, "\" passThreshold=\"");
-        writer.write(DATA_SECTION, Boolean.toString(false));
-        writer.write(DATA_SECTION, "\" id=\"");
-        writer.write(DATA_SECTION, spectrumIdentificationItemKey);
-        writer.write(DATA_SECTION, "\">");
-        writer.newLine(DATA_SECTION);
-        increaseIndentation(DATA_SECTION);
+        long peptideKey = getPeptideKey(peptide);
+
+        sb.append(getIndentation(indentation));
+        sb.append("<SpectrumIdentificationItem peptide_ref=\"");
+        sb.append(Long.toString(peptideKey));
+        sb.append("\" calculatedMassToCharge=\"");
+        sb.append(Double.toString(peptideAssumption.getTheoreticMz()));
+        sb.append("\" experimentalMassToCharge=\"");
+        sb.append(Double.toString(spectrumProvider.getPrecursorMz(spectrumFile, spectrumTitle)));
+        sb.append("\" chargeState=\"");
+        sb.append(Integer.toString(peptideAssumption.getIdentificationCharge()));
+        sb.append("\" rank=\"");
+        sb.append(Integer.toString(rank));
+        sb.append("\" passThreshold=\"");
+        sb.append(Boolean.toString(false));
+        sb.append("\" id=\"");
+        sb.append(spectrumIdentificationItemKey);
+        sb.append("\">");
+        sb.append(LINE_SEPARATOR);
+        indentation++;
 
         // add the peptide evidence references
         // get all the possible parent proteins
@@ -2368,20 +2738,18 @@ public class SimpleMzIdentMLExporter implements Closeable {
                         peptideKey
                 );
                 String peptideEvidenceId = pepEvidenceIds.get(pepEvidenceKey);
-                
-//                if (peptideEvidenceId == null) {
-//                    
-//                    Peptide debug = debugMap.get(peptideKey);
-//                    
-//                    int nProteins = debug.getProteinMapping().size();
-//                    
-//                }
-
-                writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-                writer.write(DATA_SECTION, "<PeptideEvidenceRef peptideEvidence_ref=\"");
-                writer.write(DATA_SECTION, peptideEvidenceId);
-                writer.write(DATA_SECTION, "\"/>");
-                writer.newLine(DATA_SECTION);
+
+                if (peptideEvidenceId == null) {
+
+                    throw new IllegalArgumentException("No peptide evidence found for peptide " + peptideKey + " on protein " + accession + " at index " + index + ".");
+
+                }
+
+                sb.append(getIndentation(indentation));
+                sb.append("<PeptideEvidenceRef peptideEvidence_ref=\"");
+                sb.append(peptideEvidenceId);
+                sb.append("\"/>");
+                sb.append(LINE_SEPARATOR);
 
             }
         }
@@ -2460,10 +2828,10 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         if (!allFragmentIons.isEmpty()) {
 
-            writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-            writer.write(DATA_SECTION, "<Fragmentation>");
-            writer.newLine(DATA_SECTION);
-            increaseIndentation(DATA_SECTION);
+            sb.append(getIndentation(indentation));
+            sb.append("<Fragmentation>");
+            sb.append(LINE_SEPARATOR);
+            indentation++;
 
             // add the fragment ions
             Iterator<String> fragmentTypeIterator = allFragmentIons.keySet().iterator();
@@ -2529,35 +2897,35 @@ public class SimpleMzIdentMLExporter implements Closeable {
                     // add the supported fragment ions
                     if (fragmentIonCvTerm != null) {
 
-                        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-                        writer.write(DATA_SECTION, "<IonType charge=\"");
-                        writer.write(DATA_SECTION, Integer.toString(fragmentCharge));
-                        writer.write(DATA_SECTION, "\" index=\"");
-                        writer.write(DATA_SECTION, indexes.toString().trim());
-                        writer.write(DATA_SECTION, "\">");
-                        writer.newLine(DATA_SECTION);
-                        increaseIndentation(DATA_SECTION);
-
-                        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-                        writer.write(DATA_SECTION, "<FragmentArray measure_ref=\"Measure_MZ\" values=\"");
-                        writer.write(DATA_SECTION, mzValues.toString().trim());
-                        writer.write(DATA_SECTION, "\"/>");
-                        writer.newLine(DATA_SECTION);
-
-                        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-                        writer.write(DATA_SECTION, "<FragmentArray measure_ref=\"Measure_Int\" values=\"");
-                        writer.write(DATA_SECTION, intensityValues.toString().trim());
-                        writer.write(DATA_SECTION, "\"/>");
-                        writer.newLine(DATA_SECTION);
-
-                        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-                        writer.write(DATA_SECTION, "<FragmentArray measure_ref=\"Measure_Error\" values=\"");
-                        writer.write(DATA_SECTION, errorValues.toString().trim());
-                        writer.write(DATA_SECTION, "\"/>");
-                        writer.newLine(DATA_SECTION);
+                        sb.append(getIndentation(indentation));
+                        sb.append("<IonType charge=\"");
+                        sb.append(Integer.toString(fragmentCharge));
+                        sb.append("\" index=\"");
+                        sb.append(indexes.toString().trim());
+                        sb.append("\">");
+                        sb.append(LINE_SEPARATOR);
+                        indentation++;
+
+                        sb.append(getIndentation(indentation));
+                        sb.append("<FragmentArray measure_ref=\"Measure_MZ\" values=\"");
+                        sb.append(mzValues.toString().trim());
+                        sb.append("\"/>");
+                        sb.append(LINE_SEPARATOR);
+
+                        sb.append(getIndentation(indentation));
+                        sb.append("<FragmentArray measure_ref=\"Measure_Int\" values=\"");
+                        sb.append(intensityValues.toString().trim());
+                        sb.append("\"/>");
+                        sb.append(LINE_SEPARATOR);
+
+                        sb.append(getIndentation(indentation));
+                        sb.append("<FragmentArray measure_ref=\"Measure_Error\" values=\"");
+                        sb.append(errorValues.toString().trim());
+                        sb.append("\"/>");
+                        sb.append(LINE_SEPARATOR);
 
                         // add the cv term for the fragment ion type
-                        writeCvTerm(DATA_SECTION, fragmentIonCvTerm);
+                        appendCvTerm(sb, indentation, fragmentIonCvTerm);
 
                         // add the cv term for the neutral losses
                         if (currentIon.getNeutralLosses() != null) {
@@ -2572,25 +2940,25 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
                                 for (NeutralLoss tempNeutralLoss : currentIon.getNeutralLosses()) {
 
-                                    writeCvTerm(DATA_SECTION, tempNeutralLoss.getPsiMsCvTerm());
+                                    appendCvTerm(sb, indentation, tempNeutralLoss.getPsiMsCvTerm());
 
                                 }
                             }
                         }
 
-                        decreaseIndent(DATA_SECTION);
-                        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-                        writer.write(DATA_SECTION, "</IonType>");
-                        writer.newLine(DATA_SECTION);
+                        indentation--;
+                        sb.append(getIndentation(indentation));
+                        sb.append("</IonType>");
+                        sb.append(LINE_SEPARATOR);
 
                     }
                 }
             }
 
-            decreaseIndent(DATA_SECTION);
-            writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-            writer.write(DATA_SECTION, "</Fragmentation>");
-            writer.newLine(DATA_SECTION);
+            indentation--;
+            sb.append(getIndentation(indentation));
+            sb.append("</Fragmentation>");
+            sb.append(LINE_SEPARATOR);
 
         }
 
@@ -2619,8 +2987,8 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
                 double score = entry2.getValue();
 
-                StringBuilder sb = new StringBuilder();
-                sb.append(modIndex)
+                StringBuilder scoreValue = new StringBuilder();
+                scoreValue.append(modIndex)
                         .append(':')
                         .append(score)
                         .append(':')
@@ -2628,13 +2996,14 @@ public class SimpleMzIdentMLExporter implements Closeable {
                         .append(':')
                         .append("true"); //@TODO: mandatory?
 
-                writeCvTerm(
-                        DATA_SECTION,
+                appendCvTerm(
+                        sb,
+                        indentation,
                         new CvTerm(
                                 "PSI-MS",
                                 "MS:1001969",
                                 "phosphoRS score",
-                                sb.toString()
+                                scoreValue.toString()
                         )
                 );
 
@@ -2647,8 +3016,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         if (advocate == Advocate.xtandem.getIndex()) {
 
-            writeCvTerm(
-                    DATA_SECTION,
+            appendCvTerm(
+                    sb,
+                    indentation,
                     new CvTerm(
                             "PSI-MS",
                             "MS:1001330",
@@ -2659,8 +3029,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         } else if (advocate == Advocate.comet.getIndex()) {
 
-            writeCvTerm(
-                    DATA_SECTION,
+            appendCvTerm(
+                    sb,
+                    indentation,
                     new CvTerm(
                             "PSI-MS",
                             "MS:1002257",
@@ -2671,8 +3042,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         } else if (advocate == Advocate.myriMatch.getIndex()) {
 
-            writeCvTerm(
-                    DATA_SECTION,
+            appendCvTerm(
+                    sb,
+                    indentation,
                     new CvTerm(
                             "PSI-MS",
                             "MS:1001589",
@@ -2683,8 +3055,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         } else if (advocate == Advocate.msgf.getIndex()) {
 
-            writeCvTerm(
-                    DATA_SECTION,
+            appendCvTerm(
+                    sb,
+                    indentation,
                     new CvTerm(
                             "PSI-MS",
                             "MS:1002052",
@@ -2695,8 +3068,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         } else if (advocate == Advocate.omssa.getIndex()) {
 
-            writeCvTerm(
-                    DATA_SECTION,
+            appendCvTerm(
+                    sb,
+                    indentation,
                     new CvTerm(
                             "PSI-MS",
                             "MS:1001328",
@@ -2707,8 +3081,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         } else if (advocate == Advocate.mascot.getIndex()) {
 
-            writeCvTerm(
-                    DATA_SECTION,
+            appendCvTerm(
+                    sb,
+                    indentation,
                     new CvTerm(
                             "PSI-MS",
                             "MS:1001172",
@@ -2719,8 +3094,9 @@ public class SimpleMzIdentMLExporter implements Closeable {
 
         } else {
 
-            writeUserParam(
-                    DATA_SECTION,
+            appendUserParam(
+                    sb,
+                    indentation,
                     String.join("", Advocate.getAdvocate(advocate).getName(), " score"),
                     Double.toString(score)
             ); // @TODO: add Tide if Tide CV term is added
@@ -2728,18 +3104,18 @@ public class SimpleMzIdentMLExporter implements Closeable {
         }
 
         // add other cv and user params
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "<cvParam cvRef=\"PSI-MS\" accession=\"MS:1001117\" name=\"theoretical mass\" value=\"");
-        writer.write(DATA_SECTION, Double.toString(peptideAssumption.getTheoreticMass()));
-        writer.write(DATA_SECTION, "\" unitCvRef=\"UO\" unitAccession=\"UO:0000221\" unitName=\"dalton\"/>");
-        writer.newLine(DATA_SECTION);
+        sb.append(getIndentation(indentation));
+        sb.append("<cvParam cvRef=\"PSI-MS\" accession=\"MS:1001117\" name=\"theoretical mass\" value=\"");
+        sb.append(Double.toString(peptideAssumption.getTheoreticMass()));
+        sb.append("\" unitCvRef=\"UO\" unitAccession=\"UO:0000221\" unitName=\"dalton\"/>");
+        sb.append(LINE_SEPARATOR);
 
         // add validation level information
-        decreaseIndent(DATA_SECTION);
+        indentation--;
 
-        writer.write(DATA_SECTION, getCurrentIndentation(DATA_SECTION));
-        writer.write(DATA_SECTION, "</SpectrumIdentificationItem>");
-        writer.newLine(DATA_SECTION);
+        sb.append(getIndentation(indentation));
+        sb.append("</SpectrumIdentificationItem>");
+        sb.append(LINE_SEPARATOR);
 
     }
 
@@ -2824,8 +3200,8 @@ public class SimpleMzIdentMLExporter implements Closeable {
      */
     private void writeMzIdentMLEndTag() {
 
-        decreaseIndent(DATA_SECTION);
-        writer.write(DATA_SECTION, "</MzIdentML>");
+        decreaseIndent(DATA_END_SECTION);
+        writer.write(DATA_END_SECTION, "</MzIdentML>");
 
     }
 
@@ -2845,6 +3221,7 @@ public class SimpleMzIdentMLExporter implements Closeable {
         writer.registerSection(PEPTIDE_EVIDENCE_SECTION);
         writer.registerSection(ANALYSIS_SECTION);
         writer.registerSection(DATA_SECTION);
+        writer.registerSection(DATA_END_SECTION);
 
     }
 
@@ -2899,7 +3276,20 @@ public class SimpleMzIdentMLExporter implements Closeable {
             String sectionName
     ) {
 
-        int tabCounter = indentationMap.get(sectionName);
+        return getIndentation(indentationMap.get(sectionName));
+
+    }
+
+    /**
+     * Convenience method returning the given indentation as a string.
+     *
+     * @param tabCounter The number of tabs.
+     *
+     * @return The indentation as a string.
+     */
+    private static String getIndentation(
+            int tabCounter
+    ) {
 
         switch (tabCounter) {
             case 0:
@@ -2966,47 +3356,68 @@ public class SimpleMzIdentMLExporter implements Closeable {
             boolean writeValue
     ) {
 
-        writer.write(sectionName, getCurrentIndentation(sectionName));
-        writer.write(sectionName, "<cvParam cvRef=\"");
-        writer.write(sectionName, StringEscapeUtils.escapeHtml4(cvTerm.getOntology()));
-        writer.write(sectionName, "\" accession=\"");
-        writer.write(sectionName, cvTerm.getAccession());
-        writer.write(sectionName, "\" name=\"");
-        writer.write(sectionName, StringEscapeUtils.escapeHtml4(cvTerm.getName()));
-        writer.write(sectionName, "\"");
+        StringBuilder sb = new StringBuilder();
+        appendCvTerm(sb, indentationMap.get(sectionName), cvTerm, writeValue);
+        writer.write(sectionName, sb.toString());
+
+    }
+
+    /**
+     * Convenience method appending a CV term to a string builder.
+     *
+     * @param sb The string builder.
+     * @param indentation The indentation.
+     * @param cvTerm The CV term to write.
+     */
+    private static void appendCvTerm(
+            StringBuilder sb,
+            int indentation,
+            CvTerm cvTerm
+    ) {
 
-        writeCvTermValue(sectionName, cvTerm, writeValue);
+        appendCvTerm(sb, indentation, cvTerm, true);
 
     }
 
     /**
-     * Convenience method writing the value element of a CV term.
+     * Convenience method appending a CV term to a string builder.
      *
-     * @param sectionName The name of the section to write to.
-     * @param cvTerm The CV term.
+     * @param sb The string builder.
+     * @param indentation The indentation.
+     * @param cvTerm The CV term to write.
      * @param writeValue If true the CV term value is written if not null.
      */
-    private void writeCvTermValue(
-            String sectionName,
+    private static void appendCvTerm(
+            StringBuilder sb,
+            int indentation,
             CvTerm cvTerm,
             boolean writeValue
     ) {
 
+        sb.append(getIndentation(indentation))
+                .append("<cvParam cvRef=\"")
+                .append(StringEscapeUtils.escapeHtml4(cvTerm.getOntology()))
+                .append("\" accession=\"")
+                .append(cvTerm.getAccession())
+                .append("\" name=\"")
+                .append(StringEscapeUtils.escapeHtml4(cvTerm.getName()))
+                .append("\"");
+
         String value = cvTerm.getValue();
 
         if (writeValue && value != null) {
 
-            writer.write(sectionName, " value=\"");
-            writer.write(sectionName, StringEscapeUtils.escapeHtml4(value));
-            writer.write(sectionName, "\"/>");
+            sb.append(" value=\"")
+                    .append(StringEscapeUtils.escapeHtml4(value))
+                    .append("\"/>");
 
         } else {
 
-            writer.write(sectionName, "/>");
+            sb.append("/>");
 
         }
 
-        writer.newLine(sectionName);
+        sb.append(LINE_SEPARATOR);
 
     }
 
@@ -3043,13 +3454,34 @@ public class SimpleMzIdentMLExporter implements Closeable {
             String value
     ) {
 
-        writer.write(sectionName, getCurrentIndentation(sectionName));
-        writer.write(sectionName, "<userParam name=\"");
-        writer.write(sectionName, StringEscapeUtils.escapeHtml4(name));
-        writer.write(sectionName, "\" value=\"");
-        writer.write(sectionName, StringEscapeUtils.escapeHtml4(value));
-        writer.write(sectionName, "\" />");
-        writer.newLine(sectionName);
+        StringBuilder sb = new StringBuilder();
+        appendUserParam(sb, indentationMap.get(sectionName), name, value);
+        writer.write(sectionName, sb.toString());
+
+    }
+
+    /**
+     * Convenience method appending a user parameter to a string builder.
+     *
+     * @param sb The string builder.
+     * @param indentation The indentation.
+     * @param name The name of the user parameter.
+     * @param value The value of the user parameter.
+     */
+    private static void appendUserParam(
+            StringBuilder sb,
+            int indentation,
+            String name,
+            String value
+    ) {
+
+        sb.append(getIndentation(indentation))
+                .append("<userParam name=\"")
+                .append(StringEscapeUtils.escapeHtml4(name))
+                .append("\" value=\"")
+                .append(StringEscapeUtils.escapeHtml4(value))
+                .append("\" />")
+                .append(LINE_SEPARATOR);
 
     }
 
@@ -6,6 +6,7 @@ import com.compomics.util.experiment.io.mass_spectrometry.cms.CmsFileWriter;
 import com.compomics.util.experiment.mass_spectrometry.SpectrumProvider;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.experiment.mass_spectrometry.spectra.SpectrumStatistics;
 import com.compomics.util.io.IoUtil;
 import com.compomics.util.waiting.WaitingHandler;
 import java.io.File;
@@ -216,7 +217,7 @@ public class MsFileHandler implements SpectrumProvider {
 
         try (MsFileIterator iterator = MsFileIterator.getMsFileIterator(msFile, waitingHandler)) {
 
-            try (CmsFileWriter writer = new CmsFileWriter(cmsFile)) {
+            try (CmsFileWriter writer = new CmsFileWriter(cmsFile, true)) {
 
                 String spectrumTitle;
 
@@ -324,6 +325,18 @@ public class MsFileHandler implements SpectrumProvider {
 
     }
 
+    @Override
+    public SpectrumStatistics getSpectrumStatistics(
+            String fileNameWithoutExtension,
+            String spectrumTitle
+    ) {
+
+        CmsFileReader reader = cmsFileReaderMap.get(fileNameWithoutExtension);
+
+        return reader == null ? null : reader.getSpectrumStatistics(spectrumTitle);
+
+    }
+
     @Override
     public double getMinPrecMz(String fileNameWithoutExtension) {
 
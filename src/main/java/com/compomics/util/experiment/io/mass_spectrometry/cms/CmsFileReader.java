@@ -3,6 +3,7 @@ package com.compomics.util.experiment.io.mass_spectrometry.cms;
 import com.compomics.util.experiment.mass_spectrometry.SpectrumProvider;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.experiment.mass_spectrometry.spectra.SpectrumStatistics;
 import com.compomics.util.io.IoUtil;
 import com.compomics.util.io.compression.ZstdUtils;
 import com.compomics.util.threading.SimpleSemaphore;
@@ -79,6 +80,10 @@ public class CmsFileReader implements SpectrumProvider {
      * The mapped byte buffers.
      */
     private ArrayList<MappedByteBuffer> mappedByteBuffers;
+    /**
+     * Boolean indicating whether the reader is closed.
+     */
+    private boolean closed = false;
 
     /**
      * Constructor allocating for single thread usage.
@@ -274,7 +279,136 @@ public class CmsFileReader implements SpectrumProvider {
                 charges
         );
 
-        return new Spectrum(precursor, mz, intensity, spectrumLevel);
+        Spectrum spectrum = new Spectrum(precursor, mz, intensity, spectrumLevel);
+        spectrum.setStatisticsSupplier(() -> getSpectrumStatistics(spectrumIndex));
+
+        return spectrum;
+
+    }
+
+    /**
+     * Reads the statistics data of a spectrum from the given buffer positioned
+     * after the charges. Null if no statistics are stored.
+     *
+     * @param mappedByteBuffer the buffer
+     *
+     * @return the statistics data
+     */
+    private static byte[] getStatisticsData(MappedByteBuffer mappedByteBuffer) {
+
+        int statisticsLength = mappedByteBuffer.getInt();
+
+        if (statisticsLength == 0) {
+
+            return null;
+
+        }
+
+        byte[] statisticsData = new byte[statisticsLength];
+        mappedByteBuffer.get(statisticsData);
+
+        return statisticsData;
+
+    }
+
+    /**
+     * Parses the given statistics data.
+     *
+     * @param statisticsData the statistics data
+     * @param nPeaks the number of peaks of the spectrum
+     *
+     * @return the statistics
+     */
+    private static SpectrumStatistics getStatistics(
+            byte[] statisticsData,
+            int nPeaks
+    ) {
+
+        ByteBuffer byteBuffer = ByteBuffer.wrap(statisticsData);
+
+        double totalIntensity = byteBuffer.getDouble();
+        double maxIntensity = byteBuffer.getDouble();
+        double noiseMean = byteBuffer.getDouble();
+        double noiseStdDown = byteBuffer.getDouble();
+        double noiseStdUp = byteBuffer.getDouble();
+        int compressedOrderLength = byteBuffer.getInt();
+
+        byte[] compressedOrder = new byte[compressedOrderLength];
+        byteBuffer.get(compressedOrder);
+
+        ByteBuffer orderBuffer = ByteBuffer.wrap(uncompress(compressedOrder, nPeaks * Integer.BYTES));
+        int[] intensityOrder = new int[nPeaks];
+
+        for (int i = 0; i < nPeaks; i++) {
+
+            intensityOrder[i] = orderBuffer.getInt();
+
+        }
+
+        return new SpectrumStatistics(
+                totalIntensity,
+                maxIntensity,
+                noiseMean,
+                noiseStdDown,
+                noiseStdUp,
+                intensityOrder
+        );
+
+    }
+
+    /**
+     * Returns the statistics on the intensities of the spectrum with the given
+     * title. Null if not stored in the file. The spectra returned by
+     * getSpectrum only read and decompress their statistics when first
+     * needed.
+     *
+     * @param spectrumTitle title of the spectrum
+     *
+     * @return the statistics on the intensities of the spectrum
+     */
+    public SpectrumStatistics getSpectrumStatistics(String spectrumTitle) {
+
+        long spectrumIndex = indexMap.get(spectrumTitle);
+
+        return getSpectrumStatistics(spectrumIndex);
+
+    }
+
+    /**
+     * Returns the statistics on the intensities of the spectrum at the given
+     * index. Null if not stored in the file or if the reader is closed.
+     *
+     * @param spectrumIndex index of the spectrum
+     *
+     * @return the statistics on the intensities of the spectrum
+     */
+    private SpectrumStatistics getSpectrumStatistics(long spectrumIndex) {
+
+        mutex.acquire();
+
+        if (closed) {
+
+            mutex.release();
+            return null;
+
+        }
+
+        MappedByteBuffer mappedByteBuffer = getMappedByteBuffer(spectrumIndex);
+        mappedByteBuffer.position(mappedByteBuffer.position() + 3 * Double.BYTES + Integer.BYTES);
+
+        int compressedDataLength = mappedByteBuffer.getInt();
+        int nPeaks = mappedByteBuffer.getInt();
+
+        mappedByteBuffer.position(mappedByteBuffer.position() + compressedDataLength);
+
+        int nCharges = mappedByteBuffer.getInt();
+        mappedByteBuffer.position(mappedByteBuffer.position() + nCharges * Integer.BYTES);
+
+        byte[] statisticsData = getStatisticsData(mappedByteBuffer);
+
+        mutex.release();
+
+        return statisticsData == null ? null : getStatistics(statisticsData, nPeaks);
 
     }
 
@@ -435,6 +569,7 @@ public class CmsFileReader implements SpectrumProvider {
         mappedByteBuffer.getDouble(); // @TODO: better way of doing this?
         mappedByteBuffer.getDouble(); // @TODO: better way of doing this?
         mappedByteBuffer.getDouble(); // @TODO: better way of doing this?
+        mappedByteBuffer.getInt(); // read and ignore the spectrum level
 
         int compressedDataLength = mappedByteBuffer.getInt();
         int nPeaks = mappedByteBuffer.getInt();
@@ -529,6 +664,13 @@ public class CmsFileReader implements SpectrumProvider {
 
     }
 
+    @Override
+    public SpectrumStatistics getSpectrumStatistics(String fileName, String spectrumTitle) {
+
+        return getSpectrumStatistics(spectrumTitle);
+
+    }
+
     @Override
     public double getMinPrecMz(String fileName) {
 
@@ -603,6 +745,10 @@ public class CmsFileReader implements SpectrumProvider {
     @Override
     public void close() {
 
+        mutex.acquire();
+        closed = true;
+        mutex.release();
+
         try {
 
             for (MappedByteBuffer mappedByteBuffer : mappedByteBuffers) {
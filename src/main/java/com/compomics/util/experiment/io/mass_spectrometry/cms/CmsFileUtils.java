@@ -37,7 +37,7 @@ public class CmsFileUtils {
 
         try {
 
-            String magicName = "CmsFile.1.4";
+            String magicName = "CmsFile.1.5";
             return magicName.getBytes(IoUtil.ENCODING);
 
         } catch (UnsupportedEncodingException e) {
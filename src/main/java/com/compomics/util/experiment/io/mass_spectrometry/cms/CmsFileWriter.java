@@ -11,6 +11,7 @@ import java.util.stream.Collectors;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
 import com.compomics.util.experiment.mass_spectrometry.spectra.PrecursorParameter;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.experiment.mass_spectrometry.spectra.SpectrumStatistics;
 import com.compomics.util.experiment.personalization.UrParameter;
 import com.compomics.util.io.IoUtil;
 import com.compomics.util.io.compression.ZstdUtils;
@@ -76,9 +77,15 @@ public class CmsFileWriter implements AutoCloseable {
      * Zstd compressor.
      */
     private final ZstdCompressor compressor = new ZstdCompressor();
+    /**
+     * Boolean indicating whether the statistics on the intensities of the
+     * spectra should be computed and stored.
+     */
+    private final boolean computeStatistics;
 
     /**
-     * Constructor.
+     * Constructor. The statistics on the intensities of the spectra are not
+     * stored.
      *
      * @param outputFile the output file.
      *
@@ -91,6 +98,29 @@ public class CmsFileWriter implements AutoCloseable {
             File outputFile
     ) throws FileNotFoundException, IOException {
 
+        this(outputFile, false);
+
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param outputFile the output file.
+     * @param computeStatistics Boolean indicating whether the statistics on the
+     * intensities of the spectra should be computed and stored.
+     *
+     * @throws FileNotFoundException Exception thrown if the output file was not
+     * found.
+     * @throws IOException Exception thrown if an error occurred while
+     * attempting to write to output file.
+     */
+    public CmsFileWriter(
+            File outputFile,
+            boolean computeStatistics
+    ) throws FileNotFoundException, IOException {
+
+        this.computeStatistics = computeStatistics;
+
         raf = new RandomAccessFile(outputFile, "rw");
         raf.seek(HEADER_LENGTH);
 
@@ -170,7 +200,9 @@ public class CmsFileWriter implements AutoCloseable {
 
         }
 
-        buffer = ByteBuffer.allocate(3 * Double.BYTES + (4 + possibleCharges.length) * Integer.BYTES + compressedData.length);
+        byte[] statisticsData = getStatisticsData(spectrum);
+
+        buffer = ByteBuffer.allocate(3 * Double.BYTES + (5 + possibleCharges.length) * Integer.BYTES + compressedData.length + statisticsData.length);
         buffer
                 .putDouble(precursorMz)
                 .putDouble(precursorRt)
@@ -187,6 +219,10 @@ public class CmsFileWriter implements AutoCloseable {
 
         }
 
+        buffer
+                .putInt(statisticsData.length)
+                .put(statisticsData);
+
         byte[] arrayToWrite = buffer.array();
 
         raf.write(arrayToWrite, 0, arrayToWrite.length);
@@ -229,6 +265,54 @@ public class CmsFileWriter implements AutoCloseable {
 
     }
 
+    /**
+     * Returns the statistics on the intensities of the given spectrum as byte
+     * array: total intensity, max intensity, noise distribution parameters,
+     * and the compressed order of the peaks by intensity. Empty if the
+     * statistics are not computed or the spectrum has no peak.
+     *
+     * @param spectrum The spectrum.
+     *
+     * @return The statistics as byte array.
+     */
+    private byte[] getStatisticsData(
+            Spectrum spectrum
+    ) {
+
+        int nPeaks = spectrum.intensity.length;
+
+        if (!computeStatistics || nPeaks == 0) {
+
+            return new byte[0];
+
+        }
+
+        SpectrumStatistics statistics = new SpectrumStatistics(spectrum.intensity);
+
+        ByteBuffer orderBuffer = ByteBuffer.allocate(nPeaks * Integer.BYTES);
+
+        for (int index : statistics.getIntensityOrder()) {
+
+            orderBuffer.putInt(index);
+
+        }
+
+        TempByteArray compressedOrder = compress(orderBuffer.array());
+
+        ByteBuffer buffer = ByteBuffer.allocate(5 * Double.BYTES + Integer.BYTES + compressedOrder.length);
+        buffer
+                .putDouble(statistics.getTotalIntensity())
+                .putDouble(statistics.getMaxIntensity())
+                .putDouble(statistics.getNoiseMean())
+                .putDouble(statistics.getNoiseStdDown())
+                .putDouble(statistics.getNoiseStdUp())
+                .putInt(compressedOrder.length)
+                .put(compressedOrder.array, 0, compressedOrder.length);
+
+        return buffer.array();
+
+    }
+
     /**
      * Compresses and writes the given byte array.
      *
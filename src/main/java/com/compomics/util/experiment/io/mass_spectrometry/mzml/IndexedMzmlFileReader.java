@@ -0,0 +1,1628 @@
+package com.compomics.util.experiment.io.mass_spectrometry.mzml;
+
+import com.compomics.util.experiment.io.mass_spectrometry.mzml.MzmlFileIterator.Precision;
+import com.compomics.util.experiment.mass_spectrometry.SpectrumProvider;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
+import com.compomics.util.experiment.mass_spectrometry.spectra.PrecursorParameter;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.io.IoUtil;
+import com.compomics.util.waiting.WaitingHandler;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Random access reader for mzML files. The offsets of the spectra are taken
+ * from the index of indexed mzML files, or obtained by scanning the file for
+ * spectrum elements if the index is missing or invalid. The spectra are read
+ * using positional reads and parsed directly from bytes, the binary arrays
+ * being decoded into primitive arrays using per-thread buffers and inflaters.
+ * The spectra can be read concurrently from multiple threads.
+ *
+ * @author Marc Vaudel
+ */
+public class IndexedMzmlFileReader implements SpectrumProvider {
+
+    /**
+     * The number of bytes read at the end of the file to find the offset of
+     * the index.
+     */
+    private static final int TAIL_LENGTH = 1024;
+    /**
+     * The size of the buffer used to scan the file for spectra.
+     */
+    private static final int SCAN_BUFFER_SIZE = 1 << 20;
+    /**
+     * The number of bytes read at once when only the header of a spectrum is
+     * needed.
+     */
+    private static final int HEADER_READ_LENGTH = 8192;
+    /**
+     * The maximal number of bytes read at once when the entire spectrum is
+     * needed.
+     */
+    private static final int SPECTRUM_READ_LENGTH = 1 << 20;
+    /**
+     * Pattern used to find the offset of the index.
+     */
+    private static final Pattern INDEX_LIST_OFFSET_PATTERN = Pattern.compile("<indexListOffset>\\s*(\\d+)\\s*</indexListOffset>");
+    /**
+     * Pattern used to find the spectrum index.
+     */
+    private static final Pattern SPECTRUM_INDEX_PATTERN = Pattern.compile("<index\\s+name=\"spectrum\"\\s*>(.*?)</index>", Pattern.DOTALL);
+    /**
+     * Pattern used to find the offsets in the index.
+     */
+    private static final Pattern OFFSET_PATTERN = Pattern.compile("<offset\\s[^>]*idRef=\"([^\"]*)\"[^>]*>\\s*(\\d+)\\s*</offset>");
+    /**
+     * The start of a spectrum element.
+     */
+    private static final byte[] SPECTRUM_START = "<spectrum".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The end of a spectrum element.
+     */
+    private static final byte[] SPECTRUM_END = "</spectrum>".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The start of the binary data array list, where the header of a spectrum
+     * ends.
+     */
+    private static final byte[] BINARY_DATA_ARRAY_LIST = "<binaryDataArrayList".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The end of a binary element.
+     */
+    private static final byte[] BINARY_END = "</binary>".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The cvParam tag name.
+     */
+    private static final byte[] CV_PARAM = "cvParam".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The precursor tag name.
+     */
+    private static final byte[] PRECURSOR = "precursor".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The binary data array tag name.
+     */
+    private static final byte[] BINARY_DATA_ARRAY = "binaryDataArray".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The binary tag name.
+     */
+    private static final byte[] BINARY = "binary".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The spectrum tag name.
+     */
+    private static final byte[] SPECTRUM = "spectrum".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The accession attribute name.
+     */
+    private static final byte[] ACCESSION = "accession".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The value attribute name.
+     */
+    private static final byte[] VALUE = "value".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The unit name attribute name.
+     */
+    private static final byte[] UNIT_NAME = "unitName".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The spectrum reference attribute name.
+     */
+    private static final byte[] SPECTRUM_REF = "spectrumRef".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The id attribute name.
+     */
+    private static final byte[] ID = "id".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The default array length attribute name.
+     */
+    private static final byte[] DEFAULT_ARRAY_LENGTH = "defaultArrayLength".getBytes(StandardCharsets.US_ASCII);
+    /**
+     * The value of the base 64 characters, -1 for characters to skip.
+     */
+    private static final int[] BASE64_VALUES = new int[256];
+
+    static {
+
+        Arrays.fill(BASE64_VALUES, -1);
+
+        String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+
+        for (int i = 0; i < alphabet.length(); i++) {
+            BASE64_VALUES[alphabet.charAt(i)] = i;
+        }
+    }
+
+    /**
+     * The decoders of the current thread.
+     */
+    private static final ThreadLocal<SpectrumDecoder> DECODERS = ThreadLocal.withInitial(SpectrumDecoder::new);
+    /**
+     * The mzML file.
+     */
+    private final File mzmlFile;
+    /**
+     * The name of the file without extension.
+     */
+    private final String fileNameWithoutExtension;
+    /**
+     * The random access file.
+     */
+    private final RandomAccessFile raf;
+    /**
+     * The channel to the file, used for positional reads.
+     */
+    private final FileChannel fc;
+    /**
+     * The titles of the spectra.
+     */
+    private final String[] titles;
+    /**
+     * The index of the spectra in the titles array.
+     */
+    private final HashMap<String, Integer> indexMap;
+    /**
+     * The offset of every spectrum in the file.
+     */
+    private final long[] offsets;
+    /**
+     * The offset before which every spectrum ends.
+     */
+    private final long[] ends;
+    /**
+     * The precursor summary of the file, loaded upon request.
+     */
+    private volatile FileSummary fileSummary = null;
+
+    /**
+     * Constructor.
+     *
+     * @param mzmlFile the mzML file to read
+     * @param waitingHandler a waiting handler used to display the progress
+     * when the file needs to be scanned, ignored if null
+     *
+     * @throws IOException thrown if an error occurred while attempting to read
+     * the file
+     */
+    public IndexedMzmlFileReader(
+            File mzmlFile,
+            WaitingHandler waitingHandler
+    ) throws IOException {
+
+        this.mzmlFile = mzmlFile;
+        this.fileNameWithoutExtension = IoUtil.removeExtension(mzmlFile.getName());
+
+        raf = new RandomAccessFile(mzmlFile, "r");
+        fc = raf.getChannel();
+
+        try {
+
+            long fileLength = fc.size();
+            long indexListOffset = getIndexListOffset(fileLength);
+
+            ArrayList<String> titlesList = new ArrayList<>();
+            ArrayList<Long> offsetsList = new ArrayList<>();
+
+            if (indexListOffset == -1
+                    || !readIndex(indexListOffset, fileLength, titlesList, offsetsList)
+                    || !isSpectrumOffset(offsetsList.get(0))
+                    || !isSpectrumOffset(offsetsList.get(offsetsList.size() - 1))) {
+
+                titlesList.clear();
+                offsetsList.clear();
+                indexListOffset = -1;
+
+                scan(fileLength, titlesList, offsetsList, waitingHandler);
+
+            }
+
+            int nSpectra = titlesList.size();
+
+            titles = titlesList.toArray(new String[nSpectra]);
+            offsets = offsetsList.stream().mapToLong(Long::longValue).toArray();
+            indexMap = new HashMap<>(nSpectra);
+
+            for (int i = 0; i < nSpectra; i++) {
+                indexMap.put(titles[i], i);
+            }
+
+            // every spectrum ends before the next spectrum in the file
+            long[] sortedOffsets = offsets.clone();
+            Arrays.sort(sortedOffsets);
+            long lastEnd = indexListOffset == -1 ? fileLength : indexListOffset;
+            ends = new long[nSpectra];
+
+            for (int i = 0; i < nSpectra; i++) {
+
+                int sortedIndex = Arrays.binarySearch(sortedOffsets, offsets[i]);
+                ends[i] = sortedIndex < nSpectra - 1 ? sortedOffsets[sortedIndex + 1] : lastEnd;
+
+            }
+
+        } catch (IOException | RuntimeException e) {
+
+            raf.close();
+            throw e;
+
+        }
+    }
+
+    /**
+     * Returns the offset of the index list as given at the end of the file,
+     * -1 if not found.
+     *
+     * @param fileLength the length of the file
+     *
+     * @return the offset of the index list
+     *
+     * @throws IOException thrown if an error occurred while reading the file
+     */
+    private long getIndexListOffset(long fileLength) throws IOException {
+
+        int length = (int) Math.min(fileLength, TAIL_LENGTH);
+        String tail = new String(read(fileLength - length, length), StandardCharsets.US_ASCII);
+        Matcher matcher = INDEX_LIST_OFFSET_PATTERN.matcher(tail);
+
+        if (!matcher.find()) {
+            return -1;
+        }
+
+        long indexListOffset = Long.parseLong(matcher.group(1));
+
+        return indexListOffset < fileLength ? indexListOffset : -1;
+
+    }
+
+    /**
+     * Reads the spectrum index of the file.
+     *
+     * @param indexListOffset the offset of the index list
+     * @param fileLength the length of the file
+     * @param titlesList the list where to store the titles of the spectra
+     * @param offsetsList the list where to store the offsets of the spectra
+     *
+     * @return a boolean indicating whether a non-empty spectrum index was found
+     *
+     * @throws IOException thrown if an error occurred while reading the file
+     */
+    private boolean readIndex(
+            long indexListOffset,
+            long fileLength,
+            ArrayList<String> titlesList,
+            ArrayList<Long> offsetsList
+    ) throws IOException {
+
+        long length = fileLength - indexListOffset;
+
+        if (length > Integer.MAX_VALUE) {
+            return false;
+        }
+
+        String indexList = new String(read(indexListOffset, (int) length), StandardCharsets.UTF_8);
+        Matcher indexMatcher = SPECTRUM_INDEX_PATTERN.matcher(indexList);
+
+        if (!indexMatcher.find()) {
+            return false;
+        }
+
+        Matcher offsetMatcher = OFFSET_PATTERN.matcher(indexMatcher.group(1));
+
+        while (offsetMatcher.find()) {
+
+            titlesList.add(unescape(offsetMatcher.group(1)));
+            offsetsList.add(Long.valueOf(offsetMatcher.group(2)));
+
+        }
+
+        return !titlesList.isEmpty();
+
+    }
+
+    /**
+     * Indicates whether a spectrum element starts at the given offset.
+     *
+     * @param offset the offset
+     *
+     * @return a boolean indicating whether a spectrum element starts at the
+     * given offset
+     *
+     * @throws IOException thrown if an error occurred while reading the file
+     */
+    private boolean isSpectrumOffset(long offset) throws IOException {
+
+        if (offset < 0 || offset + SPECTRUM_START.length + 1 > fc.size()) {
+            return false;
+        }
+
+        byte[] bytes = read(offset, SPECTRUM_START.length + 1);
+
+        return startsWith(bytes, 0, SPECTRUM_START) && isWhiteSpace(bytes[SPECTRUM_START.length]);
+
+    }
+
+    /**
+     * Scans the file for the start of spectrum elements and stores their id
+     * and offset.
+     *
+     * @param fileLength the length of the file
+     * @param titlesList the list where to store the titles of the spectra
+     * @param offsetsList the list where to store the offsets of the spectra
+     * @param waitingHandler a waiting handler, ignored if null
+     *
+     * @throws IOException thrown if an error occurred while reading the file
+     */
+    private void scan(
+            long fileLength,
+            ArrayList<String> titlesList,
+            ArrayList<Long> offsetsList,
+            WaitingHandler waitingHandler
+    ) throws IOException {
+
+        if (waitingHandler != null) {
+
+            waitingHandler.setSecondaryProgressCounterIndeterminate(false);
+            waitingHandler.setMaxSecondaryProgressCounter(100);
+            waitingHandler.setSecondaryProgressCounter(0);
+
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+        byte[] bytes = buffer.array();
+        byte[] tag = new byte[256];
+        int tagLength = 0;
+        boolean inTag = false;
+        int matched = 0;
+        long tagOffset = -1;
+        long position = 0;
+
+        while (position < fileLength) {
+
+            buffer.clear();
+            int length = fc.read(buffer, position);
+
+            if (length <= 0) {
+                break;
+            }
+
+            for (int i = 0; i < length; i++) {
+
+                byte b = bytes[i];
+
+                if (inTag) {
+
+                    if (b == '>') {
+
+                        String id = getAttribute(tag, 0, tagLength, ID);
+
+                        if (id == null) {
+                            throw new IllegalArgumentException("Spectrum without id found at offset " + tagOffset + " of " + mzmlFile + ".");
+                        }
+
+                        titlesList.add(id);
+                        offsetsList.add(tagOffset);
+                        inTag = false;
+
+                    } else {
+
+                        if (tagLength == tag.length) {
+                            tag = Arrays.copyOf(tag, 2 * tag.length);
+                        }
+
+                        tag[tagLength++] = b;
+
+                    }
+
+                } else if (matched == SPECTRUM_START.length) {
+
+                    if (isWhiteSpace(b)) {
+
+                        inTag = true;
+                        tagLength = 0;
+                        tag[tagLength++] = b;
+
+                    }
+
+                    matched = b == SPECTRUM_START[0] ? 1 : 0;
+
+                } else if (b == SPECTRUM_START[matched]) {
+
+                    if (matched == 0) {
+                        tagOffset = position + i;
+                    }
+
+                    matched++;
+
+                } else {
+
+                    matched = b == SPECTRUM_START[0] ? 1 : 0;
+
+                    if (matched == 1) {
+                        tagOffset = position + i;
+                    }
+                }
+            }
+
+            position += length;
+
+            if (waitingHandler != null) {
+
+                if (waitingHandler.isRunCanceled()) {
+                    return;
+                }
+
+                waitingHandler.setSecondaryProgressCounter((int) (100 * position / fileLength));
+
+            }
+        }
+
+        if (titlesList.isEmpty()) {
+            throw new IllegalArgumentException("No spectrum found in " + mzmlFile + ".");
+        }
+    }
+
+    /**
+     * Reads the given number of bytes at the given position.
+     *
+     * @param position the position in the file
+     * @param length the number of bytes to read
+     *
+     * @return the bytes read
+     *
+     * @throws IOException thrown if an error occurred while reading the file
+     */
+    private byte[] read(long position, int length) throws IOException {
+
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        readFully(buffer, position);
+
+        return buffer.array();
+
+    }
+
+    /**
+     * Fills the given buffer with the bytes of the file at the given
+     * position. This method can be called concurrently.
+     *
+     * @param buffer the buffer to fill
+     * @param position the position in the file
+     *
+     * @throws IOException thrown if an error occurred while reading the file
+     */
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+
+        while (buffer.hasRemaining()) {
+
+            int length = fc.read(buffer, position);
+
+            if (length < 0) {
+                throw new IOException("Unexpected end of file " + mzmlFile + ".");
+            }
+
+            position += length;
+
+        }
+    }
+
+    /**
+     * Parses the spectrum at the given index using the decoder of the current
+     * thread.
+     *
+     * @param spectrumTitle the title of the spectrum
+     * @param readPeaks if true the peaks are decoded, otherwise only the
+     * header of the spectrum is read and the peak arrays are empty
+     *
+     * @return the spectrum
+     */
+    private Spectrum parseSpectrum(
+            String spectrumTitle,
+            boolean readPeaks
+    ) {
+
+        Integer index = indexMap.get(spectrumTitle);
+
+        if (index == null) {
+            throw new IllegalArgumentException("Spectrum " + spectrumTitle + " not found in " + mzmlFile + ".");
+        }
+
+        SpectrumDecoder decoder = DECODERS.get();
+
+        try {
+
+            int length = readSpectrum(decoder, index, readPeaks);
+
+            return decoder.parse(length, readPeaks);
+
+        } catch (IOException e) {
+
+            throw new RuntimeException("An error occurred while reading spectrum " + spectrumTitle + " in " + mzmlFile + ".", e);
+
+        }
+    }
+
+    /**
+     * Reads the bytes of the spectrum at the given index into the xml buffer
+     * of the given decoder, until the end of the spectrum, or until the start
+     * of the binary data if only the header is needed.
+     *
+     * @param decoder the decoder
+     * @param index the index of the spectrum
+     * @param readPeaks if true the entire spectrum is read, otherwise only its
+     * header
+     *
+     * @return the number of bytes read
+     *
+     * @throws IOException thrown if an error occurred while reading the file
+     */
+    private int readSpectrum(
+            SpectrumDecoder decoder,
+            int index,
+            boolean readPeaks
+    ) throws IOException {
+
+        long offset = offsets[index];
+        long maxLength = ends[index] - offset;
+        int length = 0;
+        int readLength = (int) Math.min(maxLength, readPeaks ? SPECTRUM_READ_LENGTH : HEADER_READ_LENGTH);
+
+        while (true) {
+
+            decoder.ensureXmlCapacity(length + readLength);
+
+            ByteBuffer buffer = ByteBuffer.wrap(decoder.xml, length, readLength);
+            readFully(buffer, offset + length);
+
+            int searchStart = Math.max(0, length - BINARY_DATA_ARRAY_LIST.length);
+            length += readLength;
+
+            if (indexOf(decoder.xml, SPECTRUM_END, searchStart, length) != -1
+                    || !readPeaks && indexOf(decoder.xml, BINARY_DATA_ARRAY_LIST, searchStart, length) != -1) {
+                return length;
+            }
+
+            if (length >= maxLength) {
+                throw new IllegalArgumentException("End of spectrum " + titles[index] + " not found in " + mzmlFile + ".");
+            }
+
+            readLength = (int) Math.min(maxLength - length, Math.max(length, HEADER_READ_LENGTH));
+
+        }
+    }
+
+    /**
+     * Returns the precursor summary of the file, computing it if needed.
+     *
+     * @return the precursor summary of the file
+     */
+    private FileSummary getFileSummary() {
+
+        FileSummary result = fileSummary;
+
+        if (result == null) {
+
+            synchronized (this) {
+
+                result = fileSummary;
+
+                if (result == null) {
+
+                    result = new FileSummary();
+
+                    for (String title : titles) {
+
+                        Spectrum spectrum = parseSpectrum(title, false);
+                        result.addSpectrum(title, spectrum);
+
+                    }
+
+                    fileSummary = result;
+
+                }
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the spectrum with the given title.
+     *
+     * @param spectrumTitle the title of the spectrum
+     *
+     * @return the spectrum
+     */
+    public Spectrum getSpectrum(String spectrumTitle) {
+
+        return parseSpectrum(spectrumTitle, true);
+
+    }
+
+    /**
+     * Returns the precursor of the spectrum with the given title, null for
+     * MS1 spectra.
+     *
+     * @param spectrumTitle the title of the spectrum
+     *
+     * @return the precursor of the spectrum
+     */
+    public Precursor getPrecursor(String spectrumTitle) {
+
+        return parseSpectrum(spectrumTitle, false).getPrecursor();
+
+    }
+
+    @Override
+    public Spectrum getSpectrum(String fileName, String spectrumTitle) {
+
+        return getSpectrum(spectrumTitle);
+
+    }
+
+    @Override
+    public Precursor getPrecursor(String fileName, String spectrumTitle) {
+
+        return getPrecursor(spectrumTitle);
+
+    }
+
+    @Override
+    public ArrayList<String> getPostcursorSpectrumTitles(String fileName, String spectrumTitle) {
+
+        return getFileSummary().postcursorMap.get(spectrumTitle);
+
+    }
+
+    @Override
+    public double getPrecursorMz(String fileName, String spectrumTitle) {
+
+        Precursor precursor = getPrecursor(spectrumTitle);
+
+        return precursor == null ? Double.NaN : precursor.mz;
+
+    }
+
+    @Override
+    public double getPrecursorRt(String fileName, String spectrumTitle) {
+
+        Precursor precursor = getPrecursor(spectrumTitle);
+
+        return precursor == null ? Double.NaN : precursor.rt;
+
+    }
+
+    @Override
+    public int getSpectrumLevel(String fileName, String spectrumTitle) {
+
+        return parseSpectrum(spectrumTitle, false).getSpectrumLevel();
+
+    }
+
+    @Override
+    public double[][] getPeaks(String fileName, String spectrumTitle) {
+
+        Spectrum spectrum = getSpectrum(spectrumTitle);
+
+        double[][] peaks = new double[spectrum.mz.length][2];
+
+        for (int i = 0; i < spectrum.mz.length; i++) {
+
+            peaks[i][0] = spectrum.mz[i];
+            peaks[i][1] = spectrum.intensity[i];
+
+        }
+
+        return peaks;
+
+    }
+
+    @Override
+    public double getMinPrecMz(String fileName) {
+
+        return getFileSummary().minMz;
+
+    }
+
+    @Override
+    public double getMaxPrecMz(String fileName) {
+
+        return getFileSummary().maxMz;
+
+    }
+
+    @Override
+    public double getMaxPrecInt(String fileName) {
+
+        return getFileSummary().maxInt;
+
+    }
+
+    @Override
+    public double getMaxPrecRT(String fileName) {
+
+        return getFileSummary().maxRt;
+
+    }
+
+    @Override
+    public double getMinPrecMz() {
+
+        return getFileSummary().minMz;
+
+    }
+
+    @Override
+    public double getMaxPrecMz() {
+
+        return getFileSummary().maxMz;
+
+    }
+
+    @Override
+    public double getMaxPrecInt() {
+
+        return getFileSummary().maxInt;
+
+    }
+
+    @Override
+    public double getMaxPrecRT() {
+
+        return getFileSummary().maxRt;
+
+    }
+
+    @Override
+    public String[] getOrderedFileNamesWithoutExtensions() {
+
+        return new String[]{fileNameWithoutExtension};
+
+    }
+
+    @Override
+    public String[] getSpectrumTitles(String fileName) {
+
+        return titles;
+
+    }
+
+    @Override
+    public HashMap<String, String> getFilePaths() {
+
+        HashMap<String, String> filePaths = new HashMap<>(1);
+        filePaths.put(fileNameWithoutExtension, mzmlFile.getAbsolutePath());
+
+        return filePaths;
+
+    }
+
+    @Override
+    public HashMap<String, String> getCmsFilePaths() {
+
+        return new HashMap<>(0);
+
+    }
+
+    @Override
+    public void close() {
+
+        try {
+
+            raf.close();
+
+        } catch (IOException e) {
+
+            throw new RuntimeException(e);
+
+        }
+    }
+
+    /**
+     * Returns the index of the first occurrence of the given pattern in the
+     * given range of bytes, -1 if not found.
+     *
+     * @param bytes the bytes
+     * @param pattern the pattern
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     *
+     * @return the index of the first occurrence of the pattern
+     */
+    private static int indexOf(
+            byte[] bytes,
+            byte[] pattern,
+            int start,
+            int end
+    ) {
+
+        int last = end - pattern.length;
+
+        for (int i = start; i <= last; i++) {
+
+            if (bytes[i] == pattern[0] && startsWith(bytes, i, pattern)) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Indicates whether the bytes at the given position start with the given
+     * pattern.
+     *
+     * @param bytes the bytes
+     * @param position the position
+     * @param pattern the pattern
+     *
+     * @return a boolean indicating whether the bytes at the given position
+     * start with the given pattern
+     */
+    private static boolean startsWith(
+            byte[] bytes,
+            int position,
+            byte[] pattern
+    ) {
+
+        if (position + pattern.length > bytes.length) {
+            return false;
+        }
+
+        for (int i = 0; i < pattern.length; i++) {
+
+            if (bytes[position + i] != pattern[i]) {
+                return false;
+            }
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Indicates whether the given byte is an xml white space.
+     *
+     * @param b the byte
+     *
+     * @return a boolean indicating whether the given byte is an xml white space
+     */
+    private static boolean isWhiteSpace(byte b) {
+
+        return b == ' ' || b == '\t' || b == '\n' || b == '\r';
+
+    }
+
+    /**
+     * Returns the unescaped value of the given attribute in the given range of
+     * bytes, null if not found.
+     *
+     * @param bytes the bytes
+     * @param start the start of the range, inclusive
+     * @param end the end of the range, exclusive
+     * @param attributeName the name of the attribute
+     *
+     * @return the value of the attribute
+     */
+    private static String getAttribute(
+            byte[] bytes,
+            int start,
+            int end,
+            byte[] attributeName
+    ) {
+
+        int i = start;
+
+        while ((i = indexOf(bytes, attributeName, i, end)) != -1) {
+
+            int nameEnd = i + attributeName.length;
+
+            if (i > start && isWhiteSpace(bytes[i - 1])) {
+
+                int j = nameEnd;
+
+                while (j < end && isWhiteSpace(bytes[j])) {
+                    j++;
+                }
+
+                if (j < end && bytes[j] == '=') {
+
+                    j++;
+
+                    while (j < end && isWhiteSpace(bytes[j])) {
+                        j++;
+                    }
+
+                    if (j < end && (bytes[j] == '"' || bytes[j] == '\'')) {
+
+                        byte quote = bytes[j];
+                        int valueStart = j + 1;
+                        int valueEnd = valueStart;
+
+                        while (valueEnd < end && bytes[valueEnd] != quote) {
+                            valueEnd++;
+                        }
+
+                        return unescape(new String(bytes, valueStart, valueEnd - valueStart, StandardCharsets.UTF_8));
+
+                    }
+                }
+            }
+
+            i = nameEnd;
+
+        }
+
+        return null;
+
+    }
+
+    /**
+     * Replaces the predefined xml entities and character references in the
+     * given text.
+     *
+     * @param text the text
+     *
+     * @return the unescaped text
+     */
+    private static String unescape(String text) {
+
+        int ampersandIndex = text.indexOf('&');
+
+        if (ampersandIndex == -1) {
+            return text;
+        }
+
+        StringBuilder sb = new StringBuilder(text.length());
+        sb.append(text, 0, ampersandIndex);
+
+        for (int i = ampersandIndex; i < text.length(); i++) {
+
+            char c = text.charAt(i);
+            int semicolonIndex;
+
+            if (c == '&' && (semicolonIndex = text.indexOf(';', i)) != -1) {
+
+                String entity = text.substring(i + 1, semicolonIndex);
+
+                switch (entity) {
+
+                    case "amp":
+                        sb.append('&');
+                        break;
+
+                    case "lt":
+                        sb.append('<');
+                        break;
+
+                    case "gt":
+                        sb.append('>');
+                        break;
+
+                    case "quot":
+                        sb.append('"');
+                        break;
+
+                    case "apos":
+                        sb.append('\'');
+                        break;
+
+                    default:
+
+                        if (entity.startsWith("#x")) {
+                            sb.appendCodePoint(Integer.parseInt(entity.substring(2), 16));
+                        } else if (entity.startsWith("#")) {
+                            sb.appendCodePoint(Integer.parseInt(entity.substring(1)));
+                        } else {
+                            sb.append(text, i, semicolonIndex + 1);
+                        }
+                }
+
+                i = semicolonIndex;
+
+            } else {
+
+                sb.append(c);
+
+            }
+        }
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Precursor summary of the file.
+     */
+    private static class FileSummary {
+
+        /**
+         * The minimal precursor m/z.
+         */
+        private double minMz = Double.MAX_VALUE;
+        /**
+         * The maximal precursor m/z.
+         */
+        private double maxMz = 0.0;
+        /**
+         * The maximal precursor intensity.
+         */
+        private double maxInt = 0.0;
+        /**
+         * The maximal precursor RT.
+         */
+        private double maxRt = 0.0;
+        /**
+         * The titles of the spectra derived from every precursor spectrum.
+         */
+        private final HashMap<String, ArrayList<String>> postcursorMap = new HashMap<>();
+
+        /**
+         * Adds the precursor of the given spectrum to the summary.
+         *
+         * @param spectrumTitle the title of the spectrum
+         * @param spectrum the spectrum
+         */
+        private void addSpectrum(
+                String spectrumTitle,
+                Spectrum spectrum
+        ) {
+
+            PrecursorParameter precursorParameter = (PrecursorParameter) spectrum.getUrParam(PrecursorParameter.dummy);
+
+            if (precursorParameter != null) {
+
+                for (String precursorIdentifier : precursorParameter.getPrecusorIdentifiers()) {
+
+                    ArrayList<String> postcursors = postcursorMap.get(precursorIdentifier);
+
+                    if (postcursors == null) {
+
+                        postcursors = new ArrayList<>(1);
+                        postcursorMap.put(precursorIdentifier, postcursors);
+
+                    }
+
+                    postcursors.add(spectrumTitle);
+
+                }
+            }
+
+            Precursor precursor = spectrum.getPrecursor();
+
+            if (precursor != null) {
+
+                minMz = Math.min(minMz, precursor.mz);
+                maxMz = Math.max(maxMz, precursor.mz);
+                maxInt = Math.max(maxInt, precursor.intensity);
+                maxRt = Math.max(maxRt, precursor.rt);
+
+            }
+        }
+    }
+
+    /**
+     * Parser for the bytes of a spectrum element. The buffers and inflater are
+     * reused across spectra, an instance must therefore only be used by one
+     * thread at a time.
+     */
+    private static class SpectrumDecoder {
+
+        /**
+         * The bytes of the spectrum element.
+         */
+        private byte[] xml = new byte[SPECTRUM_READ_LENGTH];
+        /**
+         * Buffer for the base 64 decoded data.
+         */
+        private byte[] binary = new byte[1024];
+        /**
+         * Buffer for the inflated data.
+         */
+        private byte[] inflated = new byte[1024];
+        /**
+         * The inflater.
+         */
+        private final Inflater inflater = new Inflater();
+
+        /**
+         * Makes sure that the xml buffer can hold the given number of bytes.
+         *
+         * @param capacity the required capacity
+         */
+        private void ensureXmlCapacity(int capacity) {
+
+            if (xml.length < capacity) {
+                xml = Arrays.copyOf(xml, Math.max(capacity, 2 * xml.length));
+            }
+        }
+
+        /**
+         * Parses the spectrum in the xml buffer.
+         *
+         * @param length the number of bytes of the spectrum element
+         * @param readPeaks if true the peaks are decoded
+         *
+         * @return the spectrum
+         */
+        private Spectrum parse(
+                int length,
+                boolean readPeaks
+        ) {
+
+            int spectrumLevel = -1;
+            double retentionTimeInSeconds = -1.0;
+            ArrayList<Integer> possibleCharges = new ArrayList<>(1);
+            double precursorMz = 0.0;
+            double precursorIntensity = 0.0;
+            ArrayList<String> precursorIdentifiers = new ArrayList<>(1);
+            double[] mzArray = new double[0];
+            double[] intensityArray = new double[0];
+            int defaultArrayLength = 0;
+
+            // binary data array parameters
+            Boolean mzArrayValues = null;
+            Precision precision = Precision.FLOAT64BIT;
+            boolean zlib = false;
+            String numpress = null;
+
+            int position = 0;
+
+            while ((position = indexOf(xml, '<', position, length)) != -1) {
+
+                int nameStart = position + 1;
+                int tagEnd = indexOf(xml, '>', nameStart, length);
+
+                if (tagEnd == -1) {
+                    break;
+                }
+
+                if (xml[nameStart] == '/') {
+
+                    if (tagNameEquals(nameStart + 1, tagEnd, SPECTRUM)) {
+                        break;
+                    }
+
+                } else if (tagNameEquals(nameStart, tagEnd, CV_PARAM)) {
+
+                    String accession = getAttribute(xml, nameStart, tagEnd, ACCESSION);
+
+                    if (accession != null) {
+
+                        switch (accession) {
+
+                            case "MS:1000511":
+                                spectrumLevel = Integer.parseInt(getAttribute(xml, nameStart, tagEnd, VALUE));
+                                break;
+
+                            case "MS:1000016":
+
+                                String unitName = getAttribute(xml, nameStart, tagEnd, UNIT_NAME);
+                                double rt = Double.parseDouble(getAttribute(xml, nameStart, tagEnd, VALUE));
+
+                                if ("minute".equalsIgnoreCase(unitName)) {
+                                    retentionTimeInSeconds = rt * 60;
+                                } else if ("second".equalsIgnoreCase(unitName)) {
+                                    retentionTimeInSeconds = rt;
+                                }
+
+                                break;
+
+                            case "MS:1000041":
+                                possibleCharges.add(Integer.valueOf(getAttribute(xml, nameStart, tagEnd, VALUE)));
+                                break;
+
+                            case "MS:1000744":
+                                precursorMz = Double.parseDouble(getAttribute(xml, nameStart, tagEnd, VALUE));
+                                break;
+
+                            case "MS:1000042":
+                                precursorIntensity = Double.parseDouble(getAttribute(xml, nameStart, tagEnd, VALUE));
+                                break;
+
+                            case "MS:1000514":
+                                mzArrayValues = true;
+                                break;
+
+                            case "MS:1000515":
+                                mzArrayValues = false;
+                                break;
+
+                            case "MS:1000521":
+                                precision = Precision.FLOAT32BIT;
+                                break;
+
+                            case "MS:1000523":
+                                precision = Precision.FLOAT64BIT;
+                                break;
+
+                            case "MS:1000519":
+                                precision = Precision.INT32BIT;
+                                break;
+
+                            case "MS:1000522":
+                                precision = Precision.INT64BIT;
+                                break;
+
+                            case "MS:1001479":
+                                precision = Precision.NTSTRING;
+                                break;
+
+                            case "MS:1000574":
+                                zlib = true;
+                                break;
+
+                            case "MS:1000576":
+                                zlib = false;
+                                numpress = null;
+                                break;
+
+                            case MSNumpress.ACC_NUMPRESS_LINEAR:
+                            case MSNumpress.ACC_NUMPRESS_PIC:
+                            case MSNumpress.ACC_NUMPRESS_SLOF:
+                                numpress = accession;
+                                break;
+
+                            case "MS:1002746":
+                                zlib = true;
+                                numpress = MSNumpress.ACC_NUMPRESS_LINEAR;
+                                break;
+
+                            case "MS:1002747":
+                                zlib = true;
+                                numpress = MSNumpress.ACC_NUMPRESS_PIC;
+                                break;
+
+                            case "MS:1002748":
+                                zlib = true;
+                                numpress = MSNumpress.ACC_NUMPRESS_SLOF;
+                                break;
+
+                            default:
+                                break;
+
+                        }
+                    }
+
+                } else if (tagNameEquals(nameStart, tagEnd, PRECURSOR)) {
+
+                    String spectrumRef = getAttribute(xml, nameStart, tagEnd, SPECTRUM_REF);
+
+                    if (spectrumRef != null && !precursorIdentifiers.contains(spectrumRef)) {
+                        precursorIdentifiers.add(spectrumRef);
+                    }
+
+                } else if (tagNameEquals(nameStart, tagEnd, BINARY_DATA_ARRAY)) {
+
+                    mzArrayValues = null;
+                    precision = Precision.FLOAT64BIT;
+                    zlib = false;
+                    numpress = null;
+
+                } else if (tagNameEquals(nameStart, tagEnd, SPECTRUM)) {
+
+                    String defaultArrayLengthValue = getAttribute(xml, nameStart, tagEnd, DEFAULT_ARRAY_LENGTH);
+
+                    if (defaultArrayLengthValue != null) {
+                        defaultArrayLength = Integer.parseInt(defaultArrayLengthValue);
+                    }
+
+                } else if (tagNameEquals(nameStart, tagEnd, BINARY)) {
+
+                    if (!readPeaks) {
+                        break;
+                    }
+
+                    int dataStart = tagEnd + 1;
+                    int dataEnd;
+
+                    if (xml[tagEnd - 1] == '/') {
+
+                        dataEnd = dataStart;
+
+                    } else {
+
+                        dataEnd = IndexedMzmlFileReader.indexOf(xml, BINARY_END, dataStart, length);
+
+                        if (dataEnd == -1) {
+                            throw new IllegalArgumentException("Binary data not terminated.");
+                        }
+
+                        tagEnd = dataEnd + BINARY_END.length - 1;
+
+                    }
+
+                    if (mzArrayValues != null && precision != Precision.NTSTRING) {
+
+                        double[] values = decode(dataStart, dataEnd, precision, zlib, numpress, defaultArrayLength);
+
+                        if (mzArrayValues) {
+                            mzArray = values;
+                        } else {
+                            intensityArray = values;
+                        }
+                    }
+                }
+
+                position = tagEnd + 1;
+
+            }
+
+            Precursor precursor = null; // no precusors for ms1 spectra
+
+            if (spectrumLevel > 1) {
+
+                precursor = new Precursor(
+                        retentionTimeInSeconds,
+                        precursorMz,
+                        precursorIntensity,
+                        possibleCharges.stream().mapToInt(i -> i).toArray()
+                );
+
+            }
+
+            Spectrum spectrum = new Spectrum(
+                    precursor,
+                    mzArray,
+                    intensityArray,
+                    spectrumLevel
+            );
+
+            if (!precursorIdentifiers.isEmpty()) {
+                spectrum.addUrParam(new PrecursorParameter(precursorIdentifiers));
+            }
+
+            return spectrum;
+
+        }
+
+        /**
+         * Decodes the base 64 encoded binary data in the given range of the
+         * xml buffer.
+         *
+         * @param start the start of the data, inclusive
+         * @param end the end of the data, exclusive
+         * @param precision the precision of the data
+         * @param zlib boolean indicating whether the data is zlib compressed
+         * @param numpress the numpress compression accession, null if none
+         * @param expectedLength the expected number of values
+         *
+         * @return the decoded values
+         */
+        private double[] decode(
+                int start,
+                int end,
+                Precision precision,
+                boolean zlib,
+                String numpress,
+                int expectedLength
+        ) {
+
+            byte[] data = binary;
+            int dataLength = decodeBase64(start, end);
+
+            if (zlib && dataLength > 0) {
+
+                dataLength = inflate(dataLength, 8 * expectedLength);
+                data = inflated;
+
+            }
+
+            if (dataLength == 0) {
+                return new double[0];
+            }
+
+            if (numpress != null) {
+                return MSNumpress.decodePrimitive(numpress, data, dataLength);
+            }
+
+            ByteBuffer byteBuffer = ByteBuffer.wrap(data, 0, dataLength).order(ByteOrder.LITTLE_ENDIAN);
+            double[] values;
+
+            switch (precision) {
+
+                case FLOAT64BIT:
+                    values = new double[dataLength / Double.BYTES];
+                    byteBuffer.asDoubleBuffer().get(values);
+                    break;
+
+                case FLOAT32BIT:
+                    values = new double[dataLength / Float.BYTES];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = byteBuffer.getFloat(i * Float.BYTES);
+                    }
+                    break;
+
+                case INT64BIT:
+                    values = new double[dataLength / Long.BYTES];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = byteBuffer.getLong(i * Long.BYTES);
+                    }
+                    break;
+
+                case INT32BIT:
+                    values = new double[dataLength / Integer.BYTES];
+                    for (int i = 0; i < values.length; i++) {
+                        values[i] = byteBuffer.getInt(i * Integer.BYTES);
+                    }
+                    break;
+
+                default:
+                    throw new IllegalStateException(
+                            "Not supported Precision in BinaryDataArray: " + precision
+                    );
+            }
+
+            return values;
+
+        }
+
+        /**
+         * Decodes the base 64 data in the given range of the xml buffer into
+         * the binary buffer. Characters outside of the base 64 alphabet, like
+         * white spaces and padding, are skipped.
+         *
+         * @param start the start of the data, inclusive
+         * @param end the end of the data, exclusive
+         *
+         * @return the number of decoded bytes
+         */
+        private int decodeBase64(
+                int start,
+                int end
+        ) {
+
+            int maxLength = 3 * (end - start) / 4 + 3;
+
+            if (binary.length < maxLength) {
+                binary = new byte[Math.max(maxLength, 2 * binary.length)];
+            }
+
+            int buffer = 0;
+            int nBits = 0;
+            int length = 0;
+
+            for (int i = start; i < end; i++) {
+
+                int value = BASE64_VALUES[xml[i] & 0xff];
+
+                if (value >= 0) {
+
+                    buffer = (buffer << 6) | value;
+                    nBits += 6;
+
+                    if (nBits >= 8) {
+
+                        nBits -= 8;
+                        binary[length++] = (byte) (buffer >> nBits);
+                        buffer &= (1 << nBits) - 1;
+
+                    }
+                }
+            }
+
+            return length;
+
+        }
+
+        /**
+         * Inflates the given number of bytes of the binary buffer into the
+         * inflated buffer.
+         *
+         * @param length the number of bytes to inflate
+         * @param expectedLength the expected length of the inflated data
+         *
+         * @return the number of inflated bytes
+         */
+        private int inflate(
+                int length,
+                int expectedLength
+        ) {
+
+            if (inflated.length < expectedLength) {
+                inflated = new byte[expectedLength];
+            }
+
+            inflater.reset();
+            inflater.setInput(binary, 0, length);
+
+            int inflatedLength = 0;
+
+            try {
+
+                while (!inflater.finished()) {
+
+                    if (inflatedLength == inflated.length) {
+                        inflated = Arrays.copyOf(inflated, 2 * inflated.length);
+                    }
+
+                    int count = inflater.inflate(inflated, inflatedLength, inflated.length - inflatedLength);
+
+                    if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+
+                    inflatedLength += count;
+
+                }
+
+            } catch (DataFormatException e) {
+
+                throw new IllegalStateException(
+                        "Encountered wrong data format "
+                        + "while trying to decompress binary data!",
+                        e
+                );
+
+            }
+
+            return inflatedLength;
+
+        }
+
+        /**
+         * Indicates whether the name of the tag starting at the given position
+         * is the given name.
+         *
+         * @param nameStart the start of the tag name
+         * @param tagEnd the end of the tag
+         * @param name the name
+         *
+         * @return a boolean indicating whether the tag has the given name
+         */
+        private boolean tagNameEquals(
+                int nameStart,
+                int tagEnd,
+                byte[] name
+        ) {
+
+            int nameEnd = nameStart + name.length;
+
+            if (nameEnd > tagEnd || !startsWith(xml, nameStart, name)) {
+                return false;
+            }
+
+            byte next = xml[nameEnd];
+
+            return nameEnd == tagEnd || next == '/' || isWhiteSpace(next);
+
+        }
+
+        /**
+         * Returns the index of the first occurrence of the given character in
+         * the given range of the xml buffer, -1 if not found.
+         *
+         * @param bytes the bytes
+         * @param c the character
+         * @param start the start of the range, inclusive
+         * @param end the end of the range, exclusive
+         *
+         * @return the index of the first occurrence of the character
+         */
+        private static int indexOf(
+                byte[] bytes,
+                char c,
+                int start,
+                int end
+        ) {
+
+            for (int i = start; i < end; i++) {
+
+                if (bytes[i] == c) {
+                    return i;
+                }
+            }
+
+            return -1;
+
+        }
+    }
+}
@@ -139,6 +139,51 @@ public class MSNumpress {
         throw new IllegalArgumentException("'" + cvAccession + "' is not a numpress compression term");
     }
 
+    /**
+     * Decodes the first bytes of the given array directly into primitive
+     * doubles using the decoder corresponding to the given accession.
+     *
+     * @param cvAccession The PSI-MS obo CV accession of the encoded data.
+     * @param data array of bytes to be decoded
+     * @param dataSize number of bytes from data to decode
+     *
+     * @return The decoded doubles
+     */
+    public static double[] decodePrimitive(String cvAccession, byte[] data, int dataSize) {
+
+        double[] buffer;
+        int nbrOfDoubles;
+
+        switch (cvAccession) {
+
+            case ACC_NUMPRESS_LINEAR:
+                buffer = new double[dataSize * 2];
+                nbrOfDoubles = MSNumpress.decodeLinear(data, dataSize, buffer);
+                break;
+
+            case ACC_NUMPRESS_SLOF:
+                buffer = new double[dataSize / 2];
+                nbrOfDoubles = MSNumpress.decodeSlof(data, dataSize, buffer);
+                break;
+
+            case ACC_NUMPRESS_PIC:
+                buffer = new double[dataSize * 2];
+                nbrOfDoubles = MSNumpress.decodePic(data, dataSize, buffer);
+                break;
+
+            default:
+                throw new IllegalArgumentException("'" + cvAccession + "' is not a numpress compression term");
+
+        }
+
+        if (nbrOfDoubles < 0) {
+            throw new IllegalArgumentException("Corrupt numpress data.");
+        }
+
+        return nbrOfDoubles == buffer.length ? buffer : Arrays.copyOf(buffer, nbrOfDoubles);
+
+    }
+
     /**
      * This encoding works on a 4 byte integer, by truncating initial zeros or
      * ones. If the initial (most significant) half byte is 0x0 or 0xf, the
@@ -401,6 +446,41 @@ public class MSNumpress {
             Double[] result
     ) {
 
+        double[] primitiveResult = new double[result.length];
+        int nbrOfDoubles = decodeLinear(data, dataSize, primitiveResult);
+
+        for (int i = 0; i < nbrOfDoubles; i++) {
+            result[i] = primitiveResult[i];
+        }
+
+        return nbrOfDoubles;
+    }
+
+    /**
+     * Decodes data encoded by encodeLinear. Note that the compression discard
+     * any information &lt; 1e-5, so data is only guaranteed to be within +-
+     * 5e-6 of the original value.
+     *
+     * Further, values &gt; ~42000 will also be truncated because of the fixed
+     * point representation, so this scheme is strongly discouraged if values
+     * above might be above this size.
+     *
+     * Result vector guaranteedly shorter than twice the data length (in nbr of
+     * values) returns the number of doubles read.
+     *
+     * @param data array of bytes to be decoded
+     * @param dataSize number of bytes from data to decode
+     * @param result array were resulting doubles should be stored
+     *
+     * @return the number of decoded doubles, or -1 if dataSize &lt; 4 or 4 &lt;
+     * dataSize &lt; 8
+     */
+    public static int decodeLinear(
+            byte[] data,
+            int dataSize,
+            double[] result
+    ) {
+
         int ri = 2;
         long[] ints = new long[3];
         long extrapol;
@@ -532,6 +612,34 @@ public class MSNumpress {
             Double[] result
     ) {
 
+        double[] primitiveResult = new double[result.length];
+        int nbrOfDoubles = decodePic(data, dataSize, primitiveResult);
+
+        for (int i = 0; i < nbrOfDoubles; i++) {
+            result[i] = primitiveResult[i];
+        }
+
+        return nbrOfDoubles;
+    }
+
+    /**
+     * Decodes data encoded by encodePic
+     *
+     * Result vector guaranteedly shorter than twice the data length (in nbr of
+     * values).
+     *
+     * @param data array of bytes to be decoded (need memorycont. repr.)
+     * @param dataSize number of bytes from data to decode
+     * @param result array were resulting doubles should be stored
+     *
+     * @return the number of decoded doubles
+     */
+    public static int decodePic(
+            byte[] data,
+            int dataSize,
+            double[] result
+    ) {
+
         int ri = 0;
         long count;
         IntDecoder dec = new IntDecoder(data, 0);
@@ -636,6 +744,34 @@ public class MSNumpress {
             Double[] result
     ) {
 
+        double[] primitiveResult = new double[result.length];
+        int nbrOfDoubles = decodeSlof(data, dataSize, primitiveResult);
+
+        for (int i = 0; i < nbrOfDoubles; i++) {
+            result[i] = primitiveResult[i];
+        }
+
+        return nbrOfDoubles;
+    }
+
+    /**
+     * Decodes data encoded by encodeSlof.
+     *
+     * result vector length is twice the data length returns the number of
+     * doubles read
+     *
+     * @param data array of bytes to be decoded (need memorycont. repr.)
+     * @param dataSize number of bytes from data to decode
+     * @param result array were resulting doubles should be stored
+     *
+     * @return the number of decoded doubles
+     */
+    public static int decodeSlof(
+            byte[] data,
+            int dataSize,
+            double[] result
+    ) {
+
         int x;
         int ri = 0;
 
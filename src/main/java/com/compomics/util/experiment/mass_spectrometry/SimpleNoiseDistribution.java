@@ -57,11 +57,26 @@ public class SimpleNoiseDistribution {
             double[] intensities
     ) {
 
-        double[] intensitiesLog = Arrays.stream(intensities)
-                .map(intensity -> FastMath.log10(intensity))
-                .toArray();
-        
-        intensityLogDistribution = NonSymmetricalNormalDistribution.getRobustNonSymmetricalNormalDistributionFromSortedArray(intensitiesLog);
+        this(NonSymmetricalNormalDistribution.getRobustNonSymmetricalNormalDistributionFromSortedArray(
+                Arrays.stream(intensities)
+                        .map(intensity -> FastMath.log10(intensity))
+                        .sorted()
+                        .toArray()
+        ));
+    }
+
+    /**
+     * Constructor from a distribution of the log10 intensities, e.g. as stored
+     * in the statistics of a spectrum.
+     * 
+     * @param intensityLogDistribution The distribution of the log10
+     * intensities.
+     */
+    public SimpleNoiseDistribution(
+            NonSymmetricalNormalDistribution intensityLogDistribution
+    ) {
+
+        this.intensityLogDistribution = intensityLogDistribution;
 
         orderedBins = new int[nBins - 1];
         pLog = new double[nBins - 1];
@@ -77,6 +92,15 @@ public class SimpleNoiseDistribution {
         }
     }
 
+    /**
+     * Returns the distribution of the log10 intensities.
+     * 
+     * @return the distribution of the log10 intensities
+     */
+    public NonSymmetricalNormalDistribution getIntensityLogDistribution() {
+        return intensityLogDistribution;
+    }
+
     /**
      * Get the binned cumulative probability.
      * 
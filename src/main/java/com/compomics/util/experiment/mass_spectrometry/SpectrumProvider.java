@@ -2,6 +2,7 @@ package com.compomics.util.experiment.mass_spectrometry;
 
 import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.experiment.mass_spectrometry.spectra.SpectrumStatistics;
 import java.util.ArrayList;
 import java.util.HashMap;
 
@@ -111,6 +112,23 @@ public interface SpectrumProvider extends AutoCloseable {
             String spectrumTitle
     );
 
+    /**
+     * Returns the precomputed statistics on the intensities of the spectrum.
+     * Null if not available, the default implementation returns null.
+     *
+     * @param fileNameWithoutExtension The name of the spectrum file without
+     * file extension.
+     * @param spectrumTitle The title of the spectrum.
+     *
+     * @return The statistics on the intensities of the spectrum.
+     */
+    public default SpectrumStatistics getSpectrumStatistics(
+            String fileNameWithoutExtension,
+            String spectrumTitle
+    ) {
+        return null;
+    }
+
     /**
      * Returns the minimum precursor m/z in a given file.
      *
@@ -2,6 +2,7 @@ package com.compomics.util.experiment.mass_spectrometry.spectra;
 
 import com.compomics.util.experiment.personalization.ExperimentObject;
 import java.util.Arrays;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -15,6 +16,10 @@ import java.util.stream.IntStream;
  */
 public class Spectrum extends ExperimentObject {
 
+    /**
+     * Serial number for backward compatibility.
+     */
+    static final long serialVersionUID = -2396157307425234113L;
     /**
      * The precursor if any.
      */
@@ -33,6 +38,15 @@ public class Spectrum extends ExperimentObject {
      * The spectrum level, i.e. 1 for MS1, 2 for MS2, etc.
      */
     private Integer spectrumLevel = null;
+    /**
+     * The precomputed statistics on the intensities, null if not available.
+     */
+    private transient SpectrumStatistics statistics = null;
+    /**
+     * Supplier of the precomputed statistics, called once when the statistics
+     * are first needed. Null if not available.
+     */
+    private transient Supplier<SpectrumStatistics> statisticsSupplier = null;
 
     /**
      * Empty default constructor.
@@ -93,6 +107,12 @@ public class Spectrum extends ExperimentObject {
      */
     public double getTotalIntensity() {
 
+        if (statistics != null) {
+
+            return statistics.getTotalIntensity();
+
+        }
+
         return Arrays.stream(intensity)
                 .sum();
 
@@ -105,6 +125,12 @@ public class Spectrum extends ExperimentObject {
      */
     public double getMaxIntensity() {
 
+        if (statistics != null) {
+
+            return statistics.getMaxIntensity();
+
+        }
+
         return Arrays.stream(intensity)
                 .max()
                 .orElse(0.0);
@@ -238,4 +264,48 @@ public class Spectrum extends ExperimentObject {
     public void setSpectrumLevel(int spectrumLevel) {
         this.spectrumLevel = spectrumLevel;
     }
+
+    /**
+     * Returns the precomputed statistics on the intensities of the spectrum,
+     * null if not available. If a supplier was set, the statistics are
+     * obtained from it at the first call.
+     *
+     * @return the statistics on the intensities of the spectrum
+     */
+    public SpectrumStatistics getStatistics() {
+
+        Supplier<SpectrumStatistics> supplier = statisticsSupplier;
+
+        if (statistics == null && supplier != null) {
+
+            statistics = supplier.get();
+            statisticsSupplier = null;
+
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Sets the precomputed statistics on the intensities of the spectrum. The
+     * statistics must correspond to the current intensity array.
+     *
+     * @param statistics the statistics on the intensities of the spectrum
+     */
+    public void setStatistics(SpectrumStatistics statistics) {
+        this.statistics = statistics;
+        this.statisticsSupplier = null;
+    }
+
+    /**
+     * Sets a supplier of the precomputed statistics on the intensities of the
+     * spectrum, called when the statistics are first needed. The statistics
+     * must correspond to the current intensity array.
+     *
+     * @param statisticsSupplier the supplier of the statistics on the
+     * intensities of the spectrum
+     */
+    public void setStatisticsSupplier(Supplier<SpectrumStatistics> statisticsSupplier) {
+        this.statisticsSupplier = statisticsSupplier;
+    }
 }
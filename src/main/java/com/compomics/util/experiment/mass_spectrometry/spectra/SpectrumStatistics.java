@@ -0,0 +1,261 @@
+package com.compomics.util.experiment.mass_spectrometry.spectra;
+
+import com.compomics.util.experiment.mass_spectrometry.SimpleNoiseDistribution;
+import com.compomics.util.math.statistics.distributions.NonSymmetricalNormalDistribution;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+import org.apache.commons.math.util.FastMath;
+
+/**
+ * Summary statistics on the intensities of a spectrum: total and maximal
+ * intensity, parameters of the noise distribution, and the order of the peaks
+ * by ascending intensity. The statistics do not keep a reference to the
+ * intensities, methods needing them take the intensity array of the spectrum
+ * as parameter.
+ *
+ * @author Marc Vaudel
+ */
+public class SpectrumStatistics {
+
+    /**
+     * The total intensity.
+     */
+    private final double totalIntensity;
+    /**
+     * The maximal intensity.
+     */
+    private final double maxIntensity;
+    /**
+     * The median of the log10 intensity distribution.
+     */
+    private final double noiseMean;
+    /**
+     * The standard deviation of the log10 intensity distribution below the
+     * median.
+     */
+    private final double noiseStdDown;
+    /**
+     * The standard deviation of the log10 intensity distribution above the
+     * median.
+     */
+    private final double noiseStdUp;
+    /**
+     * The indexes of the peaks sorted by ascending intensity.
+     */
+    private final int[] intensityOrder;
+    /**
+     * The noise distribution, lazily built from its parameters.
+     */
+    private volatile SimpleNoiseDistribution noiseDistribution = null;
+
+    /**
+     * Constructor computing the statistics of the given intensities. The
+     * intensities must not be empty.
+     *
+     * @param intensities the intensities of the peaks
+     */
+    public SpectrumStatistics(
+            double[] intensities
+    ) {
+
+        totalIntensity = Arrays.stream(intensities).sum();
+        maxIntensity = Arrays.stream(intensities).max().orElse(0.0);
+
+        intensityOrder = IntStream.range(0, intensities.length)
+                .boxed()
+                .sorted(Comparator.comparingDouble(i -> intensities[i]))
+                .mapToInt(i -> i)
+                .toArray();
+
+        double[] sortedIntensitiesLog = Arrays.stream(intensityOrder)
+                .mapToDouble(i -> FastMath.log10(intensities[i]))
+                .sorted()
+                .toArray();
+
+        NonSymmetricalNormalDistribution intensityLogDistribution = NonSymmetricalNormalDistribution.getRobustNonSymmetricalNormalDistributionFromSortedArray(sortedIntensitiesLog);
+        noiseMean = intensityLogDistribution.getMean();
+        noiseStdDown = intensityLogDistribution.getStdDown();
+        noiseStdUp = intensityLogDistribution.getStdUp();
+        noiseDistribution = new SimpleNoiseDistribution(intensityLogDistribution);
+
+    }
+
+    /**
+     * Constructor from precomputed values.
+     *
+     * @param totalIntensity the total intensity
+     * @param maxIntensity the maximal intensity
+     * @param noiseMean the median of the log10 intensity distribution
+     * @param noiseStdDown the standard deviation of the log10 intensity
+     * distribution below the median
+     * @param noiseStdUp the standard deviation of the log10 intensity
+     * distribution above the median
+     * @param intensityOrder the indexes of the peaks sorted by ascending
+     * intensity
+     */
+    public SpectrumStatistics(
+            double totalIntensity,
+            double maxIntensity,
+            double noiseMean,
+            double noiseStdDown,
+            double noiseStdUp,
+            int[] intensityOrder
+    ) {
+
+        this.totalIntensity = totalIntensity;
+        this.maxIntensity = maxIntensity;
+        this.noiseMean = noiseMean;
+        this.noiseStdDown = noiseStdDown;
+        this.noiseStdUp = noiseStdUp;
+        this.intensityOrder = intensityOrder;
+
+    }
+
+    /**
+     * Returns the total intensity.
+     *
+     * @return the total intensity
+     */
+    public double getTotalIntensity() {
+        return totalIntensity;
+    }
+
+    /**
+     * Returns the maximal intensity.
+     *
+     * @return the maximal intensity
+     */
+    public double getMaxIntensity() {
+        return maxIntensity;
+    }
+
+    /**
+     * Returns the median of the log10 intensity distribution.
+     *
+     * @return the median of the log10 intensity distribution
+     */
+    public double getNoiseMean() {
+        return noiseMean;
+    }
+
+    /**
+     * Returns the standard deviation of the log10 intensity distribution below
+     * the median.
+     *
+     * @return the standard deviation of the log10 intensity distribution below
+     * the median
+     */
+    public double getNoiseStdDown() {
+        return noiseStdDown;
+    }
+
+    /**
+     * Returns the standard deviation of the log10 intensity distribution above
+     * the median.
+     *
+     * @return the standard deviation of the log10 intensity distribution above
+     * the median
+     */
+    public double getNoiseStdUp() {
+        return noiseStdUp;
+    }
+
+    /**
+     * Returns the indexes of the peaks sorted by ascending intensity.
+     *
+     * @return the indexes of the peaks sorted by ascending intensity
+     */
+    public int[] getIntensityOrder() {
+        return intensityOrder;
+    }
+
+    /**
+     * Returns the number of peaks.
+     *
+     * @return the number of peaks
+     */
+    public int getNPeaks() {
+        return intensityOrder.length;
+    }
+
+    /**
+     * Returns the noise distribution.
+     *
+     * @return the noise distribution
+     */
+    public SimpleNoiseDistribution getNoiseDistribution() {
+
+        if (noiseDistribution == null) {
+
+            noiseDistribution = new SimpleNoiseDistribution(
+                    new NonSymmetricalNormalDistribution(noiseMean, noiseStdDown, noiseStdUp)
+            );
+
+        }
+
+        return noiseDistribution;
+
+    }
+
+    /**
+     * Returns the intensity at the given percentile using the order of the
+     * peaks. If the percentile is between two values a linear interpolation is
+     * done, as in BasicMathFunctions.percentileSorted.
+     *
+     * @param intensities the intensities of the spectrum
+     * @param percentile the percentile, 0.5 returns the median
+     *
+     * @return the intensity at the given percentile
+     */
+    public double getIntensityAtPercentile(
+            double[] intensities,
+            double percentile
+    ) {
+
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException(
+                    "Incorrect input for percentile: "
+                    + percentile + ". Input must be between 0 and 1.");
+        }
+
+        int length = intensityOrder.length;
+
+        if (length == 0) {
+            throw new IllegalArgumentException(
+                    "Attempting to estimate the percentile of an empty list.");
+        }
+
+        if (length == 1) {
+            return intensities[intensityOrder[0]];
+        }
+
+        double indexDouble = percentile * (length - 1);
+        int index = (int) (indexDouble);
+        double valueAtIndex = intensities[intensityOrder[index]];
+        double rest = indexDouble - index;
+
+        if (index == length - 1 || rest == 0) {
+            return valueAtIndex;
+        }
+
+        return valueAtIndex + rest * (intensities[intensityOrder[index + 1]] - valueAtIndex);
+
+    }
+
+    /**
+     * Returns the intensity at the given upper tail cumulative probability of
+     * the noise distribution.
+     *
+     * @param p the probability
+     *
+     * @return the intensity
+     */
+    public double getNoiseIntensityAtP(
+            double p
+    ) {
+
+        return getNoiseDistribution().getIntensityAtP(p);
+
+    }
+}
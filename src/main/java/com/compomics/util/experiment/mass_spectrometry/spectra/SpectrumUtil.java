@@ -14,7 +14,9 @@ import java.util.stream.IntStream;
 public class SpectrumUtil {
 
     /**
-     * Returns the limit in intensity according to the given threshold.
+     * Returns the limit in intensity according to the given threshold. If the
+     * spectrum has precomputed statistics, these are used instead of
+     * computing the distribution of the intensities.
      *
      * @param spectrum The spectrum.
      * @param intensityThresholdType The type of intensity threshold.
@@ -38,6 +40,23 @@ public class SpectrumUtil {
 
         }
 
+        SpectrumStatistics statistics = spectrum.getStatistics();
+
+        if (statistics != null) {
+
+            switch (intensityThresholdType) {
+
+                case snp:
+                    return statistics.getNoiseIntensityAtP(1 - thresholdValue);
+
+                case percentile:
+                    return statistics.getIntensityAtPercentile(spectrum.intensity, thresholdValue);
+
+                default:
+                    throw new UnsupportedOperationException("Threshold of type " + intensityThresholdType + " not supported.");
+            }
+        }
+
         switch (intensityThresholdType) {
 
             case snp:
@@ -0,0 +1,420 @@
+package com.compomics.util.experiment.personalization;
+
+/**
+ * Streaming builder for the keys of the experiment objects. The content of the
+ * key is hashed on the fly using the 128 bit MurmurHash3 algorithm, no string
+ * is built. The key is the lower 64 bits of the hash, the upper 64 bits are
+ * used by the identification matches to detect collisions. Builders are not
+ * thread safe, a builder per thread can be obtained using getKeyBuilder().
+ *
+ * Keys of projects created before the introduction of this builder were
+ * obtained by hashing strings using ExperimentObject.asLong. The version of
+ * the keys of a project is given by its identification keys, methods building
+ * keys take this version when keys of older projects are needed.
+ *
+ * @author Marc Vaudel
+ */
+public final class KeyBuilder {
+
+    /**
+     * First multiplication constant of the hash.
+     */
+    private static final long C1 = 0x87c37b91114253d5L;
+    /**
+     * Second multiplication constant of the hash.
+     */
+    private static final long C2 = 0x4cf5ad432745937fL;
+    /**
+     * Character used to separate the components of a key.
+     */
+    public static final char SEPARATOR = '\uFFFF';
+    /**
+     * The builders of the different threads.
+     */
+    private static final ThreadLocal<KeyBuilder> BUILDERS = ThreadLocal.withInitial(KeyBuilder::new);
+    /**
+     * The version of the keys built using the legacy string hashing.
+     */
+    public static final int LEGACY_KEY_VERSION = 0;
+    /**
+     * The version of the keys built using this builder.
+     */
+    public static final int KEY_VERSION = 1;
+    /**
+     * The first half of the hash state.
+     */
+    private long h1;
+    /**
+     * The second half of the hash state.
+     */
+    private long h2;
+    /**
+     * The first half of the current block.
+     */
+    private long k1;
+    /**
+     * The second half of the current block.
+     */
+    private long k2;
+    /**
+     * The number of characters in the current block.
+     */
+    private int position;
+    /**
+     * The number of characters appended.
+     */
+    private long length;
+    /**
+     * Scratch array used to prepare the components of a key.
+     */
+    private long[] scratch = new long[8];
+
+    /**
+     * Constructor.
+     */
+    public KeyBuilder() {
+
+    }
+
+    /**
+     * Returns the builder of the current thread, reset.
+     *
+     * @return the builder of the current thread
+     */
+    public static KeyBuilder getKeyBuilder() {
+        return BUILDERS.get().reset();
+    }
+
+    /**
+     * Indicates whether keys of the given version are built using the legacy
+     * string hashing.
+     *
+     * @param keyVersion the version of the keys
+     *
+     * @return a boolean indicating whether keys of the given version are built
+     * using the legacy string hashing
+     */
+    public static boolean isLegacy(int keyVersion) {
+        return keyVersion < KEY_VERSION;
+    }
+
+    /**
+     * Resets the builder.
+     *
+     * @return the builder
+     */
+    public KeyBuilder reset() {
+
+        h1 = 0;
+        h2 = 0;
+        k1 = 0;
+        k2 = 0;
+        position = 0;
+        length = 0;
+
+        return this;
+
+    }
+
+    /**
+     * Appends a character.
+     *
+     * @param c the character
+     *
+     * @return the builder
+     */
+    public KeyBuilder append(char c) {
+
+        if (position < 4) {
+
+            k1 |= ((long) c) << (position << 4);
+
+        } else {
+
+            k2 |= ((long) c) << ((position - 4) << 4);
+
+        }
+
+        position++;
+        length++;
+
+        if (position == 8) {
+
+            mixBlock();
+
+        }
+
+        return this;
+
+    }
+
+    /**
+     * Appends the characters of a sequence.
+     *
+     * @param charSequence the sequence
+     *
+     * @return the builder
+     */
+    public KeyBuilder append(CharSequence charSequence) {
+
+        return append(charSequence, 0, charSequence.length());
+
+    }
+
+    /**
+     * Appends a subsequence of characters.
+     *
+     * @param charSequence the sequence
+     * @param start the index of the first character, inclusive
+     * @param end the index of the last character, exclusive
+     *
+     * @return the builder
+     */
+    public KeyBuilder append(CharSequence charSequence, int start, int end) {
+
+        for (int i = start; i < end; i++) {
+
+            append(charSequence.charAt(i));
+
+        }
+
+        return this;
+
+    }
+
+    /**
+     * Appends an integer.
+     *
+     * @param value the integer
+     *
+     * @return the builder
+     */
+    public KeyBuilder append(int value) {
+
+        append((char) (value >>> 16));
+        append((char) value);
+
+        return this;
+
+    }
+
+    /**
+     * Appends a long.
+     *
+     * @param value the long
+     *
+     * @return the builder
+     */
+    public KeyBuilder append(long value) {
+
+        append((int) (value >>> 32));
+        append((int) value);
+
+        return this;
+
+    }
+
+    /**
+     * Appends the separator character.
+     *
+     * @return the builder
+     */
+    public KeyBuilder appendSeparator() {
+
+        return append(SEPARATOR);
+
+    }
+
+    /**
+     * Appends the given values in ascending order. The values are sorted in
+     * place.
+     *
+     * @param sorted the values
+     * @param nValues the number of values to append
+     *
+     * @return the builder
+     */
+    public KeyBuilder appendSorted(long[] sorted, int nValues) {
+
+        // insertion sort, the number of values is expected to be small
+        for (int i = 1; i < nValues; i++) {
+
+            long value = sorted[i];
+            int j = i - 1;
+
+            while (j >= 0 && sorted[j] > value) {
+
+                sorted[j + 1] = sorted[j];
+                j--;
+
+            }
+
+            sorted[j + 1] = value;
+
+        }
+
+        for (int i = 0; i < nValues; i++) {
+
+            append(sorted[i]);
+
+        }
+
+        return this;
+
+    }
+
+    /**
+     * Returns a scratch array of at least the given length that can be used
+     * to prepare values to append. The array belongs to the builder and is
+     * reused for every key.
+     *
+     * @param length the minimal length
+     *
+     * @return a scratch array
+     */
+    public long[] getScratch(int length) {
+
+        if (scratch.length < length) {
+
+            scratch = new long[Math.max(length, 2 * scratch.length)];
+
+        }
+
+        return scratch;
+
+    }
+
+    /**
+     * Returns the key, i.e. the lower 64 bits of the hash of the content
+     * appended so far.
+     *
+     * @return the key
+     */
+    public long getKey() {
+
+        return finish(true);
+
+    }
+
+    /**
+     * Returns the upper 64 bits of the hash of the content appended so far.
+     * Two contents with the same key but different high keys are a
+     * collision.
+     *
+     * @return the upper 64 bits of the hash
+     */
+    public long getHighKey() {
+
+        return finish(false);
+
+    }
+
+    /**
+     * Returns the key of the given sequence of characters.
+     *
+     * @param charSequence the sequence of characters
+     *
+     * @return the key
+     */
+    public static long getKey(CharSequence charSequence) {
+
+        return getKeyBuilder().append(charSequence).getKey();
+
+    }
+
+    /**
+     * Mixes the given value into a well distributed 64 bits value.
+     *
+     * @param value the value
+     *
+     * @return the mixed value
+     */
+    public static long mix(long value) {
+
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+
+        return value;
+
+    }
+
+    /**
+     * Mixes the current block into the hash state.
+     */
+    private void mixBlock() {
+
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        k1 *= C2;
+        h1 ^= k1;
+
+        h1 = Long.rotateLeft(h1, 27);
+        h1 += h2;
+        h1 = h1 * 5 + 0x52dce729;
+
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        k2 *= C1;
+        h2 ^= k2;
+
+        h2 = Long.rotateLeft(h2, 31);
+        h2 += h1;
+        h2 = h2 * 5 + 0x38495ab5;
+
+        k1 = 0;
+        k2 = 0;
+        position = 0;
+
+    }
+
+    /**
+     * Finalizes the hash without modifying the state of the builder.
+     *
+     * @param low boolean indicating whether the lower or the upper 64 bits
+     * should be returned
+     *
+     * @return the requested half of the hash
+     */
+    private long finish(boolean low) {
+
+        long f1 = h1;
+        long f2 = h2;
+
+        if (position > 4) {
+
+            long t2 = k2 * C2;
+            t2 = Long.rotateLeft(t2, 33);
+            t2 *= C1;
+            f2 ^= t2;
+
+        }
+
+        if (position > 0) {
+
+            long t1 = k1 * C1;
+            t1 = Long.rotateLeft(t1, 31);
+            t1 *= C2;
+            f1 ^= t1;
+
+        }
+
+        long nBytes = length << 1;
+        f1 ^= nBytes;
+        f2 ^= nBytes;
+
+        f1 += f2;
+        f2 += f1;
+
+        f1 = mix(f1);
+        f2 = mix(f2);
+
+        f1 += f2;
+        f2 += f1;
+
+        return low ? f1 : f2;
+
+    }
+}
@@ -0,0 +1,295 @@
+package com.compomics.util.experiment.quantification.reporterion;
+
+import com.compomics.util.experiment.normalization.NormalizationFactors;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Columnar table of the reporter ion intensities of the spectra of a file.
+ * The intensities are stored in one primitive array per reagent, indexed by
+ * spectrum. Spectra where the reporter ions were not extracted, e.g. MS1
+ * spectra, have NaN intensities.
+ *
+ * @author Marc Vaudel
+ */
+public class ReporterIntensityTable {
+
+    /**
+     * The names of the reagents, sorted by mass.
+     */
+    private final String[] reagentNames;
+    /**
+     * The titles of the spectra.
+     */
+    private final String[] spectrumTitles;
+    /**
+     * The index of the spectra by title.
+     */
+    private final HashMap<String, Integer> spectrumIndexes;
+    /**
+     * The intensities, reagent index, spectrum index.
+     */
+    private final double[][] intensities;
+
+    /**
+     * Constructor.
+     *
+     * @param reagentNames the names of the reagents
+     * @param spectrumTitles the titles of the spectra
+     * @param intensities the intensities, reagent index, spectrum index
+     */
+    public ReporterIntensityTable(
+            String[] reagentNames,
+            String[] spectrumTitles,
+            double[][] intensities
+    ) {
+
+        if (intensities.length != reagentNames.length) {
+            throw new IllegalArgumentException("One column of intensities is needed per reagent.");
+        }
+
+        for (double[] column : intensities) {
+
+            if (column.length != spectrumTitles.length) {
+                throw new IllegalArgumentException("One intensity is needed per spectrum.");
+            }
+        }
+
+        this.reagentNames = reagentNames;
+        this.spectrumTitles = spectrumTitles;
+        this.intensities = intensities;
+
+        spectrumIndexes = new HashMap<>(spectrumTitles.length);
+
+        for (int i = 0; i < spectrumTitles.length; i++) {
+            spectrumIndexes.put(spectrumTitles[i], i);
+        }
+    }
+
+    /**
+     * Returns the names of the reagents, sorted by mass.
+     *
+     * @return the names of the reagents
+     */
+    public String[] getReagentNames() {
+        return reagentNames;
+    }
+
+    /**
+     * Returns the titles of the spectra.
+     *
+     * @return the titles of the spectra
+     */
+    public String[] getSpectrumTitles() {
+        return spectrumTitles;
+    }
+
+    /**
+     * Returns the number of reagents.
+     *
+     * @return the number of reagents
+     */
+    public int getNReagents() {
+        return reagentNames.length;
+    }
+
+    /**
+     * Returns the number of spectra.
+     *
+     * @return the number of spectra
+     */
+    public int getNSpectra() {
+        return spectrumTitles.length;
+    }
+
+    /**
+     * Returns the index of the given reagent, -1 if not found.
+     *
+     * @param reagentName the name of the reagent
+     *
+     * @return the index of the given reagent
+     */
+    public int getReagentIndex(String reagentName) {
+
+        for (int i = 0; i < reagentNames.length; i++) {
+
+            if (reagentNames[i].equals(reagentName)) {
+                return i;
+            }
+        }
+
+        return -1;
+
+    }
+
+    /**
+     * Returns the index of the spectrum with the given title, null if not
+     * found.
+     *
+     * @param spectrumTitle the title of the spectrum
+     *
+     * @return the index of the spectrum
+     */
+    public Integer getSpectrumIndex(String spectrumTitle) {
+        return spectrumIndexes.get(spectrumTitle);
+    }
+
+    /**
+     * Returns the intensity of the given reagent in the given spectrum.
+     *
+     * @param reagentIndex the index of the reagent
+     * @param spectrumIndex the index of the spectrum
+     *
+     * @return the intensity
+     */
+    public double getIntensity(int reagentIndex, int spectrumIndex) {
+        return intensities[reagentIndex][spectrumIndex];
+    }
+
+    /**
+     * Returns the intensities of the reagents in the spectrum with the given
+     * title, null if the spectrum is not in the table.
+     *
+     * @param spectrumTitle the title of the spectrum
+     *
+     * @return the intensities of the reagents
+     */
+    public double[] getIntensities(String spectrumTitle) {
+
+        Integer spectrumIndex = spectrumIndexes.get(spectrumTitle);
+
+        if (spectrumIndex == null) {
+            return null;
+        }
+
+        double[] result = new double[reagentNames.length];
+
+        for (int i = 0; i < reagentNames.length; i++) {
+            result[i] = intensities[i][spectrumIndex];
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the intensities of the given reagent in all spectra. The array
+     * is backed by the table and should not be modified.
+     *
+     * @param reagentIndex the index of the reagent
+     *
+     * @return the intensities of the given reagent
+     */
+    public double[] getColumn(int reagentIndex) {
+        return intensities[reagentIndex];
+    }
+
+    /**
+     * Returns the median intensity of every reagent over the spectra where all
+     * reagents have a strictly positive intensity, NaN if no such spectrum.
+     *
+     * @return the median intensity of every reagent
+     */
+    public double[] getMedianIntensities() {
+
+        boolean[] complete = new boolean[spectrumTitles.length];
+        int nComplete = 0;
+
+        for (int j = 0; j < spectrumTitles.length; j++) {
+
+            complete[j] = true;
+
+            for (double[] column : intensities) {
+
+                if (!(column[j] > 0.0)) {
+
+                    complete[j] = false;
+                    break;
+
+                }
+            }
+
+            if (complete[j]) {
+                nComplete++;
+            }
+        }
+
+        double[] medians = new double[reagentNames.length];
+
+        if (nComplete == 0) {
+
+            Arrays.fill(medians, Double.NaN);
+            return medians;
+
+        }
+
+        double[] values = new double[nComplete];
+
+        for (int i = 0; i < reagentNames.length; i++) {
+
+            double[] column = intensities[i];
+            int k = 0;
+
+            for (int j = 0; j < spectrumTitles.length; j++) {
+
+                if (complete[j]) {
+                    values[k++] = column[j];
+                }
+            }
+
+            Arrays.sort(values);
+
+            medians[i] = nComplete % 2 == 1
+                    ? values[nComplete / 2]
+                    : (values[nComplete / 2 - 1] + values[nComplete / 2]) / 2;
+
+        }
+
+        return medians;
+
+    }
+
+    /**
+     * Sets the PSM normalization factors of the given quantification. The
+     * factor of a sample is the median intensity of its reagent divided by the
+     * median of the medians of all reagents. Reagents without sample are
+     * ignored.
+     *
+     * @param reporterIonQuantification the reporter ion quantification
+     */
+    public void setPsmNormalizationFactors(ReporterIonQuantification reporterIonQuantification) {
+
+        NormalizationFactors normalizationFactors = reporterIonQuantification.getNormalizationFactors();
+
+        if (normalizationFactors == null) {
+
+            normalizationFactors = new NormalizationFactors();
+            reporterIonQuantification.setNormalizationFactors(normalizationFactors);
+
+        }
+
+        double[] medians = getMedianIntensities();
+        double[] sortedMedians = medians.clone();
+        Arrays.sort(sortedMedians);
+
+        int n = sortedMedians.length;
+        double reference = n % 2 == 1
+                ? sortedMedians[n / 2]
+                : (sortedMedians[n / 2 - 1] + sortedMedians[n / 2]) / 2;
+
+        if (!(reference > 0.0)) {
+            return;
+        }
+
+        normalizationFactors.resetPsmNormalisationFactors();
+
+        for (int i = 0; i < reagentNames.length; i++) {
+
+            String sample = reporterIonQuantification.getSample(reagentNames[i]);
+
+            if (sample != null) {
+                normalizationFactors.addPsmNormalisationFactor(sample, medians[i] / reference);
+            }
+        }
+    }
+}
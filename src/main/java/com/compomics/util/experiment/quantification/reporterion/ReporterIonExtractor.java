@@ -0,0 +1,449 @@
+package com.compomics.util.experiment.quantification.reporterion;
+
+import com.compomics.util.experiment.biology.atoms.Atom;
+import com.compomics.util.experiment.biology.ions.impl.ElementaryIon;
+import com.compomics.util.experiment.mass_spectrometry.SpectrumProvider;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.waiting.WaitingHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Extracts the reporter ion intensities of all the MSn spectra of a file in a
+ * single parallel pass. Only the low m/z region of the spectra containing the
+ * reporter ions is inspected, using a binary search for its start. The
+ * intensities are corrected for the isotopic impurities of the reagents.
+ *
+ * @author Marc Vaudel
+ */
+public class ReporterIonExtractor {
+
+    /**
+     * The number of spectra processed per task.
+     */
+    private static final int BLOCK_SIZE = 1000;
+    /**
+     * The names of the reagents sorted by mass.
+     */
+    private final String[] reagentNames;
+    /**
+     * The m/z of the reporter ions sorted by mass.
+     */
+    private final double[] reporterMz;
+    /**
+     * The lower bound of the m/z window of every reporter ion.
+     */
+    private final double[] minMz;
+    /**
+     * The upper bound of the m/z window of every reporter ion.
+     */
+    private final double[] maxMz;
+    /**
+     * The inverse of the isotope impurity matrix, null if no correction is
+     * applied.
+     */
+    private final double[][] correctionMatrix;
+
+    /**
+     * Constructor.
+     *
+     * @param reporterMethod the reporter method
+     * @param tolerance the m/z tolerance
+     * @param ppm boolean indicating whether the tolerance is in ppm
+     * @param correctIsotopes boolean indicating whether the intensities should
+     * be corrected for the isotopic impurities of the reagents
+     */
+    public ReporterIonExtractor(
+            ReporterMethod reporterMethod,
+            double tolerance,
+            boolean ppm,
+            boolean correctIsotopes
+    ) {
+
+        ArrayList<String> sortedReagents = reporterMethod.getReagentsSortedByMass();
+
+        reagentNames = sortedReagents.toArray(new String[sortedReagents.size()]);
+        reporterMz = new double[reagentNames.length];
+        minMz = new double[reagentNames.length];
+        maxMz = new double[reagentNames.length];
+
+        for (int i = 0; i < reagentNames.length; i++) {
+
+            reporterMz[i] = reporterMethod.getReagent(reagentNames[i]).getReporterIon().getTheoreticMass() + ElementaryIon.proton.getTheoreticMass();
+
+            double mzTolerance = ppm ? reporterMz[i] * tolerance / 1e6 : tolerance;
+            minMz[i] = reporterMz[i] - mzTolerance;
+            maxMz[i] = reporterMz[i] + mzTolerance;
+
+        }
+
+        correctionMatrix = correctIsotopes ? invert(getImpurityMatrix(reporterMethod)) : null;
+
+    }
+
+    /**
+     * Returns the names of the reagents in the order of the intensities.
+     *
+     * @return the names of the reagents
+     */
+    public String[] getReagentNames() {
+        return reagentNames;
+    }
+
+    /**
+     * Returns the intensities of the reporter ions in the given peaks, sorted
+     * by ascending m/z. The most intense peak in the window of every reporter
+     * ion is retained, 0 if none.
+     *
+     * @param mz the m/z of the peaks
+     * @param intensity the intensities of the peaks
+     *
+     * @return the intensities of the reporter ions, sorted by reagent mass
+     */
+    public double[] getIntensities(
+            double[] mz,
+            double[] intensity
+    ) {
+
+        double[] result = new double[reagentNames.length];
+
+        if (mz.length == 0) {
+            return result;
+        }
+
+        int peakIndex = Arrays.binarySearch(mz, minMz[0]);
+
+        if (peakIndex < 0) {
+            peakIndex = -peakIndex - 1;
+        }
+
+        int reporterIndex = 0;
+
+        while (peakIndex < mz.length && reporterIndex < reagentNames.length) {
+
+            double peakMz = mz[peakIndex];
+
+            if (peakMz > maxMz[reporterIndex]) {
+
+                reporterIndex++;
+
+            } else {
+
+                // Reporter windows may overlap, test the following reporters as well
+                for (int i = reporterIndex; i < reagentNames.length && peakMz >= minMz[i]; i++) {
+
+                    if (peakMz <= maxMz[i] && intensity[peakIndex] > result[i]) {
+                        result[i] = intensity[peakIndex];
+                    }
+                }
+
+                peakIndex++;
+
+            }
+        }
+
+        if (correctionMatrix != null) {
+            result = correct(result);
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Extracts the reporter ion intensities of all the spectra of level 2 or
+     * higher of the given file.
+     *
+     * @param spectrumProvider the spectrum provider
+     * @param fileNameWithoutExtension the name of the file without extension
+     * @param nThreads the number of threads to use
+     * @param waitingHandler a waiting handler, ignored if null
+     *
+     * @return the table of the reporter ion intensities, null if the process
+     * was canceled
+     */
+    public ReporterIntensityTable extract(
+            SpectrumProvider spectrumProvider,
+            String fileNameWithoutExtension,
+            int nThreads,
+            WaitingHandler waitingHandler
+    ) {
+
+        String[] spectrumTitles = spectrumProvider.getSpectrumTitles(fileNameWithoutExtension);
+        int nSpectra = spectrumTitles.length;
+
+        double[][] intensities = new double[reagentNames.length][nSpectra];
+
+        if (waitingHandler != null) {
+
+            waitingHandler.resetSecondaryProgressCounter();
+            waitingHandler.setMaxSecondaryProgressCounter(nSpectra);
+
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+
+        try {
+
+            ArrayList<Future<?>> futures = new ArrayList<>(nSpectra / BLOCK_SIZE + 1);
+
+            for (int start = 0; start < nSpectra; start += BLOCK_SIZE) {
+
+                int blockStart = start;
+                int blockEnd = Math.min(start + BLOCK_SIZE, nSpectra);
+
+                futures.add(pool.submit(() -> {
+
+                    for (int j = blockStart; j < blockEnd; j++) {
+
+                        Spectrum spectrum = spectrumProvider.getSpectrum(fileNameWithoutExtension, spectrumTitles[j]);
+
+                        if (spectrum.getSpectrumLevel() >= 2) {
+
+                            double[] spectrumIntensities = getIntensities(spectrum.mz, spectrum.intensity);
+
+                            for (int i = 0; i < reagentNames.length; i++) {
+                                intensities[i][j] = spectrumIntensities[i];
+                            }
+
+                        } else {
+
+                            for (int i = 0; i < reagentNames.length; i++) {
+                                intensities[i][j] = Double.NaN;
+                            }
+                        }
+                    }
+                }));
+            }
+
+            for (int k = 0; k < futures.size(); k++) {
+
+                futures.get(k).get();
+
+                if (waitingHandler != null) {
+
+                    if (waitingHandler.isRunCanceled()) {
+                        return null;
+                    }
+
+                    waitingHandler.setSecondaryProgressCounter(Math.min((k + 1) * BLOCK_SIZE, nSpectra));
+
+                }
+            }
+
+        } catch (InterruptedException e) {
+
+            if (waitingHandler != null) {
+                waitingHandler.setRunCanceled();
+            }
+
+            throw new RuntimeException(e);
+
+        } catch (ExecutionException e) {
+
+            if (waitingHandler != null) {
+                waitingHandler.setRunCanceled();
+            }
+
+            throw new RuntimeException(e.getCause());
+
+        } finally {
+
+            pool.shutdownNow();
+
+        }
+
+        return new ReporterIntensityTable(reagentNames, spectrumTitles, intensities);
+
+    }
+
+    /**
+     * Returns the intensities corrected for the isotopic impurities. Negative
+     * corrected intensities are set to 0.
+     *
+     * @param intensities the observed intensities
+     *
+     * @return the corrected intensities
+     */
+    private double[] correct(double[] intensities) {
+
+        double[] result = new double[intensities.length];
+
+        for (int i = 0; i < intensities.length; i++) {
+
+            double[] line = correctionMatrix[i];
+            double value = 0.0;
+
+            for (int j = 0; j < intensities.length; j++) {
+                value += line[j] * intensities[j];
+            }
+
+            result[i] = Math.max(value, 0.0);
+
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the isotope impurity matrix of the given method, giving for
+     * every reporter ion, in line, the share of the signal of every reagent,
+     * in column, sorted by mass. The correction factors of the reagents are
+     * percentages of the reagent signal at -2, -1, +1, and +2 Da. If the
+     * reference is not set, it is taken as the complement to 100 of the other
+     * factors. The isotopic signal is attributed to the reagent closest to the
+     * mass of the isotope, if any within 0.5 Da, and lost otherwise.
+     *
+     * @param reporterMethod the reporter method
+     *
+     * @return the isotope impurity matrix
+     */
+    private double[][] getImpurityMatrix(ReporterMethod reporterMethod) {
+
+        int n = reagentNames.length;
+        double[][] matrix = new double[n][n];
+        double isotopeShift = Atom.C.getDifferenceToMonoisotopic(1);
+
+        for (int j = 0; j < n; j++) {
+
+            Reagent reagent = reporterMethod.getReagent(reagentNames[j]);
+
+            double[] factors = new double[]{reagent.getMinus2(), reagent.getMinus1(), reagent.getRef(), reagent.getPlus1(), reagent.getPlus2()};
+
+            if (factors[2] <= 0.0) {
+                factors[2] = 100.0 - factors[0] - factors[1] - factors[3] - factors[4];
+            }
+
+            double total = 0.0;
+
+            for (double factor : factors) {
+                total += factor;
+            }
+
+            if (total <= 0.0) {
+                throw new IllegalArgumentException("Invalid correction factors for reagent " + reagentNames[j] + ".");
+            }
+
+            for (int k = 0; k < factors.length; k++) {
+
+                if (factors[k] != 0.0) {
+
+                    int i = k == 2 ? j : getClosestReporter(reporterMz[j] + (k - 2) * isotopeShift);
+
+                    if (i >= 0) {
+                        matrix[i][j] += factors[k] / total;
+                    }
+                }
+            }
+        }
+
+        return matrix;
+
+    }
+
+    /**
+     * Returns the index of the reporter ion closest to the given m/z, -1 if
+     * none within 0.5.
+     *
+     * @param mz the m/z
+     *
+     * @return the index of the closest reporter ion
+     */
+    private int getClosestReporter(double mz) {
+
+        int bestIndex = -1;
+        double bestError = 0.5;
+
+        for (int i = 0; i < reporterMz.length; i++) {
+
+            double error = Math.abs(reporterMz[i] - mz);
+
+            if (error < bestError) {
+
+                bestIndex = i;
+                bestError = error;
+
+            }
+        }
+
+        return bestIndex;
+
+    }
+
+    /**
+     * Inverts the given square matrix using Gauss-Jordan elimination with
+     * partial pivoting.
+     *
+     * @param matrix the matrix to invert
+     *
+     * @return the inverted matrix
+     */
+    private static double[][] invert(double[][] matrix) {
+
+        int n = matrix.length;
+        double[][] a = new double[n][];
+        double[][] result = new double[n][n];
+
+        for (int i = 0; i < n; i++) {
+
+            a[i] = matrix[i].clone();
+            result[i][i] = 1.0;
+
+        }
+
+        for (int column = 0; column < n; column++) {
+
+            int pivot = column;
+
+            for (int i = column + 1; i < n; i++) {
+
+                if (Math.abs(a[i][column]) > Math.abs(a[pivot][column])) {
+                    pivot = i;
+                }
+            }
+
+            if (Math.abs(a[pivot][column]) < 1e-12) {
+                throw new IllegalArgumentException("The isotope impurity matrix cannot be inverted.");
+            }
+
+            double[] temp = a[column];
+            a[column] = a[pivot];
+            a[pivot] = temp;
+            temp = result[column];
+            result[column] = result[pivot];
+            result[pivot] = temp;
+
+            double pivotValue = a[column][column];
+
+            for (int j = 0; j < n; j++) {
+
+                a[column][j] /= pivotValue;
+                result[column][j] /= pivotValue;
+
+            }
+
+            for (int i = 0; i < n; i++) {
+
+                if (i != column && a[i][column] != 0.0) {
+
+                    double factor = a[i][column];
+
+                    for (int j = 0; j < n; j++) {
+
+                        a[i][j] -= factor * a[column][j];
+                        result[i][j] -= factor * result[column][j];
+
+                    }
+                }
+            }
+        }
+
+        return result;
+
+    }
+}
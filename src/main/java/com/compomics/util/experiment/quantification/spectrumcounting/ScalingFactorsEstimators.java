@@ -2,20 +2,13 @@ package com.compomics.util.experiment.quantification.spectrumcounting;
 
 import com.compomics.util.exceptions.ExceptionHandler;
 import com.compomics.util.experiment.identification.Identification;
+import com.compomics.util.experiment.identification.features.IdentificationFeaturesCache;
 import com.compomics.util.experiment.identification.features.IdentificationFeaturesGenerator;
-import com.compomics.util.experiment.identification.matches.ProteinMatch;
-import com.compomics.util.experiment.identification.matches_iterators.ProteinMatchesIterator;
 import com.compomics.util.experiment.identification.peptide_shaker.Metrics;
-import com.compomics.util.experiment.identification.peptide_shaker.PSParameter;
-import com.compomics.util.experiment.identification.utils.ProteinUtils;
 import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
 import com.compomics.util.parameters.quantification.spectrum_counting.SpectrumCountingParameters;
 import com.compomics.util.parameters.tools.ProcessingParameters;
 import com.compomics.util.waiting.WaitingHandler;
-import java.util.ArrayList;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 /**
@@ -49,7 +42,10 @@ public class ScalingFactorsEstimators {
     }
 
     /**
-     * Estimates the scaling factors and stores them in the given metrics.
+     * Estimates the scaling factors and stores them in the given metrics. The
+     * spectrum counting values of all proteins are estimated in a single
+     * parallel pass and, if the parameters match the ones of the
+     * identification features generator, stored in its cache.
      * 
      * @param identification the identification
      * @param metrics the metrics where to save the results
@@ -68,165 +64,64 @@ public class ScalingFactorsEstimators {
             SequenceProvider sequenceProvider, IdentificationFeaturesGenerator identificationFeaturesGenerator, 
             WaitingHandler waitingHandler, ExceptionHandler exceptionHandler, ProcessingParameters processingParameters) throws InterruptedException, TimeoutException {
 
-        // validate the proteins
-        ExecutorService pool = Executors.newFixedThreadPool(processingParameters.getnThreads());
+        SpectrumCountingEngine spectrumCountingEngine = new SpectrumCountingEngine(
+                spectrumCountingParameters,
+                identificationFeaturesGenerator.getIdentificationParameters()
+        );
 
-        ProteinMatchesIterator proteinMatchesIterator = identification.getProteinMatchesIterator(waitingHandler);
-        ArrayList<ScalingRunnable> runnables = new ArrayList<>(processingParameters.getnThreads());
+        SpectrumCountingResults spectrumCountingResults;
 
-        for (int i = 1; i <= processingParameters.getnThreads(); i++) {
+        try {
 
-            ScalingRunnable runnable = new ScalingRunnable(proteinMatchesIterator, sequenceProvider, identificationFeaturesGenerator, waitingHandler, exceptionHandler);
-            pool.submit(runnable);
-            runnables.add(runnable);
+            spectrumCountingResults = spectrumCountingEngine.estimate(
+                    identification,
+                    sequenceProvider,
+                    processingParameters.getnThreads(),
+                    waitingHandler
+            );
 
-        }
-
-        if (waitingHandler.isRunCanceled()) {
+        } catch (RuntimeException e) {
 
-            pool.shutdownNow();
+            exceptionHandler.catchException(e);
             return;
 
         }
 
-        pool.shutdown();
-
-        if (!pool.awaitTermination(identification.getProteinIdentification().size(), TimeUnit.MINUTES)) {
-            throw new InterruptedException("Protein matches validation timed out. Please contact the developers.");
-        }
-        
-        metrics.setTotalSpectrumCounting(runnables.stream()
-                        .mapToDouble(ScalingRunnable::getTotalSpectrumCounting)
-                        .sum());
-        
-        metrics.setTotalSpectrumCountingMass(runnables.stream()
-                        .mapToDouble(ScalingRunnable::getTotalSpectrumCountingMass)
-                        .sum());
-
-    }
-    
-
-    /**
-     * Runnable to gather scaling factors in multiple threads.
-     *
-     * @author Marc Vaudel
-     */
-    private class ScalingRunnable implements Runnable {
-
-        /**
-         * An iterator for the protein matches.
-         */
-        private final ProteinMatchesIterator proteinMatchesIterator;
-        /**
-         * The sequence provider.
-         */
-        private final SequenceProvider sequenceProvider;
-        /**
-         * The identification features generator used. to estimate, store and
-         * retrieve identification features
-         */
-        private final IdentificationFeaturesGenerator identificationFeaturesGenerator;
-        /**
-         * The waiting handler.
-         */
-        private final WaitingHandler waitingHandler;
-        /**
-         * Handler for the exceptions.
-         */
-        private final ExceptionHandler exceptionHandler;
-        /**
-         * The total spectrum counting mass contribution of the proteins
-         * according to the validation level specified in the parameters.
-         */
-        private double totalSpectrumCountingMass = 0;
-        /**
-         * The total spectrum counting contribution of the proteins according to
-         * the validation level specified in the parameters.
-         */
-        private double totalSpectrumCounting = 0;
-
-        /**
-         * Constructor.
-         *
-         * @param proteinMatchesIterator an iterator of the protein matches to
-         * inspect
-         * @param sequenceProvider a sequence provider
-         * @param identificationFeaturesGenerator the identification features
-         * generator
-         * @param waitingHandler a waiting handler
-         * @param exceptionHandler an exception handler
-         */
-        public ScalingRunnable(ProteinMatchesIterator proteinMatchesIterator, SequenceProvider sequenceProvider,
-                IdentificationFeaturesGenerator identificationFeaturesGenerator, WaitingHandler waitingHandler, ExceptionHandler exceptionHandler) {
-
-            this.proteinMatchesIterator = proteinMatchesIterator;
-            this.sequenceProvider = sequenceProvider;
-            this.identificationFeaturesGenerator = identificationFeaturesGenerator;
-            this.waitingHandler = waitingHandler;
-            this.exceptionHandler = exceptionHandler;
-
+        if (spectrumCountingResults == null || waitingHandler.isRunCanceled()) {
+            return;
         }
 
-        @Override
-        public void run() {
-            try {
-
-                ProteinMatch proteinMatch;
-                while ((proteinMatch = proteinMatchesIterator.next()) != null && !waitingHandler.isRunCanceled()) {
-
-                    long proteinKey = proteinMatch.getKey();
-
-                    // set the fraction details
-                    PSParameter psParameter = new PSParameter();
-                    psParameter = (PSParameter) proteinMatch.getUrParam(psParameter);
-
-                    if (!proteinMatch.isDecoy() && psParameter.getMatchValidationLevel().getIndex() >= spectrumCountingParameters.getMatchValidationLevel()) {
+        double totalSpectrumCounting = 0.0;
+        double totalSpectrumCountingMass = 0.0;
 
-                        double tempSpectrumCounting = identificationFeaturesGenerator.getSpectrumCounting(proteinKey);
-                        totalSpectrumCounting += tempSpectrumCounting;
+        for (int i = 0; i < spectrumCountingResults.size(); i++) {
 
-                        double molecularWeight = ProteinUtils.computeMolecularWeight(
-                                sequenceProvider.getSequence(proteinMatch.getLeadingAccession()));
-                        double massContribution = molecularWeight * tempSpectrumCounting;
-                        totalSpectrumCountingMass += massContribution;
+            if (!spectrumCountingResults.isDecoy(i) && spectrumCountingResults.isValidated(i)) {
 
-                    }
+                double spectrumCounting = spectrumCountingResults.getSpectrumCounting(i);
+                totalSpectrumCounting += spectrumCounting;
+                totalSpectrumCountingMass += spectrumCountingResults.getMolecularWeight(i) * spectrumCounting;
 
-                    if (waitingHandler.isRunCanceled()) {
-                        return;
-                    }
-                }
-
-            } catch (Exception e) {
-                exceptionHandler.catchException(e);
             }
         }
 
-        /**
-         * Returns the spectrum counting mass contribution of the validated
-         * proteins.
-         *
-         * @return the spectrum counting mass contribution of the validated
-         * proteins
-         */
-        public double getTotalSpectrumCountingMass() {
+        metrics.setTotalSpectrumCounting(totalSpectrumCounting);
+        metrics.setTotalSpectrumCountingMass(totalSpectrumCountingMass);
 
-            return totalSpectrumCountingMass;
+        SpectrumCountingParameters generatorParameters = identificationFeaturesGenerator.getSpectrumCountingPreferences();
 
-        }
+        if (generatorParameters != null && generatorParameters.isSameAs(spectrumCountingParameters)) {
 
-        /**
-         * Returns the spectrum counting contribution of the proteins iterated
-         * by this runnable.
-         *
-         * @return the spectrum counting contribution of the proteins iterated
-         * by this runnable
-         */
-        public double getTotalSpectrumCounting() {
+            IdentificationFeaturesCache identificationFeaturesCache = identificationFeaturesGenerator.getIdentificationFeaturesCache();
 
-            return totalSpectrumCounting;
+            for (int i = 0; i < spectrumCountingResults.size(); i++) {
 
+                identificationFeaturesCache.addObject(
+                        IdentificationFeaturesCache.ObjectType.spectrum_counting,
+                        spectrumCountingResults.getProteinKey(i),
+                        spectrumCountingResults.getSpectrumCounting(i)
+                );
+            }
         }
     }
-
 }
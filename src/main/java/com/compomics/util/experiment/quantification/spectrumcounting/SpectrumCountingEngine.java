@@ -0,0 +1,627 @@
+package com.compomics.util.experiment.quantification.spectrumcounting;
+
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.Identification;
+import com.compomics.util.experiment.identification.IdentificationMatch;
+import com.compomics.util.experiment.identification.matches.PeptideMatch;
+import com.compomics.util.experiment.identification.matches.ProteinMatch;
+import com.compomics.util.experiment.identification.matches.SpectrumMatch;
+import com.compomics.util.experiment.identification.matches_iterators.PeptideMatchesIterator;
+import com.compomics.util.experiment.identification.matches_iterators.ProteinMatchesIterator;
+import com.compomics.util.experiment.identification.matches_iterators.SpectrumMatchesIterator;
+import com.compomics.util.experiment.identification.peptide_shaker.PSParameter;
+import com.compomics.util.experiment.identification.spectrum_assumptions.PeptideAssumption;
+import com.compomics.util.experiment.identification.spectrum_assumptions.PeptideAssumptionParameter;
+import com.compomics.util.experiment.identification.utils.ProteinUtils;
+import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
+import com.compomics.util.general.LongHashSet;
+import com.compomics.util.parameters.identification.IdentificationParameters;
+import com.compomics.util.parameters.identification.search.DigestionParameters;
+import com.compomics.util.parameters.quantification.spectrum_counting.SpectrumCountingParameters;
+import com.compomics.util.waiting.WaitingHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Estimates the spectrum counting values of all protein matches in a few
+ * parallel passes over the matches: one over the proteins to gather their
+ * peptides and the sequence dependent normalization terms, one over the PSMs
+ * to gather their validation and intensity, and one over the peptides to
+ * accumulate the contribution of every peptide to its proteins in primitive
+ * arrays. Every match is thus loaded from the database only once. The results
+ * are the same as the ones of
+ * IdentificationFeaturesGenerator.estimateSpectrumCounting for every protein.
+ *
+ * @author Marc Vaudel
+ */
+public class SpectrumCountingEngine {
+
+    /**
+     * The spectrum counting parameters.
+     */
+    private final SpectrumCountingParameters spectrumCountingParameters;
+    /**
+     * The digestion parameters.
+     */
+    private final DigestionParameters digestionParameters;
+    /**
+     * The maximal peptide length.
+     */
+    private final int maxPepLength;
+
+    /**
+     * Constructor.
+     *
+     * @param spectrumCountingParameters the spectrum counting parameters
+     * @param identificationParameters the identification parameters
+     */
+    public SpectrumCountingEngine(
+            SpectrumCountingParameters spectrumCountingParameters,
+            IdentificationParameters identificationParameters
+    ) {
+
+        this.spectrumCountingParameters = spectrumCountingParameters;
+        this.digestionParameters = identificationParameters.getSearchParameters().getDigestionParameters();
+        this.maxPepLength = identificationParameters.getPeptideAssumptionFilter().getMaxPepLength();
+
+    }
+
+    /**
+     * Estimates the spectrum counting values of all the protein matches of
+     * the given identification.
+     *
+     * @param identification the identification
+     * @param sequenceProvider the sequence provider
+     * @param nThreads the number of threads to use
+     * @param waitingHandler a waiting handler, ignored if null
+     *
+     * @return the spectrum counting results, null if the process was canceled
+     *
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public SpectrumCountingResults estimate(
+            Identification identification,
+            SequenceProvider sequenceProvider,
+            int nThreads,
+            WaitingHandler waitingHandler
+    ) throws InterruptedException {
+
+        SpectrumCountingMethod method = spectrumCountingParameters.getSelectedMethod();
+        int validationLevel = spectrumCountingParameters.getMatchValidationLevel();
+
+        ExecutorService pool = Executors.newFixedThreadPool(nThreads);
+
+        try {
+
+            // Gather the proteins
+            ProteinMatchesIterator proteinMatchesIterator = identification.getProteinMatchesIterator(waitingHandler);
+            ArrayList<Callable<ArrayList<ProteinData>>> proteinTasks = new ArrayList<>(nThreads);
+
+            for (int i = 0; i < nThreads; i++) {
+
+                proteinTasks.add(() -> {
+
+                    ArrayList<ProteinData> result = new ArrayList<>();
+                    ProteinMatch proteinMatch;
+
+                    while ((proteinMatch = proteinMatchesIterator.next()) != null && !isCanceled(waitingHandler)) {
+
+                        result.add(new ProteinData(proteinMatch, sequenceProvider, method, validationLevel));
+
+                    }
+
+                    return result;
+
+                });
+            }
+
+            List<ArrayList<ProteinData>> proteinResults = runTasks(pool, proteinTasks, waitingHandler);
+
+            if (isCanceled(waitingHandler)) {
+                return null;
+            }
+
+            int nProteins = proteinResults.stream()
+                    .mapToInt(ArrayList::size)
+                    .sum();
+
+            LongHashSet proteinKeys = new LongHashSet(nProteins);
+            ProteinData[] proteins = new ProteinData[nProteins];
+            LongHashSet peptideKeys = new LongHashSet(nProteins);
+
+            for (ArrayList<ProteinData> threadResult : proteinResults) {
+
+                for (ProteinData proteinData : threadResult) {
+
+                    if (proteinKeys.add(proteinData.key)) {
+
+                        proteins[proteinKeys.size() - 1] = proteinData;
+                        peptideKeys.addAll(proteinData.peptideKeys);
+
+                    }
+                }
+            }
+
+            // Index the proteins of every peptide
+            int[] peptideOffsets = new int[peptideKeys.size() + 1];
+
+            for (int i = 0; i < proteinKeys.size(); i++) {
+
+                for (long peptideKey : proteins[i].peptideKeys) {
+
+                    peptideOffsets[peptideKeys.indexOf(peptideKey) + 1]++;
+
+                }
+            }
+
+            for (int i = 0; i < peptideKeys.size(); i++) {
+
+                peptideOffsets[i + 1] += peptideOffsets[i];
+
+            }
+
+            int[] peptideProteins = new int[peptideOffsets[peptideKeys.size()]];
+            int[] fillIndexes = Arrays.copyOf(peptideOffsets, peptideKeys.size());
+
+            for (int i = 0; i < proteinKeys.size(); i++) {
+
+                for (long peptideKey : proteins[i].peptideKeys) {
+
+                    peptideProteins[fillIndexes[peptideKeys.indexOf(peptideKey)]++] = i;
+
+                }
+            }
+
+            // Gather the PSMs
+            LongHashSet psmKeys = new LongHashSet();
+            boolean[] psmValidated = new boolean[0];
+            double[] psmIntensities = new double[0];
+
+            if (method != SpectrumCountingMethod.EMPAI) {
+
+                SpectrumMatchesIterator spectrumMatchesIterator = identification.getSpectrumMatchesIterator(waitingHandler);
+                ArrayList<Callable<PsmData>> psmTasks = new ArrayList<>(nThreads);
+
+                for (int i = 0; i < nThreads; i++) {
+
+                    psmTasks.add(() -> {
+
+                        PsmData result = new PsmData();
+                        SpectrumMatch spectrumMatch;
+
+                        while ((spectrumMatch = spectrumMatchesIterator.next()) != null && !isCanceled(waitingHandler)) {
+
+                            result.add(spectrumMatch, method, validationLevel);
+
+                        }
+
+                        return result;
+
+                    });
+                }
+
+                List<PsmData> psmResults = runTasks(pool, psmTasks, waitingHandler);
+
+                if (isCanceled(waitingHandler)) {
+                    return null;
+                }
+
+                int nPsms = psmResults.stream()
+                        .mapToInt(psmData -> psmData.keys.size())
+                        .sum();
+
+                psmKeys = new LongHashSet(nPsms);
+                psmValidated = new boolean[nPsms];
+                psmIntensities = new double[nPsms];
+
+                for (PsmData psmData : psmResults) {
+
+                    for (int i = 0; i < psmData.keys.size(); i++) {
+
+                        if (psmKeys.add(psmData.keys.get(i))) {
+
+                            psmValidated[psmKeys.size() - 1] = psmData.validated[i];
+                            psmIntensities[psmKeys.size() - 1] = psmData.intensities[i];
+
+                        }
+                    }
+                }
+            }
+
+            // Accumulate the contribution of the peptides to the proteins
+            PeptideMatchesIterator peptideMatchesIterator = identification.getPeptideMatchesIterator(peptideKeys.toArray(), waitingHandler);
+            LongHashSet finalPsmKeys = psmKeys;
+            boolean[] finalPsmValidated = psmValidated;
+            double[] finalPsmIntensities = psmIntensities;
+            ArrayList<Callable<double[]>> peptideTasks = new ArrayList<>(nThreads);
+
+            for (int i = 0; i < nThreads; i++) {
+
+                peptideTasks.add(() -> {
+
+                    double[] result = new double[nProteins];
+                    PeptideMatch peptideMatch;
+
+                    while ((peptideMatch = peptideMatchesIterator.next()) != null && !isCanceled(waitingHandler)) {
+
+                        if (!isValidated(peptideMatch, validationLevel)) {
+                            continue;
+                        }
+
+                        int peptideIndex = peptideKeys.indexOf(peptideMatch.getKey());
+                        int start = peptideOffsets[peptideIndex];
+                        int end = peptideOffsets[peptideIndex + 1];
+                        double contribution;
+
+                        switch (method) {
+
+                            case NSAF: {
+
+                                Peptide peptide = peptideMatch.getPeptide();
+                                int peptideOccurrence = 0;
+
+                                for (int j = start; j < end; j++) {
+
+                                    ProteinData proteinData = proteins[peptideProteins[j]];
+
+                                    if (proteinData.validated) {
+
+                                        int[] positions = peptide.getProteinMapping().get(proteinData.leadingAccession);
+
+                                        if (positions != null) {
+                                            peptideOccurrence += positions.length;
+                                        }
+                                    }
+                                }
+
+                                int spectrumCount = 0;
+
+                                for (long spectrumKey : peptideMatch.getSpectrumMatchesKeys()) {
+
+                                    int psmIndex = finalPsmKeys.indexOf(spectrumKey);
+
+                                    if (psmIndex != -1 && finalPsmValidated[psmIndex]) {
+                                        spectrumCount++;
+                                    }
+                                }
+
+                                contribution = ((double) spectrumCount) / peptideOccurrence;
+                                break;
+
+                            }
+
+                            case EMPAI:
+
+                                contribution = 1.0;
+                                break;
+
+                            case LFQ:
+
+                                contribution = 0.0;
+
+                                for (long spectrumKey : peptideMatch.getSpectrumMatchesKeys()) {
+
+                                    int psmIndex = finalPsmKeys.indexOf(spectrumKey);
+
+                                    if (psmIndex != -1) {
+                                        contribution += finalPsmIntensities[psmIndex];
+                                    }
+                                }
+
+                                break;
+
+                            default:
+                                throw new UnsupportedOperationException("Spectrum counting method " + method + " not implemented.");
+
+                        }
+
+                        for (int j = start; j < end; j++) {
+
+                            result[peptideProteins[j]] += contribution;
+
+                        }
+                    }
+
+                    return result;
+
+                });
+            }
+
+            List<double[]> peptideResults = runTasks(pool, peptideTasks, waitingHandler);
+
+            if (isCanceled(waitingHandler)) {
+                return null;
+            }
+
+            double[] spectrumCounting = new double[nProteins];
+
+            for (double[] threadResult : peptideResults) {
+
+                for (int i = 0; i < nProteins; i++) {
+
+                    spectrumCounting[i] += threadResult[i];
+
+                }
+            }
+
+            // Normalize
+            double[] molecularWeights = new double[nProteins];
+            boolean[] decoy = new boolean[nProteins];
+            boolean[] validated = new boolean[nProteins];
+
+            for (int i = 0; i < nProteins; i++) {
+
+                ProteinData proteinData = proteins[i];
+
+                switch (method) {
+
+                    case NSAF:
+
+                        spectrumCounting[i] /= proteinData.normalizationLength;
+                        break;
+
+                    case EMPAI:
+
+                        spectrumCounting[i] = Math.pow(10, spectrumCounting[i] / proteinData.normalizationLength) - 1;
+                        break;
+
+                    default:
+                        break;
+
+                }
+
+                if (Double.isInfinite(spectrumCounting[i]) || Double.isNaN(spectrumCounting[i])) {
+
+                    spectrumCounting[i] = 0.0;
+
+                }
+
+                molecularWeights[i] = proteinData.molecularWeight;
+                decoy[i] = proteinData.decoy;
+                validated[i] = proteinData.validated;
+
+            }
+
+            return new SpectrumCountingResults(proteinKeys, spectrumCounting, molecularWeights, decoy, validated);
+
+        } finally {
+
+            pool.shutdown();
+
+        }
+    }
+
+    /**
+     * Runs the given tasks and returns their results in the same order.
+     * Exceptions thrown by the tasks are thrown as runtime exceptions.
+     *
+     * @param <T> the type of result
+     * @param pool the thread pool
+     * @param tasks the tasks
+     * @param waitingHandler a waiting handler, ignored if null
+     *
+     * @return the results of the tasks
+     *
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    private static <T> List<T> runTasks(
+            ExecutorService pool,
+            List<Callable<T>> tasks,
+            WaitingHandler waitingHandler
+    ) throws InterruptedException {
+
+        ArrayList<T> results = new ArrayList<>(tasks.size());
+
+        try {
+
+            for (Future<T> future : pool.invokeAll(tasks)) {
+
+                results.add(future.get());
+
+            }
+
+        } catch (ExecutionException e) {
+
+            if (waitingHandler != null) {
+                waitingHandler.setRunCanceled();
+            }
+
+            throw new RuntimeException(e.getCause());
+
+        }
+
+        return results;
+
+    }
+
+    /**
+     * Indicates whether the process was canceled.
+     *
+     * @param waitingHandler a waiting handler, ignored if null
+     *
+     * @return a boolean indicating whether the process was canceled
+     */
+    private static boolean isCanceled(WaitingHandler waitingHandler) {
+        return waitingHandler != null && waitingHandler.isRunCanceled();
+    }
+
+    /**
+     * Indicates whether the validation level of the given match is at least
+     * the given level.
+     *
+     * @param match the match
+     * @param validationLevel the index of the validation level
+     *
+     * @return a boolean indicating whether the match is validated
+     */
+    private static boolean isValidated(IdentificationMatch match, int validationLevel) {
+
+        PSParameter psParameter = (PSParameter) match.getUrParam(PSParameter.dummy);
+
+        return psParameter.getMatchValidationLevel().getIndex() >= validationLevel;
+
+    }
+
+    /**
+     * The information on a protein match needed for spectrum counting.
+     */
+    private class ProteinData {
+
+        /**
+         * The key of the protein match.
+         */
+        private final long key;
+        /**
+         * The accession of the leading protein.
+         */
+        private final String leadingAccession;
+        /**
+         * The keys of the peptide matches.
+         */
+        private final long[] peptideKeys;
+        /**
+         * Indicates whether the protein match is decoy.
+         */
+        private final boolean decoy;
+        /**
+         * Indicates whether the validation level of the protein match is
+         * sufficient.
+         */
+        private final boolean validated;
+        /**
+         * The length used to normalize the spectrum counting value, the
+         * observable length for NSAF, the number of possible peptides for
+         * emPAI.
+         */
+        private final double normalizationLength;
+        /**
+         * The molecular weight of the leading protein in kDa.
+         */
+        private final double molecularWeight;
+
+        /**
+         * Constructor.
+         *
+         * @param proteinMatch the protein match
+         * @param sequenceProvider the sequence provider
+         * @param method the spectrum counting method
+         * @param validationLevel the index of the minimal validation level
+         */
+        private ProteinData(
+                ProteinMatch proteinMatch,
+                SequenceProvider sequenceProvider,
+                SpectrumCountingMethod method,
+                int validationLevel
+        ) {
+
+            key = proteinMatch.getKey();
+            leadingAccession = proteinMatch.getLeadingAccession();
+            peptideKeys = proteinMatch.getPeptideMatchesKeys();
+            decoy = proteinMatch.isDecoy();
+            validated = isValidated(proteinMatch, validationLevel);
+
+            String sequence = sequenceProvider.getSequence(leadingAccession);
+            boolean enzyme = digestionParameters.getCleavageParameter() == DigestionParameters.CleavageParameter.enzyme;
+
+            switch (method) {
+
+                case NSAF:
+
+                    normalizationLength = enzyme
+                            ? ProteinUtils.getObservableLength(sequence, digestionParameters.getEnzymes(), maxPepLength)
+                            : sequence.length();
+                    break;
+
+                case EMPAI:
+
+                    normalizationLength = enzyme
+                            ? ProteinUtils.getNCleavageSites(sequence, digestionParameters.getEnzymes()) + 1
+                            : 1;
+                    break;
+
+                default:
+
+                    normalizationLength = 1;
+                    break;
+
+            }
+
+            molecularWeight = ProteinUtils.computeMolecularWeight(sequence);
+
+        }
+    }
+
+    /**
+     * The information on PSMs gathered by a thread.
+     */
+    private static class PsmData {
+
+        /**
+         * The keys of the PSMs.
+         */
+        private final LongHashSet keys = new LongHashSet();
+        /**
+         * Indicates for every PSM whether its validation level is sufficient.
+         */
+        private boolean[] validated = new boolean[LongHashSet.DEFAULT_CAPACITY];
+        /**
+         * The MS1 intensity of every PSM, 0 if not available.
+         */
+        private double[] intensities = new double[LongHashSet.DEFAULT_CAPACITY];
+
+        /**
+         * Adds a PSM.
+         *
+         * @param spectrumMatch the spectrum match
+         * @param method the spectrum counting method
+         * @param validationLevel the index of the minimal validation level
+         */
+        private void add(
+                SpectrumMatch spectrumMatch,
+                SpectrumCountingMethod method,
+                int validationLevel
+        ) {
+
+            if (!keys.add(spectrumMatch.getKey())) {
+                return;
+            }
+
+            int index = keys.size() - 1;
+
+            if (index == validated.length) {
+
+                validated = Arrays.copyOf(validated, 2 * index);
+                intensities = Arrays.copyOf(intensities, 2 * index);
+
+            }
+
+            validated[index] = isValidated(spectrumMatch, validationLevel);
+
+            if (method == SpectrumCountingMethod.LFQ) {
+
+                PeptideAssumption peptideAssumption = spectrumMatch.getBestPeptideAssumption();
+
+                if (peptideAssumption != null) {
+
+                    PeptideAssumptionParameter peptideAssumptionParameter
+                            = (PeptideAssumptionParameter) peptideAssumption.getUrParam(PeptideAssumptionParameter.dummy);
+
+                    if (peptideAssumptionParameter != null
+                            && peptideAssumptionParameter.getMs1Intensity() != null) {
+
+                        intensities[index] = peptideAssumptionParameter.getMs1Intensity();
+
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.compomics.util.experiment.quantification.spectrumcounting;
+
+import com.compomics.util.general.LongHashSet;
+
+/**
+ * The spectrum counting values of all protein matches of a project, stored
+ * in primitive arrays indexed by protein.
+ *
+ * @author Marc Vaudel
+ */
+public class SpectrumCountingResults {
+
+    /**
+     * The keys of the protein matches.
+     */
+    private final LongHashSet proteinKeys;
+    /**
+     * The spectrum counting value of every protein.
+     */
+    private final double[] spectrumCounting;
+    /**
+     * The molecular weight of the leading protein of every protein match in
+     * kDa.
+     */
+    private final double[] molecularWeights;
+    /**
+     * Indicates for every protein match whether it is decoy.
+     */
+    private final boolean[] decoy;
+    /**
+     * Indicates for every protein match whether its validation level is
+     * sufficient for spectrum counting.
+     */
+    private final boolean[] validated;
+
+    /**
+     * Constructor.
+     *
+     * @param proteinKeys the keys of the protein matches
+     * @param spectrumCounting the spectrum counting value of every protein
+     * @param molecularWeights the molecular weight of the leading protein of
+     * every protein match in kDa
+     * @param decoy indicates for every protein match whether it is decoy
+     * @param validated indicates for every protein match whether its
+     * validation level is sufficient for spectrum counting
+     */
+    public SpectrumCountingResults(
+            LongHashSet proteinKeys,
+            double[] spectrumCounting,
+            double[] molecularWeights,
+            boolean[] decoy,
+            boolean[] validated
+    ) {
+
+        this.proteinKeys = proteinKeys;
+        this.spectrumCounting = spectrumCounting;
+        this.molecularWeights = molecularWeights;
+        this.decoy = decoy;
+        this.validated = validated;
+
+    }
+
+    /**
+     * Returns the number of protein matches.
+     *
+     * @return the number of protein matches
+     */
+    public int size() {
+        return proteinKeys.size();
+    }
+
+    /**
+     * Returns the key of the protein match at the given index.
+     *
+     * @param index the index
+     *
+     * @return the key of the protein match
+     */
+    public long getProteinKey(int index) {
+        return proteinKeys.get(index);
+    }
+
+    /**
+     * Returns the index of the given protein match, -1 if not found.
+     *
+     * @param proteinKey the key of the protein match
+     *
+     * @return the index of the protein match
+     */
+    public int getIndex(long proteinKey) {
+        return proteinKeys.indexOf(proteinKey);
+    }
+
+    /**
+     * Returns the spectrum counting value of the protein match at the given
+     * index.
+     *
+     * @param index the index
+     *
+     * @return the spectrum counting value
+     */
+    public double getSpectrumCounting(int index) {
+        return spectrumCounting[index];
+    }
+
+    /**
+     * Returns the spectrum counting value of the given protein match, NaN if
+     * not found.
+     *
+     * @param proteinKey the key of the protein match
+     *
+     * @return the spectrum counting value
+     */
+    public double getSpectrumCounting(long proteinKey) {
+
+        int index = proteinKeys.indexOf(proteinKey);
+
+        return index == -1 ? Double.NaN : spectrumCounting[index];
+
+    }
+
+    /**
+     * Returns the molecular weight of the leading protein of the protein
+     * match at the given index in kDa.
+     *
+     * @param index the index
+     *
+     * @return the molecular weight in kDa
+     */
+    public double getMolecularWeight(int index) {
+        return molecularWeights[index];
+    }
+
+    /**
+     * Indicates whether the protein match at the given index is decoy.
+     *
+     * @param index the index
+     *
+     * @return a boolean indicating whether the protein match is decoy
+     */
+    public boolean isDecoy(int index) {
+        return decoy[index];
+    }
+
+    /**
+     * Indicates whether the validation level of the protein match at the
+     * given index is sufficient for spectrum counting.
+     *
+     * @param index the index
+     *
+     * @return a boolean indicating whether the protein match is validated
+     */
+    public boolean isValidated(int index) {
+        return validated[index];
+    }
+}
@@ -0,0 +1,230 @@
+package com.compomics.util.general;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive longs using open addressing. The values are stored in
+ * insertion order, making the iteration order deterministic. This class is
+ * not thread safe.
+ *
+ * @author Marc Vaudel
+ */
+public class LongHashSet {
+
+    /**
+     * The default initial capacity.
+     */
+    public static final int DEFAULT_CAPACITY = 4;
+    /**
+     * Multiplier used to spread the values in the table.
+     */
+    private static final long PHI = 0x9E3779B97F4A7C15L;
+    /**
+     * The values in insertion order.
+     */
+    private long[] values;
+    /**
+     * The hash table, containing the index of the values plus one, zero for
+     * empty slots.
+     */
+    private int[] table;
+    /**
+     * The number of values in the set.
+     */
+    private int size = 0;
+    /**
+     * The shift used to get a slot from a hash.
+     */
+    private int shift;
+
+    /**
+     * Constructor.
+     */
+    public LongHashSet() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param expectedSize the expected number of values
+     */
+    public LongHashSet(int expectedSize) {
+
+        int capacity = Math.max(expectedSize, DEFAULT_CAPACITY);
+        values = new long[capacity];
+        initTable(2 * capacity);
+
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param initialValues the values to add to the set
+     */
+    public LongHashSet(long[] initialValues) {
+
+        this(initialValues.length);
+        addAll(initialValues);
+
+    }
+
+    /**
+     * Initiates an empty table of at least the given size.
+     *
+     * @param minSize the minimal size of the table
+     */
+    private void initTable(int minSize) {
+
+        int tableSize = Integer.highestOneBit(Math.max(minSize, 2) - 1) << 1;
+        table = new int[tableSize];
+        shift = Long.SIZE - Integer.numberOfTrailingZeros(tableSize);
+
+    }
+
+    /**
+     * Returns the slot of the given value in the table, or of the empty slot
+     * where it would be inserted.
+     *
+     * @param value the value
+     *
+     * @return the slot of the value in the table
+     */
+    private int getSlot(long value) {
+
+        int mask = table.length - 1;
+        int slot = (int) ((value * PHI) >>> shift);
+
+        while (table[slot] != 0 && values[table[slot] - 1] != value) {
+
+            slot = (slot + 1) & mask;
+
+        }
+
+        return slot;
+
+    }
+
+    /**
+     * Adds a value to the set.
+     *
+     * @param value the value to add
+     *
+     * @return true if the value was not already in the set
+     */
+    public boolean add(long value) {
+
+        int slot = getSlot(value);
+
+        if (table[slot] != 0) {
+            return false;
+        }
+
+        if (size == values.length) {
+            values = Arrays.copyOf(values, 2 * size);
+        }
+
+        values[size++] = value;
+        table[slot] = size;
+
+        if (2 * size > table.length) {
+            rehash();
+        }
+
+        return true;
+
+    }
+
+    /**
+     * Adds the given values to the set.
+     *
+     * @param newValues the values to add
+     */
+    public void addAll(long[] newValues) {
+
+        for (long value : newValues) {
+            add(value);
+        }
+    }
+
+    /**
+     * Doubles the size of the table and reinserts the values.
+     */
+    private void rehash() {
+
+        initTable(2 * table.length);
+
+        for (int i = 0; i < size; i++) {
+
+            table[getSlot(values[i])] = i + 1;
+
+        }
+    }
+
+    /**
+     * Indicates whether the set contains the given value.
+     *
+     * @param value the value
+     *
+     * @return a boolean indicating whether the set contains the given value
+     */
+    public boolean contains(long value) {
+        return table[getSlot(value)] != 0;
+    }
+
+    /**
+     * Returns the index of the given value in insertion order, -1 if not in
+     * the set.
+     *
+     * @param value the value
+     *
+     * @return the index of the given value
+     */
+    public int indexOf(long value) {
+        return table[getSlot(value)] - 1;
+    }
+
+    /**
+     * Returns the number of values in the set.
+     *
+     * @return the number of values in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Indicates whether the set is empty.
+     *
+     * @return a boolean indicating whether the set is empty
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the value at the given index in insertion order.
+     *
+     * @param index the index
+     *
+     * @return the value at the given index
+     */
+    public long get(int index) {
+
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException(index);
+        }
+
+        return values[index];
+
+    }
+
+    /**
+     * Returns the values of the set in insertion order.
+     *
+     * @return the values of the set in insertion order
+     */
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
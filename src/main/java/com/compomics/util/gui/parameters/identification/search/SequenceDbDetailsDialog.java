@@ -9,6 +9,7 @@ import com.compomics.util.experiment.io.biology.protein.FastaSummary;
 import com.compomics.util.experiment.io.biology.protein.Header;
 import com.compomics.util.experiment.io.biology.protein.ProteinDatabase;
 import com.compomics.util.experiment.io.biology.protein.converters.DecoyConverter;
+import com.compomics.util.experiment.io.biology.protein.converters.DecoyMethod;
 import com.compomics.util.experiment.io.biology.protein.iterators.FastaIterator;
 import com.compomics.util.gui.JOptionEditorPane;
 import com.compomics.util.gui.protein.FastaParametersDialog;
@@ -572,7 +573,19 @@ public class SequenceDbDetailsDialog extends javax.swing.JDialog {
             progressDialog.setPrimaryProgressCounter(0);
             progressDialog.setMaxPrimaryProgressCounter(100);
 
-            DecoyConverter.appendDecoySequences(originalFastaFile, newFile, fastaParameters, progressDialog);
+            FastaSummary decoySummary = DecoyConverter.appendDecoySequences(
+                    originalFastaFile,
+                    newFile,
+                    fastaParameters,
+                    DecoyMethod.reverse,
+                    null,
+                    Runtime.getRuntime().availableProcessors(),
+                    progressDialog
+            );
+
+            if (decoySummary == null) {
+                return;
+            }
 
             progressDialog.setTitle("Getting Database Details. Please Wait...");
 
@@ -580,7 +593,11 @@ public class SequenceDbDetailsDialog extends javax.swing.JDialog {
 
             selectedFastaFile = newFile.getAbsolutePath();
             fastaParameters = DecoyConverter.getDecoyParameters(fastaParameters);
-            fastaSummary = DecoyConverter.getDecoySummary(originalFastaFile, fastaSummary);
+            decoySummary.setName(fastaSummary.getName() + " (target-decoy)");
+            decoySummary.setDescription(fastaSummary.getDescription());
+            decoySummary.setVersion(fastaSummary.getVersion());
+            fastaSummary = decoySummary;
+            FastaSummary.saveSummary(selectedFastaFile, fastaSummary);
 
         } catch (OutOfMemoryError error) {
 
@@ -397,6 +397,25 @@ public abstract class GraphicsPanel extends JPanel {
      * dataset (one double[] per dataset).
      */
     protected ArrayList<int[]> iYAxisDataInPixelsMirroredSpectrum = null;
+    /**
+     * The level of detail of every dataset, built when the dataset is first
+     * drawn.
+     */
+    private final ArrayList<PeakLevelOfDetail> iLevelsOfDetail = new ArrayList<>();
+    /**
+     * The level of detail of every mirrored dataset, built when the dataset is
+     * first drawn.
+     */
+    private final ArrayList<PeakLevelOfDetail> iLevelsOfDetailMirroredSpectra = new ArrayList<>();
+    /**
+     * The peaks matched by the annotations, kept between repaints.
+     */
+    private AnnotationMatches iAnnotationMatches = null;
+    /**
+     * The peaks matched by the annotations of the mirrored spectra, kept
+     * between repaints.
+     */
+    private AnnotationMatches iAnnotationMatchesMirroredSpectra = null;
     /**
      * Boolean that will be 'true' when a point needs highlighting.
      */
@@ -452,51 +471,51 @@ public abstract class GraphicsPanel extends JPanel {
     /**
      * The Vector that holds all points clicked up to now.
      */
-    protected Vector iClickedList = new Vector(15, 5);
+    protected Vector<Integer> iClickedList = new Vector<>(15, 5);
     /**
      * The Vector that holds all points clicked up to now in the mirrored
      * spectra.
      */
-    protected Vector iClickedListMirrored = new Vector(15, 5);
+    protected Vector<Integer> iClickedListMirrored = new Vector<>(15, 5);
     /**
      * The Vector that holds the dataset indices of all points clicked up to
      * now.
      */
-    protected Vector iClickedListDatasetIndices = new Vector(15, 5);
+    protected Vector<Integer> iClickedListDatasetIndices = new Vector<>(15, 5);
     /**
      * The Vector that holds the dataset indices of all points clicked up to now
      * in the mirrored spectra.
      */
-    protected Vector iClickedListDatasetIndicesMirrored = new Vector(15, 5);
+    protected Vector<Integer> iClickedListDatasetIndicesMirrored = new Vector<>(15, 5);
     /**
      * The Vector that holds a set of stored points from a previously
      * established list.
      */
-    protected Vector iStoredSequence = new Vector(15, 5);
+    protected Vector<Integer> iStoredSequence = new Vector<>(15, 5);
     /**
      * The Vector that holds a set of stored points from a previously
      * established list in the mirrored spectra.
      */
-    protected Vector iStoredSequenceMirrored = new Vector(15, 5);
+    protected Vector<Integer> iStoredSequenceMirrored = new Vector<>(15, 5);
     /**
      * The Vector that holds the dataset indices of stored points from a
      * previously established list.
      */
-    protected Vector iStoredSequenceDatasetIndices = new Vector(15, 5);
+    protected Vector<Integer> iStoredSequenceDatasetIndices = new Vector<>(15, 5);
     /**
      * The Vector that holds the dataset indices of stored points from a
      * previously established list in the mirrored spectra.
      */
-    protected Vector iStoredSequenceDatasetIndicesMirrored = new Vector(15, 5);
+    protected Vector<Integer> iStoredSequenceDatasetIndicesMirrored = new Vector<>(15, 5);
     /**
      * The Vector that holds a set of Annotation instances.
      */
-    protected Vector iAnnotations = new Vector(50, 20);
+    protected Vector<SpectrumAnnotation> iAnnotations = new Vector<>(50, 20);
     /**
      * The Vector that holds a set of Annotation instances for the mirrored
      * spectra.
      */
-    protected Vector iAnnotationsMirroredSpectra = new Vector(50, 20);
+    protected Vector<SpectrumAnnotation> iAnnotationsMirroredSpectra = new Vector<>(50, 20);
     /**
      * Minimal dragging distance in pixels.
      */
@@ -906,7 +925,7 @@ public abstract class GraphicsPanel extends JPanel {
      */
     public void setAnnotations(List<SpectrumAnnotation> aAnnotations) {
         
-        iAnnotations = new Vector(50, 25);
+        iAnnotations = new Vector<>(50, 25);
         
         if (aAnnotations != null) {
             
@@ -956,7 +975,7 @@ public abstract class GraphicsPanel extends JPanel {
      * @param aAnnotations Vector with SpectrumAnnotation instances
      */
     public void setAnnotationsMirrored(List<SpectrumAnnotation> aAnnotations) {
-        this.iAnnotationsMirroredSpectra = new Vector(50, 25);
+        this.iAnnotationsMirroredSpectra = new Vector<>(50, 25);
         if (aAnnotations != null) {
             // Attempt to remove duplicates.
             HashSet removeDupes = new HashSet(aAnnotations.size());
@@ -1626,13 +1645,13 @@ public abstract class GraphicsPanel extends JPanel {
                 if (aboveXAxis) { // @TODO: merge the above/below code
                     if (iXAxisData != null) {
                         if (e.getButton() == MouseEvent.BUTTON1 && e.getModifiersEx() == (MouseEvent.CTRL_DOWN_MASK | MouseEvent.ALT_DOWN_MASK)) {
-                            iStoredSequence = new Vector(15, 5);
-                            iStoredSequenceDatasetIndices = new Vector(15, 5);
+                            iStoredSequence = new Vector<>(15, 5);
+                            iStoredSequenceDatasetIndices = new Vector<>(15, 5);
                             repaint();
                         } else if (e.getButton() == MouseEvent.BUTTON1 && e.getModifiersEx() == MouseEvent.CTRL_DOWN_MASK) {
                             iClicked = false;
-                            iClickedList = new Vector(15, 5);
-                            iClickedListDatasetIndices = new Vector(15, 5);
+                            iClickedList = new Vector<>(15, 5);
+                            iClickedListDatasetIndices = new Vector<>(15, 5);
                             repaint();
                         } else if (e.getButton() == MouseEvent.BUTTON1 && e.getModifiersEx() == MouseEvent.SHIFT_DOWN_MASK) {
                             // If the clicked point is the last one in the list of previously clicked points,
@@ -1640,8 +1659,8 @@ public abstract class GraphicsPanel extends JPanel {
                             if (iClickedList != null && iClickedList.size() > 0 && iHighLightIndex == iClickedIndex) {
                                 // Retrieve the previously clicked index from the list and set the currently clicked
                                 // one to that value.
-                                iClickedIndex = ((Integer) iClickedList.get(iClickedList.size() - 1)).intValue();
-                                iClickedDataSetIndex = ((Integer) iClickedListDatasetIndices.get(iClickedListDatasetIndices.size() - 1)).intValue();
+                                iClickedIndex = iClickedList.get(iClickedList.size() - 1);
+                                iClickedDataSetIndex = iClickedListDatasetIndices.get(iClickedListDatasetIndices.size() - 1);
                                 // Remove the previously clicked index from the list.
                                 iClickedList.remove(iClickedList.size() - 1);
                                 iClickedListDatasetIndices.remove(iClickedListDatasetIndices.size() - 1);
@@ -1652,14 +1671,14 @@ public abstract class GraphicsPanel extends JPanel {
                             // See if there is a clicked list and if it contains any values.
                             if (iClickedList != null && iClickedList.size() > 0) {
                                 // Copy the current clickedlist into the stored sequence.
-                                iStoredSequence = (Vector) iClickedList.clone();
+                                iStoredSequence = new Vector<>(iClickedList);
                                 iStoredSequence.add(Integer.valueOf(iClickedIndex));
-                                iStoredSequenceDatasetIndices = (Vector) iClickedListDatasetIndices.clone();
+                                iStoredSequenceDatasetIndices = new Vector<>(iClickedListDatasetIndices);
                                 iStoredSequenceDatasetIndices.add(Integer.valueOf(iClickedDataSetIndex));
                                 iClicked = false;
                                 // Reset the clicked list.
-                                iClickedList = new Vector(15, 5);
-                                iClickedListDatasetIndices = new Vector(15, 5);
+                                iClickedList = new Vector<>(15, 5);
+                                iClickedListDatasetIndices = new Vector<>(15, 5);
                                 repaint();
                             }
                         } else if (e.getButton() == MouseEvent.BUTTON1) {
@@ -1678,13 +1697,13 @@ public abstract class GraphicsPanel extends JPanel {
                 } else {
                     if (iXAxisDataMirroredSpectrum != null) {
                         if (e.getButton() == MouseEvent.BUTTON1 && e.getModifiersEx() == (MouseEvent.CTRL_DOWN_MASK | MouseEvent.ALT_DOWN_MASK)) {
-                            iStoredSequenceMirrored = new Vector(15, 5);
-                            iStoredSequenceDatasetIndicesMirrored = new Vector(15, 5);
+                            iStoredSequenceMirrored = new Vector<>(15, 5);
+                            iStoredSequenceDatasetIndicesMirrored = new Vector<>(15, 5);
                             repaint();
                         } else if (e.getButton() == MouseEvent.BUTTON1 && e.getModifiersEx() == MouseEvent.CTRL_DOWN_MASK) {
                             iClickedMirrored = false;
-                            iClickedListMirrored = new Vector(15, 5);
-                            iClickedListDatasetIndicesMirrored = new Vector(15, 5);
+                            iClickedListMirrored = new Vector<>(15, 5);
+                            iClickedListDatasetIndicesMirrored = new Vector<>(15, 5);
                             repaint();
                         } else if (e.getButton() == MouseEvent.BUTTON1 && e.getModifiersEx() == MouseEvent.SHIFT_DOWN_MASK) {
                             // If the clicked point is the last one in the list of previously clicked points,
@@ -1692,8 +1711,8 @@ public abstract class GraphicsPanel extends JPanel {
                             if (iClickedListMirrored != null && iClickedListMirrored.size() > 0 && iHighLightIndexMirrored == iClickedIndexMirrored) {
                                 // Retrieve the previously clicked index from the list and set the currently clicked
                                 // one to that value.
-                                iClickedIndexMirrored = ((Integer) iClickedListMirrored.get(iClickedListMirrored.size() - 1)).intValue();
-                                iClickedDataSetIndexMirrored = ((Integer) iClickedListDatasetIndicesMirrored.get(iClickedListDatasetIndicesMirrored.size() - 1)).intValue();
+                                iClickedIndexMirrored = iClickedListMirrored.get(iClickedListMirrored.size() - 1);
+                                iClickedDataSetIndexMirrored = iClickedListDatasetIndicesMirrored.get(iClickedListDatasetIndicesMirrored.size() - 1);
                                 // Remove the previously clicked index from the list.
                                 iClickedListMirrored.remove(iClickedListMirrored.size() - 1);
                                 iClickedListDatasetIndicesMirrored.remove(iClickedListDatasetIndicesMirrored.size() - 1);
@@ -1704,14 +1723,14 @@ public abstract class GraphicsPanel extends JPanel {
                             // See if there is a clicked list and if it contains any values.
                             if (iClickedListMirrored != null && iClickedListMirrored.size() > 0) {
                                 // Copy the current clickedlist into the stored sequence.
-                                iStoredSequenceMirrored = (Vector) iClickedListMirrored.clone();
+                                iStoredSequenceMirrored = new Vector<>(iClickedListMirrored);
                                 iStoredSequenceMirrored.add(Integer.valueOf(iClickedIndexMirrored));
-                                iStoredSequenceDatasetIndicesMirrored = (Vector) iClickedListDatasetIndicesMirrored.clone();
+                                iStoredSequenceDatasetIndicesMirrored = new Vector<>(iClickedListDatasetIndicesMirrored);
                                 iStoredSequenceDatasetIndicesMirrored.add(Integer.valueOf(iClickedDataSetIndexMirrored));
                                 iClicked = false;
                                 // Reset the clicked list.
-                                iClickedListMirrored = new Vector(15, 5);
-                                iClickedListDatasetIndicesMirrored = new Vector(15, 5);
+                                iClickedListMirrored = new Vector<>(15, 5);
+                                iClickedListDatasetIndicesMirrored = new Vector<>(15, 5);
                                 repaint();
                             }
                         } else if (e.getButton() == MouseEvent.BUTTON1) {
@@ -1971,53 +1990,12 @@ public abstract class GraphicsPanel extends JPanel {
         double maxInt = 1.0;
 
         for (int j = 0; j < iXAxisData.size(); j++) {
-            for (int i = 0; i < iXAxisData.get(j).length; i++) {
-                double lMass = iXAxisData.get(j)[i];
-                if (lMass < aMinXAxisValue) {
-                    continue;
-                } else if (lMass > aMaxXAxisValue) {
-                    break;
-                } else {
-                    if (iYAxisData.get(j)[i] > maxInt) {
-
-                        boolean annotatedPeak = false;
-
-                        // exclude background peaks?
-                        if (yAxisZoomExcludesBackgroundPeaks) {
-                            annotatedPeak = isPeakAnnotated(iXAxisData.get(j)[i], false);
-                        }
-
-                        if (!yAxisZoomExcludesBackgroundPeaks || (yAxisZoomExcludesBackgroundPeaks && annotatedPeak) || showAllPeaks) {
-                            maxInt = iYAxisData.get(j)[i];
-                        }
-                    }
-                }
-            }
+            maxInt = Math.max(maxInt, getMaxYAxisValue(j, aMinXAxisValue, aMaxXAxisValue, maxInt, false));
         }
 
         if (dataSetCounterMirroredSpectra > 0) {
             for (int j = 0; j < iXAxisDataMirroredSpectrum.size(); j++) {
-                for (int i = 0; i < iXAxisDataMirroredSpectrum.get(j).length; i++) {
-                    double lMass = iXAxisDataMirroredSpectrum.get(j)[i];
-                    if (lMass < aMinXAxisValue) {
-                        continue;
-                    } else if (lMass > aMaxXAxisValue) {
-                        break;
-                    } else {
-                        if (iYAxisDataMirroredSpectrum.get(j)[i] > maxInt) {
-
-                            boolean annotatedPeak = false;
-
-                            // exclude background peaks?
-                            if (yAxisZoomExcludesBackgroundPeaks) {
-                                annotatedPeak = isPeakAnnotated(iXAxisDataMirroredSpectrum.get(j)[i], true);
-                            }
-                            if (!yAxisZoomExcludesBackgroundPeaks || (yAxisZoomExcludesBackgroundPeaks && annotatedPeak) || showAllPeaks) {
-                                maxInt = iYAxisDataMirroredSpectrum.get(j)[i];
-                            }
-                        }
-                    }
-                }
+                maxInt = Math.max(maxInt, getMaxYAxisValue(j, aMinXAxisValue, aMaxXAxisValue, maxInt, true));
             }
         }
 
@@ -2048,6 +2026,50 @@ public abstract class GraphicsPanel extends JPanel {
         }
     }
 
+    /**
+     * Returns the highest y-axis value of the given dataset in the given
+     * x-axis range that can be used to scale the y-axis, or the given default
+     * value if none is higher.
+     *
+     * @param dataSetIndex the index of the dataset
+     * @param aMinXAxisValue the minimum x-axis value
+     * @param aMaxXAxisValue the maximum x-axis value
+     * @param defaultValue the default value
+     * @param mirrored if true the dataset is a mirrored dataset
+     *
+     * @return the highest y-axis value to use to scale the y-axis
+     */
+    private double getMaxYAxisValue(int dataSetIndex, double aMinXAxisValue, double aMaxXAxisValue, double defaultValue, boolean mirrored) {
+
+        double[] xAxisData = !mirrored ? iXAxisData.get(dataSetIndex) : iXAxisDataMirroredSpectrum.get(dataSetIndex);
+        double[] yAxisData = !mirrored ? iYAxisData.get(dataSetIndex) : iYAxisDataMirroredSpectrum.get(dataSetIndex);
+
+        int from = PeakLevelOfDetail.getIndexAbove(xAxisData, aMinXAxisValue);
+        int to = PeakLevelOfDetail.getIndexStrictlyAbove(xAxisData, aMaxXAxisValue);
+
+        double maxInt = defaultValue;
+
+        if (!yAxisZoomExcludesBackgroundPeaks || showAllPeaks) {
+
+            int maxIndex = getLevelOfDetail(dataSetIndex, mirrored).getMaxIndex(from, to);
+
+            if (maxIndex != -1 && yAxisData[maxIndex] > maxInt) {
+                maxInt = yAxisData[maxIndex];
+            }
+
+        } else {
+
+            // exclude background peaks
+            for (int i = from; i < to; i++) {
+                if (yAxisData[i] > maxInt && isPeakAnnotated(xAxisData[i], mirrored)) {
+                    maxInt = yAxisData[i];
+                }
+            }
+        }
+
+        return maxInt;
+    }
+
     /**
      * This method reads the x and y values from the specified arrays and stores
      * these internally for drawing. The x-axis values are sorted in this step.
@@ -3032,60 +3054,26 @@ public abstract class GraphicsPanel extends JPanel {
     protected void annotate(SpectrumAnnotation aSA, Graphics g, HashMap<String, Integer> aAlreadyAnnotated, boolean mirrored) {
 
         double xValue = aSA.getMZ();
-        double error = Math.abs(aSA.getErrorMargin());
 
         // Only do those that fall within the current visual range.
         if (!(xValue < iXAxisMin || xValue > iXAxisMax)) {
 
-            ArrayList<double[]> xAxisData;
             ArrayList<double[]> yAxisData;
 
             if (!mirrored) {
-                xAxisData = iXAxisData;
                 yAxisData = iYAxisData;
             } else {
-                xAxisData = iXAxisDataMirroredSpectrum;
                 yAxisData = iYAxisDataMirroredSpectrum;
             }
 
             // See if any match is to be found.
-            boolean foundMatch = false;
-            int peakIndex = -1;
-            int dataSetIndex = -1;
-            double smallestAbsError = Double.MAX_VALUE;
-
-            for (int j = 0; j < xAxisData.size(); j++) {
-                for (int i = 0; i < xAxisData.get(j).length; i++) {
-                    double delta = xAxisData.get(j)[i] - xValue;
-                    if (Math.abs(delta) <= error) {
-                        if (!foundMatch) {
-                            foundMatch = true;
-                            peakIndex = i;
-                            dataSetIndex = j;
-                            smallestAbsError = Math.abs(delta);
-                        } else {
-                            // we already had one. take the one with the largest intensity or the most accurate
-                            if (annotateHighestPeak) {
-                                if (yAxisData.get(j)[i] > yAxisData.get(dataSetIndex)[peakIndex]) {
-                                    peakIndex = i;
-                                    dataSetIndex = j;
-                                }
-                            } else {
-                                if (Math.abs(delta) < smallestAbsError) {
-                                    peakIndex = i;
-                                    dataSetIndex = j;
-                                }
-                            }
-                        }
-                    } else if (delta > error) {
-                        break;
-                    }
-                }
-            }
+            int[] match = getAnnotationMatch(aSA, mirrored);
 
             // If a match was found and it qualifies against the minimal intensity,
             // we now have a peak index so we can annotate.
-            if (foundMatch && yAxisData.get(dataSetIndex)[peakIndex] > iAnnotationYAxisThreshold) {
+            if (match != null && yAxisData.get(match[0])[match[1]] > iAnnotationYAxisThreshold) {
+                int dataSetIndex = match[0];
+                int peakIndex = match[1];
                 //String label = aSA.getLabel() + " (" + new BigDecimal(mz-iMasses[peakIndex]).setScale(2, BigDecimal.ROUND_HALF_UP).toString() + ")";
                 String label = aSA.getLabel();
                 int spacer = (int) ((yAxisData.get(dataSetIndex)[peakIndex] - iYAxisMin) / iYScaleUnit) / 2; // @TODO: should this be different if mirrored?
@@ -3105,114 +3093,176 @@ public abstract class GraphicsPanel extends JPanel {
     }
 
     /**
-     * This method draws all of the peaks for all datasets in the current x-axis
-     * range on the panel.
+     * Returns the peak matched by the given annotation as an array containing
+     * the index of the dataset and the index of the peak, null if no peak
+     * matches. The matches are kept between repaints as long as the
+     * annotations and the data are not changed.
      *
-     * @param g Graphics object to draw on.
+     * @param aSA the annotation
+     * @param mirrored if true the annotation is for the mirrored spectra
+     *
+     * @return the peak matched by the given annotation
      */
-    protected void drawMirroredPeaks(Graphics g) {
+    private int[] getAnnotationMatch(SpectrumAnnotation aSA, boolean mirrored) {
 
-        // @TODO: should be merged with the drawPeaks method
-        Color originalColor = g.getColor();
+        Vector<SpectrumAnnotation> annotations;
+        ArrayList<double[]> xAxisData;
+        ArrayList<double[]> yAxisData;
+        AnnotationMatches annotationMatches;
 
-        // Init an array that holds pixel coordinates for each peak.
-        iXAxisDataInPixelsMirroredSpectrum = new ArrayList<>();
-        iYAxisDataInPixelsMirroredSpectrum = new ArrayList<>();
+        if (!mirrored) {
+            annotations = iAnnotations;
+            xAxisData = iXAxisData;
+            yAxisData = iYAxisData;
+            annotationMatches = iAnnotationMatches;
+        } else {
+            annotations = iAnnotationsMirroredSpectra;
+            xAxisData = iXAxisDataMirroredSpectrum;
+            yAxisData = iYAxisDataMirroredSpectrum;
+            annotationMatches = iAnnotationMatchesMirroredSpectra;
+        }
 
-        // cycle the datasets
-        for (int j = 0; j < iXAxisDataMirroredSpectrum.size(); j++) {
+        if (annotationMatches == null || !annotationMatches.isFor(annotations, xAxisData, yAxisData, annotateHighestPeak)) {
 
-            // set the color
-            g.setColor(iDataPointAndLineColorMirroredSpectra.get(j));
+            annotationMatches = new AnnotationMatches(annotations, xAxisData, yAxisData, annotateHighestPeak);
 
-            iXAxisDataInPixelsMirroredSpectrum.add(new int[iXAxisDataMirroredSpectrum.get(j).length]);
-            iYAxisDataInPixelsMirroredSpectrum.add(new int[iYAxisDataMirroredSpectrum.get(j).length]);
+            if (!mirrored) {
+                iAnnotationMatches = annotationMatches;
+            } else {
+                iAnnotationMatchesMirroredSpectra = annotationMatches;
+            }
+        }
 
-            // cycle the peaks for the dataset
-            for (int i = 0; i < iXAxisDataMirroredSpectrum.get(j).length; i++) {
+        if (annotationMatches.matches.containsKey(aSA)) {
+            return annotationMatches.matches.get(aSA);
+        }
 
-                double lXAxisValue = iXAxisDataMirroredSpectrum.get(j)[i];
+        double xValue = aSA.getMZ();
+        double error = Math.abs(aSA.getErrorMargin());
 
-                // Only draw those x values within the ('low x value', 'high x value') window.
-                if (lXAxisValue < iXAxisMin) {
-                    continue;
-                } else if (lXAxisValue > iXAxisMax) {
-                    break;
-                } else {
+        int[] match = null;
+        double smallestAbsError = Double.MAX_VALUE;
 
-                    // is the peak annotated?
-                    boolean annotatedPeak = true;
+        for (int j = 0; j < xAxisData.size(); j++) {
 
-                    if (!showAllPeaks) {
-                        annotatedPeak = isPeakAnnotated(lXAxisValue, true);
-                    }
+            double[] xValues = xAxisData.get(j);
+            int end = PeakLevelOfDetail.getIndexStrictlyAbove(xValues, xValue + error);
 
-                    double lYAxisValue = iYAxisDataMirroredSpectrum.get(j)[i];
+            for (int i = PeakLevelOfDetail.getIndexAbove(xValues, xValue - error); i < end; i++) {
 
-                    // Calculate pixel coordinates for x and y values.
-                    // X value first.
-                    double tempDouble = (lXAxisValue - iXAxisMin) / iXScaleUnit;
-                    int temp = (int) tempDouble;
+                double absError = Math.abs(xValues[i] - xValue);
 
-                    if ((tempDouble - temp) >= 0.5) {
-                        temp++;
+                if (match == null) {
+                    match = new int[]{j, i};
+                    smallestAbsError = absError;
+                } else if (annotateHighestPeak) {
+                    // we already had one. take the one with the largest intensity
+                    if (yAxisData.get(j)[i] > yAxisData.get(match[0])[match[1]]) {
+                        match[0] = j;
+                        match[1] = i;
                     }
+                } else if (absError < smallestAbsError) {
+                    // we already had one. take the most accurate
+                    match[0] = j;
+                    match[1] = i;
+                    smallestAbsError = absError;
+                }
+            }
+        }
 
-                    int xAxisPxl = temp + iXPadding;
+        annotationMatches.matches.put(aSA, match);
 
-                    if (annotatedPeak || showAllPeaks) {
-                        iXAxisDataInPixelsMirroredSpectrum.get(j)[i] = xAxisPxl;
-                    }
+        return match;
+    }
+
+    /**
+     * This method draws all of the peaks for all datasets in the current x-axis
+     * range on the panel.
+     *
+     * @param g Graphics object to draw on.
+     */
+    protected void drawMirroredPeaks(Graphics g) {
 
-                    // Now intensity.
-                    tempDouble = (lYAxisValue - iYAxisMin) / iYScaleUnit;
-                    temp = (int) tempDouble;
+        // @TODO: should be merged with the drawPeaks method
+        Color originalColor = g.getColor();
 
-                    if ((tempDouble - temp) >= 0.5) {
-                        temp++;
-                    }
+        // Init an array that holds pixel coordinates for each peak.
+        iXAxisDataInPixelsMirroredSpectrum = getPixelArrays(iXAxisDataInPixelsMirroredSpectrum, iXAxisDataMirroredSpectrum);
+        iYAxisDataInPixelsMirroredSpectrum = getPixelArrays(iYAxisDataInPixelsMirroredSpectrum, iYAxisDataMirroredSpectrum);
 
-                    int xAxisYLocation = (this.getHeight() + currentPadding) / 2;
-                    int yValuePxl = xAxisYLocation + (temp - iXPadding);
+        // set the width of the peaks
+        Graphics2D g2 = (Graphics2D) g;
+        Stroke tempStroke = g2.getStroke();
+        BasicStroke peakStroke = new BasicStroke(peakWidth);
+        BasicStroke backgroundPeakStroke = new BasicStroke(backgroundPeakWidth);
 
-                    if (annotatedPeak || showAllPeaks) {
-                        iYAxisDataInPixelsMirroredSpectrum.get(j)[i] = yValuePxl;
-                    }
+        int xAxisYLocation = (this.getHeight() + currentPadding) / 2;
 
-                    // store the current peak color
-                    Color currentColor = g.getColor();
+        // cycle the datasets
+        for (int j = 0; j < iXAxisDataMirroredSpectrum.size(); j++) {
 
-                    // set the width of the peaks
-                    Graphics2D g2 = (Graphics2D) g;
-                    Stroke tempStroke = g2.getStroke();
+            // set the color
+            Color dataSetColor = iDataPointAndLineColorMirroredSpectra.get(j);
 
-                    // change the peak color if the peak is to be drawn in the background
-                    if (!annotatedPeak && !showAllPeaks) {
-                        g.setColor(peakWaterMarkColor);
-                        BasicStroke stroke = new BasicStroke(backgroundPeakWidth);
-                        g2.setStroke(stroke);
-                    } else {
-                        BasicStroke stroke = new BasicStroke(peakWidth);
-                        g2.setStroke(stroke);
-                    }
+            double[] xAxisData = iXAxisDataMirroredSpectrum.get(j);
+            double[] yAxisData = iYAxisDataMirroredSpectrum.get(j);
+            int[] annotatedIndexes = showAllPeaks ? null : getAnnotatedPeakIndexes(j, true);
 
-                    // draw the peak
-                    if (iCurrentDrawStyle == DrawingStyle.LINES) {
-                        // Draw the line.
-                        g2.draw(new Line2D.Double(xAxisPxl, xAxisYLocation - iXPadding, xAxisPxl, yValuePxl));
-                    } else if (iCurrentDrawStyle == DrawingStyle.DOTS) {
-                        // Draw the dot.
-                        g.fillOval(xAxisPxl - iDotRadius, yValuePxl - iDotRadius, iDotRadius * 2, iDotRadius * 2);
-                    }
+            // cycle the peaks to draw for the dataset
+            for (int i : getPeakIndexesToDraw(j, true)) {
 
-                    // reset the width of lines to the previous width
-                    g2.setStroke(tempStroke);
+                // is the peak annotated?
+                boolean annotatedPeak = showAllPeaks || Arrays.binarySearch(annotatedIndexes, i) >= 0;
 
-                    g.setColor(currentColor);
+                // Calculate pixel coordinates for x and y values.
+                // X value first.
+                double tempDouble = (xAxisData[i] - iXAxisMin) / iXScaleUnit;
+                int temp = (int) tempDouble;
+
+                if ((tempDouble - temp) >= 0.5) {
+                    temp++;
+                }
+
+                int xAxisPxl = temp + iXPadding;
+
+                // Now intensity.
+                tempDouble = (yAxisData[i] - iYAxisMin) / iYScaleUnit;
+                temp = (int) tempDouble;
+
+                if ((tempDouble - temp) >= 0.5) {
+                    temp++;
+                }
+
+                int yValuePxl = xAxisYLocation + (temp - iXPadding);
+
+                if (annotatedPeak) {
+                    iXAxisDataInPixelsMirroredSpectrum.get(j)[i] = xAxisPxl;
+                    iYAxisDataInPixelsMirroredSpectrum.get(j)[i] = yValuePxl;
+                }
+
+                // change the peak color if the peak is to be drawn in the background
+                if (!annotatedPeak) {
+                    g.setColor(peakWaterMarkColor);
+                    g2.setStroke(backgroundPeakStroke);
+                } else {
+                    g.setColor(dataSetColor);
+                    g2.setStroke(peakStroke);
+                }
+
+                // draw the peak
+                if (iCurrentDrawStyle == DrawingStyle.LINES) {
+                    // Draw the line.
+                    g2.draw(new Line2D.Double(xAxisPxl, xAxisYLocation - iXPadding, xAxisPxl, yValuePxl));
+                } else if (iCurrentDrawStyle == DrawingStyle.DOTS) {
+                    // Draw the dot.
+                    g.fillOval(xAxisPxl - iDotRadius, yValuePxl - iDotRadius, iDotRadius * 2, iDotRadius * 2);
                 }
             }
         }
 
+        // reset the width of lines to the previous width
+        g2.setStroke(tempStroke);
+
         // Change the color back to its original setting.
         g.setColor(originalColor);
 
@@ -3229,110 +3279,308 @@ public abstract class GraphicsPanel extends JPanel {
         Color originalColor = g.getColor();
 
         // Init an array that holds pixel coordinates for each peak.
-        iXAxisDataInPixels = new ArrayList<>();
-        iYAxisDataInPixels = new ArrayList<>();
+        iXAxisDataInPixels = getPixelArrays(iXAxisDataInPixels, iXAxisData);
+        iYAxisDataInPixels = getPixelArrays(iYAxisDataInPixels, iYAxisData);
+
+        // set the width of the peaks
+        Graphics2D g2 = (Graphics2D) g;
+        Stroke tempStroke = g2.getStroke();
+        BasicStroke peakStroke = new BasicStroke(peakWidth);
+        BasicStroke backgroundPeakStroke = new BasicStroke(backgroundPeakWidth);
+
+        int xAxisYLocation = this.getHeight();
+
+        if (dataSetCounterMirroredSpectra > 0) {
+            xAxisYLocation = (this.getHeight() + currentPadding) / 2;
+        }
 
         // cycle the datasets
         for (int j = 0; j < iXAxisData.size(); j++) {
 
             // set the color
-            g.setColor(iDataPointAndLineColor.get(j));
+            Color dataSetColor = iDataPointAndLineColor.get(j);
+
+            double[] xAxisData = iXAxisData.get(j);
+            double[] yAxisData = iYAxisData.get(j);
+            int[] annotatedIndexes = showAllPeaks ? null : getAnnotatedPeakIndexes(j, false);
+
+            // cycle the peaks to draw for the dataset
+            for (int i : getPeakIndexesToDraw(j, false)) {
 
-            iXAxisDataInPixels.add(new int[iXAxisData.get(j).length]);
-            iYAxisDataInPixels.add(new int[iYAxisData.get(j).length]);
+                // is the peak annotated?
+                boolean annotatedPeak = showAllPeaks || Arrays.binarySearch(annotatedIndexes, i) >= 0;
 
-            // cycle the peaks for the dataset
-            for (int i = 0; i < iXAxisData.get(j).length; i++) {
+                // Calculate pixel coordinates for x and y values.
+                // X value first.
+                double tempDouble = (xAxisData[i] - iXAxisMin) / iXScaleUnit;
+                int temp = (int) tempDouble;
+
+                if ((tempDouble - temp) >= 0.5) {
+                    temp++;
+                }
+
+                int xAxisPxl = temp + iXPadding;
+
+                // Now intensity.
+                tempDouble = (yAxisData[i] - iYAxisMin) / iYScaleUnit;
+                temp = (int) tempDouble;
+
+                if ((tempDouble - temp) >= 0.5) {
+                    temp++;
+                }
 
-                double lXAxisValue = iXAxisData.get(j)[i];
+                int yValuePxl = xAxisYLocation - (temp + iXPadding);
 
-                // Only draw those x values within the ('low x value', 'high x value') window.
-                if (lXAxisValue < iXAxisMin) {
-                    continue;
-                } else if (lXAxisValue > iXAxisMax) {
-                    break;
+                if (annotatedPeak) {
+                    iXAxisDataInPixels.get(j)[i] = xAxisPxl;
+                    iYAxisDataInPixels.get(j)[i] = yValuePxl;
+                }
+
+                // change the peak color if the peak is to be drawn in the background
+                if (!annotatedPeak) {
+                    g.setColor(peakWaterMarkColor);
+                    g2.setStroke(backgroundPeakStroke);
                 } else {
+                    g.setColor(dataSetColor);
+                    g2.setStroke(peakStroke);
+                }
 
-                    // is the peak annotated?
-                    boolean annotatedPeak = true;
+                // draw the peak
+                if (iCurrentDrawStyle == DrawingStyle.LINES) {
+                    // Draw the line.
+                    g2.draw(new Line2D.Double(xAxisPxl, xAxisYLocation - iXPadding, xAxisPxl, yValuePxl));
+                } else if (iCurrentDrawStyle == DrawingStyle.DOTS) {
+                    // Draw the dot.
+                    g.fillOval(xAxisPxl - iDotRadius, yValuePxl - iDotRadius, iDotRadius * 2, iDotRadius * 2);
+                }
+            }
+        }
 
-                    if (!showAllPeaks) {
-                        annotatedPeak = isPeakAnnotated(lXAxisValue, false);
-                    }
+        // reset the width of lines to the previous width
+        g2.setStroke(tempStroke);
 
-                    double lYAxisValue = iYAxisData.get(j)[i];
+        // Change the color back to its original setting.
+        g.setColor(originalColor);
+    }
 
-                    // Calculate pixel coordinates for x and y values.
-                    // X value first.
-                    double tempDouble = (lXAxisValue - iXAxisMin) / iXScaleUnit;
-                    int temp = (int) tempDouble;
+    /**
+     * Returns the arrays to store the pixel coordinates of the given datasets.
+     * The current arrays are reset and reused if they match the size of the
+     * datasets.
+     *
+     * @param pixelArrays the current pixel arrays, can be null
+     * @param axisData the datasets
+     *
+     * @return the arrays to store the pixel coordinates of the given datasets
+     */
+    private ArrayList<int[]> getPixelArrays(ArrayList<int[]> pixelArrays, ArrayList<double[]> axisData) {
 
-                    if ((tempDouble - temp) >= 0.5) {
-                        temp++;
-                    }
+        boolean reuse = pixelArrays != null && pixelArrays.size() == axisData.size();
 
-                    int xAxisPxl = temp + iXPadding;
+        for (int j = 0; reuse && j < axisData.size(); j++) {
+            reuse = pixelArrays.get(j).length == axisData.get(j).length;
+        }
 
-                    if (annotatedPeak || showAllPeaks) {
-                        iXAxisDataInPixels.get(j)[i] = xAxisPxl;
-                    }
+        if (reuse) {
+            for (int[] pixels : pixelArrays) {
+                Arrays.fill(pixels, 0);
+            }
+            return pixelArrays;
+        }
 
-                    // Now intensity.
-                    tempDouble = (lYAxisValue - iYAxisMin) / iYScaleUnit;
-                    temp = (int) tempDouble;
+        ArrayList<int[]> result = new ArrayList<>(axisData.size());
 
-                    if ((tempDouble - temp) >= 0.5) {
-                        temp++;
-                    }
+        for (double[] data : axisData) {
+            result.add(new int[data.length]);
+        }
 
-                    int xAxisYLocation = this.getHeight();
+        return result;
+    }
 
-                    if (dataSetCounterMirroredSpectra > 0) {
-                        xAxisYLocation = (this.getHeight() + currentPadding) / 2;
-                    }
+    /**
+     * Returns the level of detail of the given dataset, builds it if not
+     * already done or if the dataset changed.
+     *
+     * @param dataSetIndex the index of the dataset
+     * @param mirrored if true returns the level of detail of a mirrored dataset
+     *
+     * @return the level of detail of the given dataset
+     */
+    protected PeakLevelOfDetail getLevelOfDetail(int dataSetIndex, boolean mirrored) {
 
-                    int yValuePxl = xAxisYLocation - (temp + iXPadding);
+        double[] xAxisData, yAxisData;
+        ArrayList<PeakLevelOfDetail> levelsOfDetail;
 
-                    if (annotatedPeak || showAllPeaks) {
-                        iYAxisDataInPixels.get(j)[i] = yValuePxl;
-                    }
+        if (!mirrored) {
+            xAxisData = iXAxisData.get(dataSetIndex);
+            yAxisData = iYAxisData.get(dataSetIndex);
+            levelsOfDetail = iLevelsOfDetail;
+        } else {
+            xAxisData = iXAxisDataMirroredSpectrum.get(dataSetIndex);
+            yAxisData = iYAxisDataMirroredSpectrum.get(dataSetIndex);
+            levelsOfDetail = iLevelsOfDetailMirroredSpectra;
+        }
 
-                    // store the current peak color
-                    Color currentColor = g.getColor();
+        while (levelsOfDetail.size() <= dataSetIndex) {
+            levelsOfDetail.add(null);
+        }
 
-                    // set the width of the peaks
-                    Graphics2D g2 = (Graphics2D) g;
-                    Stroke tempStroke = g2.getStroke();
+        PeakLevelOfDetail levelOfDetail = levelsOfDetail.get(dataSetIndex);
 
-                    // change the peak color if the peak is to be drawn in the background
-                    if (!annotatedPeak && !showAllPeaks) {
-                        g.setColor(peakWaterMarkColor);
-                        BasicStroke stroke = new BasicStroke(backgroundPeakWidth);
-                        g2.setStroke(stroke);
-                    } else {
-                        BasicStroke stroke = new BasicStroke(peakWidth);
-                        g2.setStroke(stroke);
-                    }
+        if (levelOfDetail == null || !levelOfDetail.isFor(xAxisData, yAxisData)) {
+            levelOfDetail = new PeakLevelOfDetail(xAxisData, yAxisData);
+            levelsOfDetail.set(dataSetIndex, levelOfDetail);
+        }
 
-                    // draw the peak
-                    if (iCurrentDrawStyle == DrawingStyle.LINES) {
-                        // Draw the line.
-                        g2.draw(new Line2D.Double(xAxisPxl, xAxisYLocation - iXPadding, xAxisPxl, yValuePxl));
-                    } else if (iCurrentDrawStyle == DrawingStyle.DOTS) {
-                        // Draw the dot.
-                        g.fillOval(xAxisPxl - iDotRadius, yValuePxl - iDotRadius, iDotRadius * 2, iDotRadius * 2);
-                    }
+        return levelOfDetail;
+    }
 
-                    // reset the width of lines to the previous width
-                    g2.setStroke(tempStroke);
+    /**
+     * Returns the indexes of the peaks of the given dataset to draw in the
+     * current x-axis range in ascending order. When the peaks are dense
+     * compared to the width of the panel, only the lowest and highest peak per
+     * pixel column are returned, together with the annotated, highlighted and
+     * clicked peaks.
+     *
+     * @param dataSetIndex the index of the dataset
+     * @param mirrored if true returns the peaks of a mirrored dataset
+     *
+     * @return the indexes of the peaks to draw in ascending order
+     */
+    protected int[] getPeakIndexesToDraw(int dataSetIndex, boolean mirrored) {
 
-                    g.setColor(currentColor);
-                }
+        double[] xAxisData = !mirrored ? iXAxisData.get(dataSetIndex) : iXAxisDataMirroredSpectrum.get(dataSetIndex);
+        int[] indexes = getLevelOfDetail(dataSetIndex, mirrored).getIndexesToDraw(iXAxisMin, iXAxisMax, iXScaleUnit);
+
+        int nVisible = PeakLevelOfDetail.getIndexStrictlyAbove(xAxisData, iXAxisMax) - PeakLevelOfDetail.getIndexAbove(xAxisData, iXAxisMin);
+
+        if (indexes.length == nVisible) {
+            return indexes;
+        }
+
+        // make sure that the peaks referenced by annotations and selections are drawn
+        TreeSet<Integer> selectedIndexes = new TreeSet<>();
+
+        for (int index : getAnnotatedPeakIndexes(dataSetIndex, mirrored)) {
+            selectedIndexes.add(index);
+        }
+
+        if (!mirrored) {
+            addSelectedIndex(selectedIndexes, dataSetIndex, iHighLightIndex, iHighLightDatasetIndex);
+            addSelectedIndex(selectedIndexes, dataSetIndex, iClickedIndex, iClickedDataSetIndex);
+            addSelectedIndexes(selectedIndexes, dataSetIndex, iClickedList, iClickedListDatasetIndices);
+            addSelectedIndexes(selectedIndexes, dataSetIndex, iStoredSequence, iStoredSequenceDatasetIndices);
+        } else {
+            addSelectedIndex(selectedIndexes, dataSetIndex, iHighLightIndexMirrored, iHighLightDatasetIndexMirrored);
+            addSelectedIndex(selectedIndexes, dataSetIndex, iClickedIndexMirrored, iClickedDataSetIndexMirrored);
+            addSelectedIndexes(selectedIndexes, dataSetIndex, iClickedListMirrored, iClickedListDatasetIndicesMirrored);
+            addSelectedIndexes(selectedIndexes, dataSetIndex, iStoredSequenceMirrored, iStoredSequenceDatasetIndicesMirrored);
+        }
+
+        for (Iterator<Integer> it = selectedIndexes.iterator(); it.hasNext();) {
+            int index = it.next();
+            if (index >= xAxisData.length || xAxisData[index] < iXAxisMin || xAxisData[index] > iXAxisMax
+                    || Arrays.binarySearch(indexes, index) >= 0) {
+                it.remove();
             }
         }
 
-        // Change the color back to its original setting.
-        g.setColor(originalColor);
+        if (selectedIndexes.isEmpty()) {
+            return indexes;
+        }
+
+        int[] result = Arrays.copyOf(indexes, indexes.length + selectedIndexes.size());
+        int i = indexes.length;
+
+        for (int index : selectedIndexes) {
+            result[i++] = index;
+        }
+
+        Arrays.sort(result);
+
+        return result;
+    }
+
+    /**
+     * Adds the given peak index to the set if it belongs to the given dataset.
+     *
+     * @param selectedIndexes the set of selected indexes
+     * @param dataSetIndex the index of the dataset
+     * @param index the index of the peak
+     * @param indexDataSetIndex the index of the dataset of the peak
+     */
+    private void addSelectedIndex(TreeSet<Integer> selectedIndexes, int dataSetIndex, int index, int indexDataSetIndex) {
+        if (indexDataSetIndex == dataSetIndex && index >= 0) {
+            selectedIndexes.add(index);
+        }
+    }
+
+    /**
+     * Adds the given peak indexes to the set if they belong to the given
+     * dataset.
+     *
+     * @param selectedIndexes the set of selected indexes
+     * @param dataSetIndex the index of the dataset
+     * @param indexes vector of the indexes of the peaks
+     * @param indexesDataSetIndexes vector of the indexes of the datasets of the
+     * peaks
+     */
+    private void addSelectedIndexes(TreeSet<Integer> selectedIndexes, int dataSetIndex, Vector<Integer> indexes, Vector<Integer> indexesDataSetIndexes) {
+        if (indexes != null && indexesDataSetIndexes != null) {
+            for (int i = 0; i < indexes.size() && i < indexesDataSetIndexes.size(); i++) {
+                addSelectedIndex(selectedIndexes, dataSetIndex, indexes.get(i), indexesDataSetIndexes.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the indexes of the peaks of the given dataset that are within
+     * the error margin of at least one annotation, in ascending order.
+     *
+     * @param dataSetIndex the index of the dataset
+     * @param mirrored if true checks for the mirrored peaks, false checks the
+     * normal peaks
+     *
+     * @return the indexes of the annotated peaks in ascending order
+     */
+    private int[] getAnnotatedPeakIndexes(int dataSetIndex, boolean mirrored) {
+
+        Vector<SpectrumAnnotation> annotations;
+        double[] xAxisData;
+
+        if (!mirrored) {
+            annotations = iAnnotations;
+            xAxisData = iXAxisData.get(dataSetIndex);
+        } else {
+            annotations = iAnnotationsMirroredSpectra;
+            xAxisData = iXAxisDataMirroredSpectrum.get(dataSetIndex);
+        }
+
+        if (annotations == null || annotations.isEmpty()) {
+            return new int[0];
+        }
+
+        TreeSet<Integer> annotatedIndexes = new TreeSet<>();
+
+        for (SpectrumAnnotation sa : annotations) {
+
+            double xValue = sa.getMZ();
+            double error = Math.abs(sa.getErrorMargin());
+            int end = PeakLevelOfDetail.getIndexStrictlyAbove(xAxisData, xValue + error);
+
+            for (int i = PeakLevelOfDetail.getIndexAbove(xAxisData, xValue - error); i < end; i++) {
+                annotatedIndexes.add(i);
+            }
+        }
+
+        int[] result = new int[annotatedIndexes.size()];
+        int i = 0;
+
+        for (int index : annotatedIndexes) {
+            result[i++] = index;
+        }
+
+        return result;
     }
 
     /**
@@ -3351,56 +3599,44 @@ public abstract class GraphicsPanel extends JPanel {
         Composite originalComposite = g2d.getComposite();
 
         // init an array that holds pixel coordinates for each point.
-        iXAxisDataInPixels = new ArrayList<>();
-        iYAxisDataInPixels = new ArrayList<>();
+        iXAxisDataInPixels = getPixelArrays(iXAxisDataInPixels, iXAxisData);
+        iYAxisDataInPixels = getPixelArrays(iYAxisDataInPixels, iYAxisData);
 
         // cycle the datasets
         for (int j = 0; j < iXAxisData.size(); j++) {
 
-            iXAxisDataInPixels.add(new int[iXAxisData.get(j).length]);
-            iYAxisDataInPixels.add(new int[iYAxisData.get(j).length]);
-
             // These arrays only contain the visible points.
             ArrayList<Integer> xAxisPointsShown = new ArrayList<>();
             ArrayList<Integer> yAxisPointsShown = new ArrayList<>();
 
-            // cycle the datapoints
-            for (int i = 0; i < iXAxisData.get(j).length; i++) {
+            // cycle the datapoints to draw
+            for (int i : getPeakIndexesToDraw(j, false)) {
 
                 double xMeasurement = iXAxisData.get(j)[i];
-
-                // Only draw those x-axis measurements within the ('low x', 'high x') window.
-                if (xMeasurement < iXAxisMin) {
-                    continue;
-                } else if (xMeasurement > iXAxisMax) {
-                    break;
-                } else {
-                    // See if we need to initialize the start index.
-                    double yMeasurement = iYAxisData.get(j)[i];
-
-                    // Calculate pixel coordinates for X and Y.
-                    // X first.
-                    double tempDouble = (xMeasurement - iXAxisMin) / iXScaleUnit;
-                    int temp = (int) tempDouble;
-                    if ((tempDouble - temp) >= 0.5) {
-                        temp++;
-                    }
-                    int xAxisPxl = temp + iXPadding;
-                    iXAxisDataInPixels.get(j)[i] = xAxisPxl;
-
-                    // Now intensity.
-                    tempDouble = (yMeasurement - iYAxisMin) / iYScaleUnit;
-                    temp = (int) tempDouble;
-                    if ((tempDouble - temp) >= 0.5) {
-                        temp++;
-                    }
-                    int yAxisPxl = this.getHeight() - (temp + iXPadding);
-                    iYAxisDataInPixels.get(j)[i] = yAxisPxl;
-
-                    // Add to the list of points shwon.
-                    xAxisPointsShown.add(xAxisPxl);
-                    yAxisPointsShown.add(yAxisPxl);
+                double yMeasurement = iYAxisData.get(j)[i];
+
+                // Calculate pixel coordinates for X and Y.
+                // X first.
+                double tempDouble = (xMeasurement - iXAxisMin) / iXScaleUnit;
+                int temp = (int) tempDouble;
+                if ((tempDouble - temp) >= 0.5) {
+                    temp++;
+                }
+                int xAxisPxl = temp + iXPadding;
+                iXAxisDataInPixels.get(j)[i] = xAxisPxl;
+
+                // Now intensity.
+                tempDouble = (yMeasurement - iYAxisMin) / iYScaleUnit;
+                temp = (int) tempDouble;
+                if ((tempDouble - temp) >= 0.5) {
+                    temp++;
                 }
+                int yAxisPxl = this.getHeight() - (temp + iXPadding);
+                iYAxisDataInPixels.get(j)[i] = yAxisPxl;
+
+                // Add to the list of points shwon.
+                xAxisPointsShown.add(xAxisPxl);
+                yAxisPointsShown.add(yAxisPxl);
             }
 
             // check if there are any data points to draw
@@ -3538,7 +3774,7 @@ public abstract class GraphicsPanel extends JPanel {
      */
     private boolean isPeakAnnotated(double xAxisValue, boolean mirrored) {
 
-        Vector annotations;
+        Vector<SpectrumAnnotation> annotations;
 
         if (!mirrored) {
             annotations = iAnnotations;
@@ -3565,4 +3801,84 @@ public abstract class GraphicsPanel extends JPanel {
 
         return annotatedPeak;
     }
+
+    /**
+     * The peaks matched by a set of annotations, valid for given annotations
+     * and data.
+     */
+    private static class AnnotationMatches {
+
+        /**
+         * The annotations.
+         */
+        private final Vector<SpectrumAnnotation> annotations;
+        /**
+         * The number of annotations.
+         */
+        private final int nAnnotations;
+        /**
+         * The x-axis data.
+         */
+        private final double[][] xAxisData;
+        /**
+         * The y-axis data.
+         */
+        private final double[][] yAxisData;
+        /**
+         * Indicates whether the highest peak was annotated.
+         */
+        private final boolean annotateHighestPeak;
+        /**
+         * The index of the dataset and of the peak matched by every
+         * annotation, null if no peak matches.
+         */
+        private final IdentityHashMap<SpectrumAnnotation, int[]> matches = new IdentityHashMap<>();
+
+        /**
+         * Constructor.
+         *
+         * @param annotations the annotations
+         * @param xAxisData the x-axis data
+         * @param yAxisData the y-axis data
+         * @param annotateHighestPeak indicates whether the highest peak is
+         * annotated
+         */
+        private AnnotationMatches(Vector<SpectrumAnnotation> annotations, ArrayList<double[]> xAxisData, ArrayList<double[]> yAxisData, boolean annotateHighestPeak) {
+            this.annotations = annotations;
+            this.nAnnotations = annotations.size();
+            this.xAxisData = xAxisData.toArray(new double[xAxisData.size()][]);
+            this.yAxisData = yAxisData.toArray(new double[yAxisData.size()][]);
+            this.annotateHighestPeak = annotateHighestPeak;
+        }
+
+        /**
+         * Indicates whether these matches were computed for the given
+         * annotations and data.
+         *
+         * @param annotations the annotations
+         * @param xAxisData the x-axis data
+         * @param yAxisData the y-axis data
+         * @param annotateHighestPeak indicates whether the highest peak is
+         * annotated
+         *
+         * @return a boolean indicating whether these matches were computed
+         * for the given annotations and data
+         */
+        private boolean isFor(Vector<SpectrumAnnotation> annotations, ArrayList<double[]> xAxisData, ArrayList<double[]> yAxisData, boolean annotateHighestPeak) {
+
+            if (annotations != this.annotations || annotations.size() != nAnnotations
+                    || annotateHighestPeak != this.annotateHighestPeak
+                    || xAxisData.size() != this.xAxisData.length || yAxisData.size() != this.yAxisData.length) {
+                return false;
+            }
+
+            for (int j = 0; j < this.xAxisData.length; j++) {
+                if (xAxisData.get(j) != this.xAxisData[j] || yAxisData.get(j) != this.yAxisData[j]) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
 }
@@ -0,0 +1,396 @@
+package com.compomics.util.gui.spectrum;
+
+import java.util.Arrays;
+
+/**
+ * Level of detail representation of a dataset of a GraphicsPanel. The points,
+ * sorted by ascending x value, are aggregated in buckets of increasing size at
+ * multiple levels, every bucket storing the index of the point with the lowest
+ * and highest y value. When zoomed out, only the lowest and highest point per
+ * pixel column are drawn, and the points in the visible range are found using
+ * binary search.
+ *
+ * @author Marc Vaudel
+ */
+public class PeakLevelOfDetail {
+
+    /**
+     * The number of buckets of a level aggregated in a bucket of the next
+     * level.
+     */
+    public static final int BUCKET_FACTOR = 4;
+    /**
+     * The number of bits corresponding to the bucket factor.
+     */
+    private static final int BUCKET_FACTOR_BITS = 2;
+    /**
+     * The minimal average number of points per pixel column for the level of
+     * detail to be used. Below this number all visible points are drawn.
+     */
+    public static final int MIN_POINTS_PER_PIXEL = 16;
+    /**
+     * The x values.
+     */
+    private final double[] xValues;
+    /**
+     * The y values.
+     */
+    private final double[] yValues;
+    /**
+     * The index of the point with the lowest y value for every bucket of
+     * every level. Level 0 corresponds to buckets of size BUCKET_FACTOR.
+     */
+    private final int[][] minIndexes;
+    /**
+     * The index of the point with the highest y value for every bucket of
+     * every level. Level 0 corresponds to buckets of size BUCKET_FACTOR.
+     */
+    private final int[][] maxIndexes;
+
+    /**
+     * Constructor.
+     *
+     * @param xValues the x values sorted in ascending order
+     * @param yValues the y values
+     */
+    public PeakLevelOfDetail(
+            double[] xValues,
+            double[] yValues
+    ) {
+
+        this.xValues = xValues;
+        this.yValues = yValues;
+
+        int nLevels = 0;
+
+        for (int nBuckets = xValues.length >> BUCKET_FACTOR_BITS; nBuckets > 0; nBuckets >>= BUCKET_FACTOR_BITS) {
+            nLevels++;
+        }
+
+        minIndexes = new int[nLevels][];
+        maxIndexes = new int[nLevels][];
+
+        for (int level = 0; level < nLevels; level++) {
+
+            int nBuckets = xValues.length >> (BUCKET_FACTOR_BITS * (level + 1));
+            int[] levelMin = new int[nBuckets];
+            int[] levelMax = new int[nBuckets];
+
+            for (int bucket = 0; bucket < nBuckets; bucket++) {
+
+                int minIndex = -1;
+                int maxIndex = -1;
+
+                for (int child = bucket * BUCKET_FACTOR; child < (bucket + 1) * BUCKET_FACTOR; child++) {
+
+                    int childMin = level == 0 ? child : minIndexes[level - 1][child];
+                    int childMax = level == 0 ? child : maxIndexes[level - 1][child];
+
+                    if (minIndex == -1 || yValues[childMin] < yValues[minIndex]) {
+                        minIndex = childMin;
+                    }
+
+                    if (maxIndex == -1 || yValues[childMax] > yValues[maxIndex]) {
+                        maxIndex = childMax;
+                    }
+                }
+
+                levelMin[bucket] = minIndex;
+                levelMax[bucket] = maxIndex;
+
+            }
+
+            minIndexes[level] = levelMin;
+            maxIndexes[level] = levelMax;
+
+        }
+    }
+
+    /**
+     * Indicates whether this level of detail was built for the given arrays.
+     *
+     * @param xValues the x values
+     * @param yValues the y values
+     *
+     * @return a boolean indicating whether this level of detail was built for
+     * the given arrays
+     */
+    public boolean isFor(
+            double[] xValues,
+            double[] yValues
+    ) {
+        return this.xValues == xValues && this.yValues == yValues;
+    }
+
+    /**
+     * Returns the index of the first value greater than or equal to the given
+     * value in a sorted array, the length of the array if none.
+     *
+     * @param values the values sorted in ascending order
+     * @param value the value
+     *
+     * @return the index of the first value greater than or equal to the given
+     * value
+     */
+    public static int getIndexAbove(
+            double[] values,
+            double value
+    ) {
+
+        int low = 0;
+        int high = values.length;
+
+        while (low < high) {
+
+            int middle = (low + high) >>> 1;
+
+            if (values[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+
+    }
+
+    /**
+     * Returns the index of the first value strictly greater than the given
+     * value in a sorted array, the length of the array if none.
+     *
+     * @param values the values sorted in ascending order
+     * @param value the value
+     *
+     * @return the index of the first value strictly greater than the given
+     * value
+     */
+    public static int getIndexStrictlyAbove(
+            double[] values,
+            double value
+    ) {
+
+        int low = 0;
+        int high = values.length;
+
+        while (low < high) {
+
+            int middle = (low + high) >>> 1;
+
+            if (values[middle] <= value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+
+    }
+
+    /**
+     * Returns the largest level whose buckets are aligned on the given index
+     * and fit before the given end, -1 if none.
+     *
+     * @param index the index
+     * @param end the end index, exclusive
+     * @param maxLevel the maximal level to return
+     *
+     * @return the largest level whose buckets are aligned on the given index
+     * and fit before the given end
+     */
+    private int getAlignedLevel(
+            int index,
+            int end,
+            int maxLevel
+    ) {
+
+        int level = -1;
+
+        while (level < maxLevel) {
+
+            int bucketSize = 1 << (BUCKET_FACTOR_BITS * (level + 2));
+
+            if ((index & (bucketSize - 1)) != 0 || index + bucketSize > end) {
+                break;
+            }
+
+            level++;
+
+        }
+
+        return level;
+
+    }
+
+    /**
+     * Returns the index of the point with the highest y value in the given
+     * index range, -1 if the range is empty.
+     *
+     * @param from the first index, inclusive
+     * @param to the last index, exclusive
+     *
+     * @return the index of the point with the highest y value
+     */
+    public int getMaxIndex(
+            int from,
+            int to
+    ) {
+
+        int result = -1;
+        int index = from;
+
+        while (index < to) {
+
+            int level = getAlignedLevel(index, to, minIndexes.length - 1);
+            int candidate;
+
+            if (level == -1) {
+
+                candidate = index;
+                index++;
+
+            } else {
+
+                int shift = BUCKET_FACTOR_BITS * (level + 1);
+                candidate = maxIndexes[level][index >> shift];
+                index += 1 << shift;
+
+            }
+
+            if (result == -1 || yValues[candidate] > yValues[result]) {
+                result = candidate;
+            }
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns the indexes of the points to draw for the given x-axis range.
+     * If the visible points are few compared to the number of pixels, all
+     * visible points are returned. Otherwise the indexes of the points with the
+     * lowest and highest y values in every pixel column are returned in
+     * ascending order.
+     *
+     * @param xMin the minimal x value displayed
+     * @param xMax the maximal x value displayed
+     * @param xScaleUnit the x-axis range covered by a pixel
+     *
+     * @return the indexes of the points to draw in ascending order
+     */
+    public int[] getIndexesToDraw(
+            double xMin,
+            double xMax,
+            double xScaleUnit
+    ) {
+
+        int from = getIndexAbove(xValues, xMin);
+        int to = getIndexStrictlyAbove(xValues, xMax);
+        int nVisible = to - from;
+
+        if (nVisible <= 0) {
+            return new int[0];
+        }
+
+        int nPixels = xScaleUnit > 0 ? (int) ((xMax - xMin) / xScaleUnit) + 1 : 1;
+
+        // select the largest level with in average at least BUCKET_FACTOR buckets per pixel
+        int maxLevel = -1;
+
+        while (maxLevel + 1 < minIndexes.length
+                && ((long) nPixels * BUCKET_FACTOR) << (BUCKET_FACTOR_BITS * (maxLevel + 2)) <= nVisible) {
+            maxLevel++;
+        }
+
+        if (maxLevel == -1 || nVisible < nPixels * MIN_POINTS_PER_PIXEL) {
+
+            int[] result = new int[nVisible];
+
+            for (int i = 0; i < nVisible; i++) {
+                result[i] = from + i;
+            }
+
+            return result;
+
+        }
+
+        int[] pixelMin = new int[nPixels];
+        int[] pixelMax = new int[nPixels];
+        Arrays.fill(pixelMin, -1);
+        Arrays.fill(pixelMax, -1);
+
+        int index = from;
+
+        while (index < to) {
+
+            int level = getAlignedLevel(index, to, maxLevel);
+            int minIndex, maxIndex;
+
+            if (level == -1) {
+
+                minIndex = index;
+                maxIndex = index;
+                index++;
+
+            } else {
+
+                int shift = BUCKET_FACTOR_BITS * (level + 1);
+                int bucket = index >> shift;
+                minIndex = minIndexes[level][bucket];
+                maxIndex = maxIndexes[level][bucket];
+                index += 1 << shift;
+
+            }
+
+            int pixel = (int) ((xValues[minIndex] - xMin) / xScaleUnit + 0.5);
+            pixel = Math.max(0, Math.min(pixel, nPixels - 1));
+
+            if (pixelMin[pixel] == -1 || yValues[minIndex] < yValues[pixelMin[pixel]]) {
+                pixelMin[pixel] = minIndex;
+            }
+
+            pixel = (int) ((xValues[maxIndex] - xMin) / xScaleUnit + 0.5);
+            pixel = Math.max(0, Math.min(pixel, nPixels - 1));
+
+            if (pixelMax[pixel] == -1 || yValues[maxIndex] > yValues[pixelMax[pixel]]) {
+                pixelMax[pixel] = maxIndex;
+            }
+        }
+
+        int[] result = new int[2 * nPixels];
+        int nResult = 0;
+
+        for (int pixel = 0; pixel < nPixels; pixel++) {
+
+            int minIndex = pixelMin[pixel];
+            int maxIndex = pixelMax[pixel];
+
+            if (minIndex == -1 && maxIndex == -1) {
+
+                continue;
+
+            } else if (minIndex == -1 || minIndex == maxIndex) {
+
+                result[nResult++] = maxIndex;
+
+            } else if (maxIndex == -1) {
+
+                result[nResult++] = minIndex;
+
+            } else {
+
+                result[nResult++] = Math.min(minIndex, maxIndex);
+                result[nResult++] = Math.max(minIndex, maxIndex);
+
+            }
+        }
+
+        // the min and max of neighboring pixels can be out of order
+        Arrays.sort(result, 0, nResult);
+
+        return Arrays.copyOf(result, nResult);
+
+    }
+}
@@ -0,0 +1,235 @@
+package com.compomics.util.gui.tablemodels;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Sorts the rows of a table according to the values of a column. Numeric
+ * columns are sorted as primitive doubles, other columns as comparables, or
+ * as strings if the values cannot be compared. The sorting of the distinct
+ * values is done in parallel, the rows are then ordered by counting sort,
+ * keeping rows with the same value in their original order. Null values are
+ * sorted first.
+ *
+ * @author Marc Vaudel
+ */
+public class ColumnSorter {
+
+    /**
+     * Empty default constructor.
+     */
+    private ColumnSorter() {
+    }
+
+    /**
+     * Returns the rows sorted by ascending value.
+     *
+     * @param values the values of the column, indexed by row
+     *
+     * @return the rows sorted by ascending value
+     */
+    public static int[] getSortedRows(Object[] values) {
+
+        return sortByRank(getRanks(values));
+
+    }
+
+    /**
+     * Returns the rank of the value of every row among the distinct values of
+     * the column, null values having rank 0.
+     *
+     * @param values the values of the column, indexed by row
+     *
+     * @return the ranks of the values
+     */
+    private static int[] getRanks(Object[] values) {
+
+        boolean numeric = true;
+        boolean sameClass = true;
+        Class<?> valueClass = null;
+        int nValues = 0;
+
+        for (Object value : values) {
+
+            if (value != null) {
+
+                nValues++;
+
+                if (!(value instanceof Number)) {
+                    numeric = false;
+                }
+
+                if (valueClass == null) {
+
+                    valueClass = value.getClass();
+
+                } else if (value.getClass() != valueClass) {
+
+                    sameClass = false;
+
+                }
+            }
+        }
+
+        int[] ranks = new int[values.length];
+
+        if (nValues == 0) {
+            return ranks;
+        }
+
+        if (numeric) {
+
+            double[] keys = new double[values.length];
+
+            for (int row = 0; row < values.length; row++) {
+
+                if (values[row] != null) {
+                    keys[row] = ((Number) values[row]).doubleValue();
+                }
+            }
+
+            double[] sortedKeys = new double[nValues];
+            int k = 0;
+
+            for (int row = 0; row < values.length; row++) {
+
+                if (values[row] != null) {
+                    sortedKeys[k++] = keys[row];
+                }
+            }
+
+            Arrays.parallelSort(sortedKeys);
+            double[] distinctKeys = getDistinct(sortedKeys);
+
+            Arrays.parallelSetAll(ranks, row -> values[row] == null ? 0 : Arrays.binarySearch(distinctKeys, keys[row]) + 1);
+
+        } else {
+
+            boolean comparable = sameClass && Comparable.class.isAssignableFrom(valueClass);
+            Comparator<Object> comparator = getNaturalOrder();
+            Object[] keys = new Object[values.length];
+
+            for (int row = 0; row < values.length; row++) {
+
+                Object value = values[row];
+
+                if (value != null) {
+                    keys[row] = comparable ? value : value.toString();
+                }
+            }
+
+            Object[] sortedKeys = new Object[nValues];
+            int k = 0;
+
+            for (Object key : keys) {
+
+                if (key != null) {
+                    sortedKeys[k++] = key;
+                }
+            }
+
+            Arrays.parallelSort(sortedKeys, comparator);
+            Object[] distinctKeys = getDistinct(sortedKeys, comparator);
+
+            Arrays.parallelSetAll(ranks, row -> keys[row] == null ? 0 : Arrays.binarySearch(distinctKeys, keys[row], comparator) + 1);
+
+        }
+
+        return ranks;
+
+    }
+
+    /**
+     * Returns the distinct values of a sorted array.
+     *
+     * @param sortedKeys the sorted keys
+     *
+     * @return the distinct keys
+     */
+    private static double[] getDistinct(double[] sortedKeys) {
+
+        int nDistinct = 0;
+
+        for (int i = 0; i < sortedKeys.length; i++) {
+
+            if (i == 0 || Double.compare(sortedKeys[i], sortedKeys[nDistinct - 1]) != 0) {
+                sortedKeys[nDistinct++] = sortedKeys[i];
+            }
+        }
+
+        return Arrays.copyOf(sortedKeys, nDistinct);
+
+    }
+
+    /**
+     * Returns the distinct values of a sorted array.
+     *
+     * @param sortedKeys the sorted keys
+     * @param comparator the comparator used to sort the keys
+     *
+     * @return the distinct keys
+     */
+    private static Object[] getDistinct(Object[] sortedKeys, Comparator<Object> comparator) {
+
+        int nDistinct = 0;
+
+        for (int i = 0; i < sortedKeys.length; i++) {
+
+            if (i == 0 || comparator.compare(sortedKeys[i], sortedKeys[nDistinct - 1]) != 0) {
+                sortedKeys[nDistinct++] = sortedKeys[i];
+            }
+        }
+
+        return Arrays.copyOf(sortedKeys, nDistinct);
+
+    }
+
+    /**
+     * Returns the natural order comparator as a comparator of objects. The
+     * keys compared are either strings or values of a single class
+     * implementing Comparable.
+     *
+     * @return the natural order comparator
+     */
+    @SuppressWarnings("unchecked")
+    private static Comparator<Object> getNaturalOrder() {
+
+        return (Comparator<Object>) (Comparator<?>) Comparator.naturalOrder();
+
+    }
+
+    /**
+     * Returns the rows sorted by ascending rank using counting sort.
+     *
+     * @param ranks the ranks of the rows
+     *
+     * @return the rows sorted by ascending rank
+     */
+    private static int[] sortByRank(int[] ranks) {
+
+        int maxRank = 0;
+
+        for (int rank : ranks) {
+            maxRank = Math.max(maxRank, rank);
+        }
+
+        int[] offsets = new int[maxRank + 2];
+
+        for (int rank : ranks) {
+            offsets[rank + 1]++;
+        }
+
+        for (int rank = 0; rank <= maxRank; rank++) {
+            offsets[rank + 1] += offsets[rank];
+        }
+
+        int[] sortedRows = new int[ranks.length];
+
+        for (int row = 0; row < ranks.length; row++) {
+            sortedRows[offsets[ranks[row]]++] = row;
+        }
+
+        return sortedRows;
+
+    }
+}
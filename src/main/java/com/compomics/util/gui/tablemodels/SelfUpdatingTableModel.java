@@ -9,10 +9,12 @@ import java.awt.Component;
 import java.awt.event.AdjustmentListener;
 import java.awt.event.MouseEvent;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
 import javax.swing.Icon;
 import javax.swing.JLabel;
@@ -22,6 +24,7 @@ import javax.swing.JTable;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.JTableHeader;
 import javax.swing.table.TableCellRenderer;
@@ -48,6 +51,10 @@ public abstract class SelfUpdatingTableModel extends DefaultTableModel {
      * The number of rows loaded at a time.
      */
     private static final int BATCH_SIZE = 100;
+    /**
+     * The number of rows loaded at a time by every thread when sorting.
+     */
+    private static final int SORTING_BATCH_SIZE = 1000;
     /**
      * Executor for the loading threads.
      */
@@ -69,9 +76,23 @@ public abstract class SelfUpdatingTableModel extends DefaultTableModel {
      */
     private LoadingRunnable lastLoadingRunnable = null;
     /**
-     * List of view indexes.
+     * The view index of every row.
+     */
+    private int[] viewIndexes = null;
+    /**
+     * The row of every view index.
+     */
+    private int[] rowNumbers = null;
+    /**
+     * The rows sorted by ascending value of the columns already sorted,
+     * indexed by column.
+     */
+    private final HashMap<Integer, int[]> sortedRowsCache = new HashMap<>();
+    /**
+     * The number of times the sorting cache was cleared, used to discard the
+     * sorted rows of a sorting started before the data changed.
      */
-    private ArrayList<Integer> viewIndexes = null;
+    private int sortingCacheVersion = 0;
     /**
      * Indicates which column was last changed.
      */
@@ -157,7 +178,7 @@ public abstract class SelfUpdatingTableModel extends DefaultTableModel {
                     
                     if (selfUpdating) {
                         
-                        fireTableDataChanged();
+                        fireTableContentChanged();
                         
                     }
                 } catch (Exception e) {
@@ -213,10 +234,83 @@ public abstract class SelfUpdatingTableModel extends DefaultTableModel {
      */
     public void initiateSorter() {
         int nRows = getRowCount();
-        viewIndexes = new ArrayList<>(nRows);
+        int[] newViewIndexes = new int[nRows];
+        for (int row = 0; row < nRows; row++) {
+            newViewIndexes[row] = row;
+        }
+        setViewIndexes(newViewIndexes);
+    }
+
+    /**
+     * Sets the view indexes and updates the row numbers accordingly.
+     *
+     * @param newViewIndexes the view index of every row
+     */
+    private void setViewIndexes(int[] newViewIndexes) {
+        int[] newRowNumbers = new int[newViewIndexes.length];
+        for (int row = 0; row < newViewIndexes.length; row++) {
+            newRowNumbers[newViewIndexes[row]] = row;
+        }
+        rowNumbers = newRowNumbers;
+        viewIndexes = newViewIndexes;
+    }
+
+    /**
+     * Reverses the order of the rows.
+     */
+    private void reverseViewIndexes() {
+        int nRows = viewIndexes.length;
+        int[] newViewIndexes = new int[nRows];
         for (int row = 0; row < nRows; row++) {
-            viewIndexes.add(row);
+            newViewIndexes[row] = viewIndexes[nRows - 1 - row];
+        }
+        setViewIndexes(newViewIndexes);
+    }
+
+    /**
+     * Clears the sorting cache. The values of the columns will be extracted
+     * anew at the next sorting. The cache is cleared whenever a table model
+     * event is fired from outside the loading and sorting of the table.
+     */
+    public void clearSortingCache() {
+        synchronized (sortedRowsCache) {
+            sortedRowsCache.clear();
+            sortingCacheVersion++;
+        }
+    }
+
+    /**
+     * Notifies the listeners that the table changed and clears the sorting
+     * cache.
+     *
+     * @param e the event to forward
+     */
+    @Override
+    public void fireTableChanged(TableModelEvent e) {
+        // events fired by the DefaultTableModel constructor come before the cache is set
+        if (sortedRowsCache != null) {
+            clearSortingCache();
         }
+        super.fireTableChanged(e);
+    }
+
+    /**
+     * Notifies the listeners that the displayed rows need to be refreshed
+     * after loading or sorting, keeping the sorting cache.
+     */
+    private void fireTableContentChanged() {
+        super.fireTableChanged(new TableModelEvent(this));
+    }
+
+    /**
+     * Returns the number of threads to use when extracting the values of a
+     * column for sorting. Defaults to 1, override this method if the data of
+     * the table can be loaded in parallel.
+     *
+     * @return the number of threads to use when sorting
+     */
+    protected int getNSortingThreads() {
+        return 1;
     }
 
     /**
@@ -230,14 +324,14 @@ public abstract class SelfUpdatingTableModel extends DefaultTableModel {
             return row;
         }
         int nRows = getRowCount();
-        if (nRows != viewIndexes.size()) {
+        if (nRows != viewIndexes.length) {
             initiateSorter();
         }
         if (row < 0 || row >= nRows) {
             nRows--;
             throw new IllegalArgumentException("Row " + row + " must be between 0 and " + nRows);
         }
-        return viewIndexes.get(row);
+        return viewIndexes[row];
     }
 
     /**
@@ -251,36 +345,29 @@ public abstract class SelfUpdatingTableModel extends DefaultTableModel {
             return viewIndex;
         }
         int nRows = getRowCount();
-        if (nRows != viewIndexes.size()) {
+        if (nRows != viewIndexes.length) {
             initiateSorter();
         }
         if (viewIndex < 0 || viewIndex >= nRows) {
             nRows--;
             throw new IllegalArgumentException("View index " + viewIndex + " must be between 0 and " + nRows + ".");
         }
-        return viewIndexes.indexOf(viewIndex);
+        return rowNumbers[viewIndex];
     }
 
     /**
-     * Sorts the table according to a given column using the built in sorter.
+     * Sorts the table according to the last sorted column using the built in
+     * sorter. The sorting cache is cleared.
      *
      * @param aProgressDialog a progress dialog used to display the progress and
      * interrupt the process
      */
     public void resetSorting(ProgressDialogX aProgressDialog) {
 
+        clearSortingCache();
+
         if (!unsorted) {
-            sortColumn(lastColumnSorted, aProgressDialog);
-
-            if (!sortAscending) {
-                SwingUtilities.invokeLater(new Runnable() {
-                    @Override
-                    public void run() {
-                        Collections.reverse(viewIndexes);
-                        fireTableDataChanged();
-                    }
-                });
-            }
+            sortColumn(lastColumnSorted, sortAscending, aProgressDialog);
         }
     }
 
@@ -296,116 +383,181 @@ public abstract class SelfUpdatingTableModel extends DefaultTableModel {
         if (column == lastColumnSorted) {
 
             // initate sorter if needed
-            if (viewIndexes == null || viewIndexes.size() != getRowCount()) {
+            if (viewIndexes == null || viewIndexes.length != getRowCount()) {
                 initiateSorter();
             }
 
             sortAscending = !sortAscending; // same column, change sorting order
-            Collections.reverse(viewIndexes);
-            fireTableDataChanged();
+            reverseViewIndexes();
+            fireTableContentChanged();
         } else {
             sortAscending = true; // new column, sort acending 
-            sortColumn(column, aProgressDialog);
+            sortColumn(column, true, aProgressDialog);
         }
     }
 
     /**
-     * Sort the given columns in ascending order.
+     * Sorts the given column. The values of the column are extracted in
+     * parallel batches and the sorted rows cached until the data changes.
      *
      * @param column the column to sort on
+     * @param ascending if true the rows are sorted in ascending order,
+     * descending otherwise
      * @param aProgressDialog a progress dialog
      */
-    private void sortColumn(int column, ProgressDialogX aProgressDialog) {
+    private void sortColumn(int column, boolean ascending, ProgressDialogX aProgressDialog) {
 
         final int finalColumn = column;
         this.progressDialog = aProgressDialog;
-        progressDialog.resetSecondaryProgressCounter();
-        progressDialog.setTitle("Sorting. Please Wait...");
-        progressDialog.setPrimaryProgressCounterIndeterminate(false);
-        progressDialog.setMaxPrimaryProgressCounter(getRowCount());
-        progressDialog.setValue(0);
 
-        new Thread(new Runnable() {
-            public void run() {
-                try {
-                    if (progressDialog != null) {
-                        progressDialog.setVisible(true);
+        if (progressDialog != null) {
+
+            progressDialog.resetSecondaryProgressCounter();
+            progressDialog.setTitle("Sorting. Please Wait...");
+            progressDialog.setPrimaryProgressCounterIndeterminate(false);
+            progressDialog.setMaxPrimaryProgressCounter(getRowCount());
+            progressDialog.setValue(0);
+
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        if (progressDialog != null) {
+                            progressDialog.setVisible(true);
+                        }
+                    } catch (IndexOutOfBoundsException e) {
+                        // ignore
                     }
-                } catch (IndexOutOfBoundsException e) {
-                    // ignore
                 }
-            }
-        }, "ProgressDialog").start();
+            }, "ProgressDialog").start();
+        }
 
         new Thread("SortThread") {
             @Override
             public void run() {
 
                 try {
-                    
+
                     setSelfUpdating(false);
 
-                    initiateSorter();
-                    lastColumnSorted = 0;
-
-                    HashMap<Comparable, ArrayList<Integer>> valueToRowMap = new HashMap<>();
-                    boolean comparable = false, string = false;
-
-                    for (int row = 0; row < getRowCount() && (progressDialog != null && !progressDialog.isRunCanceled()); row++) {
-                        Object tableValue = getValueAt(row, finalColumn);
-                        Comparable key;
-                        if (tableValue instanceof Comparable) {
-                            key = (Comparable) tableValue;
-                            comparable = true;
-                        } else {
-                            key = tableValue.toString();
-                            string = true;
-                        }
-                        ArrayList<Integer> rows = valueToRowMap.get(key);
-                        if (rows == null) {
-                            rows = new ArrayList<>();
-                            valueToRowMap.put(key, rows);
-                        }
-                        rows.add(row);
-                        if (progressDialog != null) {
-                            progressDialog.increasePrimaryProgressCounter();
-                        }
-                    }
+                    int[] sortedRows;
+                    int cacheVersion;
 
-                    if (progressDialog != null && progressDialog.isRunCanceled()) {
-                        progressDialog.setRunFinished();
-                        return;
+                    synchronized (sortedRowsCache) {
+                        sortedRows = sortedRowsCache.get(finalColumn);
+                        cacheVersion = sortingCacheVersion;
                     }
 
-                    ArrayList<Comparable> keys = new ArrayList<>(valueToRowMap.keySet());
-                    if (string && comparable) {
-                        ArrayList<Comparable> stringValues = new ArrayList<>();
-                        for (Comparable value : keys) {
-                            stringValues.add(value.toString());
+                    if (sortedRows == null || sortedRows.length != getRowCount()) {
+
+                        initiateSorter();
+                        lastColumnSorted = 0;
+
+                        Object[] values = getColumnValues(finalColumn);
+
+                        if (values == null) {
+                            return;
                         }
-                        keys = stringValues;
-                    }
 
-                    if (progressDialog == null || !progressDialog.isRunCanceled()) {
-                        viewIndexes = new ArrayList<>();
-                        Collections.sort(keys);
-                        for (Comparable key : keys) {
-                            viewIndexes.addAll(valueToRowMap.get(key));
+                        sortedRows = ColumnSorter.getSortedRows(values);
+
+                        synchronized (sortedRowsCache) {
+                            if (cacheVersion == sortingCacheVersion) {
+                                sortedRowsCache.put(finalColumn, sortedRows);
+                            }
                         }
-                        lastColumnSorted = finalColumn;
                     }
 
+                    setViewIndexes(sortedRows.clone());
+
+                    if (!ascending) {
+                        reverseViewIndexes();
+                    }
+
+                    lastColumnSorted = finalColumn;
+
                 } catch (Exception ex) {
                     catchException(ex);
                 } finally {
                     setSelfUpdating(true);
+                    if (progressDialog != null) {
+                        progressDialog.setRunFinished();
+                    }
+                    SwingUtilities.invokeLater(() -> fireTableContentChanged());
+                }
+            }
+        }.start();
+    }
+
+    /**
+     * Returns the values of the given column indexed by view index. The data
+     * are loaded in batches in parallel. The view indexes must be in the
+     * original order.
+     *
+     * @param column the column of interest
+     *
+     * @return the values of the column, null if the process was canceled
+     *
+     * @throws InterruptedException exception thrown if a thread was
+     * interrupted
+     * @throws ExecutionException exception thrown if an exception occurred
+     * while loading the data
+     */
+    private Object[] getColumnValues(int column) throws InterruptedException, ExecutionException {
+
+        int nRows = getRowCount();
+        Object[] values = new Object[nRows];
+        ArrayList<Callable<Object>> tasks = new ArrayList<>(nRows / SORTING_BATCH_SIZE + 1);
+
+        for (int start = 0; start < nRows; start += SORTING_BATCH_SIZE) {
+
+            final int batchStart = start;
+            final int batchEnd = Math.min(start + SORTING_BATCH_SIZE, nRows);
+
+            tasks.add(() -> {
+
+                if (progressDialog != null && progressDialog.isRunCanceled()) {
+                    return null;
                 }
+
+                ArrayList<Integer> indexes = new ArrayList<>(batchEnd - batchStart);
+
+                for (int row = batchStart; row < batchEnd; row++) {
+                    indexes.add(row);
+                }
+
+                loadDataForRows(indexes, new WaitingHandlerDummy());
+
+                for (int row = batchStart; row < batchEnd; row++) {
+                    values[row] = getValueAt(row, column);
+                }
+
                 if (progressDialog != null) {
-                    progressDialog.setRunFinished();
+                    progressDialog.increasePrimaryProgressCounter(batchEnd - batchStart);
                 }
-                fireTableDataChanged();
+
+                return null;
+
+            });
+        }
+
+        ExecutorService sortingPool = Executors.newFixedThreadPool(Math.max(1, getNSortingThreads()));
+
+        try {
+
+            for (Future<Object> future : sortingPool.invokeAll(tasks)) {
+                future.get();
             }
-        }.start();
+
+        } finally {
+            sortingPool.shutdown();
+        }
+
+        if (progressDialog != null && progressDialog.isRunCanceled()) {
+            return null;
+        }
+
+        return values;
+
     }
 
     /**
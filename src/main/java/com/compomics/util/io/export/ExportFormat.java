@@ -14,7 +14,11 @@ public enum ExportFormat {
     /**
      * Excel file.
      */
-    excel(1, "Excel", "xls", "Microsoft Excel format");
+    excel(1, "Excel", "xls", "Microsoft Excel format"),
+    /**
+     * Excel xlsx file, written in streaming mode.
+     */
+    xlsx(2, "Excel (xlsx)", "xlsx", "Microsoft Excel Open XML format");
 
     /**
      * The index of the format.
@@ -2,6 +2,7 @@ package com.compomics.util.io.export;
 
 import com.compomics.util.io.export.writers.ExcelWriter;
 import com.compomics.util.io.export.writers.TextWriter;
+import com.compomics.util.io.export.writers.XlsxWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -210,6 +211,9 @@ public abstract class ExportWriter {
             case excel:
                 return new ExcelWriter(destinationFile);
 
+            case xlsx:
+                return new XlsxWriter(destinationFile);
+
             case text:
                 return new TextWriter(destinationFile, separator, nSeparationLines, gzip);
 
@@ -2,8 +2,8 @@ package com.compomics.util.io.export.styles;
 
 import com.compomics.util.io.export.WorkbookStyle;
 import com.compomics.util.io.export.writers.ExcelWriter;
+import com.compomics.util.io.export.writers.XlsxWriter;
 import java.util.HashMap;
-import org.apache.poi.hssf.usermodel.HSSFPalette;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.hssf.util.HSSFColor;
 import org.apache.poi.ss.usermodel.BorderStyle;
@@ -12,6 +12,9 @@ import org.apache.poi.ss.usermodel.FillPatternType;
 import org.apache.poi.ss.usermodel.Font;
 import org.apache.poi.ss.usermodel.HorizontalAlignment;
 import org.apache.poi.ss.usermodel.VerticalAlignment;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFColor;
 
 /**
  * Default style for Excel sheets.
@@ -24,7 +27,7 @@ public class DefaultStyle implements WorkbookStyle {
     /**
      * Workbook.
      */
-    private final HSSFWorkbook workbook;
+    private final Workbook workbook;
     /**
      * The implemented cell styles.
      */
@@ -40,7 +43,7 @@ public class DefaultStyle implements WorkbookStyle {
     /**
      * Map of the different styles available.
      */
-    private final static HashMap<HSSFWorkbook, DefaultStyle> styles = new HashMap<HSSFWorkbook, DefaultStyle>();
+    private final static HashMap<Workbook, DefaultStyle> styles = new HashMap<Workbook, DefaultStyle>();
 
     /**
      * Returns the style attached to that writer or create a new one if none
@@ -51,10 +54,33 @@ public class DefaultStyle implements WorkbookStyle {
      * @return the style attached to that writer
      */
     public static DefaultStyle getStyle(ExcelWriter excelWriter) {
-        HSSFWorkbook workbook = excelWriter.getWorkbook();
+        return getStyle(excelWriter.getWorkbook());
+    }
+
+    /**
+     * Returns the style attached to that writer or create a new one if none
+     * found.
+     *
+     * @param xlsxWriter the writer of interest
+     *
+     * @return the style attached to that writer
+     */
+    public static DefaultStyle getStyle(XlsxWriter xlsxWriter) {
+        return getStyle(xlsxWriter.getWorkbook());
+    }
+
+    /**
+     * Returns the style attached to that workbook or create a new one if none
+     * found.
+     *
+     * @param workbook the workbook of interest
+     *
+     * @return the style attached to that workbook
+     */
+    private static synchronized DefaultStyle getStyle(Workbook workbook) {
         DefaultStyle result = styles.get(workbook);
         if (result == null) {
-            result = new DefaultStyle(excelWriter);
+            result = new DefaultStyle(workbook);
             styles.put(workbook, result);
         }
         return result;
@@ -70,13 +96,34 @@ public class DefaultStyle implements WorkbookStyle {
     /**
      * Constructor.
      *
-     * @param excelWriter the excel writer for this style
+     * @param workbook the workbook for this style
      */
-    private DefaultStyle(ExcelWriter excelWriter) { //@TODO: possible to make a generic style workbook independent?
-        this.workbook = excelWriter.getWorkbook();
+    private DefaultStyle(Workbook workbook) {
+        this.workbook = workbook;
         setCellStyles();
     }
 
+    /**
+     * Sets a solid fill of the given color to the given cell style. For xls
+     * workbooks the color is set in the palette at the index of the given
+     * predefined color.
+     *
+     * @param cellStyle the cell style
+     * @param predefinedColor the predefined color to replace in xls workbooks
+     * @param red the red component
+     * @param green the green component
+     * @param blue the blue component
+     */
+    private void setFillColor(CellStyle cellStyle, HSSFColor.HSSFColorPredefined predefinedColor, byte red, byte green, byte blue) {
+        if (workbook instanceof HSSFWorkbook) {
+            cellStyle.setFillForegroundColor(predefinedColor.getIndex());
+            ((HSSFWorkbook) workbook).getCustomPalette().setColorAtIndex(predefinedColor.getIndex(), red, green, blue);
+        } else {
+            ((XSSFCellStyle) cellStyle).setFillForegroundColor(new XSSFColor(new byte[]{red, green, blue}, null));
+        }
+        cellStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+    }
+
     /**
      * Sets the cell styles.
      */
@@ -105,12 +152,8 @@ public class DefaultStyle implements WorkbookStyle {
         standardHeader.setBorderRight(BorderStyle.THIN);
         standardHeader.setAlignment(HorizontalAlignment.CENTER);
         standardHeader.setVerticalAlignment(VerticalAlignment.CENTER);
-        standardHeader.setFillForegroundColor(HSSFColor.HSSFColorPredefined.PALE_BLUE.getIndex());
-        standardHeader.setFillPattern(FillPatternType.SOLID_FOREGROUND);
-
         // Change PALE_BLUE to actually pale blue
-        HSSFPalette palette = workbook.getCustomPalette();
-        palette.setColorAtIndex(HSSFColor.HSSFColorPredefined.PALE_BLUE.getIndex(),
+        setFillColor(standardHeader, HSSFColor.HSSFColorPredefined.PALE_BLUE,
                 (byte) 200,
                 (byte) 200,
                 (byte) 250
@@ -127,13 +170,11 @@ public class DefaultStyle implements WorkbookStyle {
         subHeader.setBorderRight(BorderStyle.THIN);
         subHeader.setAlignment(HorizontalAlignment.CENTER);
         subHeader.setVerticalAlignment(VerticalAlignment.CENTER);
-        subHeader.setFillForegroundColor(HSSFColor.HSSFColorPredefined.GREY_50_PERCENT.getIndex());
-        palette.setColorAtIndex(HSSFColor.HSSFColorPredefined.GREY_50_PERCENT.getIndex(),
+        setFillColor(subHeader, HSSFColor.HSSFColorPredefined.GREY_50_PERCENT,
                 (byte) 220,
                 (byte) 220,
                 (byte) 250
         );
-        subHeader.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         hierarchicalHeaders.put(1, subHeader);
 
         subHeader = workbook.createCellStyle();
@@ -144,13 +185,11 @@ public class DefaultStyle implements WorkbookStyle {
         subHeader.setBorderRight(BorderStyle.THIN);
         subHeader.setAlignment(HorizontalAlignment.CENTER);
         subHeader.setVerticalAlignment(VerticalAlignment.CENTER);
-        subHeader.setFillForegroundColor(HSSFColor.HSSFColorPredefined.GREY_40_PERCENT.getIndex());
-        palette.setColorAtIndex(HSSFColor.HSSFColorPredefined.GREY_40_PERCENT.getIndex(),
+        setFillColor(subHeader, HSSFColor.HSSFColorPredefined.GREY_40_PERCENT,
                 (byte) 230,
                 (byte) 230,
                 (byte) 250
         );
-        subHeader.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         hierarchicalHeaders.put(2, subHeader);
 
         subHeader = workbook.createCellStyle();
@@ -161,13 +200,11 @@ public class DefaultStyle implements WorkbookStyle {
         subHeader.setBorderRight(BorderStyle.THIN);
         subHeader.setAlignment(HorizontalAlignment.CENTER);
         subHeader.setVerticalAlignment(VerticalAlignment.CENTER);
-        subHeader.setFillForegroundColor(HSSFColor.HSSFColorPredefined.GREY_25_PERCENT.getIndex());
-        palette.setColorAtIndex(HSSFColor.HSSFColorPredefined.GREY_25_PERCENT.getIndex(),
+        setFillColor(subHeader, HSSFColor.HSSFColorPredefined.GREY_25_PERCENT,
                 (byte) 240,
                 (byte) 240,
                 (byte) 250
         );
-        subHeader.setFillPattern(FillPatternType.SOLID_FOREGROUND);
         for (int i = 3; i < 100; i++) {
             hierarchicalHeaders.put(i, subHeader);
         }
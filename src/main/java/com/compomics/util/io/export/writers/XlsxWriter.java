@@ -0,0 +1,524 @@
+package com.compomics.util.io.export.writers;
+
+import com.compomics.util.io.export.ExportFormat;
+import com.compomics.util.io.export.ExportWriter;
+import com.compomics.util.io.export.WorkbookStyle;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.util.WorkbookUtil;
+import org.apache.poi.xssf.streaming.SXSSFRow;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+/**
+ * ExportWriter for the export to xlsx files. The rows are streamed to
+ * compressed temporary files, keeping only a window of rows in memory, so that
+ * large exports can be written with bounded memory. When a sheet is full, the
+ * section continues on a new sheet starting with the last header row. Rows of
+ * higher hierarchical depth are grouped and hidden.
+ *
+ * @author Marc Vaudel
+ */
+public class XlsxWriter extends ExportWriter {
+
+    /**
+     * The default number of rows kept in memory.
+     */
+    public static final int DEFAULT_ROW_ACCESS_WINDOW = 1000;
+    /**
+     * The maximal number of rows in an xlsx sheet.
+     */
+    public static final int MAX_ROWS_PER_SHEET = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    /**
+     * The default row height.
+     */
+    private static final float DEFAULT_ROW_HEIGHT = 12.75f;
+    /**
+     * The workbook.
+     */
+    private final SXSSFWorkbook workbook;
+    /**
+     * The workbook style to use.
+     */
+    private WorkbookStyle workbookStyle = null;
+    /**
+     * The destination file.
+     */
+    private final File destinationFile;
+    /**
+     * The maximal number of rows per sheet.
+     */
+    private final int maxRowsPerSheet;
+    /**
+     * The sheet number of the current sheet.
+     */
+    private int sheetNumber;
+    /**
+     * The title of the current section.
+     */
+    private String sectionTitle;
+    /**
+     * The number of sheets used for the current section.
+     */
+    private int sectionSheets;
+    /**
+     * The current sheet.
+     */
+    private SXSSFSheet currentSheet;
+    /**
+     * The current hierarchical depth.
+     */
+    private int hierarchicalDepth = 0;
+    /**
+     * The current row number.
+     */
+    private int rowNumber = 0;
+    /**
+     * The current cell number.
+     */
+    private int cellNumber = 0;
+    /**
+     * The current row.
+     */
+    private SXSSFRow currentRow = null;
+    /**
+     * Boolean indicating whether the current row is a header row.
+     */
+    private boolean headerRow = false;
+    /**
+     * The content of the cells of the last header row.
+     */
+    private final ArrayList<String> headerContent = new ArrayList<>();
+    /**
+     * The style of the cells of the last header row.
+     */
+    private final ArrayList<CellStyle> headerStyles = new ArrayList<>();
+    /**
+     * The height of the last header row.
+     */
+    private float headerHeight = DEFAULT_ROW_HEIGHT;
+    /**
+     * The current cell content.
+     */
+    private final StringBuilder currentCellContent = new StringBuilder();
+    /**
+     * The current cell style.
+     */
+    private CellStyle currentCellStyle = null;
+
+    /**
+     * Empty default constructor.
+     */
+    public XlsxWriter() {
+        workbook = null;
+        destinationFile = null;
+        maxRowsPerSheet = MAX_ROWS_PER_SHEET;
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param destinationFile the file where to write the data
+     */
+    public XlsxWriter(File destinationFile) {
+        this(destinationFile, DEFAULT_ROW_ACCESS_WINDOW, MAX_ROWS_PER_SHEET);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param destinationFile the file where to write the data
+     * @param rowAccessWindow the number of rows kept in memory
+     * @param maxRowsPerSheet the maximal number of rows per sheet, at most
+     * MAX_ROWS_PER_SHEET
+     */
+    public XlsxWriter(
+            File destinationFile,
+            int rowAccessWindow,
+            int maxRowsPerSheet
+    ) {
+
+        if (maxRowsPerSheet < 2 || maxRowsPerSheet > MAX_ROWS_PER_SHEET) {
+            throw new IllegalArgumentException("The number of rows per sheet must be between 2 and " + MAX_ROWS_PER_SHEET + ".");
+        }
+
+        this.destinationFile = destinationFile;
+        this.maxRowsPerSheet = maxRowsPerSheet;
+        workbook = new SXSSFWorkbook(rowAccessWindow);
+        workbook.setCompressTempFiles(true);
+        exportFormat = ExportFormat.xlsx;
+
+    }
+
+    /**
+     * Returns the workbook style.
+     *
+     * @return the workbook style
+     */
+    public WorkbookStyle getWorkbookStyle() {
+        return workbookStyle;
+    }
+
+    /**
+     * Sets the workbook style.
+     *
+     * @param workbookStyle the workbook style
+     */
+    public void setWorkbookStyle(WorkbookStyle workbookStyle) {
+        this.workbookStyle = workbookStyle;
+    }
+
+    /**
+     * Return the workBook.
+     *
+     * @return the workBook
+     */
+    public SXSSFWorkbook getWorkbook() {
+        return workbook;
+    }
+
+    /**
+     * Creates a new row, continuing the section on a new sheet if the current
+     * sheet is full.
+     *
+     * @param height the height of the row
+     */
+    private void createRow(float height) {
+
+        if (currentSheet == null) {
+            throw new IllegalArgumentException("No section started to write in.");
+        }
+
+        if (rowNumber >= maxRowsPerSheet) {
+
+            continueOnNewSheet();
+
+        }
+
+        currentRow = currentSheet.createRow(rowNumber);
+        currentRow.setHeightInPoints(height);
+
+        if (hierarchicalDepth > 0) {
+
+            currentSheet.setRowOutlineLevel(rowNumber, Math.min(hierarchicalDepth, 7));
+            currentRow.setZeroHeight(true);
+
+        }
+
+        rowNumber++;
+
+    }
+
+    /**
+     * Continues the current section on a new sheet starting with the last
+     * header row.
+     */
+    private void continueOnNewSheet() {
+
+        sectionSheets++;
+        createSheet(sectionTitle + " (" + sectionSheets + ")");
+
+        if (!headerContent.isEmpty()) {
+
+            SXSSFRow row = currentSheet.createRow(rowNumber++);
+            row.setHeightInPoints(headerHeight);
+
+            for (int i = 0; i < headerContent.size(); i++) {
+
+                setCell(row.createCell(i), headerContent.get(i), headerStyles.get(i));
+
+            }
+        }
+    }
+
+    /**
+     * Creates a new sheet and sets it as current sheet.
+     *
+     * @param sheetName the name of the sheet
+     */
+    private void createSheet(String sheetName) {
+
+        String safeName = WorkbookUtil.createSafeSheetName(sheetName);
+
+        if (workbook.getSheet(safeName) != null) {
+            safeName = WorkbookUtil.createSafeSheetName(sheetNumber + " " + sheetName);
+        }
+
+        currentSheet = workbook.createSheet(safeName);
+        currentSheet.setRowSumsBelow(false);
+        rowNumber = 0;
+        cellNumber = 0;
+        currentRow = null;
+        sheetNumber++;
+
+    }
+
+    /**
+     * Sets the content and style of a cell. Numbers are written as numeric
+     * values.
+     *
+     * @param cell the cell
+     * @param content the content
+     * @param cellStyle the style, can be null
+     */
+    private static void setCell(
+            Cell cell,
+            String content,
+            CellStyle cellStyle
+    ) {
+
+        if (isNumber(content)) {
+
+            cell.setCellValue(Double.parseDouble(content));
+
+        } else if (!content.isEmpty()) {
+
+            cell.setCellValue(content);
+
+        }
+
+        if (cellStyle != null) {
+            cell.setCellStyle(cellStyle);
+        }
+    }
+
+    /**
+     * Indicates whether the given content can be parsed as a number. Contents
+     * that cannot be numbers are excluded before parsing to avoid the cost of
+     * exceptions on text cells.
+     *
+     * @param content the content
+     *
+     * @return a boolean indicating whether the given content can be parsed as
+     * a number
+     */
+    private static boolean isNumber(String content) {
+
+        if (content.isEmpty()) {
+            return false;
+        }
+
+        char first = content.charAt(0);
+
+        if (!(first >= '0' && first <= '9' || first == '-' || first == '+' || first == '.' || first == 'N' || first == 'I')) {
+            return false;
+        }
+
+        try {
+
+            Double.parseDouble(content);
+            return true;
+
+        } catch (NumberFormatException e) {
+
+            return false;
+
+        }
+    }
+
+    @Override
+    public void write(
+            String text,
+            WorkbookStyle textStyle
+    ) throws IOException {
+
+        if (currentRow == null) {
+
+            if (textStyle != null) {
+                createRow(textStyle.getStandardHeight());
+            } else if (workbookStyle != null) {
+                createRow(workbookStyle.getStandardHeight());
+            } else {
+                createRow(DEFAULT_ROW_HEIGHT);
+            }
+
+            headerRow = false;
+
+        }
+
+        if (textStyle != null) {
+            currentCellStyle = textStyle.getStandardStyle(hierarchicalDepth);
+        } else if (workbookStyle != null) {
+            currentCellStyle = workbookStyle.getStandardStyle(hierarchicalDepth);
+        }
+
+        currentCellContent.append(text);
+
+    }
+
+    @Override
+    public void writeMainTitle(
+            String text,
+            WorkbookStyle textStyle
+    ) throws IOException {
+
+        if (text != null) {
+
+            SXSSFSheet sheet = workbook.createSheet(" ");
+            sheet.setRowSumsBelow(false);
+            SXSSFRow row = sheet.createRow(0);
+
+            Cell cell = row.createCell(0);
+            cell.setCellValue(text);
+
+            if (textStyle != null) {
+                row.setHeightInPoints(textStyle.getMainTitleRowHeight());
+                cell.setCellStyle(textStyle.getStandardStyle(hierarchicalDepth));
+            } else if (workbookStyle != null) {
+                row.setHeightInPoints(workbookStyle.getMainTitleRowHeight());
+                cell.setCellStyle(workbookStyle.getStandardStyle(hierarchicalDepth));
+            } else {
+                row.setHeightInPoints(DEFAULT_ROW_HEIGHT);
+            }
+
+            sheetNumber++;
+        }
+    }
+
+    @Override
+    public void startNewSection(
+            String sectionTitle,
+            WorkbookStyle textStyle
+    ) throws IOException {
+
+        if (currentCellContent.length() > 0) {
+            addSeparator();
+        }
+
+        this.sectionTitle = sectionTitle == null ? Integer.toString(sheetNumber) : sectionTitle;
+        sectionSheets = 1;
+        headerContent.clear();
+        headerStyles.clear();
+        headerRow = false;
+
+        createSheet(this.sectionTitle);
+
+    }
+
+    @Override
+    public void writeHeaderText(
+            String text,
+            WorkbookStyle textStyle
+    ) throws IOException {
+
+        if (currentRow == null) {
+
+            if (textStyle != null) {
+                headerHeight = textStyle.getHeaderHeight();
+            } else if (workbookStyle != null) {
+                headerHeight = workbookStyle.getHeaderHeight();
+            } else {
+                headerHeight = DEFAULT_ROW_HEIGHT;
+            }
+
+            createRow(headerHeight);
+            headerRow = true;
+            headerContent.clear();
+            headerStyles.clear();
+
+        }
+
+        if (textStyle != null) {
+            currentCellStyle = textStyle.getHeaderStyle(hierarchicalDepth);
+        } else if (workbookStyle != null) {
+            currentCellStyle = workbookStyle.getHeaderStyle(hierarchicalDepth);
+        }
+
+        currentCellContent.append(text);
+
+    }
+
+    @Override
+    public void addSeparator(
+            WorkbookStyle textStyle
+    ) throws IOException {
+
+        if (currentRow == null) {
+
+            if (textStyle != null) {
+                createRow(textStyle.getStandardHeight());
+            } else if (workbookStyle != null) {
+                createRow(workbookStyle.getStandardHeight());
+            } else {
+                createRow(DEFAULT_ROW_HEIGHT);
+            }
+
+            headerRow = false;
+
+        }
+
+        String content = currentCellContent.toString();
+        setCell(currentRow.createCell(cellNumber), content, currentCellStyle);
+        cellNumber++;
+
+        if (headerRow) {
+
+            headerContent.add(content);
+            headerStyles.add(currentCellStyle);
+
+        }
+
+        currentCellContent.setLength(0);
+        currentCellStyle = null;
+
+    }
+
+    @Override
+    public void newLine() throws IOException {
+
+        if (currentRow == null) {
+
+            createRow(DEFAULT_ROW_HEIGHT);
+            currentRow = null;
+
+        } else {
+
+            if (currentCellContent.length() > 0) {
+                addSeparator();
+            }
+
+            currentRow = null;
+        }
+
+        headerRow = false;
+        cellNumber = 0;
+
+    }
+
+    @Override
+    public void close() throws IOException, FileNotFoundException {
+
+        try (FileOutputStream fileOut = new FileOutputStream(destinationFile)) {
+
+            workbook.write(fileOut);
+
+        } finally {
+
+            workbook.dispose();
+            workbook.close();
+
+        }
+    }
+
+    @Override
+    public void increaseDepth() {
+        hierarchicalDepth++;
+    }
+
+    @Override
+    public void decreaseDepth() {
+
+        if (hierarchicalDepth == 0) {
+            throw new IllegalArgumentException("Attempting to decrease the hierarchical depth below zero.");
+        }
+
+        hierarchicalDepth--;
+
+    }
+}
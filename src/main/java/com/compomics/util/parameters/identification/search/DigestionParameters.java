@@ -341,7 +341,9 @@ public class DigestionParameters extends ExperimentObject {
 
     /**
      * Returns the number of allowed missed cleavages for the given enzyme. Null
-     * if not set.
+     * if not set. Note that when digesting with multiple enzymes, the largest
+     * number of missed cleavages is used for all enzymes, see
+     * IteratorFactory.
      *
      * @param enzymeName the name of the enzyme
      *
@@ -375,6 +377,8 @@ public class DigestionParameters extends ExperimentObject {
 
     /**
      * Returns the expected specificity of the given enzyme. Null if not set.
+     * Note that when digesting with multiple enzymes, the most permissive
+     * specificity is used for all enzymes, see IteratorFactory.
      *
      * @param enzymeName the name of the enzyme
      *
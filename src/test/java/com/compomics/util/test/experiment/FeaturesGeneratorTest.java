@@ -0,0 +1,87 @@
+package com.compomics.util.test.experiment;
+
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.matches.ModificationMatch;
+import com.compomics.util.experiment.identification.peptide_fragmentation.models.ms2pip.features_configuration.FeaturesMapManager;
+import com.compomics.util.experiment.identification.peptide_fragmentation.models.ms2pip.features_generation.FeaturesGenerator;
+import com.compomics.util.experiment.identification.peptide_fragmentation.models.ms2pip.features_generation.FeaturesMatrix;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.parameters.identification.search.ModificationParameters;
+import java.io.File;
+import java.io.IOException;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the generation of ms2pip features.
+ *
+ * @author Marc Vaudel
+ */
+public class FeaturesGeneratorTest extends TestCase {
+
+    /**
+     * Tests that the features matrix contains the features of every ion, and
+     * that it can be written and read back.
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * or reading the matrix
+     */
+    public void testFeaturesMatrix() throws IOException {
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+        ModificationParameters modificationParameters = new ModificationParameters();
+        modificationParameters.addFixedModification(modificationFactory.getModification("Carbamidomethylation of C"));
+        modificationParameters.addVariableModification(modificationFactory.getModification("Oxidation of M"));
+        SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.getDefaultSequenceMatching();
+
+        Peptide[] peptides = new Peptide[]{
+            new Peptide("PEPTIDEK"),
+            new Peptide("CAMPAIGNMR", new ModificationMatch[]{new ModificationMatch("Oxidation of M", 4)}),
+            new Peptide("K"),
+            new Peptide("ELVISLIVESCK")
+        };
+        int[] charges = new int[]{2, 3, 1, 2};
+
+        FeaturesGenerator featuresGenerator = new FeaturesGenerator(FeaturesMapManager.getDefaultFeaturesMap());
+        FeaturesMatrix featuresMatrix = featuresGenerator.getFeaturesMatrix(peptides, charges, modificationParameters, null, sequenceMatchingParameters, 2, null);
+
+        Assert.assertEquals(peptides.length, featuresMatrix.getNPeptides());
+        Assert.assertEquals(7 + 9 + 0 + 11, featuresMatrix.getNRows());
+
+        for (int peptideI = 0; peptideI < peptides.length; peptideI++) {
+
+            Peptide peptide = peptides[peptideI];
+
+            for (int ionIndex = 0; ionIndex < peptide.getSequence().length() - 1; ionIndex++) {
+
+                Assert.assertArrayEquals(
+                        featuresGenerator.getForwardIonsFeatures(peptide, charges[peptideI], ionIndex, modificationParameters, null, sequenceMatchingParameters),
+                        featuresMatrix.getForwardIonFeatures(peptideI, ionIndex)
+                );
+                Assert.assertArrayEquals(
+                        featuresGenerator.getComplementaryIonsFeatures(peptide, charges[peptideI], ionIndex, modificationParameters, null, sequenceMatchingParameters),
+                        featuresMatrix.getComplementaryIonFeatures(peptideI, ionIndex)
+                );
+            }
+        }
+
+        File file = File.createTempFile("features", ".bin");
+
+        try {
+
+            featuresMatrix.write(file);
+            FeaturesMatrix readMatrix = FeaturesMatrix.read(file);
+
+            Assert.assertEquals(featuresMatrix.getNFeatures(), readMatrix.getNFeatures());
+            Assert.assertEquals(featuresMatrix.getNRows(), readMatrix.getNRows());
+            Assert.assertArrayEquals(featuresMatrix.getValues(), readMatrix.getValues());
+            Assert.assertEquals(featuresMatrix.getRow(3, 2), readMatrix.getRow(3, 2));
+
+        } finally {
+
+            file.delete();
+
+        }
+    }
+}
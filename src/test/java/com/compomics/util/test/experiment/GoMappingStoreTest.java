@@ -0,0 +1,175 @@
+package com.compomics.util.test.experiment;
+
+import com.compomics.util.experiment.biology.genes.go.GoMapping;
+import com.compomics.util.experiment.biology.genes.go.GoMappingStore;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.BitSet;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the GO mapping store.
+ *
+ * @author Marc Vaudel
+ */
+public class GoMappingStoreTest extends TestCase {
+
+    /**
+     * Tests that the store returns the same mappings as the GO mapping, that
+     * it can be saved and memory mapped, and the enrichment of GO terms.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testStore() throws IOException {
+
+        File mappingFile = File.createTempFile("go_mapping", ".txt");
+        File storeFile = GoMappingStore.getStoreFile(mappingFile);
+
+        try {
+
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(mappingFile))) {
+
+                for (int protein = 0; protein < 100; protein++) {
+
+                    bw.write("P" + protein + "\tGO:0000001\tTerm Common");
+                    bw.newLine();
+
+                    if (protein < 20) {
+
+                        bw.write("P" + protein + "\tGO:0000002\tTerm Enriched");
+                        bw.newLine();
+
+                    }
+
+                    if (protein % 10 == 0) {
+
+                        bw.write("P" + protein + "\tGO:0000003\tTerm Rare");
+                        bw.newLine();
+
+                    }
+                }
+
+                bw.write("P0\tGO:0000001\tTerm Common");
+                bw.newLine();
+                bw.write("\tGO:0000004\tInvalid line");
+                bw.newLine();
+
+            }
+
+            GoMapping goMapping = new GoMapping();
+            goMapping.loadMappingsFromFile(mappingFile, null);
+
+            GoMappingStore store = GoMappingStore.getStore(mappingFile, null);
+
+            Assert.assertTrue(storeFile.exists());
+            Assert.assertSame(store, GoMappingStore.getStore(mappingFile, null));
+            Assert.assertEquals(100, store.getNProteins());
+            Assert.assertEquals(3, store.getNTerms());
+            Assert.assertEquals(100 + 20 + 10, store.getNMappings());
+
+            GoMappingStore readStore = GoMappingStore.read(storeFile, mappingFile);
+
+            for (GoMappingStore testedStore : Arrays.asList(store, readStore)) {
+
+                for (String proteinAccession : goMapping.getProteinToGoMap().keySet()) {
+                    Assert.assertEquals(goMapping.getGoAccessions(proteinAccession), testedStore.getGoAccessions(proteinAccession));
+                }
+
+                for (String goAccession : goMapping.getGoToProteinMap().keySet()) {
+                    Assert.assertEquals(goMapping.getProteinAccessions(goAccession), testedStore.getProteinAccessions(goAccession));
+                    Assert.assertEquals(goMapping.getTermName(goAccession), testedStore.getTermName(goAccession));
+                }
+
+                Assert.assertEquals("GO:0000003", testedStore.getTermAccession("term rare"));
+                Assert.assertNull(testedStore.getGoAccessions("P100"));
+                Assert.assertNull(testedStore.getProteinAccessions("GO:0000004"));
+
+            }
+
+            // select the first 20 proteins and the proteins 90 to 99
+            BitSet selected = new BitSet();
+
+            for (int protein = 0; protein < 100; protein++) {
+
+                if (protein < 20 || protein >= 90) {
+                    selected.or(store.getProteinSet(Arrays.asList("P" + protein)));
+                }
+            }
+
+            BitSet background = new BitSet();
+            background.set(0, store.getNProteins());
+
+            int[] counts = store.getTermCounts(selected);
+            Assert.assertEquals(30, counts[store.getTermIndex("GO:0000001")]);
+            Assert.assertEquals(20, counts[store.getTermIndex("GO:0000002")]);
+            Assert.assertEquals(3, counts[store.getTermIndex("GO:0000003")]);
+            Assert.assertEquals(store.getProteinSet(store.getTermIndex("GO:0000002")).cardinality(), 20);
+
+            double[] pValues = store.getEnrichmentPValues(selected, background);
+            Assert.assertEquals(1.0, pValues[store.getTermIndex("GO:0000001")], 1e-9);
+            Assert.assertTrue(pValues[store.getTermIndex("GO:0000002")] < 1e-10);
+            Assert.assertTrue(pValues[store.getTermIndex("GO:0000003")] > 0.05);
+
+            // a modified mapping file invalidates the store
+            Assert.assertTrue(mappingFile.setLastModified(mappingFile.lastModified() - 10000));
+            Assert.assertNull(GoMappingStore.read(storeFile, mappingFile));
+            Assert.assertNotSame(store, GoMappingStore.getStore(mappingFile, null));
+
+        } finally {
+
+            mappingFile.delete();
+            storeFile.delete();
+
+        }
+    }
+
+    /**
+     * Tests that the store is kept in memory when the store file cannot be
+     * written.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testStoreNotWritable() throws IOException {
+
+        File mappingFile = File.createTempFile("go_mapping", ".txt");
+        File storeFile = GoMappingStore.getStoreFile(mappingFile);
+
+        // a folder in place of the temporary file makes the writing fail
+        File blockingFolder = new File(storeFile.getParentFile(), storeFile.getName() + "_temp");
+        File blockingFile = new File(blockingFolder, "blocking");
+
+        try {
+
+            try (BufferedWriter bw = new BufferedWriter(new FileWriter(mappingFile))) {
+
+                bw.write("P1\tGO:0000001\tTerm");
+                bw.newLine();
+
+            }
+
+            Assert.assertTrue(blockingFolder.mkdir());
+            Assert.assertTrue(blockingFile.createNewFile());
+
+            GoMappingStore store = GoMappingStore.getStore(mappingFile, null);
+
+            Assert.assertNotNull(store);
+            Assert.assertFalse(storeFile.exists());
+            Assert.assertEquals(1, store.getNProteins());
+            Assert.assertSame(store, GoMappingStore.getStore(mappingFile, null));
+
+        } finally {
+
+            blockingFile.delete();
+            blockingFolder.delete();
+            mappingFile.delete();
+            storeFile.delete();
+
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.compomics.util.test.experiment;
+
+import com.compomics.util.experiment.biology.atoms.Atom;
+import com.compomics.util.experiment.biology.atoms.AtomChain;
+import com.compomics.util.experiment.biology.atoms.AtomImpl;
+import com.compomics.util.experiment.biology.atoms.IsotopicPattern;
+import com.compomics.util.experiment.biology.atoms.IsotopicPatternFactory;
+import java.util.ArrayList;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the isotopic pattern factory.
+ *
+ * @author Marc Vaudel
+ */
+public class IsotopicPatternFactoryTest extends TestCase {
+
+    /**
+     * Tests the pattern of a carbon chain against the binomial distribution.
+     */
+    public void testCarbon() {
+
+        IsotopicPatternFactory factory = new IsotopicPatternFactory(0.0, 200, 10);
+
+        AtomChain atomChain = new AtomChain();
+        atomChain.append(new AtomImpl(Atom.C, 0), 100);
+
+        IsotopicPattern pattern = factory.getPattern(atomChain);
+
+        double p0 = Atom.C.getRepresentativeComposition().get(0);
+        double p1 = Atom.C.getRepresentativeComposition().get(1);
+
+        Assert.assertEquals(0, pattern.getFirstIsotope());
+        Assert.assertEquals(100 * Atom.C.getMonoisotopicMass(), pattern.getMonoisotopicMass(), 1e-9);
+        Assert.assertEquals(Math.pow(p0, 100), pattern.getAbundance(0), 1e-9);
+        Assert.assertEquals(100 * p1 / p0, pattern.getAbundance(1) / pattern.getAbundance(0), 1e-9);
+        Assert.assertEquals(99 * p1 / (2 * p0), pattern.getAbundance(2) / pattern.getAbundance(1), 1e-9);
+        Assert.assertEquals(pattern.getMonoisotopicMass() + 2 * Atom.C.getDifferenceToMonoisotopic(1), pattern.getMass(2), 1e-9);
+
+        double total = 0.0;
+
+        for (double abundance : pattern.getAbundances()) {
+            total += abundance;
+        }
+
+        Assert.assertEquals(1.0, total, 1e-12);
+
+    }
+
+    /**
+     * Tests the pattern of water against the enumeration of all isotopic
+     * combinations.
+     */
+    public void testWater() {
+
+        IsotopicPatternFactory factory = new IsotopicPatternFactory(0.0, 10, 10);
+        IsotopicPattern pattern = factory.getPattern(AtomChain.getAtomChain("H(2)O"));
+
+        double[] abundances = new double[5];
+        double[] masses = new double[5];
+
+        for (int h1 = 0; h1 <= 1; h1++) {
+
+            for (int h2 = 0; h2 <= 1; h2++) {
+
+                for (int o : Atom.O.getRepresentativeComposition().keySet()) {
+
+                    double abundance = Atom.H.getRepresentativeComposition().get(h1)
+                            * Atom.H.getRepresentativeComposition().get(h2)
+                            * Atom.O.getRepresentativeComposition().get(o);
+                    double mass = Atom.H.getIsotopeMass(h1) + Atom.H.getIsotopeMass(h2) + Atom.O.getIsotopeMass(o);
+
+                    abundances[h1 + h2 + o] += abundance;
+                    masses[h1 + h2 + o] += abundance * mass;
+
+                }
+            }
+        }
+
+        double total = 0.0;
+
+        for (double abundance : abundances) {
+            total += abundance;
+        }
+
+        for (int i = 0; i < abundances.length; i++) {
+
+            Assert.assertEquals(abundances[i] / total, pattern.getAbundance(i), 1e-12);
+
+            if (abundances[i] > 0.0) {
+                Assert.assertEquals(masses[i] / abundances[i], pattern.getMass(i), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * Tests the cache, the labeled atoms, and the batch computation.
+     */
+    public void testCacheAndBatch() {
+
+        IsotopicPatternFactory factory = new IsotopicPatternFactory(IsotopicPatternFactory.DEFAULT_THRESHOLD, IsotopicPatternFactory.DEFAULT_MAX_PEAKS, 1000);
+
+        AtomChain atomChain = AtomChain.getAtomChain("C(50)H(80)N(14)O(15)S(2)");
+        IsotopicPattern pattern = factory.getPattern(atomChain);
+
+        Assert.assertSame(pattern, factory.getPattern(atomChain.clone()));
+        Assert.assertEquals(1, factory.size());
+        Assert.assertEquals(atomChain.getMass(), pattern.getMonoisotopicMass(), 1e-9);
+        Assert.assertTrue(pattern.getNPeaks() <= IsotopicPatternFactory.DEFAULT_MAX_PEAKS);
+
+        // Labeled atoms shift the mass without changing the shape
+        AtomChain labeledChain = atomChain.clone();
+        labeledChain.append(new AtomImpl(Atom.C, 1), 6);
+        IsotopicPattern labeledPattern = factory.getPattern(labeledChain);
+
+        Assert.assertEquals(labeledChain.getMass(), labeledPattern.getMonoisotopicMass(), 1e-9);
+        Assert.assertArrayEquals(pattern.getAbundances(), labeledPattern.getAbundances(), 0.0);
+
+        ArrayList<AtomChain> atomChains = new ArrayList<>();
+        double[] masses = new double[200];
+
+        for (int i = 0; i < 200; i++) {
+
+            atomChains.add(AtomChain.getAtomChain("C(" + (i + 1) + ")H(" + (2 * i + 2) + ")O(" + (i % 7) + ")"));
+            masses[i] = 500.0 + 50.0 * i;
+
+        }
+
+        IsotopicPattern[] patterns = factory.getPatterns(atomChains, 4);
+        IsotopicPattern[] averaginePatterns = factory.getAveraginePatterns(masses, 4);
+
+        for (int i = 0; i < 200; i++) {
+
+            Assert.assertArrayEquals(factory.getPattern(atomChains.get(i)).getAbundances(), patterns[i].getAbundances(), 0.0);
+            Assert.assertArrayEquals(factory.getAveraginePattern(masses[i]).getAbundances(), averaginePatterns[i].getAbundances(), 0.0);
+
+        }
+
+        // The most abundant peak moves past the monoisotopic peak around 1,800 Da
+        Assert.assertEquals(0, factory.getAveraginePattern(1000.0).getMostAbundantIsotope());
+        Assert.assertEquals(1, factory.getAveraginePattern(2500.0).getMostAbundantIsotope());
+        Assert.assertTrue(factory.getAveraginePattern(10000.0).getMostAbundantIsotope() >= 5);
+
+    }
+}
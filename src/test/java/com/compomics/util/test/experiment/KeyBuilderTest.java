@@ -0,0 +1,195 @@
+package com.compomics.util.test.experiment;
+
+import com.compomics.util.db.object.ObjectsDB;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.Identification;
+import com.compomics.util.experiment.identification.matches.ModificationMatch;
+import com.compomics.util.experiment.identification.matches.ProteinMatch;
+import com.compomics.util.experiment.identification.matches.SpectrumMatch;
+import com.compomics.util.experiment.personalization.ExperimentObject;
+import com.compomics.util.experiment.personalization.KeyBuilder;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+
+/**
+ * Tests the keys of the experiment objects.
+ *
+ * @author Marc Vaudel
+ */
+public class KeyBuilderTest extends TestCase {
+
+    /**
+     * Tests the key builder.
+     */
+    public void testKeyBuilder() {
+
+        KeyBuilder keyBuilder = new KeyBuilder();
+
+        // Keys do not depend on how the content is appended
+        String content = "PEPTIDEKPEPTIDERPEPTIDE";
+        long key = keyBuilder.append(content).getKey();
+        Assert.assertEquals(key, KeyBuilder.getKey(content));
+        Assert.assertEquals(key, keyBuilder.reset().append(content, 0, 5).append(content, 5, content.length()).getKey());
+        Assert.assertEquals(key, keyBuilder.getKey());
+        Assert.assertNotEquals(key, keyBuilder.getHighKey());
+        Assert.assertNotEquals(key, keyBuilder.append('A').getKey());
+        Assert.assertNotEquals(KeyBuilder.getKey(""), KeyBuilder.getKey("\u0000"));
+
+        // No collision on random sequences
+        Random random = new Random(42);
+        char[] aminoAcids = "ACDEFGHIKLMNPQRSTVWY".toCharArray();
+        HashSet<Long> keys = new HashSet<>();
+        HashSet<String> sequences = new HashSet<>();
+
+        for (int i = 0; i < 100000; i++) {
+
+            char[] sequence = new char[6 + random.nextInt(20)];
+
+            for (int j = 0; j < sequence.length; j++) {
+                sequence[j] = aminoAcids[random.nextInt(aminoAcids.length)];
+            }
+
+            if (sequences.add(new String(sequence))) {
+                Assert.assertTrue(keys.add(KeyBuilder.getKey(new String(sequence))));
+            }
+        }
+    }
+
+    /**
+     * Tests the keys of the peptides and matches, in the current and legacy
+     * modes.
+     */
+    public void testMatchKeys() {
+
+        String sequence = "AMSPEPTLDEK";
+        ModificationMatch oxidation = new ModificationMatch("Oxidation of M", 2);
+        ModificationMatch phosphorylation = new ModificationMatch("Phosphorylation of S", 3);
+        ModificationMatch localizedPhosphorylation = new ModificationMatch("Phosphorylation of S", 3);
+        localizedPhosphorylation.setConfident(true);
+
+        long key = Peptide.getKey(sequence, new ModificationMatch[]{oxidation, phosphorylation});
+
+        Assert.assertEquals(key, Peptide.getKey(sequence, new ModificationMatch[]{phosphorylation, oxidation}));
+        Assert.assertNotEquals(key, Peptide.getKey(sequence, new ModificationMatch[]{oxidation, localizedPhosphorylation}));
+        Assert.assertNotEquals(key, Peptide.getKey(sequence, new ModificationMatch[]{oxidation}));
+        Assert.assertNotEquals(key, Peptide.getKey(sequence, null));
+        Assert.assertEquals(Peptide.getKey(sequence, null), Peptide.getKey(sequence, new ModificationMatch[0]));
+
+        // I and L are merged in the matching key when indistinguishable
+        Peptide peptideL = new Peptide(sequence, new ModificationMatch[]{oxidation}, false);
+        Peptide peptideI = new Peptide(sequence.replace('L', 'I'), new ModificationMatch[]{oxidation}, false);
+        SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.getDefaultSequenceMatching();
+        Assert.assertEquals(peptideL.getMatchingKey(sequenceMatchingParameters), peptideI.getMatchingKey(sequenceMatchingParameters));
+        Assert.assertEquals(Peptide.getKey(peptideI.getSequence(), peptideI.getVariableModifications()), peptideI.getMatchingKey(sequenceMatchingParameters));
+
+        // Protein and spectrum match keys
+        Assert.assertNotEquals(ProteinMatch.getProteinMatchKey(Arrays.asList("AB", "C")), ProteinMatch.getProteinMatchKey(Arrays.asList("A", "BC")));
+        Assert.assertEquals(new ProteinMatch("P12345").getKey(), ProteinMatch.getProteinMatchKey(Arrays.asList("P12345")));
+        Assert.assertEquals(SpectrumMatch.getKey("run.mgf", "title"), SpectrumMatch.getKey("run.mgf.gz", "title"));
+        Assert.assertEquals(SpectrumMatch.getKey("run.mgf", "title"), SpectrumMatch.getKey("run", "title"));
+        Assert.assertNotEquals(SpectrumMatch.getKey("run.1.mgf", "title"), SpectrumMatch.getKey("run", "title"));
+
+        // Legacy keys
+        int legacy = KeyBuilder.LEGACY_KEY_VERSION;
+        Assert.assertEquals(ExperimentObject.asLong(sequence), Peptide.getKey(sequence, null, legacy));
+        Assert.assertEquals(Peptide.getLegacyKey(sequence, new ModificationMatch[]{oxidation}), Peptide.getKey(sequence, new ModificationMatch[]{oxidation}, legacy));
+        Assert.assertEquals(ExperimentObject.asLong("ABC"), ProteinMatch.getProteinMatchKey(Arrays.asList("AB", "C"), legacy));
+        Assert.assertEquals(ExperimentObject.asLong("runtitle"), SpectrumMatch.getKey("run.mgf", "title", legacy));
+        Assert.assertEquals(SpectrumMatch.getKey("run.mgf", "title"), SpectrumMatch.getKey("run.mgf", "title", KeyBuilder.KEY_VERSION));
+
+    }
+
+    /**
+     * Tests that the identification detects matches stored under the key of
+     * another match.
+     *
+     * @throws IOException exception thrown if an error occurred while creating
+     * the database
+     */
+    public void testKeyCollision() throws IOException {
+
+        // High keys depend on the content of the matches
+        SpectrumMatch spectrumMatch = new SpectrumMatch("run.mgf", "title");
+        Assert.assertEquals(spectrumMatch.getHighKey(), new SpectrumMatch("run.mgf", "title").getHighKey());
+        Assert.assertNotEquals(spectrumMatch.getHighKey(), new SpectrumMatch("run.mgf", "title2").getHighKey());
+        Assert.assertNotEquals(new ProteinMatch("P12345").getHighKey(), new ProteinMatch("P12346").getHighKey());
+
+        File folder = Files.createTempDirectory("keyBuilderTest").toFile();
+
+        try {
+
+            Identification identification = new Identification(new ObjectsDB(folder.getAbsolutePath(), "test.sqlite", true));
+            Assert.assertEquals(KeyBuilder.KEY_VERSION, identification.getKeyVersion());
+
+            ProteinMatch proteinMatch = new ProteinMatch("P12345");
+            identification.addProteinMatch(proteinMatch.getKey(), proteinMatch);
+
+            // Adding the same match again is not a collision
+            identification.addProteinMatch(proteinMatch.getKey(), proteinMatch);
+            identification.addProteinMatch(proteinMatch.getKey(), new ProteinMatch("P12345"));
+
+            // Another match under the same key is
+            try {
+
+                identification.addProteinMatch(proteinMatch.getKey(), new ProteinMatch("P12346"));
+                Assert.fail("Key collision not detected.");
+
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            HashMap<Long, Object> spectrumMatches = new HashMap<>(1);
+            spectrumMatches.put(proteinMatch.getKey(), spectrumMatch);
+
+            try {
+
+                identification.addSpectrumMatches(spectrumMatches, null, false);
+                Assert.fail("Key collision not detected.");
+
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+
+            identification.close(false);
+
+        } finally {
+
+            FileUtils.deleteDirectory(folder);
+
+        }
+    }
+
+    /**
+     * Tests that the keys of the matches are built according to the
+     * requested key version.
+     */
+    public void testKeyVersion() {
+
+        int legacy = KeyBuilder.LEGACY_KEY_VERSION;
+        SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.getDefaultSequenceMatching();
+
+        // The matching key is computed again when another version is requested
+        Peptide peptide = new Peptide("PEPTLDEK", new ModificationMatch[0], false);
+        long legacyKey = ExperimentObject.asLong("PEPTIDEK");
+        Assert.assertEquals(legacyKey, peptide.getMatchingKey(sequenceMatchingParameters, legacy));
+        Assert.assertNotEquals(legacyKey, peptide.getMatchingKey(sequenceMatchingParameters));
+        Assert.assertEquals(legacyKey, peptide.getMatchingKey(sequenceMatchingParameters, legacy));
+
+        // Matches built for a legacy project use legacy keys
+        SpectrumMatch spectrumMatch = new SpectrumMatch("run.mgf", "title", legacy);
+        Assert.assertEquals(SpectrumMatch.getKey("run.mgf", "title", legacy), spectrumMatch.getKey());
+        spectrumMatch.setSpectrumTitle("title2");
+        Assert.assertEquals(SpectrumMatch.getKey("run.mgf", "title2", legacy), spectrumMatch.getKey());
+        Assert.assertNotEquals(SpectrumMatch.getKey("run.mgf", "title2"), spectrumMatch.getKey());
+
+    }
+}
@@ -0,0 +1,220 @@
+package com.compomics.util.test.experiment;
+
+import com.compomics.util.experiment.biology.ions.impl.ElementaryIon;
+import com.compomics.util.experiment.biology.ions.impl.ReporterIon;
+import com.compomics.util.experiment.io.mass_spectrometry.cms.CmsFileReader;
+import com.compomics.util.experiment.io.mass_spectrometry.cms.CmsFileWriter;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.experiment.quantification.Quantification;
+import com.compomics.util.experiment.quantification.reporterion.Reagent;
+import com.compomics.util.experiment.quantification.reporterion.ReporterIntensityTable;
+import com.compomics.util.experiment.quantification.reporterion.ReporterIonExtractor;
+import com.compomics.util.experiment.quantification.reporterion.ReporterIonQuantification;
+import com.compomics.util.experiment.quantification.reporterion.ReporterMethod;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the extraction of reporter ion intensities.
+ *
+ * @author Marc Vaudel
+ */
+public class ReporterIonExtractorTest extends TestCase {
+
+    /**
+     * The reporter ions of the test method.
+     */
+    private static final ReporterIon[] REPORTER_IONS = new ReporterIon[]{
+        ReporterIon.TMT_126, ReporterIon.TMT_127N, ReporterIon.TMT_127C, ReporterIon.TMT_128N, ReporterIon.TMT_128C
+    };
+
+    /**
+     * Tests the extraction without isotope correction against a direct scan
+     * of the peaks, and the correction of a pure reagent signal.
+     *
+     * @throws Exception exception thrown if an error occurred while writing
+     * or reading the file
+     */
+    public void testExtraction() throws Exception {
+
+        ReporterMethod reporterMethod = getReporterMethod();
+        double tolerance = 0.003;
+
+        Random random = new Random(42);
+        int nSpectra = 2500;
+        Spectrum[] spectra = new Spectrum[nSpectra];
+
+        for (int i = 0; i < nSpectra; i++) {
+
+            ArrayList<double[]> peaks = new ArrayList<>();
+
+            for (ReporterIon reporterIon : REPORTER_IONS) {
+
+                if (random.nextDouble() < 0.9) {
+
+                    double mz = reporterIon.getTheoreticMass() + ElementaryIon.proton.getTheoreticMass() + (random.nextDouble() - 0.5) * tolerance;
+                    peaks.add(new double[]{mz, 1000.0 * random.nextDouble()});
+
+                }
+            }
+
+            for (int j = 0; j < 50; j++) {
+                peaks.add(new double[]{100.0 + 1000.0 * random.nextDouble(), 1000.0 * random.nextDouble()});
+            }
+
+            peaks.sort((a, b) -> Double.compare(a[0], b[0]));
+
+            double[] mz = new double[peaks.size()];
+            double[] intensities = new double[peaks.size()];
+
+            for (int j = 0; j < peaks.size(); j++) {
+
+                mz[j] = peaks.get(j)[0];
+                intensities[j] = peaks.get(j)[1];
+
+            }
+
+            spectra[i] = new Spectrum(new Precursor(i, 500.0, new int[]{2}), mz, intensities, i % 10 == 0 ? 1 : 2);
+
+        }
+
+        File cmsFile = File.createTempFile("reporterTest", ".cms");
+
+        try {
+
+            try (CmsFileWriter writer = new CmsFileWriter(cmsFile)) {
+
+                for (int i = 0; i < nSpectra; i++) {
+                    writer.addSpectrum("Spectrum " + i, spectra[i]);
+                }
+            }
+
+            try (CmsFileReader reader = new CmsFileReader(cmsFile, null)) {
+
+                ReporterIonExtractor extractor = new ReporterIonExtractor(reporterMethod, tolerance, false, false);
+                ReporterIntensityTable table = extractor.extract(reader, null, 4, null);
+                String[] reagentNames = table.getReagentNames();
+
+                Assert.assertEquals(nSpectra, table.getNSpectra());
+
+                for (int i = 0; i < nSpectra; i++) {
+
+                    double[] intensities = table.getIntensities("Spectrum " + i);
+
+                    for (int k = 0; k < reagentNames.length; k++) {
+
+                        ReporterIon reporterIon = reporterMethod.getReagent(reagentNames[k]).getReporterIon();
+                        double expected = 0.0;
+
+                        if (spectra[i].getSpectrumLevel() == 1) {
+
+                            expected = Double.NaN;
+
+                        } else {
+
+                            double reporterMz = reporterIon.getTheoreticMass() + ElementaryIon.proton.getTheoreticMass();
+
+                            for (int j = 0; j < spectra[i].mz.length; j++) {
+
+                                if (Math.abs(spectra[i].mz[j] - reporterMz) <= tolerance) {
+                                    expected = Math.max(expected, spectra[i].intensity[j]);
+                                }
+                            }
+                        }
+
+                        Assert.assertEquals(expected, intensities[k], 0.0);
+
+                    }
+                }
+
+                ReporterIntensityTable singleThreadTable = extractor.extract(reader, null, 1, null);
+
+                for (int k = 0; k < reagentNames.length; k++) {
+                    Assert.assertArrayEquals(table.getColumn(k), singleThreadTable.getColumn(k), 0.0);
+                }
+
+                // Normalization factors
+                ReporterIonQuantification reporterIonQuantification = new ReporterIonQuantification(Quantification.QuantificationMethod.REPORTER_IONS);
+
+                for (String reagentName : reagentNames) {
+                    reporterIonQuantification.assignSample(reagentName, "sample_" + reagentName);
+                }
+
+                table.setPsmNormalizationFactors(reporterIonQuantification);
+                double[] medians = table.getMedianIntensities();
+                double[] sortedMedians = medians.clone();
+                Arrays.sort(sortedMedians);
+
+                for (int k = 0; k < reagentNames.length; k++) {
+
+                    double factor = reporterIonQuantification.getNormalizationFactors().getPsmNormalisationFactor("sample_" + reagentNames[k]);
+                    Assert.assertEquals(medians[k] / sortedMedians[2], factor, 1e-12);
+
+                }
+            }
+
+        } finally {
+
+            cmsFile.delete();
+
+        }
+    }
+
+    /**
+     * Tests that the isotope correction recovers the signal of a single
+     * reagent including its impurities.
+     */
+    public void testCorrection() {
+
+        ReporterMethod reporterMethod = getReporterMethod();
+        ReporterIonExtractor extractor = new ReporterIonExtractor(reporterMethod, 0.003, false, true);
+        String[] reagentNames = extractor.getReagentNames();
+
+        // Signal of 1000 of the 127C reagent: 2% at -1 on 126, 95% on 127C, 3% at +1 on 128C
+        double[] mz = new double[reagentNames.length];
+        double[] intensities = new double[]{20.0, 0.0, 950.0, 0.0, 30.0};
+
+        for (int k = 0; k < reagentNames.length; k++) {
+            mz[k] = reporterMethod.getReagent(reagentNames[k]).getReporterIon().getTheoreticMass() + ElementaryIon.proton.getTheoreticMass();
+        }
+
+        double[] corrected = extractor.getIntensities(mz, intensities);
+
+        Assert.assertEquals(0.0, corrected[0], 1e-6);
+        Assert.assertEquals(0.0, corrected[1], 1e-6);
+        Assert.assertEquals(1000.0, corrected[2], 1e-6);
+        Assert.assertEquals(0.0, corrected[3], 1e-6);
+        Assert.assertEquals(0.0, corrected[4], 1e-6);
+
+    }
+
+    /**
+     * Returns a five-plex TMT method where every reagent has 2% of its signal
+     * at -1 Da and 3% at +1 Da.
+     *
+     * @return a five-plex TMT method
+     */
+    private static ReporterMethod getReporterMethod() {
+
+        ArrayList<Reagent> reagents = new ArrayList<>(REPORTER_IONS.length);
+
+        for (ReporterIon reporterIon : REPORTER_IONS) {
+
+            Reagent reagent = new Reagent();
+            reagent.setName(reporterIon.getName());
+            reagent.setReporterIon(reporterIon);
+            reagent.setMinus1(2.0);
+            reagent.setPlus1(3.0);
+            reagents.add(reagent);
+
+        }
+
+        return new ReporterMethod("TMT 5", reagents);
+
+    }
+}
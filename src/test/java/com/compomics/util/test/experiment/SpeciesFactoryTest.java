@@ -0,0 +1,102 @@
+package com.compomics.util.test.experiment;
+
+import com.compomics.util.experiment.biology.taxonomy.SpeciesFactory;
+import com.compomics.util.experiment.biology.taxonomy.mappings.EnsemblSpecies;
+import com.compomics.util.experiment.biology.taxonomy.mappings.UniprotTaxonomy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.HashSet;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+
+/**
+ * Tests the loading of the taxonomy mappings by the species factory.
+ *
+ * @author Marc Vaudel
+ */
+public class SpeciesFactoryTest extends TestCase {
+
+    /**
+     * Tests that the mappings loaded from the binary snapshot are the same as
+     * the ones parsed from the mapping files, and that the snapshot is
+     * rewritten when a mapping file changes.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testSnapshot() throws IOException {
+
+        File configFolder = Files.createTempDirectory("species").toFile();
+
+        try {
+
+            File sourceConfigFolder = new File(".");
+            FileUtils.copyFile(SpeciesFactory.getEnsemblSpeciesFile(sourceConfigFolder), SpeciesFactory.getEnsemblSpeciesFile(configFolder), true);
+            FileUtils.copyFile(SpeciesFactory.getUniprotTaxonomyFile(sourceConfigFolder), SpeciesFactory.getUniprotTaxonomyFile(configFolder), true);
+            FileUtils.copyFile(SpeciesFactory.getBiomartEnsemblMappingFile(sourceConfigFolder), SpeciesFactory.getBiomartEnsemblMappingFile(configFolder), true);
+
+            File snapshotFile = SpeciesFactory.getTaxonomySnapshotFile(configFolder);
+            Assert.assertFalse(snapshotFile.exists());
+
+            SpeciesFactory speciesFactory = SpeciesFactory.getInstance();
+            speciesFactory.initiate(configFolder);
+
+            Assert.assertTrue(snapshotFile.exists());
+
+            EnsemblSpecies parsedEnsemblSpecies = speciesFactory.getEnsemblSpecies();
+            UniprotTaxonomy parsedUniprotTaxonomy = speciesFactory.getUniprotTaxonomy();
+            HashMap<String, HashSet<String>> parsedSpecies = speciesFactory.getEnsembleSpecies();
+            String parsedHumanDataset = speciesFactory.getEnsemblDataset("homo_sapiens");
+            String parsedHumanName = speciesFactory.getLatinName(9606);
+
+            Assert.assertNotNull(parsedHumanName);
+
+            long snapshotLastModified = snapshotFile.lastModified();
+            speciesFactory.initiate(configFolder);
+
+            Assert.assertEquals(snapshotLastModified, snapshotFile.lastModified());
+            Assert.assertNotSame(parsedEnsemblSpecies, speciesFactory.getEnsemblSpecies());
+            Assert.assertEquals(parsedSpecies, speciesFactory.getEnsembleSpecies());
+            Assert.assertEquals(parsedHumanDataset, speciesFactory.getEnsemblDataset("homo_sapiens"));
+            Assert.assertEquals(parsedHumanName, speciesFactory.getLatinName(9606));
+
+            EnsemblSpecies ensemblSpecies = speciesFactory.getEnsemblSpecies();
+            UniprotTaxonomy uniprotTaxonomy = speciesFactory.getUniprotTaxonomy();
+
+            for (String latinName : parsedEnsemblSpecies.getLatinNames()) {
+
+                Assert.assertEquals(parsedEnsemblSpecies.getCommonName(latinName), ensemblSpecies.getCommonName(latinName));
+                Assert.assertEquals(parsedEnsemblSpecies.getDivision(latinName), ensemblSpecies.getDivision(latinName));
+                Assert.assertEquals(parsedEnsemblSpecies.getAssembly(latinName), ensemblSpecies.getAssembly(latinName));
+                Assert.assertEquals(parsedEnsemblSpecies.getTaxon(latinName), ensemblSpecies.getTaxon(latinName));
+
+                String taxon = parsedEnsemblSpecies.getTaxon(latinName);
+
+                if (taxon != null && taxon.matches("[0-9]+")) {
+
+                    Integer id = Integer.valueOf(taxon);
+                    Assert.assertEquals(parsedUniprotTaxonomy.getLatinName(id), uniprotTaxonomy.getLatinName(id));
+                    Assert.assertEquals(parsedUniprotTaxonomy.getCommonName(id), uniprotTaxonomy.getCommonName(id));
+
+                }
+            }
+
+            // a modified mapping file invalidates the snapshot
+            File biomartFile = SpeciesFactory.getBiomartEnsemblMappingFile(configFolder);
+            Assert.assertTrue(biomartFile.setLastModified(biomartFile.lastModified() - 10000));
+            speciesFactory.initiate(configFolder);
+
+            Assert.assertEquals(parsedHumanDataset, speciesFactory.getEnsemblDataset("homo_sapiens"));
+            speciesFactory.initiate(configFolder);
+            Assert.assertEquals(parsedHumanDataset, speciesFactory.getEnsemblDataset("homo_sapiens"));
+
+        } finally {
+
+            FileUtils.deleteDirectory(configFolder);
+
+        }
+    }
+}
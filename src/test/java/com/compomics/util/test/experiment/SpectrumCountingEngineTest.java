@@ -0,0 +1,219 @@
+package com.compomics.util.test.experiment;
+
+import com.compomics.util.db.object.ObjectsDB;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.Advocate;
+import com.compomics.util.experiment.identification.Identification;
+import com.compomics.util.experiment.identification.IdentificationMatch;
+import com.compomics.util.experiment.identification.features.IdentificationFeaturesGenerator;
+import com.compomics.util.experiment.identification.matches.SpectrumMatch;
+import com.compomics.util.experiment.identification.peptide_shaker.PSParameter;
+import com.compomics.util.experiment.identification.protein_inference.PeptideAndProteinBuilder;
+import com.compomics.util.experiment.identification.spectrum_assumptions.PeptideAssumption;
+import com.compomics.util.experiment.identification.validation.MatchValidationLevel;
+import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
+import com.compomics.util.experiment.quantification.spectrumcounting.SpectrumCountingEngine;
+import com.compomics.util.experiment.quantification.spectrumcounting.SpectrumCountingMethod;
+import com.compomics.util.experiment.quantification.spectrumcounting.SpectrumCountingResults;
+import com.compomics.util.parameters.identification.IdentificationParameters;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.parameters.identification.search.DigestionParameters;
+import com.compomics.util.parameters.identification.search.SearchParameters;
+import com.compomics.util.parameters.quantification.spectrum_counting.SpectrumCountingParameters;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.TreeMap;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+
+/**
+ * Tests the estimation of spectrum counting values for all proteins at once.
+ *
+ * @author Marc Vaudel
+ */
+public class SpectrumCountingEngineTest extends TestCase {
+
+    /**
+     * The peptide sequences.
+     */
+    private static final String[] SEQUENCES = {"PEPTIDEK", "PEPTGDEK", "ELVISK", "LIVESK", "TESTPEPTIDER", "ANDTHENSQMER"};
+    /**
+     * The protein sequences.
+     */
+    private static final HashMap<String, String> PROTEINS = new HashMap<>();
+
+    static {
+
+        PROTEINS.put("PROT0", "MKPEPTIDEKPEPTGDEKAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAARGGGG");
+        PROTEINS.put("PROT1", "MRELVISKLIVESKWWWWRPPPPPPK");
+        PROTEINS.put("PROT2", "MKTESTPEPTIDERANDTHENSQMERKKRRK");
+        PROTEINS.put("PROT_SHARED", "PEPTIDEKSHAREDPEPTIDEKR");
+
+    }
+
+    /**
+     * Tests that the values estimated in bulk are the same as the ones
+     * estimated one protein at a time.
+     *
+     * @throws Exception exception thrown if an error occurred while creating
+     * the database or estimating the values
+     */
+    public void testSpectrumCounting() throws Exception {
+
+        File folder = Files.createTempDirectory("spectrumCountingEngineTest").toFile();
+
+        try {
+
+            SequenceProvider sequenceProvider = new TestSequenceProvider();
+            Identification identification = new Identification(new ObjectsDB(folder.getAbsolutePath(), "test.sqlite", true));
+
+            ArrayList<SpectrumMatch> spectrumMatches = getSpectrumMatches(300);
+            HashMap<Long, Object> spectrumMatchesMap = new HashMap<>(spectrumMatches.size());
+
+            for (SpectrumMatch spectrumMatch : spectrumMatches) {
+                spectrumMatchesMap.put(spectrumMatch.getKey(), spectrumMatch);
+            }
+
+            identification.addSpectrumMatches(spectrumMatchesMap, null, false);
+            new PeptideAndProteinBuilder(identification).buildPeptidesAndProteins(spectrumMatches, SequenceMatchingParameters.getDefaultSequenceMatching(), sequenceProvider, true, 2, null);
+
+            MatchValidationLevel[] levels = new MatchValidationLevel[]{MatchValidationLevel.confident, MatchValidationLevel.doubtful, MatchValidationLevel.not_validated};
+            int i = 0;
+
+            for (HashSet<Long> keys : new ArrayList<HashSet<Long>>() {
+                {
+                    add(identification.getSpectrumIdentificationKeys());
+                    add(identification.getPeptideIdentification());
+                    add(identification.getProteinIdentification());
+                }
+            }) {
+
+                for (long key : keys) {
+
+                    IdentificationMatch match = (IdentificationMatch) identification.retrieveObject(key);
+                    PSParameter psParameter = new PSParameter();
+                    psParameter.setMatchValidationLevel(levels[i++ % levels.length]);
+                    match.addUrParam(psParameter);
+                    identification.updateObject(key, match);
+
+                }
+            }
+
+            SearchParameters searchParameters = new SearchParameters();
+            searchParameters.setDigestionParameters(DigestionParameters.getDefaultParameters());
+            IdentificationParameters identificationParameters = new IdentificationParameters(searchParameters);
+
+            for (SpectrumCountingMethod method : new SpectrumCountingMethod[]{SpectrumCountingMethod.NSAF, SpectrumCountingMethod.EMPAI}) {
+
+                SpectrumCountingParameters spectrumCountingParameters = new SpectrumCountingParameters();
+                spectrumCountingParameters.setSelectedMethod(method);
+                spectrumCountingParameters.setMatchValidationLevel(MatchValidationLevel.doubtful.getIndex());
+
+                SpectrumCountingResults results = new SpectrumCountingEngine(spectrumCountingParameters, identificationParameters)
+                        .estimate(identification, sequenceProvider, 3, null);
+
+                Assert.assertEquals(identification.getProteinIdentification().size(), results.size());
+                double total = 0.0;
+
+                for (long proteinKey : identification.getProteinIdentification()) {
+
+                    double expected = IdentificationFeaturesGenerator.estimateSpectrumCounting(
+                            identification,
+                            sequenceProvider,
+                            proteinKey,
+                            spectrumCountingParameters,
+                            identificationParameters.getPeptideAssumptionFilter().getMaxPepLength(),
+                            identificationParameters
+                    );
+
+                    Assert.assertEquals(expected, results.getSpectrumCounting(proteinKey), 1e-12);
+                    total += expected;
+
+                }
+
+                Assert.assertTrue(total > 0.0);
+            }
+
+            identification.close(false);
+
+        } finally {
+
+            FileUtils.deleteDirectory(folder);
+
+        }
+    }
+
+    /**
+     * Returns spectrum matches with a best peptide assumption.
+     *
+     * @param n the number of spectrum matches
+     *
+     * @return the spectrum matches
+     */
+    private static ArrayList<SpectrumMatch> getSpectrumMatches(int n) {
+
+        ArrayList<SpectrumMatch> result = new ArrayList<>(n);
+
+        for (int i = 0; i < n; i++) {
+
+            int peptideIndex = (i * 7) % SEQUENCES.length;
+
+            Peptide peptide = new Peptide(SEQUENCES[peptideIndex]);
+            TreeMap<String, int[]> proteinMapping = new TreeMap<>();
+            String accession = "PROT" + (peptideIndex / 2);
+            proteinMapping.put(accession, new int[]{PROTEINS.get(accession).indexOf(SEQUENCES[peptideIndex])});
+
+            if (peptideIndex == 0) {
+                proteinMapping.put("PROT_SHARED", new int[]{0, 14});
+            }
+
+            peptide.setProteinMapping(proteinMapping);
+
+            SpectrumMatch spectrumMatch = new SpectrumMatch("spectrum_file", "spectrum_" + i);
+            PeptideAssumption peptideAssumption = new PeptideAssumption(peptide, 1, Advocate.mascot.getIndex(), 2, 0.1, 0.1, "no file");
+            spectrumMatch.addPeptideAssumption(Advocate.mascot.getIndex(), peptideAssumption);
+            spectrumMatch.setBestPeptideAssumption(peptideAssumption);
+            result.add(spectrumMatch);
+
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Sequence provider for the test proteins.
+     */
+    private static class TestSequenceProvider implements SequenceProvider {
+
+        @Override
+        public Collection<String> getAccessions() {
+            return PROTEINS.keySet();
+        }
+
+        @Override
+        public HashSet<String> getDecoyAccessions() {
+            return new HashSet<>(0);
+        }
+
+        @Override
+        public String getSequence(String proteinAccession) {
+            return PROTEINS.get(proteinAccession);
+        }
+
+        @Override
+        public String getSubsequence(String accession, int start, int end) {
+            return PROTEINS.get(accession).substring(start, end);
+        }
+
+        @Override
+        public String getHeaderAsString(String proteinAccession) {
+            return null;
+        }
+    }
+}
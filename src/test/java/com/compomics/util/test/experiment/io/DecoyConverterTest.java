@@ -0,0 +1,126 @@
+package com.compomics.util.test.experiment.io;
+
+import com.compomics.util.experiment.biology.enzymes.EnzymeFactory;
+import com.compomics.util.experiment.biology.proteins.Protein;
+import com.compomics.util.experiment.io.biology.protein.FastaIndex;
+import com.compomics.util.experiment.io.biology.protein.FastaParameters;
+import com.compomics.util.experiment.io.biology.protein.FastaSummary;
+import com.compomics.util.experiment.io.biology.protein.converters.DecoyConverter;
+import com.compomics.util.experiment.io.biology.protein.converters.DecoyMethod;
+import com.compomics.util.experiment.io.biology.protein.iterators.FastaIterator;
+import com.compomics.util.gui.waiting.waitinghandlers.WaitingHandlerDummy;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the generation of decoy sequences.
+ *
+ * @author Marc Vaudel
+ */
+public class DecoyConverterTest extends TestCase {
+
+    /**
+     * Tests the parallel generation of reversed decoys and the offset index.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testReverse() throws IOException {
+
+        File fastaIn = new File("src/test/resources/experiment/testSequences.fasta");
+        File fastaOut = File.createTempFile("decoyConverterTest", ".fasta");
+        fastaOut.deleteOnExit();
+        FastaIndex.getIndexFile(fastaOut).deleteOnExit();
+
+        FastaParameters fastaParameters = new FastaParameters();
+
+        FastaSummary fastaSummary = DecoyConverter.appendDecoySequences(fastaIn, fastaOut, fastaParameters, DecoyMethod.reverse, null, 4, null);
+
+        ArrayList<Protein> targetProteins = new ArrayList<>();
+        FastaIterator fastaIterator = new FastaIterator(fastaIn);
+        Protein protein;
+        while ((protein = fastaIterator.getNextProtein()) != null) {
+            targetProteins.add(protein);
+        }
+
+        Assert.assertEquals(2 * targetProteins.size(), fastaSummary.nSequences);
+        Assert.assertEquals(targetProteins.size(), fastaSummary.nTarget);
+
+        fastaIterator = new FastaIterator(fastaOut);
+        for (Protein targetProtein : targetProteins) {
+
+            Protein target = fastaIterator.getNextProtein();
+            Protein decoy = fastaIterator.getNextProtein();
+
+            Assert.assertEquals(targetProtein.getSequence(), target.getSequence());
+            Assert.assertEquals(new StringBuilder(targetProtein.getSequence()).reverse().toString(), decoy.getSequence());
+            Assert.assertEquals(targetProtein.getAccession() + fastaParameters.getDecoyFlag(), decoy.getAccession());
+
+        }
+        Assert.assertNull(fastaIterator.getNextProtein());
+
+        FastaIndex fastaIndex = FastaIndex.load(fastaOut);
+        Assert.assertNotNull(fastaIndex);
+        Assert.assertEquals(fastaSummary.nSequences, fastaIndex.getNProteins());
+
+        try (RandomAccessFile raf = new RandomAccessFile(fastaOut, "r")) {
+
+            for (int i = 0; i < fastaIndex.getNProteins(); i++) {
+
+                raf.seek(fastaIndex.getOffset(i));
+                Assert.assertEquals('>', (char) raf.read());
+                Assert.assertEquals(targetProteins.get(i / 2).getLength(), fastaIndex.getLength(i));
+
+            }
+        }
+    }
+
+    /**
+     * Tests that no partial target-decoy file is left behind when the
+     * generation is canceled.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testCanceled() throws IOException {
+
+        File fastaIn = new File("src/test/resources/experiment/testSequences.fasta");
+        File fastaOut = File.createTempFile("decoyConverterTest", ".fasta");
+        fastaOut.deleteOnExit();
+        FastaIndex.getIndexFile(fastaOut).deleteOnExit();
+
+        WaitingHandlerDummy waitingHandler = new WaitingHandlerDummy();
+        waitingHandler.setRunCanceled();
+
+        FastaSummary fastaSummary = DecoyConverter.appendDecoySequences(fastaIn, fastaOut, new FastaParameters(), DecoyMethod.reverse, null, 4, waitingHandler);
+
+        Assert.assertNull(fastaSummary);
+        Assert.assertFalse(fastaOut.exists());
+        Assert.assertFalse(FastaIndex.getIndexFile(fastaOut).exists());
+
+    }
+
+    /**
+     * Tests that pseudo-reversed and shuffled decoys keep the cleavage sites
+     * in place.
+     */
+    public void testCleavageSites() {
+
+        char[] sequence = "MKTESTRPEPTIDEK".toCharArray();
+
+        char[] decoySequence = DecoyConverter.getDecoySequence(sequence, DecoyMethod.pseudoReverse, EnzymeFactory.getInstance().getEnzyme("Trypsin"), null);
+        Assert.assertEquals("MKTSETREDITPEPK", new String(decoySequence));
+
+        decoySequence = DecoyConverter.getDecoySequence(sequence, DecoyMethod.shuffle, EnzymeFactory.getInstance().getEnzyme("Trypsin"), new Random(0));
+        Assert.assertEquals(sequence.length, decoySequence.length);
+        Assert.assertEquals('K', decoySequence[1]);
+        Assert.assertEquals('R', decoySequence[6]);
+        Assert.assertEquals('K', decoySequence[14]);
+
+    }
+}
@@ -0,0 +1,252 @@
+package com.compomics.util.test.experiment.io;
+
+import com.compomics.util.experiment.biology.proteins.Protein;
+import com.compomics.util.experiment.io.biology.protein.FastaIndex;
+import com.compomics.util.experiment.io.biology.protein.FastaSummary;
+import com.compomics.util.experiment.io.biology.protein.converters.GeneticCode;
+import com.compomics.util.experiment.io.biology.protein.converters.NucleotideTranslator;
+import com.compomics.util.experiment.io.biology.protein.converters.TranslationMode;
+import com.compomics.util.experiment.io.biology.protein.iterators.FastaIterator;
+import com.compomics.util.gui.waiting.waitinghandlers.WaitingHandlerDummy;
+import com.compomics.util.nucleotide.NucleotideSequenceImpl;
+import com.compomics.util.protein.AASequenceImpl;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the translation of nucleotide sequences.
+ *
+ * @author Marc Vaudel
+ */
+public class NucleotideTranslatorTest extends TestCase {
+
+    /**
+     * Tests the six-frame translation against the legacy translation,
+     * including a sequence longer than a chunk.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testSixFrame() throws IOException {
+
+        Random random = new Random(42);
+        String[] sequences = new String[]{
+            getRandomSequence(random, 1200000),
+            getRandomSequence(random, 5000),
+            "ATGAAATAGNNNCCCTGAAAA",
+            getRandomSequence(random, 100)
+        };
+
+        File fastaIn = writeNucleotideFasta(sequences);
+        File fastaOut = File.createTempFile("translatorTest", ".fasta");
+        fastaOut.deleteOnExit();
+        FastaIndex.getIndexFile(fastaOut).deleteOnExit();
+
+        int minimalLength = 8;
+        FastaSummary fastaSummary = NucleotideTranslator.translate(fastaIn, fastaOut, GeneticCode.standard, TranslationMode.sixFrame, minimalLength, 4, null);
+
+        ArrayList<String> expected = new ArrayList<>();
+
+        for (String sequence : sequences) {
+
+            for (AASequenceImpl frame : new NucleotideSequenceImpl(sequence).translate()) {
+
+                for (String segment : frame.getSequence().split("_", -1)) {
+
+                    if (segment.length() >= minimalLength) {
+                        expected.add(segment);
+                    }
+                }
+            }
+        }
+
+        ArrayList<String> translated = new ArrayList<>();
+        FastaIterator fastaIterator = new FastaIterator(fastaOut);
+        Protein protein;
+
+        while ((protein = fastaIterator.getNextProtein()) != null) {
+
+            translated.add(protein.getSequence());
+
+            // The accession gives the coordinates of the translated nucleotides
+            String accession = protein.getAccession();
+            String[] split = accession.split("_");
+            int sequenceIndex = Integer.parseInt(split[0].substring(3));
+            String[] coordinates = split[2].split("-");
+            String nucleotides = sequences[sequenceIndex].substring(Integer.parseInt(coordinates[0]) - 1, Integer.parseInt(coordinates[1]));
+            NucleotideSequenceImpl nucleotideSequence = new NucleotideSequenceImpl(nucleotides);
+
+            if (split[1].charAt(0) == '-') {
+                nucleotideSequence = new NucleotideSequenceImpl(nucleotideSequence.getReverseComplementary());
+            }
+
+            Assert.assertEquals(protein.getSequence(), nucleotideSequence.translate()[0].getSequence());
+
+        }
+
+        Collections.sort(expected);
+        Collections.sort(translated);
+        Assert.assertEquals(expected, translated);
+
+        Assert.assertEquals(expected.size(), fastaSummary.nSequences);
+
+        FastaIndex fastaIndex = FastaIndex.load(fastaOut);
+        Assert.assertNotNull(fastaIndex);
+        Assert.assertEquals(fastaSummary.nSequences, fastaIndex.getNProteins());
+
+        try (RandomAccessFile raf = new RandomAccessFile(fastaOut, "r")) {
+
+            for (int i = 0; i < fastaIndex.getNProteins(); i++) {
+
+                raf.seek(fastaIndex.getOffset(i));
+                Assert.assertEquals('>', (char) raf.read());
+
+            }
+        }
+
+        // The output does not depend on the number of threads
+        File singleThreadOut = File.createTempFile("translatorTest", ".fasta");
+        singleThreadOut.deleteOnExit();
+        FastaIndex.getIndexFile(singleThreadOut).deleteOnExit();
+
+        NucleotideTranslator.translate(fastaIn, singleThreadOut, GeneticCode.standard, TranslationMode.sixFrame, minimalLength, 1, null);
+        Assert.assertTrue(Arrays.equals(Files.readAllBytes(fastaOut.toPath()), Files.readAllBytes(singleThreadOut.toPath())));
+
+    }
+
+    /**
+     * Tests the translation of open reading frames.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testOrf() throws IOException {
+
+        // Forward: stop, then a CTG alternative start, an ATG, and a stop
+        String sequence = "TAACCCCTGAAAATGGGGTTTTAACC";
+
+        File fastaIn = writeNucleotideFasta(new String[]{sequence});
+        File fastaOut = File.createTempFile("translatorTest", ".fasta");
+        fastaOut.deleteOnExit();
+        FastaIndex.getIndexFile(fastaOut).deleteOnExit();
+
+        NucleotideTranslator.translate(fastaIn, fastaOut, GeneticCode.standard, TranslationMode.orf, 3, 2, null);
+
+        ArrayList<Protein> proteins = new ArrayList<>();
+        FastaIterator fastaIterator = new FastaIterator(fastaOut);
+        Protein protein;
+
+        while ((protein = fastaIterator.getNextProtein()) != null) {
+            proteins.add(protein);
+        }
+
+        Assert.assertEquals("seq0_+1_7-21", proteins.get(0).getAccession());
+        Assert.assertEquals("MKMGF", proteins.get(0).getSequence());
+
+        for (Protein orf : proteins) {
+            Assert.assertEquals('M', orf.getSequence().charAt(0));
+        }
+
+        // With the ciliate code, only ATG starts and TAA is not a stop
+        NucleotideTranslator.translate(fastaIn, fastaOut, GeneticCode.ciliateNuclear, TranslationMode.orf, 3, 2, null);
+
+        fastaIterator = new FastaIterator(fastaOut);
+        protein = fastaIterator.getNextProtein();
+
+        Assert.assertEquals("seq0_+1_13-24", protein.getAccession());
+        Assert.assertEquals("MGFQ", protein.getSequence());
+
+    }
+
+    /**
+     * Tests that no partial protein file is left behind when the translation
+     * is canceled.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     */
+    public void testCanceled() throws IOException {
+
+        File fastaIn = writeNucleotideFasta(new String[]{getRandomSequence(new Random(42), 5000)});
+        File fastaOut = File.createTempFile("translatorTest", ".fasta");
+        fastaOut.deleteOnExit();
+        FastaIndex.getIndexFile(fastaOut).deleteOnExit();
+
+        WaitingHandlerDummy waitingHandler = new WaitingHandlerDummy();
+        waitingHandler.setRunCanceled();
+
+        FastaSummary fastaSummary = NucleotideTranslator.translate(fastaIn, fastaOut, GeneticCode.standard, TranslationMode.sixFrame, 8, 4, waitingHandler);
+
+        Assert.assertNull(fastaSummary);
+        Assert.assertFalse(fastaOut.exists());
+        Assert.assertFalse(FastaIndex.getIndexFile(fastaOut).exists());
+
+    }
+
+    /**
+     * Writes the given sequences to a temporary nucleotide FASTA file, named
+     * seq0, seq1, etc.
+     *
+     * @param sequences the sequences
+     *
+     * @return the FASTA file
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * the file
+     */
+    private static File writeNucleotideFasta(String[] sequences) throws IOException {
+
+        File fastaIn = File.createTempFile("translatorTest", ".fna");
+        fastaIn.deleteOnExit();
+
+        try (BufferedWriter bw = new BufferedWriter(new FileWriter(fastaIn))) {
+
+            for (int i = 0; i < sequences.length; i++) {
+
+                bw.write(">seq" + i + " test sequence " + i);
+                bw.newLine();
+
+                for (int j = 0; j < sequences[i].length(); j += 60) {
+
+                    bw.write(sequences[i], j, Math.min(60, sequences[i].length() - j));
+                    bw.newLine();
+
+                }
+            }
+        }
+
+        return fastaIn;
+
+    }
+
+    /**
+     * Returns a random nucleotide sequence.
+     *
+     * @param random the random number generator
+     * @param length the length of the sequence
+     *
+     * @return a random nucleotide sequence
+     */
+    private static String getRandomSequence(Random random, int length) {
+
+        char[] nucleotides = "ACGT".toCharArray();
+        char[] sequence = new char[length];
+
+        for (int i = 0; i < length; i++) {
+            sequence[i] = nucleotides[random.nextInt(nucleotides.length)];
+        }
+
+        return new String(sequence);
+
+    }
+}
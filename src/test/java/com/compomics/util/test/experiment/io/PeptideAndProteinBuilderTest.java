@@ -0,0 +1,286 @@
+package com.compomics.util.test.experiment.io;
+
+import com.compomics.util.db.object.ObjectsDB;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.Advocate;
+import com.compomics.util.experiment.identification.Identification;
+import com.compomics.util.experiment.identification.matches.PeptideMatch;
+import com.compomics.util.experiment.identification.matches.ProteinMatch;
+import com.compomics.util.experiment.identification.matches.SpectrumMatch;
+import com.compomics.util.experiment.identification.protein_inference.PeptideAndProteinBuilder;
+import com.compomics.util.experiment.identification.spectrum_assumptions.PeptideAssumption;
+import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
+import com.compomics.util.experiment.personalization.ExperimentObject;
+import com.compomics.util.experiment.personalization.KeyBuilder;
+import com.compomics.util.general.LongHashSet;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.TreeMap;
+import junit.framework.Assert;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Tests the bulk building of peptide and protein matches.
+ *
+ * @author Marc Vaudel
+ */
+public class PeptideAndProteinBuilderTest extends TestCase {
+
+    /**
+     * The peptide sequences.
+     */
+    private static final String[] SEQUENCES = {"PEPTIDEK", "PEPTGDEK", "ELVISK", "LIVESK", "TESTPEPTIDER", "ANDTHENSQMER"};
+
+    /**
+     * Tests the primitive long set.
+     */
+    public void testLongHashSet() {
+
+        LongHashSet set = new LongHashSet();
+
+        for (long i = -1000; i < 1000; i++) {
+
+            Assert.assertTrue(set.add(i * 1024));
+
+        }
+
+        for (long i = -1000; i < 1000; i++) {
+
+            Assert.assertFalse(set.add(i * 1024));
+            Assert.assertTrue(set.contains(i * 1024));
+            Assert.assertFalse(set.contains(i * 1024 + 1));
+            Assert.assertEquals(i + 1000, set.indexOf(i * 1024));
+            Assert.assertEquals(-1, set.indexOf(i * 1024 + 1));
+
+        }
+
+        Assert.assertEquals(2000, set.size());
+        Assert.assertEquals(-1000 * 1024L, set.get(0));
+        Assert.assertEquals(999 * 1024L, set.toArray()[1999]);
+
+    }
+
+    /**
+     * Tests that the bulk building gives the same matches as the building of
+     * one spectrum match at a time, also when matches are already in the
+     * identification.
+     *
+     * @throws IOException exception thrown if an error occurred while
+     * creating the test folders
+     */
+    public void testBulkBuilding() throws IOException {
+
+        File folder = Files.createTempDirectory("peptideAndProteinBuilderTest").toFile();
+
+        try {
+
+            SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.getDefaultSequenceMatching();
+            SequenceProvider sequenceProvider = new DecoySequenceProvider();
+
+            ArrayList<SpectrumMatch> firstBatch = getSpectrumMatches(0, 200);
+            ArrayList<SpectrumMatch> secondBatch = getSpectrumMatches(200, 100);
+
+            Identification reference = new Identification(new ObjectsDB(folder.getAbsolutePath(), "reference.sqlite", true));
+            PeptideAndProteinBuilder referenceBuilder = new PeptideAndProteinBuilder(reference);
+
+            for (SpectrumMatch spectrumMatch : firstBatch) {
+                referenceBuilder.buildPeptidesAndProteins(spectrumMatch, sequenceMatchingParameters, sequenceProvider, true);
+            }
+            for (SpectrumMatch spectrumMatch : secondBatch) {
+                referenceBuilder.buildPeptidesAndProteins(spectrumMatch, sequenceMatchingParameters, sequenceProvider, true);
+            }
+
+            Identification identification = new Identification(new ObjectsDB(folder.getAbsolutePath(), "bulk.sqlite", true));
+            PeptideAndProteinBuilder builder = new PeptideAndProteinBuilder(identification);
+            builder.buildPeptidesAndProteins(firstBatch, sequenceMatchingParameters, sequenceProvider, true, 3, null);
+            builder.buildPeptidesAndProteins(secondBatch, sequenceMatchingParameters, sequenceProvider, true, 2, null);
+
+            Assert.assertEquals(reference.getPeptideIdentification(), identification.getPeptideIdentification());
+            Assert.assertEquals(reference.getProteinIdentification(), identification.getProteinIdentification());
+            Assert.assertEquals(reference.getProteinMap(), identification.getProteinMap());
+
+            for (long key : reference.getPeptideIdentification()) {
+
+                PeptideMatch expected = reference.getPeptideMatch(key);
+                PeptideMatch actual = identification.getPeptideMatch(key);
+                Assert.assertEquals(expected.getPeptide().getSequence(), actual.getPeptide().getSequence());
+                Assert.assertTrue(Arrays.equals(sorted(expected.getSpectrumMatchesKeys()), sorted(actual.getSpectrumMatchesKeys())));
+
+            }
+
+            for (long key : reference.getProteinIdentification()) {
+
+                ProteinMatch expected = reference.getProteinMatch(key);
+                ProteinMatch actual = identification.getProteinMatch(key);
+                Assert.assertTrue(Arrays.equals(expected.getAccessions(), actual.getAccessions()));
+                Assert.assertEquals(expected.isDecoy(), actual.isDecoy());
+                Assert.assertTrue(Arrays.equals(sorted(expected.getPeptideMatchesKeys()), sorted(actual.getPeptideMatchesKeys())));
+
+            }
+
+            reference.close(false);
+            identification.close(false);
+
+        } finally {
+
+            FileUtils.deleteDirectory(folder);
+
+        }
+    }
+
+    /**
+     * Tests that the matches of a project using legacy keys are built with
+     * legacy keys, one spectrum match at a time and in bulk.
+     *
+     * @throws IOException exception thrown if an error occurred while
+     * creating the test folders
+     */
+    public void testLegacyKeys() throws IOException {
+
+        File folder = Files.createTempDirectory("peptideAndProteinBuilderTest").toFile();
+
+        try {
+
+            SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.getDefaultSequenceMatching();
+            SequenceProvider sequenceProvider = new DecoySequenceProvider();
+
+            long peptideKey = ExperimentObject.asLong(SEQUENCES[0]);
+            long proteinKey = ExperimentObject.asLong("PROT0PROT_SHARED");
+
+            for (int nThreads = 1; nThreads <= 2; nThreads++) {
+
+                Identification identification = new Identification(new ObjectsDB(folder.getAbsolutePath(), "legacy" + nThreads + ".sqlite", true));
+                identification.getIdentificationKeys().keyVersion = KeyBuilder.LEGACY_KEY_VERSION;
+                PeptideAndProteinBuilder builder = new PeptideAndProteinBuilder(identification);
+
+                ArrayList<SpectrumMatch> spectrumMatches = getSpectrumMatches(0, 12);
+
+                if (nThreads == 1) {
+
+                    for (SpectrumMatch spectrumMatch : spectrumMatches) {
+                        builder.buildPeptidesAndProteins(spectrumMatch, sequenceMatchingParameters, sequenceProvider, true);
+                    }
+
+                } else {
+
+                    builder.buildPeptidesAndProteins(spectrumMatches, sequenceMatchingParameters, sequenceProvider, true, nThreads, null);
+
+                }
+
+                Assert.assertEquals(SEQUENCES.length, identification.getPeptideIdentification().size());
+                Assert.assertTrue(identification.getPeptideIdentification().contains(peptideKey));
+                Assert.assertEquals(2, identification.getPeptideMatch(peptideKey).getSpectrumMatchesKeys().length);
+
+                Assert.assertTrue(identification.getProteinIdentification().contains(proteinKey));
+                ProteinMatch proteinMatch = identification.getProteinMatch(proteinKey);
+                Assert.assertEquals(proteinKey, proteinMatch.getKey());
+                Assert.assertTrue(Arrays.equals(new long[]{peptideKey}, proteinMatch.getPeptideMatchesKeys()));
+
+                identification.close(false);
+
+            }
+
+        } finally {
+
+            FileUtils.deleteDirectory(folder);
+
+        }
+    }
+
+    /**
+     * Returns spectrum matches with a best peptide assumption.
+     *
+     * @param first the index of the first spectrum
+     * @param n the number of spectrum matches
+     *
+     * @return the spectrum matches
+     */
+    private static ArrayList<SpectrumMatch> getSpectrumMatches(int first, int n) {
+
+        ArrayList<SpectrumMatch> result = new ArrayList<>(n);
+
+        for (int i = first; i < first + n; i++) {
+
+            int peptideIndex = (i * 7) % SEQUENCES.length;
+
+            Peptide peptide = new Peptide(SEQUENCES[peptideIndex]);
+            TreeMap<String, int[]> proteinMapping = new TreeMap<>();
+            proteinMapping.put("PROT" + (peptideIndex / 2), new int[]{10 * peptideIndex});
+
+            if (peptideIndex == 0) {
+                proteinMapping.put("PROT_SHARED", new int[]{0});
+            }
+
+            peptide.setProteinMapping(proteinMapping);
+
+            SpectrumMatch spectrumMatch = new SpectrumMatch("spectrum_file", "spectrum_" + i);
+            PeptideAssumption peptideAssumption = new PeptideAssumption(peptide, 1, Advocate.mascot.getIndex(), 2, 0.1, 0.1, "no file");
+            spectrumMatch.addPeptideAssumption(Advocate.mascot.getIndex(), peptideAssumption);
+            spectrumMatch.setBestPeptideAssumption(peptideAssumption);
+            result.add(spectrumMatch);
+
+        }
+
+        return result;
+
+    }
+
+    /**
+     * Returns a sorted copy of the given array.
+     *
+     * @param array the array
+     *
+     * @return a sorted copy of the array
+     */
+    private static long[] sorted(long[] array) {
+
+        long[] result = array.clone();
+        Arrays.sort(result);
+
+        return result;
+
+    }
+
+    /**
+     * Sequence provider where PROT2 is a decoy.
+     */
+    private static class DecoySequenceProvider implements SequenceProvider {
+
+        /**
+         * The decoy accessions.
+         */
+        private final HashSet<String> decoyAccessions = new HashSet<>(Arrays.asList("PROT2"));
+
+        @Override
+        public Collection<String> getAccessions() {
+            return new HashSet<>(0);
+        }
+
+        @Override
+        public HashSet<String> getDecoyAccessions() {
+            return decoyAccessions;
+        }
+
+        @Override
+        public String getSequence(String proteinAccession) {
+            return null;
+        }
+
+        @Override
+        public String getSubsequence(String accession, int start, int end) {
+            return null;
+        }
+
+        @Override
+        public String getHeaderAsString(String proteinAccession) {
+            return null;
+        }
+    }
+}
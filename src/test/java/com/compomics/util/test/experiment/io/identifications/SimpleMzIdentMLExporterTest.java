@@ -0,0 +1,412 @@
+package com.compomics.util.test.experiment.io.identifications;
+
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.Advocate;
+import com.compomics.util.experiment.identification.matches.ModificationMatch;
+import com.compomics.util.experiment.identification.spectrum_annotation.spectrum_annotators.PeptideSpectrumAnnotator;
+import com.compomics.util.experiment.identification.spectrum_assumptions.PeptideAssumption;
+import com.compomics.util.experiment.io.biology.protein.FastaSummary;
+import com.compomics.util.experiment.io.biology.protein.ProteinDatabase;
+import com.compomics.util.experiment.io.biology.protein.ProteinDetailsProvider;
+import com.compomics.util.experiment.io.biology.protein.SequenceProvider;
+import com.compomics.util.experiment.io.identification.writers.SimpleMzIdentMLExporter;
+import com.compomics.util.experiment.io.mass_spectrometry.cms.CmsFileReader;
+import com.compomics.util.experiment.io.mass_spectrometry.cms.CmsFileWriter;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.parameters.identification.IdentificationParameters;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.parameters.identification.search.DigestionParameters;
+import com.compomics.util.parameters.identification.search.ModificationParameters;
+import com.compomics.util.parameters.identification.search.SearchParameters;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+import junit.framework.TestCase;
+import org.apache.commons.io.FileUtils;
+import org.junit.Assert;
+
+/**
+ * Tests that the mzIdentML files written by the SimpleMzIdentMLExporter do not
+ * depend on the threading.
+ *
+ * @author Marc Vaudel
+ */
+public class SimpleMzIdentMLExporterTest extends TestCase {
+
+    /**
+     * The number of spectra.
+     */
+    private static final int N_SPECTRA = 50;
+    /**
+     * The name of the spectrum file.
+     */
+    private static final String SPECTRUM_FILE = "test";
+    /**
+     * The protein sequences.
+     */
+    private static final String[] PROTEINS = {
+        "MKPEPTIDEKELVISKLIVESKTESTPEPTIDERANDTHENSQMER",
+        "MSSLIVESKPEPTGDEKAMPEPTIDERYKDDDDK"
+    };
+
+    /**
+     * Tests that adding the matches one by one and in parallel gives the same
+     * file.
+     *
+     * @throws Exception thrown whenever an error occurs while writing the
+     * files
+     */
+    public void testParallelWriting() throws Exception {
+
+        File folder = Files.createTempDirectory("simpleMzIdentMLExporterTest").toFile();
+
+        try {
+
+            File cmsFile = new File(folder, SPECTRUM_FILE + ".cms");
+            ArrayList<String> spectrumTitles = writeSpectra(cmsFile);
+
+            ArrayList<String> spectrumFileNames = new ArrayList<>(N_SPECTRA);
+            ArrayList<ArrayList<PeptideAssumption>> peptideAssumptions = new ArrayList<>(N_SPECTRA);
+            ArrayList<ArrayList<TreeMap<Double, HashMap<Integer, Double>>>> modificationLocalizationScores = new ArrayList<>(N_SPECTRA);
+
+            for (int i = 0; i < N_SPECTRA; i++) {
+
+                spectrumFileNames.add(SPECTRUM_FILE);
+                peptideAssumptions.add(getPeptideAssumptions(i));
+
+                ArrayList<TreeMap<Double, HashMap<Integer, Double>>> scores = new ArrayList<>(2);
+                scores.add(new TreeMap<>());
+                scores.add(new TreeMap<>());
+                modificationLocalizationScores.add(scores);
+
+            }
+
+            try (CmsFileReader spectrumProvider = new CmsFileReader(cmsFile, null)) {
+
+                // One match at a time
+                File sequentialFile = new File(folder, "sequential.mzid");
+
+                try (SimpleMzIdentMLExporter exporter = getExporter(folder, sequentialFile, spectrumProvider)) {
+
+                    PeptideSpectrumAnnotator peptideSpectrumAnnotator = new PeptideSpectrumAnnotator();
+
+                    for (int i = 0; i < N_SPECTRA; i++) {
+
+                        exporter.addSpectrum(
+                                spectrumFileNames.get(i),
+                                spectrumTitles.get(i),
+                                peptideAssumptions.get(i),
+                                modificationLocalizationScores.get(i),
+                                peptideSpectrumAnnotator
+                        );
+
+                    }
+
+                }
+
+                String expected = getContent(sequentialFile);
+                Assert.assertTrue(expected.contains("SIR_" + N_SPECTRA + "\""));
+
+                // In bulk with different numbers of threads
+                for (int nThreads : new int[]{2, 3, 7}) {
+
+                    File parallelFile = new File(folder, "parallel_" + nThreads + ".mzid");
+
+                    try (SimpleMzIdentMLExporter exporter = getExporter(folder, parallelFile, spectrumProvider)) {
+
+                        exporter.addSpectra(
+                                spectrumFileNames,
+                                spectrumTitles,
+                                peptideAssumptions,
+                                modificationLocalizationScores,
+                                nThreads,
+                                null
+                        );
+
+                    }
+
+                    Assert.assertEquals(expected, getContent(parallelFile));
+
+                }
+            }
+
+        } finally {
+
+            FileUtils.deleteDirectory(folder);
+
+        }
+    }
+
+    /**
+     * Writes random spectra to the given cms file and returns their titles.
+     *
+     * @param cmsFile the cms file
+     *
+     * @return the titles of the spectra
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * the file
+     */
+    private static ArrayList<String> writeSpectra(File cmsFile) throws IOException {
+
+        Random random = new Random(42);
+        ArrayList<String> spectrumTitles = new ArrayList<>(N_SPECTRA);
+
+        try (CmsFileWriter writer = new CmsFileWriter(cmsFile)) {
+
+            for (int i = 0; i < N_SPECTRA; i++) {
+
+                int nPeaks = 50 + random.nextInt(100);
+                double[] mz = new double[nPeaks];
+                double[] intensities = new double[nPeaks];
+
+                for (int j = 0; j < nPeaks; j++) {
+
+                    mz[j] = 100.0 + 10.0 * j + random.nextDouble();
+                    intensities[j] = Math.pow(10, 2 + 4 * random.nextDouble());
+
+                }
+
+                String title = "Spectrum " + i;
+                writer.addSpectrum(title, new Spectrum(new Precursor(10.0 * i, 500.0 + i, new int[]{2}), mz, intensities, 2));
+                spectrumTitles.add(title);
+
+            }
+        }
+
+        return spectrumTitles;
+
+    }
+
+    /**
+     * Returns two peptide assumptions for the spectrum of the given index.
+     * Peptides are shared between spectra.
+     *
+     * @param spectrumIndex the index of the spectrum
+     *
+     * @return the peptide assumptions
+     */
+    private static ArrayList<PeptideAssumption> getPeptideAssumptions(int spectrumIndex) {
+
+        ArrayList<PeptideAssumption> peptideAssumptions = new ArrayList<>(2);
+
+        for (int rank = 1; rank <= 2; rank++) {
+
+            int proteinIndex = (spectrumIndex + rank) % PROTEINS.length;
+            String proteinSequence = PROTEINS[proteinIndex];
+            int start = (7 * spectrumIndex + 3 * rank) % (proteinSequence.length() - 12);
+            int length = 6 + (spectrumIndex + rank) % 6;
+
+            String peptideSequence = proteinSequence.substring(start, start + length);
+            Peptide peptide = new Peptide(peptideSequence, new ModificationMatch[0], false);
+            peptide.setKey(Peptide.getKey(peptideSequence, peptide.getVariableModifications()));
+            peptide.setProteinMapping(getProteinMapping(peptideSequence));
+            peptide.estimateTheoreticMass(new ModificationParameters(), null, SequenceMatchingParameters.DEFAULT_STRING_MATCHING);
+
+            peptideAssumptions.add(new PeptideAssumption(peptide, rank, Advocate.xtandem.getIndex(), 2, 10.0 / rank, 0.01 * rank, SPECTRUM_FILE));
+
+        }
+
+        return peptideAssumptions;
+
+    }
+
+    /**
+     * Returns the protein mapping of the given peptide sequence.
+     *
+     * @param peptideSequence the peptide sequence
+     *
+     * @return the protein mapping of the peptide
+     */
+    private static TreeMap<String, int[]> getProteinMapping(String peptideSequence) {
+
+        TreeMap<String, int[]> proteinMapping = new TreeMap<>();
+
+        for (int i = 0; i < PROTEINS.length; i++) {
+
+            String proteinSequence = PROTEINS[i];
+            int[] indexes = IntStream.range(0, proteinSequence.length())
+                    .filter(index -> proteinSequence.startsWith(peptideSequence, index))
+                    .toArray();
+
+            if (indexes.length > 0) {
+                proteinMapping.put("P" + i, indexes);
+            }
+        }
+
+        return proteinMapping;
+
+    }
+
+    /**
+     * Returns an exporter writing to the given file.
+     *
+     * @param folder the temporary folder
+     * @param destinationFile the file to write
+     * @param spectrumProvider the spectrum provider
+     *
+     * @return an exporter writing to the given file
+     *
+     * @throws IOException exception thrown if an error occurred while
+     * creating the file
+     */
+    private static SimpleMzIdentMLExporter getExporter(
+            File folder,
+            File destinationFile,
+            CmsFileReader spectrumProvider
+    ) throws IOException {
+
+        File tempFolder = new File(folder, destinationFile.getName() + "_temp");
+        tempFolder.mkdir();
+
+        ArrayList<File> spectrumFiles = new ArrayList<>(1);
+        spectrumFiles.add(new File(folder, SPECTRUM_FILE + ".mgf"));
+
+        HashMap<String, ArrayList<String>> searchEngines = new HashMap<>(1);
+        ArrayList<String> versions = new ArrayList<>(1);
+        versions.add("1.0");
+        searchEngines.put(Advocate.xtandem.getName(), versions);
+
+        TestProteinProvider proteinProvider = new TestProteinProvider();
+
+        SearchParameters searchParameters = new SearchParameters();
+        searchParameters.setDigestionParameters(DigestionParameters.getDefaultParameters());
+
+        return new SimpleMzIdentMLExporter(
+                "test",
+                "1.0",
+                "https://github.com/compomics/compomics-utilities",
+                tempFolder,
+                destinationFile,
+                spectrumFiles,
+                new File(folder, "test.t.xml"),
+                searchEngines,
+                new File(folder, "test.fasta"),
+                new IdentificationParameters(searchParameters),
+                proteinProvider,
+                proteinProvider,
+                spectrumProvider,
+                ModificationFactory.getInstance(),
+                new FastaSummary(),
+                "First",
+                "Last",
+                "Address",
+                "first.last@test.org",
+                "Organization",
+                "Organization address",
+                "organization@test.org",
+                false,
+                false
+        );
+    }
+
+    /**
+     * Returns the content of the given mzIdentML file without its creation
+     * date.
+     *
+     * @param file the file
+     *
+     * @return the content of the file
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the file
+     */
+    private static String getContent(File file) throws IOException {
+
+        return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)
+                .replaceFirst("creationDate=\"[^\"]*\"", "creationDate=\"\"");
+
+    }
+
+    /**
+     * Provider for the test protein sequences.
+     */
+    private static class TestProteinProvider implements SequenceProvider, ProteinDetailsProvider {
+
+        /**
+         * The protein sequences indexed by accession.
+         */
+        private final TreeMap<String, String> sequences = new TreeMap<>();
+
+        /**
+         * Constructor.
+         */
+        public TestProteinProvider() {
+
+            for (int i = 0; i < PROTEINS.length; i++) {
+                sequences.put("P" + i, PROTEINS[i]);
+            }
+        }
+
+        @Override
+        public Collection<String> getAccessions() {
+            return sequences.keySet();
+        }
+
+        @Override
+        public HashSet<String> getDecoyAccessions() {
+            return new HashSet<>(0);
+        }
+
+        @Override
+        public String getSequence(String proteinAccession) {
+            return sequences.get(proteinAccession);
+        }
+
+        @Override
+        public String getSubsequence(String accession, int start, int end) {
+            String sequence = sequences.get(accession);
+            return sequence.substring(Math.max(start, 0), Math.min(end, sequence.length()));
+        }
+
+        @Override
+        public String getHeaderAsString(String proteinAccession) {
+            return ">" + proteinAccession;
+        }
+
+        @Override
+        public String getDescription(String accession) {
+            return "Protein " + accession;
+        }
+
+        @Override
+        public String getSimpleDescription(String accession) {
+            return getDescription(accession);
+        }
+
+        @Override
+        public ProteinDatabase getProteinDatabase(String accession) {
+            return ProteinDatabase.Unknown;
+        }
+
+        @Override
+        public String getGeneName(String accession) {
+            return null;
+        }
+
+        @Override
+        public String getTaxonomy(String accession) {
+            return null;
+        }
+
+        @Override
+        public String getOrganismIdentifier(String accession) {
+            return null;
+        }
+
+        @Override
+        public Integer getProteinEvidence(String accession) {
+            return null;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.compomics.util.test.experiment.io.spectrum.cms;
 
+import com.compomics.util.experiment.identification.spectrum_annotation.AnnotationParameters.IntensityThresholdType;
 import com.compomics.util.experiment.io.mass_spectrometry.cms.CmsFileReader;
 import com.compomics.util.experiment.io.mass_spectrometry.cms.CmsFileWriter;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
 import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.experiment.mass_spectrometry.spectra.SpectrumStatistics;
+import com.compomics.util.experiment.mass_spectrometry.spectra.SpectrumUtil;
 import java.io.File;
+import java.util.Random;
 import junit.framework.TestCase;
 import org.junit.Assert;
 import org.junit.Test;
@@ -90,4 +94,163 @@ public class CmsFileTest extends TestCase {
         }
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSpectrumStatistics() throws Exception {
+
+        Random random = new Random(42);
+
+        int nSpectra = 10;
+        Spectrum[] spectra = new Spectrum[nSpectra + 1];
+
+        for (int i = 0; i < nSpectra; i++) {
+
+            int nPeaks = 1 + random.nextInt(300);
+            double[] mz = new double[nPeaks];
+            double[] intensities = new double[nPeaks];
+
+            for (int j = 0; j < nPeaks; j++) {
+
+                mz[j] = 100.0 + 10.0 * j + random.nextDouble();
+                intensities[j] = Math.pow(10, 2 + 4 * random.nextDouble());
+
+            }
+
+            spectra[i] = new Spectrum(new Precursor(100.0 * i, 500.0 + i, new int[]{2}), mz, intensities, 2);
+
+        }
+
+        spectra[nSpectra] = new Spectrum(new Precursor(0.0, 400.0, new int[]{2}), new double[0], new double[0], 2);
+
+        File cmsFile = new File("src/test/resources/experiment/test_statistics.cms");
+        Spectrum closedReaderSpectrum;
+
+        try {
+
+            try (CmsFileWriter writer = new CmsFileWriter(cmsFile, true)) {
+
+                for (int i = 0; i <= nSpectra; i++) {
+
+                    writer.addSpectrum("Spectrum " + i, spectra[i]);
+
+                }
+            }
+
+            double[] thresholds = new double[]{0.0, 0.1, 0.5, 0.75, 0.95, 1.0};
+
+            try (CmsFileReader reader = new CmsFileReader(cmsFile, null)) {
+
+                for (int i = 0; i < nSpectra; i++) {
+
+                    String title = "Spectrum " + i;
+                    Spectrum spectrum = spectra[i];
+                    Spectrum cmsSpectrum = reader.getSpectrum(title);
+
+                    Assert.assertTrue(spectrum.isSameAs(cmsSpectrum));
+                    Assert.assertEquals(spectrum.getNPeaks(), reader.getPeaks(title).length);
+
+                    SpectrumStatistics statistics = reader.getSpectrumStatistics(title);
+                    Assert.assertEquals(spectrum.getTotalIntensity(), statistics.getTotalIntensity(), 0.0);
+                    Assert.assertEquals(spectrum.getMaxIntensity(), statistics.getMaxIntensity(), 0.0);
+
+                    // the statistics are read from the file when first needed
+                    SpectrumStatistics cmsStatistics = cmsSpectrum.getStatistics();
+                    Assert.assertNotNull(cmsStatistics);
+                    Assert.assertArrayEquals(statistics.getIntensityOrder(), cmsStatistics.getIntensityOrder());
+                    Assert.assertEquals(statistics.getNoiseMean(), cmsStatistics.getNoiseMean(), 0.0);
+
+                    for (IntensityThresholdType thresholdType : IntensityThresholdType.values()) {
+
+                        for (double threshold : thresholds) {
+
+                            Assert.assertEquals(
+                                    SpectrumUtil.getIntensityLimit(spectrum, thresholdType, threshold),
+                                    SpectrumUtil.getIntensityLimit(cmsSpectrum, thresholdType, threshold),
+                                    0.0
+                            );
+                        }
+                    }
+                }
+
+                Spectrum emptySpectrum = reader.getSpectrum("Spectrum " + nSpectra);
+                Assert.assertTrue(spectra[nSpectra].isSameAs(emptySpectrum));
+                Assert.assertNull(reader.getSpectrumStatistics("Spectrum " + nSpectra));
+                Assert.assertNull(emptySpectrum.getStatistics());
+
+                closedReaderSpectrum = reader.getSpectrum("Spectrum 0");
+
+            }
+
+            // the statistics of spectra read before closing are not available anymore
+            Assert.assertNull(closedReaderSpectrum.getStatistics());
+
+        } finally {
+
+            cmsFile.delete();
+
+        }
+    }
+
+    /**
+     * Tests that the intensity limits are obtained from the stored statistics
+     * when available, and that these are only read when needed.
+     */
+    public void testStoredStatisticsUsed() {
+
+        Random random = new Random(42);
+        int nPeaks = 200;
+        double[] mz = new double[nPeaks];
+        double[] intensities = new double[nPeaks];
+
+        for (int j = 0; j < nPeaks; j++) {
+
+            mz[j] = 100.0 + 10.0 * j;
+            intensities[j] = Math.pow(10, 2 + 4 * random.nextDouble());
+
+        }
+
+        SpectrumStatistics statistics = new SpectrumStatistics(intensities);
+
+        // statistics shifted by one order of magnitude and in reverse order
+        int[] reversedOrder = new int[nPeaks];
+
+        for (int j = 0; j < nPeaks; j++) {
+
+            reversedOrder[j] = statistics.getIntensityOrder()[nPeaks - 1 - j];
+
+        }
+
+        SpectrumStatistics storedStatistics = new SpectrumStatistics(
+                statistics.getTotalIntensity(),
+                statistics.getMaxIntensity(),
+                statistics.getNoiseMean() + 1,
+                statistics.getNoiseStdDown(),
+                statistics.getNoiseStdUp(),
+                reversedOrder
+        );
+
+        Spectrum spectrum = new Spectrum(new Precursor(0.0, 500.0, new int[]{2}), mz, intensities, 2);
+        int[] nCalls = new int[1];
+        spectrum.setStatisticsSupplier(() -> {
+            nCalls[0]++;
+            return storedStatistics;
+        });
+
+        Spectrum refitSpectrum = new Spectrum(new Precursor(0.0, 500.0, new int[]{2}), mz, intensities, 2);
+
+        Assert.assertEquals(spectrum.getMaxIntensity(), SpectrumUtil.getIntensityLimit(spectrum, IntensityThresholdType.snp, 1.0), 0.0);
+        Assert.assertEquals(0, nCalls[0]);
+
+        double snpLimit = SpectrumUtil.getIntensityLimit(spectrum, IntensityThresholdType.snp, 0.9);
+        Assert.assertEquals(storedStatistics.getNoiseIntensityAtP(0.1), snpLimit, 0.0);
+        Assert.assertNotEquals(SpectrumUtil.getIntensityLimit(refitSpectrum, IntensityThresholdType.snp, 0.9), snpLimit, 1e-6);
+
+        double percentileLimit = SpectrumUtil.getIntensityLimit(spectrum, IntensityThresholdType.percentile, 0.25);
+        Assert.assertEquals(storedStatistics.getIntensityAtPercentile(intensities, 0.25), percentileLimit, 0.0);
+        Assert.assertEquals(SpectrumUtil.getIntensityLimit(refitSpectrum, IntensityThresholdType.percentile, 0.75), percentileLimit, 0.0);
+
+        Assert.assertEquals(1, nCalls[0]);
+        Assert.assertNull(refitSpectrum.getStatistics());
+
+    }
+}
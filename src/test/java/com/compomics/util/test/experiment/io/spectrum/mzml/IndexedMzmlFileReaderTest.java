@@ -0,0 +1,390 @@
+package com.compomics.util.test.experiment.io.spectrum.mzml;
+
+import com.compomics.util.experiment.io.mass_spectrometry.mzml.IndexedMzmlFileReader;
+import com.compomics.util.experiment.io.mass_spectrometry.mzml.MSNumpress;
+import com.compomics.util.experiment.io.mass_spectrometry.mzml.MzmlFileIterator;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.gui.waiting.waitinghandlers.WaitingHandlerDummy;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.stream.IntStream;
+import java.util.zip.Deflater;
+import junit.framework.TestCase;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test for the indexed mzML file reader.
+ *
+ * @author Marc Vaudel
+ */
+public class IndexedMzmlFileReaderTest extends TestCase {
+
+    /**
+     * The m/z of the peaks of the test spectra.
+     */
+    private static final double[] MZ = new double[]{100.1, 200.25, 300.5, 400.75};
+    /**
+     * The intensities of the peaks of the test spectra.
+     */
+    private static final double[] INTENSITY = new double[]{10.0, 200.0, 3000.0, 40000.0};
+
+    @Test
+    public void testIndexedFile() throws Exception {
+
+        File mzmlFile = new File("src/test/resources/experiment/test_indexed.mzML");
+
+        try {
+
+            Files.write(mzmlFile.toPath(), getMzml(true).getBytes(StandardCharsets.UTF_8));
+
+            testReader(mzmlFile);
+
+        } finally {
+
+            mzmlFile.delete();
+
+        }
+    }
+
+    @Test
+    public void testNotIndexedFile() throws Exception {
+
+        File mzmlFile = new File("src/test/resources/experiment/test_not_indexed.mzML");
+
+        try {
+
+            Files.write(mzmlFile.toPath(), getMzml(false).getBytes(StandardCharsets.UTF_8));
+
+            testReader(mzmlFile);
+
+        } finally {
+
+            mzmlFile.delete();
+
+        }
+    }
+
+    /**
+     * Tests the reader on the given file against the expected values and the
+     * mzML file iterator.
+     *
+     * @param mzmlFile the mzML file
+     *
+     * @throws Exception exception thrown if an error occurred
+     */
+    private void testReader(File mzmlFile) throws Exception {
+
+        try (IndexedMzmlFileReader reader = new IndexedMzmlFileReader(mzmlFile, null)) {
+
+            String[] titles = reader.getSpectrumTitles(null);
+
+            Assert.assertArrayEquals(new String[]{"scan=1", "scan=2", "scan=3 & co", "scan=4"}, titles);
+            Assert.assertArrayEquals(new String[]{mzmlFile.getName().replace(".mzML", "")}, reader.getOrderedFileNamesWithoutExtensions());
+
+            // compare to the iterator for the first spectra, the last one uses numpress with zlib which is not supported by the iterator
+            MzmlFileIterator iterator = new MzmlFileIterator(mzmlFile, new WaitingHandlerDummy());
+
+            try {
+
+                for (int i = 0; i < 3; i++) {
+
+                    String title = iterator.next();
+                    Assert.assertEquals(titles[i], title);
+
+                    Spectrum expected = iterator.getSpectrum();
+                    Spectrum spectrum = reader.getSpectrum(title);
+
+                    Assert.assertArrayEquals(expected.mz, spectrum.mz, 0.0);
+                    Assert.assertArrayEquals(expected.intensity, spectrum.intensity, 0.0);
+                    Assert.assertEquals(expected.getSpectrumLevel(), spectrum.getSpectrumLevel());
+
+                    if (expected.precursor == null) {
+
+                        Assert.assertNull(spectrum.precursor);
+
+                    } else {
+
+                        Assert.assertTrue(expected.precursor.isSameAs(spectrum.precursor));
+
+                    }
+                }
+
+            } finally {
+
+                iterator.close();
+
+            }
+
+            // numpress combined with zlib
+            Spectrum spectrum = reader.getSpectrum("scan=4");
+            Assert.assertArrayEquals(MZ, spectrum.mz, 1e-5);
+
+            for (int i = 0; i < INTENSITY.length; i++) {
+                Assert.assertEquals(INTENSITY[i], spectrum.intensity[i], INTENSITY[i] * 1e-3);
+            }
+
+            // header values
+            Assert.assertEquals(1, reader.getSpectrumLevel(null, "scan=1"));
+            Assert.assertTrue(Double.isNaN(reader.getPrecursorMz(null, "scan=1")));
+            Assert.assertEquals(400.5, reader.getPrecursorMz(null, "scan=2"), 0.0);
+            Assert.assertEquals(90.0, reader.getPrecursorRt(null, "scan=2"), 1e-9);
+            Assert.assertArrayEquals(new int[]{2, 3}, reader.getPrecursor(null, "scan=2").possibleCharges);
+            Assert.assertEquals(400.5, reader.getMinPrecMz(), 0.0);
+            Assert.assertEquals(700.75, reader.getMaxPrecMz(), 0.0);
+            Assert.assertEquals(
+                    new ArrayList<>(Arrays.asList("scan=2", "scan=3 & co", "scan=4")),
+                    reader.getPostcursorSpectrumTitles(null, "scan=1")
+            );
+            Assert.assertNull(reader.getSpectrumStatistics(null, "scan=2"));
+
+            // concurrent reads
+            boolean allSame = IntStream.range(0, 1000)
+                    .parallel()
+                    .allMatch(i -> {
+
+                        Spectrum threadSpectrum = reader.getSpectrum(titles[i % 2]);
+
+                        return Arrays.equals(MZ, threadSpectrum.mz) && Arrays.equals(INTENSITY, threadSpectrum.intensity);
+
+                    });
+
+            Assert.assertTrue(allSame);
+
+        }
+    }
+
+    /**
+     * Returns the content of a test mzML file.
+     *
+     * @param indexed if true an index is appended to the file
+     *
+     * @return the content of the test mzML file
+     */
+    private static String getMzml(boolean indexed) {
+
+        StringBuilder sb = new StringBuilder();
+        ArrayList<Integer> offsets = new ArrayList<>();
+
+        sb.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+
+        if (indexed) {
+            sb.append("<indexedmzML xmlns=\"http://psi.hupo.org/ms/mzml\">\n");
+        }
+
+        sb.append("<mzML xmlns=\"http://psi.hupo.org/ms/mzml\" version=\"1.1.0\">\n")
+                .append("  <run id=\"run\">\n")
+                .append("    <spectrumList count=\"4\">\n");
+
+        offsets.add(sb.length());
+        sb.append(getSpectrum("scan=1", 0, 1, null,
+                getArray(true, "MS:1000523", "MS:1000574", encode(MZ, true, true)),
+                getArray(false, "MS:1000523", "MS:1000574", encode(INTENSITY, true, true))
+        ));
+
+        offsets.add(sb.length());
+        sb.append(getSpectrum("scan=2", 1, 2, 400.5,
+                getArray(true, "MS:1000523", "MS:1000576", encode(MZ, true, false)),
+                getArray(false, "MS:1000521", "MS:1000576", encode(INTENSITY, false, false))
+        ));
+
+        offsets.add(sb.length());
+        sb.append(getSpectrum("scan=3 &amp; co", 2, 2, 500.25,
+                getArray(true, "MS:1000521", "MS:1000574", encode(MZ, false, true)),
+                getArray(false, "MS:1000523", "MS:1000576", encode(INTENSITY, true, false))
+        ));
+
+        offsets.add(sb.length());
+        sb.append(getSpectrum("scan=4", 3, 2, 700.75,
+                getArray(true, "MS:1000523", "MS:1002746", numpress(MZ, MSNumpress.ACC_NUMPRESS_LINEAR)),
+                getArray(false, "MS:1000523", "MS:1002748", numpress(INTENSITY, MSNumpress.ACC_NUMPRESS_SLOF))
+        ));
+
+        sb.append("    </spectrumList>\n")
+                .append("  </run>\n")
+                .append("</mzML>\n");
+
+        if (indexed) {
+
+            int indexListOffset = sb.length();
+            String[] ids = new String[]{"scan=1", "scan=2", "scan=3 &amp; co", "scan=4"};
+
+            sb.append("<indexList count=\"1\">\n")
+                    .append("  <index name=\"spectrum\">\n");
+
+            for (int i = 0; i < ids.length; i++) {
+                sb.append("    <offset idRef=\"").append(ids[i]).append("\">").append(offsets.get(i)).append("</offset>\n");
+            }
+
+            sb.append("  </index>\n")
+                    .append("</indexList>\n")
+                    .append("<indexListOffset>").append(indexListOffset).append("</indexListOffset>\n")
+                    .append("</indexedmzML>\n");
+
+        }
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Returns a spectrum element.
+     *
+     * @param id the id of the spectrum
+     * @param index the index of the spectrum
+     * @param msLevel the MS level
+     * @param precursorMz the precursor m/z, null for MS1 spectra
+     * @param mzArray the m/z binary data array element
+     * @param intensityArray the intensity binary data array element
+     *
+     * @return a spectrum element
+     */
+    private static String getSpectrum(
+            String id,
+            int index,
+            int msLevel,
+            Double precursorMz,
+            String mzArray,
+            String intensityArray
+    ) {
+
+        StringBuilder sb = new StringBuilder();
+
+        sb.append("      <spectrum index=\"").append(index).append("\" id=\"").append(id).append("\" defaultArrayLength=\"").append(MZ.length).append("\">\n")
+                .append("        <cvParam cvRef=\"MS\" accession=\"MS:1000511\" name=\"ms level\" value=\"").append(msLevel).append("\"/>\n")
+                .append("        <scanList count=\"1\">\n")
+                .append("          <scan>\n")
+                .append("            <cvParam cvRef=\"MS\" accession=\"MS:1000016\" name=\"scan start time\" value=\"1.5\" unitCvRef=\"UO\" unitAccession=\"UO:0000031\" unitName=\"minute\"/>\n")
+                .append("          </scan>\n")
+                .append("        </scanList>\n");
+
+        if (precursorMz != null) {
+
+            sb.append("        <precursorList count=\"1\">\n")
+                    .append("          <precursor spectrumRef=\"scan=1\">\n")
+                    .append("            <selectedIonList count=\"1\">\n")
+                    .append("              <selectedIon>\n")
+                    .append("                <cvParam cvRef=\"MS\" accession=\"MS:1000744\" name=\"selected ion m/z\" value=\"").append(precursorMz).append("\"/>\n")
+                    .append("                <cvParam cvRef=\"MS\" accession=\"MS:1000041\" name=\"charge state\" value=\"2\"/>\n")
+                    .append("                <cvParam cvRef=\"MS\" accession=\"MS:1000041\" name=\"charge state\" value=\"3\"/>\n")
+                    .append("                <cvParam cvRef=\"MS\" accession=\"MS:1000042\" name=\"peak intensity\" value=\"1000.0\"/>\n")
+                    .append("              </selectedIon>\n")
+                    .append("            </selectedIonList>\n")
+                    .append("          </precursor>\n")
+                    .append("        </precursorList>\n");
+
+        }
+
+        sb.append("        <binaryDataArrayList count=\"2\">\n")
+                .append(mzArray)
+                .append(intensityArray)
+                .append("        </binaryDataArrayList>\n")
+                .append("      </spectrum>\n");
+
+        return sb.toString();
+
+    }
+
+    /**
+     * Returns a binary data array element.
+     *
+     * @param mz boolean indicating whether the array contains m/z values
+     * @param precision the precision accession
+     * @param compression the compression accession
+     * @param base64 the base 64 encoded data
+     *
+     * @return a binary data array element
+     */
+    private static String getArray(
+            boolean mz,
+            String precision,
+            String compression,
+            String base64
+    ) {
+
+        return "          <binaryDataArray encodedLength=\"" + base64.length() + "\">\n"
+                + "            <cvParam cvRef=\"MS\" accession=\"" + precision + "\" name=\"precision\" value=\"\"/>\n"
+                + "            <cvParam cvRef=\"MS\" accession=\"" + compression + "\" name=\"compression\" value=\"\"/>\n"
+                + "            <cvParam cvRef=\"MS\" accession=\"" + (mz ? "MS:1000514" : "MS:1000515") + "\" name=\"array\" value=\"\" unitCvRef=\"MS\"/>\n"
+                + "            <binary>" + base64 + "</binary>\n"
+                + "          </binaryDataArray>\n";
+
+    }
+
+    /**
+     * Encodes the given values.
+     *
+     * @param values the values
+     * @param doublePrecision boolean indicating whether the values should be
+     * encoded as 64 bit floats, 32 bit floats otherwise
+     * @param zlib boolean indicating whether the data should be compressed
+     *
+     * @return the base 64 encoded data
+     */
+    private static String encode(
+            double[] values,
+            boolean doublePrecision,
+            boolean zlib
+    ) {
+
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * (doublePrecision ? 8 : 4)).order(ByteOrder.LITTLE_ENDIAN);
+
+        for (double value : values) {
+
+            if (doublePrecision) {
+                buffer.putDouble(value);
+            } else {
+                buffer.putFloat((float) value);
+            }
+        }
+
+        byte[] data = buffer.array();
+
+        return Base64.getEncoder().encodeToString(zlib ? deflate(data) : data);
+
+    }
+
+    /**
+     * Encodes the given values using numpress and zlib.
+     *
+     * @param values the values
+     * @param numpress the numpress accession
+     *
+     * @return the base 64 encoded data
+     */
+    private static String numpress(
+            double[] values,
+            String numpress
+    ) {
+
+        return Base64.getEncoder().encodeToString(deflate(MSNumpress.encode(values, numpress)));
+
+    }
+
+    /**
+     * Compresses the given data using zlib.
+     *
+     * @param data the data
+     *
+     * @return the compressed data
+     */
+    private static byte[] deflate(byte[] data) {
+
+        Deflater deflater = new Deflater();
+        deflater.setInput(data);
+        deflater.finish();
+
+        byte[] buffer = new byte[data.length + 64];
+        int length = deflater.deflate(buffer);
+        deflater.end();
+
+        return Arrays.copyOf(buffer, length);
+
+    }
+}
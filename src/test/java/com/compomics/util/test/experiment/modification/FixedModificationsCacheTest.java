@@ -0,0 +1,131 @@
+package com.compomics.util.test.experiment.modification;
+
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.experiment.biology.proteins.FixedModificationsCache;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.biology.proteins.Protein;
+import com.compomics.util.experiment.identification.matches.ModificationMatch;
+import com.compomics.util.experiment.identification.protein_sequences.SingleProteinSequenceProvider;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.parameters.identification.search.ModificationParameters;
+import java.lang.ref.WeakReference;
+import java.util.TreeMap;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Test cases for the cache of fixed modifications.
+ *
+ * @author Marc Vaudel
+ */
+public class FixedModificationsCacheTest extends TestCase {
+
+    /**
+     * Tests that the cached fixed modifications are the same as the ones
+     * computed, including when the modification parameters change and when
+     * the fixed modifications depend on the protein context.
+     */
+    public void testFixedModificationsCache() {
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+        FixedModificationsCache cache = new FixedModificationsCache(2);
+        SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.DEFAULT_STRING_MATCHING;
+
+        ModificationParameters modificationParameters = new ModificationParameters();
+        modificationParameters.addFixedModification(modificationFactory.getModification("Carbamidomethylation of C"));
+
+        Peptide peptide = new Peptide("MCPEPTCIDEK", new ModificationMatch[0], false);
+
+        String[] expected = new String[peptide.getSequence().length() + 2];
+        expected[2] = "Carbamidomethylation of C";
+        expected[7] = "Carbamidomethylation of C";
+
+        String[] result = cache.getFixedModifications(peptide, modificationParameters, null, sequenceMatchingParameters);
+        Assert.assertArrayEquals(expected, result);
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(1, cache.getMisses());
+
+        // Same sequence, different peptide object
+        Peptide otherPeptide = new Peptide("MCPEPTCIDEK", new ModificationMatch[0], false);
+        Assert.assertSame(result, cache.getFixedModifications(otherPeptide, modificationParameters, null, sequenceMatchingParameters));
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertEquals(0.5, cache.getHitRate(), 0.0);
+
+        // The cache is bounded
+        cache.getFixedModifications(new Peptide("PEPTIDEK", new ModificationMatch[0], false), modificationParameters, null, sequenceMatchingParameters);
+        cache.getFixedModifications(new Peptide("PEPTIDER", new ModificationMatch[0], false), modificationParameters, null, sequenceMatchingParameters);
+        Assert.assertTrue(cache.size() <= 2);
+
+        // A change of the fixed modifications is detected
+        modificationParameters.addFixedModification(modificationFactory.getModification("Acetylation of protein N-term"));
+
+        Protein protein = new Protein("P1", "MCPEPTCIDEKPEPTIDEK");
+        SingleProteinSequenceProvider sequenceProvider = new SingleProteinSequenceProvider(protein);
+
+        TreeMap<String, int[]> nTermMapping = new TreeMap<>();
+        nTermMapping.put("P1", new int[]{0});
+        peptide.setProteinMapping(nTermMapping);
+
+        expected[0] = "Acetylation of protein N-term";
+        Assert.assertArrayEquals(expected, cache.getFixedModifications(peptide, modificationParameters, sequenceProvider, sequenceMatchingParameters));
+        Assert.assertArrayEquals(expected, peptide.getFixedModifications(modificationParameters, sequenceProvider, sequenceMatchingParameters));
+
+        // The protein context is taken into account
+        Peptide internalPeptide = new Peptide("PEPTIDEK", new ModificationMatch[0], false);
+        TreeMap<String, int[]> internalMapping = new TreeMap<>();
+        internalMapping.put("P1", new int[]{11});
+        internalPeptide.setProteinMapping(internalMapping);
+
+        Assert.assertArrayEquals(new String[10], cache.getFixedModifications(internalPeptide, modificationParameters, sequenceProvider, sequenceMatchingParameters));
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getHits());
+
+    }
+
+    /**
+     * Tests that the cache does not prevent the garbage collection of the
+     * sequence providers and parameters.
+     *
+     * @throws InterruptedException exception thrown if the test is
+     * interrupted while waiting for the garbage collection
+     */
+    public void testWeakReferences() throws InterruptedException {
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+        FixedModificationsCache cache = new FixedModificationsCache(10);
+        SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.DEFAULT_STRING_MATCHING;
+
+        ModificationParameters modificationParameters = new ModificationParameters();
+        modificationParameters.addFixedModification(modificationFactory.getModification("Acetylation of protein N-term"));
+
+        SingleProteinSequenceProvider sequenceProvider = new SingleProteinSequenceProvider(new Protein("P1", "MCPEPTCIDEKPEPTIDEK"));
+        WeakReference<SingleProteinSequenceProvider> sequenceProviderReference = new WeakReference<>(sequenceProvider);
+
+        Peptide peptide = new Peptide("MCPEPTCIDEK", new ModificationMatch[0], false);
+        TreeMap<String, int[]> proteinMapping = new TreeMap<>();
+        proteinMapping.put("P1", new int[]{0});
+        peptide.setProteinMapping(proteinMapping);
+
+        cache.getFixedModifications(peptide, modificationParameters, sequenceProvider, sequenceMatchingParameters);
+        Assert.assertEquals(1, cache.getNParameters());
+
+        sequenceProvider = null;
+
+        for (int i = 0; i < 100 && sequenceProviderReference.get() != null; i++) {
+
+            System.gc();
+            Thread.sleep(10);
+
+        }
+
+        Assert.assertNull(sequenceProviderReference.get());
+
+        // The cache of the collected provider is dropped when another cache is created
+        SingleProteinSequenceProvider otherSequenceProvider = new SingleProteinSequenceProvider(new Protein("P1", "MCPEPTCIDEKPEPTIDEK"));
+        cache.getFixedModifications(peptide, modificationParameters, otherSequenceProvider, sequenceMatchingParameters);
+        Assert.assertEquals(1, cache.getNParameters());
+
+    }
+}
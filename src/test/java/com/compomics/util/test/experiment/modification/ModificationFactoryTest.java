@@ -0,0 +1,96 @@
+package com.compomics.util.test.experiment.modification;
+
+import com.compomics.util.experiment.biology.modifications.Modification;
+import com.compomics.util.experiment.biology.modifications.ModificationCategory;
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.experiment.biology.modifications.ModificationType;
+import com.compomics.util.io.json.JsonMarshaller;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Test cases for the saving and loading of the modification factory.
+ *
+ * @author Marc Vaudel
+ */
+public class ModificationFactoryTest extends TestCase {
+
+    /**
+     * Tests that only the user modifications are saved and that the default
+     * modifications are available after loading.
+     *
+     * @throws IOException exception thrown if an error occurred while
+     * reading or writing a file
+     */
+    public void testSaveAndLoad() throws IOException {
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+        int nModifications = modificationFactory.getModifications().size();
+
+        String userModificationName = "User modification for factory test";
+        Modification userModification = new Modification(
+                ModificationType.modaa,
+                userModificationName,
+                12.3456,
+                new ArrayList<>(Arrays.asList("K")),
+                ModificationCategory.Other
+        );
+
+        File file = File.createTempFile("modification_factory", ".json");
+
+        try {
+
+            modificationFactory.addUserModification(userModification);
+            Assert.assertEquals(nModifications + 1, modificationFactory.getModifications().size());
+            Assert.assertTrue(modificationFactory.isUserDefined(userModificationName));
+            Assert.assertFalse(modificationFactory.isUserDefined("Oxidation of M"));
+
+            ModificationFactory.saveToFile(modificationFactory, file);
+            Assert.assertTrue(file.length() < 100000);
+
+            ModificationFactory loadedFactory = ModificationFactory.loadFromFile(file);
+            Assert.assertEquals(modificationFactory.getModifications().size(), loadedFactory.getModifications().size());
+            Assert.assertEquals(modificationFactory.getDefaultModifications().size(), loadedFactory.getDefaultModifications().size());
+            Assert.assertTrue(userModification.isSameAs(loadedFactory.getModification(userModificationName)));
+            Assert.assertTrue(modificationFactory.getModification("Oxidation of M").isSameAs(loadedFactory.getModification("Oxidation of M")));
+
+            // Files saved by earlier versions contain the default modifications
+            HashMap<String, Modification> legacyModifications = new HashMap<>();
+
+            for (String modificationName : modificationFactory.getModifications()) {
+                legacyModifications.put(modificationName, modificationFactory.getModification(modificationName));
+            }
+
+            JsonMarshaller jsonMarshaller = new JsonMarshaller();
+            JsonParser jsonParser = new JsonParser();
+            JsonObject legacyJson = jsonParser.parse(jsonMarshaller.toJson(loadedFactory)).getAsJsonObject();
+            legacyJson.add("modificationMap", jsonParser.parse(jsonMarshaller.toJson(legacyModifications)));
+            Files.write(file.toPath(), legacyJson.toString().getBytes(StandardCharsets.UTF_8));
+            Assert.assertTrue(file.length() > 100000);
+
+        } finally {
+
+            modificationFactory.removeUserPtm(userModificationName);
+
+        }
+
+        ModificationFactory legacyFactory = ModificationFactory.loadFromFile(file);
+        Assert.assertEquals(nModifications + 1, legacyFactory.getModifications().size());
+        Assert.assertTrue(userModification.isSameAs(legacyFactory.getModification(userModificationName)));
+
+        ModificationFactory.saveToFile(legacyFactory, file);
+        Assert.assertTrue(file.length() < 100000);
+
+        file.delete();
+
+    }
+}
@@ -0,0 +1,141 @@
+package com.compomics.util.test.experiment.modification;
+
+import com.compomics.util.experiment.biology.modifications.Modification;
+import com.compomics.util.experiment.biology.modifications.ModificationCategory;
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.experiment.biology.modifications.ModificationType;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.matches.ModificationMatch;
+import com.compomics.util.experiment.personalization.ExperimentObject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Test cases for the modification ids and tables of the modification factory.
+ *
+ * @author Marc Vaudel
+ */
+public class ModificationIdsTest extends TestCase {
+
+    /**
+     * Tests that the tables of the factory match the modifications.
+     */
+    public void testModificationTables() {
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+
+        for (String modificationName : modificationFactory.getModifications()) {
+
+            int id = ModificationFactory.getModificationId(modificationName);
+            Modification modification = modificationFactory.getModification(modificationName);
+
+            Assert.assertEquals(id, ModificationFactory.getModificationId(modificationName));
+            Assert.assertEquals(modificationName, ModificationFactory.getModificationName(id));
+            Assert.assertSame(modification, modificationFactory.getModification(id));
+            Assert.assertEquals(modification.getMass(), modificationFactory.getMass(id), 0.0);
+            Assert.assertEquals(modification.getMass(), modificationFactory.getMassTable()[id], 0.0);
+            Assert.assertEquals(modification.getAmbiguityKey(), modificationFactory.getAmbiguityKey(id));
+
+            int nTargets = modification.getPattern() == null ? 0 : modification.getPattern().getAminoAcidsAtTarget().size();
+            Assert.assertEquals(nTargets, modificationFactory.getTargetedAminoAcids(id).length);
+
+        }
+
+        // Unknown modifications get an id but no mass
+        String unknownModificationName = "Unknown modification for ids test";
+        int unknownId = ModificationFactory.getModificationId(unknownModificationName);
+        Assert.assertNull(modificationFactory.getModification(unknownId));
+        Assert.assertTrue(Double.isNaN(modificationFactory.getMassTable()[unknownId]));
+
+        try {
+
+            modificationFactory.getMass(unknownId);
+            Assert.fail("No exception thrown for an unknown modification.");
+
+        } catch (IllegalArgumentException e) {
+
+            Assert.assertTrue(e.getMessage().contains(unknownModificationName));
+
+        }
+
+        try {
+
+            modificationFactory.getMass(ModificationFactory.getNModificationIds());
+            Assert.fail("No exception thrown for an id not attributed.");
+
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        // User modifications are added to the tables
+        String userModificationName = "User modification for ids test";
+        Modification userModification = new Modification(
+                ModificationType.modaa,
+                userModificationName,
+                12.3456,
+                new ArrayList<>(Arrays.asList("K")),
+                ModificationCategory.Other
+        );
+
+        try {
+
+            modificationFactory.addUserModification(userModification);
+            int userId = ModificationFactory.getModificationId(userModificationName);
+
+            Assert.assertEquals(12.3456, modificationFactory.getMass(userId), 0.0);
+            Assert.assertArrayEquals(new char[]{'K'}, modificationFactory.getTargetedAminoAcids(userId));
+
+        } finally {
+
+            modificationFactory.removeUserPtm(userModificationName);
+
+        }
+
+        Assert.assertNull(modificationFactory.getModification(ModificationFactory.getModificationId(userModificationName)));
+
+    }
+
+    /**
+     * Tests that the modification matches and peptides give the same results
+     * using ids as using names.
+     */
+    public void testModificationMatches() {
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+
+        String oxidation = "Oxidation of M";
+        String phosphorylation = "Phosphorylation of S";
+
+        ModificationMatch modificationMatch = new ModificationMatch(oxidation, 2);
+        Assert.assertEquals(ModificationFactory.getModificationId(oxidation), modificationMatch.getModificationId());
+
+        modificationMatch.setModification(phosphorylation);
+        Assert.assertEquals(ModificationFactory.getModificationId(phosphorylation), modificationMatch.getModificationId());
+        Assert.assertFalse(modificationMatch.isSameAs(new ModificationMatch(oxidation, 2)));
+        Assert.assertTrue(modificationMatch.isSameAs(new ModificationMatch(phosphorylation, 4)));
+
+        ModificationMatch oxidationMatch = new ModificationMatch(oxidation, 2);
+        ModificationMatch phosphorylationMatch = new ModificationMatch(phosphorylation, 3);
+        phosphorylationMatch.setConfident(true);
+
+        String sequence = "AMSPEPTIDEK";
+        Peptide peptide = new Peptide(sequence, new ModificationMatch[]{oxidationMatch, phosphorylationMatch}, false);
+
+        // The legacy key must be the one obtained from the names
+        String phosphorylationKey = String.join("",
+                modificationFactory.getModification(phosphorylation).getAmbiguityKey(),
+                Peptide.MODIFICATION_LOCALIZATION_SEPARATOR,
+                "3"
+        );
+        String oxidationKey = modificationFactory.getModification(oxidation).getAmbiguityKey();
+        String[] modificationKeys = new String[]{oxidationKey, phosphorylationKey};
+        Arrays.sort(modificationKeys);
+        String expectedKey = String.join(Peptide.MODIFICATION_SEPARATOR, sequence, modificationKeys[0], modificationKeys[1]);
+
+        Assert.assertEquals(ExperimentObject.asLong(expectedKey), Peptide.getLegacyKey(sequence, peptide.getVariableModifications()));
+        Assert.assertEquals(1, peptide.getNVariableModifications(modificationFactory.getModification(oxidation).getMass()));
+
+    }
+}
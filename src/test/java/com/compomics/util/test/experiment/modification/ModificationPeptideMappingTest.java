@@ -3,6 +3,9 @@ package com.compomics.util.test.experiment.modification;
 import com.compomics.util.experiment.identification.modification.peptide_mapping.ModificationPeptideMapping;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
 import java.util.TreeSet;
 import junit.framework.TestCase;
 import org.junit.Assert;
@@ -206,4 +209,127 @@ public class ModificationPeptideMappingTest extends TestCase {
         Assert.assertFalse(matchedSiteByModification.get(modMass1).first().equals(matchedSiteByModification.get(modMass2).first()));
         
     }
+
+    /**
+     * Tests that the primitive implementation of the modification mapping
+     * finds assignments as good as the graph based implementation.
+     */
+    public void testPrimitiveImplementation() {
+
+        Random random = new Random(20230202);
+
+        for (int i = 0; i < 2000; i++) {
+
+            int nMods = random.nextInt(4) + 1;
+
+            HashMap<Double, int[]> modificationToPossibleSiteMap = new HashMap<>(nMods);
+            HashMap<Double, Integer> modificationOccurrenceMap = new HashMap<>(nMods);
+            HashMap<Double, HashMap<Integer, Double>> modificationToSiteToScore = new HashMap<>(nMods);
+
+            for (int modIndex = 0; modIndex < nMods; modIndex++) {
+
+                double modMass = 10.0 * modIndex + 1;
+                int nSites = random.nextInt(6) + 1;
+
+                HashSet<Integer> sites = new HashSet<>(nSites);
+
+                while (sites.size() < nSites) {
+
+                    sites.add(random.nextInt(12));
+
+                }
+
+                HashMap<Integer, Double> siteToScore = new HashMap<>(nSites);
+
+                for (int site : sites) {
+
+                    siteToScore.put(site, random.nextInt(3) == 0 ? 0.0 : 100 * random.nextDouble());
+
+                }
+
+                modificationToPossibleSiteMap.put(modMass, sites.stream().mapToInt(Integer::intValue).toArray());
+                modificationOccurrenceMap.put(modMass, random.nextInt(nSites) + 1);
+                modificationToSiteToScore.put(modMass, siteToScore);
+
+            }
+
+            long nDistinctSites = modificationToPossibleSiteMap.values().stream()
+                    .flatMapToInt(java.util.Arrays::stream)
+                    .distinct()
+                    .count();
+            int nOccurrences = modificationOccurrenceMap.values().stream()
+                    .mapToInt(Integer::intValue)
+                    .sum();
+
+            if (nOccurrences > nDistinctSites) {
+
+                try {
+
+                    ModificationPeptideMapping.mapModifications(modificationToPossibleSiteMap, modificationOccurrenceMap, modificationToSiteToScore);
+                    Assert.fail("More modifications than sites should not be mapped.");
+
+                } catch (IllegalArgumentException e) {
+                    // Expected
+                }
+
+                continue;
+
+            }
+
+            HashMap<Double, TreeSet<Integer>> expected = ModificationPeptideMapping.mapModificationsGraph(modificationToPossibleSiteMap, modificationOccurrenceMap, modificationToSiteToScore);
+            HashMap<Double, TreeSet<Integer>> actual = ModificationPeptideMapping.mapModifications(modificationToPossibleSiteMap, modificationOccurrenceMap, modificationToSiteToScore);
+
+            HashSet<Integer> occupiedSites = new HashSet<>();
+
+            for (Map.Entry<Double, TreeSet<Integer>> entry : actual.entrySet()) {
+
+                Assert.assertEquals(
+                        (int) modificationOccurrenceMap.get(entry.getKey()),
+                        entry.getValue().size()
+                );
+
+                for (int site : entry.getValue()) {
+
+                    Assert.assertTrue(occupiedSites.add(site));
+
+                }
+            }
+
+            Assert.assertEquals(getAssignmentScore(expected, modificationToSiteToScore), getAssignmentScore(actual, modificationToSiteToScore), 1e-6);
+
+        }
+    }
+
+    /**
+     * Returns the sum of the localization scores of the mapped sites, minus
+     * 1000 for every modification mapped to a site that cannot carry it.
+     *
+     * @param mapping the modification mapping
+     * @param modificationToSiteToScore Map of modification mass to
+     * modification site to localization score.
+     *
+     * @return the score of the assignment
+     */
+    private static double getAssignmentScore(
+            HashMap<Double, TreeSet<Integer>> mapping,
+            HashMap<Double, HashMap<Integer, Double>> modificationToSiteToScore
+    ) {
+
+        double score = 0.0;
+
+        for (Map.Entry<Double, TreeSet<Integer>> entry : mapping.entrySet()) {
+
+            HashMap<Integer, Double> siteToScore = modificationToSiteToScore.get(entry.getKey());
+
+            for (int site : entry.getValue()) {
+
+                Double siteScore = siteToScore.get(site);
+                score += siteScore == null ? -1000.0 : siteScore;
+
+            }
+        }
+
+        return score;
+
+    }
 }
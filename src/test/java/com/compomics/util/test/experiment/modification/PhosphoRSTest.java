@@ -0,0 +1,183 @@
+package com.compomics.util.test.experiment.modification;
+
+import com.compomics.util.experiment.biology.ions.Ion;
+import com.compomics.util.experiment.biology.ions.IonFactory;
+import com.compomics.util.experiment.biology.ions.impl.ElementaryIon;
+import com.compomics.util.experiment.biology.ions.impl.PeptideFragmentIon;
+import com.compomics.util.experiment.biology.modifications.Modification;
+import com.compomics.util.experiment.biology.modifications.ModificationFactory;
+import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.matches.ModificationMatch;
+import com.compomics.util.experiment.identification.modification.scores.PhosphoRS;
+import com.compomics.util.experiment.identification.spectrum_annotation.AnnotationParameters;
+import com.compomics.util.experiment.identification.spectrum_annotation.NeutralLossesMap;
+import com.compomics.util.experiment.identification.spectrum_annotation.SpecificAnnotationParameters;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Precursor;
+import com.compomics.util.experiment.mass_spectrometry.spectra.Spectrum;
+import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import com.compomics.util.parameters.identification.search.ModificationParameters;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.TreeMap;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Regression test for the PhosphoRS site probabilities.
+ *
+ * @author Marc Vaudel
+ */
+public class PhosphoRSTest extends TestCase {
+
+    /**
+     * Tests the site probabilities of a phosphopeptide with two possible
+     * sites, S4 and T8, against spectra of the peptide phosphorylated on
+     * either site.
+     */
+    public void testSiteProbabilities() {
+
+        // Every third fragment ion missing
+        HashMap<Integer, Double> probabilities = getSiteProbabilities(4, 3);
+        Assert.assertTrue(probabilities.size() == 2);
+        Assert.assertEquals(100.0, probabilities.get(4), 1e-9);
+        Assert.assertEquals(1.127020614987082E-14, probabilities.get(8), 1e-20);
+
+        probabilities = getSiteProbabilities(8, 3);
+        Assert.assertTrue(probabilities.size() == 2);
+        Assert.assertEquals(2.8802109428239826E-14, probabilities.get(4), 1e-20);
+        Assert.assertEquals(100.0, probabilities.get(8), 1e-9);
+
+        // All fragment ions present
+        probabilities = getSiteProbabilities(4, Integer.MAX_VALUE);
+        Assert.assertTrue(probabilities.size() == 2);
+        Assert.assertEquals(100.0, probabilities.get(4), 1e-9);
+        Assert.assertEquals(5.325213072219001E-24, probabilities.get(8), 1e-30);
+
+        probabilities = getSiteProbabilities(8, Integer.MAX_VALUE);
+        Assert.assertTrue(probabilities.size() == 2);
+        Assert.assertEquals(1.2302181580070788E-23, probabilities.get(4), 1e-29);
+        Assert.assertEquals(100.0, probabilities.get(8), 1e-9);
+
+    }
+
+    /**
+     * Returns the PhosphoRS site probabilities of PEPSIDETPEK with one
+     * phosphorylation on S or T, scored against a spectrum of the peptide
+     * phosphorylated on the given site.
+     *
+     * @param phosphoSite the site of the phosphorylation in the spectrum
+     * @param missingIonPeriod the fragment ions with a number multiple of this
+     * period are missing from the spectrum
+     *
+     * @return the site probabilities
+     */
+    private HashMap<Integer, Double> getSiteProbabilities(
+            int phosphoSite,
+            int missingIonPeriod
+    ) {
+
+        ModificationFactory modificationFactory = ModificationFactory.getInstance();
+        Modification phosphoS = modificationFactory.getModification("Phosphorylation of S");
+        Modification phosphoT = modificationFactory.getModification("Phosphorylation of T");
+
+        ArrayList<Modification> modifications = new ArrayList<>(2);
+        modifications.add(phosphoS);
+        modifications.add(phosphoT);
+
+        ModificationParameters modificationParameters = new ModificationParameters();
+        modificationParameters.addVariableModification(phosphoS);
+        modificationParameters.addVariableModification(phosphoT);
+
+        SequenceMatchingParameters sequenceMatchingParameters = SequenceMatchingParameters.getDefaultSequenceMatching();
+
+        String modificationName = phosphoSite == 4 ? phosphoS.getName() : phosphoT.getName();
+        Peptide peptide = new Peptide("PEPSIDETPEK", new ModificationMatch[]{new ModificationMatch(modificationName, phosphoSite)});
+        Spectrum spectrum = getSpectrum(peptide, modificationParameters, sequenceMatchingParameters, missingIonPeriod);
+
+        AnnotationParameters annotationParameters = new AnnotationParameters();
+        SpecificAnnotationParameters specificAnnotationParameters = new SpecificAnnotationParameters();
+        specificAnnotationParameters.setPrecursorCharge(2);
+        specificAnnotationParameters.setNeutralLossesMap(new NeutralLossesMap());
+        specificAnnotationParameters.addSelectedCharge(1);
+        specificAnnotationParameters.addIonType(Ion.IonType.PEPTIDE_FRAGMENT_ION, PeptideFragmentIon.B_ION);
+        specificAnnotationParameters.addIonType(Ion.IonType.PEPTIDE_FRAGMENT_ION, PeptideFragmentIon.Y_ION);
+        specificAnnotationParameters.setFragmentIonAccuracy(0.02);
+        specificAnnotationParameters.setFragmentIonPpm(false);
+
+        return PhosphoRS.getSequenceProbabilities(
+                peptide,
+                modifications,
+                modificationParameters,
+                spectrum,
+                null,
+                annotationParameters,
+                specificAnnotationParameters,
+                false,
+                sequenceMatchingParameters,
+                sequenceMatchingParameters,
+                null,
+                modificationFactory
+        );
+
+    }
+
+    /**
+     * Returns a spectrum with the singly charged b and y ions of the given
+     * peptide and deterministic noise peaks.
+     *
+     * @param peptide the peptide
+     * @param modificationParameters the modification parameters
+     * @param sequenceMatchingParameters the sequence matching parameters
+     * @param missingIonPeriod the fragment ions with a number multiple of this
+     * period are not added to the spectrum
+     *
+     * @return the spectrum
+     */
+    private Spectrum getSpectrum(
+            Peptide peptide,
+            ModificationParameters modificationParameters,
+            SequenceMatchingParameters sequenceMatchingParameters,
+            int missingIonPeriod
+    ) {
+
+        double protonMass = ElementaryIon.proton.getTheoreticMass();
+        TreeMap<Double, Double> peaks = new TreeMap<>();
+
+        HashMap<Integer, ArrayList<Ion>> fragmentIons = IonFactory.getInstance().getFragmentIons(
+                peptide,
+                modificationParameters,
+                null,
+                sequenceMatchingParameters
+        ).get(Ion.IonType.PEPTIDE_FRAGMENT_ION.index);
+
+        for (int subType : new int[]{PeptideFragmentIon.B_ION, PeptideFragmentIon.Y_ION}) {
+
+            for (Ion ion : fragmentIons.get(subType)) {
+
+                if (!ion.hasNeutralLosses() && ((PeptideFragmentIon) ion).getNumber() % missingIonPeriod != 0) {
+
+                    PeptideFragmentIon fragmentIon = (PeptideFragmentIon) ion;
+                    peaks.put(ion.getTheoreticMass() + protonMass, 1000.0 + 100.0 * fragmentIon.getNumber());
+
+                }
+            }
+        }
+
+        // Deterministic noise
+        for (int i = 0; i < 120; i++) {
+
+            double mz = 150.0 + 8.3 * i + 0.41 * (i % 7);
+            peaks.put(mz, 600.0 + 97.0 * (i % 11));
+
+        }
+
+        double[] mz = peaks.keySet().stream().mapToDouble(Double::doubleValue).toArray();
+        double[] intensities = peaks.values().stream().mapToDouble(Double::doubleValue).toArray();
+
+        double precursorMz = (peptide.getMass(modificationParameters, null, sequenceMatchingParameters) + 2 * protonMass) / 2;
+        Precursor precursor = new Precursor(0.0, precursorMz, new int[]{2});
+
+        return new Spectrum(precursor, mz, intensities, 2);
+
+    }
+}
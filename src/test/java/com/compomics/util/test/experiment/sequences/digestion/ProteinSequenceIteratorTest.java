@@ -1,13 +1,24 @@
 package com.compomics.util.test.experiment.sequences.digestion;
 
+import com.compomics.util.experiment.biology.enzymes.Enzyme;
+import com.compomics.util.experiment.biology.enzymes.EnzymeFactory;
 import com.compomics.util.experiment.biology.modifications.ModificationFactory;
 import com.compomics.util.experiment.biology.proteins.Peptide;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.DigestionCursor;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.IteratorFactory;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.ExtendedPeptide;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.IndexedPeptide;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.PeptideMassIndex;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.ProteinIteratorUtils;
 import com.compomics.util.experiment.identification.protein_sequences.digestion.SequenceIterator;
+import com.compomics.util.experiment.identification.protein_sequences.digestion.iterators.SemiSpecificIterator;
+import com.compomics.util.io.IoUtil;
 import com.compomics.util.parameters.identification.search.DigestionParameters;
+import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
 import org.junit.Assert;
 import junit.framework.TestCase;
 import org.xmlpull.v1.XmlPullParserException;
@@ -241,44 +252,318 @@ public class ProteinSequenceIteratorTest extends TestCase {
         }
         Assert.assertTrue(peptides.size() == 3);
         
-        // Not implemented yet
-        
-        
-//        // Semi-tryptic N
-//        digestionPreferences.setSpecificity("Trypsin", DigestionPreferences.Specificity.specificNTermOnly);
-//        
-//        // No modification
-//        sequenceIterator = iteratorFactoryNoModifications.getSequenceIterator(testSequence, digestionPreferences, null, null);
-//        peptides = new ArrayList<PeptideWithPosition>();
-//        while ((peptideWithPosition = sequenceIterator.getNextPeptide()) != null) {
-//            peptides.add(peptideWithPosition);
-//        }
-//        Assert.assertTrue(peptides.size() == 16);
-//        
-//        
-//        // Semi-tryptic C
-//        digestionPreferences.setSpecificity("Trypsin", DigestionPreferences.Specificity.specificCTermOnly);
-//        
-//        // No modification
-//        sequenceIterator = iteratorFactoryNoModifications.getSequenceIterator(testSequence, digestionPreferences, null, null);
-//        peptides = new ArrayList<PeptideWithPosition>();
-//        while ((peptideWithPosition = sequenceIterator.getNextPeptide()) != null) {
-//            peptides.add(peptideWithPosition);
-//        }
-//        Assert.assertTrue(peptides.size() == 16);
-//        
-//        
-//        // Semi-tryptic
-//        digestionPreferences.setSpecificity("Trypsin", DigestionPreferences.Specificity.semiSpecific);
-//        
-//        // No modification
-//        sequenceIterator = iteratorFactoryNoModifications.getSequenceIterator(testSequence, digestionPreferences, null, null);
-//        peptides = new ArrayList<PeptideWithPosition>();
-//        while ((peptideWithPosition = sequenceIterator.getNextPeptide()) != null) {
-//            peptides.add(peptideWithPosition);
-//        }
-//        Assert.assertTrue(peptides.size() == 29);
-//        
-//        
+        // Semi-tryptic N
+        digestionPreferences.setSpecificity("Trypsin", DigestionParameters.Specificity.specificNTermOnly);
+        
+        // No modification
+        sequenceIterator = iteratorFactoryNoModifications.getSequenceIterator(testSequence, digestionPreferences, 0.0, Double.MAX_VALUE);
+        peptides = new ArrayList<>();
+        while ((peptideWithPosition = sequenceIterator.getNextPeptide()) != null) {
+            peptides.add(peptideWithPosition);
+        }
+        Assert.assertTrue(peptides.size() == 16);
+        
+        
+        // Semi-tryptic C
+        digestionPreferences.setSpecificity("Trypsin", DigestionParameters.Specificity.specificCTermOnly);
+        
+        // No modification
+        sequenceIterator = iteratorFactoryNoModifications.getSequenceIterator(testSequence, digestionPreferences, 0.0, Double.MAX_VALUE);
+        peptides = new ArrayList<>();
+        while ((peptideWithPosition = sequenceIterator.getNextPeptide()) != null) {
+            peptides.add(peptideWithPosition);
+        }
+        Assert.assertTrue(peptides.size() == 16);
+        
+        
+        // Semi-tryptic
+        digestionPreferences.setSpecificity("Trypsin", DigestionParameters.Specificity.semiSpecific);
+        
+        // No modification
+        sequenceIterator = iteratorFactoryNoModifications.getSequenceIterator(testSequence, digestionPreferences, 0.0, Double.MAX_VALUE);
+        peptides = new ArrayList<>();
+        while ((peptideWithPosition = sequenceIterator.getNextPeptide()) != null) {
+            peptides.add(peptideWithPosition);
+        }
+        Assert.assertTrue(peptides.size() == 29);
+        
+        
+        // Trypsin and Asp-N
+        digestionPreferences = DigestionParameters.getDefaultParameters();
+        digestionPreferences.setnMissedCleavages("Trypsin", 0);
+        Enzyme aspN = EnzymeFactory.getInstance().getEnzyme("Asp-N");
+        digestionPreferences.addEnzyme(aspN);
+        digestionPreferences.setSpecificity(aspN.getName(), DigestionParameters.Specificity.specific);
+        digestionPreferences.setnMissedCleavages(aspN.getName(), 0);
+        
+        // No modification
+        sequenceIterator = iteratorFactoryNoModifications.getSequenceIterator("TESTKTDESTKTEST", digestionPreferences, 0.0, Double.MAX_VALUE);
+        peptides = new ArrayList<>();
+        while ((peptideWithPosition = sequenceIterator.getNextPeptide()) != null) {
+            peptides.add(peptideWithPosition);
+        }
+        Assert.assertTrue(peptides.size() == 4);
+        Assert.assertTrue(peptides.get(1).peptide.getSequence().equals("T"));
+        Assert.assertTrue(peptides.get(1).position == 5);
+        Assert.assertTrue(peptides.get(2).peptide.getSequence().equals("DESTK"));
+    }
+    
+    /**
+     * Tests that the specificity and missed cleavages of multiple enzymes are
+     * merged: the most permissive specificity and the largest number of
+     * missed cleavages apply to all enzymes.
+     *
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public void testMultipleEnzymesSettings() throws InterruptedException {
+
+        IteratorFactory iteratorFactory = new IteratorFactory(new ArrayList<>());
+        String sequence = "TESTKTDESTKTEST";
+        Enzyme aspN = EnzymeFactory.getInstance().getEnzyme("Asp-N");
+
+        // Specific trypsin without missed cleavage, semi-specific Asp-N with one
+        DigestionParameters digestionParameters = DigestionParameters.getDefaultParameters();
+        digestionParameters.setnMissedCleavages("Trypsin", 0);
+        digestionParameters.addEnzyme(aspN);
+        digestionParameters.setSpecificity(aspN.getName(), DigestionParameters.Specificity.semiSpecific);
+        digestionParameters.setnMissedCleavages(aspN.getName(), 1);
+
+        SequenceIterator sequenceIterator = iteratorFactory.getSequenceIterator(sequence, digestionParameters, 0.0, Double.MAX_VALUE);
+        Assert.assertTrue(sequenceIterator instanceof SemiSpecificIterator);
+        ArrayList<String> peptides = getSequences(sequenceIterator);
+
+        // Both enzymes semi-specific with one missed cleavage
+        DigestionParameters mergedParameters = DigestionParameters.getDefaultParameters();
+        mergedParameters.setSpecificity("Trypsin", DigestionParameters.Specificity.semiSpecific);
+        mergedParameters.setnMissedCleavages("Trypsin", 1);
+        mergedParameters.addEnzyme(aspN);
+        mergedParameters.setSpecificity(aspN.getName(), DigestionParameters.Specificity.semiSpecific);
+        mergedParameters.setnMissedCleavages(aspN.getName(), 1);
+
+        Assert.assertEquals(getSequences(iteratorFactory.getSequenceIterator(sequence, mergedParameters, 0.0, Double.MAX_VALUE)), peptides);
+
+        // Semi-specific with respect to trypsin only
+        Assert.assertTrue(peptides.contains("TES"));
+
+        // One missed trypsin cleavage site
+        Assert.assertTrue(peptides.contains("TESTKT"));
+
+    }
+
+    /**
+     * Returns the sequences of the peptides returned by the given iterator.
+     *
+     * @param sequenceIterator the sequence iterator
+     *
+     * @return the sequences of the peptides
+     *
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    private static ArrayList<String> getSequences(SequenceIterator sequenceIterator) throws InterruptedException {
+
+        ArrayList<String> sequences = new ArrayList<>();
+        ExtendedPeptide extendedPeptide;
+
+        while ((extendedPeptide = sequenceIterator.getNextPeptide()) != null) {
+            sequences.add(extendedPeptide.peptide.getSequence());
+        }
+
+        return sequences;
+
+    }
+
+    public void testPeptideMassIndex() throws IOException, InterruptedException {
+        
+        File fastaFile = File.createTempFile("peptideMassIndexTest", ".fasta");
+        fastaFile.deleteOnExit();
+        Files.write(fastaFile.toPath(), Arrays.asList(">sp|P00001|TEST1", "TESTKCTESCTKTEST", ">sp|P00002|TEST2", "CTESCTKEPEPTIDEK"));
+        
+        DigestionParameters digestionPreferences = DigestionParameters.getDefaultParameters();
+        ArrayList<String> fixedModifications = new ArrayList<>();
+        
+        PeptideMassIndex peptideMassIndex = PeptideMassIndex.getIndex(fastaFile, digestionPreferences, fixedModifications, 2, 0.0, 5000.0, null);
+        File[] indexFiles = fastaFile.getParentFile().listFiles((dir, name) -> name.startsWith(IoUtil.removeExtension(fastaFile.getName())) && name.endsWith(PeptideMassIndex.EXTENSION));
+        for (File indexFile : indexFiles) {
+            indexFile.deleteOnExit();
+        }
+        
+        // CTESCTK is shared by both proteins
+        ArrayList<IndexedPeptide> peptides = peptideMassIndex.getPeptides(0.0, Double.MAX_VALUE);
+        Assert.assertTrue(peptides.size() == 8);
+        for (int i = 1; i < peptides.size(); i++) {
+            Assert.assertTrue(peptides.get(i - 1).mass <= peptides.get(i).mass);
+        }
+        
+        peptides = peptideMassIndex.getPeptides(770.0, 771.0);
+        Assert.assertTrue(peptides.size() == 1);
+        IndexedPeptide indexedPeptide = peptides.get(0);
+        Assert.assertTrue(indexedPeptide.sequence.equals("CTESCTK"));
+        Assert.assertTrue(indexedPeptide.accessions.length == 2);
+        Assert.assertTrue(indexedPeptide.getPeptide().getProteinMapping().get("P00002")[0] == 0);
+        peptideMassIndex.close();
+        
+        // Reload from file
+        peptideMassIndex = PeptideMassIndex.getIndex(fastaFile, digestionPreferences, fixedModifications, 2, 0.0, 5000.0, null);
+        Assert.assertTrue(peptideMassIndex.getNPeptides() == 8);
+        peptideMassIndex.close();
+    }
+
+    /**
+     * Tests that the peptide mass index built with sorted runs on disk is
+     * identical to the index built in memory.
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * or writing a file
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public void testPeptideMassIndexRuns() throws IOException, InterruptedException {
+        
+        File fastaFile = File.createTempFile("peptideMassIndexRunsTest", ".fasta");
+        fastaFile.deleteOnExit();
+        Files.write(fastaFile.toPath(), Arrays.asList(">sp|P00001|TEST1", "TESTKCTESCTKTEST", ">sp|P00002|TEST2", "CTESCTKEPEPTIDEK", ">sp|P00003|TEST3", "PEPTIDEKTESTKCTESCTK"));
+        
+        DigestionParameters digestionPreferences = DigestionParameters.getDefaultParameters();
+        digestionPreferences.setSpecificity("Trypsin", DigestionParameters.Specificity.semiSpecific);
+        ArrayList<String> fixedModifications = new ArrayList<>();
+        fixedModifications.add("Carbamidomethylation of C");
+        
+        PeptideMassIndex peptideMassIndex = PeptideMassIndex.getIndex(fastaFile, digestionPreferences, fixedModifications, 2, 0.0, 5000.0, null);
+        ArrayList<String> expected = getIndexContent(peptideMassIndex);
+        peptideMassIndex.close();
+        
+        File[] indexFiles = fastaFile.getParentFile().listFiles((dir, name) -> name.startsWith(IoUtil.removeExtension(fastaFile.getName())) && name.endsWith(PeptideMassIndex.EXTENSION));
+        for (File indexFile : indexFiles) {
+            Assert.assertTrue(indexFile.delete());
+        }
+        
+        // One run per protein
+        peptideMassIndex = PeptideMassIndex.getIndex(fastaFile, digestionPreferences, fixedModifications, 2, 0.0, 5000.0, 1, null);
+        indexFiles = fastaFile.getParentFile().listFiles((dir, name) -> name.startsWith(IoUtil.removeExtension(fastaFile.getName())) && name.endsWith(PeptideMassIndex.EXTENSION));
+        for (File indexFile : indexFiles) {
+            indexFile.deleteOnExit();
+        }
+        
+        ArrayList<String> actual = getIndexContent(peptideMassIndex);
+        peptideMassIndex.close();
+        
+        Assert.assertTrue(expected.size() > 3);
+        Assert.assertEquals(expected, actual);
+        
+        // The temporary runs are deleted
+        File[] runFiles = fastaFile.getParentFile().listFiles((dir, name) -> name.startsWith("peptide_mass_index_run_"));
+        Assert.assertTrue(runFiles == null || runFiles.length == 0);
+    }
+    
+    /**
+     * Returns the peptides of the index as strings listing the sequence,
+     * modifications, proteins and positions.
+     * 
+     * @param peptideMassIndex the peptide mass index
+     * 
+     * @return the peptides of the index as strings
+     * 
+     * @throws IOException exception thrown if an error occurred while reading
+     * the index
+     */
+    private ArrayList<String> getIndexContent(PeptideMassIndex peptideMassIndex) throws IOException {
+        
+        ArrayList<String> content = new ArrayList<>();
+        
+        for (IndexedPeptide indexedPeptide : peptideMassIndex.getPeptides(0.0, Double.MAX_VALUE)) {
+            content.add(indexedPeptide.sequence + " " + indexedPeptide.mass + " " + Arrays.toString(indexedPeptide.fixedModifications) + " " + Arrays.toString(indexedPeptide.accessions) + " " + Arrays.toString(indexedPeptide.positions));
+        }
+        
+        return content;
+    }
+
+    /**
+     * Tests that the digestion cursor returns the same peptides as the
+     * sequence iterators.
+     *
+     * @throws InterruptedException exception thrown if a thread is
+     * interrupted
+     */
+    public void testDigestionCursor() throws InterruptedException {
+
+        ArrayList<String> fixedModifications = new ArrayList<>();
+        fixedModifications.add("Carbamidomethylation of C");
+        fixedModifications.add("Acetylation of protein N-term");
+
+        IteratorFactory iteratorFactory = new IteratorFactory(fixedModifications);
+        ProteinIteratorUtils proteinIteratorUtils = new ProteinIteratorUtils(fixedModifications, 2);
+
+        String[] proteinSequences = new String[]{"TESTKCTESCTKTESTRPEPTIDECKTEST", "MCKPEPTIDERCTESTBKTESTXK"};
+
+        ArrayList<DigestionParameters> allDigestionParameters = new ArrayList<>();
+        allDigestionParameters.add(DigestionParameters.getDefaultParameters());
+
+        DigestionParameters digestionParameters = DigestionParameters.getDefaultParameters();
+        digestionParameters.setSpecificity("Trypsin", DigestionParameters.Specificity.semiSpecific);
+        allDigestionParameters.add(digestionParameters);
+
+        digestionParameters = new DigestionParameters();
+        digestionParameters.setCleavageParameter(DigestionParameters.CleavageParameter.unSpecific);
+        allDigestionParameters.add(digestionParameters);
+
+        digestionParameters = new DigestionParameters();
+        digestionParameters.setCleavageParameter(DigestionParameters.CleavageParameter.wholeProtein);
+        allDigestionParameters.add(digestionParameters);
+
+        for (DigestionParameters tempParameters : allDigestionParameters) {
+
+            // A maximal mass of 0 means no limit for the cursor
+            for (double[] massRange : new double[][]{{500.0, 3000.0}, {0.0, 0.0}}) {
+
+                DigestionCursor digestionCursor = new DigestionCursor(proteinIteratorUtils, tempParameters, massRange[0], massRange[1]);
+                double iteratorMassMax = massRange[1] == 0.0 ? Double.MAX_VALUE : massRange[1];
+
+                for (int proteinIndex = 0; proteinIndex < proteinSequences.length; proteinIndex++) {
+
+                    String proteinSequence = proteinSequences[proteinIndex];
+
+                    ArrayList<String> expected = new ArrayList<>();
+                    SequenceIterator sequenceIterator = iteratorFactory.getSequenceIterator(proteinSequence, tempParameters, massRange[0], iteratorMassMax);
+                    ExtendedPeptide extendedPeptide;
+
+                    while ((extendedPeptide = sequenceIterator.getNextPeptide()) != null) {
+
+                        expected.add(extendedPeptide.position + "_" + extendedPeptide.peptide.getSequence() + "_" + extendedPeptide.peptide.getMass() + "_" + Arrays.toString(extendedPeptide.fixedModifications));
+
+                    }
+
+                    ArrayList<String> found = new ArrayList<>();
+                    digestionCursor.setProtein(proteinIndex, proteinSequence);
+
+                    while (digestionCursor.next()) {
+
+                        Assert.assertTrue(digestionCursor.getProteinIndex() == proteinIndex);
+
+                        extendedPeptide = digestionCursor.getPeptide();
+                        Assert.assertTrue(extendedPeptide.peptide.getMass() == digestionCursor.getMass());
+
+                        long mask = digestionCursor.getFixedModificationsMask();
+
+                        for (int i = 0; i < extendedPeptide.fixedModifications.length; i++) {
+
+                            Assert.assertTrue((extendedPeptide.fixedModifications[i] != null) == ((mask & (1L << i)) != 0));
+
+                        }
+
+                        Assert.assertTrue(extendedPeptide.peptide.getSequence().length() == digestionCursor.getEnd() - digestionCursor.getStart());
+
+                        found.add(extendedPeptide.position + "_" + extendedPeptide.peptide.getSequence() + "_" + extendedPeptide.peptide.getMass() + "_" + Arrays.toString(extendedPeptide.fixedModifications));
+
+                    }
+
+                    expected.sort(null);
+                    found.sort(null);
+                    Assert.assertEquals(tempParameters.getCleavageParameter() + " " + massRange[1] + " " + proteinSequence, expected, found);
+
+                }
+            }
+        }
     }
 }
@@ -0,0 +1,192 @@
+package com.compomics.util.test.experiment.sequences.indexing;
+
+import com.compomics.cli.peptide_mapper.PeptideMapperCLI;
+import com.compomics.util.experiment.identification.protein_inference.fm_index.FMIndex;
+import com.compomics.util.experiment.io.biology.protein.FastaParameters;
+import com.compomics.util.experiment.io.biology.protein.converters.DecoyConverter;
+import com.compomics.util.gui.waiting.waitinghandlers.WaitingHandlerDummy;
+import com.compomics.util.parameters.identification.IdentificationParameters;
+import com.compomics.util.parameters.identification.search.SearchParameters;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the chunked mapping of the PeptideMapperCLI.
+ *
+ * @author Marc Vaudel
+ */
+public class PeptideMapperCLITest extends TestCase {
+
+    /**
+     * The number of lines of the test input.
+     */
+    private static final int N_LINES = 100;
+    /**
+     * The number of lines per chunk used for the test.
+     */
+    private static final int CHUNK_SIZE = 10;
+
+    /**
+     * Tests that the mapping of a valid input completes in both modes.
+     *
+     * @throws Exception thrown whenever an error occurs while mapping
+     */
+    public void testMapping() throws Exception {
+
+        IdentificationParameters identificationParameters = getIdentificationParameters();
+        FMIndex fmIndex = getIndex(identificationParameters);
+
+        for (boolean ordered : new boolean[]{true, false}) {
+
+            File inputFile = writeInput(-1);
+            File outputFile = File.createTempFile("peptideMapperCLITest", ".csv");
+            outputFile.deleteOnExit();
+
+            WaitingHandlerDummy waitingHandler = new WaitingHandlerDummy();
+
+            map(fmIndex, waitingHandler, identificationParameters, inputFile, outputFile, ordered);
+
+            Assert.assertFalse(waitingHandler.isRunCanceled());
+            Assert.assertFalse(Files.readAllLines(outputFile.toPath()).isEmpty());
+
+        }
+    }
+
+    /**
+     * Tests that a malformed input line makes the mapping fail instead of
+     * silently truncating the output.
+     *
+     * @throws Exception thrown whenever an error occurs while mapping
+     */
+    public void testMalformedLine() throws Exception {
+
+        IdentificationParameters identificationParameters = getIdentificationParameters();
+        FMIndex fmIndex = getIndex(identificationParameters);
+
+        for (boolean ordered : new boolean[]{true, false}) {
+
+            File inputFile = writeInput(N_LINES / 2 + 3);
+            File outputFile = File.createTempFile("peptideMapperCLITest", ".csv");
+            outputFile.deleteOnExit();
+
+            WaitingHandlerDummy waitingHandler = new WaitingHandlerDummy();
+
+            try {
+
+                map(fmIndex, waitingHandler, identificationParameters, inputFile, outputFile, ordered);
+                Assert.fail("No exception thrown for a malformed line.");
+
+            } catch (ExecutionException e) {
+
+                Assert.assertTrue(e.getCause() instanceof IllegalArgumentException);
+                Assert.assertTrue(e.getCause().getMessage().contains("PEP-TIDE"));
+
+            }
+
+            Assert.assertTrue(waitingHandler.isRunCanceled());
+
+        }
+    }
+
+    /**
+     * Maps the given input file using chunks of CHUNK_SIZE lines.
+     *
+     * @param fmIndex the index
+     * @param waitingHandler the waiting handler
+     * @param identificationParameters the identification parameters
+     * @param inputFile the input file
+     * @param outputFile the output file
+     * @param ordered boolean indicating whether the output should be written
+     * in the order of the input
+     *
+     * @throws Exception thrown whenever an error occurs while mapping
+     */
+    private static void map(
+            FMIndex fmIndex,
+            WaitingHandlerDummy waitingHandler,
+            IdentificationParameters identificationParameters,
+            File inputFile,
+            File outputFile,
+            boolean ordered
+    ) throws Exception {
+
+        int chunkSize = PeptideMapperCLI.CHUNK_SIZE;
+        PeptideMapperCLI.CHUNK_SIZE = CHUNK_SIZE;
+
+        try {
+
+            PeptideMapperCLI.mapFile(fmIndex, waitingHandler, identificationParameters, inputFile.getAbsolutePath(), outputFile.getAbsolutePath(), 4, true, ordered);
+
+        } finally {
+
+            PeptideMapperCLI.CHUNK_SIZE = chunkSize;
+
+        }
+    }
+
+    /**
+     * Writes a peptide input file.
+     *
+     * @param malformedLine the index of the line to replace by a malformed
+     * peptide, -1 for none
+     *
+     * @return the input file
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * the file
+     */
+    private static File writeInput(int malformedLine) throws IOException {
+
+        File inputFile = File.createTempFile("peptideMapperCLITest", ".txt");
+        inputFile.deleteOnExit();
+
+        List<String> lines = new ArrayList<>(N_LINES);
+
+        for (int i = 0; i < N_LINES; i++) {
+
+            lines.add(i == malformedLine ? "PEP-TIDE" : "SSS");
+
+        }
+
+        Files.write(inputFile.toPath(), lines);
+
+        return inputFile;
+
+    }
+
+    /**
+     * Returns the identification parameters to use for the test.
+     *
+     * @return the identification parameters to use for the test
+     */
+    private static IdentificationParameters getIdentificationParameters() {
+
+        return new IdentificationParameters(new SearchParameters());
+
+    }
+
+    /**
+     * Indexes the test sequences.
+     *
+     * @param identificationParameters the identification parameters
+     *
+     * @return the index
+     *
+     * @throws IOException exception thrown if an error occurred while reading
+     * the fasta file
+     */
+    private static FMIndex getIndex(IdentificationParameters identificationParameters) throws IOException {
+
+        File fastaFile = new File("src/test/resources/experiment/testSequences.fasta");
+        FastaParameters fastaParameters = DecoyConverter.getDecoyParameters(new FastaParameters());
+
+        return new FMIndex(fastaFile, fastaParameters, new WaitingHandlerDummy(), false, identificationParameters);
+
+    }
+}
@@ -1,7 +1,10 @@
 package com.compomics.util.test.experiment.sequences.matching;
 
 import com.compomics.util.experiment.biology.aminoacids.sequence.AminoAcidPattern;
+import com.compomics.util.experiment.biology.aminoacids.sequence.CompiledAminoAcidPattern;
 import com.compomics.util.parameters.identification.advanced.SequenceMatchingParameters;
+import java.util.ArrayList;
+import java.util.Arrays;
 import org.junit.Assert;
 import junit.framework.TestCase;
 
@@ -47,4 +50,31 @@ public class AminoAcidPatternTest extends TestCase {
         pattern = AminoAcidPattern.getAminoAcidPatternFromString("XXX");
         Assert.assertTrue(pattern.matches(input, sequenceMatchingPreferences));
     }
+
+    public void testCompiledPattern() {
+        SequenceMatchingParameters sequenceMatchingPreferences = new SequenceMatchingParameters();
+        sequenceMatchingPreferences.setSequenceMatchingType(SequenceMatchingParameters.MatchingType.indistiguishableAminoAcids);
+        AminoAcidPattern pattern = AminoAcidPattern.getAminoAcidPatternFromString("N[ST]");
+        CompiledAminoAcidPattern compiledPattern = pattern.getCompiledPattern(sequenceMatchingPreferences);
+        Assert.assertTrue(compiledPattern == pattern.getCompiledPattern(sequenceMatchingPreferences));
+        String input = "PEPNSKNPTNTK";
+        int[] destination = new int[1];
+        Assert.assertTrue(compiledPattern.getIndexes(input, destination) == 2);
+        Assert.assertTrue(destination[0] == 4);
+        Assert.assertTrue(compiledPattern.matchesAt(input, 9));
+        Assert.assertTrue(!compiledPattern.matchesAt(input, 6));
+        Assert.assertTrue(!compiledPattern.matchesAt(input, 11));
+        Assert.assertTrue(compiledPattern.firstIndex(input.toCharArray(), 4) == 9);
+        // editing the pattern resets the compiled patterns
+        pattern.setExcluded(1, new ArrayList<>(Arrays.asList('S')));
+        Assert.assertTrue(pattern.getIndexes(input, sequenceMatchingPreferences).length == 1);
+        // patterns longer than 64 are scanned without the automaton
+        StringBuilder longSequence = new StringBuilder();
+        for (int i = 0; i < 70; i++) {
+            longSequence.append(i % 2 == 0 ? 'I' : 'K');
+        }
+        pattern = AminoAcidPattern.getAminoAcidPatternFromString(longSequence.toString().replace('I', 'L'));
+        Assert.assertTrue(pattern.firstIndex("PP" + longSequence, sequenceMatchingPreferences) == 2);
+        Assert.assertTrue(pattern.firstIndex("PP" + longSequence, SequenceMatchingParameters.DEFAULT_STRING_MATCHING) == -1);
+    }
 }
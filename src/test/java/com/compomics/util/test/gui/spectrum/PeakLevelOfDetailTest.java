@@ -0,0 +1,203 @@
+package com.compomics.util.test.gui.spectrum;
+
+import com.compomics.util.gui.interfaces.SpectrumAnnotation;
+import com.compomics.util.gui.spectrum.DefaultSpectrumAnnotation;
+import com.compomics.util.gui.spectrum.PeakLevelOfDetail;
+import com.compomics.util.gui.spectrum.SpectrumPanel;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+import junit.framework.TestCase;
+import org.junit.Assert;
+
+/**
+ * Tests the selection of the peaks to draw by the PeakLevelOfDetail.
+ *
+ * @author Marc Vaudel
+ */
+public class PeakLevelOfDetailTest extends TestCase {
+
+    /**
+     * The number of peaks in the test spectrum.
+     */
+    private static final int N_PEAKS = 65536;
+    /**
+     * The x-axis range covered by a pixel.
+     */
+    private static final double X_SCALE_UNIT = 256.0;
+
+    /**
+     * Tests that the lowest and highest peaks of every pixel column are kept
+     * when the spectrum is dense.
+     */
+    public void testIndexesToDraw() {
+
+        double[] xValues = getXValues();
+        double[] yValues = getYValues();
+
+        double xMin = xValues[0];
+        double xMax = xValues[N_PEAKS - 1];
+
+        PeakLevelOfDetail levelOfDetail = new PeakLevelOfDetail(xValues, yValues);
+        int[] indexes = levelOfDetail.getIndexesToDraw(xMin, xMax, X_SCALE_UNIT);
+
+        // brute force selection of the lowest and highest peak per pixel column
+        int nPixels = (int) ((xMax - xMin) / X_SCALE_UNIT) + 1;
+        int[] pixelMin = new int[nPixels];
+        int[] pixelMax = new int[nPixels];
+        Arrays.fill(pixelMin, -1);
+        Arrays.fill(pixelMax, -1);
+        int highestPeak = 0;
+
+        for (int i = 0; i < N_PEAKS; i++) {
+
+            int pixel = (int) ((xValues[i] - xMin) / X_SCALE_UNIT + 0.5);
+            pixel = Math.max(0, Math.min(pixel, nPixels - 1));
+
+            if (pixelMin[pixel] == -1 || yValues[i] < yValues[pixelMin[pixel]]) {
+                pixelMin[pixel] = i;
+            }
+
+            if (pixelMax[pixel] == -1 || yValues[i] > yValues[pixelMax[pixel]]) {
+                pixelMax[pixel] = i;
+            }
+
+            if (yValues[i] > yValues[highestPeak]) {
+                highestPeak = i;
+            }
+        }
+
+        TreeSet<Integer> expected = new TreeSet<>();
+
+        for (int pixel = 0; pixel < nPixels; pixel++) {
+            expected.add(pixelMin[pixel]);
+            expected.add(pixelMax[pixel]);
+        }
+
+        Assert.assertTrue(indexes.length < N_PEAKS);
+        Assert.assertEquals(expected.size(), indexes.length);
+
+        int i = 0;
+
+        for (int index : expected) {
+            Assert.assertEquals(index, indexes[i++]);
+        }
+
+        Assert.assertTrue(Arrays.binarySearch(indexes, highestPeak) >= 0);
+        Assert.assertEquals(highestPeak, levelOfDetail.getMaxIndex(0, N_PEAKS));
+
+        // a few peaks per pixel are all drawn
+        int[] zoomedIndexes = levelOfDetail.getIndexesToDraw(1000.0, 1099.0, X_SCALE_UNIT / 256);
+        Assert.assertEquals(100, zoomedIndexes.length);
+
+        for (i = 0; i < zoomedIndexes.length; i++) {
+            Assert.assertEquals(1000 + i, zoomedIndexes[i]);
+        }
+    }
+
+    /**
+     * Tests that the annotated peaks are drawn even if they are neither the
+     * lowest nor the highest of their pixel column.
+     */
+    public void testAnnotatedPeaksDrawn() {
+
+        double[] xValues = getXValues();
+        double[] yValues = getYValues();
+
+        // a peak of intermediate intensity in the middle of a pixel column
+        int annotatedIndex = 10 * (int) X_SCALE_UNIT + 7;
+        yValues[annotatedIndex] = 0.5;
+
+        TestSpectrumPanel spectrumPanel = new TestSpectrumPanel(xValues, yValues);
+
+        int[] levelOfDetailIndexes = new PeakLevelOfDetail(xValues, yValues).getIndexesToDraw(xValues[0], xValues[N_PEAKS - 1], X_SCALE_UNIT);
+        Assert.assertTrue(Arrays.binarySearch(levelOfDetailIndexes, annotatedIndex) < 0);
+
+        int[] indexes = spectrumPanel.getPeakIndexesToDraw();
+        Assert.assertTrue(Arrays.binarySearch(indexes, annotatedIndex) < 0);
+
+        ArrayList<SpectrumAnnotation> annotations = new ArrayList<>(1);
+        annotations.add(new DefaultSpectrumAnnotation(xValues[annotatedIndex], 0.1, Color.BLUE, "y1"));
+        spectrumPanel.setAnnotations(annotations);
+
+        int[] annotatedIndexes = spectrumPanel.getPeakIndexesToDraw();
+        Assert.assertEquals(indexes.length + 1, annotatedIndexes.length);
+        Assert.assertTrue(Arrays.binarySearch(annotatedIndexes, annotatedIndex) >= 0);
+
+        for (int index : indexes) {
+            Assert.assertTrue(Arrays.binarySearch(annotatedIndexes, index) >= 0);
+        }
+    }
+
+    /**
+     * Returns the x values of the test spectrum, one peak per unit.
+     *
+     * @return the x values of the test spectrum
+     */
+    private static double[] getXValues() {
+
+        double[] xValues = new double[N_PEAKS];
+
+        for (int i = 0; i < N_PEAKS; i++) {
+            xValues[i] = i;
+        }
+
+        return xValues;
+
+    }
+
+    /**
+     * Returns random y values for the test spectrum.
+     *
+     * @return random y values for the test spectrum
+     */
+    private static double[] getYValues() {
+
+        Random random = new Random(42);
+        double[] yValues = new double[N_PEAKS];
+
+        for (int i = 0; i < N_PEAKS; i++) {
+            yValues[i] = random.nextDouble();
+        }
+
+        return yValues;
+
+    }
+
+    /**
+     * Spectrum panel giving access to the peaks to draw for a fixed x-axis
+     * range and resolution.
+     */
+    private static class TestSpectrumPanel extends SpectrumPanel {
+
+        /**
+         * Constructor.
+         *
+         * @param xValues the x values
+         * @param yValues the y values
+         */
+        public TestSpectrumPanel(
+                double[] xValues,
+                double[] yValues
+        ) {
+
+            super(xValues, yValues, 0.0, "", "", 50, false, false, false);
+
+            iXAxisMin = xValues[0];
+            iXAxisMax = xValues[xValues.length - 1];
+            iXScaleUnit = X_SCALE_UNIT;
+
+        }
+
+        /**
+         * Returns the indexes of the peaks to draw.
+         *
+         * @return the indexes of the peaks to draw
+         */
+        public int[] getPeakIndexesToDraw() {
+            return getPeakIndexesToDraw(0, false);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.compomics.util.test.io;
+
+import com.compomics.util.io.export.ExportFormat;
+import com.compomics.util.io.export.ExportWriter;
+import com.compomics.util.io.export.styles.DefaultStyle;
+import com.compomics.util.io.export.writers.XlsxWriter;
+import java.io.File;
+import java.io.IOException;
+import junit.framework.TestCase;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+/**
+ * Test for the XlsxWriter.
+ *
+ * @author Marc Vaudel
+ */
+public class TestXlsxWriter extends TestCase {
+
+    /**
+     * Tests that a section exceeding the number of rows per sheet is continued
+     * on new sheets starting with the header.
+     *
+     * @throws IOException exception thrown if an error occurred while writing
+     * or reading the file
+     */
+    public void testSheetRollover() throws IOException {
+
+        File destinationFile = File.createTempFile("xlsxWriter", ".xlsx");
+
+        try {
+
+            XlsxWriter writer = new XlsxWriter(destinationFile, 10, 100);
+            writer.setWorkbookStyle(DefaultStyle.getStyle(writer));
+
+            writer.writeMainTitle("Report", null);
+            writer.startNewSection("Peptides");
+
+            writer.writeHeaderText("Sequence");
+            writer.addSeparator();
+            writer.writeHeaderText("Score");
+            writer.newLine();
+
+            for (int i = 0; i < 250; i++) {
+
+                writer.write("PEPTIDE" + i);
+                writer.addSeparator();
+
+                if (i % 2 == 0) {
+
+                    writer.increaseDepth();
+                    writer.write(Integer.toString(i));
+                    writer.decreaseDepth();
+
+                } else {
+
+                    writer.write(Integer.toString(i));
+
+                }
+
+                writer.newLine();
+
+            }
+
+            writer.close();
+
+            try (XSSFWorkbook workbook = new XSSFWorkbook(destinationFile)) {
+
+                assertEquals(4, workbook.getNumberOfSheets());
+                assertNotNull(workbook.getSheet("Peptides"));
+                assertNotNull(workbook.getSheet("Peptides (2)"));
+                assertNotNull(workbook.getSheet("Peptides (3)"));
+
+                int peptideI = 0;
+
+                for (int sheetI = 1; sheetI < workbook.getNumberOfSheets(); sheetI++) {
+
+                    Sheet sheet = workbook.getSheetAt(sheetI);
+                    assertTrue(sheet.getLastRowNum() < 100);
+
+                    Row header = sheet.getRow(0);
+                    assertEquals("Sequence", header.getCell(0).getStringCellValue());
+                    assertEquals("Score", header.getCell(1).getStringCellValue());
+
+                    for (int rowI = 1; rowI <= sheet.getLastRowNum(); rowI++) {
+
+                        Row row = sheet.getRow(rowI);
+                        assertEquals("PEPTIDE" + peptideI, row.getCell(0).getStringCellValue());
+                        assertEquals(CellType.NUMERIC, row.getCell(1).getCellType());
+                        assertEquals(peptideI, row.getCell(1).getNumericCellValue(), 0.0);
+                        peptideI++;
+
+                    }
+                }
+
+                assertEquals(250, peptideI);
+
+            } catch (org.apache.poi.openxml4j.exceptions.InvalidFormatException e) {
+
+                throw new IOException(e);
+
+            }
+
+        } finally {
+
+            destinationFile.delete();
+
+        }
+    }
+
+    /**
+     * Tests that the xlsx format is available from the export writer factory.
+     *
+     * @throws IOException exception thrown if an error occurred while creating
+     * the writer
+     */
+    public void testExportFormat() throws IOException {
+
+        File destinationFile = File.createTempFile("xlsxWriter", ".xlsx");
+
+        try {
+
+            ExportWriter exportWriter = ExportWriter.getExportWriter(ExportFormat.xlsx, destinationFile, "\t", 1, false);
+            assertTrue(exportWriter instanceof XlsxWriter);
+            assertEquals(ExportFormat.xlsx, ExportFormat.getFormatFromCommandLineOption("xlsx"));
+            exportWriter.startNewSection("Test");
+            exportWriter.write("test");
+            exportWriter.close();
+
+        } finally {
+
+            destinationFile.delete();
+
+        }
+    }
+}